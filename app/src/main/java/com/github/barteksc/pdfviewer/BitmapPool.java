@@ -0,0 +1,106 @@
+package com.github.barteksc.pdfviewer;
+
+import android.graphics.Bitmap;
+
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Pool of the bitmaps of the rendered parts, so the bitmaps of the parts evicted from the cache
+ * are reused to render new parts of the same size instead of allocating new ones.
+ * <p>
+ * The bitmaps are not cleared when reused, Pdfium fills the whole bitmap before rendering a part.
+ */
+class BitmapPool {
+
+    private final Map<Key, ArrayDeque<Bitmap>> bitmaps = new HashMap<>();
+
+    private final int maxSize;
+
+    private int size;
+
+    BitmapPool(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * Get a pooled bitmap of the given size and config, or a new one if there is none
+     */
+    Bitmap acquire(int width, int height, Bitmap.Config config) {
+        synchronized (bitmaps) {
+            ArrayDeque<Bitmap> pooled = bitmaps.get(new Key(width, height, config));
+            Bitmap bitmap = pooled != null ? pooled.poll() : null;
+            if (bitmap != null) {
+                size--;
+                return bitmap;
+            }
+        }
+        return Bitmap.createBitmap(width, height, config);
+    }
+
+    /**
+     * Return a bitmap which is not used anymore to the pool, or recycle it if the pool is full
+     */
+    void release(Bitmap bitmap) {
+        if (bitmap == null || bitmap.isRecycled()) {
+            return;
+        }
+        synchronized (bitmaps) {
+            if (size < maxSize && bitmap.isMutable()) {
+                Key key = new Key(bitmap.getWidth(), bitmap.getHeight(), bitmap.getConfig());
+                ArrayDeque<Bitmap> pooled = bitmaps.get(key);
+                if (pooled == null) {
+                    pooled = new ArrayDeque<>();
+                    bitmaps.put(key, pooled);
+                }
+                pooled.push(bitmap);
+                size++;
+                return;
+            }
+        }
+        bitmap.recycle();
+    }
+
+    /**
+     * Recycle all the pooled bitmaps
+     */
+    void clear() {
+        synchronized (bitmaps) {
+            for (ArrayDeque<Bitmap> pooled : bitmaps.values()) {
+                for (Bitmap bitmap : pooled) {
+                    bitmap.recycle();
+                }
+            }
+            bitmaps.clear();
+            size = 0;
+        }
+    }
+
+    private static final class Key {
+        private final int width;
+        private final int height;
+        private final Bitmap.Config config;
+
+        Key(int width, int height, Bitmap.Config config) {
+            this.width = width;
+            this.height = height;
+            this.config = config;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+            Key key = (Key) obj;
+            return key.width == width && key.height == height && key.config == config;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(width, height, config);
+        }
+    }
+}
@@ -41,7 +41,10 @@ class CacheManager {
 
     private final PagePartComparator orderComparator = new PagePartComparator();
 
-    public CacheManager() {
+    private final BitmapPool bitmapPool;
+
+    public CacheManager(BitmapPool bitmapPool) {
+        this.bitmapPool = bitmapPool;
         activeCache = new PriorityQueue<>(CACHE_SIZE, orderComparator);
         passiveCache = new PriorityQueue<>(CACHE_SIZE, orderComparator);
         thumbnails = new ArrayList<>();
@@ -69,12 +72,12 @@ class CacheManager {
             while ((activeCache.size() + passiveCache.size()) >= CACHE_SIZE &&
                     !passiveCache.isEmpty()) {
                 PagePart part = passiveCache.poll();
-                part.getRenderedBitmap().recycle();
+                bitmapPool.release(part.getRenderedBitmap());
             }
 
             while ((activeCache.size() + passiveCache.size()) >= CACHE_SIZE &&
                     !activeCache.isEmpty()) {
-                activeCache.poll().getRenderedBitmap().recycle();
+                bitmapPool.release(activeCache.poll().getRenderedBitmap());
             }
         }
     }
@@ -83,7 +86,7 @@ class CacheManager {
         synchronized (thumbnails) {
             // If cache too big, remove and recycle
             while (thumbnails.size() >= THUMBNAILS_CACHE_SIZE) {
-                thumbnails.remove(0).getRenderedBitmap().recycle();
+                bitmapPool.release(thumbnails.remove(0).getRenderedBitmap());
             }
 
             // Then add thumbnail
@@ -124,12 +127,12 @@ class CacheManager {
     }
 
     /**
-     * Add part if it doesn't exist, recycle bitmap otherwise
+     * Add part if it doesn't exist, release bitmap otherwise
      */
     private void addWithoutDuplicates(Collection<PagePart> collection, PagePart newPart) {
         for (PagePart part : collection) {
             if (part.equals(newPart)) {
-                newPart.getRenderedBitmap().recycle();
+                bitmapPool.release(newPart.getRenderedBitmap());
                 return;
             }
         }
@@ -58,6 +58,7 @@ import com.github.barteksc.pdfviewer.listener.OnPageChangeListener;
 import com.github.barteksc.pdfviewer.listener.OnPageErrorListener;
 import com.github.barteksc.pdfviewer.listener.OnPageScrollListener;
 import com.github.barteksc.pdfviewer.listener.OnRenderListener;
+import com.github.barteksc.pdfviewer.listener.OnRenderingStatsListener;
 import com.github.barteksc.pdfviewer.listener.OnTapListener;
 import com.github.barteksc.pdfviewer.model.PagePart;
 import com.github.barteksc.pdfviewer.scroll.ScrollHandle;
@@ -87,6 +88,7 @@ import java.util.concurrent.Executors;
 
 import mega.privacy.android.app.R;
 import mega.privacy.android.app.presentation.pdfviewer.PdfViewerActivity;
+import mega.privacy.android.app.utils.CacheFolderManager;
 import timber.log.Timber;
 
 /**
@@ -135,6 +137,12 @@ public class PDFView extends RelativeLayout {
     /** Rendered parts go to the cache manager */
     CacheManager cacheManager;
 
+    /** Bitmaps of the evicted parts, reused to render new parts */
+    BitmapPool bitmapPool;
+
+    /** Thumbnails of the pages of the document kept on disk, null if the source has no fingerprint */
+    ThumbnailDiskCache thumbnailDiskCache;
+
     /** Animation manager manage all offset and zoom animation */
     private AnimationManager animationManager;
 
@@ -250,7 +258,8 @@ public class PDFView extends RelativeLayout {
             return;
         }
 
-        cacheManager = new CacheManager();
+        bitmapPool = new BitmapPool(Constants.Cache.BITMAP_POOL_SIZE);
+        cacheManager = new CacheManager(bitmapPool);
         animationManager = new AnimationManager(this);
         dragPinchManager = new DragPinchManager(this, animationManager);
         pagesLoader = new PagesLoader(this);
@@ -290,6 +299,7 @@ public class PDFView extends RelativeLayout {
                     PdfDocument pdfDocument = docSource.createDocument(pdfView.getContext(), pdfiumCore, password);
                     pdfFile = new PdfFile(pdfiumCore, pdfDocument, pdfView.getPageFitPolicy(), getViewSize(pdfView),
                             userPages, pdfView.isSwipeVertical(), pdfView.getSpacingPx());
+                    thumbnailDiskCache = createThumbnailDiskCache(docSource.getFingerprint(), password);
                 } catch (Throwable t) {
                     error = t;
                 }
@@ -310,6 +320,15 @@ public class PDFView extends RelativeLayout {
         }
     }
 
+    private ThumbnailDiskCache createThumbnailDiskCache(String fingerprint, String password) {
+        if (fingerprint == null) {
+            return null;
+        }
+        return ThumbnailDiskCache.create(
+                CacheFolderManager.getCacheFolder(CacheFolderManager.PDF_THUMBNAIL_FOLDER),
+                fingerprint, password, Constants.Cache.THUMBNAILS_DISK_CACHE_SIZE);
+    }
+
     private Size getViewSize(PDFView pdfView) {
         return new Size(pdfView.getWidth(), pdfView.getHeight());
     }
@@ -436,7 +455,10 @@ public class PDFView extends RelativeLayout {
         // Stop tasks
         if (renderingHandler != null) {
             renderingHandler.stop();
+            callbacks.callOnRenderingStats(renderingHandler.getRenderedParts(),
+                    renderingHandler.getPartsPerSecond(), renderingHandler.getDroppedTasks());
             renderingHandler.removeMessages(RenderingHandler.MSG_RENDER_TASK);
+            renderingHandler.removeMessages(RenderingHandler.MSG_PRERENDER);
         }
         if (decodingExecutorService != null) {
             decodingExecutorService.shutdownNow();
@@ -444,6 +466,7 @@ public class PDFView extends RelativeLayout {
 
         // Clear caches
         cacheManager.recycle();
+        bitmapPool.clear();
 
         if (scrollHandle != null && isScrollHandleInit) {
             scrollHandle.destroyLayout();
@@ -455,6 +478,7 @@ public class PDFView extends RelativeLayout {
         }
 
         renderingHandler = null;
+        thumbnailDiskCache = null;
         scrollHandle = null;
         isScrollHandleInit = false;
         currentXOffset = currentYOffset = 0;
@@ -715,11 +739,12 @@ public class PDFView extends RelativeLayout {
             return;
         }
 
-        // Cancel all current tasks
-        renderingHandler.removeMessages(RenderingHandler.MSG_RENDER_TASK);
+        // Cancel the tasks of the parts which are not loaded again
+        renderingHandler.newGeneration();
         cacheManager.makeANewSet();
 
         pagesLoader.loadPages();
+        renderingHandler.prerenderThumbnails(getCurrentPage());
         redraw();
     }
 
@@ -1280,6 +1305,8 @@ public class PDFView extends RelativeLayout {
 
         private OnRenderListener onRenderListener;
 
+        private OnRenderingStatsListener onRenderingStatsListener;
+
         private OnTapListener onTapListener;
 
         private OnPageErrorListener onPageErrorListener;
@@ -1366,6 +1393,11 @@ public class PDFView extends RelativeLayout {
             return this;
         }
 
+        public Configurator onRenderingStats(OnRenderingStatsListener onRenderingStatsListener) {
+            this.onRenderingStatsListener = onRenderingStatsListener;
+            return this;
+        }
+
         public Configurator onTap(OnTapListener onTapListener) {
             this.onTapListener = onTapListener;
             return this;
@@ -1420,6 +1452,7 @@ public class PDFView extends RelativeLayout {
             PDFView.this.callbacks.setOnPageChange(onPageChangeListener);
             PDFView.this.callbacks.setOnPageScroll(onPageScrollListener);
             PDFView.this.callbacks.setOnRender(onRenderListener);
+            PDFView.this.callbacks.setOnRenderingStats(onRenderingStatsListener);
             PDFView.this.callbacks.setOnTap(onTapListener);
             PDFView.this.callbacks.setOnPageError(onPageErrorListener);
             PDFView.this.callbacks.setLinkHandler(linkHandler);
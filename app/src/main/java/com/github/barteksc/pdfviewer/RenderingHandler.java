@@ -16,22 +16,41 @@
 package com.github.barteksc.pdfviewer;
 
 import android.graphics.Bitmap;
-import android.graphics.Color;
 import android.graphics.Matrix;
 import android.graphics.Rect;
 import android.graphics.RectF;
 import android.os.Handler;
 import android.os.Looper;
 import android.os.Message;
+import android.os.SystemClock;
 import android.util.Log;
 
 import com.github.barteksc.pdfviewer.exception.PageRenderingException;
 import com.github.barteksc.pdfviewer.model.PagePart;
+import com.github.barteksc.pdfviewer.util.Constants;
+import com.shockwave.pdfium.util.SizeF;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import timber.log.Timber;
 
 /**
  * A {@link Handler} that will process incoming {@link RenderingTask} messages
  * and alert {@link PDFView#onBitmapRendered(PagePart)} when the portion of the
  * PDF is ready to render.
+ * <p>
+ * Every time the pages are loaded a new generation starts. The tasks of the parts which are still
+ * in the loaded window are kept in the queue and moved to the new generation, and the tasks of the
+ * parts which are out of it are dropped instead of rendered. The bitmaps are taken from the
+ * {@link BitmapPool} of the view. Pdfium keeps process wide state and the binding serializes every
+ * native call, so the parts are rendered one at a time.
+ * <p>
+ * The thumbnails are read from the {@link ThumbnailDiskCache} of the view when it has them, and
+ * written to it when rendered. When there are no tasks in the queue, the thumbnails of the pages
+ * around the current one are rendered ahead to the disk cache, one per message, so a fast scroll
+ * shows them without waiting for Pdfium.
  */
 class RenderingHandler extends Handler {
     /**
@@ -39,6 +58,14 @@ class RenderingHandler extends Handler {
      */
     static final int MSG_RENDER_TASK = 1;
 
+    /**
+     * {@link Message#what} of the message rendering the next thumbnail ahead, with the current
+     * page as {@link Message#arg1} and the step as {@link Message#arg2}
+     */
+    static final int MSG_PRERENDER = 2;
+
+    private static final RectF THUMBNAIL_BOUNDS = new RectF(0, 0, 1, 1);
+
     private static final String TAG = RenderingHandler.class.getName();
 
     private PDFView pdfView;
@@ -48,6 +75,14 @@ class RenderingHandler extends Handler {
     private Matrix renderMatrix = new Matrix();
     private boolean running = false;
 
+    /** Tasks in the queue, to move them to the new generation instead of adding them again */
+    private final Map<RenderingTask, RenderingTask> pendingTasks = new HashMap<>();
+    private int generation;
+
+    private int renderedParts;
+    private int droppedTasks;
+    private long renderingNanos;
+
     RenderingHandler(Looper looper, PDFView pdfView) {
         super(looper);
         this.pdfView = pdfView;
@@ -55,13 +90,53 @@ class RenderingHandler extends Handler {
 
     void addRenderingTask(int page, float width, float height, RectF bounds, boolean thumbnail, int cacheOrder, boolean bestQuality, boolean annotationRendering) {
         RenderingTask task = new RenderingTask(width, height, bounds, page, thumbnail, cacheOrder, bestQuality, annotationRendering);
+        synchronized (pendingTasks) {
+            RenderingTask pending = pendingTasks.get(task);
+            if (pending != null) {
+                pending.generation = generation;
+                pending.cacheOrder = cacheOrder;
+                return;
+            }
+            task.generation = generation;
+            pendingTasks.put(task, task);
+        }
         Message msg = obtainMessage(MSG_RENDER_TASK, task);
         sendMessage(msg);
     }
 
+    /**
+     * Start a new generation, the pending tasks which are not added again before they are
+     * processed are dropped
+     */
+    void newGeneration() {
+        synchronized (pendingTasks) {
+            generation++;
+        }
+    }
+
+    /**
+     * Render ahead the thumbnails of the pages around the given one, replacing the pages
+     * previously requested
+     */
+    void prerenderThumbnails(int page) {
+        removeMessages(MSG_PRERENDER);
+        sendMessage(obtainMessage(MSG_PRERENDER, page, 0));
+    }
+
     @Override
     public void handleMessage(Message message) {
+        if (message.what == MSG_PRERENDER) {
+            prerender(message.arg1, message.arg2);
+            return;
+        }
         RenderingTask task = (RenderingTask) message.obj;
+        synchronized (pendingTasks) {
+            pendingTasks.remove(task);
+            if (task.generation != generation) {
+                droppedTasks++;
+                return;
+            }
+        }
         try {
             final PagePart part = proceed(task);
             if (part != null) {
@@ -73,7 +148,7 @@ class RenderingHandler extends Handler {
                         }
                     });
                 } else {
-                    part.getRenderedBitmap().recycle();
+                    pdfView.bitmapPool.release(part.getRenderedBitmap());
                 }
             }
         } catch (final PageRenderingException ex) {
@@ -97,20 +172,103 @@ class RenderingHandler extends Handler {
             return null;
         }
 
+        Bitmap.Config config = renderingTask.bestQuality ? Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565;
+        ThumbnailDiskCache diskCache = pdfView.thumbnailDiskCache;
+        int documentPage = pdfFile.documentPage(renderingTask.page);
+        if (renderingTask.thumbnail && diskCache != null) {
+            Bitmap cached = diskCache.get(documentPage, w, renderingTask.annotationRendering, config);
+            if (cached != null) {
+                return new PagePart(renderingTask.page, cached,
+                        renderingTask.bounds, true,
+                        renderingTask.cacheOrder);
+            }
+        }
+
+        Bitmap render = render(pdfFile, renderingTask.page, w, h, config, renderingTask.bounds,
+                renderingTask.annotationRendering);
+        if (render == null) {
+            return null;
+        }
+        if (renderingTask.thumbnail && diskCache != null) {
+            diskCache.put(documentPage, w, renderingTask.annotationRendering, render);
+        }
+
+        return new PagePart(renderingTask.page, render,
+                renderingTask.bounds, renderingTask.thumbnail,
+                renderingTask.cacheOrder);
+    }
+
+    private Bitmap render(PdfFile pdfFile, int page, int w, int h, Bitmap.Config config,
+                          RectF bounds, boolean annotationRendering) {
+        long start = SystemClock.elapsedRealtimeNanos();
         Bitmap render;
         try {
-            render = Bitmap.createBitmap(w, h, renderingTask.bestQuality ? Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565);
+            render = pdfView.bitmapPool.acquire(w, h, config);
         } catch (IllegalArgumentException e) {
             Log.e(TAG, "Cannot create bitmap", e);
             return null;
         }
-        calculateBounds(w, h, renderingTask.bounds);
+        calculateBounds(w, h, bounds);
 
-        pdfFile.renderPageBitmap(render, renderingTask.page, roundedRenderBounds, renderingTask.annotationRendering);
+        pdfFile.renderPageBitmap(render, page, roundedRenderBounds, annotationRendering);
+        synchronized (pendingTasks) {
+            renderedParts++;
+            renderingNanos += SystemClock.elapsedRealtimeNanos() - start;
+        }
+        return render;
+    }
 
-        return new PagePart(renderingTask.page, render,
-                renderingTask.bounds, renderingTask.thumbnail,
-                renderingTask.cacheOrder);
+    /**
+     * Render to the disk cache the first thumbnail not cached yet, visiting the pages from the
+     * current one outwards: page, page + 1, page - 1, page + 2... The next thumbnail is rendered
+     * by a new message, so the render tasks added meanwhile go first.
+     */
+    private void prerender(int currentPage, int step) {
+        PdfFile pdfFile = pdfView.pdfFile;
+        ThumbnailDiskCache diskCache = pdfView.thumbnailDiskCache;
+        if (!running || pdfFile == null || diskCache == null) {
+            return;
+        }
+        synchronized (pendingTasks) {
+            if (!pendingTasks.isEmpty()) {
+                // Waits behind the tasks of the visible parts
+                sendMessage(obtainMessage(MSG_PRERENDER, currentPage, step));
+                return;
+            }
+        }
+
+        boolean annotationRendering = pdfView.isAnnotationRendering();
+        Bitmap.Config config = pdfView.isBestQuality() ? Bitmap.Config.ARGB_8888 : Bitmap.Config.RGB_565;
+        int lastStep = 2 * Constants.Cache.THUMBNAILS_PRERENDER_PAGES;
+        for (; step <= lastStep; step++) {
+            int page = currentPage + (step % 2 == 1 ? (step + 1) / 2 : -step / 2);
+            if (page < 0 || page >= pdfFile.getPagesCount()) {
+                continue;
+            }
+            SizeF pageSize = pdfFile.getPageSize(page);
+            int w = Math.round(pageSize.getWidth() * Constants.THUMBNAIL_RATIO);
+            int h = Math.round(pageSize.getHeight() * Constants.THUMBNAIL_RATIO);
+            int documentPage = pdfFile.documentPage(page);
+            if (w == 0 || h == 0 || diskCache.contains(documentPage, w, annotationRendering)) {
+                continue;
+            }
+
+            try {
+                pdfFile.openPage(page);
+            } catch (PageRenderingException e) {
+                continue;
+            }
+            if (pdfFile.pageHasError(page)) {
+                continue;
+            }
+            Bitmap render = render(pdfFile, page, w, h, config, THUMBNAIL_BOUNDS, annotationRendering);
+            if (render != null) {
+                diskCache.put(documentPage, w, annotationRendering, render);
+                pdfView.bitmapPool.release(render);
+            }
+            sendMessage(obtainMessage(MSG_PRERENDER, currentPage, step + 1));
+            return;
+        }
     }
 
     private void calculateBounds(int width, int height, RectF pageSliceBounds) {
@@ -125,6 +283,39 @@ class RenderingHandler extends Handler {
 
     void stop() {
         running = false;
+        synchronized (pendingTasks) {
+            droppedTasks += pendingTasks.size();
+            pendingTasks.clear();
+            Timber.d("PDF rendering: %d parts, %.1f parts/s, %d tasks dropped",
+                    renderedParts, getPartsPerSecond(), droppedTasks);
+        }
+    }
+
+    /**
+     * Get the number of parts rendered
+     */
+    int getRenderedParts() {
+        synchronized (pendingTasks) {
+            return renderedParts;
+        }
+    }
+
+    /**
+     * Get the number of parts rendered per second of rendering
+     */
+    float getPartsPerSecond() {
+        synchronized (pendingTasks) {
+            return renderingNanos > 0 ? renderedParts * 1e9f / renderingNanos : 0f;
+        }
+    }
+
+    /**
+     * Get the number of tasks dropped because their parts were out of the loaded window
+     */
+    int getDroppedTasks() {
+        synchronized (pendingTasks) {
+            return droppedTasks;
+        }
     }
 
     void start() {
@@ -147,6 +338,8 @@ class RenderingHandler extends Handler {
 
         boolean annotationRendering;
 
+        int generation;
+
         RenderingTask(float width, float height, RectF bounds, int page, boolean thumbnail, int cacheOrder, boolean bestQuality, boolean annotationRendering) {
             this.page = page;
             this.width = width;
@@ -157,5 +350,25 @@ class RenderingHandler extends Handler {
             this.bestQuality = bestQuality;
             this.annotationRendering = annotationRendering;
         }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof RenderingTask)) {
+                return false;
+            }
+            RenderingTask task = (RenderingTask) obj;
+            return task.page == page
+                    && task.thumbnail == thumbnail
+                    && task.width == width
+                    && task.height == height
+                    && task.bestQuality == bestQuality
+                    && task.annotationRendering == annotationRendering
+                    && task.bounds.equals(bounds);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(page, thumbnail, width, height, bestQuality, annotationRendering, bounds);
+        }
     }
 }
@@ -0,0 +1,149 @@
+package com.github.barteksc.pdfviewer;
+
+import android.graphics.Bitmap;
+import android.graphics.BitmapFactory;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Arrays;
+import java.util.Comparator;
+
+import timber.log.Timber;
+
+/**
+ * Size bounded cache on disk of the rendered thumbnails of the pages of a document, so reopening
+ * the document or scrolling fast shows the pages without rendering them again.
+ * <p>
+ * The thumbnails are keyed by the fingerprint of the document, the page in the document and the
+ * bucket of their width, which depends on the size of the view. The files of all the documents
+ * share the folder, and the least recently used ones are deleted when it grows over the limit.
+ * It is only used from the rendering thread, and never for the documents protected by a password.
+ */
+class ThumbnailDiskCache {
+
+    /** Widths in the same bucket share the thumbnail, it is scaled when drawn */
+    static final int BUCKET_SIZE = 128;
+
+    private static final int JPEG_QUALITY = 85;
+
+    private final File folder;
+
+    private final String fingerprint;
+
+    private final long maxBytes;
+
+    /** Bytes used by the folder, scanned on the first write */
+    private long size = -1;
+
+    ThumbnailDiskCache(File folder, String fingerprint, long maxBytes) {
+        this.folder = folder;
+        this.fingerprint = fingerprint;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Create the cache of the thumbnails of a document
+     *
+     * @return null if the thumbnails of the document must not be cached on disk: it has no
+     * fingerprint, there is no cache folder, or it is protected by a password, as the thumbnails
+     * are written unencrypted and would outlive the document being closed
+     */
+    static ThumbnailDiskCache create(File folder, String fingerprint, String password,
+                                     long maxBytes) {
+        if (folder == null || fingerprint == null || password != null) {
+            return null;
+        }
+        return new ThumbnailDiskCache(folder, fingerprint, maxBytes);
+    }
+
+    /**
+     * Get the cached thumbnail of a page, or null if it is not cached
+     */
+    Bitmap get(int documentPage, int width, boolean annotationRendering, Bitmap.Config config) {
+        File file = getFile(documentPage, width, annotationRendering);
+        if (!file.exists()) {
+            return null;
+        }
+        BitmapFactory.Options options = new BitmapFactory.Options();
+        options.inPreferredConfig = config;
+        options.inMutable = true;
+        Bitmap bitmap = BitmapFactory.decodeFile(file.getPath(), options);
+        if (bitmap == null) {
+            Timber.w("Deleting unreadable thumbnail %s", file.getName());
+            delete(file);
+            return null;
+        }
+        // Keeps the recently used thumbnails when trimming
+        file.setLastModified(System.currentTimeMillis());
+        return bitmap;
+    }
+
+    boolean contains(int documentPage, int width, boolean annotationRendering) {
+        return getFile(documentPage, width, annotationRendering).exists();
+    }
+
+    /**
+     * Write the thumbnail of a page, deleting the least recently used thumbnails if the cache is
+     * full
+     */
+    void put(int documentPage, int width, boolean annotationRendering, Bitmap bitmap) {
+        File file = getFile(documentPage, width, annotationRendering);
+        File tmpFile = new File(folder, file.getName() + ".tmp");
+        try (OutputStream out = new FileOutputStream(tmpFile)) {
+            bitmap.compress(Bitmap.CompressFormat.JPEG, JPEG_QUALITY, out);
+        } catch (IOException e) {
+            Timber.w(e, "Cannot write thumbnail %s", file.getName());
+            tmpFile.delete();
+            return;
+        }
+        long previousLength = file.length();
+        if (!tmpFile.renameTo(file)) {
+            tmpFile.delete();
+            return;
+        }
+        if (size >= 0) {
+            size += file.length() - previousLength;
+        }
+        trim();
+    }
+
+    private void trim() {
+        if (size < 0) {
+            size = 0;
+            File[] files = folder.listFiles();
+            if (files != null) {
+                for (File file : files) {
+                    size += file.length();
+                }
+            }
+        }
+        if (size <= maxBytes) {
+            return;
+        }
+
+        File[] files = folder.listFiles();
+        if (files == null) {
+            return;
+        }
+        Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+        // Trims to 90% of the limit, not to trim again on every write
+        long target = maxBytes - maxBytes / 10;
+        for (int i = 0; i < files.length && size > target; i++) {
+            delete(files[i]);
+        }
+    }
+
+    private void delete(File file) {
+        long length = file.length();
+        if (file.delete() && size >= 0) {
+            size -= length;
+        }
+    }
+
+    private File getFile(int documentPage, int width, boolean annotationRendering) {
+        return new File(folder, fingerprint + "_" + documentPage + "_" + width / BUCKET_SIZE
+                + (annotationRendering ? "_a" : "") + ".jpg");
+    }
+}
@@ -42,6 +42,11 @@ public class Callbacks {
      */
     private OnRenderListener onRenderListener;
 
+    /**
+     * Call back object to call with the rendering stats when the document is closed
+     */
+    private OnRenderingStatsListener onRenderingStatsListener;
+
     /**
      * Call back object to call when the page has changed
      */
@@ -109,6 +114,16 @@ public class Callbacks {
         }
     }
 
+    public void setOnRenderingStats(OnRenderingStatsListener onRenderingStatsListener) {
+        this.onRenderingStatsListener = onRenderingStatsListener;
+    }
+
+    public void callOnRenderingStats(int renderedParts, float partsPerSecond, int droppedTasks) {
+        if (onRenderingStatsListener != null) {
+            onRenderingStatsListener.onRenderingStats(renderedParts, partsPerSecond, droppedTasks);
+        }
+    }
+
     public void setOnPageChange(OnPageChangeListener onPageChangeListener) {
         this.onPageChangeListener = onPageChangeListener;
     }
@@ -0,0 +1,27 @@
+/**
+ * Copyright 2017 Bartosz Schiller
+ * <p>
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ * <p>
+ * http://www.apache.org/licenses/LICENSE-2.0
+ * <p>
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.github.barteksc.pdfviewer.listener;
+
+public interface OnRenderingStatsListener {
+
+    /**
+     * Called when the document is closed, with the rendering stats of the document
+     * @param renderedParts number of parts rendered
+     * @param partsPerSecond number of parts rendered per second of rendering
+     * @param droppedTasks number of tasks dropped because their parts were out of the loaded window
+     */
+    void onRenderingStats(int renderedParts, float partsPerSecond, int droppedTasks);
+}
@@ -0,0 +1,89 @@
+package com.github.barteksc.pdfviewer.source;
+
+import android.os.ParcelFileDescriptor;
+import android.system.ErrnoException;
+import android.system.Os;
+
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+import timber.log.Timber;
+
+/**
+ * Fingerprint of the content of a document, to cache what is rendered from it.
+ * <p>
+ * It is a hash of the size, the first and the last bytes of the document. The end of a PDF has
+ * its trailer, with the identifier of the document and the position of the cross-reference table,
+ * so two different documents with the same size and beginning have different fingerprints.
+ */
+final class DocumentFingerprint {
+    static final int SAMPLE_SIZE = 64 * 1024;
+
+    interface Reader {
+        int read(long offset, int length, byte[] data) throws IOException;
+    }
+
+    private DocumentFingerprint() {
+    }
+
+    static String of(long size, Reader reader) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IOException(e);
+        }
+        digest.update(Long.toString(size).getBytes());
+        byte[] sample = new byte[(int) Math.min(size, SAMPLE_SIZE)];
+        digest.update(sample, 0, readFully(reader, 0, sample));
+        digest.update(sample, 0, readFully(reader, size - sample.length, sample));
+
+        StringBuilder fingerprint = new StringBuilder();
+        for (byte b : digest.digest()) {
+            fingerprint.append(String.format("%02x", b));
+        }
+        return fingerprint.toString();
+    }
+
+    /**
+     * Get the fingerprint of a document opened from a file descriptor, or null if it can't be
+     * read at random positions
+     */
+    static String of(ParcelFileDescriptor pfd) {
+        try {
+            long size = pfd.getStatSize();
+            if (size < 0) {
+                return null;
+            }
+            return of(size, (offset, length, data) -> {
+                try {
+                    return Os.pread(pfd.getFileDescriptor(), data, 0, length, offset);
+                } catch (ErrnoException e) {
+                    throw new IOException(e);
+                }
+            });
+        } catch (IOException e) {
+            Timber.w(e, "Cannot get the fingerprint of the document");
+            return null;
+        }
+    }
+
+    private static int readFully(Reader reader, long offset, byte[] data) throws IOException {
+        byte[] chunk = data;
+        int read = 0;
+        while (read < data.length) {
+            int count = reader.read(offset + read, data.length - read, chunk);
+            if (count <= 0) {
+                break;
+            }
+            if (chunk != data) {
+                System.arraycopy(chunk, 0, data, read, count);
+            }
+            read += count;
+            // Short reads are completed in a scratch buffer, as readers fill from index 0
+            chunk = new byte[data.length - read];
+        }
+        return read;
+    }
+}
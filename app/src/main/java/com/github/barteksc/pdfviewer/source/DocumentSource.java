@@ -24,4 +24,12 @@ import java.io.IOException;
 
 public interface DocumentSource {
     PdfDocument createDocument(Context context, PdfiumCore core, String password) throws IOException;
+
+    /**
+     * Get the fingerprint of the content of the document, available once it is created, to cache
+     * what is rendered from it across openings. Null if the source can't provide it.
+     */
+    default String getFingerprint() {
+        return null;
+    }
 }
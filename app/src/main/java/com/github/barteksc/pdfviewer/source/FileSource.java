@@ -27,6 +27,7 @@ import java.io.IOException;
 public class FileSource implements DocumentSource {
 
     private File file;
+    private String fingerprint;
 
     public FileSource(File file) {
         this.file = file;
@@ -35,6 +36,12 @@ public class FileSource implements DocumentSource {
     @Override
     public PdfDocument createDocument(Context context, PdfiumCore core, String password) throws IOException {
         ParcelFileDescriptor pfd = ParcelFileDescriptor.open(file, ParcelFileDescriptor.MODE_READ_ONLY);
+        fingerprint = DocumentFingerprint.of(pfd);
         return core.newDocument(pfd, password);
     }
+
+    @Override
+    public String getFingerprint() {
+        return fingerprint;
+    }
 }
@@ -0,0 +1,122 @@
+package com.github.barteksc.pdfviewer.source;
+
+import android.content.Context;
+import android.os.Handler;
+import android.os.HandlerThread;
+import android.os.ParcelFileDescriptor;
+import android.os.ProxyFileDescriptorCallback;
+import android.os.storage.StorageManager;
+import android.system.ErrnoException;
+import android.system.OsConstants;
+
+import com.shockwave.pdfium.PdfDocument;
+import com.shockwave.pdfium.PdfiumCore;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URL;
+
+import mega.privacy.android.app.utils.CacheFolderManager;
+import timber.log.Timber;
+
+/**
+ * Source of a document served over HTTP, such as the local link of a node from the SDK HTTP server.
+ * <p>
+ * The document is opened through a proxy file descriptor whose reads are served from a
+ * {@link SparseRangeFile}, so Pdfium only downloads the bytes it reads. The first page is shown
+ * once the header, the cross-reference table and the objects of the page are downloaded, instead
+ * of the whole document, and the memory used doesn't depend on the size of the document.
+ */
+public class HttpRangeSource implements DocumentSource {
+
+    private final String url;
+    private String fingerprint;
+
+    public HttpRangeSource(String url) {
+        this.url = url;
+    }
+
+    @Override
+    public PdfDocument createDocument(Context context, PdfiumCore core, String password)
+            throws IOException {
+        File tmpFolder = CacheFolderManager
+                .getCacheFolder(CacheFolderManager.TEMPORARY_FOLDER);
+        if (tmpFolder == null) {
+            throw new IOException("Temporary folder not available");
+        }
+
+        SparseRangeFile rangeFile =
+                new SparseRangeFile(new URL(url), File.createTempFile("pdf", ".part", tmpFolder));
+        HandlerThread thread = new HandlerThread("PDF range source");
+        thread.start();
+        ParcelFileDescriptor pfd;
+        try {
+            // Fails fast if the document can't be fetched. The header and the trailer read for
+            // the fingerprint are read by Pdfium first anyway.
+            fingerprint = DocumentFingerprint.of(rangeFile.getSize(), rangeFile::read);
+            pfd = context.getSystemService(StorageManager.class).openProxyFileDescriptor(
+                    ParcelFileDescriptor.MODE_READ_ONLY,
+                    new RangeFileCallback(rangeFile, thread),
+                    new Handler(thread.getLooper())
+            );
+        } catch (IOException | RuntimeException e) {
+            rangeFile.close();
+            thread.quitSafely();
+            throw e;
+        }
+
+        try {
+            return core.newDocument(pfd, password);
+        } catch (Exception e) {
+            // Releases the range file
+            pfd.close();
+            throw e;
+        }
+    }
+
+    @Override
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    private static final class RangeFileCallback extends ProxyFileDescriptorCallback {
+        private final SparseRangeFile rangeFile;
+        private final HandlerThread thread;
+
+        RangeFileCallback(SparseRangeFile rangeFile, HandlerThread thread) {
+            this.rangeFile = rangeFile;
+            this.thread = thread;
+        }
+
+        @Override
+        public long onGetSize() throws ErrnoException {
+            try {
+                return rangeFile.getSize();
+            } catch (IOException e) {
+                Timber.w(e, "Failed to get the size of the PDF");
+                throw new ErrnoException("onGetSize", OsConstants.EIO);
+            }
+        }
+
+        @Override
+        public int onRead(long offset, int size, byte[] data) throws ErrnoException {
+            try {
+                return rangeFile.read(offset, size, data);
+            } catch (IOException e) {
+                Timber.w(e, "Failed to read the PDF at %d", offset);
+                throw new ErrnoException("onRead", OsConstants.EIO);
+            }
+        }
+
+        @Override
+        public void onRelease() {
+            Timber.d("PDF released after %d range requests", rangeFile.getFetchCount());
+            try {
+                rangeFile.close();
+            } catch (IOException e) {
+                Timber.w(e, "Failed to close the PDF range file");
+            }
+            thread.quitSafely();
+        }
+    }
+}
@@ -0,0 +1,186 @@
+package com.github.barteksc.pdfviewer.source;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.BitSet;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Local copy of a remote file which is filled on demand with the byte ranges that are read.
+ * <p>
+ * The file is fetched in blocks of {@link #BLOCK_SIZE} bytes with HTTP range requests and the
+ * blocks are written at their position of a sparse cache file, so only the parts of the file which
+ * are read are downloaded and the memory used doesn't depend on the size of the file. If the
+ * server doesn't support range requests, the whole file is copied by the first request.
+ */
+final class SparseRangeFile implements Closeable {
+    static final int BLOCK_SIZE = 64 * 1024;
+    static final int MIN_FETCH_BLOCKS = 4;
+
+    private static final int TIMEOUT_MILLIS = 30_000;
+    private static final Pattern CONTENT_RANGE = Pattern.compile("bytes (\\d+)-(\\d+)/(\\d+)");
+
+    private final URL url;
+    private final File file;
+    private final RandomAccessFile randomAccessFile;
+    private final FileChannel channel;
+    private final BitSet fetchedBlocks = new BitSet();
+    private final byte[] copyBuffer = new byte[BLOCK_SIZE];
+    private long size = -1;
+    private int fetchCount;
+
+    SparseRangeFile(URL url, File file) throws IOException {
+        this.url = url;
+        this.file = file;
+        randomAccessFile = new RandomAccessFile(file, "rw");
+        channel = randomAccessFile.getChannel();
+    }
+
+    /**
+     * Get the size of the remote file, fetching its first blocks if it is not known yet
+     */
+    synchronized long getSize() throws IOException {
+        if (size < 0) {
+            fetch(0, (long) BLOCK_SIZE * MIN_FETCH_BLOCKS - 1);
+        }
+        return size;
+    }
+
+    /**
+     * Get the number of requests made to fetch the file
+     */
+    synchronized int getFetchCount() {
+        return fetchCount;
+    }
+
+    /**
+     * Read bytes of the file, fetching the blocks which were not fetched yet
+     *
+     * @param offset position of the first byte to read
+     * @param length number of bytes to read
+     * @param data   array where the bytes are read
+     * @return the number of bytes read, fewer than length at the end of the file
+     */
+    synchronized int read(long offset, int length, byte[] data) throws IOException {
+        long size = getSize();
+        if (offset >= size || length <= 0) {
+            return 0;
+        }
+        int count = (int) Math.min(length, size - offset);
+        ensureFetched(offset, offset + count);
+        ByteBuffer buffer = ByteBuffer.wrap(data, 0, count);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, offset + buffer.position()) < 0) {
+                break;
+            }
+        }
+        return buffer.position();
+    }
+
+    /**
+     * Close the cache file and delete it
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        try {
+            randomAccessFile.close();
+        } finally {
+            //noinspection ResultOfMethodCallIgnored
+            file.delete();
+        }
+    }
+
+    private void ensureFetched(long start, long end) throws IOException {
+        int lastBlock = (int) ((end - 1) / BLOCK_SIZE);
+        int blockCount = (int) ((size + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        int block = fetchedBlocks.nextClearBit((int) (start / BLOCK_SIZE));
+        while (block <= lastBlock) {
+            int nextFetched = fetchedBlocks.nextSetBit(block);
+            // Fetch a few blocks ahead for the sequential reads, up to the next fetched block
+            int endBlock = Math.max(lastBlock + 1, block + MIN_FETCH_BLOCKS);
+            endBlock = Math.min(endBlock, nextFetched < 0 ? blockCount : nextFetched);
+            endBlock = Math.min(endBlock, blockCount);
+            fetch((long) block * BLOCK_SIZE, Math.min(size, (long) endBlock * BLOCK_SIZE) - 1);
+            // The server may return a shorter range than the requested one, continue from the
+            // first block which is still missing
+            int nextBlock = fetchedBlocks.nextClearBit(block);
+            if (nextBlock == block) {
+                throw new IOException("No data fetched for block " + block);
+            }
+            block = nextBlock;
+        }
+    }
+
+    private void fetch(long first, long last) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) url.openConnection();
+        try {
+            fetchCount++;
+            connection.setConnectTimeout(TIMEOUT_MILLIS);
+            connection.setReadTimeout(TIMEOUT_MILLIS);
+            connection.setRequestProperty("Range", "bytes=" + first + "-" + last);
+            int responseCode = connection.getResponseCode();
+            long position;
+            if (responseCode == HttpURLConnection.HTTP_PARTIAL) {
+                Matcher matcher = CONTENT_RANGE.matcher(
+                        String.valueOf(connection.getHeaderField("Content-Range")));
+                if (!matcher.matches() || Long.parseLong(matcher.group(1)) != first) {
+                    throw new IOException("Unexpected content range for bytes " + first + "-" + last);
+                }
+                position = first;
+                setSize(Long.parseLong(matcher.group(3)));
+            } else if (responseCode == HttpURLConnection.HTTP_OK) {
+                // Ranges not supported, the whole file is copied
+                position = 0;
+                setSize(connection.getContentLengthLong());
+            } else {
+                throw new IOException("Unexpected response code " + responseCode);
+            }
+            long end;
+            try (InputStream inputStream = connection.getInputStream()) {
+                end = copy(inputStream, position);
+            }
+            if (size < 0) {
+                setSize(end);
+            }
+            markFetched(position, end);
+        } finally {
+            connection.disconnect();
+        }
+    }
+
+    private void setSize(long size) throws IOException {
+        if (this.size < 0 && size >= 0) {
+            this.size = size;
+            randomAccessFile.setLength(size);
+        }
+    }
+
+    private long copy(InputStream inputStream, long position) throws IOException {
+        int count;
+        while ((count = inputStream.read(copyBuffer)) != -1) {
+            ByteBuffer buffer = ByteBuffer.wrap(copyBuffer, 0, count);
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        }
+        return position;
+    }
+
+    private void markFetched(long start, long end) {
+        int firstBlock = (int) (start / BLOCK_SIZE);
+        int endBlock = end >= size
+                ? (int) ((size + BLOCK_SIZE - 1) / BLOCK_SIZE)
+                : (int) (end / BLOCK_SIZE);
+        if (endBlock > firstBlock) {
+            fetchedBlocks.set(firstBlock, endBlock);
+        }
+    }
+}
@@ -27,6 +27,7 @@ import java.io.IOException;
 public class UriSource implements DocumentSource {
 
     private Uri uri;
+    private String fingerprint;
 
     public UriSource(Uri uri) {
         this.uri = uri;
@@ -35,6 +36,12 @@ public class UriSource implements DocumentSource {
     @Override
     public PdfDocument createDocument(Context context, PdfiumCore core, String password) throws IOException {
         ParcelFileDescriptor pfd = context.getContentResolver().openFileDescriptor(uri, "r");
+        fingerprint = DocumentFingerprint.of(pfd);
         return core.newDocument(pfd, password);
     }
+
+    @Override
+    public String getFingerprint() {
+        return fingerprint;
+    }
 }
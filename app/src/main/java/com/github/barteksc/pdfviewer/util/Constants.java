@@ -38,6 +38,15 @@ public class Constants {
         public static int CACHE_SIZE = 120;
 
         public static int THUMBNAILS_CACHE_SIZE = 8;
+
+        /** The number of bitmaps of evicted parts kept to render new parts */
+        public static int BITMAP_POOL_SIZE = 32;
+
+        /** The size of the cache of thumbnails on disk, shared by all the documents */
+        public static long THUMBNAILS_DISK_CACHE_SIZE = 50 * 1024 * 1024;
+
+        /** The number of pages before and after the current one whose thumbnails are rendered ahead */
+        public static int THUMBNAILS_PRERENDER_PAGES = 4;
     }
 
     public static class Pinch {
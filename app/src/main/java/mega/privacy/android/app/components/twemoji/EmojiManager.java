@@ -12,10 +12,12 @@ import androidx.annotation.Nullable;
 import androidx.emoji2.text.EmojiCompat;
 
 import java.util.ArrayList;
-import java.util.Comparator;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -28,10 +30,7 @@ public final class EmojiManager {
 
     private static final EmojiManager INSTANCE = new EmojiManager();
     private static final int GUESSED_UNICODE_AMOUNT = 3000;
-    private static final int GUESSED_TOTAL_PATTERN_LENGTH = GUESSED_UNICODE_AMOUNT * 4;
     private static final Pattern SPACE_REMOVAL = Pattern.compile("\\s");
-    private static final Comparator<String> STRING_LENGTH_COMPARATOR =
-            (first, second) -> Integer.compare(second.length(), first.length());
 
     @SuppressLint("CheckResult")
     private static final EmojiReplacer DEFAULT_EMOJI_REPLACER = (context, text, emojiSize, defaultEmojiSize, fallback) -> {
@@ -83,8 +82,7 @@ public final class EmojiManager {
 
     private final Map<String, Emoji> emojiMap = new LinkedHashMap<>(GUESSED_UNICODE_AMOUNT);
     private EmojiCategory[] categories;
-    private Pattern emojiPattern;
-    private Pattern emojiRepetitivePattern;
+    private volatile FutureTask<EmojiMatcher> matcherTask;
     private EmojiReplacer emojiReplacer;
 
     private EmojiManager() {
@@ -102,9 +100,6 @@ public final class EmojiManager {
         INSTANCE.categories = checkNotNull(provider.getCategories(), "categories == null");
         INSTANCE.emojiMap.clear();
         INSTANCE.emojiReplacer = provider instanceof EmojiReplacer ? (EmojiReplacer) provider : DEFAULT_EMOJI_REPLACER;
-        final List<String> unicodesForPattern = new ArrayList<>(GUESSED_UNICODE_AMOUNT);
-
-
         for (EmojiCategory category : INSTANCE.categories) {
             final Emoji[] emojis = checkNotNull(category.getEmojis(), "emojis == null");
 
@@ -112,37 +107,31 @@ public final class EmojiManager {
                 final String unicode = emoji.getUnicode();
                 final List<Emoji> variants = emoji.getVariants();
                 INSTANCE.emojiMap.put(unicode, emoji);
-                unicodesForPattern.add(unicode);
 
                 for (Emoji variant: variants) {
                     final String variantUnicode = variant.getUnicode();
                     INSTANCE.emojiMap.put(variantUnicode, variant);
-                    unicodesForPattern.add(variantUnicode);
-
                 }
             }
         }
-        if (unicodesForPattern.isEmpty()) {
+        if (INSTANCE.emojiMap.isEmpty()) {
             throw new IllegalArgumentException("Your EmojiProvider must at least have one category with at least one emoji.");
         }
-        // We need to sort the unicodes by length so the longest one gets matched first.
-        unicodesForPattern.sort(STRING_LENGTH_COMPARATOR);
-        final StringBuilder patternBuilder = new StringBuilder(GUESSED_TOTAL_PATTERN_LENGTH);
-        final int unicodesForPatternSize = unicodesForPattern.size();
-        for (int i = 0; i < unicodesForPatternSize; i++) {
-            patternBuilder.append(Pattern.quote(unicodesForPattern.get(i))).append('|');
-        }
-        final String regex = patternBuilder.deleteCharAt(patternBuilder.length() - 1).toString();
-        INSTANCE.emojiPattern = Pattern.compile(regex);
-        INSTANCE.emojiRepetitivePattern = Pattern.compile('(' + regex + ")+");
+        // The matcher is built in the background, so installing doesn't delay the start of the
+        // app. If it is needed before, it is built or waited for by the first caller.
+        final Map<String, Emoji> emojis = new HashMap<>(INSTANCE.emojiMap);
+        final FutureTask<EmojiMatcher> matcherTask = new FutureTask<>(() -> new EmojiMatcher(emojis));
+        INSTANCE.matcherTask = matcherTask;
+        final Thread thread = new Thread(matcherTask, "EmojiMatcher");
+        thread.setPriority(Thread.MIN_PRIORITY);
+        thread.start();
     }
 
     public static void destroy() {
         release();
         INSTANCE.emojiMap.clear();
         INSTANCE.categories = null;
-        INSTANCE.emojiPattern = null;
-        INSTANCE.emojiRepetitivePattern = null;
+        INSTANCE.matcherTask = null;
         INSTANCE.emojiReplacer = null;
     }
 
@@ -162,8 +151,21 @@ public final class EmojiManager {
         return categories;
     }
 
-    Pattern getEmojiRepetitivePattern() {
-        return emojiRepetitivePattern;
+    EmojiMatcher getEmojiMatcher() {
+        final FutureTask<EmojiMatcher> task = matcherTask;
+        if (task == null) {
+            throw new IllegalStateException("Please install an EmojiProvider through the EmojiManager.install() method first.");
+        }
+        // Builds the matcher in this thread if the background thread didn't start yet
+        task.run();
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Cannot build the emoji matcher", e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while building the emoji matcher", e);
+        }
     }
 
     /**
@@ -174,9 +176,8 @@ public final class EmojiManager {
             if (!TextUtils.isEmpty(text)) {
                 final String inputWithoutSpaces = SPACE_REMOVAL.matcher(text).replaceAll(Matcher.quoteReplacement(""));
                 return EmojiManager.getInstance()
-                        .getEmojiRepetitivePattern()
-                        .matcher(inputWithoutSpaces)
-                        .matches();
+                        .getEmojiMatcher()
+                        .matchesOnlyEmojis(inputWithoutSpaces);
             }
         } catch (Exception e) {
             Timber.e(e);
@@ -196,13 +197,7 @@ public final class EmojiManager {
         try {
             verifyInstalled();
             if (!TextUtils.isEmpty(text)) {
-                final Matcher matcher = emojiPattern.matcher(text);
-                while (matcher.find()) {
-                    final Emoji found = findEmoji(text.subSequence(matcher.start(), matcher.end()));
-                    if (found != null) {
-                        result.add(new EmojiRange(matcher.start(), matcher.end(), found));
-                    }
-                }
+                return getEmojiMatcher().findAll(text);
             }
         } catch (Exception e) {
             Timber.e(e);
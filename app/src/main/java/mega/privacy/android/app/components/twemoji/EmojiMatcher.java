@@ -0,0 +1,148 @@
+package mega.privacy.android.app.components.twemoji;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import mega.privacy.android.app.components.twemoji.emoji.Emoji;
+
+/**
+ * Finds the emojis of a text with a trie of the code points of the emojis.
+ * <p>
+ * Each position of the text is matched walking the trie once, keeping the longest emoji found,
+ * instead of trying the alternatives of a regex one by one. The children of each node are kept in
+ * sorted arrays and found with a binary search, so matching doesn't box the code points.
+ */
+final class EmojiMatcher {
+
+    private static final class Node {
+        private static final int[] NO_CODE_POINTS = new int[0];
+        private static final Node[] NO_CHILDREN = new Node[0];
+
+        int[] codePoints = NO_CODE_POINTS;
+        Node[] children = NO_CHILDREN;
+        Emoji emoji;
+
+        @Nullable
+        Node child(final int codePoint) {
+            final int index = Arrays.binarySearch(codePoints, codePoint);
+            return index >= 0 ? children[index] : null;
+        }
+    }
+
+    private final Node root;
+
+    /**
+     * @param emojis the emojis by their unicode
+     */
+    EmojiMatcher(@NonNull final Map<String, Emoji> emojis) {
+        final BuilderNode builderRoot = new BuilderNode();
+        for (final Map.Entry<String, Emoji> entry : emojis.entrySet()) {
+            final String unicode = entry.getKey();
+            BuilderNode node = builderRoot;
+            for (int i = 0; i < unicode.length(); ) {
+                final int codePoint = unicode.codePointAt(i);
+                node = node.children.computeIfAbsent(codePoint, key -> new BuilderNode());
+                i += Character.charCount(codePoint);
+            }
+            node.emoji = entry.getValue();
+        }
+        root = builderRoot.build();
+    }
+
+    /**
+     * Find the emojis of a text, taking the longest emoji at each position, as the regex with the
+     * alternatives sorted by length did
+     */
+    @NonNull
+    List<EmojiRange> findAll(@NonNull final CharSequence text) {
+        final List<EmojiRange> result = new ArrayList<>();
+        final int length = text.length();
+        int start = 0;
+        while (start < length) {
+            Node node = root;
+            Emoji found = null;
+            int foundEnd = -1;
+            int i = start;
+            while (i < length) {
+                final int codePoint = Character.codePointAt(text, i);
+                node = node.child(codePoint);
+                if (node == null) {
+                    break;
+                }
+                i += Character.charCount(codePoint);
+                if (node.emoji != null) {
+                    found = node.emoji;
+                    foundEnd = i;
+                }
+            }
+
+            if (found != null) {
+                result.add(new EmojiRange(start, foundEnd, found));
+                start = foundEnd;
+            } else {
+                start += Character.charCount(Character.codePointAt(text, start));
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Check if a text is a sequence of emojis only, trying every way of splitting it as the
+     * repetitive regex did
+     */
+    boolean matchesOnlyEmojis(@NonNull final CharSequence text) {
+        final int length = text.length();
+        if (length == 0) {
+            return false;
+        }
+        // reachable[i] is true when the text up to i is a sequence of emojis
+        final boolean[] reachable = new boolean[length + 1];
+        reachable[0] = true;
+        for (int start = 0; start < length; start++) {
+            if (!reachable[start]) {
+                continue;
+            }
+            Node node = root;
+            int i = start;
+            while (i < length) {
+                final int codePoint = Character.codePointAt(text, i);
+                node = node.child(codePoint);
+                if (node == null) {
+                    break;
+                }
+                i += Character.charCount(codePoint);
+                if (node.emoji != null) {
+                    reachable[i] = true;
+                }
+            }
+        }
+        return reachable[length];
+    }
+
+    private static final class BuilderNode {
+        final TreeMap<Integer, BuilderNode> children = new TreeMap<>();
+        Emoji emoji;
+
+        Node build() {
+            final Node node = new Node();
+            node.emoji = emoji;
+            if (!children.isEmpty()) {
+                node.codePoints = new int[children.size()];
+                node.children = new Node[children.size()];
+                int index = 0;
+                for (final Map.Entry<Integer, BuilderNode> child : children.entrySet()) {
+                    node.codePoints[index] = child.getKey();
+                    node.children[index] = child.getValue().build();
+                    index++;
+                }
+            }
+            return node;
+        }
+    }
+}
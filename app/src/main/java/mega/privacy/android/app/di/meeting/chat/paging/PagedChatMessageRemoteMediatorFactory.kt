@@ -14,10 +14,12 @@ interface PagedChatMessageRemoteMediatorFactory {
      *
      * @param chatId
      * @param coroutineScope
+     * @param isResumable true to keep the stored history when the chat is opened
      * @return PagedChatMessageRemoteMediator
      */
     fun create(
         chatId: Long,
         coroutineScope: CoroutineScope,
+        isResumable: Boolean,
     ): PagedChatMessageRemoteMediator
 }
\ No newline at end of file
@@ -55,6 +55,7 @@ import mega.privacy.android.domain.usecase.account.MonitorAccountDetailUseCase
 import mega.privacy.android.domain.usecase.account.MonitorRefreshSessionUseCase
 import mega.privacy.android.domain.usecase.account.MonitorStorageStateUseCase
 import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCase
+import mega.privacy.android.domain.usecase.filebrowser.GetFileBrowserNodeChildrenPageUseCase
 import mega.privacy.android.domain.usecase.filebrowser.GetFileBrowserNodeChildrenUseCase
 import mega.privacy.android.domain.usecase.folderlink.ContainsMediaItemUseCase
 import mega.privacy.android.domain.usecase.network.MonitorConnectivityUseCase
@@ -82,6 +83,7 @@ import javax.inject.Inject
  * @param getParentNodeUseCase To get parent node of current node
  * @param isNodeInRubbishBinUseCase To get current node is in rubbish
  * @param getFileBrowserNodeChildrenUseCase [GetFileBrowserNodeChildrenUseCase]
+ * @param getFileBrowserNodeChildrenPageUseCase [GetFileBrowserNodeChildrenPageUseCase]
  * @param getCloudSortOrder [GetCloudSortOrder]
  * @param monitorViewType [MonitorViewType] check view type
  * @param setViewType [SetViewType] to set view type
@@ -99,6 +101,7 @@ class FileBrowserViewModel @Inject constructor(
     private val getParentNodeUseCase: GetParentNodeUseCase,
     private val isNodeInRubbishBinUseCase: IsNodeInRubbishBinUseCase,
     private val getFileBrowserNodeChildrenUseCase: GetFileBrowserNodeChildrenUseCase,
+    private val getFileBrowserNodeChildrenPageUseCase: GetFileBrowserNodeChildrenPageUseCase,
     private val getCloudSortOrder: GetCloudSortOrder,
     private val monitorViewType: MonitorViewType,
     private val setViewType: SetViewType,
@@ -140,6 +143,11 @@ class FileBrowserViewModel @Inject constructor(
     private var showHiddenItems: Boolean = true
     private var cachedStorageState: StorageState? = null
 
+    /**
+     * Handle of the folder whose children are listed in the state
+     */
+    private var listedHandle: Long? = null
+
     init {
         refreshNodes()
         monitorMediaDiscovery()
@@ -389,7 +397,9 @@ class FileBrowserViewModel @Inject constructor(
             }
         }
 
-        val childrenNodes = getFileBrowserNodeChildrenUseCase(fileBrowserHandle)
+        val childrenNodes =
+            (if (fileBrowserHandle != listedHandle) showFirstPage(fileBrowserHandle) else null)
+                ?: getFileBrowserNodeChildrenUseCase(fileBrowserHandle)
         val showMediaDiscoveryIcon = !isRootNode && containsMediaItemUseCase(childrenNodes)
         val sourceNodeUIItems = getNodeUiItems(childrenNodes)
         val nodeUIItems = filterNonSensitiveNodes(sourceNodeUIItems)
@@ -407,6 +417,35 @@ class FileBrowserViewModel @Inject constructor(
                 isRootNode = isRootNode
             )
         }
+        listedHandle = fileBrowserHandle
+    }
+
+    /**
+     * Show the first page of the children of a folder that was not listed yet, so the first screen
+     * of a large folder is shown without waiting for all its children to be retrieved. The rest of
+     * the state is updated once all the children are retrieved.
+     *
+     * @return all the children if they fit in the first page, so they are not retrieved again,
+     * or null if they must be retrieved
+     */
+    private suspend fun showFirstPage(fileBrowserHandle: Long): List<TypedNode>? {
+        val firstPage = runCatching {
+            getFileBrowserNodeChildrenPageUseCase(
+                parentHandle = fileBrowserHandle,
+                offset = 0,
+                size = FIRST_PAGE_SIZE,
+            )
+        }.onFailure { Timber.e(it) }.getOrNull() ?: return null
+        if (firstPage.size < FIRST_PAGE_SIZE) return firstPage
+        val sourceNodeUIItems = getNodeUiItems(firstPage)
+        _state.update {
+            it.copy(
+                nodesList = filterNonSensitiveNodes(sourceNodeUIItems),
+                sourceNodesList = sourceNodeUIItems,
+                isLoading = false,
+            )
+        }
+        return null
     }
 
     /**
@@ -995,4 +1034,11 @@ class FileBrowserViewModel @Inject constructor(
     fun onTabChanged(tab: CloudDriveTab) {
         _state.update { it.copy(selectedTab = tab) }
     }
+
+    private companion object {
+        /**
+         * Number of children of the first page, enough to fill the screen
+         */
+        const val FIRST_PAGE_SIZE = 100
+    }
 }
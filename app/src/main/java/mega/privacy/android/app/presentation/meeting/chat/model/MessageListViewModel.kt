@@ -170,6 +170,7 @@ class MessageListViewModel @Inject constructor(
     private val remoteMediator = remoteMediatorFactory.create(
         chatId = chatId,
         coroutineScope = viewModelScope,
+        isResumable = true,
     )
 
     private val pagedFlow = unreadCount
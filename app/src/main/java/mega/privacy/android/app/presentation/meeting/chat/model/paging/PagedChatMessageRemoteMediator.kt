@@ -7,39 +7,98 @@ import androidx.paging.RemoteMediator
 import dagger.assisted.Assisted
 import dagger.assisted.AssistedInject
 import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
 import kotlinx.coroutines.TimeoutCancellationException
+import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.isActive
+import kotlinx.coroutines.launch
 import mega.privacy.android.domain.entity.chat.ChatHistoryLoadStatus
 import mega.privacy.android.domain.entity.chat.ChatMessage
 import mega.privacy.android.domain.entity.chat.messages.TypedMessage
-import mega.privacy.android.domain.entity.chat.messages.paging.FetchMessagePageResponse
+import mega.privacy.android.domain.entity.chat.messages.paging.TypedMessagePagingKey
 import mega.privacy.android.domain.usecase.chat.message.paging.ClearChatMessagesUseCase
 import mega.privacy.android.domain.usecase.chat.message.paging.FetchMessagePageUseCase
+import mega.privacy.android.domain.usecase.chat.message.paging.GetNewestStoredMessageTimestampUseCase
+import mega.privacy.android.domain.usecase.chat.message.paging.ReportChatHistoryOpenUseCase
+import mega.privacy.android.domain.usecase.chat.message.paging.ResumeChatHistoryUseCase
 import mega.privacy.android.domain.usecase.chat.message.paging.SaveChatMessagesUseCase
 import timber.log.Timber
-import kotlin.coroutines.coroutineContext
+import kotlin.time.Duration
+import kotlin.time.TimeSource
 
 /**
  * Paged chat message remote mediator
  *
+ * If [isResumable] and the chat already has stored messages, the initial refresh is skipped so
+ * the stored history is shown straight away, and [ResumeChatHistoryUseCase] brings it up to date
+ * in the background. Otherwise the stored history is cleared and fetched again.
+ *
+ * Appended pages only count the messages older than the last loaded one, the newer ones fetched
+ * on the way are saved again so they are reconciled with the history.
+ *
  * @property fetchMessages
  * @property saveMessages
  * @property clearChatMessagesUseCase
+ * @property getNewestStoredMessageTimestampUseCase
+ * @property resumeChatHistoryUseCase
+ * @property reportChatHistoryOpenUseCase
  * @property chatId
- * @property coroutineScope
+ * @property messagesScope scope where the messages of the chat are monitored while fetching
+ * @property isResumable true to keep the stored history when the chat is opened
  */
 @OptIn(ExperimentalPagingApi::class)
 class PagedChatMessageRemoteMediator @AssistedInject constructor(
     private val fetchMessages: FetchMessagePageUseCase,
     private val saveMessages: SaveChatMessagesUseCase,
     private val clearChatMessagesUseCase: ClearChatMessagesUseCase,
+    private val getNewestStoredMessageTimestampUseCase: GetNewestStoredMessageTimestampUseCase,
+    private val resumeChatHistoryUseCase: ResumeChatHistoryUseCase,
+    private val reportChatHistoryOpenUseCase: ReportChatHistoryOpenUseCase,
     @Assisted private val chatId: Long,
-    @Assisted private val coroutineScope: CoroutineScope,
-) : RemoteMediator<Int, TypedMessage>() {
+    @Assisted private val messagesScope: CoroutineScope,
+    @Assisted private val isResumable: Boolean,
+) : RemoteMediator<TypedMessagePagingKey, TypedMessage>() {
+
+    private val openTimeMark = TimeSource.Monotonic.markNow()
+
+    private var resumeJob: Job? = null
+
+    private var isOpenReported = false
+
+    override suspend fun initialize(): InitializeAction {
+        if (!isResumable) return InitializeAction.LAUNCH_INITIAL_REFRESH
+
+        val newestStoredTimestamp = runCatching { getNewestStoredMessageTimestampUseCase(chatId) }
+            .onFailure { Timber.e(it, "Paging mediator: failed to get the stored history") }
+            .getOrNull() ?: return InitializeAction.LAUNCH_INITIAL_REFRESH
+
+        val timeToFirstMessage = openTimeMark.elapsedNow()
+        resumeJob = messagesScope.launch {
+            runCatching {
+                resumeChatHistoryUseCase(
+                    chatId = chatId,
+                    newestStoredTimestamp = newestStoredTimestamp,
+                    overlap = RESUME_OVERLAP,
+                    messagesScope = messagesScope,
+                )
+            }.onSuccess {
+                Timber.d("Paging mediator: history resumed, ${it.refetchedCount} messages re-fetched")
+                reportOpen(
+                    timeToFirstMessage = timeToFirstMessage,
+                    fetchedCount = it.fetchedCount,
+                    refetchedCount = it.refetchedCount,
+                    isResumed = true,
+                )
+            }.onFailure {
+                Timber.e(it, "Paging mediator: failed to resume the history")
+            }
+        }
+        return InitializeAction.SKIP_INITIAL_REFRESH
+    }
 
     override suspend fun load(
         loadType: LoadType,
-        state: PagingState<Int, TypedMessage>,
+        state: PagingState<TypedMessagePagingKey, TypedMessage>,
     ): MediatorResult {
         return try {
             Timber.d("Paging mediator load: loadType : $loadType")
@@ -48,6 +107,15 @@ class PagedChatMessageRemoteMediator @AssistedInject constructor(
                 return MediatorResult.Success(endOfPaginationReached = true)
             }
 
+            // The history is fetched sequentially, the appended pages continue after the resumed one
+            resumeJob?.join()
+
+            val newestStoredTimestamp = if (loadType == LoadType.REFRESH && !isOpenReported) {
+                runCatching { getNewestStoredMessageTimestampUseCase(chatId) }.getOrNull()
+            } else {
+                null
+            }
+
             if (loadType == LoadType.REFRESH) {
                 clearChatMessagesUseCase(chatId, false)
             }
@@ -56,19 +124,45 @@ class PagedChatMessageRemoteMediator @AssistedInject constructor(
                 LoadType.REFRESH -> state.config.initialLoadSize
                 else -> state.config.pageSize
             }
+            val oldestLoadedTimestamp = state.lastItemOrNull()?.time ?: Long.MAX_VALUE
 
-            val messages = mutableListOf<ChatMessage>()
-            lateinit var response: FetchMessagePageResponse
-            while (messages.size < count && coroutineContext.isActive) {
-                response = fetchMessages(chatId, coroutineScope)
-                messages.addAll(response.messages)
-                if (response.loadResponse == ChatHistoryLoadStatus.NONE) break
+            var fetchedCount = 0
+            var refetchedCount = 0
+            var newMessageCount = 0
+            var timeToFirstMessage: Duration? = null
+            val loadResponse = coroutineScope {
+                var loadResponse: ChatHistoryLoadStatus
+                var saveJob: Job? = null
+                do {
+                    val response = fetchMessages(chatId, messagesScope)
+                    val messages = response.messages
+                    loadResponse = response.loadResponse
+                    fetchedCount += messages.size
+                    newMessageCount += messages.count { it.timestamp < oldestLoadedTimestamp }
+                    newestStoredTimestamp?.let { timestamp ->
+                        refetchedCount += messages.count { it.timestamp <= timestamp }
+                    }
+                    // Each page is saved while the next one is fetched, one save at a time
+                    saveJob?.join()
+                    saveJob = launch {
+                        storeMessages(messages)
+                        if (timeToFirstMessage == null) timeToFirstMessage = openTimeMark.elapsedNow()
+                    }
+                } while (newMessageCount < count && isActive && loadResponse != ChatHistoryLoadStatus.NONE)
+                saveJob?.join()
+                loadResponse
             }
-            runCatching { saveMessages(chatId = chatId, messages = messages) }.onFailure {
-                Timber.e(it, "Failed to save chat messages")
+
+            if (loadType == LoadType.REFRESH) {
+                reportOpen(
+                    timeToFirstMessage = timeToFirstMessage ?: openTimeMark.elapsedNow(),
+                    fetchedCount = fetchedCount,
+                    refetchedCount = refetchedCount,
+                    isResumed = false,
+                )
             }
 
-            MediatorResult.Success(endOfPaginationReached = response.loadResponse == ChatHistoryLoadStatus.NONE)
+            MediatorResult.Success(endOfPaginationReached = loadResponse == ChatHistoryLoadStatus.NONE)
         } catch (e: Exception) {
             if (e is TimeoutCancellationException) {
                 Timber.d("Paging mediator load: timeout")
@@ -78,4 +172,36 @@ class PagedChatMessageRemoteMediator @AssistedInject constructor(
             MediatorResult.Error(e)
         }
     }
-}
\ No newline at end of file
+
+    private suspend fun storeMessages(messages: List<ChatMessage>) {
+        if (messages.isEmpty()) return
+        runCatching { saveMessages(chatId = chatId, messages = messages) }.onFailure {
+            Timber.e(it, "Failed to save chat messages")
+        }
+    }
+
+    private fun reportOpen(
+        timeToFirstMessage: Duration,
+        fetchedCount: Int,
+        refetchedCount: Int,
+        isResumed: Boolean,
+    ) {
+        if (isOpenReported) return
+        isOpenReported = true
+        runCatching {
+            reportChatHistoryOpenUseCase(
+                timeToFirstMessageMillis = timeToFirstMessage.inWholeMilliseconds,
+                fetchedCount = fetchedCount,
+                refetchedCount = refetchedCount,
+                isResumed = isResumed,
+            )
+        }.onFailure { Timber.w(it) }
+    }
+
+    companion object {
+        /**
+         * Number of stored messages fetched again when the history is resumed
+         */
+        const val RESUME_OVERLAP = 32
+    }
+}
@@ -35,6 +35,7 @@ import com.github.barteksc.pdfviewer.listener.OnLoadCompleteListener
 import com.github.barteksc.pdfviewer.listener.OnPageChangeListener
 import com.github.barteksc.pdfviewer.listener.OnPageErrorListener
 import com.github.barteksc.pdfviewer.scroll.DefaultScrollHandle
+import com.github.barteksc.pdfviewer.source.HttpRangeSource
 import com.google.android.material.dialog.MaterialAlertDialogBuilder
 import com.shockwave.pdfium.PdfDocument.Bookmark
 import dagger.hilt.android.AndroidEntryPoint
@@ -415,26 +416,6 @@ class PdfViewerActivity : BaseActivity(), MegaGlobalListenerInterface, OnPageCha
                     dismissAlertDialogIfExists(statusDialog)
                     nameCollisionActivityContract.launch(arrayListOf(nameCollision))
                 }
-                if (pdfStreamData != null) {
-                    try {
-                        binding.pdfView.fromBytes(pdfStreamData)
-                            .defaultPage(currentPage - 1)
-                            .onPageChange(this@PdfViewerActivity)
-                            .enableAnnotationRendering(true)
-                            .onLoad(this@PdfViewerActivity)
-                            .scrollHandle(defaultScrollHandle)
-                            .spacing(10) // in dp
-                            .onPageError(this@PdfViewerActivity)
-                            .password(password)
-                            .load()
-                    } catch (e: Exception) {
-                        Timber.w("Exception loading PDF as stream", e)
-                    }
-                    viewModel.resetPdfStreamData()
-                    if (loading && viewModel.isInTransferOverQuota().not()) {
-                        binding.pdfViewerProgressBar.isVisible = true
-                    }
-                }
             }
         }
     }
@@ -734,7 +715,24 @@ class PdfViewerActivity : BaseActivity(), MegaGlobalListenerInterface, OnPageCha
 
     private fun loadStreamPDF() {
         Timber.d("loading: $loading")
-        viewModel.loadPdfStream(uri.toString())
+        try {
+            binding.pdfView.fromSource(HttpRangeSource(uri.toString()))
+                .defaultPage(currentPage - 1)
+                .onPageChange(this)
+                .enableAnnotationRendering(true)
+                .onLoad(this)
+                .onRenderingStats(viewModel::onRenderingStats)
+                .scrollHandle(defaultScrollHandle)
+                .spacing(10) // in dp
+                .onPageError(this)
+                .password(password)
+                .load()
+        } catch (e: Exception) {
+            Timber.w("Exception loading PDF as stream", e)
+        }
+        if (loading && viewModel.isInTransferOverQuota().not()) {
+            binding.pdfViewerProgressBar.isVisible = true
+        }
     }
 
     private fun loadLocalPDF() {
@@ -746,6 +744,7 @@ class PdfViewerActivity : BaseActivity(), MegaGlobalListenerInterface, OnPageCha
                 .onPageChange(this)
                 .enableAnnotationRendering(true)
                 .onLoad(this)
+                .onRenderingStats(viewModel::onRenderingStats)
                 .scrollHandle(defaultScrollHandle)
                 .spacing(10) // in dp
                 .onPageError(this)
@@ -27,7 +27,6 @@ data class PdfViewerState(
     val nodeCopyError: Throwable? = null,
     val shouldFinishActivity: Boolean = false,
     val nameCollision: NameCollision? = null,
-    val pdfStreamData: ByteArray? = null,
     val accountType: AccountType? = null,
     val isBusinessAccountExpired: Boolean = false,
     val isHiddenNodesOnboarded: Boolean = false,
@@ -22,15 +22,14 @@ import mega.privacy.android.domain.usecase.IsHiddenNodesOnboardedUseCase
 import mega.privacy.android.domain.usecase.UpdateNodeSensitiveUseCase
 import mega.privacy.android.domain.usecase.account.MonitorAccountDetailUseCase
 import mega.privacy.android.domain.usecase.favourites.IsAvailableOfflineUseCase
-import mega.privacy.android.domain.usecase.file.GetDataBytesFromUrlUseCase
 import mega.privacy.android.domain.usecase.node.CheckChatNodesNameCollisionAndCopyUseCase
 import mega.privacy.android.domain.usecase.node.CheckNodesNameCollisionWithActionUseCase
 import mega.privacy.android.domain.usecase.node.IsNodeInBackupsUseCase
 import mega.privacy.android.domain.usecase.node.chat.GetChatFileUseCase
+import mega.privacy.android.domain.usecase.pdf.ReportPdfRenderingUseCase
 import mega.privacy.android.domain.usecase.transfers.overquota.MonitorTransferOverQuotaUseCase
 import nz.mega.sdk.MegaApiJava.INVALID_HANDLE
 import timber.log.Timber
-import java.net.URL
 import javax.inject.Inject
 
 /**
@@ -40,7 +39,6 @@ import javax.inject.Inject
 class PdfViewerViewModel @Inject constructor(
     private val checkChatNodesNameCollisionAndCopyUseCase: CheckChatNodesNameCollisionAndCopyUseCase,
     private val checkNodesNameCollisionWithActionUseCase: CheckNodesNameCollisionWithActionUseCase,
-    private val getDataBytesFromUrlUseCase: GetDataBytesFromUrlUseCase,
     private val updateNodeSensitiveUseCase: UpdateNodeSensitiveUseCase,
     private val monitorAccountDetailUseCase: MonitorAccountDetailUseCase,
     private val isHiddenNodesOnboardedUseCase: IsHiddenNodesOnboardedUseCase,
@@ -50,6 +48,7 @@ class PdfViewerViewModel @Inject constructor(
     private val savedStateHandle: SavedStateHandle,
     private val getBusinessStatusUseCase: GetBusinessStatusUseCase,
     private val monitorTransferOverQuotaUseCase: MonitorTransferOverQuotaUseCase,
+    private val reportPdfRenderingUseCase: ReportPdfRenderingUseCase,
 ) : ViewModel() {
 
     private val handle: Long
@@ -205,19 +204,6 @@ class PdfViewerViewModel @Inject constructor(
         }
     }
 
-    /**
-     * Load pdf stream data from url
-     */
-    fun loadPdfStream(uri: String) {
-        viewModelScope.launch {
-            runCatching {
-                getDataBytesFromUrlUseCase(URL(uri))
-            }.onSuccess { data ->
-                _state.update { it.copy(pdfStreamData = data) }
-            }.onFailure { Timber.e("Exception loading PDF as stream", it) }
-        }
-    }
-
     /**
      * onConsumeSnackBarMessage
      *
@@ -245,13 +231,6 @@ class PdfViewerViewModel @Inject constructor(
         _state.update { it.copy(nodeCopyError = null) }
     }
 
-    /**
-     * Reset pdf stream data
-     */
-    fun resetPdfStreamData() {
-        _state.update { it.copy(pdfStreamData = null) }
-    }
-
     /**
      * Hide or unhide the node by modifying the sensitive attribute
      */
@@ -329,4 +308,19 @@ class PdfViewerViewModel @Inject constructor(
             it.copy(startChatOfflineDownloadEvent = consumed())
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Report the rendering stats of a document when it is closed
+     *
+     * @param renderedParts number of parts rendered
+     * @param partsPerSecond number of parts rendered per second of rendering
+     * @param droppedTasks number of tasks dropped because their parts were no longer visible
+     */
+    fun onRenderingStats(renderedParts: Int, partsPerSecond: Float, droppedTasks: Int) {
+        runCatching {
+            reportPdfRenderingUseCase(renderedParts, partsPerSecond, droppedTasks)
+        }.onFailure {
+            Timber.e(it)
+        }
+    }
+}
@@ -5,16 +5,19 @@ import androidx.lifecycle.viewModelScope
 import dagger.hilt.android.lifecycle.HiltViewModel
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.Job
 import kotlinx.coroutines.channels.BufferOverflow
 import kotlinx.coroutines.channels.Channel
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.withContext
+import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailPrefetchPriority
 import mega.privacy.android.domain.entity.photos.Photo
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.usecase.thumbnailpreview.DownloadPreviewUseCase
 import mega.privacy.android.domain.usecase.thumbnailpreview.DownloadPublicNodePreviewUseCase
 import mega.privacy.android.domain.usecase.thumbnailpreview.DownloadPublicNodeThumbnailUseCase
 import mega.privacy.android.domain.usecase.thumbnailpreview.DownloadThumbnailUseCase
+import mega.privacy.android.domain.usecase.thumbnailpreview.PrefetchThumbnailsUseCase
 import timber.log.Timber
 import java.io.File
 import javax.inject.Inject
@@ -25,6 +28,7 @@ class PhotoDownloaderViewModel @Inject constructor(
     private val downloadPreviewUseCase: DownloadPreviewUseCase,
     private val downloadPublicNodeThumbnailUseCase: DownloadPublicNodeThumbnailUseCase,
     private val downloadPublicNodePreviewUseCase: DownloadPublicNodePreviewUseCase,
+    private val prefetchThumbnailsUseCase: PrefetchThumbnailsUseCase,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
 ) : ViewModel() {
     private val channel = Channel<PhotoCover>(
@@ -32,6 +36,8 @@ class PhotoDownloaderViewModel @Inject constructor(
         onBufferOverflow = BufferOverflow.DROP_OLDEST
     )
 
+    private var prefetchJob: Job? = null
+
     init {
         viewModelScope.launch(ioDispatcher) {
             handleChannel()
@@ -143,6 +149,33 @@ class PhotoDownloaderViewModel @Inject constructor(
         }
     }
 
+    /**
+     * Prefetch the thumbnails around the scroll position of a grid
+     *
+     * @param visiblePhotos the photos visible on screen
+     * @param lookAheadPhotos the photos likely to be shown next
+     */
+    fun prefetchThumbnails(visiblePhotos: List<Photo>, lookAheadPhotos: List<Photo>) {
+        prefetchJob?.cancel()
+        prefetchJob = viewModelScope.launch(ioDispatcher) {
+            runCatching {
+                prefetchThumbnailsUseCase(
+                    visiblePhotos.toThumbnailHandles(),
+                    ThumbnailPrefetchPriority.Visible,
+                )
+                prefetchThumbnailsUseCase(
+                    lookAheadPhotos.toThumbnailHandles(),
+                    ThumbnailPrefetchPriority.LookAhead,
+                )
+            }.onFailure {
+                Timber.e(it)
+            }
+        }
+    }
+
+    private fun List<Photo>.toThumbnailHandles() =
+        filter { it.thumbnailFilePath != null }.map { it.id }
+
     @OptIn(ExperimentalCoroutinesApi::class)
     private suspend fun enterChannel(
         cover: PhotoCover,
@@ -122,7 +122,8 @@ fun PhotosScreen(
                         onChangeCameraUploadsPermissions = onChangeCameraUploadsPermissions,
                         onCloseCameraUploadsLimitedAccess = {
                             timelineViewModel.setCameraUploadsLimitedAccess(false)
-                        }
+                        },
+                        onVisiblePhotosChanged = photoDownloaderViewModel::prefetchThumbnails,
                     )
                 },
                 emptyView = {
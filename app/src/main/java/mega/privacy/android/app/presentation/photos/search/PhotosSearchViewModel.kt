@@ -131,6 +131,18 @@ internal class PhotosSearchViewModel @Inject constructor(
         val accountType = _state.value.accountType
         val isBusinessAccountExpired = getBusinessStatusUseCase() == BusinessAccountStatus.Expired
 
+        // The photos restored from the snapshot have no name until the full scan replaces them,
+        // so the search waits for the scan instead of missing them
+        if (query.isNotBlank() && _state.value.photosSource.any { it.name.isEmpty() }) {
+            _state.update {
+                it.copy(
+                    photos = listOf(),
+                    isSearchingPhotos = true,
+                )
+            }
+            return@launch
+        }
+
         val photos = if (query.isBlank()) {
             listOf()
         } else {
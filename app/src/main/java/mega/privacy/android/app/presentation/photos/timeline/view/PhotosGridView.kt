@@ -14,13 +14,18 @@ import androidx.compose.foundation.lazy.grid.items
 import androidx.compose.foundation.lazy.grid.rememberLazyGridState
 import androidx.compose.material.Text
 import androidx.compose.runtime.Composable
+import androidx.compose.runtime.LaunchedEffect
+import androidx.compose.runtime.getValue
 import androidx.compose.runtime.remember
+import androidx.compose.runtime.rememberUpdatedState
+import androidx.compose.runtime.snapshotFlow
 import androidx.compose.ui.Modifier
 import androidx.compose.ui.platform.LocalConfiguration
 import androidx.compose.ui.platform.LocalContext
 import androidx.compose.ui.res.colorResource
 import androidx.compose.ui.text.style.TextAlign
 import androidx.compose.ui.unit.dp
+import kotlinx.coroutines.flow.distinctUntilChanged
 import mega.privacy.android.app.R
 import mega.privacy.android.app.presentation.photos.model.PhotoDownload
 import mega.privacy.android.app.presentation.photos.model.ZoomLevel
@@ -39,6 +44,11 @@ const val DATE_FORMAT_MONTH = "LLLL"
 const val DATE_FORMAT_DAY = "dd"
 const val DATE_FORMAT_MONTH_WITH_DAY = "MMMM"
 
+/**
+ * Number of screens below the visible photos whose thumbnails are prefetched
+ */
+private const val LOOK_AHEAD_SCREENS = 2
+
 @Composable
 fun PhotosGridView(
     modifier: Modifier,
@@ -50,6 +60,8 @@ fun PhotosGridView(
     onEnableCameraUploads: () -> Unit = {},
     onChangeCameraUploadsPermissions: () -> Unit = {},
     onCloseCameraUploadsLimitedAccess: () -> Unit = {},
+    onVisiblePhotosChanged: (visiblePhotos: List<Photo>, lookAheadPhotos: List<Photo>) -> Unit =
+        { _, _ -> },
 ) {
     val configuration = LocalConfiguration.current
     val spanCount = remember(configuration.orientation, timelineViewState.currentZoomLevel) {
@@ -73,6 +85,27 @@ fun PhotosGridView(
         if (enableCameraUploadsBanner) 1 else 0 + if (isCameraUploadsLimitedAccess) 1 else 0
     val totalItems = potentialItems + uiPhotoList.size + 1
 
+    // Index of the first photo list item in the grid, after the banners
+    val photosOffset = (if (enableCameraUploadsBanner) 1 else 0) +
+            (if (isCameraUploadsLimitedAccess) 1 else 0)
+    val currentOnVisiblePhotosChanged by rememberUpdatedState(onVisiblePhotosChanged)
+    LaunchedEffect(lazyGridState, uiPhotoList, photosOffset) {
+        snapshotFlow {
+            lazyGridState.layoutInfo.visibleItemsInfo.let { visibleItems ->
+                (visibleItems.firstOrNull()?.index ?: 0) to (visibleItems.lastOrNull()?.index ?: -1)
+            }
+        }.distinctUntilChanged().collect { (firstIndex, lastIndex) ->
+            val first = (firstIndex - photosOffset).coerceIn(0, uiPhotoList.size)
+            val last = (lastIndex - photosOffset + 1).coerceIn(first, uiPhotoList.size)
+            val lookAheadEnd = (last + (last - first) * LOOK_AHEAD_SCREENS)
+                .coerceAtMost(uiPhotoList.size)
+            currentOnVisiblePhotosChanged(
+                uiPhotoList.subList(first, last).toPhotos(),
+                uiPhotoList.subList(last, lookAheadEnd).toPhotos(),
+            )
+        }
+    }
+
     FastScrollLazyVerticalGrid(
         totalItems = totalItems,
         columns = GridCells.Fixed(spanCount),
@@ -162,6 +195,9 @@ fun PhotosGridView(
     }
 }
 
+private fun List<PhotoListItem>.toPhotos() =
+    mapNotNull { (it as? PhotoListItem.PhotoGridItem)?.photo }
+
 private fun dateText(
     currentZoomLevel: ZoomLevel,
     modificationTime: LocalDateTime,
@@ -14,6 +14,8 @@ import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Mutex
+import kotlinx.coroutines.sync.withLock
 import kotlinx.coroutines.withContext
 import mega.privacy.android.app.domain.usecase.GetNodeListByIds
 import mega.privacy.android.app.featuretoggle.ApiFeatures
@@ -26,14 +28,10 @@ import mega.privacy.android.app.presentation.photos.model.RememberPreferences
 import mega.privacy.android.app.presentation.photos.model.Sort
 import mega.privacy.android.app.presentation.photos.model.TimeBarTab
 import mega.privacy.android.app.presentation.photos.model.TimelineFilterPreferences
-import mega.privacy.android.app.presentation.photos.model.ZoomLevel
 import mega.privacy.android.app.presentation.photos.timeline.model.CameraUploadsStatus
 import mega.privacy.android.app.presentation.photos.timeline.model.PhotoListItem
 import mega.privacy.android.app.presentation.photos.timeline.model.TimelineViewState
-import mega.privacy.android.app.presentation.photos.util.createDaysCardList
-import mega.privacy.android.app.presentation.photos.util.createMonthsCardList
-import mega.privacy.android.app.presentation.photos.util.createYearsCardList
-import mega.privacy.android.app.presentation.photos.util.groupPhotosByDay
+import mega.privacy.android.app.presentation.photos.util.TimelinePhotosIndex
 import mega.privacy.android.domain.entity.Progress
 import mega.privacy.android.domain.entity.VideoQuality
 import mega.privacy.android.domain.entity.account.EnableCameraUploadsStatus.CAN_ENABLE_CAMERA_UPLOADS
@@ -48,6 +46,7 @@ import mega.privacy.android.domain.entity.camerauploads.CameraUploadsStatusInfo
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.TypedNode
 import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotoDelta
 import mega.privacy.android.domain.entity.photos.TimelinePreferencesJSON
 import mega.privacy.android.domain.qualifier.DefaultDispatcher
 import mega.privacy.android.domain.qualifier.IoDispatcher
@@ -68,7 +67,7 @@ import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCas
 import mega.privacy.android.domain.usecase.permisison.HasMediaPermissionUseCase
 import mega.privacy.android.domain.usecase.photos.EnableCameraUploadsInPhotosUseCase
 import mega.privacy.android.domain.usecase.photos.GetTimelineFilterPreferencesUseCase
-import mega.privacy.android.domain.usecase.photos.GetTimelinePhotosUseCase
+import mega.privacy.android.domain.usecase.photos.MonitorTimelinePhotoChangesUseCase
 import mega.privacy.android.domain.usecase.photos.SetTimelineFilterPreferencesUseCase
 import mega.privacy.android.domain.usecase.setting.MonitorShowHiddenItemsUseCase
 import mega.privacy.android.domain.usecase.workers.StartCameraUploadUseCase
@@ -82,7 +81,7 @@ import kotlin.time.Duration.Companion.seconds
  * View Model for Timeline
  *
  * @property IsCameraUploadsEnabledUseCase
- * @property getTimelinePhotosUseCase
+ * @property monitorTimelinePhotoChangesUseCase
  * @property getCameraUploadPhotos
  * @property getCloudDrivePhotos
  * @property setInitialCUPreferences
@@ -100,7 +99,7 @@ import kotlin.time.Duration.Companion.seconds
 @HiltViewModel
 class TimelineViewModel @Inject constructor(
     private val isCameraUploadsEnabledUseCase: IsCameraUploadsEnabledUseCase,
-    private val getTimelinePhotosUseCase: GetTimelinePhotosUseCase,
+    private val monitorTimelinePhotoChangesUseCase: MonitorTimelinePhotoChangesUseCase,
     val getCameraUploadPhotos: FilterCameraUploadPhotos,
     val getCloudDrivePhotos: FilterCloudDrivePhotos,
     val setInitialCUPreferences: SetInitialCUPreferences,
@@ -136,6 +135,18 @@ class TimelineViewModel @Inject constructor(
 
     internal val selectedPhotosIds = mutableSetOf<Long>()
 
+    /**
+     * All the photos, kept up to date with the photo changes without copying them
+     */
+    private val sourcePhotosIndex = TimelinePhotosIndex()
+
+    /**
+     * The photos being shown, sorted and grouped by day
+     */
+    private val showingPhotosIndex = TimelinePhotosIndex()
+
+    private val showingPhotosIndexMutex = Mutex()
+
     private var isCameraUploadsFirstSyncTriggered = false
     private var isCameraUploadsUploading = false
     private var showHiddenItems: Boolean? = null
@@ -168,10 +179,10 @@ class TimelineViewModel @Inject constructor(
     }
 
     private fun monitorPhotos() = viewModelScope.launch {
-        getTimelinePhotosUseCase()
+        monitorTimelinePhotoChangesUseCase()
             .catch { throwable ->
                 Timber.e(throwable)
-            }.collectLatest(::handlePhotos)
+            }.collect(::handlePhotoDelta)
     }
 
     private fun monitorCameraUploadsStatus() = viewModelScope.launch {
@@ -310,15 +321,48 @@ class TimelineViewModel @Inject constructor(
         }
     }
 
+    private suspend fun handlePhotoDelta(delta: PhotoDelta) {
+        when (delta) {
+            is PhotoDelta.Reset -> handlePhotos(delta.photos)
+            is PhotoDelta.Changes -> handlePhotoChanges(delta)
+        }
+    }
+
     private suspend fun handlePhotos(photos: List<Photo>) {
         Timber.v("TimelineViewModel photos flow=>" + photos.size)
         handleTimelinePhotosUseCase()
 
+        sourcePhotosIndex.reset(photos, Sort.DEFAULT)
         val showingPhotos = withContext(defaultDispatcher) { filterMedias(photos) }
+        // The next changes are applied on top of these photos, so they must be in place first
         handleAndUpdatePhotosUIState(
             sourcePhotos = photos,
             showingPhotos = showingPhotos
-        )
+        ).join()
+    }
+
+    /**
+     * Apply only the changed photos to the showing photos, instead of filtering, sorting and
+     * grouping again all of them
+     */
+    private suspend fun handlePhotoChanges(changes: PhotoDelta.Changes) {
+        Timber.v("TimelineViewModel photo changes=>${changes.upsertedPhotos.size} upserted, ${changes.removedPhotoIds.size} removed")
+        changes.removedPhotoIds.forEach { sourcePhotosIndex.remove(it) }
+        changes.upsertedPhotos.forEach { sourcePhotosIndex.upsert(it) }
+        val photos = sourcePhotosIndex.getSortedPhotos()
+
+        withContext(defaultDispatcher) {
+            val showingUpsertedPhotoIds = filterNonSensitivePhotos(
+                filterMedias(changes.upsertedPhotos)
+            ).mapTo(HashSet()) { it.id }
+
+            updatePhotosUIState(sourcePhotos = photos) {
+                changes.removedPhotoIds.forEach { remove(it) }
+                changes.upsertedPhotos.forEach {
+                    if (it.id in showingUpsertedPhotoIds) upsert(it) else remove(it.id)
+                }
+            }
+        }
     }
 
     private suspend fun handleTimelinePhotosUseCase() {
@@ -430,72 +474,44 @@ class TimelineViewModel @Inject constructor(
         showingPhotos: List<Photo>,
     ) = viewModelScope.launch(defaultDispatcher) {
         val nonSensitivePhotos = filterNonSensitivePhotos(showingPhotos)
-        val sortedPhotos = sortPhotos(nonSensitivePhotos)
-
-        async {
-            val items = handleAllPhotoItems(showingPhotos = sortedPhotos)
-            _state.update {
-                it.copy(photosListItems = items)
-            }
-        }
-
-        val dayPhotos = groupPhotosByDay(sortedPhotos = sortedPhotos)
-
-        async {
-            val items = createYearsCardList(dayPhotos = dayPhotos)
-            _state.update {
-                it.copy(yearsCardPhotos = items)
-            }
-        }
-
-        async {
-            val items = createMonthsCardList(dayPhotos = dayPhotos)
-            _state.update {
-                it.copy(monthsCardPhotos = items)
-            }
-        }
-
-        async {
-            val items = createDaysCardList(dayPhotos = dayPhotos)
-            _state.update {
-                it.copy(daysCardPhotos = items)
-            }
-        }
-
-        _state.update {
-            it.copy(
-                photos = sourcePhotos,
-                loadPhotosDone = true,
-                currentShowingPhotos = sortedPhotos,
-                enableCameraUploadPageShowing = sortedPhotos.isEmpty(),
-            )
-        }
-        handleEnableZoomAndSortOptions()
+        val sort = _state.value.currentSort
+        updatePhotosUIState(sourcePhotos = sourcePhotos) { reset(nonSensitivePhotos, sort) }
     }
 
-    private fun handleAllPhotoItems(showingPhotos: List<Photo>): List<PhotoListItem> {
-        val currentZoomLevel = _state.value.currentZoomLevel
-        val photoListItem = mutableListOf<PhotoListItem>()
-        showingPhotos.forEachIndexed { index, photo ->
-            val shouldShowDate = if (index == 0)
-                true
-            else
-                needsDateSeparator(
-                    current = photo,
-                    previous = showingPhotos[index - 1],
-                    currentZoomLevel = currentZoomLevel
-                )
-            if (shouldShowDate) {
-                photoListItem.add(PhotoListItem.Separator(photo.modificationTime))
+    /**
+     * Update the showing photos index and set its photos, list items and cards to the state
+     *
+     * @param updateIndex the changes to apply to the index, only the list items and the cards of
+     * the days with changes are created again
+     */
+    private suspend fun updatePhotosUIState(
+        sourcePhotos: List<Photo>,
+        updateIndex: TimelinePhotosIndex.() -> Unit,
+    ) {
+        showingPhotosIndexMutex.withLock {
+            with(showingPhotosIndex) {
+                updateIndex()
+                val sortedPhotos = getSortedPhotos()
+                val photoListItems = getPhotoListItems(_state.value.currentZoomLevel)
+                _state.update {
+                    it.copy(
+                        photos = sourcePhotos,
+                        loadPhotosDone = true,
+                        currentShowingPhotos = sortedPhotos,
+                        enableCameraUploadPageShowing = sortedPhotos.isEmpty(),
+                        photosListItems = if (selectedPhotosIds.isEmpty()) {
+                            photoListItems
+                        } else {
+                            setSelectedPhotos(photoListItems)
+                        },
+                        yearsCardPhotos = getYearsCards(),
+                        monthsCardPhotos = getMonthsCards(),
+                        daysCardPhotos = getDaysCards(),
+                    )
+                }
             }
-            photoListItem.add(
-                PhotoListItem.PhotoGridItem(
-                    photo = photo,
-                    isSelected = selectedPhotosIds.contains(photo.id),
-                )
-            )
         }
-        return photoListItem
+        handleEnableZoomAndSortOptions()
     }
 
     internal fun setSelectedPhotos(items: List<PhotoListItem>): List<PhotoListItem> = items.map {
@@ -504,28 +520,6 @@ class TimelineViewModel @Inject constructor(
         } else it
     }
 
-    private fun needsDateSeparator(
-        current: Photo,
-        previous: Photo,
-        currentZoomLevel: ZoomLevel,
-    ): Boolean {
-        val currentDate = current.modificationTime.toLocalDate()
-        val previousDate = previous.modificationTime.toLocalDate()
-        return if (currentZoomLevel == ZoomLevel.Grid_1) {
-            currentDate != previousDate
-        } else {
-            currentDate.month != previousDate.month
-        }
-    }
-
-    private fun sortPhotos(photos: List<Photo>): List<Photo> {
-        return if (_state.value.currentSort == Sort.NEWEST) {
-            photos.sortedWith(compareByDescending<Photo> { it.modificationTime }.thenByDescending { it.id })
-        } else {
-            photos.sortedWith(compareBy<Photo> { it.modificationTime }.thenByDescending { it.id })
-        }
-    }
-
     private fun filterNonSensitivePhotos(photos: List<Photo>): List<Photo> {
         val showHiddenItems = showHiddenItems ?: return photos
         val isPaid = _state.value.accountType?.isPaid ?: return photos
@@ -0,0 +1,47 @@
+package mega.privacy.android.app.presentation.photos.util
+
+/**
+ * Read only list made of the concatenation of immutable chunks
+ *
+ * The chunks are not copied, so a new list sharing the unchanged chunks of the previous one is
+ * created in a time proportional to the number of chunks instead of the number of elements.
+ * Two lists sharing chunks are compared without comparing the elements of the shared ones.
+ *
+ * @param chunks the chunks, which must not be changed afterwards
+ */
+internal class ChunkedList<T>(chunks: Collection<List<T>>) : AbstractList<T>(), RandomAccess {
+
+    private val chunks: Array<List<T>> = chunks.filter { it.isNotEmpty() }.toTypedArray()
+
+    // Index of the first element of each chunk, followed by the size of the list
+    private val offsets = IntArray(this.chunks.size + 1).also { offsets ->
+        this.chunks.forEachIndexed { index, chunk ->
+            offsets[index + 1] = offsets[index] + chunk.size
+        }
+    }
+
+    override val size: Int
+        get() = offsets[chunks.size]
+
+    override fun get(index: Int): T {
+        if (index < 0 || index >= size) {
+            throw IndexOutOfBoundsException("Index $index, size $size")
+        }
+        val position = offsets.binarySearch(index, toIndex = chunks.size)
+        val chunk = if (position >= 0) position else -(position + 1) - 1
+        return chunks[chunk][index - offsets[chunk]]
+    }
+
+    override fun iterator(): Iterator<T> = chunks.asSequence().flatten().iterator()
+
+    override fun equals(other: Any?): Boolean {
+        if (this === other) return true
+        if (other !is ChunkedList<*>) return super.equals(other)
+        if (!offsets.contentEquals(other.offsets)) return super.equals(other)
+        return chunks.indices.all {
+            chunks[it] === other.chunks[it] || chunks[it] == other.chunks[it]
+        }
+    }
+
+    override fun hashCode() = super.hashCode()
+}
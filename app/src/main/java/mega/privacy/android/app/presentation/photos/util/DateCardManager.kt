@@ -26,7 +26,7 @@ internal fun createYearsCardList(dayPhotos: Map<Photo, Int>): List<DateCard> =
         .map { createYearCard(it) }.toList()
 
 
-private fun createYearCard(photo: Photo): DateCard {
+internal fun createYearCard(photo: Photo): DateCard {
     val year = DateTimeFormatter.ofPattern(DATE_FORMAT_YEAR)
         .format(photo.modificationTime)
 
@@ -40,7 +40,7 @@ internal fun createMonthsCardList(dayPhotos: Map<Photo, Int>): List<DateCard> =
     dayPhotos.keys.distinctBy { YearMonth.from(it.modificationTime) }
         .map { createMonthCard(it) }.toList()
 
-private fun createMonthCard(photo: Photo): DateCard {
+internal fun createMonthCard(photo: Photo): DateCard {
     val sameYear = Year.from(LocalDate.now()) == Year.from(photo.modificationTime)
     val month = SimpleDateFormat(DATE_FORMAT_MONTH, Locale.getDefault()).format(
         Date.from(photo.modificationTime.toLocalDate().atStartOfDay()
@@ -70,7 +70,7 @@ internal fun createDaysCardList(dayPhotos: Map<Photo, Int>): List<DateCard> =
         createDaysCard(key, value)
     }.toList()
 
-private fun createDaysCard(photo: Photo, photosCount: Int): DateCard {
+internal fun createDaysCard(photo: Photo, photosCount: Int): DateCard {
     val sameYear = Year.from(LocalDate.now()) == Year.from(photo.modificationTime)
     val showDate = DateTimeFormatter.ofPattern(
         if (sameYear) {
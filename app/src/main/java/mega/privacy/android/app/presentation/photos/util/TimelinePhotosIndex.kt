@@ -0,0 +1,304 @@
+package mega.privacy.android.app.presentation.photos.util
+
+import mega.privacy.android.app.presentation.photos.model.DateCard
+import mega.privacy.android.app.presentation.photos.model.Sort
+import mega.privacy.android.app.presentation.photos.model.ZoomLevel
+import mega.privacy.android.app.presentation.photos.timeline.model.PhotoListItem
+import mega.privacy.android.domain.entity.photos.Photo
+import java.time.LocalDate
+import java.time.Year
+import java.time.YearMonth
+import java.util.TreeMap
+import java.util.TreeSet
+
+/**
+ * Sorted index of the photos shown in the timeline, bucketed by day
+ *
+ * The photos of each day are kept sorted, so the changes of a few photos don't require to sort the
+ * whole library. The photos of each day, the date cards and the sections of the list items are
+ * kept too, and only the ones of the days with changes are created again. The sorted photos and
+ * the list items are returned as [ChunkedList] of the days or sections, so they are not copied:
+ * a change costs the update of its day plus a reference per day with photos. The lists returned
+ * are immutable and kept until the next change.
+ *
+ * This class is not thread safe.
+ */
+internal class TimelinePhotosIndex {
+
+    private var sort: Sort = Sort.DEFAULT
+
+    private var comparator = comparatorOf(sort)
+
+    private val photosById = HashMap<Long, Photo>()
+
+    private var days = createTreeMap<Long, TreeSet<Photo>>(sort)
+
+    /**
+     * Immutable copies of the photos of each day, shared by the sorted photos returned
+     */
+    private var dayPhotos = createTreeMap<Long, List<Photo>>(sort)
+
+    private var dayCards = createTreeMap<Long, DateCard>(sort)
+
+    private var monthCards = createTreeMap<YearMonth, DateCard>(sort)
+
+    private var yearCards = createTreeMap<Int, DateCard>(sort)
+
+    /**
+     * The list items of each day, or of each month, depending on [sectionsZoomLevel]
+     */
+    private var sections = createTreeMap<Long, List<PhotoListItem>>(sort)
+
+    private var sectionsZoomLevel: ZoomLevel? = null
+
+    private val daysWithOutdatedPhotos = HashSet<Long>()
+
+    private val daysWithOutdatedCards = HashSet<Long>()
+
+    private val daysWithOutdatedSections = HashSet<Long>()
+
+    private var sortedPhotosSnapshot: List<Photo>? = null
+
+    private var daysCardsSnapshot: List<DateCard>? = null
+
+    private var monthsCardsSnapshot: List<DateCard>? = null
+
+    private var yearsCardsSnapshot: List<DateCard>? = null
+
+    private var photoListItemsSnapshot: List<PhotoListItem>? = null
+
+    /**
+     * Number of photos in the index
+     */
+    val size: Int
+        get() = photosById.size
+
+    /**
+     * Replace all the photos of the index
+     *
+     * @param photos the photos
+     * @param sort the order of the photos
+     */
+    fun reset(photos: Collection<Photo>, sort: Sort) {
+        this.sort = sort
+        comparator = comparatorOf(sort)
+        photosById.clear()
+        days = createTreeMap(sort)
+        dayPhotos = createTreeMap(sort)
+        dayCards = createTreeMap(sort)
+        monthCards = createTreeMap(sort)
+        yearCards = createTreeMap(sort)
+        sections = createTreeMap(sort)
+        sectionsZoomLevel = null
+        daysWithOutdatedPhotos.clear()
+        daysWithOutdatedCards.clear()
+        daysWithOutdatedSections.clear()
+        photos.forEach { photosById[it.id] = it }
+        photosById.values.forEach { photo ->
+            days.getOrPut(photo.epochDay) { TreeSet(comparator) }.add(photo)
+        }
+        daysWithOutdatedPhotos.addAll(days.keys)
+        daysWithOutdatedCards.addAll(days.keys)
+        invalidate()
+    }
+
+    /**
+     * Add a photo, or update it if it's already in the index
+     */
+    fun upsert(photo: Photo) {
+        val previous = photosById.put(photo.id, photo)
+        if (previous == photo) return
+        previous?.let { removeFromDay(it) }
+        days.getOrPut(photo.epochDay) { TreeSet(comparator) }.add(photo)
+        onDayChanged(photo.epochDay)
+    }
+
+    /**
+     * Remove a photo if it's in the index
+     */
+    fun remove(photoId: Long) {
+        val previous = photosById.remove(photoId) ?: return
+        removeFromDay(previous)
+    }
+
+    /**
+     * Check if a photo is in the index
+     */
+    operator fun contains(photoId: Long) = photoId in photosById
+
+    /**
+     * Get the photos in order
+     */
+    fun getSortedPhotos(): List<Photo> = sortedPhotosSnapshot ?: run {
+        updateDayPhotos()
+        ChunkedList(dayPhotos.values).also { sortedPhotosSnapshot = it }
+    }
+
+    /**
+     * Get the cards of the days, as [createDaysCardList] creates them for the sorted photos
+     */
+    fun getDaysCards(): List<DateCard> = daysCardsSnapshot ?: run {
+        updateCards()
+        dayCards.values.toList().also { daysCardsSnapshot = it }
+    }
+
+    /**
+     * Get the cards of the months, as [createMonthsCardList] creates them for the sorted photos
+     */
+    fun getMonthsCards(): List<DateCard> = monthsCardsSnapshot ?: run {
+        updateCards()
+        monthCards.values.toList().also { monthsCardsSnapshot = it }
+    }
+
+    /**
+     * Get the cards of the years, as [createYearsCardList] creates them for the sorted photos
+     */
+    fun getYearsCards(): List<DateCard> = yearsCardsSnapshot ?: run {
+        updateCards()
+        yearCards.values.toList().also { yearsCardsSnapshot = it }
+    }
+
+    /**
+     * Get the list items of the photos, with a separator before the photos of each day if the
+     * zoom level is [ZoomLevel.Grid_1], or of each month otherwise
+     *
+     * The photos are not selected, the sections of the list are only created again if the zoom
+     * level changes or if their photos change.
+     */
+    fun getPhotoListItems(zoomLevel: ZoomLevel): List<PhotoListItem> {
+        if (zoomLevel != sectionsZoomLevel) {
+            sections.clear()
+            sectionsZoomLevel = zoomLevel
+            daysWithOutdatedSections.addAll(days.keys)
+            photoListItemsSnapshot = null
+        }
+        return photoListItemsSnapshot ?: run {
+            updateSections(zoomLevel)
+            ChunkedList(sections.values).also { photoListItemsSnapshot = it }
+        }
+    }
+
+    private fun removeFromDay(photo: Photo) {
+        val day = days[photo.epochDay] ?: return
+        day.remove(photo)
+        if (day.isEmpty()) days.remove(photo.epochDay)
+        onDayChanged(photo.epochDay)
+    }
+
+    private fun onDayChanged(epochDay: Long) {
+        daysWithOutdatedPhotos.add(epochDay)
+        daysWithOutdatedCards.add(epochDay)
+        daysWithOutdatedSections.add(epochDay)
+        invalidate()
+    }
+
+    private fun invalidate() {
+        sortedPhotosSnapshot = null
+        daysCardsSnapshot = null
+        monthsCardsSnapshot = null
+        yearsCardsSnapshot = null
+        photoListItemsSnapshot = null
+    }
+
+    private fun updateDayPhotos() {
+        daysWithOutdatedPhotos.forEach { epochDay ->
+            val photos = days[epochDay]
+            if (photos == null) {
+                dayPhotos.remove(epochDay)
+            } else {
+                dayPhotos[epochDay] = photos.toList()
+            }
+        }
+        daysWithOutdatedPhotos.clear()
+    }
+
+    private fun updateCards() {
+        if (daysWithOutdatedCards.isEmpty()) return
+        val months = HashSet<YearMonth>()
+        val years = HashSet<Int>()
+        daysWithOutdatedCards.forEach { epochDay ->
+            val photos = days[epochDay]
+            if (photos == null) {
+                dayCards.remove(epochDay)
+            } else {
+                dayCards[epochDay] = createDaysCard(photos.first(), photos.size)
+            }
+            val date = LocalDate.ofEpochDay(epochDay)
+            months.add(YearMonth.from(date))
+            years.add(date.year)
+        }
+        daysWithOutdatedCards.clear()
+        months.forEach { month ->
+            val firstDay = getFirstDay(month.atDay(1), month.atEndOfMonth())
+            if (firstDay == null) {
+                monthCards.remove(month)
+            } else {
+                monthCards[month] = createMonthCard(days.getValue(firstDay).first())
+            }
+        }
+        years.forEach { year ->
+            val firstDay = Year.of(year).let { getFirstDay(it.atDay(1), it.atDay(it.length())) }
+            if (firstDay == null) {
+                yearCards.remove(year)
+            } else {
+                yearCards[year] = createYearCard(days.getValue(firstDay).first())
+            }
+        }
+    }
+
+    private fun updateSections(zoomLevel: ZoomLevel) {
+        if (daysWithOutdatedSections.isEmpty()) return
+        val sectionDates = daysWithOutdatedSections.mapTo(HashSet()) { epochDay ->
+            LocalDate.ofEpochDay(epochDay).let {
+                if (zoomLevel == ZoomLevel.Grid_1) it else it.withDayOfMonth(1)
+            }
+        }
+        daysWithOutdatedSections.clear()
+        sectionDates.forEach { from ->
+            val to = if (zoomLevel == ZoomLevel.Grid_1) from else YearMonth.from(from).atEndOfMonth()
+            val photos = getDays(from, to).values.flatten()
+            if (photos.isEmpty()) {
+                sections.remove(from.toEpochDay())
+            } else {
+                sections[from.toEpochDay()] = ArrayList<PhotoListItem>(photos.size + 1).apply {
+                    add(PhotoListItem.Separator(photos.first().modificationTime))
+                    photos.forEach { add(PhotoListItem.PhotoGridItem(photo = it, isSelected = false)) }
+                }
+            }
+        }
+    }
+
+    /**
+     * Get the first day with photos between two dates, in the order of the photos
+     */
+    private fun getFirstDay(from: LocalDate, to: LocalDate): Long? =
+        getDays(from, to).keys.firstOrNull()
+
+    /**
+     * Get the days with photos between two dates, in the order of the photos
+     */
+    private fun getDays(from: LocalDate, to: LocalDate): Map<Long, TreeSet<Photo>> =
+        if (sort == Sort.NEWEST) {
+            days.subMap(to.toEpochDay(), true, from.toEpochDay(), true)
+        } else {
+            days.subMap(from.toEpochDay(), true, to.toEpochDay(), true)
+        }
+
+    private val Photo.epochDay
+        get() = modificationTime.toLocalDate().toEpochDay()
+
+    private companion object {
+        fun <K : Comparable<K>, V> createTreeMap(sort: Sort): TreeMap<K, V> =
+            if (sort == Sort.NEWEST) TreeMap(reverseOrder()) else TreeMap()
+
+        /**
+         * Same order as the timeline, the photos with the same modification time are always
+         * sorted by descending id
+         */
+        fun comparatorOf(sort: Sort): Comparator<Photo> = if (sort == Sort.NEWEST) {
+            compareByDescending<Photo> { it.modificationTime }.thenByDescending { it.id }
+        } else {
+            compareBy<Photo> { it.modificationTime }.thenByDescending { it.id }
+        }
+    }
+}
@@ -14,7 +14,6 @@ import kotlinx.coroutines.flow.collectLatest
 import kotlinx.coroutines.flow.conflate
 import kotlinx.coroutines.flow.drop
 import kotlinx.coroutines.flow.flatMapLatest
-import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.merge
 import kotlinx.coroutines.flow.onEach
@@ -46,15 +45,15 @@ import mega.privacy.android.domain.entity.node.TypedNode
 import mega.privacy.android.domain.entity.preference.ViewType
 import mega.privacy.android.domain.entity.search.DateFilterOption
 import mega.privacy.android.domain.entity.search.SearchParameters
+import mega.privacy.android.domain.entity.search.SearchResults
 import mega.privacy.android.domain.entity.search.TypeFilterOption
 import mega.privacy.android.domain.usecase.GetBusinessStatusUseCase
 import mega.privacy.android.domain.usecase.GetCloudSortOrder
 import mega.privacy.android.domain.usecase.account.MonitorAccountDetailUseCase
-import mega.privacy.android.domain.usecase.canceltoken.CancelCancelTokenUseCase
 import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCase
 import mega.privacy.android.domain.usecase.node.MonitorNodeUpdatesUseCase
 import mega.privacy.android.domain.usecase.offline.MonitorOfflineNodeUpdatesUseCase
-import mega.privacy.android.domain.usecase.search.SearchUseCase
+import mega.privacy.android.domain.usecase.search.SearchAsYouTypeUseCase
 import mega.privacy.android.domain.usecase.setting.MonitorShowHiddenItemsUseCase
 import mega.privacy.android.domain.usecase.viewtype.MonitorViewType
 import mega.privacy.android.domain.usecase.viewtype.SetViewType
@@ -71,7 +70,6 @@ import kotlin.coroutines.cancellation.CancellationException
  * @property nodeSourceTypeToSearchTargetMapper [NodeSourceTypeToSearchTargetMapper]
  * @property typeFilterToSearchMapper [TypeFilterToSearchMapper]
  * @property emptySearchViewMapper [EmptySearchViewMapper]
- * @property cancelCancelTokenUseCase [CancelCancelTokenUseCase]
  * @property setViewType [SetViewType]
  * @property monitorViewType [MonitorViewType]
  * @property getCloudSortOrder [GetCloudSortOrder]
@@ -81,14 +79,13 @@ import kotlin.coroutines.cancellation.CancellationException
 class SearchViewModel @Inject constructor(
     private val getFeatureFlagValueUseCase: GetFeatureFlagValueUseCase,
     private val monitorNodeUpdatesUseCase: MonitorNodeUpdatesUseCase,
-    private val searchUseCase: SearchUseCase,
+    private val searchAsYouTypeUseCase: SearchAsYouTypeUseCase,
     private val searchFilterMapper: SearchFilterMapper,
     private val nodeSourceTypeToSearchTargetMapper: NodeSourceTypeToSearchTargetMapper,
     private val typeFilterToSearchMapper: TypeFilterToSearchMapper,
     private val typeFilterOptionStringResMapper: TypeFilterOptionStringResMapper,
     private val dateFilterOptionStringResMapper: DateFilterOptionStringResMapper,
     private val emptySearchViewMapper: EmptySearchViewMapper,
-    private val cancelCancelTokenUseCase: CancelCancelTokenUseCase,
     private val setViewType: SetViewType,
     private val monitorViewType: MonitorViewType,
     private val getCloudSortOrder: GetCloudSortOrder,
@@ -108,6 +105,7 @@ class SearchViewModel @Inject constructor(
      */
     val state: StateFlow<SearchViewState> = _state
     private var searchJob: Job? = null
+    private var searchResults: SearchResults? = null
 
     private val nodeSourceType =
         stateHandle.get<NodeSourceType>(SearchActivity.SEARCH_TYPE) ?: OTHER
@@ -177,11 +175,11 @@ class SearchViewModel @Inject constructor(
         _state.update { it.copy(isSearching = true) }
         searchJob = viewModelScope.launch {
             runCatching {
-                val search = executeSearchQuery()
                 channelFlow {
-                    send(search())
+                    executeSearchQuery(searchResults).collect { send(it) }
                     monitorNodeChanges().flatMapLatest {
-                        flow { emit(search()) }
+                        // The previous results are outdated after a node update
+                        executeSearchQuery(null)
                     }.collectLatest {
                         send(it)
                     }
@@ -203,15 +201,15 @@ class SearchViewModel @Inject constructor(
 
     /**
      * Execute search query
+     *
+     * @param previousResults the results of the previous query, to refine them if possible
      */
-    private fun executeSearchQuery() = suspend {
-        cancelCancelTokenUseCase()
-        searchUseCase(
-            parentHandle = NodeId(getCurrentParentHandle()),
-            nodeSourceType = nodeSourceType,
-            searchParameters = getSearchParameters()
-        )
-    }
+    private fun executeSearchQuery(previousResults: SearchResults?) = searchAsYouTypeUseCase(
+        parentHandle = NodeId(getCurrentParentHandle()),
+        nodeSourceType = nodeSourceType,
+        searchParameters = getSearchParameters(),
+        previousResults = previousResults,
+    )
 
     private fun getSearchParameters() = SearchParameters(
         query = getCurrentSearchQuery(),
@@ -253,8 +251,9 @@ class SearchViewModel @Inject constructor(
         }
     }
 
-    private suspend fun onSearchSuccess(sourceSearchResults: List<TypedNode>?) {
-        val searchResults = filterNonSensitiveNodes(sourceSearchResults)
+    private suspend fun onSearchSuccess(sourceSearchResults: SearchResults) {
+        this.searchResults = sourceSearchResults
+        val searchResults = filterNonSensitiveNodes(sourceSearchResults.nodes)
         if (searchResults.isNullOrEmpty()) {
             val emptyState = getEmptySearchState()
             _state.update {
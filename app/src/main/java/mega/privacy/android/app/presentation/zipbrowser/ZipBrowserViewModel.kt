@@ -36,6 +36,7 @@ class ZipBrowserViewModel @Inject constructor(
     savedStateHandle: SavedStateHandle,
 ) : ViewModel() {
     private var zipNodeTree: Map<String, ZipTreeNode>? = null
+    private var rootZipTreeNodes: List<ZipTreeNode> = emptyList()
     private val zipFullPath: String? = savedStateHandle[EXTRA_PATH_ZIP]
     private var unzipRootPath: String? = null
     private var zipFile: ZipFile? = null
@@ -71,6 +72,7 @@ class ZipBrowserViewModel @Inject constructor(
                 updateShowAlertDialog(true)
                 null
             }.getOrNull() ?: return
+            rootZipTreeNodes = zipNodeTree?.values?.filter { it.parentPath == null }.orEmpty()
 
             dataUpdated()
         }
@@ -80,15 +82,14 @@ class ZipBrowserViewModel @Inject constructor(
         zipNodeTree?.let { nodeTree ->
             if (nodeTree.isNotEmpty()) {
                 var currentZipTreeNode: ZipTreeNode? = null
+                // Only the children of the opened folder are mapped
                 val entities = if (zipFolderPath == null) {
-                    nodeTree.values.filter { it.parentPath == null }
+                    rootZipTreeNodes
                 } else {
                     currentZipTreeNode = nodeTree[zipFolderPath]
-                    currentZipTreeNode?.children?.map {
-                        nodeTree[it.path]
-                    }
+                    currentZipTreeNode?.children
                 }?.mapNotNull { zipTreeNode ->
-                    zipTreeNode?.let { zipInfoUiEntityMapper(it) }
+                    zipInfoUiEntityMapper(zipTreeNode)
                 } ?: emptyList()
 
                 val parentFolderName = getTitle(zipFolderPath)
@@ -135,19 +136,21 @@ class ZipBrowserViewModel @Inject constructor(
 
             ZipItemClickedEventType.ZipFileNotUnpacked -> {
                 viewModelScope.launch {
-                    val unzipResult = runCatching {
-                        unzipFileUseCase(zipFile, unzipRootPath)
-                    }.recover { Timber.e(it) }.getOrNull()
-
-                    if (unzipResult == true) {
-                        itemClicked(item)
-                    } else {
-                        updateShowAlertDialog(true)
-                    }
+                    val isUnzipped = runCatching {
+                        unzipItem(item)
+                    }.onFailure { Timber.e(it) }.isSuccess
 
                     _uiState.update {
-                        it.copy(showUnzipProgressBar = false)
+                        it.copy(showUnzipProgressBar = false, unzipProgress = null)
                     }
+                    handleItemClickedEventType(
+                        item = item,
+                        eventType = if (isUnzipped && File(unzipRootPath + item.path).exists()) {
+                            ZipItemClickedEventType.OpenFile
+                        } else {
+                            ZipItemClickedEventType.ZipItemNonExistent
+                        }
+                    )
                 }
             }
 
@@ -158,6 +161,22 @@ class ZipBrowserViewModel @Inject constructor(
         }
     }
 
+    /**
+     * Extract only the clicked item, with its children if it is a folder, updating the progress
+     */
+    private suspend fun unzipItem(item: ZipInfoUiEntity) {
+        val zipFile = checkNotNull(zipFile) { "The zip file can't be opened" }
+        val unzipRootPath = checkNotNull(unzipRootPath) { "The unzip root path is not set" }
+        unzipFileUseCase(zipFile, unzipRootPath, item.path).collect { progress ->
+            _uiState.update {
+                it.copy(
+                    unzipProgress = progress.totalBytes.takeIf { total -> total > 0 }
+                        ?.let { total -> progress.processedBytes.toFloat() / total }
+                )
+            }
+        }
+    }
+
     private fun getItemClickedEventType(
         zipInfoUiEntity: ZipInfoUiEntity,
         rootPath: String,
@@ -166,18 +185,15 @@ class ZipBrowserViewModel @Inject constructor(
             zipInfoUiEntity.zipEntryType == ZipEntryType.Folder ->
                 ZipItemClickedEventType.OpenFolder
 
-            File(rootPath).exists().not() -> {
+            File(rootPath + zipInfoUiEntity.path).exists() ->
+                ZipItemClickedEventType.OpenFile
+
+            else -> {
                 _uiState.update {
                     it.copy(showUnzipProgressBar = true)
                 }
                 ZipItemClickedEventType.ZipFileNotUnpacked
             }
-
-            File(rootPath + zipInfoUiEntity.path).exists() ->
-                ZipItemClickedEventType.OpenFile
-
-            else ->
-                ZipItemClickedEventType.ZipItemNonExistent
         }
 
     /**
@@ -10,6 +10,7 @@ import mega.privacy.android.domain.entity.zipbrowser.ZipTreeNode
  * @property parentFolderName parent folder name
  * @property currentZipTreeNode the current ZipTreeNode
  * @property showUnzipProgressBar whether should show the unzip progress bar
+ * @property unzipProgress the fraction of the bytes unzipped, or null if it is not known yet
  * @property showAlertDialog whether should show the file cannot open alert dialog
  * @property showSnackBar whether should show the snack bar
  * @property openedFile opened file
@@ -20,6 +21,7 @@ data class ZipBrowserUiState(
     val parentFolderName: String = "",
     val currentZipTreeNode: ZipTreeNode? = null,
     val showUnzipProgressBar: Boolean = false,
+    val unzipProgress: Float? = null,
     val showAlertDialog: Boolean = false,
     val showSnackBar: Boolean = false,
     val openedFile: ZipInfoUiEntity? = null,
@@ -21,6 +21,7 @@ internal fun ZipBrowserScreen(
         parentFolderName = uiState.parentFolderName,
         folderDepth = uiState.folderDepth,
         showProgressBar = uiState.showUnzipProgressBar,
+        unzipProgress = uiState.unzipProgress,
         showAlertDialog = uiState.showAlertDialog,
         showSnackBar = uiState.showSnackBar,
         onItemClicked = viewModel::itemClicked,
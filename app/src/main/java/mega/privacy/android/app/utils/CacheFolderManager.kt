@@ -41,6 +41,11 @@ object CacheFolderManager {
      */
     const val TEMPORARY_FOLDER = "tempMEGA"
 
+    /**
+     * PDF_THUMBNAIL_FOLDER, rendered thumbnails of the pages of the PDF documents
+     */
+    const val PDF_THUMBNAIL_FOLDER = "pdfThumbnailsMEGA"
+
     /**
      * CacheFolder Gateway
      */
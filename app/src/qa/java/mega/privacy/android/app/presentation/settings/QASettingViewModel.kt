@@ -8,6 +8,7 @@ import kotlinx.coroutines.flow.onCompletion
 import kotlinx.coroutines.launch
 import mega.privacy.android.app.domain.usecase.UpdateApp
 import mega.privacy.android.domain.usecase.logging.GetZippedLogsUseCase
+import mega.privacy.android.domain.usecase.monitoring.ExportPerformanceReportUseCase
 import timber.log.Timber
 import java.io.File
 import javax.inject.Inject
@@ -16,6 +17,7 @@ import javax.inject.Inject
 class QASettingViewModel @Inject constructor(
     private val updateApp: UpdateApp,
     private val getLogFile: GetZippedLogsUseCase,
+    private val exportPerformanceReportUseCase: ExportPerformanceReportUseCase,
 ) : ViewModel() {
 
     fun checkUpdatePressed() {
@@ -40,4 +42,15 @@ class QASettingViewModel @Inject constructor(
             }
         }
     }
+
+    fun exportPerformanceReport(onReportCreated: (File) -> Unit) {
+        viewModelScope.launch {
+            try {
+                val reportFile = exportPerformanceReportUseCase()
+                onReportCreated(reportFile)
+            } catch (e: Exception) {
+                Timber.e(e, "Error exporting performance report")
+            }
+        }
+    }
 }
\ No newline at end of file
@@ -23,6 +23,7 @@ class QASettingsFragment : PreferenceFragmentCompat() {
     private val exportLogsPreferenceKey = "settings_qa_export_logs"
     private val saveLogsPreferenceKey = "settings_qa_save_logs"
     private val featureFlagsPreferenceKey = "settings_qa_feature_flags"
+    private val exportPerformanceReportPreferenceKey = "settings_qa_export_performance_report"
 
     override fun onCreatePreferences(savedInstanceState: Bundle?, rootKey: String?) {
         setPreferencesFromResource(R.xml.preferences_qa, rootKey)
@@ -46,6 +47,11 @@ class QASettingsFragment : PreferenceFragmentCompat() {
                 true
             }
 
+            exportPerformanceReportPreferenceKey -> {
+                viewModel.exportPerformanceReport(::sendSharePerformanceReportIntent)
+                true
+            }
+
             featureFlagsPreferenceKey -> {
                 startActivity(Intent(requireContext(), FeatureFlagActivity::class.java))
                 true
@@ -55,12 +61,25 @@ class QASettingsFragment : PreferenceFragmentCompat() {
         }
     }
 
-    private fun sendShareLogFileIntent(logFile: File) = Intent(Intent.ACTION_SEND).apply {
-        val uri = getLogFileUri(logFile)
-        putExtra(Intent.EXTRA_TITLE, "Send log file")
-        putExtra(Intent.EXTRA_SUBJECT, "Mega Log")
+    private fun sendShareLogFileIntent(logFile: File) =
+        sendShareFileIntent(logFile, title = "Send log file", subject = "Mega Log")
+
+    private fun sendSharePerformanceReportIntent(reportFile: File) = sendShareFileIntent(
+        reportFile,
+        title = "Send performance report",
+        subject = "Mega Performance Report"
+    )
+
+    private fun sendShareFileIntent(
+        file: File,
+        title: String,
+        subject: String,
+    ) = Intent(Intent.ACTION_SEND).apply {
+        val uri = getLogFileUri(file)
+        putExtra(Intent.EXTRA_TITLE, title)
+        putExtra(Intent.EXTRA_SUBJECT, subject)
         uri?.let<Uri, Unit> {
-            type = getMimeType(logFile)
+            type = getMimeType(file)
             putExtra(Intent.EXTRA_STREAM, it)
             addFlags(Intent.FLAG_GRANT_READ_URI_PERMISSION)
         }
@@ -0,0 +1,39 @@
+package com.github.barteksc.pdfviewer
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ThumbnailDiskCacheTest {
+
+    @TempDir
+    lateinit var folder: File
+
+    @Test
+    fun `test that the cache is created for a document with a fingerprint`() {
+        assertThat(ThumbnailDiskCache.create(folder, FINGERPRINT, null, MAX_BYTES)).isNotNull()
+    }
+
+    @Test
+    fun `test that no cache is created for a document protected by a password`() {
+        assertThat(ThumbnailDiskCache.create(folder, FINGERPRINT, "password", MAX_BYTES)).isNull()
+    }
+
+    @Test
+    fun `test that no cache is created for a document without fingerprint`() {
+        assertThat(ThumbnailDiskCache.create(folder, null, null, MAX_BYTES)).isNull()
+    }
+
+    @Test
+    fun `test that no cache is created without a cache folder`() {
+        assertThat(ThumbnailDiskCache.create(null, FINGERPRINT, null, MAX_BYTES)).isNull()
+    }
+
+    private companion object {
+        const val FINGERPRINT = "fingerprint"
+        const val MAX_BYTES = 1024L
+    }
+}
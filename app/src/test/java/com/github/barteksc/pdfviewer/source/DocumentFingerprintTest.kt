@@ -0,0 +1,50 @@
+package com.github.barteksc.pdfviewer.source
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import kotlin.random.Random
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class DocumentFingerprintTest {
+
+    private fun fingerprint(content: ByteArray, maxRead: Int = Int.MAX_VALUE) =
+        DocumentFingerprint.of(content.size.toLong()) { offset, length, data ->
+            val count = minOf(length, maxRead, content.size - offset.toInt())
+            content.copyInto(data, 0, offset.toInt(), offset.toInt() + count)
+            count
+        }
+
+    @Test
+    fun `test that the same content has the same fingerprint`() {
+        val content = Random(1).nextBytes(SIZE)
+
+        assertThat(fingerprint(content)).isEqualTo(fingerprint(content.copyOf()))
+    }
+
+    @Test
+    fun `test that short reads give the same fingerprint`() {
+        val content = Random(1).nextBytes(SIZE)
+
+        assertThat(fingerprint(content, maxRead = 1000)).isEqualTo(fingerprint(content))
+    }
+
+    @Test
+    fun `test that a different trailer changes the fingerprint`() {
+        val content = Random(1).nextBytes(SIZE)
+        val changed = content.copyOf().apply { this[SIZE - 1] = (this[SIZE - 1] + 1).toByte() }
+
+        assertThat(fingerprint(changed)).isNotEqualTo(fingerprint(content))
+    }
+
+    @Test
+    fun `test that documents smaller than the samples are fingerprinted`() {
+        val content = Random(1).nextBytes(100)
+
+        assertThat(fingerprint(content)).hasLength(64)
+    }
+
+    private companion object {
+        const val SIZE = 300 * 1024
+    }
+}
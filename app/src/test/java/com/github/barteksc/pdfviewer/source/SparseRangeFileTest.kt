@@ -0,0 +1,189 @@
+package com.github.barteksc.pdfviewer.source
+
+import com.google.common.truth.Truth.assertThat
+import com.sun.net.httpserver.HttpExchange
+import com.sun.net.httpserver.HttpServer
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.assertThrows
+import java.io.File
+import java.io.IOException
+import java.net.HttpURLConnection
+import java.net.InetSocketAddress
+import java.net.URL
+import java.nio.file.Files
+import java.util.Collections
+import kotlin.random.Random
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SparseRangeFileTest {
+
+    private val content = Random(1).nextBytes(SIZE)
+    private val requestedRanges: MutableList<String?> = Collections.synchronizedList(mutableListOf())
+    private val cacheDir = Files.createTempDirectory("pdf").toFile()
+    private lateinit var server: HttpServer
+
+    @BeforeAll
+    fun startServer() {
+        server = HttpServer.create(InetSocketAddress("127.0.0.1", 0), 0).apply {
+            createContext("/ranges") { exchange -> respondWithRange(exchange, maxLength = SIZE) }
+            createContext("/capped") { exchange ->
+                respondWithRange(exchange, maxLength = SparseRangeFile.BLOCK_SIZE)
+            }
+            createContext("/stalled") { exchange ->
+                // Only the first request returns whole blocks
+                respondWithRange(exchange, maxLength = if (requestedRanges.isEmpty()) SIZE else 100)
+            }
+            createContext("/whole") { exchange ->
+                requestedRanges.add(exchange.requestHeaders.getFirst("Range"))
+                exchange.sendResponseHeaders(HttpURLConnection.HTTP_OK, SIZE.toLong())
+                exchange.responseBody.use { it.write(content) }
+            }
+            start()
+        }
+    }
+
+    private fun respondWithRange(exchange: HttpExchange, maxLength: Int) {
+        val range = exchange.requestHeaders.getFirst("Range")
+        val (first, last) = range.removePrefix("bytes=").split("-").map { it.toInt() }
+        val end = minOf(last, SIZE - 1, first + maxLength - 1)
+        requestedRanges.add(range)
+        exchange.responseHeaders.add("Content-Range", "bytes $first-$end/$SIZE")
+        exchange.sendResponseHeaders(HttpURLConnection.HTTP_PARTIAL, (end - first + 1L))
+        exchange.responseBody.use { it.write(content, first, end - first + 1) }
+    }
+
+    @AfterAll
+    fun stopServer() {
+        server.stop(0)
+        cacheDir.deleteRecursively()
+    }
+
+    @BeforeEach
+    fun setUp() {
+        requestedRanges.clear()
+    }
+
+    private fun createUnderTest(path: String) = SparseRangeFile(
+        URL("http://127.0.0.1:${server.address.port}/$path"),
+        File.createTempFile("pdf", ".part", cacheDir),
+    )
+
+    @Test
+    fun `test that the size is read from the first range response`() {
+        createUnderTest("ranges").use { underTest ->
+            assertThat(underTest.size).isEqualTo(SIZE.toLong())
+            assertThat(requestedRanges).containsExactly("bytes=0-${FIRST_FETCH_SIZE - 1}")
+        }
+    }
+
+    @Test
+    fun `test that only the blocks which are read are fetched`() {
+        createUnderTest("ranges").use { underTest ->
+            val offset = SIZE - 10_000L
+            val data = ByteArray(20_000)
+
+            val count = underTest.read(offset, data.size, data)
+
+            assertThat(count).isEqualTo(10_000)
+            assertThat(data.copyOf(count)).isEqualTo(content.copyOfRange(offset.toInt(), SIZE))
+            val firstBlock = offset / SparseRangeFile.BLOCK_SIZE * SparseRangeFile.BLOCK_SIZE
+            assertThat(requestedRanges).containsExactly(
+                "bytes=0-${FIRST_FETCH_SIZE - 1}",
+                "bytes=$firstBlock-${SIZE - 1}",
+            ).inOrder()
+        }
+    }
+
+    @Test
+    fun `test that the fetched blocks are read from the cache file`() {
+        createUnderTest("ranges").use { underTest ->
+            val data = ByteArray(1_000)
+            underTest.read(500_000L, data.size, data)
+            requestedRanges.clear()
+
+            underTest.read(500_100L, data.size, data)
+
+            assertThat(data).isEqualTo(content.copyOfRange(500_100, 501_100))
+            assertThat(requestedRanges).isEmpty()
+            assertThat(underTest.fetchCount).isEqualTo(2)
+        }
+    }
+
+    @Test
+    fun `test that the fetch stops at the next fetched block`() {
+        createUnderTest("ranges").use { underTest ->
+            val block = SparseRangeFile.BLOCK_SIZE
+            val data = ByteArray(block)
+            underTest.read(6L * block, block, data)
+            requestedRanges.clear()
+
+            underTest.read(5L * block, block, data)
+
+            assertThat(requestedRanges).containsExactly("bytes=${5 * block}-${6 * block - 1}")
+            assertThat(data).isEqualTo(content.copyOfRange(5 * block, 6 * block))
+        }
+    }
+
+    @Test
+    fun `test that the missing blocks are fetched again if the server returns a shorter range`() {
+        createUnderTest("capped").use { underTest ->
+            val block = SparseRangeFile.BLOCK_SIZE
+            val data = ByteArray(3 * block)
+
+            val count = underTest.read(5L * block, data.size, data)
+
+            assertThat(count).isEqualTo(data.size)
+            assertThat(data).isEqualTo(content.copyOfRange(5 * block, 8 * block))
+            assertThat(requestedRanges).containsExactly(
+                "bytes=0-${FIRST_FETCH_SIZE - 1}",
+                "bytes=${5 * block}-${9 * block - 1}",
+                "bytes=${6 * block}-${10 * block - 1}",
+                "bytes=${7 * block}-${11 * block - 1}",
+            ).inOrder()
+        }
+    }
+
+    @Test
+    fun `test that the read fails if a fetch returns no whole block`() {
+        createUnderTest("stalled").use { underTest ->
+            val block = SparseRangeFile.BLOCK_SIZE
+            val data = ByteArray(block)
+
+            assertThrows<IOException> { underTest.read(5L * block, block, data) }
+        }
+    }
+
+    @Test
+    fun `test that the whole file is copied if the server does not support ranges`() {
+        createUnderTest("whole").use { underTest ->
+            val data = ByteArray(1_000)
+
+            underTest.read(SIZE - 1_000L, data.size, data)
+
+            assertThat(data).isEqualTo(content.copyOfRange(SIZE - 1_000, SIZE))
+            assertThat(underTest.fetchCount).isEqualTo(1)
+        }
+    }
+
+    @Test
+    fun `test that the cache file is deleted when closed`() {
+        val file = File.createTempFile("pdf", ".part", cacheDir)
+        val underTest = SparseRangeFile(
+            URL("http://127.0.0.1:${server.address.port}/ranges"),
+            file,
+        )
+
+        underTest.close()
+
+        assertThat(file.exists()).isFalse()
+    }
+
+    private companion object {
+        const val SIZE = 1_000_000
+        const val FIRST_FETCH_SIZE = SparseRangeFile.BLOCK_SIZE * SparseRangeFile.MIN_FETCH_BLOCKS
+    }
+}
@@ -0,0 +1,112 @@
+package mega.privacy.android.app.components.twemoji
+
+import mega.privacy.android.app.components.twemoji.emoji.Emoji
+import org.junit.jupiter.api.Tag
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.util.regex.Pattern
+import kotlin.random.Random
+
+/**
+ * Micro benchmark comparing the cost of building and matching with [EmojiMatcher] and with the
+ * alternation regex of all the emojis that [EmojiManager] used before, on chat like messages.
+ *
+ * It is only run with the includeBenchmarks Gradle property, as the timings depend on the machine.
+ * [EmojiMatcherTest] checks that both find the same emojis.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EmojiMatcherBenchmarkTest {
+
+    private val emojis = LinkedHashMap<String, Emoji>().apply {
+        TwitterEmojiProvider().categories.forEach { category ->
+            category.emojis.forEach { emoji ->
+                put(emoji.unicode, emoji)
+                emoji.variants.forEach { put(it.unicode, it) }
+            }
+        }
+    }
+
+    private val messages = createMessages(Random(1), 5_000)
+
+    @Test
+    fun `benchmark the build and the matching of chat messages`() {
+        // warm up
+        repeat(3) {
+            val matcher = EmojiMatcher(emojis)
+            val pattern = createPattern()
+            messages.forEach { matcher.findAll(it) }
+            messages.forEach { findAllWithRegex(pattern, it) }
+        }
+
+        lateinit var matcher: EmojiMatcher
+        lateinit var pattern: Pattern
+        val matcherBuildNanos = measure { matcher = EmojiMatcher(emojis) }
+        val regexBuildNanos = measure { pattern = createPattern() }
+        val characters = messages.sumOf { it.length }
+        val matcherNanos = measure { messages.forEach { matcher.findAll(it) } }
+        val regexNanos = measure { messages.forEach { findAllWithRegex(pattern, it) } }
+
+        println(
+            "emojis: ${emojis.size}, build: matcher ${matcherBuildNanos / 1_000_000} ms, " +
+                    "regex ${regexBuildNanos / 1_000_000} ms"
+        )
+        println(
+            "messages: ${messages.size}, matcher: ${matcherNanos / characters} ns/char, " +
+                    "regex: ${regexNanos / characters} ns/char"
+        )
+    }
+
+    private fun createPattern(): Pattern = Pattern.compile(
+        emojis.keys.sortedByDescending { it.length }.joinToString("|") { Pattern.quote(it) }
+    )
+
+    private fun findAllWithRegex(pattern: Pattern, text: String): List<EmojiRange> {
+        val matcher = pattern.matcher(text)
+        val result = mutableListOf<EmojiRange>()
+        while (matcher.find()) {
+            result.add(EmojiRange(matcher.start(), matcher.end(), emojis.getValue(matcher.group())))
+        }
+        return result
+    }
+
+    private inline fun measure(block: () -> Unit): Long {
+        val start = System.nanoTime()
+        block()
+        return System.nanoTime() - start
+    }
+
+    /**
+     * Messages like the ones of a chat: mostly text in different scripts, with links, some emojis,
+     * flags and sequences with skin tones, and some messages of emojis only
+     */
+    private fun createMessages(random: Random, count: Int): List<String> {
+        val unicodes = emojis.keys.toList()
+        return List(count) {
+            if (random.nextInt(10) == 0) {
+                List(random.nextInt(1, 4)) { unicodes.random(random) }.joinToString(" ")
+            } else {
+                buildString {
+                    repeat(random.nextInt(1, 30)) {
+                        when (random.nextInt(12)) {
+                            0 -> append(unicodes.random(random))
+                            1 -> append("https://mega.nz/file/abc#key")
+                            2 -> append(CJK_WORDS.random(random))
+                            3 -> append("#${random.nextInt(100)}")
+                            else -> append(WORDS.random(random))
+                        }
+                        append(' ')
+                    }
+                }
+            }
+        }
+    }
+
+    private companion object {
+        val WORDS = listOf(
+            "hello", "the", "meeting", "is", "at", "10:30", "ok", "thanks", "see", "you",
+            "tomorrow", "file", "uploaded", "Привет", "¿qué", "tal?", "naïve", "© 2024"
+        )
+        val CJK_WORDS = listOf("你好", "ありがとう", "안녕하세요")
+    }
+}
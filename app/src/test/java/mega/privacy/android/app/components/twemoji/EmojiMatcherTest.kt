@@ -0,0 +1,97 @@
+package mega.privacy.android.app.components.twemoji
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.components.twemoji.emoji.Emoji
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.util.regex.Pattern
+import kotlin.random.Random
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class EmojiMatcherTest {
+
+    private val emojis = LinkedHashMap<String, Emoji>().apply {
+        TwitterEmojiProvider().categories.forEach { category ->
+            category.emojis.forEach { emoji ->
+                put(emoji.unicode, emoji)
+                emoji.variants.forEach { put(it.unicode, it) }
+            }
+        }
+    }
+
+    private val messages = createMessages(Random(1), 1_000)
+
+    @Test
+    fun `test that the matcher finds the same emojis as the regex of all the emojis`() {
+        val matcher = EmojiMatcher(emojis)
+        val pattern = createPattern()
+        val repetitivePattern = Pattern.compile("(${pattern.pattern()})+")
+
+        messages.forEach { message ->
+            assertThat(matcher.findAll(message)).isEqualTo(findAllWithRegex(pattern, message))
+            val withoutSpaces = message.replace(Regex("\\s"), "")
+            assertThat(matcher.matchesOnlyEmojis(withoutSpaces))
+                .isEqualTo(repetitivePattern.matcher(withoutSpaces).matches())
+        }
+    }
+
+    @Test
+    fun `test that the longest emoji is matched`() {
+        val matcher = EmojiMatcher(emojis)
+        val flag = String(intArrayOf(0x1f3f3, 0xfe0f, 0x200d, 0x1f308), 0, 4)
+
+        val actual = matcher.findAll("Pride $flag!")
+
+        assertThat(actual).containsExactly(EmojiRange(6, 6 + flag.length, emojis.getValue(flag)))
+    }
+
+    /**
+     * The alternation of all the emojis, longest first, that the emojis were matched with before
+     */
+    private fun createPattern(): Pattern = Pattern.compile(
+        emojis.keys.sortedByDescending { it.length }.joinToString("|") { Pattern.quote(it) }
+    )
+
+    private fun findAllWithRegex(pattern: Pattern, text: String): List<EmojiRange> {
+        val matcher = pattern.matcher(text)
+        val result = mutableListOf<EmojiRange>()
+        while (matcher.find()) {
+            result.add(EmojiRange(matcher.start(), matcher.end(), emojis.getValue(matcher.group())))
+        }
+        return result
+    }
+
+    /**
+     * Messages like the ones of a chat: mostly text in different scripts, with links, some emojis,
+     * flags and sequences with skin tones, and some messages of emojis only
+     */
+    private fun createMessages(random: Random, count: Int): List<String> {
+        val unicodes = emojis.keys.toList()
+        return List(count) {
+            if (random.nextInt(10) == 0) {
+                List(random.nextInt(1, 4)) { unicodes.random(random) }.joinToString(" ")
+            } else {
+                buildString {
+                    repeat(random.nextInt(1, 30)) {
+                        when (random.nextInt(12)) {
+                            0 -> append(unicodes.random(random))
+                            1 -> append("https://mega.nz/file/abc#key")
+                            2 -> append(CJK_WORDS.random(random))
+                            3 -> append("#${random.nextInt(100)}")
+                            else -> append(WORDS.random(random))
+                        }
+                        append(' ')
+                    }
+                }
+            }
+        }
+    }
+
+    private companion object {
+        val WORDS = listOf(
+            "hello", "the", "meeting", "is", "at", "10:30", "ok", "thanks", "see", "you",
+            "tomorrow", "file", "uploaded", "Привет", "¿qué", "tal?", "naïve", "© 2024"
+        )
+        val CJK_WORDS = listOf("你好", "ありがとう", "안녕하세요")
+    }
+}
@@ -52,6 +52,7 @@ import mega.privacy.android.domain.usecase.account.MonitorAccountDetailUseCase
 import mega.privacy.android.domain.usecase.account.MonitorRefreshSessionUseCase
 import mega.privacy.android.domain.usecase.account.MonitorStorageStateUseCase
 import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCase
+import mega.privacy.android.domain.usecase.filebrowser.GetFileBrowserNodeChildrenPageUseCase
 import mega.privacy.android.domain.usecase.filebrowser.GetFileBrowserNodeChildrenUseCase
 import mega.privacy.android.domain.usecase.folderlink.ContainsMediaItemUseCase
 import mega.privacy.android.domain.usecase.network.MonitorConnectivityUseCase
@@ -78,6 +79,7 @@ import org.junit.jupiter.params.provider.ValueSource
 import org.mockito.kotlin.any
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
@@ -100,6 +102,8 @@ class FileBrowserViewModelTest {
     private val monitorNodeUpdatesUseCase = mock<MonitorNodeUpdatesUseCase>()
     private val getParentNodeUseCase = mock<GetParentNodeUseCase>()
     private val getFileBrowserNodeChildrenUseCase = mock<GetFileBrowserNodeChildrenUseCase>()
+    private val getFileBrowserNodeChildrenPageUseCase =
+        mock<GetFileBrowserNodeChildrenPageUseCase>()
     private val getCloudSortOrder = mock<GetCloudSortOrder>()
     private val handleOptionClickMapper = mock<HandleOptionClickMapper>()
     private val monitorViewType = mock<MonitorViewType>()
@@ -152,6 +156,7 @@ class FileBrowserViewModelTest {
             getParentNodeUseCase = getParentNodeUseCase,
             isNodeInRubbishBinUseCase = isNodeInRubbishBinUseCase,
             getFileBrowserNodeChildrenUseCase = getFileBrowserNodeChildrenUseCase,
+            getFileBrowserNodeChildrenPageUseCase = getFileBrowserNodeChildrenPageUseCase,
             getCloudSortOrder = getCloudSortOrder,
             setViewType = setViewType,
             monitorViewType = monitorViewType,
@@ -302,6 +307,35 @@ class FileBrowserViewModelTest {
             assertThat(underTest.state.value.nodesList.size).isEqualTo(2)
         }
 
+    @Test
+    fun `test that the first page of the children is only requested for a folder not listed yet`() =
+        runTest {
+            val newValue = 123456789L
+            whenever(getFileBrowserNodeChildrenPageUseCase(newValue, 0, 100))
+                .thenReturn(List(100) { mock<TypedFolderNode>() })
+            whenever(getFileBrowserNodeChildrenUseCase(newValue))
+                .thenReturn(List(150) { mock<TypedFolderNode>() })
+
+            underTest.setFileBrowserHandle(newValue)
+            underTest.refreshNodes()
+
+            verify(getFileBrowserNodeChildrenPageUseCase).invoke(newValue, 0, 100)
+            assertThat(underTest.state.value.nodesList.size).isEqualTo(150)
+        }
+
+    @Test
+    fun `test that the children are not retrieved again if they fit in the first page`() =
+        runTest {
+            val newValue = 123456789L
+            whenever(getFileBrowserNodeChildrenPageUseCase(newValue, 0, 100))
+                .thenReturn(List(20) { mock<TypedFolderNode>() })
+
+            underTest.setFileBrowserHandle(newValue)
+
+            verify(getFileBrowserNodeChildrenUseCase, never()).invoke(newValue)
+            assertThat(underTest.state.value.nodesList.size).isEqualTo(20)
+        }
+
     @Test
     fun `test that no nodes are returned when setting the file browser handle and the file browser node is null`() =
         runTest {
@@ -782,6 +816,7 @@ class FileBrowserViewModelTest {
             monitorNodeUpdatesUseCase,
             getParentNodeUseCase,
             getFileBrowserNodeChildrenUseCase,
+            getFileBrowserNodeChildrenPageUseCase,
             getCloudSortOrder,
             handleOptionClickMapper,
             monitorViewType,
@@ -3,28 +3,40 @@ package mega.privacy.android.app.presentation.meeting.chat.model.paging
 import androidx.paging.ExperimentalPagingApi
 import androidx.paging.LoadType
 import androidx.paging.PagingConfig
+import androidx.paging.PagingSource
 import androidx.paging.PagingState
 import androidx.paging.RemoteMediator
 import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.TimeoutCancellationException
 import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.test.advanceUntilIdle
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.chat.ChatHistoryLoadStatus
 import mega.privacy.android.domain.entity.chat.ChatMessage
 import mega.privacy.android.domain.entity.chat.messages.TypedMessage
 import mega.privacy.android.domain.entity.chat.messages.paging.FetchMessagePageResponse
+import mega.privacy.android.domain.entity.chat.messages.paging.ResumeChatHistoryResult
+import mega.privacy.android.domain.entity.chat.messages.paging.TypedMessagePagingKey
 import mega.privacy.android.domain.usecase.chat.message.paging.ClearChatMessagesUseCase
 import mega.privacy.android.domain.usecase.chat.message.paging.FetchMessagePageUseCase
+import mega.privacy.android.domain.usecase.chat.message.paging.GetNewestStoredMessageTimestampUseCase
+import mega.privacy.android.domain.usecase.chat.message.paging.ReportChatHistoryOpenUseCase
+import mega.privacy.android.domain.usecase.chat.message.paging.ResumeChatHistoryUseCase
 import mega.privacy.android.domain.usecase.chat.message.paging.SaveChatMessagesUseCase
 import org.junit.jupiter.api.AfterEach
-import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.mockito.Mockito
 import org.mockito.kotlin.any
+import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.stub
+import org.mockito.kotlin.times
 import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 
 @OptIn(ExperimentalPagingApi::class)
@@ -37,34 +49,47 @@ class PagedChatMessageRemoteMediatorTest {
     private val fetchMessages = mock<FetchMessagePageUseCase>()
     private val saveChatMessagesUseCase = mock<SaveChatMessagesUseCase>()
     private val clearChatMessagesUseCase = mock<ClearChatMessagesUseCase>()
+    private val getNewestStoredMessageTimestampUseCase =
+        mock<GetNewestStoredMessageTimestampUseCase>()
+    private val resumeChatHistoryUseCase = mock<ResumeChatHistoryUseCase>()
+    private val reportChatHistoryOpenUseCase = mock<ReportChatHistoryOpenUseCase>()
 
     val pageSize = 10
-    private val state = PagingState<Int, TypedMessage>(
+    private val state = PagingState<TypedMessagePagingKey, TypedMessage>(
         emptyList(),
         null,
         PagingConfig(10),
         10
     )
 
-    @BeforeAll
+    @BeforeEach
     internal fun setUp() {
-        underTest =
-            PagedChatMessageRemoteMediator(
-                chatId = chatId,
-                fetchMessages = fetchMessages,
-                saveMessages = saveChatMessagesUseCase,
-                coroutineScope = mock(),
-                clearChatMessagesUseCase = clearChatMessagesUseCase,
-            )
+        underTest = createUnderTest(coroutineScope = mock(), isResumable = false)
     }
 
+    private fun createUnderTest(coroutineScope: CoroutineScope, isResumable: Boolean) =
+        PagedChatMessageRemoteMediator(
+            chatId = chatId,
+            fetchMessages = fetchMessages,
+            saveMessages = saveChatMessagesUseCase,
+            messagesScope = coroutineScope,
+            clearChatMessagesUseCase = clearChatMessagesUseCase,
+            getNewestStoredMessageTimestampUseCase = getNewestStoredMessageTimestampUseCase,
+            resumeChatHistoryUseCase = resumeChatHistoryUseCase,
+            reportChatHistoryOpenUseCase = reportChatHistoryOpenUseCase,
+            isResumable = isResumable,
+        )
+
     @AfterEach
     internal fun tearDown() {
         messageFlow.value = null
         Mockito.reset(
             fetchMessages,
             saveChatMessagesUseCase,
-            clearChatMessagesUseCase
+            clearChatMessagesUseCase,
+            getNewestStoredMessageTimestampUseCase,
+            resumeChatHistoryUseCase,
+            reportChatHistoryOpenUseCase,
         )
     }
 
@@ -179,4 +204,116 @@ class PagedChatMessageRemoteMediatorTest {
             assertThat((result as RemoteMediator.MediatorResult.Error).throwable)
                 .isInstanceOf(TimeoutCancellationException::class.java)
         }
-}
\ No newline at end of file
+
+    @Test
+    internal fun `test that the initial refresh is launched if the mediator is not resumable`() =
+        runTest {
+            assertThat(underTest.initialize())
+                .isEqualTo(RemoteMediator.InitializeAction.LAUNCH_INITIAL_REFRESH)
+            verifyNoInteractions(getNewestStoredMessageTimestampUseCase)
+        }
+
+    @Test
+    internal fun `test that the initial refresh is launched if there is no stored history`() =
+        runTest {
+            whenever(getNewestStoredMessageTimestampUseCase(chatId)).thenReturn(null)
+            underTest = createUnderTest(coroutineScope = this, isResumable = true)
+
+            assertThat(underTest.initialize())
+                .isEqualTo(RemoteMediator.InitializeAction.LAUNCH_INITIAL_REFRESH)
+        }
+
+    @Test
+    internal fun `test that the stored history is resumed instead of refreshed`() = runTest {
+        val newestStoredTimestamp = 1000L
+        whenever(getNewestStoredMessageTimestampUseCase(chatId)).thenReturn(newestStoredTimestamp)
+        whenever(resumeChatHistoryUseCase(any(), any(), any(), any())).thenReturn(
+            ResumeChatHistoryResult(fetchedCount = 40, refetchedCount = 32, isEndOfHistory = false)
+        )
+        underTest = createUnderTest(coroutineScope = this, isResumable = true)
+
+        assertThat(underTest.initialize())
+            .isEqualTo(RemoteMediator.InitializeAction.SKIP_INITIAL_REFRESH)
+        advanceUntilIdle()
+
+        verify(resumeChatHistoryUseCase).invoke(
+            eq(chatId),
+            eq(newestStoredTimestamp),
+            eq(PagedChatMessageRemoteMediator.RESUME_OVERLAP),
+            any(),
+        )
+        verify(clearChatMessagesUseCase, never()).invoke(any(), any())
+        verify(reportChatHistoryOpenUseCase).invoke(
+            timeToFirstMessageMillis = any(),
+            fetchedCount = eq(40),
+            refetchedCount = eq(32),
+            isResumed = eq(true),
+        )
+    }
+
+    @Test
+    internal fun `test that the refetched messages are reported after the first refresh`() =
+        runTest {
+            whenever(getNewestStoredMessageTimestampUseCase(chatId)).thenReturn(20L)
+            val messages = listOf(10L, 20L, 30L).map { time ->
+                mock<ChatMessage> { on { timestamp }.thenReturn(time) }
+            }
+            fetchMessages.stub {
+                onBlocking { invoke(any(), any()) }.thenReturn(
+                    FetchMessagePageResponse(
+                        chatId = chatId,
+                        messages = messages,
+                        loadResponse = ChatHistoryLoadStatus.NONE
+                    )
+                )
+            }
+
+            underTest.load(LoadType.REFRESH, state)
+            underTest.load(LoadType.REFRESH, state)
+
+            verify(reportChatHistoryOpenUseCase).invoke(
+                timeToFirstMessageMillis = any(),
+                fetchedCount = eq(3),
+                refetchedCount = eq(2),
+                isResumed = eq(false),
+            )
+        }
+
+    @Test
+    internal fun `test that the append only counts the messages older than the loaded ones`() =
+        runTest {
+            val loadedMessage = mock<TypedMessage> { on { time }.thenReturn(100L) }
+            val loadedState = PagingState(
+                listOf(
+                    PagingSource.LoadResult.Page<TypedMessagePagingKey, TypedMessage>(
+                        data = listOf(loadedMessage),
+                        prevKey = null,
+                        nextKey = null,
+                    )
+                ),
+                null,
+                PagingConfig(2),
+                0
+            )
+            val newerMessages = listOf(
+                mock<ChatMessage> { on { timestamp }.thenReturn(120L) },
+                mock<ChatMessage> { on { timestamp }.thenReturn(110L) },
+            )
+            val olderMessages = listOf(
+                mock<ChatMessage> { on { timestamp }.thenReturn(90L) },
+                mock<ChatMessage> { on { timestamp }.thenReturn(80L) },
+            )
+            fetchMessages.stub {
+                onBlocking { invoke(any(), any()) }.thenReturn(
+                    FetchMessagePageResponse(chatId, newerMessages, ChatHistoryLoadStatus.LOCAL),
+                    FetchMessagePageResponse(chatId, olderMessages, ChatHistoryLoadStatus.LOCAL),
+                )
+            }
+
+            underTest.load(LoadType.APPEND, loadedState)
+
+            verify(fetchMessages, times(2)).invoke(any(), any())
+            verify(saveChatMessagesUseCase).invoke(chatId, newerMessages)
+            verify(saveChatMessagesUseCase).invoke(chatId, olderMessages)
+        }
+}
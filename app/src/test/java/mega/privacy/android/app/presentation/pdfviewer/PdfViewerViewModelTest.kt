@@ -25,11 +25,11 @@ import mega.privacy.android.domain.usecase.IsHiddenNodesOnboardedUseCase
 import mega.privacy.android.domain.usecase.UpdateNodeSensitiveUseCase
 import mega.privacy.android.domain.usecase.account.MonitorAccountDetailUseCase
 import mega.privacy.android.domain.usecase.favourites.IsAvailableOfflineUseCase
-import mega.privacy.android.domain.usecase.file.GetDataBytesFromUrlUseCase
 import mega.privacy.android.domain.usecase.node.CheckChatNodesNameCollisionAndCopyUseCase
 import mega.privacy.android.domain.usecase.node.CheckNodesNameCollisionWithActionUseCase
 import mega.privacy.android.domain.usecase.node.IsNodeInBackupsUseCase
 import mega.privacy.android.domain.usecase.node.chat.GetChatFileUseCase
+import mega.privacy.android.domain.usecase.pdf.ReportPdfRenderingUseCase
 import mega.privacy.android.domain.usecase.transfers.overquota.MonitorTransferOverQuotaUseCase
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
@@ -40,6 +40,7 @@ import org.mockito.kotlin.any
 import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import org.mockito.kotlin.wheneverBlocking
 
@@ -53,7 +54,6 @@ internal class PdfViewerViewModelTest {
         mock<CheckNodesNameCollisionWithActionUseCase>()
     private val checkChatNodesNameCollisionAndCopyUseCase =
         mock<CheckChatNodesNameCollisionAndCopyUseCase>()
-    private val getDataBytesFromUrlUseCase: GetDataBytesFromUrlUseCase = mock()
     private val updateNodeSensitiveUseCase: UpdateNodeSensitiveUseCase = mock()
     private val isAvailableOfflineUseCase = mock<IsAvailableOfflineUseCase>()
     private val getChatFileUseCase = mock<GetChatFileUseCase>()
@@ -75,6 +75,7 @@ internal class PdfViewerViewModelTest {
     private val savedStateHandle = mock<SavedStateHandle>()
     private val getBusinessStatusUseCase = mock<GetBusinessStatusUseCase>()
     private val monitorTransferOverQuotaUseCase = mock<MonitorTransferOverQuotaUseCase>()
+    private val reportPdfRenderingUseCase = mock<ReportPdfRenderingUseCase>()
 
     @BeforeEach
     fun setUp() {
@@ -83,7 +84,6 @@ internal class PdfViewerViewModelTest {
 
     private fun initTest() {
         underTest = PdfViewerViewModel(
-            getDataBytesFromUrlUseCase = getDataBytesFromUrlUseCase,
             updateNodeSensitiveUseCase = updateNodeSensitiveUseCase,
             monitorAccountDetailUseCase = monitorAccountDetailUseCase,
             isHiddenNodesOnboardedUseCase = isHiddenNodesOnboardedUseCase,
@@ -95,6 +95,7 @@ internal class PdfViewerViewModelTest {
             getBusinessStatusUseCase = getBusinessStatusUseCase,
             savedStateHandle = savedStateHandle,
             monitorTransferOverQuotaUseCase = monitorTransferOverQuotaUseCase,
+            reportPdfRenderingUseCase = reportPdfRenderingUseCase,
         )
     }
 
@@ -105,6 +106,7 @@ internal class PdfViewerViewModelTest {
             checkChatNodesNameCollisionAndCopyUseCase,
             getChatFileUseCase,
             isAvailableOfflineUseCase,
+            reportPdfRenderingUseCase,
         )
 
         wheneverBlocking { monitorTransferOverQuotaUseCase() } doReturn emptyFlow()
@@ -421,6 +423,13 @@ internal class PdfViewerViewModelTest {
             assertThat(underTest.isInTransferOverQuota()).isTrue()
         }
 
+    @Test
+    internal fun `test that the rendering stats are reported`() {
+        underTest.onRenderingStats(renderedParts = 120, partsPerSecond = 41.6f, droppedTasks = 7)
+
+        verify(reportPdfRenderingUseCase)(120, 41.6f, 7)
+    }
+
     companion object {
         @JvmField
         @RegisterExtension
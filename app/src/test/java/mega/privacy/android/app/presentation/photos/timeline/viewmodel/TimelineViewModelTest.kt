@@ -6,8 +6,8 @@ import com.google.common.truth.Truth.assertThat
 import com.google.common.truth.Truth.assertWithMessage
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.flow.MutableSharedFlow
-import kotlinx.coroutines.flow.drop
 import kotlinx.coroutines.flow.emptyFlow
+import kotlinx.coroutines.flow.filter
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.StandardTestDispatcher
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
@@ -36,6 +36,7 @@ import mega.privacy.android.domain.entity.camerauploads.CameraUploadsFinishedRea
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRestartMode
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsStatusInfo
 import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotoDelta
 import mega.privacy.android.domain.entity.photos.TimelinePreferencesJSON
 import mega.privacy.android.domain.usecase.camerauploads.CheckEnableCameraUploadsStatusUseCase
 import mega.privacy.android.domain.usecase.FilterCameraUploadPhotos
@@ -53,7 +54,7 @@ import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCas
 import mega.privacy.android.domain.usecase.permisison.HasMediaPermissionUseCase
 import mega.privacy.android.domain.usecase.photos.EnableCameraUploadsInPhotosUseCase
 import mega.privacy.android.domain.usecase.photos.GetTimelineFilterPreferencesUseCase
-import mega.privacy.android.domain.usecase.photos.GetTimelinePhotosUseCase
+import mega.privacy.android.domain.usecase.photos.MonitorTimelinePhotoChangesUseCase
 import mega.privacy.android.domain.usecase.photos.SetTimelineFilterPreferencesUseCase
 import mega.privacy.android.domain.usecase.setting.MonitorShowHiddenItemsUseCase
 import mega.privacy.android.domain.usecase.workers.StartCameraUploadUseCase
@@ -85,7 +86,7 @@ internal class TimelineViewModelTest {
     private val isCameraUploadsEnabledUseCase =
         mock<IsCameraUploadsEnabledUseCase> { onBlocking { invoke() }.thenReturn(true) }
 
-    private val getTimelinePhotosUseCase = mock<GetTimelinePhotosUseCase>()
+    private val monitorTimelinePhotoChangesUseCase = mock<MonitorTimelinePhotoChangesUseCase>()
 
     private val filterCameraUploadPhotos =
         mock<FilterCameraUploadPhotos> { onBlocking { invoke(any()) }.thenAnswer { it.arguments[0] } }
@@ -141,7 +142,7 @@ internal class TimelineViewModelTest {
 
     @BeforeEach
     fun setUp() {
-        getTimelinePhotosUseCase.stub {
+        monitorTimelinePhotoChangesUseCase.stub {
             on { invoke() }.thenReturn(emptyFlow())
         }
         monitorCameraUploadsStatusInfoUseCase.stub {
@@ -164,7 +165,7 @@ internal class TimelineViewModelTest {
     fun initViewModel() {
         underTest = TimelineViewModel(
             isCameraUploadsEnabledUseCase = isCameraUploadsEnabledUseCase,
-            getTimelinePhotosUseCase = getTimelinePhotosUseCase,
+            monitorTimelinePhotoChangesUseCase = monitorTimelinePhotoChangesUseCase,
             getCameraUploadPhotos = filterCameraUploadPhotos,
             getCloudDrivePhotos = filterCloudDrivePhotos,
             setInitialCUPreferences = setInitialCUPreferences,
@@ -269,7 +270,9 @@ internal class TimelineViewModelTest {
         val expectedDate = LocalDateTime.now()
         val photo = mock<Photo.Image> { on { modificationTime }.thenReturn(expectedDate) }
         whenever(getTimelineFilterPreferencesUseCase()).thenReturn(null)
-        whenever(getTimelinePhotosUseCase()).thenReturn(flowOf(listOf(photo)))
+        whenever(monitorTimelinePhotoChangesUseCase()).thenReturn(
+            flowOf(PhotoDelta.Reset(listOf(photo)))
+        )
 
         initViewModel()
 
@@ -657,7 +660,9 @@ internal class TimelineViewModelTest {
 
         val expectedDate = LocalDateTime.now()
         val photo = mock<Photo.Image> { on { modificationTime }.thenReturn(expectedDate) }
-        whenever(getTimelinePhotosUseCase()).thenReturn(flowOf(listOf(photo)))
+        whenever(monitorTimelinePhotoChangesUseCase()).thenReturn(
+            flowOf(PhotoDelta.Reset(listOf(photo)))
+        )
 
         whenever(getTimelineFilterPreferencesUseCase()).thenReturn(mapOf())
 
@@ -665,7 +670,8 @@ internal class TimelineViewModelTest {
 
         initViewModel()
 
-        underTest.state.drop(3).test {
+        // The photos, their list items and cards are set to the state at once
+        underTest.state.filter { it.loadPhotosDone }.test {
             val state = awaitItem()
             assertThat(state.rememberFilter).isTrue()
             assertThat(state.currentMediaSource).isEqualTo(expectedLocation)
@@ -700,6 +706,42 @@ internal class TimelineViewModelTest {
         }
     }
 
+    @Test
+    fun `test that the photo changes are applied to the photos of the state`() = runTest {
+        val now = LocalDateTime.now()
+        val removedPhoto = mock<Photo.Image> {
+            on { id }.thenReturn(1L)
+            on { modificationTime }.thenReturn(now)
+        }
+        val keptPhoto = mock<Photo.Image> {
+            on { id }.thenReturn(2L)
+            on { modificationTime }.thenReturn(now.minusDays(1))
+        }
+        val addedPhoto = mock<Photo.Image> {
+            on { id }.thenReturn(3L)
+            on { modificationTime }.thenReturn(now.minusDays(2))
+        }
+        whenever(getTimelineFilterPreferencesUseCase()).thenReturn(null)
+        whenever(monitorTimelinePhotoChangesUseCase()).thenReturn(
+            flowOf(
+                PhotoDelta.Reset(listOf(removedPhoto, keptPhoto)),
+                PhotoDelta.Changes(
+                    upsertedPhotos = listOf(addedPhoto),
+                    removedPhotoIds = listOf(1L),
+                ),
+            )
+        )
+
+        initViewModel()
+        advanceUntilIdle()
+
+        val state = underTest.state.value
+        assertThat(state.photos).containsExactly(keptPhoto, addedPhoto)
+        assertThat(state.currentShowingPhotos).containsExactly(keptPhoto, addedPhoto).inOrder()
+        assertThat(state.daysCardPhotos.map { it.photo }).containsExactly(keptPhoto, addedPhoto)
+            .inOrder()
+    }
+
     companion object {
         @JvmField
         @RegisterExtension
@@ -0,0 +1,39 @@
+package mega.privacy.android.app.presentation.photos.util
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.assertThrows
+
+class ChunkedListTest {
+
+    @Test
+    fun `test that the elements of the chunks are concatenated`() {
+        val underTest = ChunkedList(listOf(listOf(1, 2), emptyList(), listOf(3), listOf(4, 5, 6)))
+
+        assertThat(underTest).containsExactly(1, 2, 3, 4, 5, 6).inOrder()
+        assertThat(underTest.size).isEqualTo(6)
+        assertThat((0 until underTest.size).map { underTest[it] })
+            .containsExactly(1, 2, 3, 4, 5, 6)
+            .inOrder()
+    }
+
+    @Test
+    fun `test that an index out of the list throws an exception`() {
+        val underTest = ChunkedList(listOf(listOf(1, 2)))
+
+        assertThrows<IndexOutOfBoundsException> { underTest[2] }
+        assertThrows<IndexOutOfBoundsException> { underTest[-1] }
+    }
+
+    @Test
+    fun `test that lists with the same elements are equal whatever their chunks`() {
+        val shared = listOf(1, 2)
+        val underTest = ChunkedList(listOf(shared, listOf(3)))
+
+        assertThat(underTest).isEqualTo(ChunkedList(listOf(shared, listOf(3))))
+        assertThat(underTest).isEqualTo(ChunkedList(listOf(listOf(1), listOf(2, 3))))
+        assertThat(underTest).isEqualTo(listOf(1, 2, 3))
+        assertThat(underTest.hashCode()).isEqualTo(listOf(1, 2, 3).hashCode())
+        assertThat(underTest).isNotEqualTo(ChunkedList(listOf(shared, listOf(4))))
+    }
+}
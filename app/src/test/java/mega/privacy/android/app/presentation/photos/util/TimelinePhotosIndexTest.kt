@@ -0,0 +1,217 @@
+package mega.privacy.android.app.presentation.photos.util
+
+import com.google.common.truth.Truth.assertThat
+import mega.privacy.android.app.presentation.photos.model.DateCard
+import mega.privacy.android.app.presentation.photos.model.Sort
+import mega.privacy.android.app.presentation.photos.model.ZoomLevel
+import mega.privacy.android.app.presentation.photos.timeline.model.PhotoListItem
+import mega.privacy.android.domain.entity.photos.Photo
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.Arguments
+import org.junit.jupiter.params.provider.MethodSource
+import org.mockito.kotlin.mock
+import java.time.LocalDateTime
+import java.time.YearMonth
+import java.util.stream.Stream
+import kotlin.random.Random
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TimelinePhotosIndexTest {
+    private lateinit var underTest: TimelinePhotosIndex
+
+    private val now = LocalDateTime.of(2024, 5, 10, 12, 0)
+
+    @BeforeEach
+    fun setUp() {
+        underTest = TimelinePhotosIndex()
+    }
+
+    @Test
+    fun `test that the photos are sorted by newest first and by descending id`() {
+        val photos = listOf(
+            createPhoto(id = 1L, modificationTime = now.minusDays(1)),
+            createPhoto(id = 2L, modificationTime = now),
+            createPhoto(id = 3L, modificationTime = now),
+        )
+
+        underTest.reset(photos, Sort.NEWEST)
+
+        assertThat(underTest.getSortedPhotos().map { it.id }).containsExactly(3L, 2L, 1L).inOrder()
+    }
+
+    @Test
+    fun `test that the photos are sorted by oldest first and by descending id`() {
+        val photos = listOf(
+            createPhoto(id = 1L, modificationTime = now.minusDays(1)),
+            createPhoto(id = 2L, modificationTime = now),
+            createPhoto(id = 3L, modificationTime = now),
+        )
+
+        underTest.reset(photos, Sort.OLDEST)
+
+        assertThat(underTest.getSortedPhotos().map { it.id }).containsExactly(1L, 3L, 2L).inOrder()
+    }
+
+    @Test
+    fun `test that an updated photo is moved to its new day`() {
+        underTest.reset(
+            listOf(
+                createPhoto(id = 1L, modificationTime = now),
+                createPhoto(id = 2L, modificationTime = now.minusDays(1)),
+            ),
+            Sort.NEWEST,
+        )
+        val updatedPhoto = createPhoto(id = 1L, modificationTime = now.minusDays(2))
+
+        underTest.upsert(updatedPhoto)
+
+        assertThat(underTest.getSortedPhotos().map { it.id }).containsExactly(2L, 1L).inOrder()
+        assertThat(underTest.getDaysCards().map { it.photo.id }).containsExactly(2L, 1L).inOrder()
+        assertThat(underTest.size).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that removing the last photo of a day removes the day`() {
+        underTest.reset(
+            listOf(
+                createPhoto(id = 1L, modificationTime = now),
+                createPhoto(id = 2L, modificationTime = now.minusDays(1)),
+            ),
+            Sort.NEWEST,
+        )
+
+        underTest.remove(1L)
+
+        assertThat(underTest.getDaysCards().map { (it as DateCard.DaysCard).photosCount })
+            .containsExactly("1")
+        assertThat(1L in underTest).isFalse()
+    }
+
+    @ParameterizedTest(name = "sort: {0}, zoom level: {1}")
+    @MethodSource("provideSortAndZoomLevel")
+    fun `test that random changes produce the same result as sorting and grouping again`(
+        sort: Sort,
+        zoomLevel: ZoomLevel,
+    ) {
+        val random = Random(42)
+        val photos = HashMap<Long, Photo>()
+        underTest.reset(emptyList(), sort)
+
+        repeat(2000) { iteration ->
+            val id = random.nextLong(200)
+            if (random.nextInt(4) == 0) {
+                photos.remove(id)
+                underTest.remove(id)
+            } else {
+                val photo = createPhoto(
+                    id = id,
+                    modificationTime = now.minusHours(random.nextLong(24 * 400)),
+                )
+                photos[id] = photo
+                underTest.upsert(photo)
+            }
+
+            if (iteration % 100 == 0) {
+                assertSameAsSortingAndGrouping(photos.values, sort, zoomLevel)
+            }
+        }
+        assertSameAsSortingAndGrouping(photos.values, sort, zoomLevel)
+    }
+
+    @Test
+    fun `test that the list items are created again when the zoom level changes`() {
+        val photos = listOf(
+            createPhoto(id = 1L, modificationTime = now),
+            createPhoto(id = 2L, modificationTime = now.minusDays(1)),
+        )
+        underTest.reset(photos, Sort.NEWEST)
+
+        assertThat(underTest.getPhotoListItems(ZoomLevel.Grid_3))
+            .isEqualTo(createPhotoListItems(photos, ZoomLevel.Grid_3))
+        assertThat(underTest.getPhotoListItems(ZoomLevel.Grid_1))
+            .isEqualTo(createPhotoListItems(photos, ZoomLevel.Grid_1))
+    }
+
+    @Test
+    fun `test that the lists returned are not changed by the next changes`() {
+        val first = createPhoto(id = 1L, modificationTime = now)
+        val second = createPhoto(id = 2L, modificationTime = now.minusDays(1))
+        underTest.reset(listOf(first, second), Sort.NEWEST)
+        val sortedPhotos = underTest.getSortedPhotos()
+        val photoListItems = underTest.getPhotoListItems(ZoomLevel.Grid_1)
+
+        underTest.upsert(createPhoto(id = 3L, modificationTime = now))
+        underTest.remove(2L)
+
+        assertThat(sortedPhotos).containsExactly(first, second).inOrder()
+        assertThat(photoListItems)
+            .isEqualTo(createPhotoListItems(listOf(first, second), ZoomLevel.Grid_1))
+        assertThat(underTest.getSortedPhotos().map { it.id }).containsExactly(3L, 1L).inOrder()
+    }
+
+    @Test
+    fun `test that the photos of the days without changes are not copied again`() {
+        val photos = (0L until 10L).map {
+            createPhoto(id = it, modificationTime = now.minusDays(it))
+        }
+        underTest.reset(photos, Sort.NEWEST)
+        val sortedPhotos = underTest.getSortedPhotos()
+
+        underTest.upsert(createPhoto(id = 10L, modificationTime = now))
+        val newSortedPhotos = underTest.getSortedPhotos()
+
+        assertThat(newSortedPhotos).isNotEqualTo(sortedPhotos)
+        assertThat(newSortedPhotos.subList(2, newSortedPhotos.size))
+            .isEqualTo(sortedPhotos.subList(1, sortedPhotos.size))
+        (1 until sortedPhotos.size).forEach {
+            assertThat(newSortedPhotos[it + 1]).isSameInstanceAs(sortedPhotos[it])
+        }
+    }
+
+    private fun assertSameAsSortingAndGrouping(
+        photos: Collection<Photo>,
+        sort: Sort,
+        zoomLevel: ZoomLevel,
+    ) {
+        val expected = photos.sortedWith(
+            if (sort == Sort.NEWEST) {
+                compareByDescending<Photo> { it.modificationTime }.thenByDescending { it.id }
+            } else {
+                compareBy<Photo> { it.modificationTime }.thenByDescending { it.id }
+            }
+        )
+        val dayPhotos = groupPhotosByDay(expected)
+        assertThat(underTest.getSortedPhotos()).containsExactlyElementsIn(expected).inOrder()
+        assertThat(underTest.getDaysCards()).isEqualTo(createDaysCardList(dayPhotos))
+        assertThat(underTest.getMonthsCards()).isEqualTo(createMonthsCardList(dayPhotos))
+        assertThat(underTest.getYearsCards()).isEqualTo(createYearsCardList(dayPhotos))
+        assertThat(underTest.getPhotoListItems(zoomLevel))
+            .isEqualTo(createPhotoListItems(expected, zoomLevel))
+    }
+
+    /**
+     * The list items with a separator before the photos of each day or month
+     */
+    private fun createPhotoListItems(sortedPhotos: List<Photo>, zoomLevel: ZoomLevel) =
+        sortedPhotos.groupBy {
+            val date = it.modificationTime.toLocalDate()
+            if (zoomLevel == ZoomLevel.Grid_1) date else YearMonth.from(date)
+        }.values.flatMap { sectionPhotos ->
+            listOf(PhotoListItem.Separator(sectionPhotos.first().modificationTime)) +
+                    sectionPhotos.map { PhotoListItem.PhotoGridItem(photo = it, isSelected = false) }
+        }
+
+    private fun provideSortAndZoomLevel() = Stream.of(
+        Arguments.of(Sort.NEWEST, ZoomLevel.Grid_1),
+        Arguments.of(Sort.NEWEST, ZoomLevel.Grid_3),
+        Arguments.of(Sort.OLDEST, ZoomLevel.Grid_5),
+    )
+
+    private fun createPhoto(id: Long, modificationTime: LocalDateTime) = mock<Photo.Image> {
+        on { this.id }.thenReturn(id)
+        on { this.modificationTime }.thenReturn(modificationTime)
+    }
+}
@@ -35,16 +35,16 @@ import mega.privacy.android.domain.entity.node.TypedNode
 import mega.privacy.android.domain.entity.preference.ViewType
 import mega.privacy.android.domain.entity.search.DateFilterOption
 import mega.privacy.android.domain.entity.search.SearchParameters
+import mega.privacy.android.domain.entity.search.SearchResults
 import mega.privacy.android.domain.entity.search.SearchTarget
 import mega.privacy.android.domain.entity.search.TypeFilterOption
 import mega.privacy.android.domain.usecase.GetBusinessStatusUseCase
 import mega.privacy.android.domain.usecase.GetCloudSortOrder
 import mega.privacy.android.domain.usecase.account.MonitorAccountDetailUseCase
-import mega.privacy.android.domain.usecase.canceltoken.CancelCancelTokenUseCase
 import mega.privacy.android.domain.usecase.featureflag.GetFeatureFlagValueUseCase
 import mega.privacy.android.domain.usecase.node.MonitorNodeUpdatesUseCase
 import mega.privacy.android.domain.usecase.offline.MonitorOfflineNodeUpdatesUseCase
-import mega.privacy.android.domain.usecase.search.SearchUseCase
+import mega.privacy.android.domain.usecase.search.SearchAsYouTypeUseCase
 import mega.privacy.android.domain.usecase.setting.MonitorShowHiddenItemsUseCase
 import mega.privacy.android.domain.usecase.viewtype.MonitorViewType
 import mega.privacy.android.domain.usecase.viewtype.SetViewType
@@ -54,6 +54,8 @@ import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.api.extension.ExtendWith
 import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.verify
@@ -66,7 +68,6 @@ class SearchViewModelTest {
     private val getFeatureFlagValueUseCase: GetFeatureFlagValueUseCase = mock()
     private val monitorNodeUpdatesFakeFlow = MutableSharedFlow<NodeUpdate>()
     private val monitorNodeUpdatesUseCase: MonitorNodeUpdatesUseCase = mock()
-    private val cancelCancelTokenUseCase: CancelCancelTokenUseCase = mock()
     private val searchFilterMapper: SearchFilterMapper = mock()
     private val nodeSourceTypeToSearchTargetMapper: NodeSourceTypeToSearchTargetMapper = mock()
     private val typeFilterToSearchMapper = TypeFilterToSearchMapper()
@@ -78,7 +79,7 @@ class SearchViewModelTest {
     private val typeFilterStringMapper: TypeFilterOptionStringResMapper = mock()
     private val dateFilterStringMapper: DateFilterOptionStringResMapper = mock()
     private val monitorOfflineNodeUpdatesUseCase: MonitorOfflineNodeUpdatesUseCase = mock()
-    private val searchUseCase: SearchUseCase = mock()
+    private val searchAsYouTypeUseCase: SearchAsYouTypeUseCase = mock()
     private val monitorAccountDetailUseCase: MonitorAccountDetailUseCase = mock()
     private val monitorShowHiddenItemsUseCase: MonitorShowHiddenItemsUseCase = mock()
     private val accountDetailFakeFlow = MutableSharedFlow<AccountDetail>()
@@ -106,7 +107,6 @@ class SearchViewModelTest {
             monitorViewType = monitorViewType,
             stateHandle = stateHandle,
             getCloudSortOrder = getCloudSortOrder,
-            cancelCancelTokenUseCase = cancelCancelTokenUseCase,
             searchFilterMapper = searchFilterMapper,
             nodeSourceTypeToSearchTargetMapper = nodeSourceTypeToSearchTargetMapper,
             typeFilterToSearchMapper = typeFilterToSearchMapper,
@@ -114,7 +114,7 @@ class SearchViewModelTest {
             monitorOfflineNodeUpdatesUseCase = monitorOfflineNodeUpdatesUseCase,
             typeFilterOptionStringResMapper = typeFilterStringMapper,
             dateFilterOptionStringResMapper = dateFilterStringMapper,
-            searchUseCase = searchUseCase,
+            searchAsYouTypeUseCase = searchAsYouTypeUseCase,
             monitorAccountDetailUseCase = monitorAccountDetailUseCase,
             monitorShowHiddenItemsUseCase = monitorShowHiddenItemsUseCase,
             getBusinessStatusUseCase = getBusinessStatusUseCase,
@@ -140,6 +140,14 @@ class SearchViewModelTest {
         whenever(getFeatureFlagValueUseCase(any())).thenReturn(false)
     }
 
+    private fun createSearchResults(query: String, nodes: List<TypedNode>) = SearchResults(
+        parentHandle = NodeId(parentHandle),
+        nodeSourceType = nodeSourceType,
+        parameters = SearchParameters(query = query),
+        nodes = nodes,
+        isComplete = true,
+    )
+
     @AfterEach
     fun tearDown() {
         nodeList.clear()
@@ -150,14 +158,13 @@ class SearchViewModelTest {
             monitorViewType,
             stateHandle,
             getCloudSortOrder,
-            cancelCancelTokenUseCase,
             searchFilterMapper,
             nodeSourceTypeToSearchTargetMapper,
             emptySearchViewMapper,
             monitorOfflineNodeUpdatesUseCase,
             typeFilterStringMapper,
             dateFilterStringMapper,
-            searchUseCase,
+            searchAsYouTypeUseCase,
             monitorAccountDetailUseCase,
             monitorShowHiddenItemsUseCase,
         )
@@ -342,14 +349,13 @@ class SearchViewModelTest {
             nodeList.add(typedFolderNode)
 
             whenever(
-                searchUseCase(
-                    parentHandle = NodeId(parentHandle),
-                    nodeSourceType = nodeSourceType,
-                    searchParameters = SearchParameters(
-                        query = query,
-                    ),
+                searchAsYouTypeUseCase(
+                    parentHandle = eq(NodeId(parentHandle)),
+                    nodeSourceType = eq(nodeSourceType),
+                    searchParameters = eq(SearchParameters(query = query)),
+                    previousResults = anyOrNull(),
                 )
-            ).thenReturn(nodeList)
+            ).thenReturn(flowOf(createSearchResults(query, nodeList)))
             underTest.updateSearchQuery(query)
             underTest.state.test {
                 val state = awaitItem()
@@ -358,6 +364,42 @@ class SearchViewModelTest {
             }
         }
 
+    @Test
+    fun `test that the results of the previous query are passed to the next query`() =
+        runTest {
+            val typedFileNode = mock<TypedFileNode> {
+                on { id }.thenReturn(NodeId(123L))
+                on { name }.thenReturn("photo")
+            }
+            val previousResults = createSearchResults("pho", listOf(typedFileNode))
+            whenever(getCloudSortOrder()).thenReturn(SortOrder.ORDER_NONE)
+            whenever(
+                searchAsYouTypeUseCase(
+                    parentHandle = eq(NodeId(parentHandle)),
+                    nodeSourceType = eq(nodeSourceType),
+                    searchParameters = eq(SearchParameters(query = "pho")),
+                    previousResults = anyOrNull(),
+                )
+            ).thenReturn(flowOf(previousResults))
+            whenever(
+                searchAsYouTypeUseCase(
+                    parentHandle = eq(NodeId(parentHandle)),
+                    nodeSourceType = eq(nodeSourceType),
+                    searchParameters = eq(SearchParameters(query = "phot")),
+                    previousResults = eq(previousResults),
+                )
+            ).thenReturn(flowOf(createSearchResults("phot", listOf(typedFileNode))))
+
+            underTest.updateSearchQuery("pho")
+            underTest.updateSearchQuery("phot")
+
+            underTest.state.test {
+                val state = awaitItem()
+                assertThat(state.searchQuery).isEqualTo("phot")
+                assertThat(state.searchItemList.map { it.node }).containsExactly(typedFileNode)
+            }
+        }
+
     @Test
     fun `test that the error message id is updated when show error message is called`() =
         runTest {
@@ -390,14 +432,13 @@ class SearchViewModelTest {
             whenever(getCloudSortOrder()).thenReturn(SortOrder.ORDER_NONE)
             whenever(monitorViewType()).thenReturn(flowOf(ViewType.LIST))
             whenever(
-                searchUseCase(
-                    parentHandle = NodeId(parentHandle),
-                    nodeSourceType = nodeSourceType,
-                    searchParameters = SearchParameters(
-                        query = query,
-                    ),
+                searchAsYouTypeUseCase(
+                    parentHandle = eq(NodeId(parentHandle)),
+                    nodeSourceType = eq(nodeSourceType),
+                    searchParameters = eq(SearchParameters(query = query)),
+                    previousResults = anyOrNull(),
                 )
-            ).thenReturn(listOf(typedFileNode, typedFolderNode))
+            ).thenReturn(flowOf(createSearchResults(query, listOf(typedFileNode, typedFolderNode))))
             underTest.updateSearchQuery(query)
             underTest.state.test {
                 val state = awaitItem()
@@ -449,14 +490,13 @@ class SearchViewModelTest {
         whenever(getCloudSortOrder()).thenReturn(SortOrder.ORDER_NONE)
         whenever(monitorViewType()).thenReturn(flowOf(ViewType.LIST))
         whenever(
-            searchUseCase(
-                parentHandle = NodeId(parentHandle),
-                nodeSourceType = nodeSourceType,
-                searchParameters = SearchParameters(
-                    query = query,
-                ),
+            searchAsYouTypeUseCase(
+                parentHandle = eq(NodeId(parentHandle)),
+                nodeSourceType = eq(nodeSourceType),
+                searchParameters = eq(SearchParameters(query = query)),
+                previousResults = anyOrNull(),
             )
-        ).thenReturn(listOf(typedFileNode, typedFolderNode))
+        ).thenReturn(flowOf(createSearchResults(query, listOf(typedFileNode, typedFolderNode))))
 
         // when
         underTest.updateSearchQuery(query)
@@ -504,14 +544,13 @@ class SearchViewModelTest {
         whenever(getCloudSortOrder()).thenReturn(SortOrder.ORDER_NONE)
         whenever(monitorViewType()).thenReturn(flowOf(ViewType.LIST))
         whenever(
-            searchUseCase(
-                parentHandle = NodeId(parentHandle),
-                nodeSourceType = nodeSourceType,
-                searchParameters = SearchParameters(
-                    query = query,
-                ),
+            searchAsYouTypeUseCase(
+                parentHandle = eq(NodeId(parentHandle)),
+                nodeSourceType = eq(nodeSourceType),
+                searchParameters = eq(SearchParameters(query = query)),
+                previousResults = anyOrNull(),
             )
-        ).thenReturn(listOf(typedFileNode, typedFolderNode))
+        ).thenReturn(flowOf(createSearchResults(query, listOf(typedFileNode, typedFolderNode))))
 
         // when
         underTest.updateSearchQuery(query)
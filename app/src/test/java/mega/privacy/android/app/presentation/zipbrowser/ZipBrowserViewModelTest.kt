@@ -3,9 +3,12 @@ package mega.privacy.android.app.presentation.zipbrowser
 import androidx.lifecycle.SavedStateHandle
 import app.cash.turbine.test
 import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.emptyFlow
+import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.resetMain
 import kotlinx.coroutines.test.runTest
@@ -16,6 +19,7 @@ import mega.privacy.android.app.presentation.zipbrowser.model.ZipInfoUiEntity
 import mega.privacy.android.app.utils.Constants.EXTRA_PATH_ZIP
 import mega.privacy.android.domain.entity.VideoFileTypeInfo
 import mega.privacy.android.domain.entity.zipbrowser.ZipEntryType
+import mega.privacy.android.domain.entity.zipbrowser.ZipProgress
 import mega.privacy.android.domain.entity.zipbrowser.ZipTreeNode
 import mega.privacy.android.domain.usecase.file.GetFileTypeInfoUseCase
 import mega.privacy.android.domain.usecase.zipbrowser.GetZipTreeMapUseCase
@@ -26,12 +30,17 @@ import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.api.io.TempDir
+import org.mockito.kotlin.any
 import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.io.File
+import java.io.IOException
+import java.util.zip.ZipEntry
+import java.util.zip.ZipOutputStream
 import kotlin.time.Duration.Companion.seconds
 
 @OptIn(ExperimentalCoroutinesApi::class)
@@ -122,6 +131,14 @@ class ZipBrowserViewModelTest {
         Dispatchers.resetMain()
     }
 
+    private fun createZipFile() = File(temporaryFolder, "archive.zip").apply {
+        ZipOutputStream(outputStream()).use { output ->
+            output.putNextEntry(ZipEntry(subFilePath))
+            output.write("content".toByteArray())
+            output.closeEntry()
+        }
+    }
+
     @Test
     fun `test that the initial state is returned`() = runTest {
         whenever(savedStateHandle.get<String>(EXTRA_PATH_ZIP)).thenReturn(testZipFullPath)
@@ -199,7 +216,8 @@ class ZipBrowserViewModelTest {
             whenever(getZipTreeMapUseCase(anyOrNull())).thenReturn(testZipNodeTree)
             whenever(zipInfoUiEntityMapper(testSubFolderNode)).thenReturn(testZipFolderEntity)
             whenever(zipInfoUiEntityMapper(testSubFileNode)).thenReturn(testFileEntity)
-            whenever(unzipFileUseCase(anyOrNull(), anyOrNull())).thenReturn(false)
+            whenever(unzipFileUseCase(any(), any(), anyOrNull()))
+                .thenReturn(flow { throw IOException() })
 
             initUnderTest()
             underTest.itemClicked(testFileEntity)
@@ -210,21 +228,79 @@ class ZipBrowserViewModelTest {
         }
 
     @Test
-    fun `test that shouldShowAlertDialog is true when the zip item does not exist`() =
+    fun `test that shouldShowAlertDialog is true when the zip item does not exist after the extraction`() =
         runTest {
-            whenever(savedStateHandle.get<String>(EXTRA_PATH_ZIP)).thenReturn(testZipFullPath)
+            val zipFile = createZipFile()
+            whenever(savedStateHandle.get<String>(EXTRA_PATH_ZIP)).thenReturn(zipFile.path)
             whenever(getZipTreeMapUseCase(anyOrNull())).thenReturn(testZipNodeTree)
             whenever(zipInfoUiEntityMapper(testSubFolderNode)).thenReturn(testZipFolderEntity)
             whenever(zipInfoUiEntityMapper(testSubFileNode)).thenReturn(testFileEntity)
-            whenever(unzipFileUseCase(anyOrNull(), anyOrNull())).thenReturn(false)
+            whenever(unzipFileUseCase(any(), any(), anyOrNull())).thenReturn(emptyFlow())
 
             initUnderTest()
-            underTest.getUnzipRootPath()?.let { File(it).mkdirs() }
             underTest.itemClicked(testFileEntity)
 
             underTest.uiState.test {
-                assertThat(awaitItem().showAlertDialog).isTrue()
+                val actual = awaitItem()
+                assertThat(actual.showAlertDialog).isTrue()
+                assertThat(actual.showUnzipProgressBar).isFalse()
+            }
+        }
+
+    @Test
+    fun `test that only the clicked item is extracted before it is opened`() =
+        runTest {
+            val zipFile = createZipFile()
+            whenever(savedStateHandle.get<String>(EXTRA_PATH_ZIP)).thenReturn(zipFile.path)
+            whenever(getZipTreeMapUseCase(anyOrNull())).thenReturn(testZipNodeTree)
+            whenever(zipInfoUiEntityMapper(testSubFolderNode)).thenReturn(testZipFolderEntity)
+            whenever(zipInfoUiEntityMapper(testSubFileNode)).thenReturn(testFileEntity)
+            initUnderTest()
+            val unzipRootPath = requireNotNull(underTest.getUnzipRootPath())
+            whenever(unzipFileUseCase(any(), any(), anyOrNull())).thenReturn(
+                flow {
+                    emit(ZipProgress(processedBytes = 100, totalBytes = 100, bytesPerSecond = 0))
+                    File(unzipRootPath, subFilePath).apply { parentFile?.mkdirs() }
+                        .createNewFile()
+                }
+            )
+
+            underTest.itemClicked(testFileEntity)
+
+            verify(unzipFileUseCase).invoke(any(), eq(unzipRootPath), eq(subFilePath))
+            underTest.uiState.test {
+                val actual = awaitItem()
+                assertThat(actual.openedFile).isEqualTo(testFileEntity)
+                assertThat(actual.showUnzipProgressBar).isFalse()
+                assertThat(actual.unzipProgress).isNull()
+            }
+        }
+
+    @Test
+    fun `test that the unzip progress is updated while the item is extracted`() =
+        runTest {
+            val zipFile = createZipFile()
+            val extractionGate = CompletableDeferred<Unit>()
+            whenever(savedStateHandle.get<String>(EXTRA_PATH_ZIP)).thenReturn(zipFile.path)
+            whenever(getZipTreeMapUseCase(anyOrNull())).thenReturn(testZipNodeTree)
+            whenever(zipInfoUiEntityMapper(testSubFolderNode)).thenReturn(testZipFolderEntity)
+            whenever(zipInfoUiEntityMapper(testSubFileNode)).thenReturn(testFileEntity)
+            whenever(unzipFileUseCase(any(), any(), anyOrNull())).thenReturn(
+                flow {
+                    emit(ZipProgress(processedBytes = 25, totalBytes = 100, bytesPerSecond = 0))
+                    extractionGate.await()
+                }
+            )
+
+            initUnderTest()
+            underTest.itemClicked(testFileEntity)
+
+            underTest.uiState.test {
+                val actual = awaitItem()
+                assertThat(actual.showUnzipProgressBar).isTrue()
+                assertThat(actual.unzipProgress).isEqualTo(0.25f)
             }
+            extractionGate.complete(Unit)
         }
 
     @Test
@@ -237,7 +313,8 @@ class ZipBrowserViewModelTest {
             whenever(getZipTreeMapUseCase(anyOrNull())).thenReturn(testZipNodeTree)
             whenever(zipInfoUiEntityMapper(testSubFolderNode)).thenReturn(testZipFolderEntity)
             whenever(zipInfoUiEntityMapper(testSubFileNode)).thenReturn(testZipFileEntity)
-            whenever(unzipFileUseCase(anyOrNull(), anyOrNull())).thenReturn(false)
+            whenever(unzipFileUseCase(any(), any(), anyOrNull()))
+                .thenReturn(flow { throw IOException() })
 
             initUnderTest()
             underTest.itemClicked(testZipFileEntity)
@@ -257,7 +334,7 @@ class ZipBrowserViewModelTest {
             whenever(getZipTreeMapUseCase(anyOrNull())).thenReturn(testZipNodeTree)
             whenever(zipInfoUiEntityMapper(testSubFolderNode)).thenReturn(testZipFolderEntity)
             whenever(zipInfoUiEntityMapper(testSubFileNode)).thenReturn(testZipFileEntity)
-            whenever(unzipFileUseCase(anyOrNull(), anyOrNull())).thenThrow(NullPointerException())
+            whenever(unzipFileUseCase(any(), any(), anyOrNull())).thenThrow(NullPointerException())
 
             initUnderTest()
             underTest.itemClicked(testZipFileEntity)
@@ -281,7 +358,7 @@ class ZipBrowserViewModelTest {
             whenever(getZipTreeMapUseCase(anyOrNull())).thenReturn(testZipNodeTree)
             whenever(zipInfoUiEntityMapper(testSubFolderNode)).thenReturn(testZipFolderEntity)
             whenever(zipInfoUiEntityMapper(testSubFileNode)).thenReturn(fileEntry)
-            whenever(unzipFileUseCase(anyOrNull(), anyOrNull())).thenReturn(true)
+            whenever(unzipFileUseCase(any(), any(), anyOrNull())).thenReturn(emptyFlow())
 
             initUnderTest()
             underTest.itemClicked(fileEntry)
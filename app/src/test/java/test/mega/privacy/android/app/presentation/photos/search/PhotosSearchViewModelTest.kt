@@ -5,6 +5,7 @@ import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.advanceUntilIdle
@@ -15,6 +16,7 @@ import mega.privacy.android.app.presentation.photos.albums.model.AlbumTitle
 import mega.privacy.android.app.presentation.photos.albums.model.UIAlbum
 import mega.privacy.android.app.presentation.photos.search.PhotosSearchViewModel
 import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
+import mega.privacy.android.domain.entity.account.business.BusinessAccountStatus
 import mega.privacy.android.domain.entity.photos.Album
 import mega.privacy.android.domain.entity.photos.Photo
 import mega.privacy.android.domain.usecase.GetBusinessStatusUseCase
@@ -137,4 +139,55 @@ internal class PhotosSearchViewModelTest {
             assertThat(state.query).isEqualTo(query)
         }
     }
+
+    @Test
+    fun `test that photos are not searched until they all have a name`() = runTest {
+        // given
+        val restoredPhoto = createPhoto(id = 1L, name = "")
+        val scannedPhoto = createPhoto(id = 1L, name = "sample.jpg")
+        val photosFlow = MutableStateFlow<List<Photo>>(listOf(restoredPhoto))
+
+        whenever(retrievePhotosRecentQueriesUseCase()).thenReturn(listOf())
+        whenever(getFeatureFlagValueUseCase(any())).thenReturn(false)
+        whenever(getBusinessStatusUseCase()).thenReturn(BusinessAccountStatus.Active)
+
+        photosSearchViewModel.initialize(flowOf(listOf()), photosFlow)
+
+        // when
+        photosSearchViewModel.search("sample")
+        advanceUntilIdle()
+
+        // then
+        photosSearchViewModel.state.test {
+            val state = awaitItem()
+            assertThat(state.photos).isEmpty()
+            assertThat(state.isSearchingPhotos).isTrue()
+
+            photosFlow.value = listOf(scannedPhoto)
+
+            val searchedState = expectMostRecentItem()
+            assertThat(searchedState.photos).containsExactly(scannedPhoto)
+            assertThat(searchedState.isSearchingPhotos).isFalse()
+        }
+    }
+
+    private fun createPhoto(id: Long, name: String) = Photo.Image(
+        id = id,
+        albumPhotoId = null,
+        parentId = 0L,
+        name = name,
+        isFavourite = false,
+        creationTime = LocalDateTime.now(),
+        modificationTime = LocalDateTime.now(),
+        thumbnailFilePath = null,
+        previewFilePath = null,
+        fileTypeInfo = StaticImageFileTypeInfo(
+            mimeType = "image/jpeg",
+            extension = "jpg",
+        ),
+        size = 0L,
+        isTakenDown = false,
+        isSensitive = false,
+        isSensitiveInherited = false,
+    )
 }
@@ -1,3 +1,4 @@
+import mega.privacy.android.gradle.configureBenchmarkTests
 import mega.privacy.android.gradle.configureTestOptionsIfAndroidApplication
 import mega.privacy.android.gradle.configureTestOptionsIfAndroidLibrary
 import mega.privacy.android.gradle.enableParallelTest
@@ -19,6 +20,7 @@ class AndroidTestConventionPlugin : Plugin<Project> {
             configureTestOptionsIfAndroidLibrary()
             configureTestOptionsIfAndroidApplication()
             enableParallelTest()
+            configureBenchmarkTests()
         }
     }
 }
@@ -1,3 +1,4 @@
+import mega.privacy.android.gradle.configureBenchmarkTests
 import mega.privacy.android.gradle.enableParallelTest
 import mega.privacy.android.gradle.useJUnit5
 import org.gradle.api.Plugin
@@ -18,6 +19,7 @@ class JvmTestConventionPlugin : Plugin<Project> {
         with(target) {
             useJUnit5()
             enableParallelTest()
+            configureBenchmarkTests()
             setTestReportPath()
         }
     }
@@ -0,0 +1,38 @@
+package mega.privacy.android.gradle
+
+import org.gradle.api.Project
+import org.gradle.api.tasks.testing.Test
+import org.gradle.kotlin.dsl.withType
+
+/**
+ * JUnit tag of the benchmarks
+ */
+const val BENCHMARK_TAG = "benchmark"
+
+/**
+ * Gradle property to run the benchmarks, for example
+ * `./gradlew :data:testDebugUnitTest -PincludeBenchmarks`
+ */
+const val INCLUDE_BENCHMARKS_PROPERTY = "includeBenchmarks"
+
+/**
+ * Exclude the tests tagged with [BENCHMARK_TAG] from the unit tests
+ *
+ * Benchmarks only print timings which depend on the machine running them, so they are only run,
+ * without the other tests, when the [INCLUDE_BENCHMARKS_PROPERTY] property is set.
+ */
+fun Project.configureBenchmarkTests() = tasks.withType<Test> {
+    useJUnitPlatform {
+        if (project.hasProperty(INCLUDE_BENCHMARKS_PROPERTY)) {
+            includeTags(BENCHMARK_TAG)
+        } else {
+            excludeTags(BENCHMARK_TAG)
+        }
+    }
+    if (project.hasProperty(INCLUDE_BENCHMARKS_PROPERTY)) {
+        // Timings are only comparable when the benchmarks don't run concurrently
+        maxParallelForks = 1
+        outputs.upToDateWhen { false }
+        testLogging.showStandardStreams = true
+    }
+}
@@ -0,0 +1,313 @@
+package mega.privacy.android.data.compression.zip
+
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.channels.Channel
+import kotlinx.coroutines.channels.SendChannel
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.ensureActive
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.flow.flowOn
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.sync.Semaphore
+import mega.privacy.android.domain.entity.zipbrowser.ZipProgress
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import java.io.BufferedOutputStream
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.io.InputStream
+import java.io.OutputStream
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+import java.util.zip.CRC32
+import java.util.zip.Deflater
+import java.util.zip.DeflaterOutputStream
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
+import javax.inject.Inject
+import kotlin.coroutines.coroutineContext
+
+/**
+ * Extracts and compresses zip files, working on several entries in parallel
+ *
+ * A bounded number of workers take the entries one by one, each with a large buffer reused for
+ * all its entries. When compressing, the workers deflate the files to temporary parts while the
+ * entries already deflated are written in order, copying the parts with [java.nio.channels.FileChannel]
+ * transfers. At most [MAX_PARTS_IN_FLIGHT] parts are kept on disk, so the workers wait for the
+ * writer instead of filling the storage when an entry is slow to deflate. The progress is emitted
+ * in a conflated flow, so a slow collector doesn't slow down the workers.
+ */
+internal class ZipEngine @Inject constructor(
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) {
+
+    /**
+     * Extract the entries of a zip file
+     *
+     * @param zipFile the zip file
+     * @param unzipRootPath the destination path, ending with a separator
+     * @param path the path of the folder or file to extract with its children, or null to extract
+     * all the entries
+     * @return the progress of the extraction, completing when all the entries are extracted
+     * @throws SecurityException if an entry would be extracted out of the destination
+     */
+    fun extract(zipFile: ZipFile, unzipRootPath: String, path: String? = null): Flow<ZipProgress> =
+        channelFlow {
+            val prefix = path?.removeSuffix(File.separator)
+            val entries = zipFile.entries().asSequence().filter { entry ->
+                prefix == null || entry.name.removeSuffix(File.separator) == prefix
+                        || entry.name.startsWith(prefix + File.separator)
+            }.toList()
+            // All the destinations are checked before extracting anything
+            val destinations = entries.map { entry ->
+                File(unzipRootPath + entry.name).also {
+                    if (!it.canonicalPath.startsWith(unzipRootPath)) {
+                        throw SecurityException("Zip entry out of the destination: ${entry.name}")
+                    }
+                }
+            }
+            val tracker = ProgressTracker(entries.sumOf { it.size.coerceAtLeast(0) }, channel)
+
+            val files = entries.indices.filter { index ->
+                if (entries[index].isDirectory) {
+                    destinations[index].mkdirs()
+                    false
+                } else {
+                    true
+                }
+            }
+            runWorkers(files.size) { index, buffer ->
+                val entry = entries[files[index]]
+                val destination = destinations[files[index]]
+                destination.parentFile?.mkdirs()
+                zipFile.getInputStream(entry).use { input ->
+                    FileOutputStream(destination).use { output ->
+                        copy(input, output, buffer, tracker)
+                    }
+                }
+            }
+            send(tracker.progress())
+        }.buffer(Channel.CONFLATED).flowOn(ioDispatcher)
+
+    /**
+     * Compress the content of a folder, without the folder itself
+     *
+     * @param sourceFolder the folder to compress
+     * @param zipFile the zip file to write, replaced if it exists
+     * @return the progress of the compression, completing when the zip file is written
+     */
+    fun compress(sourceFolder: File, zipFile: File): Flow<ZipProgress> = channelFlow {
+        val sources = listSources(sourceFolder)
+        val totalBytes = sources.sumOf { if (it.isDirectory) 0L else it.file.length() }
+        val tracker = ProgressTracker(totalBytes, channel)
+        // The parts are written without the zip64 extensions, which only ZipOutputStream supports
+        if (sources.size < MAX_ENTRIES && totalBytes < MAX_BYTES) {
+            compressInParallel(sources, zipFile, tracker)
+        } else {
+            compressSequentially(sources, zipFile, tracker)
+        }
+        send(tracker.progress())
+    }.buffer(Channel.CONFLATED).flowOn(ioDispatcher)
+
+    private suspend fun compressInParallel(
+        sources: List<ZipSource>,
+        zipFile: File,
+        tracker: ProgressTracker,
+    ) {
+        val partsFolder = File(zipFile.absoluteFile.parentFile, ".${zipFile.name}.parts")
+        partsFolder.mkdirs()
+        try {
+            coroutineScope {
+                val deflatedEntries = List(sources.size) { CompletableDeferred<DeflatedEntry>() }
+                // Released when the writer deletes the part, the entries are taken in order so the
+                // next entry to write always has its permit
+                val partsInFlight = Semaphore(MAX_PARTS_IN_FLIGHT)
+                launch {
+                    runWorkers(sources.size, partsInFlight) { index, buffer ->
+                        deflatedEntries[index].complete(
+                            deflate(sources[index], File(partsFolder, index.toString()), buffer, tracker)
+                        )
+                    }
+                }
+                ZipWriter(zipFile).use { writer ->
+                    deflatedEntries.forEach { deferred ->
+                        val entry = deferred.await()
+                        writer.write(entry)
+                        entry.part?.delete()
+                        partsInFlight.release()
+                    }
+                }
+            }
+        } finally {
+            partsFolder.deleteRecursively()
+        }
+    }
+
+    private fun deflate(
+        source: ZipSource,
+        part: File,
+        buffer: ByteArray,
+        tracker: ProgressTracker,
+    ): DeflatedEntry {
+        if (source.isDirectory) {
+            return DeflatedEntry(source.name, source.file.lastModified())
+        }
+        val crc = CRC32()
+        val deflater = Deflater(Deflater.DEFAULT_COMPRESSION, true)
+        try {
+            FileInputStream(source.file).use { input ->
+                DeflaterOutputStream(FileOutputStream(part), deflater, BUFFER_SIZE).use { output ->
+                    while (true) {
+                        val count = input.read(buffer)
+                        if (count == -1) break
+                        crc.update(buffer, 0, count)
+                        output.write(buffer, 0, count)
+                        tracker.add(count.toLong())
+                    }
+                }
+            }
+            return DeflatedEntry(
+                name = source.name,
+                time = source.file.lastModified(),
+                part = part,
+                crc = crc.value,
+                compressedSize = deflater.bytesWritten,
+                size = deflater.bytesRead,
+            )
+        } finally {
+            deflater.end()
+        }
+    }
+
+    private suspend fun compressSequentially(
+        sources: List<ZipSource>,
+        zipFile: File,
+        tracker: ProgressTracker,
+    ) {
+        val buffer = ByteArray(BUFFER_SIZE)
+        ZipOutputStream(BufferedOutputStream(FileOutputStream(zipFile), BUFFER_SIZE)).use { output ->
+            sources.forEach { source ->
+                coroutineContext.ensureActive()
+                output.putNextEntry(ZipEntry(source.name).apply { time = source.file.lastModified() })
+                if (!source.isDirectory) {
+                    FileInputStream(source.file).use { input -> copy(input, output, buffer, tracker) }
+                }
+                output.closeEntry()
+            }
+        }
+    }
+
+    /**
+     * List the folders and files to compress, each folder before its content
+     */
+    private fun listSources(sourceFolder: File): List<ZipSource> {
+        require(sourceFolder.isDirectory) { "Only pass directories as the source folder" }
+        val sources = mutableListOf<ZipSource>()
+        val pending = ArrayDeque<Pair<File, String>>()
+        pending.addLast(sourceFolder to "")
+        while (pending.isNotEmpty()) {
+            val (folder, parentPath) = pending.removeLast()
+            val files = folder.listFiles()?.sortedBy { it.name } ?: continue
+            files.forEach { file ->
+                val isDirectory = file.isDirectory
+                val name = parentPath + file.name + if (isDirectory) "/" else ""
+                sources.add(ZipSource(file, name, isDirectory))
+            }
+            // The last folder listed is taken first, so the folders are visited in order
+            files.asReversed().filter { it.isDirectory }.forEach { folder ->
+                pending.addLast(folder to "$parentPath${folder.name}/")
+            }
+        }
+        return sources
+    }
+
+    /**
+     * Run the work of [count] items in at most [PARALLELISM] workers, each with its own buffer
+     *
+     * @param permits if not null, a permit is acquired before taking each item, and released by
+     * the caller when the item is done with
+     */
+    private suspend fun runWorkers(
+        count: Int,
+        permits: Semaphore? = null,
+        work: (index: Int, buffer: ByteArray) -> Unit,
+    ) = coroutineScope {
+        val next = AtomicInteger()
+        repeat(minOf(PARALLELISM, count)) {
+            launch {
+                val buffer = ByteArray(BUFFER_SIZE)
+                while (true) {
+                    ensureActive()
+                    permits?.acquire()
+                    val index = next.getAndIncrement()
+                    if (index >= count) {
+                        permits?.release()
+                        break
+                    }
+                    work(index, buffer)
+                }
+            }
+        }
+    }
+
+    private fun copy(
+        input: InputStream,
+        output: OutputStream,
+        buffer: ByteArray,
+        tracker: ProgressTracker,
+    ) {
+        while (true) {
+            val count = input.read(buffer)
+            if (count == -1) break
+            output.write(buffer, 0, count)
+            tracker.add(count.toLong())
+        }
+    }
+
+    private data class ZipSource(val file: File, val name: String, val isDirectory: Boolean)
+
+    /**
+     * Counts the processed bytes of all the workers, emitting the progress at most every
+     * [PROGRESS_INTERVAL_NANOS]
+     */
+    private class ProgressTracker(
+        private val totalBytes: Long,
+        private val channel: SendChannel<ZipProgress>,
+    ) {
+        private val startNanos = System.nanoTime()
+        private val processedBytes = AtomicLong()
+        private val lastProgressNanos = AtomicLong(startNanos)
+
+        fun add(bytes: Long) {
+            processedBytes.addAndGet(bytes)
+            val now = System.nanoTime()
+            val last = lastProgressNanos.get()
+            if (now - last >= PROGRESS_INTERVAL_NANOS && lastProgressNanos.compareAndSet(last, now)) {
+                channel.trySend(progress(now))
+            }
+        }
+
+        fun progress(now: Long = System.nanoTime()): ZipProgress {
+            val processed = processedBytes.get()
+            val elapsedNanos = now - startNanos
+            return ZipProgress(
+                processedBytes = processed,
+                totalBytes = totalBytes,
+                bytesPerSecond = if (elapsedNanos > 0) (processed * 1e9 / elapsedNanos).toLong() else 0,
+            )
+        }
+    }
+
+    companion object {
+        internal const val PARALLELISM = 4
+        internal const val BUFFER_SIZE = 256 * 1024
+        internal const val MAX_PARTS_IN_FLIGHT = PARALLELISM * 2
+        private const val PROGRESS_INTERVAL_NANOS = 100_000_000L
+        private const val MAX_ENTRIES = 0xFFFF
+        private const val MAX_BYTES = 0xF0000000L
+    }
+}
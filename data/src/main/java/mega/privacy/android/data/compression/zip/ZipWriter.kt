@@ -0,0 +1,164 @@
+package mega.privacy.android.data.compression.zip
+
+import java.io.ByteArrayOutputStream
+import java.io.Closeable
+import java.io.File
+import java.io.FileInputStream
+import java.io.FileOutputStream
+import java.nio.ByteBuffer
+import java.nio.ByteOrder
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.ZoneId
+
+/**
+ * An entry deflated to a part file, ready to be written to a zip file
+ *
+ * @property name the name of the entry, ending with a separator for the folders
+ * @property time the last modification time of the entry
+ * @property part the raw deflated data of the entry, null for the folders
+ * @property crc the CRC-32 of the uncompressed data
+ * @property compressedSize the size of the part
+ * @property size the uncompressed size
+ */
+internal data class DeflatedEntry(
+    val name: String,
+    val time: Long,
+    val part: File? = null,
+    val crc: Long = 0,
+    val compressedSize: Long = 0,
+    val size: Long = 0,
+)
+
+/**
+ * Writes a zip file from entries already deflated, copying their data with
+ * [java.nio.channels.FileChannel.transferTo]. [java.util.zip.ZipOutputStream] can only write the
+ * entries it deflates itself.
+ *
+ * The zip64 extensions are not written, so the zip file must have less than 65535 entries and
+ * less than 4 GB.
+ */
+internal class ZipWriter(file: File) : Closeable {
+
+    private val channel = FileOutputStream(file).channel
+    private val centralDirectory = ByteArrayOutputStream()
+    private var entries = 0
+
+    /**
+     * Write an entry with its local header and data
+     */
+    fun write(entry: DeflatedEntry) {
+        val name = entry.name.toByteArray(Charsets.UTF_8)
+        val method = if (entry.part != null) METHOD_DEFLATED else METHOD_STORED
+        val dosTime = entry.time.toDosTime()
+        val offset = channel.position()
+
+        val localHeader = ByteBuffer.allocate(LOCAL_HEADER_SIZE + name.size)
+            .order(ByteOrder.LITTLE_ENDIAN)
+            .putInt(LOCAL_HEADER_SIGNATURE)
+            .putShort(VERSION)
+            .putShort(FLAG_UTF8)
+            .putShort(method)
+            .putInt(dosTime)
+            .putInt(entry.crc.toInt())
+            .putInt(entry.compressedSize.toInt())
+            .putInt(entry.size.toInt())
+            .putShort(name.size.toShort())
+            .putShort(0)
+            .put(name)
+        writeFully(localHeader)
+
+        entry.part?.let { part ->
+            FileInputStream(part).channel.use { input ->
+                var position = 0L
+                val size = input.size()
+                while (position < size) {
+                    position += input.transferTo(position, size - position, channel)
+                }
+            }
+        }
+
+        val header = ByteBuffer.allocate(CENTRAL_HEADER_SIZE + name.size)
+            .order(ByteOrder.LITTLE_ENDIAN)
+            .putInt(CENTRAL_HEADER_SIGNATURE)
+            .putShort(VERSION)
+            .putShort(VERSION)
+            .putShort(FLAG_UTF8)
+            .putShort(method)
+            .putInt(dosTime)
+            .putInt(entry.crc.toInt())
+            .putInt(entry.compressedSize.toInt())
+            .putInt(entry.size.toInt())
+            .putShort(name.size.toShort())
+            .putShort(0) // extra field length
+            .putShort(0) // comment length
+            .putShort(0) // disk number
+            .putShort(0) // internal attributes
+            .putInt(if (entry.part == null) ATTRIBUTE_DIRECTORY else 0)
+            .putInt(offset.toInt())
+            .put(name)
+        centralDirectory.write(header.array())
+        entries++
+    }
+
+    /**
+     * Write the central directory and close the zip file
+     */
+    override fun close() {
+        channel.use {
+            val offset = channel.position()
+            writeFully(ByteBuffer.wrap(centralDirectory.toByteArray()))
+            val end = ByteBuffer.allocate(END_SIZE)
+                .order(ByteOrder.LITTLE_ENDIAN)
+                .putInt(END_SIGNATURE)
+                .putShort(0) // disk number
+                .putShort(0) // disk of the central directory
+                .putShort(entries.toShort())
+                .putShort(entries.toShort())
+                .putInt(centralDirectory.size())
+                .putInt(offset.toInt())
+                .putShort(0) // comment length
+            writeFully(end)
+        }
+    }
+
+    private fun writeFully(buffer: ByteBuffer) {
+        if (buffer.position() > 0) buffer.flip()
+        while (buffer.hasRemaining()) {
+            channel.write(buffer)
+        }
+    }
+
+    /**
+     * Get the time in the MS-DOS format of the zip headers, time in the low 16 bits and date in
+     * the high 16 bits
+     */
+    private fun Long.toDosTime(): Int {
+        val time = LocalDateTime.ofInstant(Instant.ofEpochMilli(this), ZoneId.systemDefault())
+        if (time.year < DOS_EPOCH_YEAR) {
+            return DOS_EPOCH
+        }
+        return ((time.year - DOS_EPOCH_YEAR) shl 25) or
+                (time.monthValue shl 21) or
+                (time.dayOfMonth shl 16) or
+                (time.hour shl 11) or
+                (time.minute shl 5) or
+                (time.second shr 1)
+    }
+
+    private companion object {
+        const val LOCAL_HEADER_SIGNATURE = 0x04034b50
+        const val CENTRAL_HEADER_SIGNATURE = 0x02014b50
+        const val END_SIGNATURE = 0x06054b50
+        const val LOCAL_HEADER_SIZE = 30
+        const val CENTRAL_HEADER_SIZE = 46
+        const val END_SIZE = 22
+        const val VERSION: Short = 20
+        const val FLAG_UTF8: Short = 0x0800
+        const val METHOD_STORED: Short = 0
+        const val METHOD_DEFLATED: Short = 8
+        const val ATTRIBUTE_DIRECTORY = 0x10
+        const val DOS_EPOCH_YEAR = 1980
+        const val DOS_EPOCH = (1 shl 21) or (1 shl 16)
+    }
+}
@@ -40,4 +40,9 @@ object CacheFolderConstant {
      * Camera Uploads Cache Folder
      */
     const val CAMERA_UPLOADS_CACHE_FOLDER = "cu"
+
+    /**
+     * Photos Folder
+     */
+    const val PHOTOS_FOLDER = "photosMEGA"
 }
\ No newline at end of file
@@ -0,0 +1,120 @@
+package mega.privacy.android.data.database.chat
+
+import androidx.paging.PagingSource
+import androidx.paging.PagingState
+import androidx.room.InvalidationTracker
+import kotlinx.coroutines.CancellationException
+import mega.privacy.android.data.database.dao.TypedMessageDao
+import mega.privacy.android.data.database.entity.chat.MetaTypedMessageEntity
+import mega.privacy.android.domain.entity.chat.messages.paging.TypedMessagePagingKey
+import timber.log.Timber
+
+/**
+ * Keyset paging source of the messages of a chat, from the newest to the oldest
+ *
+ * Pages are keyed by the (timestamp, messageId) position of a message instead of an offset, so
+ * each page seeks to its position through the (chatId, isDeleted, timestamp, messageId) index and
+ * the cost of loading it is the same at any scroll depth. Inserting messages does not shift the
+ * keys of the pages already loaded.
+ *
+ * The source is invalidated when the typed_messages table changes.
+ *
+ * @property chatId the id of the chat
+ * @property typedMessageDao the [TypedMessageDao]
+ * @param invalidationTracker the [InvalidationTracker] of the chat database
+ */
+internal class TypedMessageKeysetPagingSource(
+    private val chatId: Long,
+    private val typedMessageDao: TypedMessageDao,
+    invalidationTracker: InvalidationTracker,
+) : PagingSource<TypedMessagePagingKey, MetaTypedMessageEntity>() {
+
+    private val invalidationObserver = object : InvalidationTracker.Observer(TABLE_NAME) {
+        override fun onInvalidated(tables: Set<String>) {
+            Timber.d("Keyset paging source: $tables invalidated")
+            invalidate()
+        }
+    }
+
+    init {
+        invalidationTracker.addObserver(invalidationObserver)
+        registerInvalidatedCallback {
+            invalidationTracker.removeObserver(invalidationObserver)
+        }
+    }
+
+    override fun getRefreshKey(state: PagingState<TypedMessagePagingKey, MetaTypedMessageEntity>) =
+        state.anchorPosition?.let { anchorPosition ->
+            // The refresh loads from the key to older messages, so it starts half a load before
+            // the anchor to keep the anchor centered
+            state.closestItemToPosition(
+                maxOf(0, anchorPosition - state.config.initialLoadSize / 2)
+            )?.getPagingKey()
+        }
+
+    override suspend fun load(
+        params: LoadParams<TypedMessagePagingKey>,
+    ): LoadResult<TypedMessagePagingKey, MetaTypedMessageEntity> = try {
+        val key = params.key
+        when {
+            key == null -> {
+                val messages = typedMessageDao.getNewestMessages(chatId, params.loadSize)
+                LoadResult.Page(
+                    data = messages,
+                    prevKey = null,
+                    nextKey = messages.getNextKey(params.loadSize),
+                )
+            }
+
+            params is LoadParams.Prepend -> {
+                val messages = typedMessageDao.getMessagesNewerThan(
+                    chatId = chatId,
+                    timestamp = key.timestamp,
+                    messageId = key.messageId,
+                    limit = params.loadSize,
+                ).asReversed()
+                LoadResult.Page(
+                    data = messages,
+                    prevKey = messages.firstOrNull()
+                        ?.takeIf { messages.size >= params.loadSize }
+                        ?.getPagingKey(),
+                    nextKey = messages.lastOrNull()?.getPagingKey(),
+                )
+            }
+
+            else -> {
+                val messages = typedMessageDao.getMessagesOlderThan(
+                    chatId = chatId,
+                    timestamp = key.timestamp,
+                    messageId = key.messageId,
+                    inclusive = params is LoadParams.Refresh,
+                    limit = params.loadSize,
+                )
+                LoadResult.Page(
+                    data = messages,
+                    // A refresh from a key can have newer messages before it
+                    prevKey = messages.firstOrNull()?.getPagingKey()
+                        ?: key.takeIf { params is LoadParams.Refresh },
+                    nextKey = messages.getNextKey(params.loadSize),
+                )
+            }
+        }
+    } catch (e: CancellationException) {
+        throw e
+    } catch (e: Exception) {
+        Timber.e(e, "Keyset paging source: load error")
+        LoadResult.Error(e)
+    }
+
+    private fun List<MetaTypedMessageEntity>.getNextKey(loadSize: Int) =
+        lastOrNull()?.takeIf { size >= loadSize }?.getPagingKey()
+
+    private fun MetaTypedMessageEntity.getPagingKey() = TypedMessagePagingKey(
+        timestamp = typedMessageEntity.timestamp,
+        messageId = typedMessageEntity.messageId,
+    )
+
+    private companion object {
+        const val TABLE_NAME = "typed_messages"
+    }
+}
@@ -6,6 +6,7 @@ import androidx.room.OnConflictStrategy
 import androidx.room.Query
 import mega.privacy.android.data.database.MegaDatabaseConstant
 import mega.privacy.android.data.database.entity.CameraUploadsRecordEntity
+import mega.privacy.android.data.database.entity.CameraUploadsRecordKeyEntity
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
@@ -19,6 +20,11 @@ internal interface CameraUploadsRecordDao {
     @Query("SELECT * FROM ${MegaDatabaseConstant.TABLE_CAMERA_UPLOADS_RECORDS}")
     suspend fun getAllCameraUploadsRecords(): List<CameraUploadsRecordEntity>
 
+    @Query("SELECT media_id, timestamp FROM ${MegaDatabaseConstant.TABLE_CAMERA_UPLOADS_RECORDS} WHERE folder_type = :folderType")
+    suspend fun getCameraUploadsRecordKeys(
+        folderType: CameraUploadFolderType,
+    ): List<CameraUploadsRecordKeyEntity>
+
     @Query("SELECT * FROM ${MegaDatabaseConstant.TABLE_CAMERA_UPLOADS_RECORDS} WHERE upload_status IN (:uploadStatus) AND file_type IN (:types) AND folder_type IN (:folderTypes)")
     suspend fun getCameraUploadsRecordsBy(
         uploadStatus: List<CameraUploadsRecordUploadStatus>,
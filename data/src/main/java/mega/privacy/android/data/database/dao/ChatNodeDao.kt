@@ -50,4 +50,12 @@ interface ChatNodeDao {
      */
     @Insert(onConflict = OnConflictStrategy.REPLACE)
     fun insertNodeMessageCrossRef(crossRef: NodeMessageCrossRef)
+
+    /**
+     * Insert node message cross refs
+     *
+     * @param crossRefs
+     */
+    @Insert(onConflict = OnConflictStrategy.REPLACE)
+    suspend fun insertNodeMessageCrossRefs(crossRefs: List<NodeMessageCrossRef>)
 }
\ No newline at end of file
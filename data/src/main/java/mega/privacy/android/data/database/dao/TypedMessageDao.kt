@@ -1,6 +1,5 @@
 package mega.privacy.android.data.database.dao
 
-import androidx.paging.PagingSource
 import androidx.room.Dao
 import androidx.room.Insert
 import androidx.room.OnConflictStrategy
@@ -17,14 +16,56 @@ import mega.privacy.android.domain.entity.chat.ChatMessageType
 interface TypedMessageDao {
 
     /**
-     * Get all as paging source
+     * Get the newest messages
      *
      * @param chatId
-     * @return paging source
+     * @param limit maximum number of messages
+     * @return messages from the newest to the oldest
      */
     @Transaction
-    @Query("SELECT * FROM typed_messages WHERE chatId = :chatId AND isDeleted = 0 ORDER BY timestamp DESC")
-    fun getAllAsPagingSource(chatId: Long): PagingSource<Int, MetaTypedMessageEntity>
+    @Query("SELECT * FROM typed_messages WHERE chatId = :chatId AND isDeleted = 0 ORDER BY timestamp DESC, messageId DESC LIMIT :limit")
+    suspend fun getNewestMessages(chatId: Long, limit: Int): List<MetaTypedMessageEntity>
+
+    /**
+     * Get the messages older than a position of the history, or at it if inclusive
+     *
+     * The range on the timestamp is resolved with the (chatId, isDeleted, timestamp, messageId)
+     * index, so the cost does not depend on how deep the position is in the history.
+     *
+     * @param chatId
+     * @param timestamp timestamp of the position
+     * @param messageId message id of the position
+     * @param inclusive true to include the message at the position
+     * @param limit maximum number of messages
+     * @return messages from the newest to the oldest
+     */
+    @Transaction
+    @Query("SELECT * FROM typed_messages WHERE chatId = :chatId AND isDeleted = 0 AND timestamp <= :timestamp AND (timestamp < :timestamp OR messageId < :messageId OR (:inclusive AND messageId = :messageId)) ORDER BY timestamp DESC, messageId DESC LIMIT :limit")
+    suspend fun getMessagesOlderThan(
+        chatId: Long,
+        timestamp: Long,
+        messageId: Long,
+        inclusive: Boolean,
+        limit: Int,
+    ): List<MetaTypedMessageEntity>
+
+    /**
+     * Get the messages newer than a position of the history
+     *
+     * @param chatId
+     * @param timestamp timestamp of the position
+     * @param messageId message id of the position
+     * @param limit maximum number of messages
+     * @return messages from the oldest to the newest
+     */
+    @Transaction
+    @Query("SELECT * FROM typed_messages WHERE chatId = :chatId AND isDeleted = 0 AND timestamp >= :timestamp AND (timestamp > :timestamp OR messageId > :messageId) ORDER BY timestamp ASC, messageId ASC LIMIT :limit")
+    suspend fun getMessagesNewerThan(
+        chatId: Long,
+        timestamp: Long,
+        messageId: Long,
+        limit: Int,
+    ): List<MetaTypedMessageEntity>
 
     /**
      * Insert all
@@ -58,6 +99,15 @@ interface TypedMessageDao {
     @Query("SELECT messageId FROM typed_messages WHERE chatId = :chatId")
     suspend fun getMsgIdsByChatId(chatId: Long): List<Long>
 
+    /**
+     * Get the timestamp of the newest message of a chat, deleted or not
+     *
+     * @param chatId
+     * @return the timestamp, or null if there are no messages
+     */
+    @Query("SELECT MAX(timestamp) FROM typed_messages WHERE chatId = :chatId")
+    suspend fun getNewestMessageTimestamp(chatId: Long): Long?
+
     /**
      * Get message with next greatest timestamp
      *
@@ -138,4 +188,14 @@ interface TypedMessageDao {
      */
     @Query("SELECT does_exist FROM typed_messages WHERE chatId = :chatId AND messageId = :msgId")
     suspend fun getExists(chatId: Long, msgId: Long): Boolean?
+
+    /**
+     * Get the messages whose content does not exist
+     *
+     * @param chatId Chat ID
+     * @param msgIds Message IDs to check
+     * @return the message IDs of [msgIds] whose content does not exist
+     */
+    @Query("SELECT messageId FROM typed_messages WHERE chatId = :chatId AND messageId IN (:msgIds) AND does_exist = 0")
+    suspend fun getMessageIdsNotExisting(chatId: Long, msgIds: List<Long>): List<Long>
 }
\ No newline at end of file
@@ -0,0 +1,16 @@
+package mega.privacy.android.data.database.entity
+
+import androidx.room.ColumnInfo
+
+/**
+ * Projection of the columns identifying a [CameraUploadsRecordEntity] in a folder type
+ *
+ * These columns are not encrypted, so they can be read without decrypting the whole record
+ *
+ * @property mediaId _id retrieved from the MediaStore
+ * @property timestamp timestamp representing the max between added date and modified date of the file
+ */
+internal data class CameraUploadsRecordKeyEntity(
+    @ColumnInfo(name = "media_id") val mediaId: Long,
+    @ColumnInfo(name = "timestamp") val timestamp: Long,
+)
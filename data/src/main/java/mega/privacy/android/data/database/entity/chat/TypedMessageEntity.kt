@@ -2,6 +2,7 @@ package mega.privacy.android.data.database.entity.chat
 
 import androidx.room.ColumnInfo
 import androidx.room.Entity
+import androidx.room.Index
 import androidx.room.PrimaryKey
 import androidx.room.TypeConverters
 import mega.privacy.android.data.database.converter.TypedMessageEntityConverters
@@ -52,7 +53,10 @@ import kotlin.time.Duration
  * @property reactions list of [Reaction]
  * @property exists whether the voice clip exists
  */
-@Entity(tableName = "typed_messages")
+@Entity(
+    tableName = "typed_messages",
+    indices = [Index(value = ["chatId", "isDeleted", "timestamp", "messageId"])]
+)
 @TypeConverters(TypedMessageEntityConverters::class)
 data class TypedMessageEntity(
     @PrimaryKey override val messageId: Long,
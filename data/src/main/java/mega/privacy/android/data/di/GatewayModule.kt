@@ -14,7 +14,6 @@ import mega.privacy.android.data.facade.ClipboardFacade
 import mega.privacy.android.data.facade.FileAttributeFacade
 import mega.privacy.android.data.facade.FileFacade
 import mega.privacy.android.data.facade.FileManagementPreferencesFacade
-import mega.privacy.android.data.facade.HttpConnectionFacade
 import mega.privacy.android.data.facade.MediaRecorderFacade
 import mega.privacy.android.data.facade.MegaApiFacade
 import mega.privacy.android.data.facade.MegaApiFolderFacade
@@ -45,7 +44,6 @@ import mega.privacy.android.data.gateway.DeviceGateway
 import mega.privacy.android.data.gateway.FileAttributeGateway
 import mega.privacy.android.data.gateway.FileCompressionGateway
 import mega.privacy.android.data.gateway.FileGateway
-import mega.privacy.android.data.gateway.HttpConnectionGateway
 import mega.privacy.android.data.gateway.MediaRecorderGateway
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.MegaLocalStorageGateway
@@ -299,10 +297,6 @@ internal abstract class GatewayModule {
     @Singleton
     abstract fun bindPsaPreferenceGateway(implementation: PsaPreferenceDataStore): PsaPreferenceGateway
 
-    @Binds
-    @Singleton
-    abstract fun bindHttpConnectionGateway(implementation: HttpConnectionFacade): HttpConnectionGateway
-
     @Binds
     @Singleton
     abstract fun bindChatStorageGateway(implementation: ChatStorageFacade): ChatStorageGateway
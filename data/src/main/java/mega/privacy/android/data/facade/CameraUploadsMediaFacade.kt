@@ -8,8 +8,11 @@ import android.os.Build
 import android.os.Bundle
 import android.provider.MediaStore
 import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
 import mega.privacy.android.data.gateway.CameraUploadsMediaGateway
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreVolumeGeneration
 import timber.log.Timber
 import javax.inject.Inject
 import kotlin.math.max
@@ -33,7 +36,7 @@ internal class CameraUploadsMediaFacade @Inject constructor(
         val isVideo = uri.isVideoUri()
         createMediaCursor(uri, selectionQuery, isVideo)?.use { cursor ->
             Timber.d("Extract ${cursor.count} Media from Cursor")
-            cursor.extractMedia(isVideo)
+            cursor.extractMedia(cursor.getMediaColumnIndices(isVideo))
         } ?: run {
             Timber.d("Extract 0 Media - Cursor is NULL")
             emptyList()
@@ -43,93 +46,187 @@ internal class CameraUploadsMediaFacade @Inject constructor(
         emptyList()
     }
 
+    override fun getMediaBatches(
+        uri: Uri,
+        selectionQuery: String?,
+        batchSize: Int,
+    ): Flow<List<CameraUploadsMedia>> = flow {
+        require(batchSize > 0) { "The batch size must be positive" }
+        val isVideo = uri.isVideoUri()
+        var columnIndices: MediaColumnIndices? = null
+        var lastKey: MediaKey? = null
+        var total = 0
+        do {
+            // Each batch starts after the last row read, so the rows deleted or added meanwhile
+            // do not shift the next batches
+            val limit = debugSizeLimitation?.let { minOf(batchSize, it - total) } ?: batchSize
+            val batch = createMediaCursor(
+                uri = uri,
+                selectionQuery = getSelectionAfter(selectionQuery, isVideo, lastKey),
+                isVideo = isVideo,
+                limit = limit,
+            )?.use { cursor ->
+                val indices = columnIndices ?: cursor.getMediaColumnIndices(isVideo)
+                    .also { columnIndices = it }
+                cursor.extractMedia(indices).also {
+                    if (cursor.moveToLast()) {
+                        lastKey = MediaKey(
+                            dateModified = cursor.getLong(indices.dateModified),
+                            id = cursor.getLong(indices.id),
+                        )
+                    }
+                }
+            }.orEmpty()
+            if (batch.isNotEmpty()) emit(batch)
+            total += batch.size
+        } while (batch.size == limit && total != debugSizeLimitation)
+        Timber.d("Extract $total Media from Cursor in batches of $batchSize")
+    }
+
     override fun getMediaSelectionQuery(parentPath: String): String =
         "${MediaStore.MediaColumns.DATA} LIKE '${parentPath}%'"
 
+    override fun getMediaSelectionQuery(
+        parentPath: String,
+        changedSince: List<MediaStoreVolumeGeneration>,
+    ): String {
+        if (changedSince.isEmpty() || Build.VERSION.SDK_INT < Build.VERSION_CODES.R) {
+            return getMediaSelectionQuery(parentPath)
+        }
+        val changedInKnownVolumes = changedSince.joinToString(separator = " OR ") {
+            "(${MediaStore.MediaColumns.VOLUME_NAME} = '${it.volumeName}' AND " +
+                    "${MediaStore.MediaColumns.GENERATION_MODIFIED} > ${it.generation})"
+        }
+        val knownVolumes = changedSince.joinToString { "'${it.volumeName}'" }
+        return "${getMediaSelectionQuery(parentPath)} AND ($changedInKnownVolumes OR " +
+                "${MediaStore.MediaColumns.VOLUME_NAME} NOT IN ($knownVolumes))"
+    }
+
+    override fun getMediaStoreVolumeGenerations(): List<MediaStoreVolumeGeneration> =
+        if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
+            runCatching {
+                (MediaStore.getExternalVolumeNames(context) + MediaStore.VOLUME_INTERNAL)
+                    .map { volumeName ->
+                        MediaStoreVolumeGeneration(
+                            volumeName = volumeName,
+                            version = MediaStore.getVersion(context, volumeName),
+                            generation = MediaStore.getGeneration(context, volumeName),
+                        )
+                    }
+            }.getOrElse {
+                Timber.e(it)
+                emptyList()
+            }
+        } else emptyList()
+
     /**
      *  Return the column of the media store to retrieve data from
      *
      *  @return an array of strings representing a column of the media store
      */
     private fun getProjection(isVideo: Boolean) = arrayOf(
-        if (isVideo) MediaStore.Video.Media._ID else MediaStore.Images.Media._ID,
+        getIdColumn(isVideo),
         MediaStore.MediaColumns.DISPLAY_NAME,
         MediaStore.MediaColumns.DATE_ADDED,
         MediaStore.MediaColumns.DATE_MODIFIED,
         MediaStore.MediaColumns.DATA,
     )
 
+    /**
+     * Restrict a selection to the media sorted after a [MediaKey]
+     *
+     * @param selectionQuery a String representation to the conditions applied to the query
+     * @param isVideo true if the query relates to the video media store
+     * @param after the key of the last media read, or null to start from the first one
+     * @return the selection of the media following [after]
+     */
+    private fun getSelectionAfter(
+        selectionQuery: String?,
+        isVideo: Boolean,
+        after: MediaKey?,
+    ): String? {
+        after ?: return selectionQuery
+        val dateModified = MediaStore.MediaColumns.DATE_MODIFIED
+        val id = getIdColumn(isVideo)
+        val keyset = "($dateModified > ${after.dateModified} OR " +
+                "($dateModified = ${after.dateModified} AND $id > ${after.id}))"
+        return selectionQuery?.let { "($it) AND $keyset" } ?: keyset
+    }
+
     /**
      * Create the cursor to use for querying the media store
      *
+     * The media are sorted by modification date then by id, which is the key used to read the
+     * media store in batches
+     *
      * @param uri the uri to query
      * @param selectionQuery a String representation to the conditions applied to the query
      * @param isVideo true if the query relates to the video media store
+     * @param limit the maximum number of rows to retrieve, or null to retrieve all of them
      * @return a [Cursor] of the query result
      */
     private fun createMediaCursor(
         uri: Uri,
         selectionQuery: String?,
-        isVideo: Boolean
+        isVideo: Boolean,
+        limit: Int? = debugSizeLimitation,
     ): Cursor? {
         val projection = getProjection(isVideo)
+        val sortOrder = "${MediaStore.MediaColumns.DATE_MODIFIED} ASC, ${getIdColumn(isVideo)} ASC"
         return if (Build.VERSION.SDK_INT >= Build.VERSION_CODES.R) {
             val args = Bundle().apply {
-                val sortOrder = MediaStore.MediaColumns.DATE_MODIFIED + " ASC "
                 putString(ContentResolver.QUERY_ARG_SQL_SORT_ORDER, sortOrder)
-                putString(ContentResolver.QUERY_ARG_OFFSET, "0")
                 putString(ContentResolver.QUERY_ARG_SQL_SELECTION, selectionQuery)
-                debugSizeLimitation?.let {
-                    putString(ContentResolver.QUERY_ARG_SQL_LIMIT, it.toString())
-                }
+                limit?.let { putInt(ContentResolver.QUERY_ARG_LIMIT, it) }
             }
             context.contentResolver?.query(uri, projection, args, null)
         } else {
-            val sortOrder = debugSizeLimitation?.let { "$this LIMIT 0,$it" }
-            context.contentResolver?.query(uri, projection, selectionQuery, null, sortOrder)
+            val sortOrderWithLimit = limit?.let { "$sortOrder LIMIT $it" } ?: sortOrder
+            context.contentResolver?.query(uri, projection, selectionQuery, null, sortOrderWithLimit)
         }
     }
 
     /**
-     * Extract the media list using the cursor
+     * Resolve the indices of the projection columns
      *
-     * @param isVideo true if the type of media retrieved is
-     * @return a Queue of [CameraUploadsMedia]
-     */
-    private fun Cursor.extractMedia(isVideo: Boolean): List<CameraUploadsMedia> =
-        ArrayList<CameraUploadsMedia>().apply {
-            if (moveToFirst()) {
-                do {
-                    val mediaId =
-                        getLongValue(if (isVideo) MediaStore.Video.Media._ID else MediaStore.Images.Media._ID)
-                    val displayName = getStringValue(MediaStore.MediaColumns.DISPLAY_NAME)
-                    val filePath = getStringValue(MediaStore.MediaColumns.DATA)
-                    val addedDate = getLongValue(MediaStore.MediaColumns.DATE_ADDED) * 1000
-                    val modifiedDate = getLongValue(MediaStore.MediaColumns.DATE_MODIFIED) * 1000
-                    val timestamp = max(addedDate, modifiedDate)
-
-                    val cameraUploadsMedia = CameraUploadsMedia(
-                        mediaId = mediaId,
-                        displayName = displayName,
-                        filePath = filePath,
-                        timestamp = timestamp
-                    )
-                    add(cameraUploadsMedia)
-                } while (moveToNext())
-            }
-            close()
-        }.toList()
-
-    /**
-     *  Get the string value of a cursor column index
+     * @param isVideo true if the cursor relates to the video media store
+     * @return the [MediaColumnIndices] of the cursor
      */
-    private fun Cursor.getStringValue(key: String) = getString(getColumnIndexOrThrow(key))
+    private fun Cursor.getMediaColumnIndices(isVideo: Boolean) = MediaColumnIndices(
+        id = getColumnIndexOrThrow(getIdColumn(isVideo)),
+        displayName = getColumnIndexOrThrow(MediaStore.MediaColumns.DISPLAY_NAME),
+        data = getColumnIndexOrThrow(MediaStore.MediaColumns.DATA),
+        dateAdded = getColumnIndexOrThrow(MediaStore.MediaColumns.DATE_ADDED),
+        dateModified = getColumnIndexOrThrow(MediaStore.MediaColumns.DATE_MODIFIED),
+    )
 
     /**
-     *  Get the long value of a cursor column index
+     * Extract the media list using the cursor
+     *
+     * @param columnIndices the indices of the projection columns in the cursor
+     * @return a list of [CameraUploadsMedia]
      */
-    private fun Cursor.getLongValue(key: String) = getLong(getColumnIndexOrThrow(key))
+    private fun Cursor.extractMedia(columnIndices: MediaColumnIndices): List<CameraUploadsMedia> {
+        val media = ArrayList<CameraUploadsMedia>(count.coerceAtLeast(0))
+        if (moveToFirst()) {
+            do {
+                val addedDate = getLong(columnIndices.dateAdded) * 1000
+                val modifiedDate = getLong(columnIndices.dateModified) * 1000
+                media.add(
+                    CameraUploadsMedia(
+                        mediaId = getLong(columnIndices.id),
+                        displayName = getString(columnIndices.displayName),
+                        filePath = getString(columnIndices.data),
+                        timestamp = max(addedDate, modifiedDate),
+                    )
+                )
+            } while (moveToNext())
+        }
+        return media
+    }
 
+    private fun getIdColumn(isVideo: Boolean) =
+        if (isVideo) MediaStore.Video.Media._ID else MediaStore.Images.Media._ID
 
     /**
      * Check if the uri corresponds to an uri of type video or not
@@ -148,3 +245,25 @@ internal class CameraUploadsMediaFacade @Inject constructor(
         else -> false
     }
 }
+
+/**
+ * Position of a media in the sort order of the media store queries
+ *
+ * @property dateModified the raw modification date, in seconds
+ * @property id the id of the media
+ */
+private class MediaKey(
+    val dateModified: Long,
+    val id: Long,
+)
+
+/**
+ * Indices of the projection columns of a media store cursor, resolved once per query
+ */
+private class MediaColumnIndices(
+    val id: Int,
+    val displayName: Int,
+    val data: Int,
+    val dateAdded: Int,
+    val dateModified: Int,
+)
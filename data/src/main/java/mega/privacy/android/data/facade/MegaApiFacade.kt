@@ -40,6 +40,7 @@ import nz.mega.sdk.MegaRecentActionBucketListAndroid
 import nz.mega.sdk.MegaRequest
 import nz.mega.sdk.MegaRequestListenerInterface
 import nz.mega.sdk.MegaSearchFilter
+import nz.mega.sdk.MegaSearchPage
 import nz.mega.sdk.MegaSet
 import nz.mega.sdk.MegaSetElement
 import nz.mega.sdk.MegaSetElementList
@@ -1122,17 +1123,20 @@ internal class MegaApiFacade @Inject constructor(
         filter: MegaSearchFilter,
         order: Int,
         megaCancelToken: MegaCancelToken,
+        megaSearchPage: MegaSearchPage?,
     ): List<MegaNode> = megaApi.search(
         filter,
         order,
-        megaCancelToken
+        megaCancelToken,
+        megaSearchPage
     )
 
     override suspend fun getChildren(
         filter: MegaSearchFilter,
         order: Int,
         megaCancelToken: MegaCancelToken,
-    ): List<MegaNode> = megaApi.getChildren(filter, order, megaCancelToken, null)
+        megaSearchPage: MegaSearchPage?,
+    ): List<MegaNode> = megaApi.getChildren(filter, order, megaCancelToken, megaSearchPage)
 
     override fun openShareDialog(
         megaNode: MegaNode,
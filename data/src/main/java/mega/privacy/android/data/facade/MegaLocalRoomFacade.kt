@@ -2,10 +2,14 @@ package mega.privacy.android.data.facade
 
 import dagger.Lazy
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.drop
 import kotlinx.coroutines.flow.emitAll
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.map
+import kotlinx.coroutines.flow.scan
+import kotlinx.coroutines.flow.update
 import mega.privacy.android.data.cryptography.DecryptData
 import mega.privacy.android.data.cryptography.EncryptData
 import mega.privacy.android.data.database.dao.ActiveTransferDao
@@ -18,6 +22,7 @@ import mega.privacy.android.data.database.dao.ContactDao
 import mega.privacy.android.data.database.dao.OfflineDao
 import mega.privacy.android.data.database.dao.PendingTransferDao
 import mega.privacy.android.data.database.dao.VideoRecentlyWatchedDao
+import mega.privacy.android.data.database.entity.OfflineEntity
 import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.mapper.backup.BackupEntityMapper
 import mega.privacy.android.data.mapper.backup.BackupInfoTypeIntMapper
@@ -47,6 +52,7 @@ import mega.privacy.android.domain.entity.backup.Backup
 import mega.privacy.android.domain.entity.backup.BackupInfoType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordIndex
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.chat.ChatPendingChanges
 import mega.privacy.android.domain.entity.transfer.ActiveTransfer
@@ -96,6 +102,10 @@ internal class MegaLocalRoomFacade @Inject constructor(
     private val activeTransferGroupDao: Lazy<ActiveTransferGroupDao>,
     private val activeTransferGroupEntityMapper: ActiveTransferGroupEntityMapper,
 ) : MegaLocalRoomGateway {
+
+    // Incremented after every change of the offline table, all of them are made here
+    private val offlineVersion = MutableStateFlow(0L)
+
     override suspend fun insertContact(contact: Contact) {
         contactDao.get().insertOrUpdateContact(contactEntityMapper(contact))
     }
@@ -308,6 +318,13 @@ internal class MegaLocalRoomFacade @Inject constructor(
             cameraUploadsRecordModelMapper(it)
         }
 
+    override suspend fun getCameraUploadsRecordIndex(folderType: CameraUploadFolderType): CameraUploadsRecordIndex {
+        val keys = cameraUploadsRecordDao.get().getCameraUploadsRecordKeys(folderType)
+        return CameraUploadsRecordIndex(keys.size).apply {
+            keys.forEach { add(it.mediaId, it.timestamp) }
+        }
+    }
+
     override suspend fun getCameraUploadsRecordsBy(
         uploadStatus: List<CameraUploadsRecordUploadStatus>,
         types: List<CameraUploadsRecordType>,
@@ -438,13 +455,31 @@ internal class MegaLocalRoomFacade @Inject constructor(
     override suspend fun saveOfflineInformation(offline: Offline) =
         offlineEntityMapper(offline).let {
             offlineDao.get().insertOrUpdateOffline(it)
-        }
+        }.also { offlineVersion.update { it + 1 } }
 
-    override suspend fun clearOffline() = offlineDao.get().deleteAllOffline()
+    override suspend fun clearOffline() {
+        offlineDao.get().deleteAllOffline()
+        offlineVersion.update { it + 1 }
+    }
 
     override fun monitorOfflineUpdates() = offlineDao.get().monitorOffline()
-        .map { it.map { offlineEntity -> offlineModelMapper(offlineEntity) } }
+        // Only the rows added or changed since the previous emission are decrypted
+        .scan(emptyMap<OfflineEntity, Offline>()) { decrypted, offlineEntities ->
+            offlineEntities.associateWith { decrypted[it] ?: offlineModelMapper(it) }
+        }
+        .drop(1)
+        .map { it.values.toList() }
 
+    override fun getOfflineVersion() = offlineVersion.value
+
+    override fun monitorVersionedOfflineUpdates() = offlineVersion
+        // The version is read before the rows, so they include at least its changes
+        .map { version -> version to offlineDao.get().getOfflineFiles().orEmpty() }
+        .scan(0L to emptyMap<OfflineEntity, Offline>()) { (_, decrypted), (version, entities) ->
+            version to entities.associateWith { decrypted[it] ?: offlineModelMapper(it) }
+        }
+        .drop(1)
+        .map { (version, offline) -> version to offline.values.toList() }
 
     override suspend fun getAllOfflineInfo() =
         offlineDao.get().getOfflineFiles()?.map { offlineModelMapper(it) } ?: emptyList()
@@ -452,6 +487,7 @@ internal class MegaLocalRoomFacade @Inject constructor(
     override suspend fun removeOfflineInformation(nodeId: String) {
         encryptData(nodeId)?.let {
             offlineDao.get().deleteOfflineByHandle(it)
+            offlineVersion.update { version -> version + 1 }
         }
     }
 
@@ -467,10 +503,12 @@ internal class MegaLocalRoomFacade @Inject constructor(
 
     override suspend fun removeOfflineInformationById(id: Int) {
         offlineDao.get().deleteOfflineById(id)
+        offlineVersion.update { it + 1 }
     }
 
     override suspend fun removeOfflineInformationByIds(ids: List<Int>) {
         offlineDao.get().deleteOfflineByIds(ids)
+        offlineVersion.update { it + 1 }
     }
 
     private suspend fun deleteCompletedTransferBatch(ids: List<Int>) {
@@ -4,6 +4,7 @@ import androidx.room.withTransaction
 import dagger.Lazy
 import kotlinx.coroutines.flow.Flow
 import mega.privacy.android.data.database.chat.ChatDatabase
+import mega.privacy.android.data.database.chat.TypedMessageKeysetPagingSource
 import mega.privacy.android.data.database.dao.ChatMessageMetaDao
 import mega.privacy.android.data.database.dao.ChatNodeDao
 import mega.privacy.android.data.database.entity.chat.ChatGeolocationEntity
@@ -41,7 +42,13 @@ internal class ChatStorageFacade @Inject constructor(
      * @return paging source
      */
     override fun getTypedMessageRequestPagingSource(chatId: Long) =
-        database.get().typedMessageDao().getAllAsPagingSource(chatId)
+        with(database.get()) {
+            TypedMessageKeysetPagingSource(
+                chatId = chatId,
+                typedMessageDao = typedMessageDao(),
+                invalidationTracker = invalidationTracker,
+            )
+        }
 
     /**
      * Store messages
@@ -59,28 +66,23 @@ internal class ChatStorageFacade @Inject constructor(
             val chatNodeDao = chatNodeDao()
             val typedMessageDao = typedMessageDao()
             val metaDao = chatMessageMetaDao()
+            val tempIds = messages.map { it.tempId }.filterNot { it == -1L }
+            val crossRefs = chatNodes.mapNotNull { node ->
+                node.messageId?.let { NodeMessageCrossRef(messageId = it, id = node.id) }
+            }
+            // The whole batch is written in a single transaction
             withTransaction {
-                typedMessageDao.deleteStaleMessagesByTempIds(messages.map { it.tempId }
-                    .filterNot { it == -1L })
+                tempIds.takeUnless { it.isEmpty() }
+                    ?.let { typedMessageDao.deleteStaleMessagesByTempIds(it) }
                 typedMessageDao.insertAll(messages)
                 richPreviews.takeUnless { it.isEmpty() }
                     ?.let { metaDao.insertRichPreviews(it) }
                 giphys.takeUnless { it.isEmpty() }?.let { metaDao.insertGiphys(it) }
                 geolocations.takeUnless { it.isEmpty() }
                     ?.let { metaDao.insertGeolocations(it) }
-                chatNodes.takeUnless { it.isEmpty() }?.let { nodes ->
-                    chatNodeDao.insertChatNodes(nodes)
-                    nodes.forEach {
-                        it.messageId?.let { messageId ->
-                            chatNodeDao.insertNodeMessageCrossRef(
-                                NodeMessageCrossRef(
-                                    messageId = messageId,
-                                    id = it.id
-                                )
-                            )
-                        }
-                    }
-                }
+                chatNodes.takeUnless { it.isEmpty() }?.let { chatNodeDao.insertChatNodes(it) }
+                crossRefs.takeUnless { it.isEmpty() }
+                    ?.let { chatNodeDao.insertNodeMessageCrossRefs(it) }
             }
         }
     }
@@ -103,6 +105,15 @@ internal class ChatStorageFacade @Inject constructor(
         }
     }
 
+    /**
+     * Get newest message timestamp
+     *
+     * @param chatId Chat ID
+     * @return the timestamp of the newest stored message
+     */
+    override suspend fun getNewestMessageTimestamp(chatId: Long) =
+        database.get().typedMessageDao().getNewestMessageTimestamp(chatId)
+
     /**
      * Get next message
      *
@@ -209,7 +220,17 @@ internal class ChatStorageFacade @Inject constructor(
     override suspend fun getExistsInMessage(chatId: Long, msgId: Long) =
         database.get().typedMessageDao().getExists(chatId, msgId)
 
+    override suspend fun getMessageIdsNotExisting(chatId: Long, msgIds: List<Long>) =
+        with(database.get().typedMessageDao()) {
+            // Chunked to stay under the limit of variables of a query
+            msgIds.chunked(MAX_QUERY_VARIABLES).flatMap { getMessageIdsNotExisting(chatId, it) }
+        }
+
     override suspend fun clearAllData() {
         database.get().clearAllTables()
     }
-}
\ No newline at end of file
+
+    private companion object {
+        const val MAX_QUERY_VARIABLES = 500
+    }
+}
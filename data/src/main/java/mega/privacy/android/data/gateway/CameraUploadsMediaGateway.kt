@@ -1,7 +1,9 @@
 package mega.privacy.android.data.gateway
 
 import android.net.Uri
+import kotlinx.coroutines.flow.Flow
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreVolumeGeneration
 
 /**
  * Camera Upload Media Files Gateway
@@ -21,10 +23,49 @@ interface CameraUploadsMediaGateway {
         selectionQuery: String?,
     ): List<CameraUploadsMedia>
 
+    /**
+     * Get the media for a given media type, in batches
+     *
+     * The media store is queried [batchSize] rows at a time, each batch starting after the
+     * modification date and id of the last media of the previous one, so that only one batch is
+     * held in memory at a time by the reader and the media deleted meanwhile do not skip others
+     *
+     * @param uri different media store file type
+     * @param selectionQuery db query
+     * @param batchSize the maximum number of media of a batch
+     *
+     * @return a cold flow emitting the batches of camera upload media
+     */
+    fun getMediaBatches(
+        uri: Uri,
+        selectionQuery: String?,
+        batchSize: Int,
+    ): Flow<List<CameraUploadsMedia>>
+
     /**
      * Get the selection query to filter the media based on the parent path
      *
      * @param parentPath path that contains the media
      */
     fun getMediaSelectionQuery(parentPath: String): String
+
+    /**
+     * Get the selection query to filter the media based on the parent path, keeping only the media
+     * inserted or modified since the given volume generations
+     *
+     * @param parentPath path that contains the media
+     * @param changedSince the [MediaStoreVolumeGeneration] from which the changes are retrieved.
+     *                     The media of the volumes not listed are all kept
+     */
+    fun getMediaSelectionQuery(
+        parentPath: String,
+        changedSince: List<MediaStoreVolumeGeneration>,
+    ): String
+
+    /**
+     * Get the current generation of each media store volume
+     *
+     * @return the list of [MediaStoreVolumeGeneration], empty below Android 11
+     */
+    fun getMediaStoreVolumeGenerations(): List<MediaStoreVolumeGeneration>
 }
@@ -14,4 +14,4 @@ interface FileCompressionGateway {
      * @param zipFile
      */
     suspend fun zipFolder(sourceFolder: File, zipFile: File)
-}
\ No newline at end of file
+}
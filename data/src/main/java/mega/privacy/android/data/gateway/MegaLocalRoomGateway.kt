@@ -8,6 +8,7 @@ import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.backup.Backup
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordIndex
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.chat.ChatPendingChanges
 import mega.privacy.android.domain.entity.transfer.ActiveTransfer
@@ -287,6 +288,14 @@ interface MegaLocalRoomGateway {
      */
     suspend fun getAllCameraUploadsRecords(): List<CameraUploadsRecord>
 
+    /**
+     * Get the index of the camera uploads records of a folder type
+     *
+     * @param folderType the folder type of the records
+     * @return the [CameraUploadsRecordIndex] of the records
+     */
+    suspend fun getCameraUploadsRecordIndex(folderType: CameraUploadFolderType): CameraUploadsRecordIndex
+
     /**
      * Get the records from the database
      *
@@ -434,6 +443,21 @@ interface MegaLocalRoomGateway {
      */
     fun monitorOfflineUpdates(): Flow<List<Offline>>
 
+    /**
+     * Get the version of the offline information
+     *
+     * @return a number incremented after every change of the offline information
+     */
+    fun getOfflineVersion(): Long
+
+    /**
+     * Monitor the offline information along with its version
+     *
+     * @return the version and the offline information, which includes at least all the changes
+     * of that version
+     */
+    fun monitorVersionedOfflineUpdates(): Flow<Pair<Long, List<Offline>>>
+
     /**
      * Get all offline files
      */
@@ -1,6 +1,8 @@
 package mega.privacy.android.data.gateway
 
+import android.util.Log
 import androidx.annotation.Keep
+import mega.privacy.android.data.logging.AsyncLogWriter
 import nz.mega.sdk.MegaChatApi
 import nz.mega.sdk.MegaChatLoggerInterface
 import timber.log.Timber
@@ -10,23 +12,44 @@ import javax.inject.Inject
  * Chat file logger
  *
  * Chat log listener that prints all the chat output to file. See logback.xml for configuration
+ *
+ * The chat threads only queue the lines, which are written to Timber by an [AsyncLogWriter].
  */
 @Keep
 internal class TimberChatLogger @Inject constructor() : MegaChatLoggerInterface {
-    @Synchronized
+
+    private val writer = AsyncLogWriter(
+        name = "ChatLogWriter",
+        write = { priority, message, _ ->
+            Timber.tag(TAG)
+            Timber.log(priority, message)
+        },
+        onDropped = { count ->
+            Timber.tag(TAG)
+            Timber.w("$count log lines dropped")
+        },
+        // Not written with Timber, which may be what fails
+        onWriteFailed = { count, error ->
+            Log.e(TAG, "$count log lines failed to be written", error)
+        },
+    ).apply { flushOnUncaughtException() }
+
     override fun log(loglevel: Int, message: String?) {
-        Timber.tag(TAG)
-        when (loglevel) {
-            MegaChatApi.LOG_LEVEL_MAX -> Timber.v(message)
-            MegaChatApi.LOG_LEVEL_DEBUG -> Timber.d(message)
-            MegaChatApi.LOG_LEVEL_INFO -> Timber.i(message)
-            MegaChatApi.LOG_LEVEL_WARNING -> Timber.w(message)
-            MegaChatApi.LOG_LEVEL_ERROR -> Timber.e(message)
-            else -> Timber.i(message)
+        writer.log(getPriority(loglevel), message)
+    }
+
+    private fun getPriority(loglevel: Int): Int {
+        return when (loglevel) {
+            MegaChatApi.LOG_LEVEL_MAX -> Log.VERBOSE
+            MegaChatApi.LOG_LEVEL_DEBUG -> Log.DEBUG
+            MegaChatApi.LOG_LEVEL_INFO -> Log.INFO
+            MegaChatApi.LOG_LEVEL_WARNING -> Log.WARN
+            MegaChatApi.LOG_LEVEL_ERROR -> Log.ERROR
+            else -> Log.INFO
         }
     }
 
     companion object {
         const val TAG = "[chat_sdk]"
     }
-}
\ No newline at end of file
+}
@@ -2,6 +2,7 @@ package mega.privacy.android.data.gateway
 
 import android.util.Log
 import androidx.annotation.Keep
+import mega.privacy.android.data.logging.AsyncLogWriter
 import nz.mega.sdk.MegaApiAndroid
 import nz.mega.sdk.MegaLoggerInterface
 import timber.log.Timber
@@ -12,17 +13,35 @@ import javax.inject.Inject
  *
  * Class responsible for writing SDK log output to the Timber log, adding custom tags.
  *
+ * The SDK threads only queue the lines, which are formatted and written to Timber by an
+ * [AsyncLogWriter].
+ *
  * See logback.xml for configuration.
  */
 @Keep
 internal class TimberMegaLogger @Inject constructor() : MegaLoggerInterface {
-    @Synchronized
+
+    private val writer = AsyncLogWriter(
+        name = "SdkLogWriter",
+        write = { priority, message, source ->
+            Timber.tag(TAG)
+            Timber.log(
+                priority = priority,
+                message = "$message ${getSource(source)}",
+            )
+        },
+        onDropped = { count ->
+            Timber.tag(TAG)
+            Timber.w("$count log lines dropped")
+        },
+        // Not written with Timber, which may be what fails
+        onWriteFailed = { count, error ->
+            Log.e(TAG, "$count log lines failed to be written", error)
+        },
+    ).apply { flushOnUncaughtException() }
+
     override fun log(time: String, logLevel: Int, source: String, message: String) {
-        Timber.tag(TAG)
-        Timber.log(
-            priority = getPriority(logLevel),
-            message = "$message ${getSource(source)}",
-        )
+        writer.log(getPriority(logLevel), message, source)
     }
 
     private fun getPriority(logLevel: Int): Int {
@@ -37,10 +56,9 @@ internal class TimberMegaLogger @Inject constructor() : MegaLoggerInterface {
         }
     }
 
-    private fun getSource(source: String?) =
-        source?.split("jni/mega")?.getOrNull(1) ?: source
+    private fun getSource(source: String?) = source?.substringAfter("jni/mega")
 
     companion object {
         const val TAG = "[sdk]"
     }
-}
\ No newline at end of file
+}
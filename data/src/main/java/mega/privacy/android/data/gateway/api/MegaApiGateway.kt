@@ -20,6 +20,7 @@ import nz.mega.sdk.MegaRecentActionBucket
 import nz.mega.sdk.MegaRecentActionBucketList
 import nz.mega.sdk.MegaRequestListenerInterface
 import nz.mega.sdk.MegaSearchFilter
+import nz.mega.sdk.MegaSearchPage
 import nz.mega.sdk.MegaSet
 import nz.mega.sdk.MegaSetElementList
 import nz.mega.sdk.MegaSetList
@@ -2265,11 +2266,13 @@ interface MegaApiGateway {
      * @param filter filter to apply [MegaSearchFilter]
      * @param order [SortOrder]
      * @param megaCancelToken [MegaCancelToken]
+     * @param megaSearchPage [MegaSearchPage] window of the sorted results to return, all if null
      */
     suspend fun searchWithFilter(
         filter: MegaSearchFilter,
         order: Int,
         megaCancelToken: MegaCancelToken,
+        megaSearchPage: MegaSearchPage? = null,
     ): List<MegaNode>
 
     /**
@@ -2277,11 +2280,13 @@ interface MegaApiGateway {
      * @param filter filter to apply [MegaSearchFilter]
      * @param order [SortOrder]
      * @param megaCancelToken [MegaCancelToken]
+     * @param megaSearchPage [MegaSearchPage] window of the sorted children to return, all if null
      */
     suspend fun getChildren(
         filter: MegaSearchFilter,
         order: Int,
         megaCancelToken: MegaCancelToken,
+        megaSearchPage: MegaSearchPage? = null,
     ): List<MegaNode>
 
     /**
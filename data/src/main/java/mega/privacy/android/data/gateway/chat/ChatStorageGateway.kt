@@ -11,6 +11,7 @@ import mega.privacy.android.data.database.entity.chat.RichPreviewEntity
 import mega.privacy.android.data.database.entity.chat.TypedMessageEntity
 import mega.privacy.android.domain.entity.chat.ChatMessageType
 import mega.privacy.android.domain.entity.chat.PendingMessageState
+import mega.privacy.android.domain.entity.chat.messages.paging.TypedMessagePagingKey
 import mega.privacy.android.domain.entity.chat.messages.pending.UpdatePendingMessageRequest
 
 /**
@@ -21,9 +22,11 @@ interface ChatStorageGateway {
      * Get typed message request paging source
      *
      * @param chatId
-     * @return
+     * @return keyset paging source of the messages, from the newest to the oldest
      */
-    fun getTypedMessageRequestPagingSource(chatId: Long): PagingSource<Int, MetaTypedMessageEntity>
+    fun getTypedMessageRequestPagingSource(
+        chatId: Long,
+    ): PagingSource<TypedMessagePagingKey, MetaTypedMessageEntity>
 
     /**
      * Store messages
@@ -49,6 +52,14 @@ interface ChatStorageGateway {
      */
     suspend fun clearChatMessages(chatId: Long)
 
+    /**
+     * Get newest message timestamp
+     *
+     * @param chatId
+     * @return the timestamp of the newest stored message, or null if there are no messages
+     */
+    suspend fun getNewestMessageTimestamp(chatId: Long): Long?
+
     /**
      * Get next message
      *
@@ -183,6 +194,15 @@ interface ChatStorageGateway {
      */
     suspend fun getExistsInMessage(chatId: Long, msgId: Long): Boolean?
 
+    /**
+     * Get the messages whose content does not exist
+     *
+     * @param chatId Chat ID
+     * @param msgIds Message IDs to check
+     * @return the message IDs of [msgIds] whose content does not exist
+     */
+    suspend fun getMessageIdsNotExisting(chatId: Long, msgIds: List<Long>): List<Long>
+
     /**
      * Clear all typed messages
      */
@@ -1,6 +1,9 @@
 package mega.privacy.android.data.gateway.preferences
 
 import kotlinx.coroutines.flow.Flow
+import mega.privacy.android.domain.entity.CameraUploadsRecordType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanCheckpoint
 
 /**
  * CameraUploads Settings Preference Gateway
@@ -205,4 +208,29 @@ interface CameraUploadsSettingsPreferenceGateway {
      * @param chargingRequired the new Device charging state
      */
     suspend fun setChargingRequiredToUploadContent(chargingRequired: Boolean)
+
+    /**
+     * Gets the checkpoint of the last media store scan completed for the folder type and file type
+     *
+     * @param folderType the [CameraUploadFolderType] scanned
+     * @param fileType the [CameraUploadsRecordType] scanned
+     * @return the [MediaStoreScanCheckpoint], or null if there is none
+     */
+    suspend fun getMediaStoreScanCheckpoint(
+        folderType: CameraUploadFolderType,
+        fileType: CameraUploadsRecordType,
+    ): MediaStoreScanCheckpoint?
+
+    /**
+     * Sets the checkpoint of the last media store scan completed for the folder type and file type
+     *
+     * @param folderType the [CameraUploadFolderType] scanned
+     * @param fileType the [CameraUploadsRecordType] scanned
+     * @param checkpoint the [MediaStoreScanCheckpoint] to set, or null to remove it
+     */
+    suspend fun setMediaStoreScanCheckpoint(
+        folderType: CameraUploadFolderType,
+        fileType: CameraUploadsRecordType,
+        checkpoint: MediaStoreScanCheckpoint?,
+    )
 }
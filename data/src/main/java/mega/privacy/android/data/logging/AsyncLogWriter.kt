@@ -0,0 +1,180 @@
+package mega.privacy.android.data.logging
+
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.locks.LockSupport
+
+/**
+ * Async log writer
+ *
+ * Takes the log lines of the SDK threads without blocking them and writes them from a single
+ * background thread. The lines are kept in a [LogRingBuffer] and the writer reads them in batches,
+ * so they are formatted and written out of the threads logging them. When the buffer is full the
+ * new lines are dropped, and the writer reports how many were lost with [onDropped]. The lines that
+ * fail to be written are skipped and reported with [onWriteFailed].
+ *
+ * [flush] waits for the lines already logged, and [flushOnUncaughtException] does it before the
+ * process dies, so the last lines before a crash are not lost.
+ *
+ * @param name the name of the writer thread
+ * @param capacity the number of lines kept while the writer is busy, a power of two
+ * @param batchSize the maximum number of lines written before checking the dropped lines
+ * @param write writes a line, called from the writer thread only
+ * @param onDropped reports the number of lines dropped since the last report, called from the
+ * writer thread only
+ * @param onWriteFailed reports the number of lines that failed to be written since the last
+ * report and the last failure, called from the writer thread only
+ */
+internal class AsyncLogWriter(
+    name: String,
+    capacity: Int = DEFAULT_CAPACITY,
+    private val batchSize: Int = DEFAULT_BATCH_SIZE,
+    private val write: LogRingBuffer.LogLineConsumer,
+    private val onDropped: (count: Long) -> Unit,
+    private val onWriteFailed: (count: Long, error: Exception) -> Unit,
+) {
+    private val buffer = LogRingBuffer(capacity)
+
+    /**
+     * Number of lines written or failed, only written by the writer thread
+     */
+    @Volatile
+    private var processedCount = 0L
+
+    private var failedCount = 0L
+
+    private var reportedFailed = 0L
+
+    private var lastFailure: Exception? = null
+
+    private val consumer = LogRingBuffer.LogLineConsumer { priority, message, source ->
+        try {
+            write.accept(priority, message, source)
+        } catch (e: Exception) {
+            failedCount++
+            lastFailure = e
+        }
+        processedCount++
+    }
+
+    @Volatile
+    private var waiting = false
+
+    private var reportedDropped = 0L
+
+    private val thread = Thread({ run() }, name).apply {
+        isDaemon = true
+        start()
+    }
+
+    /**
+     * Number of lines dropped because the writer was behind
+     */
+    val droppedCount: Long
+        get() = buffer.droppedCount
+
+    /**
+     * Log a line, from any thread
+     *
+     * @param priority the priority of the line
+     * @param message the message, formatted by the writer
+     * @param source the source of the message, formatted by the writer
+     */
+    fun log(priority: Int, message: String?, source: String? = null) {
+        if (buffer.offer(priority, message, source) && waiting) {
+            LockSupport.unpark(thread)
+        }
+    }
+
+    /**
+     * Wait until the lines logged before are written, from any thread but the writer one
+     *
+     * @param timeoutMillis the maximum time to wait
+     * @return false if the lines were not written before the timeout
+     */
+    fun flush(timeoutMillis: Long = DEFAULT_FLUSH_TIMEOUT_MILLIS): Boolean {
+        if (Thread.currentThread() == thread) return false
+        val target = buffer.offeredCount
+        val deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeoutMillis)
+        while (processedCount < target) {
+            val remaining = deadline - System.nanoTime()
+            if (remaining <= 0) return false
+            LockSupport.unpark(thread)
+            LockSupport.parkNanos(this, minOf(remaining, FLUSH_POLL_NANOS))
+        }
+        return true
+    }
+
+    /**
+     * Flush the writer when a thread terminates with an uncaught exception, before the default
+     * handler that was installed is called
+     */
+    fun flushOnUncaughtException() {
+        writersToFlush.addIfAbsent(this)
+        if (isHandlerInstalled.compareAndSet(false, true)) {
+            val previousHandler = Thread.getDefaultUncaughtExceptionHandler()
+            Thread.setDefaultUncaughtExceptionHandler { thread, throwable ->
+                writersToFlush.forEach { it.flush() }
+                previousHandler?.uncaughtException(thread, throwable)
+            }
+        }
+    }
+
+    private fun run() {
+        while (true) {
+            if (buffer.drain(batchSize, consumer) == 0) {
+                report()
+                waiting = true
+                // The buffer is checked again after publishing that the writer waits, so a line
+                // offered meanwhile either is seen here or unparks the writer
+                if (buffer.isEmpty()) {
+                    LockSupport.parkNanos(this, MAX_WAIT_NANOS)
+                }
+                waiting = false
+            } else {
+                report()
+            }
+        }
+    }
+
+    /**
+     * Report the dropped and failed lines, a report failing is ignored so the writer keeps running
+     */
+    private fun report() {
+        val dropped = buffer.droppedCount
+        if (dropped > reportedDropped) {
+            runCatching { onDropped(dropped - reportedDropped) }
+            reportedDropped = dropped
+        }
+        val failure = lastFailure
+        if (failedCount > reportedFailed && failure != null) {
+            runCatching { onWriteFailed(failedCount - reportedFailed, failure) }
+            reportedFailed = failedCount
+            lastFailure = null
+        }
+    }
+
+    companion object {
+        /**
+         * Default capacity, enough for the bursts of the SDK with the max log level
+         */
+        const val DEFAULT_CAPACITY = 8192
+
+        /**
+         * Default batch size
+         */
+        const val DEFAULT_BATCH_SIZE = 256
+
+        /**
+         * Default time to wait for a flush, short enough to not delay a crash
+         */
+        const val DEFAULT_FLUSH_TIMEOUT_MILLIS = 500L
+
+        private val MAX_WAIT_NANOS = TimeUnit.SECONDS.toNanos(1)
+        private val FLUSH_POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(1)
+
+        private val writersToFlush = CopyOnWriteArrayList<AsyncLogWriter>()
+        private val isHandlerInstalled = AtomicBoolean()
+    }
+}
@@ -29,10 +29,11 @@ internal class LogFlowTree(
 
     private val scope = CoroutineScope(Job() + dispatcher)
 
+    // The sdk loggers write their lines in batches, which are kept for a slow collector
     private val _logFlow =
         MutableSharedFlow<LogEntry>(
             replay = 0,
-            extraBufferCapacity = 1,
+            extraBufferCapacity = AsyncLogWriter.DEFAULT_BATCH_SIZE,
             onBufferOverflow = BufferOverflow.DROP_OLDEST
         )
     val logFlow: SharedFlow<LogEntry> = _logFlow
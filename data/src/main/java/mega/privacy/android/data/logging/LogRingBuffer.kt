@@ -0,0 +1,113 @@
+package mega.privacy.android.data.logging
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+
+/**
+ * Log ring buffer
+ *
+ * Bounded buffer of log lines written by many threads and read by a single one. The producers
+ * claim a slot with a compare and set and publish it with its sequence, so offering a line never
+ * takes a lock nor allocates. When the buffer is full the new line is dropped and counted.
+ *
+ * The lines are kept unformatted, as the message and the source given by the logger.
+ *
+ * @param capacity the number of lines, a power of two
+ */
+internal class LogRingBuffer(capacity: Int) {
+
+    init {
+        require(capacity > 0 && capacity and (capacity - 1) == 0) {
+            "The capacity must be a power of two"
+        }
+    }
+
+    private val mask = capacity - 1
+    private val sequences = AtomicLongArray(capacity).apply {
+        for (index in 0 until capacity) set(index, index.toLong())
+    }
+    private val priorities = IntArray(capacity)
+    private val messages = arrayOfNulls<String>(capacity)
+    private val sources = arrayOfNulls<String>(capacity)
+    private val tail = AtomicLong()
+    private val dropped = AtomicLong()
+
+    /**
+     * Only read and written by the consumer
+     */
+    private var head = 0L
+
+    /**
+     * Number of lines offered and not dropped since the buffer was created, from any thread
+     */
+    val offeredCount: Long
+        get() = tail.get()
+
+    /**
+     * Number of lines dropped because the buffer was full
+     */
+    val droppedCount: Long
+        get() = dropped.get()
+
+    /**
+     * Offer a line, from any thread
+     *
+     * @return false if the buffer is full and the line is dropped
+     */
+    fun offer(priority: Int, message: String?, source: String?): Boolean {
+        while (true) {
+            val position = tail.get()
+            val index = (position and mask.toLong()).toInt()
+            val available = sequences.get(index) - position
+            when {
+                available == 0L -> if (tail.compareAndSet(position, position + 1)) {
+                    priorities[index] = priority
+                    messages[index] = message
+                    sources[index] = source
+                    sequences.set(index, position + 1)
+                    return true
+                }
+
+                available < 0L -> {
+                    dropped.incrementAndGet()
+                    return false
+                }
+            }
+        }
+    }
+
+    /**
+     * Check if there are no lines to read, from the consumer thread
+     */
+    fun isEmpty() = sequences.get((head and mask.toLong()).toInt()) != head + 1
+
+    /**
+     * Read and remove up to [maxLines] lines in order, from the consumer thread
+     *
+     * @return the number of lines read
+     */
+    fun drain(maxLines: Int, consumer: LogLineConsumer): Int {
+        var count = 0
+        while (count < maxLines) {
+            val index = (head and mask.toLong()).toInt()
+            if (sequences.get(index) != head + 1) break
+            val message = messages[index]
+            val source = sources[index]
+            val priority = priorities[index]
+            messages[index] = null
+            sources[index] = null
+            sequences.lazySet(index, head + mask + 1)
+            head++
+            count++
+            consumer.accept(priority, message, source)
+        }
+        return count
+    }
+
+    /**
+     * Receives the lines read from the buffer
+     */
+    fun interface LogLineConsumer {
+        fun accept(priority: Int, message: String?, source: String?)
+    }
+}
@@ -2,11 +2,9 @@ package mega.privacy.android.data.mapper.chat.paging
 
 import androidx.paging.PagingSource
 import androidx.paging.PagingState
-import androidx.room.InvalidationTracker
-import dagger.Lazy
-import mega.privacy.android.data.database.chat.ChatDatabase
 import mega.privacy.android.data.database.entity.chat.MetaTypedMessageEntity
 import mega.privacy.android.domain.entity.chat.messages.TypedMessage
+import mega.privacy.android.domain.entity.chat.messages.paging.TypedMessagePagingKey
 import timber.log.Timber
 import javax.inject.Inject
 
@@ -17,7 +15,6 @@ import javax.inject.Inject
  */
 class TypedMessagePagingSourceMapper @Inject constructor(
     private val metaTypedEntityTypedMessageMapper: MetaTypedEntityTypedMessageMapper,
-    private val database: Lazy<ChatDatabase>,
 ) {
 
     /**
@@ -26,36 +23,39 @@ class TypedMessagePagingSourceMapper @Inject constructor(
      * @param entityPagingSource
      * @return mapped paging source
      */
-    operator fun invoke(entityPagingSource: PagingSource<Int, MetaTypedMessageEntity>): PagingSource<Int, TypedMessage> {
+    operator fun invoke(
+        entityPagingSource: PagingSource<TypedMessagePagingKey, MetaTypedMessageEntity>,
+    ): PagingSource<TypedMessagePagingKey, TypedMessage> {
         return MappingPagingSource(
             entityPagingSource,
             metaTypedEntityTypedMessageMapper,
-            database.get(),
         )
     }
 
     internal class MappingPagingSource(
-        private val originalSource: PagingSource<Int, MetaTypedMessageEntity>,
+        private val originalSource: PagingSource<TypedMessagePagingKey, MetaTypedMessageEntity>,
         private val metaTypedMessageEntityMapper: MetaTypedEntityTypedMessageMapper,
-        database: ChatDatabase,
-    ) : PagingSource<Int, TypedMessage>() {
-
-        private val invalidationObserver: InvalidationTracker.Observer =
-            object : InvalidationTracker.Observer("typed_messages") {
-                override fun onInvalidated(tables: Set<String>) {
-                    Timber.d("Paging mediator mapper invalidation observer: invalidated")
-                    invalidate()
-                }
-            }
+    ) : PagingSource<TypedMessagePagingKey, TypedMessage>() {
 
         init {
-            database.invalidationTracker.addObserver(invalidationObserver)
+            // The original source observes the database, invalidations are forwarded both ways
+            originalSource.registerInvalidatedCallback {
+                Timber.d("Paging mediator mapper: original source invalidated")
+                invalidate()
+            }
+            registerInvalidatedCallback { originalSource.invalidate() }
         }
 
-        override fun getRefreshKey(state: PagingState<Int, TypedMessage>) =
-            state.anchorPosition?.let { maxOf(0, it - (state.config.initialLoadSize / 2)) }
+        override fun getRefreshKey(state: PagingState<TypedMessagePagingKey, TypedMessage>) =
+            state.anchorPosition?.let { anchorPosition ->
+                state.closestItemToPosition(
+                    maxOf(0, anchorPosition - state.config.initialLoadSize / 2)
+                )?.let { TypedMessagePagingKey(timestamp = it.time, messageId = it.msgId) }
+            }
 
-        override suspend fun load(params: LoadParams<Int>): LoadResult<Int, TypedMessage> {
+        override suspend fun load(
+            params: LoadParams<TypedMessagePagingKey>,
+        ): LoadResult<TypedMessagePagingKey, TypedMessage> {
             Timber.d("Paging mediator mapper load: params : $params")
             return when (val originalResult = originalSource.load(params)) {
                 is LoadResult.Error -> {
@@ -45,6 +45,27 @@ internal class FileNodeMapper @Inject constructor(
         megaNode: MegaNode,
         requireSerializedData: Boolean,
         offline: Offline?,
+    ): FileNode = invoke(
+        megaNode = megaNode,
+        requireSerializedData = requireSerializedData,
+        offline = offline,
+        listingContext = NodeListingContext(getCacheFolders()),
+    )
+
+    /**
+     * Invoke with the values shared by the nodes of a listing
+     *
+     * @param megaNode
+     * @param requireSerializedData
+     * @param offline
+     * @param listingContext the [NodeListingContext] of the listing the node belongs to
+     * @return
+     */
+    suspend operator fun invoke(
+        megaNode: MegaNode,
+        requireSerializedData: Boolean,
+        offline: Offline?,
+        listingContext: NodeListingContext,
     ): FileNode = DefaultFileNode(
         id = NodeId(megaNode.handle),
         name = megaNode.name,
@@ -59,20 +80,24 @@ internal class FileNodeMapper @Inject constructor(
         modificationTime = megaNode.modificationTime,
         thumbnailPath = getThumbnailCacheFilePath(
             megaNode,
-            cacheGateway.getThumbnailCacheFolder()
+            listingContext.cacheFolders.thumbnailFolder
         ),
         previewPath = getPreviewCacheFilePath(
             megaNode,
-            cacheGateway.getPreviewCacheFolder()
+            listingContext.cacheFolders.previewFolder
         ),
         fullSizePath = getFullSizeCacheFilePath(
             megaNode,
-            cacheGateway.getFullSizeCacheFolder()
+            listingContext.cacheFolders.fullSizeFolder
         ),
-        type = fileTypeInfoMapper(megaNode.name, megaNode.duration),
+        type = listingContext.getFileType(megaNode) { name, duration ->
+            fileTypeInfoMapper(name, duration)
+        },
         isFavourite = megaNode.isFavourite,
         isMarkedSensitive = megaNode.isMarkedSensitive,
-        isSensitiveInherited = megaApiGateway.isSensitiveInherited(megaNode),
+        isSensitiveInherited = listingContext.isSensitiveInherited(megaNode) {
+            megaApiGateway.isSensitiveInherited(it)
+        },
         exportedData = megaNode.takeIf { megaNode.isExported }?.let {
             ExportedData(it.publicLink, it.publicLinkCreationTime)
         },
@@ -90,6 +115,15 @@ internal class FileNodeMapper @Inject constructor(
         tags = megaNode.tags?.let { stringListMapper(it) }
     )
 
+    /**
+     * Get the cache folders of the file nodes
+     */
+    suspend fun getCacheFolders() = NodeCacheFolders(
+        thumbnailFolder = cacheGateway.getThumbnailCacheFolder(),
+        previewFolder = cacheGateway.getPreviewCacheFolder(),
+        fullSizeFolder = cacheGateway.getFullSizeCacheFolder(),
+    )
+
     private fun getThumbnailCacheFilePath(megaNode: MegaNode, thumbnailFolder: File?): String? =
         thumbnailFolder?.let {
             "$it${File.separator}${megaNode.getThumbnailFileName()}"
@@ -0,0 +1,67 @@
+package mega.privacy.android.data.mapper.node
+
+import mega.privacy.android.domain.entity.FileTypeInfo
+import nz.mega.sdk.MegaNode
+import java.io.File
+
+/**
+ * Cache folders where the thumbnails, previews and full size files of the nodes are stored
+ *
+ * @property thumbnailFolder
+ * @property previewFolder
+ * @property fullSizeFolder
+ */
+internal data class NodeCacheFolders(
+    val thumbnailFolder: File?,
+    val previewFolder: File?,
+    val fullSizeFolder: File?,
+)
+
+/**
+ * Values shared by the nodes of a listing
+ *
+ * The cache folders are resolved once for the whole listing, the file type is parsed once per
+ * extension and the sensitivity inherited from the ancestors, which is the same for all the nodes
+ * with the same parent, is read once per parent. A context is not thread safe, so it must be used by a single
+ * coroutine at a time.
+ *
+ * @property cacheFolders the [NodeCacheFolders] of the listing
+ */
+internal class NodeListingContext(val cacheFolders: NodeCacheFolders) {
+
+    @PublishedApi
+    internal val fileTypes = HashMap<String, HashMap<Int, FileTypeInfo>>()
+
+    @PublishedApi
+    internal val sensitiveInheritedByParent = HashMap<Long, Boolean>()
+
+    /**
+     * Get the file type of a node, parsing it only for the first node of each extension
+     *
+     * @param megaNode the node
+     * @param parse parses the file type from the name and duration of the node
+     */
+    inline fun getFileType(
+        megaNode: MegaNode,
+        parse: (name: String, duration: Int) -> FileTypeInfo,
+    ): FileTypeInfo {
+        val name = megaNode.name
+        val duration = megaNode.duration
+        val byDuration = fileTypes.getOrPut(name.substringAfterLast('.', "")) { HashMap(2) }
+        return byDuration.getOrPut(duration) { parse(name, duration) }
+    }
+
+    /**
+     * Get if a node is marked as sensitive or inherits the sensitivity of one of its ancestors,
+     * reading the inherited sensitivity only for the first node of each parent not marked itself
+     *
+     * A node marked as sensitive is sensitive whatever its ancestors are, so its value is not
+     * cached, otherwise it would be applied to its siblings.
+     *
+     * @param megaNode the node
+     * @param read reads the inherited sensitivity of the node
+     */
+    inline fun isSensitiveInherited(megaNode: MegaNode, read: (MegaNode) -> Boolean): Boolean =
+        megaNode.isMarkedSensitive ||
+                sensitiveInheritedByParent.getOrPut(megaNode.parentHandle) { read(megaNode) }
+}
@@ -1,6 +1,10 @@
 package mega.privacy.android.data.mapper.node
 
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
 import mega.privacy.android.domain.entity.Offline
+import mega.privacy.android.domain.entity.node.UnTypedNode
 import nz.mega.sdk.MegaNode
 import javax.inject.Inject
 
@@ -41,4 +45,50 @@ internal class NodeMapper @Inject constructor(
             offline = offline
         )
     }
-}
\ No newline at end of file
+
+    /**
+     * Map the nodes of a listing
+     *
+     * The cache folders are resolved once for the whole listing and the values shared by the
+     * nodes are only read once, see [NodeListingContext]. The nodes are mapped in chunks, each one
+     * with its own context, instead of launching a coroutine per node.
+     *
+     * @param megaNodes the nodes of the listing
+     * @param offlineItems the offline information by node handle
+     * @return the mapped nodes, in the same order
+     */
+    suspend fun mapListing(
+        megaNodes: List<MegaNode>,
+        offlineItems: Map<Long, Offline>?,
+    ): List<UnTypedNode> = coroutineScope {
+        if (megaNodes.isEmpty()) return@coroutineScope emptyList()
+        val cacheFolders = fileNodeMapper.getCacheFolders()
+        megaNodes.chunked(LISTING_CHUNK_SIZE).map { chunk ->
+            async {
+                val listingContext = NodeListingContext(cacheFolders)
+                chunk.map { megaNode ->
+                    val offline = offlineItems?.get(megaNode.handle)
+                    if (megaNode.isFolder) {
+                        folderNodeMapper(
+                            megaNode = megaNode,
+                            fromFolderLink = false,
+                            requireSerializedData = false,
+                            isAvailableOffline = offline != null
+                        )
+                    } else {
+                        fileNodeMapper(
+                            megaNode = megaNode,
+                            requireSerializedData = false,
+                            offline = offline,
+                            listingContext = listingContext,
+                        )
+                    }
+                }
+            }
+        }.awaitAll().flatten()
+    }
+
+    private companion object {
+        const val LISTING_CHUNK_SIZE = 500
+    }
+}
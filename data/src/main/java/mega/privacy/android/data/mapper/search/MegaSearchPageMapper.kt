@@ -0,0 +1,18 @@
+package mega.privacy.android.data.mapper.search
+
+import nz.mega.sdk.MegaSearchPage
+import javax.inject.Inject
+
+/**
+ * Mapper to create a MegaSearchPage
+ */
+class MegaSearchPageMapper @Inject constructor() {
+
+    /**
+     * invoke
+     * @param offset [Int] position of the first result of the page
+     * @param size [Int] maximum number of results of the page
+     */
+    operator fun invoke(offset: Int, size: Int): MegaSearchPage =
+        MegaSearchPage.createInstance(offset.toLong(), size.toLong())
+}
@@ -0,0 +1,62 @@
+package mega.privacy.android.data.model.monitoring
+
+import kotlinx.serialization.SerialName
+import kotlinx.serialization.Serializable
+
+/**
+ * Performance data collected locally at a point in time
+ *
+ * @property timestamp the time of the snapshot, in milliseconds since the epoch
+ * @property traces the durations of the traces, sorted by name
+ * @property counters the counters, by name
+ * @property gauges the last value of the gauges, by name
+ */
+@Serializable
+data class PerformanceSnapshot(
+    @SerialName("timestamp") val timestamp: Long,
+    @SerialName("traces") val traces: List<TraceSnapshot>,
+    @SerialName("counters") val counters: Map<String, Long>,
+    @SerialName("gauges") val gauges: Map<String, Long>,
+)
+
+/**
+ * Durations of a trace, in microseconds
+ *
+ * @property name the trace name
+ * @property count the number of times the trace was stopped
+ * @property sumMicros the sum of the durations
+ * @property minMicros the shortest duration
+ * @property maxMicros the longest duration
+ * @property p50Micros the median duration
+ * @property p90Micros the 90th percentile of the durations
+ * @property p99Micros the 99th percentile of the durations
+ * @property attributes the last value of the attributes of the trace
+ * @property buckets the durations of the histogram, only the buckets with durations
+ */
+@Serializable
+data class TraceSnapshot(
+    @SerialName("name") val name: String,
+    @SerialName("count") val count: Long,
+    @SerialName("sumMicros") val sumMicros: Long,
+    @SerialName("minMicros") val minMicros: Long,
+    @SerialName("maxMicros") val maxMicros: Long,
+    @SerialName("p50Micros") val p50Micros: Long,
+    @SerialName("p90Micros") val p90Micros: Long,
+    @SerialName("p99Micros") val p99Micros: Long,
+    @SerialName("attributes") val attributes: Map<String, String>,
+    @SerialName("buckets") val buckets: List<HistogramBucket>,
+)
+
+/**
+ * Bucket of a latency histogram
+ *
+ * @property fromMicros the shortest duration of the bucket
+ * @property toMicros the longest duration of the bucket
+ * @property count the number of durations in the bucket
+ */
+@Serializable
+data class HistogramBucket(
+    @SerialName("fromMicros") val fromMicros: Long,
+    @SerialName("toMicros") val toMicros: Long,
+    @SerialName("count") val count: Long,
+)
@@ -0,0 +1,127 @@
+package mega.privacy.android.data.monitoring
+
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.atomic.AtomicLongArray
+import kotlin.math.ceil
+
+/**
+ * Latency histogram
+ *
+ * Counts durations in log linear buckets: every power of two is split in [SUB_BUCKETS] buckets,
+ * so a percentile is known within about 6% of the duration whatever its magnitude. Recording only
+ * increments atomic counters, so many threads can record at the same time without locking.
+ */
+internal class LatencyHistogram {
+    private val buckets = AtomicLongArray(BUCKET_COUNT)
+    private val sum = AtomicLong()
+    private val min = AtomicLong(Long.MAX_VALUE)
+    private val max = AtomicLong(Long.MIN_VALUE)
+
+    /**
+     * Record a duration
+     *
+     * @param value the duration, negative durations are recorded as 0
+     */
+    fun record(value: Long) {
+        val duration = value.coerceAtLeast(0)
+        buckets.incrementAndGet(indexOf(duration))
+        sum.addAndGet(duration)
+        min.accumulateAndGet(duration) { current, new -> minOf(current, new) }
+        max.accumulateAndGet(duration) { current, new -> maxOf(current, new) }
+    }
+
+    /**
+     * Take a copy of the recorded durations
+     *
+     * The counters are read one by one, so a copy taken while recording may miss the last
+     * durations in some of them.
+     */
+    fun snapshot(): Snapshot {
+        val counts = LongArray(BUCKET_COUNT) { buckets.get(it) }
+        val total = counts.sum()
+        return Snapshot(
+            count = total,
+            sum = sum.get(),
+            min = if (total == 0L) 0 else min.get(),
+            max = if (total == 0L) 0 else max.get(),
+            counts = counts,
+        )
+    }
+
+    /**
+     * Copy of the durations of a [LatencyHistogram]
+     *
+     * @property count the number of durations
+     * @property sum the sum of the durations
+     * @property min the shortest duration, 0 if there are none
+     * @property max the longest duration, 0 if there are none
+     * @property counts the number of durations of each bucket
+     */
+    class Snapshot(
+        val count: Long,
+        val sum: Long,
+        val min: Long,
+        val max: Long,
+        val counts: LongArray,
+    ) {
+        /**
+         * Get the duration below which there are the given percentage of the durations
+         *
+         * @param percentile from 0 to 100
+         * @return the highest duration of the bucket of the percentile, or 0 if there are no
+         * durations
+         */
+        fun percentile(percentile: Double): Long {
+            if (count == 0L) return 0
+            val rank = maxOf(1L, ceil(percentile / 100 * count).toLong())
+            var seen = 0L
+            counts.forEachIndexed { index, bucketCount ->
+                seen += bucketCount
+                if (seen >= rank) return highestValueOf(index).coerceIn(min, max)
+            }
+            return max
+        }
+    }
+
+    companion object {
+        private const val SUB_BUCKET_BITS = 4
+
+        /**
+         * Number of buckets of each power of two
+         */
+        const val SUB_BUCKETS = 1 shl SUB_BUCKET_BITS
+
+        /**
+         * Number of buckets, enough for any positive long
+         */
+        val BUCKET_COUNT = indexOf(Long.MAX_VALUE) + 1
+
+        /**
+         * Get the bucket of a duration
+         */
+        fun indexOf(value: Long): Int {
+            if (value < SUB_BUCKETS) return value.toInt()
+            val shift = 63 - java.lang.Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS
+            val subBucket = (value ushr shift).toInt() and (SUB_BUCKETS - 1)
+            return (shift + 1) * SUB_BUCKETS + subBucket
+        }
+
+        /**
+         * Get the lowest duration of a bucket
+         */
+        fun lowestValueOf(index: Int): Long {
+            if (index < SUB_BUCKETS) return index.toLong()
+            val shift = index / SUB_BUCKETS - 1
+            return (SUB_BUCKETS + index % SUB_BUCKETS).toLong() shl shift
+        }
+
+        /**
+         * Get the highest duration of a bucket
+         */
+        fun highestValueOf(index: Int): Long {
+            if (index < SUB_BUCKETS) return index.toLong()
+            val shift = index / SUB_BUCKETS - 1
+            return lowestValueOf(index) + (1L shl shift) - 1
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package mega.privacy.android.data.monitoring
+
+import mega.privacy.android.data.model.monitoring.HistogramBucket
+import mega.privacy.android.data.model.monitoring.PerformanceSnapshot
+import mega.privacy.android.data.model.monitoring.TraceSnapshot
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Performance collector
+ *
+ * Keeps in memory a [LatencyHistogram] of the durations of each trace, counters and gauges. The
+ * maps only lock when a name is used for the first time, so recording doesn't block the threads
+ * of the traces.
+ *
+ * @param nanoTime the monotonic time in nanoseconds
+ * @param currentTimeMillis the wall clock time of the snapshots
+ */
+internal class PerformanceCollector(
+    private val nanoTime: () -> Long = System::nanoTime,
+    private val currentTimeMillis: () -> Long = System::currentTimeMillis,
+) {
+    private val runningTraces = ConcurrentHashMap<String, Long>()
+    private val histograms = ConcurrentHashMap<String, LatencyHistogram>()
+    private val attributes = ConcurrentHashMap<String, ConcurrentHashMap<String, String>>()
+    private val counters = ConcurrentHashMap<String, AtomicLong>()
+    private val gauges = ConcurrentHashMap<String, AtomicLong>()
+
+    /**
+     * Start a trace, stopping it first if it is running
+     */
+    fun startTrace(traceName: String) {
+        val now = nanoTime()
+        runningTraces.put(traceName, now)?.let { record(traceName, now - it) }
+    }
+
+    /**
+     * Stop a trace, recording its duration
+     *
+     * @return false if the trace is not running
+     */
+    fun stopTrace(traceName: String): Boolean {
+        val start = runningTraces.remove(traceName) ?: return false
+        record(traceName, nanoTime() - start)
+        return true
+    }
+
+    /**
+     * Stop all the running traces without recording their durations
+     */
+    fun cancelTraces() {
+        runningTraces.clear()
+    }
+
+    /**
+     * Check if a trace is running
+     */
+    fun isRunning(traceName: String) = runningTraces.containsKey(traceName)
+
+    /**
+     * Record the duration of a trace measured by the caller
+     *
+     * @param durationNanos the duration in nanoseconds
+     */
+    fun record(traceName: String, durationNanos: Long) {
+        histograms.getOrPut(traceName) { LatencyHistogram() }
+            .record(TimeUnit.NANOSECONDS.toMicros(durationNanos))
+    }
+
+    /**
+     * Set the value of an attribute of a trace
+     */
+    fun putAttribute(traceName: String, attribute: String, value: String) {
+        attributes.getOrPut(traceName) { ConcurrentHashMap() }[attribute] = value
+    }
+
+    /**
+     * Add a value to a counter
+     */
+    fun increment(name: String, value: Long = 1) {
+        counters.getOrPut(name) { AtomicLong() }.addAndGet(value)
+    }
+
+    /**
+     * Set the value of a gauge
+     */
+    fun setGauge(name: String, value: Long) {
+        gauges.getOrPut(name) { AtomicLong() }.set(value)
+    }
+
+    /**
+     * Take a snapshot of the collected data, the running traces are not included
+     */
+    fun snapshot() = PerformanceSnapshot(
+        timestamp = currentTimeMillis(),
+        traces = histograms.entries.sortedBy { it.key }.map { (name, histogram) ->
+            histogram.snapshot().toTraceSnapshot(name, attributes[name]?.toSortedMap().orEmpty())
+        },
+        counters = counters.entries.sortedBy { it.key }.associate { it.key to it.value.get() },
+        gauges = gauges.entries.sortedBy { it.key }.associate { it.key to it.value.get() },
+    )
+
+    /**
+     * Remove all the collected data, keeping the running traces
+     */
+    fun clear() {
+        histograms.clear()
+        attributes.clear()
+        counters.clear()
+        gauges.clear()
+    }
+}
+
+/**
+ * Map the durations of a trace to its [TraceSnapshot]
+ */
+internal fun LatencyHistogram.Snapshot.toTraceSnapshot(
+    name: String,
+    attributes: Map<String, String>,
+) = TraceSnapshot(
+    name = name,
+    count = count,
+    sumMicros = sum,
+    minMicros = min,
+    maxMicros = max,
+    p50Micros = percentile(50.0),
+    p90Micros = percentile(90.0),
+    p99Micros = percentile(99.0),
+    attributes = attributes,
+    buckets = counts.withIndex().filter { it.value > 0 }.map { (index, count) ->
+        HistogramBucket(
+            fromMicros = LatencyHistogram.lowestValueOf(index),
+            toMicros = LatencyHistogram.highestValueOf(index),
+            count = count,
+        )
+    },
+)
@@ -0,0 +1,113 @@
+package mega.privacy.android.data.monitoring
+
+import kotlinx.serialization.encodeToString
+import kotlinx.serialization.json.Json
+import mega.privacy.android.data.model.monitoring.PerformanceSnapshot
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.IOException
+import java.io.InputStream
+import java.io.OutputStream
+
+/**
+ * Writes and reads the [PerformanceSnapshot] files
+ *
+ * The JSON files are meant to be read by people and tools. The binary files are compact, keeping
+ * only the histogram buckets with durations, to be pulled from test devices and compared between
+ * builds. The percentiles are not written in the binary files, they are computed again when read.
+ */
+internal object PerformanceSnapshotWriter {
+    private const val MAGIC = 0x4d504552 // MPER
+    private const val VERSION = 1
+
+    private val json = Json { prettyPrint = true }
+
+    /**
+     * Write a snapshot as JSON
+     */
+    fun writeJson(snapshot: PerformanceSnapshot, output: OutputStream) {
+        output.write(json.encodeToString(snapshot).encodeToByteArray())
+        output.flush()
+    }
+
+    /**
+     * Write a snapshot in the binary format
+     */
+    fun writeBinary(snapshot: PerformanceSnapshot, output: OutputStream) {
+        with(DataOutputStream(output.buffered())) {
+            writeInt(MAGIC)
+            writeShort(VERSION)
+            writeLong(snapshot.timestamp)
+            writeInt(snapshot.traces.size)
+            snapshot.traces.forEach { trace ->
+                writeUTF(trace.name)
+                writeLong(trace.sumMicros)
+                writeLong(trace.minMicros)
+                writeLong(trace.maxMicros)
+                writeMap(trace.attributes) { writeUTF(it) }
+                writeShort(trace.buckets.size)
+                trace.buckets.forEach { bucket ->
+                    writeShort(LatencyHistogram.indexOf(bucket.fromMicros))
+                    writeLong(bucket.count)
+                }
+            }
+            writeMap(snapshot.counters) { writeLong(it) }
+            writeMap(snapshot.gauges) { writeLong(it) }
+            flush()
+        }
+    }
+
+    /**
+     * Read a snapshot written by [writeBinary]
+     *
+     * @throws IOException if the input is not a snapshot in the binary format
+     */
+    fun readBinary(input: InputStream): PerformanceSnapshot =
+        with(DataInputStream(input.buffered())) {
+            if (readInt() != MAGIC) throw IOException("Not a performance snapshot")
+            val version = readShort().toInt()
+            if (version != VERSION) throw IOException("Unsupported snapshot version $version")
+            val timestamp = readLong()
+            val traces = List(readInt()) {
+                val name = readUTF()
+                val sum = readLong()
+                val min = readLong()
+                val max = readLong()
+                val attributes = readMap { readUTF() }
+                val counts = LongArray(LatencyHistogram.BUCKET_COUNT)
+                repeat(readUnsignedShort()) {
+                    counts[readUnsignedShort()] = readLong()
+                }
+                LatencyHistogram.Snapshot(
+                    count = counts.sum(),
+                    sum = sum,
+                    min = min,
+                    max = max,
+                    counts = counts,
+                ).toTraceSnapshot(name, attributes)
+            }
+            PerformanceSnapshot(
+                timestamp = timestamp,
+                traces = traces,
+                counters = readMap { readLong() },
+                gauges = readMap { readLong() },
+            )
+        }
+
+    private inline fun <T> DataOutputStream.writeMap(
+        map: Map<String, T>,
+        writeValue: DataOutputStream.(T) -> Unit,
+    ) {
+        writeInt(map.size)
+        map.forEach { (key, value) ->
+            writeUTF(key)
+            writeValue(value)
+        }
+    }
+
+    private inline fun <T> DataInputStream.readMap(
+        readValue: DataInputStream.() -> T,
+    ): Map<String, T> = buildMap {
+        repeat(readInt()) { put(readUTF(), readValue()) }
+    }
+}
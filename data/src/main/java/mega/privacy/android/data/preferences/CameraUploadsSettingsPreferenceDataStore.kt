@@ -9,10 +9,16 @@ import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.flow.map
+import kotlinx.serialization.encodeToString
+import kotlinx.serialization.json.Json
 import mega.privacy.android.data.cryptography.DecryptData
 import mega.privacy.android.data.cryptography.EncryptData
 import mega.privacy.android.data.extensions.monitor
 import mega.privacy.android.data.gateway.preferences.CameraUploadsSettingsPreferenceGateway
+import mega.privacy.android.domain.entity.CameraUploadsRecordType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanCheckpoint
+import timber.log.Timber
 import javax.inject.Inject
 import javax.inject.Named
 
@@ -304,4 +310,39 @@ internal class CameraUploadsSettingsPreferenceDataStore(
             }
         }
     }
+
+    override suspend fun getMediaStoreScanCheckpoint(
+        folderType: CameraUploadFolderType,
+        fileType: CameraUploadsRecordType,
+    ): MediaStoreScanCheckpoint? {
+        return getPreferenceFlow().monitor(mediaStoreScanCheckpointKey(folderType, fileType))
+            .map { value ->
+                decryptData(value)?.let {
+                    runCatching { Json.decodeFromString<MediaStoreScanCheckpoint>(it) }
+                        .onFailure { error -> Timber.w(error) }
+                        .getOrNull()
+                }
+            }.firstOrNull()
+    }
+
+    override suspend fun setMediaStoreScanCheckpoint(
+        folderType: CameraUploadFolderType,
+        fileType: CameraUploadsRecordType,
+        checkpoint: MediaStoreScanCheckpoint?,
+    ) {
+        val key = mediaStoreScanCheckpointKey(folderType, fileType)
+        val encryptedValue = checkpoint?.let { encryptData(Json.encodeToString(it)) }
+        editPreferences {
+            if (encryptedValue == null) {
+                it.remove(key)
+            } else {
+                it[key] = encryptedValue
+            }
+        }
+    }
+
+    private fun mediaStoreScanCheckpointKey(
+        folderType: CameraUploadFolderType,
+        fileType: CameraUploadsRecordType,
+    ) = stringPreferencesKey("mediaStoreScanCheckpointKey_${folderType.name}_${fileType.name}")
 }
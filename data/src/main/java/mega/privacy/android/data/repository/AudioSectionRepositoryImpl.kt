@@ -2,12 +2,12 @@ package mega.privacy.android.data.repository
 
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.withContext
-import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.audios.TypedAudioNodeMapper
 import mega.privacy.android.data.mapper.node.FileNodeMapper
 import mega.privacy.android.data.mapper.search.MegaSearchFilterMapper
+import mega.privacy.android.data.repository.offline.OfflineIndex
 import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.TypedAudioNode
@@ -27,13 +27,13 @@ internal class AudioSectionRepositoryImpl @Inject constructor(
     private val fileNodeMapper: FileNodeMapper,
     private val typedAudioNodeMapper: TypedAudioNodeMapper,
     private val cancelTokenProvider: CancelTokenProvider,
-    private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    private val offlineIndex: OfflineIndex,
     private val megaSearchFilterMapper: MegaSearchFilterMapper,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
 ) : AudioSectionRepository {
     override suspend fun getAllAudios(order: SortOrder): List<TypedAudioNode> =
         withContext(ioDispatcher) {
-            val offlineItems = getAllOfflineNodeHandle()
+            val offlineItems = offlineIndex.getAll()
             val megaCancelToken = cancelTokenProvider.getOrCreateCancelToken()
             val filter = megaSearchFilterMapper(
                 searchTarget = SearchTarget.ROOT_NODES,
@@ -46,16 +46,13 @@ internal class AudioSectionRepositoryImpl @Inject constructor(
             ).filter { !megaApiGateway.isInBackups(it) }.map { megaNode ->
                 typedAudioNodeMapper(
                     fileNode = megaNode.convertToFileNode(
-                        offlineItems?.get(megaNode.handle.toString())
+                        offlineItems[megaNode.handle]
                     ),
                     duration = megaNode.duration,
                 )
             }
         }
 
-    private suspend fun getAllOfflineNodeHandle() =
-        megaLocalRoomGateway.getAllOfflineInfo()?.associateBy { it.handle }
-
     private suspend fun MegaNode.convertToFileNode(offline: Offline?) = fileNodeMapper(
         megaNode = this, requireSerializedData = false, offline = offline
     )
@@ -46,6 +46,8 @@ import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsSettingsAction
 import mega.privacy.android.domain.entity.camerauploads.HeartbeatStatus
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanCheckpoint
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreVolumeGeneration
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.settings.camerauploads.UploadOption
 import mega.privacy.android.domain.qualifier.IoDispatcher
@@ -227,6 +229,16 @@ internal class CameraUploadsRepositoryImpl @Inject constructor(
         queue
     }
 
+    override fun getMediaBatches(
+        mediaStoreFileType: MediaStoreFileType,
+        selectionQuery: String?,
+        batchSize: Int,
+    ): Flow<List<CameraUploadsMedia>> = cameraUploadsMediaGateway.getMediaBatches(
+        mediaStoreFileTypeUriMapper(mediaStoreFileType),
+        selectionQuery,
+        batchSize,
+    ).flowOn(ioDispatcher)
+
     override suspend fun isChargingRequiredForVideoCompression() = withContext(ioDispatcher) {
         cameraUploadsSettingsPreferenceGateway.isChargingRequiredForVideoCompression()
     }
@@ -539,6 +551,34 @@ internal class CameraUploadsRepositoryImpl @Inject constructor(
     override fun getMediaSelectionQuery(parentPath: String): String =
         cameraUploadsMediaGateway.getMediaSelectionQuery(parentPath)
 
+    override fun getMediaSelectionQuery(
+        parentPath: String,
+        changedSince: List<MediaStoreVolumeGeneration>,
+    ): String = cameraUploadsMediaGateway.getMediaSelectionQuery(parentPath, changedSince)
+
+    override suspend fun getMediaStoreVolumeGenerations() = withContext(ioDispatcher) {
+        cameraUploadsMediaGateway.getMediaStoreVolumeGenerations()
+    }
+
+    override suspend fun getMediaStoreScanCheckpoint(
+        folderType: CameraUploadFolderType,
+        fileType: CameraUploadsRecordType,
+    ) = withContext(ioDispatcher) {
+        cameraUploadsSettingsPreferenceGateway.getMediaStoreScanCheckpoint(folderType, fileType)
+    }
+
+    override suspend fun setMediaStoreScanCheckpoint(
+        folderType: CameraUploadFolderType,
+        fileType: CameraUploadsRecordType,
+        checkpoint: MediaStoreScanCheckpoint?,
+    ) = withContext(ioDispatcher) {
+        cameraUploadsSettingsPreferenceGateway.setMediaStoreScanCheckpoint(
+            folderType,
+            fileType,
+            checkpoint,
+        )
+    }
+
     override suspend fun insertOrUpdateCameraUploadsRecords(records: List<CameraUploadsRecord>) =
         withContext(ioDispatcher) {
             megaLocalRoomGateway.insertOrUpdateCameraUploadsRecords(records)
@@ -549,6 +589,11 @@ internal class CameraUploadsRepositoryImpl @Inject constructor(
             megaLocalRoomGateway.getAllCameraUploadsRecords()
         }
 
+    override suspend fun getCameraUploadsRecordIndex(folderType: CameraUploadFolderType) =
+        withContext(ioDispatcher) {
+            megaLocalRoomGateway.getCameraUploadsRecordIndex(folderType)
+        }
+
     override suspend fun getCameraUploadsRecordsBy(
         uploadStatus: List<CameraUploadsRecordUploadStatus>,
         types: List<CameraUploadsRecordType>,
@@ -590,6 +635,15 @@ internal class CameraUploadsRepositoryImpl @Inject constructor(
         folderTypes: List<CameraUploadFolderType>,
     ) = withContext(ioDispatcher) {
         megaLocalRoomGateway.deleteCameraUploadsRecords(folderTypes)
+        folderTypes.forEach { folderType ->
+            CameraUploadsRecordType.entries.forEach { fileType ->
+                cameraUploadsSettingsPreferenceGateway.setMediaStoreScanCheckpoint(
+                    folderType,
+                    fileType,
+                    null,
+                )
+            }
+        }
     }
 
     override fun monitorIsChargingRequiredToUploadContent(): Flow<Boolean?> =
@@ -16,15 +16,13 @@ import kotlinx.coroutines.flow.callbackFlow
 import kotlinx.coroutines.flow.cancellable
 import kotlinx.coroutines.flow.combine
 import kotlinx.coroutines.flow.emitAll
-import kotlinx.coroutines.flow.filterNotNull
 import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOn
 import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.mapNotNull
 import kotlinx.coroutines.flow.merge
-import kotlinx.coroutines.flow.scan
-import kotlinx.coroutines.flow.update
+import kotlinx.coroutines.flow.onEach
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
@@ -51,6 +49,8 @@ import mega.privacy.android.data.mapper.transfer.TransferEventMapper
 import mega.privacy.android.data.mapper.transfer.TransferMapper
 import mega.privacy.android.data.mapper.transfer.active.ActiveTransferTotalsMapper
 import mega.privacy.android.data.model.GlobalTransfer
+import mega.privacy.android.data.repository.transfers.ActiveTransferTotalsAggregator
+import mega.privacy.android.data.repository.transfers.TransferProgressStore
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.TypedNode
 import mega.privacy.android.domain.entity.transfer.ActiveTransfer
@@ -58,7 +58,6 @@ import mega.privacy.android.domain.entity.transfer.ActiveTransferActionGroup
 import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
 import mega.privacy.android.domain.entity.transfer.CompletedTransfer
 import mega.privacy.android.domain.entity.transfer.CompletedTransferState
-import mega.privacy.android.domain.entity.transfer.InProgressTransfer
 import mega.privacy.android.domain.entity.transfer.Transfer
 import mega.privacy.android.domain.entity.transfer.TransferAppData
 import mega.privacy.android.domain.entity.transfer.TransferAppData.RecursiveTransferAppData
@@ -96,6 +95,7 @@ import kotlin.time.Instant
  * @param appEventGateway [AppEventGateway]
  * @param localStorageGateway [MegaLocalStorageGateway]
  * @param parentRecursiveAppDataCache cache to store transfer app data that needs to be used recursively in children
+ * @param transferProgressStore [TransferProgressStore] to store the progress of the transfers in memory
  */
 @OptIn(ExperimentalTime::class)
 @Singleton
@@ -122,6 +122,7 @@ internal class DefaultTransfersRepository @Inject constructor(
     private val monitorFetchNodesFinishUseCase: MonitorFetchNodesFinishUseCase,
     private val transfersPreferencesGateway: Lazy<TransfersPreferencesGateway>,
     private val parentRecursiveAppDataCache: HashMap<Int, List<RecursiveTransferAppData>>,
+    private val transferProgressStore: TransferProgressStore,
 ) : TransferRepository {
 
     private val monitorPausedTransfers = MutableStateFlow(false)
@@ -131,16 +132,10 @@ internal class DefaultTransfersRepository @Inject constructor(
     private val monitorTransferOverQuotaErrorTimestamp = MutableStateFlow<Instant?>(null)
 
     /**
-     * To store in progress transfers in memory instead of in database
+     * To aggregate the active transfer totals incrementally instead of from the whole list
      */
-    private val inProgressTransfersFlow =
-        MutableStateFlow<Map<Long, InProgressTransfer>>(emptyMap())
-
-    /**
-     * to store current transferred bytes in memory instead of in database
-     */
-    private val transferredBytesFlows: Map<TransferType, MutableStateFlow<Map<Long, Long>>> =
-        TransferType.entries.associateWith { MutableStateFlow(mapOf()) }
+    private val activeTransferTotalsAggregators =
+        TransferType.entries.associateWith { ActiveTransferTotalsAggregator(it) }
 
     init {
         //pause transfers if db indicates it should be paused
@@ -597,12 +592,15 @@ internal class DefaultTransfersRepository @Inject constructor(
 
     override suspend fun updateTransferredBytes(transfers: List<Transfer>) =
         withContext(ioDispatcher) {
-            val grouped = transfers.groupBy { it.transferType }
-            grouped.forEach { (transferType, transfersOfThisType) ->
-                val tagToBytes =
-                    transfersOfThisType.mapNotNull { if (it.transferredBytes == 0L) null else it.uniqueId to it.transferredBytes }
-                transferredBytesFlow(transferType).update { map ->
-                    map + tagToBytes
+            transfers.forEach {
+                if (it.transferredBytes != 0L) {
+                    activeTransferTotalsAggregator(it.transferType)
+                        .onTransferredBytes(it.uniqueId, it.transferredBytes)
+                    transferProgressStore.setTransferredBytes(
+                        transferType = it.transferType,
+                        uniqueId = it.uniqueId,
+                        bytes = it.transferredBytes,
+                    )
                 }
             }
         }
@@ -610,14 +608,16 @@ internal class DefaultTransfersRepository @Inject constructor(
     override suspend fun deleteAllActiveTransfersByType(transferType: TransferType) =
         withContext(ioDispatcher) {
             megaLocalRoomGateway.deleteAllActiveTransfersByType(transferType)
-            transferredBytesFlow(transferType).value = mapOf()
+            activeTransferTotalsAggregator(transferType).clear()
+            transferProgressStore.clearTransferredBytes(transferType)
         }
 
     override suspend fun deleteAllActiveTransfers() =
         withContext(ioDispatcher) {
             megaLocalRoomGateway.deleteAllActiveTransfers()
             TransferType.entries.forEach {
-                transferredBytesFlow(it).value = mapOf()
+                activeTransferTotalsAggregator(it).clear()
+                transferProgressStore.clearTransferredBytes(it)
             }
         }
 
@@ -630,20 +630,20 @@ internal class DefaultTransfersRepository @Inject constructor(
 
     override fun getActiveTransferTotalsByType(transferType: TransferType): Flow<ActiveTransferTotals> =
         flow {
-            val transferredBytesFlow = transferredBytesFlow(transferType)
+            val aggregator = activeTransferTotalsAggregator(transferType)
             emitAll(
-                megaLocalRoomGateway.getActiveTransfersByType(transferType).flowOn(ioDispatcher)
-                    .combine(transferredBytesFlow) { activeTransfers, transferredBytes ->
-                        activeTransfers to transferredBytes
+                megaLocalRoomGateway.getActiveTransfersByType(transferType)
+                    .onEach { aggregator.setActiveTransfers(it) }
+                    .flowOn(ioDispatcher)
+                    // transferred bytes are already aggregated, their publication is used as a tick
+                    .combine(transferProgressStore.monitorTransferredBytes(transferType)) { _, _ ->
+                        aggregator.getActionGroupIdsWithoutInfo().forEach { groupId ->
+                            getActiveTransferGroupById(groupId)?.let {
+                                aggregator.setActionGroupInfo(groupId, it)
+                            }
+                        }
+                        aggregator.getTotals()
                     }
-                    .scan(null as ActiveTransferTotals?) { previousTotals, (activeTransfers, transferredBytes) ->
-                        activeTransferTotalsMapper(
-                            type = transferType,
-                            list = activeTransfers,
-                            transferredBytes = transferredBytes,
-                            previousActionGroups = previousTotals?.actionGroups
-                        )
-                    }.filterNotNull() //skip first null value
             )
         }.cancellable()
 
@@ -652,7 +652,7 @@ internal class DefaultTransfersRepository @Inject constructor(
             activeTransferTotalsMapper(
                 type = transferType,
                 list = megaLocalRoomGateway.getCurrentActiveTransfersByType(transferType),
-                transferredBytes = transferredBytesFlow(transferType).value,
+                transferredBytes = transferProgressStore.getTransferredBytes(transferType),
             )
         }
 
@@ -741,9 +741,6 @@ internal class DefaultTransfersRepository @Inject constructor(
             )
         }
 
-    private fun transferredBytesFlow(transferType: TransferType): MutableStateFlow<Map<Long, Long>> =
-        transferredBytesFlows[transferType] ?: error("Unknown transfer type: $transferType")
-
     override fun monitorAskedResumeTransfers() = monitorAskedResumeTransfers.asStateFlow()
 
     override suspend fun setAskedResumeTransfers() {
@@ -765,40 +762,23 @@ internal class DefaultTransfersRepository @Inject constructor(
         }
 
     override suspend fun updateInProgressTransfer(transfer: Transfer) {
-        val inProgressTransfer = inProgressTransferMapper(transfer)
-        inProgressTransfersFlow.update { inProgressTransfers ->
-            inProgressTransfers.toMutableMap().also {
-                it[transfer.uniqueId] = inProgressTransfer
-            }
-        }
+        transferProgressStore.putInProgressTransfer(inProgressTransferMapper(transfer))
     }
 
     override suspend fun updateInProgressTransfers(transfers: List<Transfer>) {
-        val newInProgressTransfers =
-            transfers.map { inProgressTransferMapper(it) }.associateBy { it.uniqueId }
-        inProgressTransfersFlow.update { inProgressTransfers ->
-            inProgressTransfers.toMutableMap().also {
-                it.putAll(newInProgressTransfers)
-            }
+        transfers.forEach {
+            transferProgressStore.putInProgressTransfer(inProgressTransferMapper(it))
         }
     }
 
-    override fun monitorInProgressTransfers() = inProgressTransfersFlow
+    override fun monitorInProgressTransfers() = transferProgressStore.monitorInProgressTransfers()
 
     override suspend fun removeInProgressTransfer(uniqueId: Long) {
-        if (!inProgressTransfersFlow.value.containsKey(uniqueId)) return
-        inProgressTransfersFlow.update { inProgressTransfers ->
-            inProgressTransfers.toMutableMap().also {
-                it.remove(uniqueId)
-            }
-        }
+        transferProgressStore.removeInProgressTransfer(uniqueId)
     }
 
     override suspend fun removeInProgressTransfers(uniqueIds: Set<Long>) {
-        if (uniqueIds.isEmpty()) return
-        inProgressTransfersFlow.update { inProgressTransfers ->
-            inProgressTransfers.filterKeys { it !in uniqueIds }
-        }
+        uniqueIds.forEach { transferProgressStore.removeInProgressTransfer(it) }
     }
 
     override fun monitorPendingTransfersByType(transferType: TransferType): Flow<List<PendingTransfer>> =
@@ -873,6 +853,10 @@ internal class DefaultTransfersRepository @Inject constructor(
             megaLocalRoomGateway.insertActiveTransferGroup(activeTransferActionGroup)
         }
 
+    private fun activeTransferTotalsAggregator(transferType: TransferType) =
+        activeTransferTotalsAggregators[transferType]
+            ?: error("Unknown transfer type: $transferType")
+
     override suspend fun getActiveTransferGroupById(id: Int): ActiveTransferActionGroup? =
         withContext(ioDispatcher) {
             megaLocalRoomGateway.getActiveTransferGroup(id)
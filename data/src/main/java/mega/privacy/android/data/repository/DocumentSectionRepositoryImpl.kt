@@ -2,11 +2,11 @@ package mega.privacy.android.data.repository
 
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.withContext
-import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.mapper.search.MegaSearchFilterMapper
+import mega.privacy.android.data.repository.offline.OfflineIndex
 import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.UnTypedNode
@@ -23,7 +23,7 @@ import javax.inject.Inject
 internal class DocumentSectionRepositoryImpl @Inject constructor(
     private val megaApiGateway: MegaApiGateway,
     private val sortOrderIntMapper: SortOrderIntMapper,
-    private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    private val offlineIndex: OfflineIndex,
     private val nodeMapper: NodeMapper,
     private val cancelTokenProvider: CancelTokenProvider,
     private val megaSearchFilterMapper: MegaSearchFilterMapper,
@@ -31,7 +31,7 @@ internal class DocumentSectionRepositoryImpl @Inject constructor(
 ) : DocumentSectionRepository {
     override suspend fun getAllDocuments(order: SortOrder): List<UnTypedNode> =
         withContext(ioDispatcher) {
-            val offlineItems = getAllOfflineNodeHandle()
+            val offlineItems = offlineIndex.getAll()
             val megaCancelToken = cancelTokenProvider.getOrCreateCancelToken()
             val filter = megaSearchFilterMapper(
                 searchTarget = SearchTarget.ROOT_NODES,
@@ -44,14 +44,11 @@ internal class DocumentSectionRepositoryImpl @Inject constructor(
             ).filter { !megaApiGateway.isInBackups(it) }.map { megaNode ->
                 convertToUnTypedNode(
                     node = megaNode,
-                    offline = offlineItems?.get(megaNode.handle.toString())
+                    offline = offlineItems[megaNode.handle]
                 )
             }
         }
 
-    private suspend fun getAllOfflineNodeHandle() =
-        megaLocalRoomGateway.getAllOfflineInfo()?.associateBy { it.handle }
-
     private suspend fun convertToUnTypedNode(
         node: MegaNode,
         offline: Offline? = null,
@@ -5,7 +5,6 @@ import dagger.hilt.android.qualifiers.ApplicationContext
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
-import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.filterIsInstance
 import kotlinx.coroutines.flow.flowOn
@@ -40,10 +39,12 @@ import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.mapper.node.NodeShareKeyResultMapper
 import mega.privacy.android.data.mapper.node.label.NodeLabelIntMapper
 import mega.privacy.android.data.mapper.search.MegaSearchFilterMapper
+import mega.privacy.android.data.mapper.search.MegaSearchPageMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionIntMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionMapper
 import mega.privacy.android.data.mapper.shares.ShareDataMapper
 import mega.privacy.android.data.model.GlobalUpdate
+import mega.privacy.android.data.repository.offline.OfflineIndex
 import mega.privacy.android.domain.entity.FileTypeInfo
 import mega.privacy.android.domain.entity.FolderTreeInfo
 import mega.privacy.android.domain.entity.NodeLabel
@@ -71,6 +72,7 @@ import nz.mega.sdk.MegaApiJava
 import nz.mega.sdk.MegaChatRoom
 import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
+import nz.mega.sdk.MegaSearchPage
 import timber.log.Timber
 import java.util.Locale
 import javax.inject.Inject
@@ -119,9 +121,11 @@ internal class NodeRepositoryImpl @Inject constructor(
     private val nodeShareKeyResultMapper: NodeShareKeyResultMapper,
     private val accessPermissionIntMapper: AccessPermissionIntMapper,
     private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    private val offlineIndex: OfflineIndex,
     private val megaNodeMapper: MegaNodeMapper,
     private val nodeLabelIntMapper: NodeLabelIntMapper,
     private val megaSearchFilterMapper: MegaSearchFilterMapper,
+    private val megaSearchPageMapper: MegaSearchPageMapper,
     private val cancelTokenProvider: CancelTokenProvider,
     private val workManagerGateway: WorkManagerGateway,
     private val stringListMapper: StringListMapper,
@@ -262,34 +266,34 @@ internal class NodeRepositoryImpl @Inject constructor(
     override suspend fun getNodeChildren(
         nodeId: NodeId,
         order: SortOrder?,
+    ): List<UnTypedNode> = getNodeChildren(nodeId, order, megaSearchPage = null)
+
+    override suspend fun getNodeChildrenPage(
+        nodeId: NodeId,
+        order: SortOrder?,
+        offset: Int,
+        size: Int,
+    ): List<UnTypedNode> = getNodeChildren(nodeId, order, megaSearchPageMapper(offset, size))
+
+    private suspend fun getNodeChildren(
+        nodeId: NodeId,
+        order: SortOrder?,
+        megaSearchPage: MegaSearchPage?,
     ): List<UnTypedNode> = withContext(ioDispatcher) {
         val token = cancelTokenProvider.getOrCreateCancelToken()
         val filter = megaSearchFilterMapper(
             parentHandle = nodeId,
         )
-        val offlineItems = async { getAllOfflineNodeHandle() }
+        val offlineItems = async { offlineIndex.getAll() }
         val childList = async {
             megaApiGateway.getChildren(
                 filter,
                 sortOrderIntMapper(order ?: SortOrder.ORDER_NONE),
-                token
+                token,
+                megaSearchPage
             )
         }
-        mapMegaNodesToUnTypedNodes(childList.await(), offlineItems.await())
-    }
-
-    private suspend fun mapMegaNodesToUnTypedNodes(
-        childList: List<MegaNode>,
-        offlineItems: Map<String, Offline>?,
-    ): List<UnTypedNode> = coroutineScope {
-        childList.map { megaNode ->
-            async {
-                convertToUnTypedNode(
-                    node = megaNode,
-                    offline = offlineItems?.get(megaNode.handle.toString())
-                )
-            }
-        }.awaitAll()
+        nodeMapper.mapListing(childList.await(), offlineItems.await())
     }
 
     override suspend fun getNodeChildrenFileTypes(
@@ -980,9 +984,6 @@ internal class NodeRepositoryImpl @Inject constructor(
             add(NodeLabel.GREY)
         }
 
-    private suspend fun getAllOfflineNodeHandle() =
-        megaLocalRoomGateway.getAllOfflineInfo().associateBy { it.handle }
-
     private suspend fun getOfflineNode(handle: Long) =
         megaLocalRoomGateway.getOfflineInformation(handle)
 
@@ -2,16 +2,12 @@ package mega.privacy.android.data.repository
 
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.async
-import kotlinx.coroutines.awaitAll
-import kotlinx.coroutines.coroutineScope
-import kotlinx.coroutines.sync.Semaphore
-import kotlinx.coroutines.sync.withPermit
 import kotlinx.coroutines.withContext
-import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.mapper.search.MegaSearchFilterMapper
+import mega.privacy.android.data.repository.offline.OfflineIndex
 import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.NodeId
@@ -37,13 +33,15 @@ internal class SearchRepositoryImpl @Inject constructor(
     private val megaApiGateway: MegaApiGateway,
     private val megaSearchFilterMapper: MegaSearchFilterMapper,
     private val getCloudSortOrder: GetCloudSortOrder,
-    private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    private val offlineIndex: OfflineIndex,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
 ) : SearchRepository {
     override suspend fun search(
         nodeId: NodeId?,
         order: SortOrder,
         parameters: SearchParameters,
+        firstResultsSize: Int,
+        onFirstResults: (suspend (List<UnTypedNode>) -> Unit)?,
     ): List<UnTypedNode> = withContext(ioDispatcher) {
         val megaCancelToken = cancelTokenProvider.getOrCreateCancelToken()
         val (query, searchTarget, searchCategory, modificationDate, creationDate, description, tag) = parameters
@@ -58,7 +56,7 @@ internal class SearchRepositoryImpl @Inject constructor(
             tag = tag,
             useAndForTextQuery = description == null && tag == null,
         )
-        val offlineItems = async { getAllOfflineNodeHandle() }
+        val offlineItems = async { offlineIndex.getAll() }
         val searchList = async {
             megaApiGateway.searchWithFilter(
                 filter = queryFilter,
@@ -66,7 +64,7 @@ internal class SearchRepositoryImpl @Inject constructor(
                 megaCancelToken = megaCancelToken,
             )
         }
-        mapMegaNodesToUnTypedNodes(searchList.await(), offlineItems.await())
+        mapListing(searchList.await(), offlineItems.await(), firstResultsSize, onFirstResults)
     }
 
 
@@ -74,6 +72,8 @@ internal class SearchRepositoryImpl @Inject constructor(
         nodeId: NodeId?,
         order: SortOrder,
         parameters: SearchParameters,
+        firstResultsSize: Int,
+        onFirstResults: (suspend (List<UnTypedNode>) -> Unit)?,
     ): List<UnTypedNode> = withContext(ioDispatcher) {
         val megaCancelToken = cancelTokenProvider.getOrCreateCancelToken()
         val (query, searchTarget, searchCategory, modificationDate, creationDate, description, tag) = parameters
@@ -87,7 +87,7 @@ internal class SearchRepositoryImpl @Inject constructor(
             description = description,
             tag = tag,
         )
-        val offlineItems = async { getAllOfflineNodeHandle() }
+        val offlineItems = async { offlineIndex.getAll() }
         val searchList = async {
             megaApiGateway.getChildren(
                 filter = filter,
@@ -95,27 +95,27 @@ internal class SearchRepositoryImpl @Inject constructor(
                 megaCancelToken = megaCancelToken,
             )
         }
-        mapMegaNodesToUnTypedNodes(searchList.await(), offlineItems.await())
+        mapListing(searchList.await(), offlineItems.await(), firstResultsSize, onFirstResults)
     }
 
-    private suspend fun getAllOfflineNodeHandle() =
-        megaLocalRoomGateway.getAllOfflineInfo().associateBy { it.handle }
-
-    private suspend fun mapMegaNodesToUnTypedNodes(
-        childList: List<MegaNode>,
-        offlineItems: Map<String, Offline>?,
-    ): List<UnTypedNode> = coroutineScope {
-        val semaphore = Semaphore(10)
-        childList.map { megaNode ->
-            async {
-                semaphore.withPermit {
-                    nodeMapper(
-                        megaNode = megaNode,
-                        offline = offlineItems?.get(megaNode.handle.toString())
-                    )
-                }
-            }
-        }.awaitAll()
+    /**
+     * Map the nodes of a listing, handing the first [firstResultsSize] nodes to [onFirstResults]
+     * before mapping the rest if there are more
+     */
+    private suspend fun mapListing(
+        megaNodes: List<MegaNode>,
+        offlineItems: Map<Long, Offline>,
+        firstResultsSize: Int,
+        onFirstResults: (suspend (List<UnTypedNode>) -> Unit)?,
+    ): List<UnTypedNode> {
+        if (onFirstResults == null || megaNodes.size <= firstResultsSize) {
+            return nodeMapper.mapListing(megaNodes, offlineItems)
+        }
+        val firstResults =
+            nodeMapper.mapListing(megaNodes.subList(0, firstResultsSize), offlineItems)
+        onFirstResults(firstResults)
+        return firstResults +
+                nodeMapper.mapListing(megaNodes.subList(firstResultsSize, megaNodes.size), offlineItems)
     }
 
     override suspend fun getInShares() = withContext(ioDispatcher) {
@@ -31,6 +31,7 @@ import mega.privacy.android.data.mapper.videosection.UserVideoPlaylistMapper
 import mega.privacy.android.data.mapper.videosection.VideoRecentlyWatchedItemMapper
 import mega.privacy.android.data.model.GlobalUpdate
 import mega.privacy.android.data.model.VideoRecentlyWatchedItem
+import mega.privacy.android.data.repository.offline.OfflineIndex
 import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.NodeId
@@ -60,6 +61,7 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
     private val typedVideoNodeMapper: TypedVideoNodeMapper,
     private val cancelTokenProvider: CancelTokenProvider,
     private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    private val offlineIndex: OfflineIndex,
     private val userSetMapper: UserSetMapper,
     private val userVideoPlaylistMapper: UserVideoPlaylistMapper,
     private val megaSearchFilterMapper: MegaSearchFilterMapper,
@@ -78,7 +80,7 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
         order: SortOrder,
     ): List<TypedVideoNode> =
         withContext(ioDispatcher) {
-            val offlineItems = getAllOfflineNodeHandle()
+            val offlineItems = offlineIndex.getAll()
             getAllVideoMegaNodes(
                 searchQuery = searchQuery,
                 tag = tag,
@@ -88,7 +90,7 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
                 val isOutShared =
                     megaApiGateway.getMegaNodeByHandle(megaNode.parentHandle)?.isOutShare == true
                 typedVideoNodeMapper(
-                    fileNode = megaNode.convertToFileNode(offlineItems[megaNode.handle.toString()]),
+                    fileNode = megaNode.convertToFileNode(offlineItems[megaNode.handle]),
                     duration = megaNode.duration,
                     isOutShared = isOutShared
                 )
@@ -117,16 +119,13 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
         ).filter { !megaApiGateway.isInBackups(it) }
     }
 
-    private suspend fun getAllOfflineNodeHandle() =
-        megaLocalRoomGateway.getAllOfflineInfo().associateBy { it.handle }
-
     private suspend fun MegaNode.convertToFileNode(offline: Offline?) = fileNodeMapper(
         megaNode = this, requireSerializedData = false, offline = offline
     )
 
     override suspend fun getVideoPlaylists(sortOrder: SortOrder): List<VideoPlaylist> =
         withContext(ioDispatcher) {
-            val offlineItems = getAllOfflineNodeHandle()
+            val offlineItems = offlineIndex.getAll()
             val systemVideoPlaylist = listOf(getFavouritesVideoPlaylist(sortOrder, offlineItems))
             val userVideoPlaylists = getAllUserSets().map { userSet ->
                 userSet.toVideoPlaylist(offlineItems)
@@ -136,7 +135,7 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
 
     private suspend fun getFavouritesVideoPlaylist(
         sortOrder: SortOrder,
-        offlineItems: Map<String, Offline>,
+        offlineItems: Map<Long, Offline>,
     ): FavouritesVideoPlaylist {
         val favouriteVideos =
             getAllVideoMegaNodes(
@@ -145,7 +144,7 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
                 val isOutShared =
                     megaApiGateway.getMegaNodeByHandle(megaNode.parentHandle)?.isOutShare == true
                 typedVideoNodeMapper(
-                    fileNode = megaNode.convertToFileNode(offlineItems[megaNode.handle.toString()]),
+                    fileNode = megaNode.convertToFileNode(offlineItems[megaNode.handle]),
                     duration = megaNode.duration,
                     isOutShared = isOutShared
                 )
@@ -181,7 +180,7 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
         )
     }
 
-    private suspend fun UserSet.toVideoPlaylist(offlineMap: Map<String, Offline>?): VideoPlaylist {
+    private suspend fun UserSet.toVideoPlaylist(offlineMap: Map<Long, Offline>?): VideoPlaylist {
         val elementList = megaApiGateway.getSetElements(sid = id)
         val videoNodeList = (0 until elementList.size()).mapNotNull { index ->
             val element = elementList[index]
@@ -195,7 +194,7 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
                     .add(element.setId())
                 typedVideoNodeMapper(
                     fileNode = megaNode.convertToFileNode(
-                        offlineMap?.get(megaNode.handle.toString())
+                        offlineMap?.get(megaNode.handle)
                     ),
                     duration = megaNode.duration,
                     elementID = element.id()
@@ -402,13 +401,13 @@ internal class VideoSectionRepositoryImpl @Inject constructor(
     override suspend fun monitorRecentlyWatchedVideoNodes(): Flow<List<TypedVideoNode>> =
         getRecentlyWatchedData().map { list ->
             withContext(ioDispatcher) {
-                val offlineItems = getAllOfflineNodeHandle()
+                val offlineItems = offlineIndex.getAll()
                 list.mapNotNull { item ->
                     megaApiGateway.getMegaNodeByHandle(item.videoHandle)?.let { megaNode ->
                         val title =
                             megaNode.getCollectionTitle(item.collectionId, item.collectionTitle)
                         typedVideoNodeMapper(
-                            fileNode = megaNode.convertToFileNode(offlineItems[megaNode.handle.toString()]),
+                            fileNode = megaNode.convertToFileNode(offlineItems[megaNode.handle]),
                             duration = megaNode.duration,
                             watchedTimestamp = item.watchedTimestamp,
                             collectionTitle = title
@@ -2,83 +2,79 @@ package mega.privacy.android.data.repository
 
 import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.withContext
+import mega.privacy.android.data.compression.zip.ZipEngine
 import mega.privacy.android.data.mapper.zipbrowser.ZipTreeNodeMapper
 import mega.privacy.android.domain.entity.zipbrowser.ZipEntryType
 import mega.privacy.android.domain.entity.zipbrowser.ZipTreeNode
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.repository.ZipBrowserRepository
-import timber.log.Timber
-import java.io.ByteArrayOutputStream
 import java.io.File
-import java.io.FileOutputStream
 import java.util.zip.ZipFile
 import javax.inject.Inject
 
 /**
  * Zip repository implementation class
  */
-class ZipBrowserRepositoryImpl @Inject constructor(
+internal class ZipBrowserRepositoryImpl @Inject constructor(
     private val zipTreeNodeMapper: ZipTreeNodeMapper,
+    private val zipEngine: ZipEngine,
     @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
 ) : ZipBrowserRepository {
 
+    /**
+     * Builds the tree in a single pass over the entries of the central directory. For each entry,
+     * only the ancestors missing from the tree are created, walking up from its path, and each
+     * node is added once to the children list of its parent, so the cost is linear in the length
+     * of the entry names. The children lists are shared with the nodes, so every folder holds its
+     * final children and the browser only maps the children of the folder it opens.
+     */
     override suspend fun getZipNodeTree(zipFile: ZipFile?): Map<String, ZipTreeNode> =
         withContext(ioDispatcher) {
-            val zipNodeTree = mutableMapOf<String, ZipTreeNode>()
-            zipFile?.entries()?.toList()?.forEach { zipEntry ->
-                zipEntry.name.let { name ->
-                    val nodeDepth = name.getZipTreeNodeDepth()
-                    for (i in 1..nodeDepth) {
-                        //Get every sub path of current zip entry. For example, the path zip entry
-                        // path is 1/2/3.txt, the sub paths respectively are 1 1/2 1/2/3.txt
-                        val subPath = name.getSubPathByDepth(i)
-                        //Get name of current sub path
-                        val subName = subPath.getZipTreeNodeName()
-                        //Get parent path of current sub path. For example, if current sub path is 1/2/
-                        //its parent path is 1/
-                        val subParentPath = if (i == 1) {
-                            null
-                        } else {
-                            name.getSubPathByDepth(i - 1)
-                        }
-                        //Get current zip tree node using sub path
-                        var zipTreeNode = zipNodeTree[subPath]
+            val zipNodeTree = LinkedHashMap<String, ZipTreeNode>()
+            val childrenByPath = HashMap<String, MutableList<ZipTreeNode>>()
+            val missingPaths = mutableListOf<String>()
+            zipFile?.entries()?.asSequence()?.forEach { zipEntry ->
+                val path = zipEntry.name.removeSuffix(File.separator)
+                if (zipNodeTree.containsKey(path)) return@forEach
 
-                        // If node doesn't exist, create one, otherwise ignore it
-                        if (zipTreeNode == null) {
-                            zipTreeNode = zipTreeNodeMapper(
-                                zipEntry = zipEntry,
-                                name = subName,
-                                path = subPath,
-                                parentPath = subParentPath,
-                                zipEntryType = if (i == nodeDepth) {
-                                    when {
-                                        zipEntry.isDirectory -> ZipEntryType.Folder
-                                        name.endsWith(SUFFIX_ZIP) -> ZipEntryType.Zip
-                                        else -> ZipEntryType.File
-                                    }
-                                } else {
-                                    ZipEntryType.Folder
-                                }
-                            )
-
-                            zipNodeTree[subPath] = zipTreeNode
+                //Get the paths missing from the tree, from the entry up to the closest ancestor
+                // in the tree. For example, if the entry path is 1/2/3.txt and the tree has 1,
+                // the missing paths are 1/2/3.txt and 1/2
+                missingPaths.clear()
+                missingPaths.add(path)
+                var parentPath = path.getParentPath()
+                while (parentPath != null && !zipNodeTree.containsKey(parentPath)) {
+                    missingPaths.add(parentPath)
+                    parentPath = parentPath.getParentPath()
+                }
 
-                            // If parent path is not empty add current path to map
-                            // Empty path represents root directory
-                            if (!subParentPath.isNullOrEmpty()) {
-                                zipNodeTree[subParentPath]?.let { parentNode ->
-                                    val updatedChildren =
-                                        parentNode.children.toMutableList().apply {
-                                            add(zipTreeNode)
-                                        }
-                                    val updatedParentNode =
-                                        parentNode.copy(children = updatedChildren)
-                                    zipNodeTree[subParentPath] = updatedParentNode
-                                }
-                            }
+                for (i in missingPaths.indices.reversed()) {
+                    val subPath = missingPaths[i]
+                    val zipEntryType = if (i == 0) {
+                        when {
+                            zipEntry.isDirectory -> ZipEntryType.Folder
+                            subPath.endsWith(SUFFIX_ZIP) -> ZipEntryType.Zip
+                            else -> ZipEntryType.File
                         }
+                    } else {
+                        ZipEntryType.Folder
+                    }
+                    val children = if (zipEntryType == ZipEntryType.Folder) {
+                        mutableListOf<ZipTreeNode>().also { childrenByPath[subPath] = it }
+                    } else {
+                        emptyList()
                     }
+                    val zipTreeNode = zipTreeNodeMapper(
+                        zipEntry = zipEntry,
+                        name = subPath.getZipTreeNodeName(),
+                        path = subPath,
+                        parentPath = parentPath,
+                        zipEntryType = zipEntryType,
+                        children = children,
+                    )
+                    zipNodeTree[subPath] = zipTreeNode
+                    parentPath?.let { childrenByPath[it]?.add(zipTreeNode) }
+                    parentPath = subPath
                 }
             }
             zipNodeTree
@@ -88,72 +84,18 @@ class ZipBrowserRepositoryImpl @Inject constructor(
      * Get zip tree node name for init zip tree map
      * @return zip tree name
      */
-    private fun String.getZipTreeNodeName() =
-        removeSuffix(File.separator).split(File.separator).last()
+    private fun String.getZipTreeNodeName() = substringAfterLast(File.separator)
 
     /**
-     * Get sub path for init zip tree map
-     * @param depth depth of sub path
-     * @return sub path
+     * Get parent path for init zip tree map. For example, if current path is 1/2 its parent path
+     * is 1
+     * @return parent path, or null if the path is in the root directory
      */
-    private fun String.getSubPathByDepth(depth: Int) =
-        removeSuffix(File.separator).split(File.separator).take(depth).joinToString(File.separator)
+    private fun String.getParentPath() =
+        substringBeforeLast(File.separator, missingDelimiterValue = "").ifEmpty { null }
 
-    /**
-     * Get current zip tree node depth for init zip tree map
-     * @return zip tree node depth
-     */
-    private fun String.getZipTreeNodeDepth() =
-        removeSuffix(File.separator).split(File.separator).size
-
-    override suspend fun unzipFile(zipFile: ZipFile, unzipRootPath: String): Boolean =
-        withContext(ioDispatcher) {
-            runCatching {
-                val zipEntries = zipFile.entries()
-                zipEntries.toList().forEach { zipEntry ->
-                    val zipDestination = File(unzipRootPath + zipEntry.name)
-                    val canonicalPath = zipDestination.canonicalPath
-                    if (canonicalPath.startsWith(unzipRootPath)) {
-                        if (zipEntry.isDirectory) {
-                            if (!zipDestination.exists()) {
-                                zipDestination.mkdirs()
-                            }
-                        } else {
-                            val inputStream = zipFile.getInputStream(zipEntry)
-                            //Get the parent file. If it is null or
-                            // doesn't exist, created the parent folder.
-                            val parentFile = zipDestination.parentFile
-                            if (parentFile != null) {
-                                if (!parentFile.exists()) {
-                                    parentFile.mkdirs()
-                                }
-                                val byteArrayOutputStream = ByteArrayOutputStream()
-                                val buffer = ByteArray(1024)
-                                var count: Int
-                                FileOutputStream(zipDestination).use { outputStream ->
-                                    //Write the file.
-                                    while (inputStream.read(buffer)
-                                            .also { readCount -> count = readCount } != -1
-                                    ) {
-                                        byteArrayOutputStream.write(buffer, 0, count)
-                                        val bytes = byteArrayOutputStream.toByteArray()
-                                        outputStream.write(bytes)
-                                        byteArrayOutputStream.reset()
-                                    }
-                                }
-                                inputStream.close()
-                            }
-                        }
-                    } else {
-                        throw SecurityException()
-                    }
-                }
-                true
-            }.recover { e ->
-                Timber.e(e)
-                false
-            }.getOrNull() ?: false
-        }
+    override fun unzipFile(zipFile: ZipFile, unzipRootPath: String, path: String?) =
+        zipEngine.extract(zipFile, unzipRootPath, path)
 
     companion object {
         private const val SUFFIX_ZIP = ".zip"
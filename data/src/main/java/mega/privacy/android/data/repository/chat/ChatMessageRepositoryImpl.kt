@@ -318,6 +318,9 @@ internal class ChatMessageRepositoryImpl @Inject constructor(
     override fun getPagedMessages(chatId: Long) =
         typedMessagePagingSourceMapper(chatStorageGateway.getTypedMessageRequestPagingSource(chatId))
 
+    override suspend fun getNewestMessageTimestamp(chatId: Long) = withContext(ioDispatcher) {
+        chatStorageGateway.getNewestMessageTimestamp(chatId)
+    }
 
     override suspend fun truncateMessages(chatId: Long, truncateTimestamp: Long) {
         withContext(ioDispatcher) {
@@ -348,6 +351,12 @@ internal class ChatMessageRepositoryImpl @Inject constructor(
             chatStorageGateway.getExistsInMessage(chatId, msgId) ?: true
         }
 
+    override suspend fun getExistsInMessages(chatId: Long, msgIds: List<Long>) =
+        withContext(ioDispatcher) {
+            val notExisting = chatStorageGateway.getMessageIdsNotExisting(chatId, msgIds).toSet()
+            msgIds.associateWith { it !in notExisting }
+        }
+
     override suspend fun clearAllData() = withContext(ioDispatcher) {
         chatStorageGateway.clearAllData()
     }
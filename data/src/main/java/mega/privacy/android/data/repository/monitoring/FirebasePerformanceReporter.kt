@@ -3,53 +3,75 @@ package mega.privacy.android.data.repository.monitoring
 import com.google.firebase.perf.FirebasePerformance
 import com.google.firebase.perf.ktx.trace
 import com.google.firebase.perf.metrics.Trace
+import mega.privacy.android.domain.entity.monitoring.PerformanceReportFormat
 import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
-import java.util.Hashtable
+import java.io.File
+import java.util.concurrent.ConcurrentHashMap
 import javax.inject.Inject
 
 /**
  * Report performance to FirebasePerformance
+ *
+ * The traces are also reported to the [LocalPerformanceReporterRepository], which keeps the data
+ * on the device for [exportReport] while the reporters are enabled.
  */
 internal class PerformanceReporterRepositoryImpl @Inject constructor(
     private val firebasePerformance: FirebasePerformance,
+    private val localPerformanceReporter: LocalPerformanceReporterRepository,
 ) : PerformanceReporterRepository {
 
     /*
      * thread safe trace container
      */
 
-    private val traces = Hashtable<String, Trace>()
+    private val traces = ConcurrentHashMap<String, Trace>()
 
     override suspend fun <T> trace(traceName: String, block: suspend () -> T): T {
         stopTrace(traceName)
-        return firebasePerformance.newTrace(traceName).run {
-            traces[traceName] = this
-            trace { block() }
+        return localPerformanceReporter.trace(traceName) {
+            firebasePerformance.newTrace(traceName).run {
+                traces[traceName] = this
+                trace { block() }
+            }
         }
     }
 
     override fun startTrace(traceName: String) {
         stopTrace(traceName)
         traces[traceName] = firebasePerformance.newTrace(traceName).apply { start() }
+        localPerformanceReporter.startTrace(traceName)
     }
 
     override fun putMetric(traceName: String, metricName: String, value: Long) {
         traces[traceName]?.putMetric(metricName, value)
+        localPerformanceReporter.putMetric(traceName, metricName, value)
+    }
+
+    override fun incrementMetric(traceName: String, metricName: String, value: Long) {
+        traces[traceName]?.incrementMetric(metricName, value)
+        localPerformanceReporter.incrementMetric(traceName, metricName, value)
     }
 
     override fun putAttribute(traceName: String, attribute: String, value: String) {
         traces[traceName]?.putAttribute(attribute, value)
+        localPerformanceReporter.putAttribute(traceName, attribute, value)
     }
 
     override fun stopTrace(traceName: String) {
         traces[traceName]?.stop()
+        localPerformanceReporter.stopTrace(traceName)
     }
 
     override fun stopTraces(traceNames: List<String>) {
         traceNames.forEach { name -> traces[name]?.stop() }
+        localPerformanceReporter.stopTraces(traceNames)
     }
 
     override fun setEnabled(enabled: Boolean) {
         firebasePerformance.isPerformanceCollectionEnabled = enabled
+        localPerformanceReporter.setEnabled(enabled)
     }
+
+    override suspend fun exportReport(format: PerformanceReportFormat): File =
+        localPerformanceReporter.exportReport(format)
 }
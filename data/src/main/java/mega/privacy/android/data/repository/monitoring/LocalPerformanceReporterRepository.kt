@@ -0,0 +1,110 @@
+package mega.privacy.android.data.repository.monitoring
+
+import android.content.Context
+import dagger.hilt.android.qualifiers.ApplicationContext
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.withContext
+import mega.privacy.android.data.monitoring.PerformanceCollector
+import mega.privacy.android.data.monitoring.PerformanceSnapshotWriter
+import mega.privacy.android.domain.entity.monitoring.PerformanceReportFormat
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import java.io.File
+import java.time.Instant
+import java.time.ZoneOffset
+import java.time.format.DateTimeFormatter
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Report performance to a [PerformanceCollector] kept in memory
+ *
+ * Works without network, so startup, listing, transfer and chat latencies can be measured on test
+ * devices and the reports of different builds compared. The metrics of a trace are kept as gauges
+ * and its incremented metrics as counters, named "traceName.metricName". It follows the same
+ * consent as the other performance reporters: nothing is collected until [setEnabled] enables it,
+ * and disabling it stops the running traces and clears the collected data.
+ */
+@Singleton
+internal class LocalPerformanceReporterRepository @Inject constructor(
+    @ApplicationContext private val context: Context,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) : PerformanceReporterRepository {
+
+    private val collector = PerformanceCollector()
+
+    @Volatile
+    private var isEnabled = false
+
+    override suspend fun <T> trace(traceName: String, block: suspend () -> T): T {
+        if (!isEnabled) return block()
+        collector.startTrace(traceName)
+        return try {
+            block()
+        } finally {
+            collector.stopTrace(traceName)
+        }
+    }
+
+    override fun startTrace(traceName: String) {
+        if (isEnabled) collector.startTrace(traceName)
+    }
+
+    override fun putMetric(traceName: String, metricName: String, value: Long) {
+        if (collector.isRunning(traceName)) {
+            collector.setGauge("$traceName.$metricName", value)
+        }
+    }
+
+    override fun incrementMetric(traceName: String, metricName: String, value: Long) {
+        if (collector.isRunning(traceName)) {
+            collector.increment("$traceName.$metricName", value)
+        }
+    }
+
+    override fun putAttribute(traceName: String, attribute: String, value: String) {
+        if (collector.isRunning(traceName)) {
+            collector.putAttribute(traceName, attribute, value)
+        }
+    }
+
+    override fun stopTrace(traceName: String) {
+        collector.stopTrace(traceName)
+    }
+
+    override fun stopTraces(traceNames: List<String>) {
+        traceNames.forEach { collector.stopTrace(it) }
+    }
+
+    override fun setEnabled(enabled: Boolean) {
+        isEnabled = enabled
+        if (!enabled) {
+            collector.cancelTraces()
+            collector.clear()
+        }
+    }
+
+    override suspend fun exportReport(format: PerformanceReportFormat): File =
+        withContext(ioDispatcher) {
+            val snapshot = collector.snapshot()
+            val folder = File(context.getExternalFilesDir(null) ?: context.filesDir, REPORT_FOLDER)
+            folder.mkdirs()
+            val date = FILE_DATE_FORMATTER.format(Instant.ofEpochMilli(snapshot.timestamp))
+            val name = "performance_$date"
+            when (format) {
+                PerformanceReportFormat.Json -> File(folder, "$name.json").apply {
+                    outputStream().use { PerformanceSnapshotWriter.writeJson(snapshot, it) }
+                }
+
+                PerformanceReportFormat.Binary -> File(folder, "$name.bin").apply {
+                    outputStream().use { PerformanceSnapshotWriter.writeBinary(snapshot, it) }
+                }
+            }
+        }
+
+    companion object {
+        private const val REPORT_FOLDER = "performance"
+        private val FILE_DATE_FORMATTER =
+            DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss_SSS").withZone(ZoneOffset.UTC)
+    }
+}
@@ -0,0 +1,152 @@
+package mega.privacy.android.data.repository.offline
+
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.filterNotNull
+import kotlinx.coroutines.flow.first
+import kotlinx.coroutines.launch
+import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.data.repository.transfers.LongObjectHashMap
+import mega.privacy.android.domain.entity.Offline
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Process wide index of the offline information by node handle
+ *
+ * Reading all the offline information decrypts every row of the offline table, so instead of
+ * doing it for every node listing, the index is built the first time it is read and then kept up
+ * to date from [MegaLocalRoomGateway.monitorVersionedOfflineUpdates], which only decrypts the rows
+ * that changed. Each update only replaces the entries that changed and removes the ones that are
+ * gone, in a [LongObjectHashMap] so the handles are not boxed. The listings look each node up by
+ * its handle, so their cost no longer depends on the size of the offline library.
+ *
+ * A read waits until the index includes every change made before it, so a listing right after
+ * saving the offline information of a node already finds it.
+ *
+ * If the offline table can't be monitored, the information is read from the database as before,
+ * and the monitoring is started again by the next read.
+ */
+@Singleton
+internal class OfflineIndex @Inject constructor(
+    private val megaLocalRoomGateway: MegaLocalRoomGateway,
+    @ApplicationScope private val scope: CoroutineScope,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) {
+
+    private class Entry(var offline: Offline, var generation: Long)
+
+    private val lock = Any()
+
+    private val offlineByHandle = LongObjectHashMap<Entry>()
+
+    private var generation = 0L
+
+    private var monitorJob: Job? = null
+
+    // Version of the offline information in the index, null until it is built
+    private val version = MutableStateFlow<Result<Long>?>(null)
+
+    // Live view of the index, only looked up by the listings
+    private val view = object : AbstractMap<Long, Offline>() {
+        override val size: Int
+            get() = synchronized(lock) { offlineByHandle.size }
+
+        override val entries: Set<Map.Entry<Long, Offline>>
+            get() = synchronized(lock) {
+                HashMap<Long, Offline>(offlineByHandle.size).also { copy ->
+                    offlineByHandle.forEach { handle, entry -> copy[handle] = entry.offline }
+                }
+            }.entries
+
+        override fun get(key: Long): Offline? = synchronized(lock) {
+            offlineByHandle.get(key)?.offline
+        }
+
+        override fun containsKey(key: Long) = get(key) != null
+    }
+
+    /**
+     * Get the offline information of all the nodes available offline
+     *
+     * @return the offline information by node handle, kept up to date by the index
+     */
+    suspend fun getAll(): Map<Long, Offline> {
+        val requiredVersion = megaLocalRoomGateway.getOfflineVersion()
+        startMonitoring()
+        return version.filterNotNull().first { result ->
+            result.fold(onSuccess = { it >= requiredVersion }, onFailure = { true })
+        }.fold(
+            onSuccess = { view },
+            onFailure = {
+                Timber.w(it, "Offline index not available")
+                megaLocalRoomGateway.getAllOfflineInfo().toIndex()
+            },
+        )
+    }
+
+    /**
+     * Get the offline information of a node
+     *
+     * @param handle the handle of the node
+     * @return the offline information, or null if the node is not available offline
+     */
+    suspend operator fun get(handle: Long): Offline? = getAll()[handle]
+
+    private fun startMonitoring() {
+        synchronized(lock) {
+            if (monitorJob?.isActive == true) return
+            version.value = null
+            monitorJob = scope.launch(ioDispatcher) {
+                try {
+                    megaLocalRoomGateway.monitorVersionedOfflineUpdates()
+                        .collect { (offlineVersion, offline) ->
+                            update(offline)
+                            version.value = Result.success(offlineVersion)
+                        }
+                } catch (e: CancellationException) {
+                    throw e
+                } catch (e: Exception) {
+                    version.value = Result.failure(e)
+                }
+            }
+        }
+    }
+
+    private fun update(offline: List<Offline>) {
+        synchronized(lock) {
+            val currentGeneration = ++generation
+            var updated = 0
+            offline.forEach { item ->
+                val handle = item.handle.toLongOrNull() ?: return@forEach
+                val entry = offlineByHandle.get(handle)
+                if (entry == null) {
+                    offlineByHandle.put(handle, Entry(item, currentGeneration))
+                    updated++
+                } else {
+                    if (entry.generation != currentGeneration) updated++
+                    entry.offline = item
+                    entry.generation = currentGeneration
+                }
+            }
+            // The entries not updated are the ones removed from the table
+            if (offlineByHandle.size == updated) return
+            val removedHandles = ArrayList<Long>()
+            offlineByHandle.forEach { handle, entry ->
+                if (entry.generation != currentGeneration) removedHandles.add(handle)
+            }
+            removedHandles.forEach { offlineByHandle.remove(it) }
+        }
+    }
+
+    private fun List<Offline>.toIndex(): Map<Long, Offline> =
+        HashMap<Long, Offline>(size * 4 / 3 + 1).also { index ->
+            forEach { offline -> offline.handle.toLongOrNull()?.let { index[it] = offline } }
+        }
+}
@@ -7,12 +7,15 @@ import kotlinx.coroutines.Job
 import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.filterNotNull
 import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.launchIn
 import kotlinx.coroutines.flow.onEach
+import kotlinx.coroutines.flow.onSubscription
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.suspendCancellableCoroutine
@@ -64,6 +67,7 @@ import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.entity.node.TypedFileNode
 import mega.privacy.android.domain.entity.photos.AlbumPhotoId
 import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotoDelta
 import mega.privacy.android.domain.entity.photos.TimelinePreferencesJSON
 import mega.privacy.android.domain.entity.search.SearchCategory
 import mega.privacy.android.domain.entity.search.SearchTarget
@@ -71,6 +75,7 @@ import mega.privacy.android.domain.qualifier.ApplicationScope
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.repository.NodeRepository
 import mega.privacy.android.domain.repository.PhotosRepository
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
 import mega.privacy.android.domain.usecase.login.MonitorFetchNodesFinishUseCase
 import nz.mega.sdk.MegaApiAndroid
 import nz.mega.sdk.MegaApiJava
@@ -84,6 +89,7 @@ import javax.inject.Inject
 import javax.inject.Singleton
 import kotlin.coroutines.resume
 import kotlin.coroutines.resumeWithException
+import kotlin.time.Duration.Companion.seconds
 
 @Singleton
 @OptIn(ExperimentalCoroutinesApi::class)
@@ -113,6 +119,9 @@ internal class DefaultPhotosRepository @Inject constructor(
     private val cancelTokenProvider: CancelTokenProvider,
     private val monitorFetchNodesFinishUseCase: MonitorFetchNodesFinishUseCase,
     private val uiPreferencesGateway: UIPreferencesGateway,
+    private val photosSnapshotStore: PhotosSnapshotStore,
+    private val mediaAncestorIndex: MediaAncestorIndex,
+    private val performanceReporterRepository: PerformanceReporterRepository,
 ) : PhotosRepository {
     @Volatile
     private var isInitialized: Boolean = false
@@ -121,8 +130,31 @@ internal class DefaultPhotosRepository @Inject constructor(
 
     private var previewFolderPath: String? = null
 
+    /**
+     * All the photos, only copied from [photosCache] while [monitorPhotos] is collected. The
+     * timeline only receives the changes from [monitorPhotoChanges]
+     */
     private val photosFlow: MutableStateFlow<List<Photo>?> = MutableStateFlow(null)
 
+    /**
+     * Whether the photos have been loaded, accessed from the [photosDispatcher]
+     */
+    private var isPhotosLoaded = false
+
+    /**
+     * Whether the photos changed while [photosFlow] was not collected, accessed from the
+     * [photosDispatcher]
+     */
+    private var isPhotosFlowOutdated = false
+
+    /**
+     * The changes are never dropped, as each one is applied on top of the previous ones. When a
+     * subscriber falls [PHOTO_CHANGES_BUFFER_SIZE] changes behind, the next change waits for it
+     */
+    private val photoChangesFlow = MutableSharedFlow<PhotoDelta>(
+        extraBufferCapacity = PHOTO_CHANGES_BUFFER_SIZE,
+    )
+
     private val imageNodesFlow: MutableStateFlow<List<ImageNode>?> = MutableStateFlow(null)
 
     private val photosCache: MutableMap<NodeId, Photo> = mutableMapOf()
@@ -144,6 +176,8 @@ internal class DefaultPhotosRepository @Inject constructor(
 
     private var monitorOfflineNodeJob: Job? = null
 
+    private var writePhotosSnapshotJob: Job? = null
+
     private val constraints: List<suspend (Node) -> Boolean> = listOf(
         ::checkMediaNode,
         ::checkCloudDriveNode,
@@ -159,7 +193,27 @@ internal class DefaultPhotosRepository @Inject constructor(
 
     override fun monitorPhotos(): Flow<List<Photo>> {
         initialize()
-        return photosFlow.filterNotNull()
+        return photosFlow.onSubscription {
+            withContext(photosDispatcher) {
+                if (isPhotosFlowOutdated) {
+                    isPhotosFlowOutdated = false
+                    photosFlow.value = photosCache.values.toList()
+                }
+            }
+        }.filterNotNull()
+    }
+
+    override fun monitorPhotoChanges(): Flow<PhotoDelta> {
+        initialize()
+        return photoChangesFlow.onSubscription {
+            // Read on the photos dispatcher after subscribing, so no change is missed. The changes
+            // emitted in between are already part of the reset, applying them again is harmless
+            withContext(photosDispatcher) {
+                photosCache.values.toList().takeIf { isPhotosLoaded }
+            }?.let {
+                emit(PhotoDelta.Reset(it))
+            }
+        }
     }
 
     private fun initialize() {
@@ -187,6 +241,8 @@ internal class DefaultPhotosRepository @Inject constructor(
     private fun populateNodes() {
         populateNodesJob?.cancel()
         populateNodesJob = appScope.launch {
+            restorePhotosSnapshot()
+
             val (imageNodes, videoNodes) = fetchNodes()
 
             updatePhotos(imageNodes, videoNodes)
@@ -248,7 +304,58 @@ internal class DefaultPhotosRepository @Inject constructor(
             photosCache.putAll(photos.associateBy { NodeId(it.id) })
 
             val newPhotos = photosCache.values.toList()
-            photosFlow.update { newPhotos }
+            publishPhotos(newPhotos)
+            photoChangesFlow.emit(PhotoDelta.Reset(newPhotos))
+            schedulePhotosSnapshotWrite()
+        }
+    }
+
+    /**
+     * Emit the photos of the persisted snapshot, if the photos have not been emitted yet.
+     * They are reconciled afterwards by the full scan and the node updates.
+     */
+    private suspend fun restorePhotosSnapshot() {
+        val userHandle = megaApiFacade.myUser?.handle ?: return
+        val photos = photosSnapshotStore.read(userHandle) ?: return
+
+        withContext(photosDispatcher) {
+            if (isPhotosLoaded) return@withContext
+            photosCache.putAll(photos.associateBy { NodeId(it.id) })
+            publishPhotos(photos)
+            photoChangesFlow.emit(PhotoDelta.Reset(photos))
+        }
+    }
+
+    /**
+     * Mark the photos as loaded and set them to [photosFlow] if it is collected, otherwise they
+     * are copied by the next subscription
+     *
+     * Must be called from the [photosDispatcher]
+     *
+     * @param photos all the photos, if they have already been copied from [photosCache]
+     */
+    private fun publishPhotos(photos: List<Photo>? = null) {
+        isPhotosLoaded = true
+        if (photosFlow.subscriptionCount.value > 0) {
+            isPhotosFlowOutdated = false
+            photosFlow.value = photos ?: photosCache.values.toList()
+        } else {
+            isPhotosFlowOutdated = true
+        }
+    }
+
+    /**
+     * Write the photos to the snapshot once they stop changing for [PHOTOS_SNAPSHOT_WRITE_DELAY]
+     *
+     * Must be called from the [photosDispatcher]
+     */
+    private fun schedulePhotosSnapshotWrite() {
+        writePhotosSnapshotJob?.cancel()
+        writePhotosSnapshotJob = appScope.launch {
+            delay(PHOTOS_SNAPSHOT_WRITE_DELAY)
+            val userHandle = megaApiFacade.myUser?.handle ?: return@launch
+            val photos = withContext(photosDispatcher) { photosCache.values.toList() }
+            photosSnapshotStore.write(userHandle, photos)
         }
     }
 
@@ -281,36 +388,87 @@ internal class DefaultPhotosRepository @Inject constructor(
             .launchIn(appScope)
     }
 
+    /**
+     * Apply the node update to the caches, the flows are only updated if a photo or an image node
+     * actually changed, and the changed photos are also emitted as a [PhotoDelta.Changes]
+     */
     private suspend fun handleNodeUpdate(nodeUpdate: NodeUpdate) {
+        val photoChanges = PhotoChanges()
+        var areImageNodesChanged = false
         for ((node, changes) in nodeUpdate.changes) {
             if (node is FolderNode && changes.contains(NodeChanges.Sensitive)) {
-                refreshSensitivePhotos()
-                refreshSensitiveImageNodes()
+                startSensitiveRefreshTrace()
+                val touchedPhotos = refreshSensitivePhotos(node, photoChanges)
+                val touchedImageNodes = refreshSensitiveImageNodes(node)
+                areImageNodesChanged = touchedImageNodes > 0 || areImageNodesChanged
+                stopSensitiveRefreshTrace(touchedNodes = touchedPhotos + touchedImageNodes)
             } else {
+                if (node is FolderNode && changes.contains(NodeChanges.Parent)) {
+                    mediaAncestorIndex.invalidate(node.id.longValue)
+                }
                 val isPotentialNode = constraints.all { it(node) }
 
-                refreshPhotos(node, isPotentialNode)
-                refreshImageNodes(node, isPotentialNode)
+                refreshPhotos(node, isPotentialNode, photoChanges)
+                areImageNodesChanged =
+                    refreshImageNodes(node, isPotentialNode) || areImageNodesChanged
             }
         }
 
-        withContext(photosDispatcher) {
-            val newPhotos = photosCache.values.toList()
-            photosFlow.update { newPhotos }
+        if (!photoChanges.isEmpty()) {
+            withContext(photosDispatcher) {
+                // Nothing to apply the changes to if the photos have not been emitted yet
+                val delta = if (isPhotosLoaded) {
+                    photoChanges.toDelta()
+                } else {
+                    PhotoDelta.Reset(photosCache.values.toList())
+                }
+                publishPhotos()
+                photoChangesFlow.emit(delta)
+                schedulePhotosSnapshotWrite()
+            }
         }
 
-        withContext(imageNodesDispatcher) {
-            val newNodes = imageNodesCache.values.toList()
-            imageNodesFlow.update { newNodes }
+        if (areImageNodesChanged) {
+            withContext(imageNodesDispatcher) {
+                val newNodes = imageNodesCache.values.toList()
+                imageNodesFlow.update { newNodes }
+            }
+        }
+    }
+
+    /**
+     * Photos added, updated or removed while handling a node update, only the last change of
+     * each photo is kept
+     */
+    private class PhotoChanges {
+        private val upsertedPhotos = LinkedHashMap<Long, Photo>()
+        private val removedPhotoIds = LinkedHashSet<Long>()
+
+        fun upsert(photo: Photo) {
+            removedPhotoIds.remove(photo.id)
+            upsertedPhotos[photo.id] = photo
+        }
+
+        fun remove(photoId: Long) {
+            upsertedPhotos.remove(photoId)
+            removedPhotoIds.add(photoId)
         }
+
+        fun isEmpty() = upsertedPhotos.isEmpty() && removedPhotoIds.isEmpty()
+
+        fun toDelta() = PhotoDelta.Changes(
+            upsertedPhotos = upsertedPhotos.values.toList(),
+            removedPhotoIds = removedPhotoIds.toList(),
+        )
     }
 
     private suspend fun refreshPhotos(
         node: Node,
         isPotentialNode: Boolean,
+        photoChanges: PhotoChanges,
     ) = withContext(photosDispatcher) {
         if (!isPotentialNode) {
-            photosCache.remove(node.id)
+            photosCache.remove(node.id)?.let { photoChanges.remove(it.id) }
             return@withContext
         }
 
@@ -325,15 +483,30 @@ internal class DefaultPhotosRepository @Inject constructor(
         }
 
         if (photo == null) {
-            photosCache.remove(node.id)
-        } else {
-            photosCache[NodeId(photo.id)] = photo
+            photosCache.remove(node.id)?.let { photoChanges.remove(it.id) }
+        } else if (photosCache.put(NodeId(photo.id), photo) != photo) {
+            photoChanges.upsert(photo)
         }
     }
 
-    private suspend fun refreshSensitivePhotos() = withContext(photosDispatcher) {
-        val photos = photosCache.mapNotNull { (nodeId, _) ->
-            getMegaNode(nodeId)?.let { megaNode ->
+    /**
+     * Refresh the photos below a folder whose sensitive flag changed, the rest of the photos
+     * can't be affected
+     *
+     * @return the number of photos refreshed
+     */
+    private suspend fun refreshSensitivePhotos(
+        folder: FolderNode,
+        photoChanges: PhotoChanges,
+    ) = withContext(photosDispatcher) {
+        val descendantFolders = mediaAncestorIndex.getDescendantFolders(
+            folderHandles = photosCache.values.mapTo(HashSet()) { it.parentId },
+            ancestorHandle = folder.id.longValue,
+        )
+        val nodeIds = photosCache.filterValues { it.parentId in descendantFolders }.keys.toList()
+
+        nodeIds.forEach { nodeId ->
+            val photo = getMegaNode(nodeId)?.let { megaNode ->
                 if (isImageNodeValid(megaNode)) {
                     mapMegaNodeToImage(megaNode)
                 } else if (isVideoNodeValid(megaNode)) {
@@ -342,36 +515,85 @@ internal class DefaultPhotosRepository @Inject constructor(
                     null
                 }
             }
-        }
 
-        photosCache.clear()
-        photosCache.putAll(photos.associateBy { NodeId(it.id) })
+            if (photo == null) {
+                photosCache.remove(nodeId)?.let { photoChanges.remove(it.id) }
+            } else if (photosCache.put(nodeId, photo) != photo) {
+                photoChanges.upsert(photo)
+            }
+        }
+        nodeIds.size
     }
 
+    /**
+     * @return true if the image nodes changed
+     */
     private suspend fun refreshImageNodes(
         node: Node,
         isPotentialNode: Boolean,
     ) = withContext(imageNodesDispatcher) {
         if (!isPotentialNode) {
-            imageNodesCache.remove(node.id)
-            return@withContext
+            return@withContext imageNodesCache.remove(node.id) != null
         }
 
         val imageNode = fetchImageNode(nodeId = node.id)
         if (imageNode == null) {
-            imageNodesCache.remove(node.id)
+            imageNodesCache.remove(node.id) != null
         } else {
-            imageNodesCache[imageNode.id] = imageNode
+            imageNodesCache.put(imageNode.id, imageNode) != imageNode
         }
     }
 
-    private suspend fun refreshSensitiveImageNodes() = withContext(imageNodesDispatcher) {
-        val imageNodes = imageNodesCache.mapNotNull { (nodeId, _) ->
-            fetchImageNode(nodeId)
+    /**
+     * Refresh the image nodes below a folder whose sensitive flag changed
+     *
+     * @return the number of image nodes refreshed
+     */
+    private suspend fun refreshSensitiveImageNodes(
+        folder: FolderNode,
+    ) = withContext(imageNodesDispatcher) {
+        val descendantFolders = mediaAncestorIndex.getDescendantFolders(
+            folderHandles = imageNodesCache.values.mapTo(HashSet()) { it.parentId.longValue },
+            ancestorHandle = folder.id.longValue,
+        )
+        val nodeIds = imageNodesCache.filterValues {
+            it.parentId.longValue in descendantFolders
+        }.keys.toList()
+
+        nodeIds.forEach { nodeId ->
+            val imageNode = fetchImageNode(nodeId)
+            if (imageNode == null) {
+                imageNodesCache.remove(nodeId)
+            } else {
+                imageNodesCache[nodeId] = imageNode
+            }
         }
+        nodeIds.size
+    }
 
-        imageNodesCache.clear()
-        imageNodesCache.putAll(imageNodes.associateBy { it.id })
+    /**
+     * Start the trace measuring a refresh after the sensitive flag of a folder changed
+     */
+    private fun startSensitiveRefreshTrace() {
+        runCatching { performanceReporterRepository.startTrace(SENSITIVE_REFRESH_TRACE) }
+            .onFailure { Timber.w(it) }
+    }
+
+    /**
+     * Stop the sensitive refresh trace
+     *
+     * @param touchedNodes the number of photos and image nodes refreshed
+     */
+    private fun stopSensitiveRefreshTrace(touchedNodes: Int) {
+        Timber.d("Sensitive refresh touched $touchedNodes nodes")
+        runCatching {
+            performanceReporterRepository.putMetric(
+                SENSITIVE_REFRESH_TRACE,
+                TOUCHED_NODES_METRIC,
+                touchedNodes.toLong(),
+            )
+            performanceReporterRepository.stopTrace(SENSITIVE_REFRESH_TRACE)
+        }.onFailure { Timber.w(it) }
     }
 
     override fun monitorImageNodes(): Flow<List<ImageNode>> = imageNodesFlow
@@ -1025,14 +1247,28 @@ internal class DefaultPhotosRepository @Inject constructor(
         monitorNodeUpdatesJob?.cancel()
         monitorNodeUpdatesJob = null
 
+        writePhotosSnapshotJob?.cancel()
+        writePhotosSnapshotJob = null
+
         offlineNodesCache = mapOf()
+        mediaAncestorIndex.clear()
         photosCache.clear()
         imageNodesCache.clear()
         imageResultCache.clear()
 
         photosFlow.value = null
+        isPhotosLoaded = false
+        isPhotosFlowOutdated = false
         imageNodesFlow.value = null
 
         appScope.launch { uiPreferencesGateway.setPhotosRecentQueries(listOf()) }
+        appScope.launch { photosSnapshotStore.clear() }
+    }
+
+    private companion object {
+        val PHOTOS_SNAPSHOT_WRITE_DELAY = 5.seconds
+        const val SENSITIVE_REFRESH_TRACE = "photos_sensitive_refresh"
+        const val TOUCHED_NODES_METRIC = "touched_nodes"
+        const val PHOTO_CHANGES_BUFFER_SIZE = 64
     }
 }
@@ -0,0 +1,89 @@
+package mega.privacy.android.data.repository.photos
+
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import nz.mega.sdk.MegaApiJava
+import java.util.concurrent.ConcurrentHashMap
+import javax.inject.Inject
+
+/**
+ * Index of the ancestors of the folders containing the cached media
+ *
+ * Only the parent of each folder is stored. It is resolved through the SDK the first time the
+ * folder is reached, so walking up from the folder of a media to the root doesn't need any call
+ * to the SDK afterwards. When a folder is moved only its own entry has to be invalidated, the
+ * entries of the folders below it are still valid.
+ *
+ * All the methods are thread safe.
+ */
+internal class MediaAncestorIndex @Inject constructor(
+    private val megaApiGateway: MegaApiGateway,
+) {
+
+    private val folderParents = ConcurrentHashMap<Long, Long>()
+
+    /**
+     * Get the folders that are the given folder or one of its descendants
+     *
+     * @param folderHandles the handles of the folders to check, usually the parents of the media
+     * @param ancestorHandle the handle of the folder
+     * @return the handles of [folderHandles] that are [ancestorHandle] or below it
+     */
+    suspend fun getDescendantFolders(
+        folderHandles: Set<Long>,
+        ancestorHandle: Long,
+    ): Set<Long> {
+        // Folders whose ancestors have been walked already, true if the ancestor was found
+        val isDescendant = HashMap<Long, Boolean>()
+        return folderHandles.filterTo(HashSet()) { folderHandle ->
+            val path = mutableListOf<Long>()
+            var handle = folderHandle
+            var result = false
+            while (path.size < MAX_DEPTH) {
+                if (handle == ancestorHandle) {
+                    result = true
+                    break
+                }
+                isDescendant[handle]?.let {
+                    result = it
+                    break
+                }
+                path.add(handle)
+                handle = getParentHandle(handle) ?: break
+            }
+            path.forEach { isDescendant[it] = result }
+            result
+        }
+    }
+
+    /**
+     * Forget the parent of a folder, to be called when the folder is moved
+     */
+    fun invalidate(folderHandle: Long) {
+        folderParents.remove(folderHandle)
+    }
+
+    /**
+     * Forget all the folders
+     */
+    fun clear() {
+        folderParents.clear()
+    }
+
+    /**
+     * @return the handle of the parent, or null if the folder is a root or can't be found
+     */
+    private suspend fun getParentHandle(folderHandle: Long): Long? {
+        val parentHandle = folderParents[folderHandle]
+            ?: megaApiGateway.getMegaNodeByHandle(folderHandle)?.parentHandle
+                ?.also { folderParents[folderHandle] = it }
+            ?: return null
+        return parentHandle.takeUnless { it == MegaApiJava.INVALID_HANDLE }
+    }
+
+    private companion object {
+        /**
+         * Bound of the walk up, in case the index is inconsistent while folders are being moved
+         */
+        const val MAX_DEPTH = 1024
+    }
+}
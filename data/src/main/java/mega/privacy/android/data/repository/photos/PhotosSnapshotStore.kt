@@ -0,0 +1,198 @@
+package mega.privacy.android.data.repository.photos
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.withContext
+import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.data.constant.FileConstant
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.FileTypeInfoMapper
+import mega.privacy.android.data.wrapper.DateUtilWrapper
+import mega.privacy.android.domain.entity.PlayableFileTypeInfo
+import mega.privacy.android.domain.entity.VideoFileTypeInfo
+import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import timber.log.Timber
+import java.io.BufferedInputStream
+import java.io.BufferedOutputStream
+import java.io.DataInputStream
+import java.io.DataOutputStream
+import java.io.File
+import java.time.LocalDateTime
+import java.time.ZoneId
+import javax.inject.Inject
+
+/**
+ * Persistent snapshot of the photos of the timeline
+ *
+ * The photos are stored in a compact binary file in the cache, so they can be shown as soon as
+ * the app starts, while the full scan of the cloud drive is still running. Only the fields that
+ * can't be derived are stored, the file type is derived again from the extension and the duration.
+ * The names and the paths are not stored, so the file doesn't reveal the content of the account.
+ * The photos are read with an empty name until the full scan replaces them, so the photos search
+ * waits for the scan while any photo has an empty name. Their thumbnail and preview paths are
+ * derived from their handles, as the photos of the scan do.
+ *
+ * The snapshot belongs to an account, it is ignored if it was written by another one.
+ */
+internal class PhotosSnapshotStore @Inject constructor(
+    private val cacheGateway: CacheGateway,
+    private val megaApiGateway: MegaApiGateway,
+    private val fileTypeInfoMapper: FileTypeInfoMapper,
+    private val dateUtilFacade: DateUtilWrapper,
+    @IoDispatcher private val ioDispatcher: CoroutineDispatcher,
+) {
+
+    /**
+     * Read the snapshot
+     *
+     * @param userHandle the handle of the current account
+     * @return the photos of the snapshot, or null if there is no valid snapshot for the account
+     */
+    suspend fun read(userHandle: Long): List<Photo>? = withContext(ioDispatcher) {
+        val file = getSnapshotFile()?.takeIf { it.exists() } ?: return@withContext null
+        runCatching {
+            val thumbnailFolderPath =
+                cacheGateway.getOrCreateCacheFolder(CacheFolderConstant.THUMBNAIL_FOLDER)?.path
+            val previewFolderPath =
+                cacheGateway.getOrCreateCacheFolder(CacheFolderConstant.PREVIEW_FOLDER)?.path
+            DataInputStream(BufferedInputStream(file.inputStream())).use { input ->
+                if (input.readInt() != MAGIC || input.readInt() != VERSION) return@use null
+                if (input.readLong() != userHandle) return@use null
+                List(input.readInt()) { input.readPhoto(thumbnailFolderPath, previewFolderPath) }
+            }
+        }.onFailure {
+            Timber.w(it, "Photos snapshot could not be read")
+        }.getOrNull()
+    }
+
+    /**
+     * Replace the snapshot
+     *
+     * The snapshot is written to a temporary file first, so a failure never leaves a truncated
+     * snapshot behind.
+     *
+     * @param userHandle the handle of the current account
+     * @param photos the photos to store
+     */
+    suspend fun write(userHandle: Long, photos: Collection<Photo>) = withContext(ioDispatcher) {
+        val file = getSnapshotFile() ?: return@withContext
+        val temporaryFile = File(file.parentFile, "${file.name}.tmp")
+        runCatching {
+            DataOutputStream(BufferedOutputStream(temporaryFile.outputStream())).use { output ->
+                output.writeInt(MAGIC)
+                output.writeInt(VERSION)
+                output.writeLong(userHandle)
+                output.writeInt(photos.size)
+                photos.forEach { output.writePhoto(it) }
+            }
+            if (!temporaryFile.renameTo(file)) error("Photos snapshot could not be renamed")
+        }.onFailure {
+            Timber.w(it, "Photos snapshot could not be written")
+            temporaryFile.delete()
+        }
+    }
+
+    /**
+     * Delete the snapshot
+     */
+    suspend fun clear() {
+        withContext(ioDispatcher) {
+            getSnapshotFile()?.delete()
+        }
+    }
+
+    private suspend fun getSnapshotFile() =
+        cacheGateway.getCacheFile(CacheFolderConstant.PHOTOS_FOLDER, SNAPSHOT_FILE_NAME)
+
+    private fun DataOutputStream.writePhoto(photo: Photo) {
+        writeByte(if (photo is Photo.Video) TYPE_VIDEO else TYPE_IMAGE)
+        writeLong(photo.id)
+        writeLong(photo.parentId)
+        writeUTF(photo.fileTypeInfo.extension)
+        writeLong(photo.creationTime.toEpochSecond())
+        writeLong(photo.modificationTime.toEpochSecond())
+        writeInt(
+            (photo.fileTypeInfo as? PlayableFileTypeInfo)?.duration?.inWholeSeconds?.toInt() ?: 0
+        )
+        writeLong(photo.size)
+        var flags = 0
+        if (photo.isFavourite) flags = flags or FLAG_FAVOURITE
+        if (photo.isTakenDown) flags = flags or FLAG_TAKEN_DOWN
+        if (photo.isSensitive) flags = flags or FLAG_SENSITIVE
+        if (photo.isSensitiveInherited) flags = flags or FLAG_SENSITIVE_INHERITED
+        writeByte(flags)
+    }
+
+    private fun DataInputStream.readPhoto(
+        thumbnailFolderPath: String?,
+        previewFolderPath: String?,
+    ): Photo {
+        val type = readByte().toInt()
+        val id = readLong()
+        val parentId = readLong()
+        val extension = readUTF()
+        val creationTime = dateUtilFacade.fromEpoch(readLong())
+        val modificationTime = dateUtilFacade.fromEpoch(readLong())
+        // The mapper only uses the extension of the name
+        val fileTypeInfo = fileTypeInfoMapper(".$extension", readInt())
+        val size = readLong()
+        val flags = readByte().toInt()
+        val base64Handle = megaApiGateway.handleToBase64(id)
+        val thumbnailFilePath = thumbnailFolderPath?.let { "$it${File.separator}$base64Handle" }
+        val previewFilePath = previewFolderPath?.let {
+            "$it${File.separator}$base64Handle${FileConstant.JPG_EXTENSION}"
+        }
+        // A video whose extension is not mapped to a video anymore is shown as an image
+        val videoFileTypeInfo = (fileTypeInfo as? VideoFileTypeInfo)?.takeIf { type == TYPE_VIDEO }
+        return if (videoFileTypeInfo != null) {
+            Photo.Video(
+                id = id,
+                parentId = parentId,
+                name = "",
+                isFavourite = flags and FLAG_FAVOURITE != 0,
+                creationTime = creationTime,
+                modificationTime = modificationTime,
+                thumbnailFilePath = thumbnailFilePath,
+                previewFilePath = previewFilePath,
+                fileTypeInfo = videoFileTypeInfo,
+                size = size,
+                isTakenDown = flags and FLAG_TAKEN_DOWN != 0,
+                isSensitive = flags and FLAG_SENSITIVE != 0,
+                isSensitiveInherited = flags and FLAG_SENSITIVE_INHERITED != 0,
+            )
+        } else {
+            Photo.Image(
+                id = id,
+                parentId = parentId,
+                name = "",
+                isFavourite = flags and FLAG_FAVOURITE != 0,
+                creationTime = creationTime,
+                modificationTime = modificationTime,
+                thumbnailFilePath = thumbnailFilePath,
+                previewFilePath = previewFilePath,
+                fileTypeInfo = fileTypeInfo,
+                size = size,
+                isTakenDown = flags and FLAG_TAKEN_DOWN != 0,
+                isSensitive = flags and FLAG_SENSITIVE != 0,
+                isSensitiveInherited = flags and FLAG_SENSITIVE_INHERITED != 0,
+            )
+        }
+    }
+
+    // Same zone as DateUtilWrapper.fromEpoch
+    private fun LocalDateTime.toEpochSecond() =
+        atZone(ZoneId.systemDefault()).toEpochSecond()
+
+    private companion object {
+        const val SNAPSHOT_FILE_NAME = "timeline.snapshot"
+        const val MAGIC = 0x4D505453 // "MPTS"
+        const val VERSION = 2
+        const val TYPE_IMAGE = 0
+        const val TYPE_VIDEO = 1
+        const val FLAG_FAVOURITE = 1
+        const val FLAG_TAKEN_DOWN = 1 shl 1
+        const val FLAG_SENSITIVE = 1 shl 2
+        const val FLAG_SENSITIVE_INHERITED = 1 shl 3
+    }
+}
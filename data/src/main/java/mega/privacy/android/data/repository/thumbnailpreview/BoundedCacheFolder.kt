@@ -0,0 +1,441 @@
+package mega.privacy.android.data.repository.thumbnailpreview
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.CoroutineStart
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.async
+import kotlinx.coroutines.launch
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import timber.log.Timber
+import java.io.File
+import java.io.FileOutputStream
+import java.io.Writer
+import java.util.concurrent.atomic.AtomicBoolean
+
+/**
+ * Cache folder bounded to [maxBytes], with least recently used eviction
+ *
+ * The files of the folder and their sizes are kept in memory in access order. Every store and
+ * removal is appended to a small journal in the folder, so the order survives restarts, and the
+ * journal is compacted once it grows too much. Reads are only appended in batches of
+ * [JOURNAL_READ_BATCH_SIZE] distinct files, or before the next store or removal, as losing the
+ * last ones only makes the order slightly less accurate.
+ *
+ * The folder is loaded in [scope] as soon as this is created, reconciling the journal with the
+ * files actually in the folder, as other components write to it as well. The accesses and stores
+ * before the folder is loaded don't wait for it, they are applied once it is.
+ *
+ * The files held with [hold], such as the thumbnails shown on screen, are never evicted, so the
+ * folder may exceed [maxBytes] while they are held. Downloads of the same file are coalesced, a
+ * download requested while another one of the same file is in flight waits for it instead of
+ * requesting the file again.
+ *
+ * The hits, misses, evictions and coalesced downloads are counted, and the counters are reported
+ * as the metrics of a [traceName] trace every [REPORT_INTERVAL_ACCESSES] accesses.
+ *
+ * All the methods are thread safe.
+ *
+ * @property cacheGateway the [CacheGateway] to get the folder
+ * @property folderName the name of the folder in the cache
+ * @property maxBytes the maximum size of the files of the folder
+ * @property scope the scope where the folder is loaded and the downloads run, so they are not
+ * cancelled with the caller
+ * @property ioDispatcher the dispatcher of the loading and the downloads
+ * @property performanceReporterRepository the repository where the counters are reported
+ * @property traceName the name of the trace of the counters
+ */
+internal class BoundedCacheFolder(
+    private val cacheGateway: CacheGateway,
+    private val folderName: String,
+    private val maxBytes: Long,
+    private val scope: CoroutineScope,
+    private val ioDispatcher: CoroutineDispatcher,
+    private val performanceReporterRepository: PerformanceReporterRepository,
+    private val traceName: String,
+) {
+
+    private val lock = Any()
+
+    // File name to size, in access order
+    private val entries = LinkedHashMap<String, Long>(INITIAL_CAPACITY, LOAD_FACTOR, true)
+
+    private val requests = HashMap<String, Deferred<Result<File>>>()
+
+    // Holder to the names of the files it holds
+    private val holds = HashMap<Any, Set<String>>()
+
+    // Files accessed or stored before the folder is loaded, in access order
+    private val pendingAccesses = LinkedHashSet<String>()
+
+    // Files read and not appended to the journal yet, in access order
+    private val unjournaledReads = LinkedHashSet<String>()
+
+    private val isLoading = AtomicBoolean(false)
+
+    @Volatile
+    private var isLoaded = false
+
+    private var folder: File? = null
+
+    private var journal: Writer? = null
+
+    private var journalRecords = 0
+
+    private var totalBytes = 0L
+
+    private var hits = 0L
+
+    private var misses = 0L
+
+    private var evictions = 0L
+
+    private var coalescedRequests = 0L
+
+    private var accessesSinceReport = 0
+
+    init {
+        startLoading()
+    }
+
+    /**
+     * Get a file of the folder if it exists, and mark it as the most recently used
+     *
+     * @param file the file, null counts as a miss
+     * @return the file if it exists
+     */
+    fun get(file: File?): File? {
+        val existingFile = file?.takeIf { it.exists() }
+        val stats = synchronized(lock) {
+            when {
+                existingFile == null -> misses++
+                !isLoaded -> {
+                    hits++
+                    addPendingAccess(existingFile.name)
+                }
+
+                entries[existingFile.name] == null -> {
+                    hits++
+                    put(existingFile.name, existingFile.length())
+                }
+
+                else -> {
+                    hits++
+                    read(existingFile.name)
+                }
+            }
+            getStatsToReport()
+        }
+        stats?.let { report(it) }
+        if (existingFile != null && !isLoaded) startLoading()
+        return existingFile
+    }
+
+    /**
+     * Download a file of the folder, or wait for the download in flight of the same file
+     *
+     * @param file the file to download
+     * @param download downloads the file
+     * @return the file once downloaded
+     */
+    suspend fun fetch(file: File, download: suspend () -> Unit): File =
+        fetchAsync(file, download).await().getOrThrow()
+
+    /**
+     * Same as [fetch], without waiting for the download
+     *
+     * @return the request, completed with the result of the download
+     */
+    fun fetchAsync(file: File, download: suspend () -> Unit): Deferred<Result<File>> {
+        val request = synchronized(lock) {
+            requests[file.name]?.let {
+                coalescedRequests++
+                return it
+            }
+            scope.async(ioDispatcher, start = CoroutineStart.LAZY) {
+                runCatching {
+                    download()
+                    onStored(file)
+                    file
+                }
+            }.also { request ->
+                requests[file.name] = request
+                request.invokeOnCompletion {
+                    synchronized(lock) {
+                        if (requests[file.name] === request) requests.remove(file.name)
+                    }
+                }
+            }
+        }
+        // Started out of the lock, as it may run right away in the current thread
+        request.start()
+        return request
+    }
+
+    /**
+     * Track a file written to the folder, evicting the least recently used files if the folder
+     * exceeds [maxBytes]
+     */
+    fun onStored(file: File) {
+        if (!file.exists()) return
+        synchronized(lock) {
+            if (isLoaded) put(file.name, file.length()) else addPendingAccess(file.name)
+        }
+        if (!isLoaded) startLoading()
+    }
+
+    /**
+     * Stop tracking a file deleted from the folder
+     */
+    fun onRemoved(fileName: String) {
+        synchronized(lock) {
+            pendingAccesses.remove(fileName)
+            unjournaledReads.remove(fileName)
+            val size = entries.remove(fileName) ?: return
+            totalBytes -= size
+            appendToJournal("$DELETE $fileName", flush = true)
+        }
+    }
+
+    /**
+     * Hold files of the folder so they are not evicted, replacing the ones held by the same holder
+     *
+     * The files released are evicted by the next store if the folder exceeds [maxBytes].
+     *
+     * @param holder the holder of the files
+     * @param fileNames the names of the files to hold, empty to release them all
+     */
+    fun hold(holder: Any, fileNames: Collection<String>) {
+        synchronized(lock) {
+            if (fileNames.isEmpty()) holds.remove(holder) else holds[holder] = fileNames.toHashSet()
+        }
+    }
+
+    /**
+     * Get the counters of the folder
+     */
+    fun getStats() = synchronized(lock) { createStats() }
+
+    private fun createStats() = BoundedCacheFolderStats(
+        hits = hits,
+        misses = misses,
+        evictions = evictions,
+        coalescedRequests = coalescedRequests,
+        files = entries.size,
+        totalBytes = totalBytes,
+        maxBytes = maxBytes,
+    )
+
+    // Must be called holding the lock
+    private fun getStatsToReport(): BoundedCacheFolderStats? {
+        if (++accessesSinceReport < REPORT_INTERVAL_ACCESSES) return null
+        accessesSinceReport = 0
+        return createStats()
+    }
+
+    private fun report(stats: BoundedCacheFolderStats) {
+        runCatching {
+            with(performanceReporterRepository) {
+                startTrace(traceName)
+                putMetric(traceName, HITS_METRIC, stats.hits)
+                putMetric(traceName, MISSES_METRIC, stats.misses)
+                putMetric(traceName, EVICTIONS_METRIC, stats.evictions)
+                putMetric(traceName, COALESCED_REQUESTS_METRIC, stats.coalescedRequests)
+                putMetric(traceName, FILES_METRIC, stats.files.toLong())
+                putMetric(traceName, TOTAL_BYTES_METRIC, stats.totalBytes)
+                stopTrace(traceName)
+            }
+        }.onFailure { Timber.w(it) }
+    }
+
+    private fun addPendingAccess(fileName: String) {
+        pendingAccesses.remove(fileName)
+        pendingAccesses.add(fileName)
+    }
+
+    private fun read(fileName: String) {
+        unjournaledReads.remove(fileName)
+        unjournaledReads.add(fileName)
+        if (unjournaledReads.size >= JOURNAL_READ_BATCH_SIZE) {
+            appendReadsToJournal()
+            journal?.flushQuietly()
+        }
+    }
+
+    private fun put(fileName: String, size: Long) {
+        val previousSize = entries.put(fileName, size) ?: 0L
+        totalBytes += size - previousSize
+        unjournaledReads.remove(fileName)
+        appendReadsToJournal()
+        appendToJournal("$STORE $size $fileName", flush = true)
+        evict(keep = fileName)
+    }
+
+    private fun evict(keep: String?) {
+        val folder = folder ?: return
+        val iterator = entries.entries.iterator()
+        while (totalBytes > maxBytes && iterator.hasNext()) {
+            val (fileName, size) = iterator.next()
+            if (fileName == keep || holds.values.any { fileName in it }) continue
+            File(folder, fileName).delete()
+            iterator.remove()
+            totalBytes -= size
+            evictions++
+            unjournaledReads.remove(fileName)
+            appendToJournal("$DELETE $fileName", flush = false)
+        }
+        journal?.flushQuietly()
+    }
+
+    private fun startLoading() {
+        if (!isLoading.compareAndSet(false, true)) return
+        scope.launch(ioDispatcher) {
+            try {
+                load()
+            } finally {
+                isLoading.set(false)
+            }
+        }
+    }
+
+    private suspend fun load() {
+        if (isLoaded) return
+        // Tried again on the next access if the folder is not available yet
+        val folder = cacheGateway.getOrCreateCacheFolder(folderName) ?: return
+        synchronized(lock) {
+            this.folder = folder
+            loadJournal(folder)
+            pendingAccesses.forEach { fileName ->
+                val file = File(folder, fileName).takeIf { it.exists() } ?: return@forEach
+                val size = file.length()
+                if (entries[fileName] == size) read(fileName) else put(fileName, size)
+            }
+            pendingAccesses.clear()
+            isLoaded = true
+        }
+    }
+
+    private fun loadJournal(folder: File) {
+        val journalEntries = LinkedHashMap<String, Long>(INITIAL_CAPACITY, LOAD_FACTOR, true)
+        runCatching {
+            File(folder, JOURNAL_FILE_NAME).takeIf { it.exists() }?.forEachLine { line ->
+                val operation = line.substringBefore(' ')
+                val arguments = line.substringAfter(' ')
+                when (operation) {
+                    STORE -> journalEntries[arguments.substringAfter(' ')] =
+                        arguments.substringBefore(' ').toLong()
+                    // Reading it moves it to the end of the access order
+                    READ -> journalEntries[arguments]
+                    DELETE -> journalEntries.remove(arguments)
+                }
+            }
+        }.onFailure {
+            Timber.w(it, "Journal of $folderName could not be read")
+        }
+
+        // The files not in the journal were written by someone else, they are the least recent
+        val files = folder.listFiles { file ->
+            file.isFile && file.name != JOURNAL_FILE_NAME && file.name != JOURNAL_TEMPORARY_FILE_NAME
+        }.orEmpty().associateBy { it.name }
+        entries.clear()
+        files.values.filter { it.name !in journalEntries }.sortedBy { it.lastModified() }
+            .forEach { entries[it.name] = it.length() }
+        journalEntries.keys.filter { it in files }
+            .forEach { entries[it] = files.getValue(it).length() }
+        totalBytes = entries.values.sum()
+
+        rewriteJournal(folder)
+        evict(keep = null)
+    }
+
+    private fun rewriteJournal(folder: File) {
+        journal?.closeQuietly()
+        journal = null
+        // The order written already includes them
+        unjournaledReads.clear()
+        runCatching {
+            val journalFile = File(folder, JOURNAL_FILE_NAME)
+            val temporaryFile = File(folder, JOURNAL_TEMPORARY_FILE_NAME)
+            temporaryFile.bufferedWriter().use { writer ->
+                entries.forEach { (fileName, size) -> writer.appendLine("$STORE $size $fileName") }
+            }
+            if (!temporaryFile.renameTo(journalFile)) error("Journal could not be renamed")
+            journalRecords = entries.size
+            journal = FileOutputStream(journalFile, true).bufferedWriter()
+        }.onFailure {
+            Timber.w(it, "Journal of $folderName could not be written")
+        }
+    }
+
+    private fun appendToJournal(record: String, flush: Boolean) {
+        val writer = journal ?: return
+        runCatching {
+            writer.appendLine(record)
+            if (flush) writer.flush()
+            journalRecords++
+        }.onFailure {
+            Timber.w(it, "Journal of $folderName could not be updated")
+            writer.closeQuietly()
+            journal = null
+        }
+        if (journalRecords > maxOf(JOURNAL_COMPACT_MIN_RECORDS, entries.size * 2)) {
+            folder?.let { rewriteJournal(it) }
+        }
+    }
+
+    private fun appendReadsToJournal() {
+        if (unjournaledReads.isEmpty()) return
+        val reads = unjournaledReads.toList()
+        unjournaledReads.clear()
+        reads.forEach { appendToJournal("$READ $it", flush = false) }
+    }
+
+    private fun Writer.flushQuietly() = runCatching { flush() }
+
+    private fun Writer.closeQuietly() = runCatching { close() }
+
+    companion object {
+        /**
+         * Number of accesses between two reports of the counters
+         */
+        const val REPORT_INTERVAL_ACCESSES = 256
+
+        internal const val HITS_METRIC = "hits"
+        internal const val MISSES_METRIC = "misses"
+        internal const val EVICTIONS_METRIC = "evictions"
+        internal const val COALESCED_REQUESTS_METRIC = "coalesced_requests"
+        internal const val FILES_METRIC = "files"
+        internal const val TOTAL_BYTES_METRIC = "total_bytes"
+        private const val JOURNAL_FILE_NAME = ".journal"
+        private const val JOURNAL_TEMPORARY_FILE_NAME = ".journal.tmp"
+        private const val JOURNAL_COMPACT_MIN_RECORDS = 2000
+        private const val JOURNAL_READ_BATCH_SIZE = 64
+        private const val STORE = "STORE"
+        private const val READ = "READ"
+        private const val DELETE = "DELETE"
+        private const val INITIAL_CAPACITY = 256
+        private const val LOAD_FACTOR = 0.75f
+    }
+}
+
+/**
+ * Counters of a [BoundedCacheFolder]
+ *
+ * @property hits number of files got that exist
+ * @property misses number of files got that don't exist
+ * @property evictions number of files evicted
+ * @property coalescedRequests number of downloads that waited for one in flight of the same file
+ * @property files number of files in the folder
+ * @property totalBytes size of the files in the folder
+ * @property maxBytes maximum size of the files in the folder
+ */
+internal data class BoundedCacheFolderStats(
+    val hits: Long,
+    val misses: Long,
+    val evictions: Long,
+    val coalescedRequests: Long,
+    val files: Int,
+    val totalBytes: Long,
+    val maxBytes: Long,
+)
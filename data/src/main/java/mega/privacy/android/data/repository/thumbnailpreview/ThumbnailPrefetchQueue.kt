@@ -0,0 +1,216 @@
+package mega.privacy.android.data.repository.thumbnailpreview
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.launch
+import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailPrefetchPriority
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import timber.log.Timber
+import java.util.concurrent.TimeUnit
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Priority queue of the thumbnails to prefetch
+ *
+ * There is a pending queue per [ThumbnailPrefetchPriority]. Submitting handles replaces the
+ * pending queue of their priority, so the thumbnails of the items scrolled off screen are dropped
+ * before being fetched. The higher priority queues are always emptied first, and at most
+ * [maxConcurrentRequests] thumbnails are fetched at the same time. A fetch already started is not
+ * cancelled, the SDK request would complete anyway.
+ *
+ * Each burst of work, from the first submitted handle until the queue is empty again, is reported
+ * as a trace with the maximum queue depth, the number of thumbnails fetched, dropped and failed,
+ * and the latency percentiles, from the moment a handle is submitted until its thumbnail is
+ * fetched.
+ *
+ * All the methods are thread safe.
+ *
+ * @property scope the scope where the thumbnails are fetched
+ * @property maxConcurrentRequests the maximum number of thumbnails fetched at the same time
+ * @property performanceReporterRepository the repository where the bursts are reported
+ */
+@Singleton
+internal class ThumbnailPrefetchQueue(
+    private val scope: CoroutineScope,
+    private val maxConcurrentRequests: Int,
+    private val performanceReporterRepository: PerformanceReporterRepository,
+) {
+
+    @Inject
+    constructor(
+        @ApplicationScope scope: CoroutineScope,
+        performanceReporterRepository: PerformanceReporterRepository,
+    ) : this(scope, MAX_CONCURRENT_REQUESTS, performanceReporterRepository)
+
+    private class Item(
+        val handle: Long,
+        val submittedAt: Long,
+        val fetch: suspend (Long) -> Unit,
+    )
+
+    private val lock = Any()
+
+    private val pending = Array(ThumbnailPrefetchPriority.entries.size) {
+        LinkedHashMap<Long, Item>()
+    }
+
+    private val inFlight = HashSet<Long>()
+
+    // Latest latencies in milliseconds, as a ring buffer
+    private val latencies = LongArray(LATENCY_SAMPLES)
+
+    private var latencyCount = 0
+
+    private var isBurstInProgress = false
+
+    private var burstMaxQueueDepth = 0
+
+    private var burstFetched = 0L
+
+    private var burstDropped = 0L
+
+    private var burstFailed = 0L
+
+    /**
+     * Submit the handles of a priority, replacing the pending ones of the same priority
+     *
+     * The handles already pending with a higher priority or being fetched are ignored, and the ones
+     * pending with a lower priority are promoted.
+     *
+     * @param handles the handles, in the order they should be fetched
+     * @param priority the [ThumbnailPrefetchPriority] of the handles
+     * @param fetch fetches the thumbnail of a handle
+     */
+    fun submit(
+        handles: List<Long>,
+        priority: ThumbnailPrefetchPriority,
+        fetch: suspend (Long) -> Unit,
+    ) {
+        synchronized(lock) {
+            val now = System.nanoTime()
+            val previous = pending[priority.ordinal]
+            val current = LinkedHashMap<Long, Item>(handles.size)
+            handles.forEach { handle ->
+                if (handle in inFlight || handle in current) return@forEach
+                if ((0 until priority.ordinal).any { handle in pending[it] }) return@forEach
+                current[handle] = previous.remove(handle)
+                    ?: removeFromLowerPriorities(handle, priority)
+                            ?: Item(handle, now, fetch)
+            }
+            pending[priority.ordinal] = current
+            burstDropped += previous.size
+            if (!isBurstInProgress && current.isNotEmpty()) startBurst()
+            burstMaxQueueDepth = maxOf(burstMaxQueueDepth, getQueueDepth())
+        }
+        dispatch()
+    }
+
+    /**
+     * Drop all the pending handles
+     */
+    fun clear() {
+        synchronized(lock) {
+            pending.forEach {
+                burstDropped += it.size
+                it.clear()
+            }
+        }
+        dispatch()
+    }
+
+    private fun removeFromLowerPriorities(handle: Long, priority: ThumbnailPrefetchPriority) =
+        (priority.ordinal + 1 until pending.size).firstNotNullOfOrNull { pending[it].remove(handle) }
+
+    private fun dispatch() {
+        val items = synchronized(lock) {
+            buildList {
+                while (inFlight.size < maxConcurrentRequests) {
+                    val item = pending.firstOrNull { it.isNotEmpty() }?.let { queue ->
+                        queue.remove(queue.keys.first())
+                    } ?: break
+                    inFlight.add(item.handle)
+                    add(item)
+                }
+                if (isEmpty() && inFlight.isEmpty() && isBurstInProgress) stopBurst()
+            }
+        }
+        items.forEach { item ->
+            scope.launch {
+                val result = runCatching { item.fetch(item.handle) }
+                    .onFailure { Timber.d(it, "Thumbnail of ${item.handle} not prefetched") }
+                onFinished(item, result.isSuccess)
+            }
+        }
+    }
+
+    private fun onFinished(item: Item, isSuccess: Boolean) {
+        synchronized(lock) {
+            inFlight.remove(item.handle)
+            if (isSuccess) {
+                val latency = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - item.submittedAt)
+                latencies[latencyCount % LATENCY_SAMPLES] = latency
+                latencyCount++
+                burstFetched++
+            } else {
+                burstFailed++
+            }
+        }
+        dispatch()
+    }
+
+    private fun getQueueDepth() = pending.sumOf { it.size }
+
+    private fun startBurst() {
+        isBurstInProgress = true
+        burstMaxQueueDepth = 0
+        burstFetched = 0L
+        burstDropped = 0L
+        burstFailed = 0L
+        latencyCount = 0
+        runCatching { performanceReporterRepository.startTrace(PREFETCH_TRACE) }
+            .onFailure { Timber.w(it) }
+    }
+
+    private fun stopBurst() {
+        isBurstInProgress = false
+        val sortedLatencies = latencies.copyOf(minOf(latencyCount, LATENCY_SAMPLES)).apply { sort() }
+        Timber.d(
+            "Thumbnail prefetch fetched $burstFetched, dropped $burstDropped, " +
+                    "failed $burstFailed, max queue depth $burstMaxQueueDepth, " +
+                    "p50 ${sortedLatencies.percentile(50)} ms, p99 ${sortedLatencies.percentile(99)} ms"
+        )
+        runCatching {
+            with(performanceReporterRepository) {
+                putMetric(PREFETCH_TRACE, MAX_QUEUE_DEPTH_METRIC, burstMaxQueueDepth.toLong())
+                putMetric(PREFETCH_TRACE, FETCHED_METRIC, burstFetched)
+                putMetric(PREFETCH_TRACE, DROPPED_METRIC, burstDropped)
+                putMetric(PREFETCH_TRACE, FAILED_METRIC, burstFailed)
+                putMetric(PREFETCH_TRACE, LATENCY_P50_METRIC, sortedLatencies.percentile(50))
+                putMetric(PREFETCH_TRACE, LATENCY_P90_METRIC, sortedLatencies.percentile(90))
+                putMetric(PREFETCH_TRACE, LATENCY_P99_METRIC, sortedLatencies.percentile(99))
+                stopTrace(PREFETCH_TRACE)
+            }
+        }.onFailure { Timber.w(it) }
+    }
+
+    private fun LongArray.percentile(percentile: Int) =
+        if (isEmpty()) 0L else this[((size - 1) * percentile + 50) / 100]
+
+    companion object {
+        /**
+         * Default maximum number of thumbnails fetched at the same time
+         */
+        const val MAX_CONCURRENT_REQUESTS = 4
+
+        internal const val PREFETCH_TRACE = "thumbnail_prefetch"
+        internal const val MAX_QUEUE_DEPTH_METRIC = "max_queue_depth"
+        internal const val FETCHED_METRIC = "fetched"
+        internal const val DROPPED_METRIC = "dropped"
+        internal const val FAILED_METRIC = "failed"
+        internal const val LATENCY_P50_METRIC = "latency_p50_ms"
+        internal const val LATENCY_P90_METRIC = "latency_p90_ms"
+        internal const val LATENCY_P99_METRIC = "latency_p99_ms"
+        private const val LATENCY_SAMPLES = 512
+    }
+}
@@ -0,0 +1,82 @@
+package mega.privacy.android.data.repository.thumbnailpreview
+
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import mega.privacy.android.domain.qualifier.IoDispatcher
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import javax.inject.Inject
+import javax.inject.Singleton
+
+/**
+ * Process wide state of the thumbnail and preview cache folders
+ *
+ * [ThumbnailPreviewRepositoryImpl] is created for each consumer, so the size of the folders, the
+ * order of access and the downloads in flight are kept here to be shared by all of them. The
+ * counters of each folder are reported to [PerformanceReporterRepository].
+ *
+ * @property thumbnails the thumbnail folder, bounded to [maxThumbnailBytes]
+ * @property previews the preview folder, bounded to [maxPreviewBytes]
+ */
+@Singleton
+internal class ThumbnailPreviewCache(
+    cacheGateway: CacheGateway,
+    scope: CoroutineScope,
+    ioDispatcher: CoroutineDispatcher,
+    performanceReporterRepository: PerformanceReporterRepository,
+    maxThumbnailBytes: Long,
+    maxPreviewBytes: Long,
+) {
+
+    @Inject
+    constructor(
+        cacheGateway: CacheGateway,
+        @ApplicationScope scope: CoroutineScope,
+        @IoDispatcher ioDispatcher: CoroutineDispatcher,
+        performanceReporterRepository: PerformanceReporterRepository,
+    ) : this(
+        cacheGateway = cacheGateway,
+        scope = scope,
+        ioDispatcher = ioDispatcher,
+        performanceReporterRepository = performanceReporterRepository,
+        maxThumbnailBytes = MAX_THUMBNAIL_BYTES,
+        maxPreviewBytes = MAX_PREVIEW_BYTES,
+    )
+
+    val thumbnails = BoundedCacheFolder(
+        cacheGateway = cacheGateway,
+        folderName = CacheFolderConstant.THUMBNAIL_FOLDER,
+        maxBytes = maxThumbnailBytes,
+        scope = scope,
+        ioDispatcher = ioDispatcher,
+        performanceReporterRepository = performanceReporterRepository,
+        traceName = THUMBNAIL_CACHE_TRACE,
+    )
+
+    val previews = BoundedCacheFolder(
+        cacheGateway = cacheGateway,
+        folderName = CacheFolderConstant.PREVIEW_FOLDER,
+        maxBytes = maxPreviewBytes,
+        scope = scope,
+        ioDispatcher = ioDispatcher,
+        performanceReporterRepository = performanceReporterRepository,
+        traceName = PREVIEW_CACHE_TRACE,
+    )
+
+    companion object {
+        /**
+         * Default maximum size of the thumbnail folder
+         */
+        const val MAX_THUMBNAIL_BYTES = 100L * 1024 * 1024
+
+        /**
+         * Default maximum size of the preview folder
+         */
+        const val MAX_PREVIEW_BYTES = 250L * 1024 * 1024
+
+        internal const val THUMBNAIL_CACHE_TRACE = "thumbnail_cache"
+        internal const val PREVIEW_CACHE_TRACE = "preview_cache"
+    }
+}
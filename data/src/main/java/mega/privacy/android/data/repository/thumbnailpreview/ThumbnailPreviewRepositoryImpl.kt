@@ -1,6 +1,8 @@
 package mega.privacy.android.data.repository.thumbnailpreview
 
 import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.Deferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.suspendCancellableCoroutine
 import kotlinx.coroutines.withContext
 import mega.privacy.android.data.constant.CacheFolderConstant
@@ -11,19 +13,26 @@ import mega.privacy.android.data.extensions.getThumbnailFileName
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
-import mega.privacy.android.data.listener.OptionalMegaRequestListenerInterface
 import mega.privacy.android.data.mapper.node.MegaNodeMapper
 import mega.privacy.android.data.wrapper.StringWrapper
 import mega.privacy.android.domain.entity.node.TypedNode
+import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailPrefetchPriority
 import mega.privacy.android.domain.entity.uri.UriPath
 import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
-import nz.mega.sdk.MegaError
 import nz.mega.sdk.MegaNode
 import timber.log.Timber
 import java.io.File
 import javax.inject.Inject
 
+/**
+ * Implementation of [ThumbnailPreviewRepository]
+ *
+ * Thumbnails and previews go through [ThumbnailPreviewCache], which keeps the cache folders under
+ * their maximum size and coalesces the downloads of the same file. Prefetched thumbnails are
+ * scheduled by [ThumbnailPrefetchQueue], and held in the cache until the next prefetch of the
+ * same priority.
+ */
 internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
     private val megaApi: MegaApiGateway,
     private val megaApiFolder: MegaApiFolderGateway,
@@ -31,22 +40,24 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
     private val cacheGateway: CacheGateway,
     private val stringWrapper: StringWrapper,
     private val megaNodeMapper: MegaNodeMapper,
+    private val thumbnailPreviewCache: ThumbnailPreviewCache,
+    private val thumbnailPrefetchQueue: ThumbnailPrefetchQueue,
 ) : ThumbnailPreviewRepository {
 
     override suspend fun getThumbnailFromLocal(handle: Long): File? =
         withContext(ioDispatcher) {
-            cacheGateway.getCacheFile(
-                CacheFolderConstant.THUMBNAIL_FOLDER,
-                getThumbnailFileName(handle)
-            )?.takeIf { it.exists() }
+            thumbnailPreviewCache.thumbnails.get(
+                cacheGateway.getCacheFile(
+                    CacheFolderConstant.THUMBNAIL_FOLDER,
+                    getThumbnailFileName(handle)
+                )
+            )
         }
 
     override suspend fun getPublicNodeThumbnailFromLocal(handle: Long): File? =
         withContext(ioDispatcher) {
-            megaApiFolder.getMegaNodeByHandle(handle)?.run {
-                getThumbnailFile(this).takeIf {
-                    it?.exists() ?: false
-                }
+            megaApiFolder.getMegaNodeByHandle(handle)?.let {
+                thumbnailPreviewCache.thumbnails.get(getThumbnailFile(it))
             }
         }
 
@@ -61,11 +72,12 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
             megaApi.getMegaNodeByHandle(handle)?.let { node ->
                 if (!node.hasThumbnail()) return@withContext null
                 getThumbnailFile(node)?.let { thumbnail ->
-                    suspendCancellableCoroutine { continuation ->
-                        val listener = continuation.getRequestListener("getThumbnailFromServer") {
-                            thumbnail
+                    thumbnailPreviewCache.thumbnails.fetch(thumbnail) {
+                        suspendCancellableCoroutine { continuation ->
+                            val listener =
+                                continuation.getRequestListener("getThumbnailFromServer") {}
+                            megaApi.getThumbnail(node, thumbnail.absolutePath, listener)
                         }
-                        megaApi.getThumbnail(node, thumbnail.absolutePath, listener)
                     }
                 }
             }
@@ -75,12 +87,12 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         withContext(ioDispatcher) {
             megaApiFolder.getMegaNodeByHandle(handle)?.let { node ->
                 getThumbnailFile(node)?.let { thumbnail ->
-                    suspendCancellableCoroutine { continuation ->
-                        val listener =
-                            continuation.getRequestListener("getPublicNodeThumbnailFromServer") {
-                                thumbnail
-                            }
-                        megaApiFolder.getThumbnail(node, thumbnail.absolutePath, listener)
+                    thumbnailPreviewCache.thumbnails.fetch(thumbnail) {
+                        suspendCancellableCoroutine { continuation ->
+                            val listener =
+                                continuation.getRequestListener("getPublicNodeThumbnailFromServer") {}
+                            megaApiFolder.getThumbnail(node, thumbnail.absolutePath, listener)
+                        }
                     }
                 }
             }
@@ -96,10 +108,8 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
     override suspend fun getPreviewFromLocal(typedNode: TypedNode): File? =
         withContext(ioDispatcher) {
             runCatching {
-                megaNodeMapper(typedNode)?.run {
-                    getPreviewFile(this).takeIf {
-                        it?.exists() ?: false
-                    }
+                megaNodeMapper(typedNode)?.let {
+                    thumbnailPreviewCache.previews.get(getPreviewFile(it))
                 }
             }.onFailure {
                 Timber.e(it)
@@ -111,11 +121,12 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
             runCatching {
                 megaNodeMapper(typedNode)?.let { node ->
                     getPreviewFile(node)?.let { preview ->
-                        suspendCancellableCoroutine { continuation ->
-                            val listener = continuation.getRequestListener("getPreviewFromServer") {
-                                preview
+                        thumbnailPreviewCache.previews.fetch(preview) {
+                            suspendCancellableCoroutine { continuation ->
+                                val listener =
+                                    continuation.getRequestListener("getPreviewFromServer") {}
+                                megaApi.getPreview(node, preview.absolutePath, listener)
                             }
-                            megaApi.getPreview(node, preview.absolutePath, listener)
                         }
                     }
                 }
@@ -135,15 +146,13 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         if (node == null || thumbnailFolderPath == null || !node.hasThumbnail()) {
             callback(false)
         } else {
-            megaApi.getThumbnail(
-                node,
-                getThumbnailPath(thumbnailFolderPath, node),
-                OptionalMegaRequestListenerInterface(
-                    onRequestFinish = { _, error ->
-                        callback(error.errorCode == MegaError.API_OK)
-                    }
-                )
-            )
+            val thumbnail = File(getThumbnailPath(thumbnailFolderPath, node))
+            thumbnailPreviewCache.thumbnails.fetchAsync(thumbnail) {
+                suspendCancellableCoroutine { continuation ->
+                    val listener = continuation.getRequestListener("downloadThumbnail") {}
+                    megaApi.getThumbnail(node, thumbnail.absolutePath, listener)
+                }
+            }.invokeOnSuccess(callback)
         }
     }
 
@@ -158,15 +167,23 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         if (node == null || previewFolderPath == null || !node.hasPreview()) {
             callback(false)
         } else {
-            megaApi.getPreview(
-                node,
-                getPreviewPath(previewFolderPath, node),
-                OptionalMegaRequestListenerInterface(
-                    onRequestFinish = { _, error ->
-                        callback(error.errorCode == MegaError.API_OK)
-                    }
-                )
-            )
+            val preview = File(getPreviewPath(previewFolderPath, node))
+            thumbnailPreviewCache.previews.fetchAsync(preview) {
+                suspendCancellableCoroutine { continuation ->
+                    val listener = continuation.getRequestListener("downloadPreview") {}
+                    megaApi.getPreview(node, preview.absolutePath, listener)
+                }
+            }.invokeOnSuccess(callback)
+        }
+    }
+
+    /**
+     * Invoke [callback] once the download completes, without waiting for it
+     */
+    @OptIn(ExperimentalCoroutinesApi::class)
+    private fun Deferred<Result<File>>.invokeOnSuccess(callback: (success: Boolean) -> Unit) {
+        invokeOnCompletion { cause ->
+            callback(cause == null && getCompleted().isSuccess)
         }
     }
 
@@ -180,16 +197,14 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         if (node == null || thumbnailFolderPath == null || !node.hasThumbnail()) {
             return@withContext false
         } else {
-            return@withContext suspendCancellableCoroutine { continuation ->
-                val listener = continuation.getRequestListener("getThumbnail") {
-                    true
+            val thumbnail = File(getThumbnailPath(thumbnailFolderPath, node))
+            thumbnailPreviewCache.thumbnails.fetch(thumbnail) {
+                suspendCancellableCoroutine { continuation ->
+                    val listener = continuation.getRequestListener("getThumbnail") {}
+                    megaApi.getThumbnail(node, thumbnail.absolutePath, listener)
                 }
-                megaApi.getThumbnail(
-                    node,
-                    getThumbnailPath(thumbnailFolderPath, node),
-                    listener
-                )
             }
+            return@withContext true
         }
     }
 
@@ -203,16 +218,27 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         if (node == null || previewFolderPath == null || !node.hasPreview()) {
             return@withContext false
         } else {
-            return@withContext suspendCancellableCoroutine { continuation ->
-                val listener = continuation.getRequestListener("getThumbnail") {
-                    true
+            val preview = File(getPreviewPath(previewFolderPath, node))
+            thumbnailPreviewCache.previews.fetch(preview) {
+                suspendCancellableCoroutine { continuation ->
+                    val listener = continuation.getRequestListener("getThumbnail") {}
+                    megaApi.getPreview(node, preview.absolutePath, listener)
                 }
-                megaApi.getPreview(
-                    node,
-                    getPreviewPath(previewFolderPath, node),
-                    listener
-                )
+            }
+            return@withContext true
+        }
+    }
 
+    override suspend fun prefetchThumbnails(
+        handles: List<Long>,
+        priority: ThumbnailPrefetchPriority,
+    ) {
+        // The thumbnails around the scroll position are shown, they must not be evicted
+        val fileNames = withContext(ioDispatcher) { handles.map { megaApi.handleToBase64(it) } }
+        thumbnailPreviewCache.thumbnails.hold(priority, fileNames)
+        thumbnailPrefetchQueue.submit(handles, priority) { handle ->
+            withContext(ioDispatcher) {
+                getThumbnailFromLocal(handle) ?: getThumbnailFromServer(handle)
             }
         }
     }
@@ -248,7 +274,9 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
             val thumbnailFileName = getThumbnailFileName(handle)
             val thumbnailFile = getThumbnailFile(thumbnailFileName)
             requireNotNull(thumbnailFile)
-            megaApi.createThumbnail(uriPath.value, thumbnailFile.absolutePath)
+            megaApi.createThumbnail(uriPath.value, thumbnailFile.absolutePath).also {
+                thumbnailPreviewCache.thumbnails.onStored(thumbnailFile)
+            }
         }
 
 
@@ -256,7 +284,9 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
         val previewFileName = getPreviewFileName(handle)
         val previewFile = getPreviewFile(previewFileName)
         requireNotNull(previewFile)
-        megaApi.createPreview(uriPath.value, previewFile.absolutePath)
+        megaApi.createPreview(uriPath.value, previewFile.absolutePath).also {
+            thumbnailPreviewCache.previews.onStored(previewFile)
+        }
     }
 
     override suspend fun createPreview(name: String, file: File) =
@@ -264,16 +294,20 @@ internal class ThumbnailPreviewRepositoryImpl @Inject constructor(
             val previewFileName = getPreviewFileName(name)
             val previewFile = getPreviewFile(previewFileName)
             requireNotNull(previewFile)
-            megaApi.createPreview(file.absolutePath, previewFile.absolutePath)
+            megaApi.createPreview(file.absolutePath, previewFile.absolutePath).also {
+                thumbnailPreviewCache.previews.onStored(previewFile)
+            }
         }
 
     override suspend fun deleteThumbnail(handle: Long) = withContext(ioDispatcher) {
         val thumbnailFileName = getThumbnailFileName(handle)
+        thumbnailPreviewCache.thumbnails.onRemoved(thumbnailFileName)
         getThumbnailFile(thumbnailFileName)?.takeIf { it.exists() }?.delete()
     }
 
     override suspend fun deletePreview(handle: Long) = withContext(ioDispatcher) {
         val previewFileName = getPreviewFileName(handle)
+        thumbnailPreviewCache.previews.onRemoved(previewFileName)
         getPreviewFile(previewFileName)?.takeIf { it.exists() }?.delete()
     }
 
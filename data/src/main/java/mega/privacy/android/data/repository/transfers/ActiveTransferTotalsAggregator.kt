@@ -0,0 +1,298 @@
+package mega.privacy.android.data.repository.transfers
+
+import mega.privacy.android.domain.entity.transfer.ActiveTransfer
+import mega.privacy.android.domain.entity.transfer.ActiveTransferActionGroup
+import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
+import mega.privacy.android.domain.entity.transfer.TransferAppData
+import mega.privacy.android.domain.entity.transfer.TransferType
+import mega.privacy.android.domain.entity.transfer.getTransferGroup
+import mega.privacy.android.domain.entity.transfer.pending.PendingTransferNodeIdentifier
+
+/**
+ * Incremental aggregator of the [ActiveTransferTotals] of a [TransferType]
+ *
+ * Keeps the contribution of each active transfer to the totals and to its action group, keyed by
+ * unique id, so inserting a transfer, finishing it or changing its transferred bytes is applied
+ * as a delta in constant time instead of aggregating again the whole list of active transfers.
+ * It produces the same totals as
+ * [mega.privacy.android.data.mapper.transfer.active.ActiveTransferTotalsMapper].
+ *
+ * All the methods are thread safe.
+ *
+ * @property transferType the [TransferType] of the aggregated transfers
+ */
+internal class ActiveTransferTotalsAggregator(private val transferType: TransferType) {
+
+    private class Entry(
+        var transfer: ActiveTransfer,
+        var groupId: Int?,
+        var transferredBytes: Long,
+    )
+
+    private class Group(val groupId: Int) {
+        var totalFiles = 0
+        var finishedFiles = 0
+        var completedFiles = 0
+        var alreadyTransferred = 0
+        var pausedFiles = 0
+        var totalBytes = 0L
+        var transferredBytes = 0L
+        val members = LinkedHashMap<Long, ActiveTransfer>()
+        var destination: String? = null
+        var startTime = 0L
+        var pendingTransferNodeId: PendingTransferNodeIdentifier? = null
+
+        // Derived from the members, only rebuilt when a member is added, removed or renamed
+        var fileNames: List<String>? = null
+        var singleTransferTag: Int? = null
+        var appData: List<TransferAppData> = emptyList()
+    }
+
+    private val entries = HashMap<Long, Entry>()
+
+    // Reported bytes, also of the transfers not added yet
+    private val transferredBytes = LongLongHashMap()
+
+    private val groups = LinkedHashMap<Int, Group>()
+
+    private var totalTransfers = 0
+    private var totalFileTransfers = 0
+    private var pausedFileTransfers = 0
+    private var totalFinishedTransfers = 0
+    private var totalFinishedFileTransfers = 0
+    private var totalCompletedFileTransfers = 0
+    private var totalBytes = 0L
+    private var totalTransferredBytes = 0L
+    private var totalAlreadyTransferredFiles = 0
+    private var totalCancelled = 0
+
+    /**
+     * Add an active transfer or update it if it was already added
+     */
+    @Synchronized
+    fun onActiveTransfer(activeTransfer: ActiveTransfer) = upsert(activeTransfer)
+
+    /**
+     * Set the transferred bytes of a transfer
+     *
+     * @param uniqueId the unique id of the transfer
+     * @param bytes the transferred bytes
+     */
+    @Synchronized
+    fun onTransferredBytes(uniqueId: Long, bytes: Long) {
+        transferredBytes.put(uniqueId, bytes)
+        val entry = entries[uniqueId] ?: return
+        if (entry.transferredBytes == bytes) return
+        applyContribution(entry, -1)
+        entry.transferredBytes = bytes
+        applyContribution(entry, 1)
+    }
+
+    /**
+     * Reconcile the aggregated transfers with the current list of active transfers
+     *
+     * Only the transfers that changed since the previous list are applied as deltas, and the
+     * transfers that are not in the list anymore are removed.
+     *
+     * Room emits the whole list of active transfers on every change, not the changed rows, so each
+     * emission is compared with the aggregated transfers in a single pass. That pass is linear in
+     * the size of the list, as reading and mapping the emitted rows already is, and it doesn't
+     * allocate anything for the unchanged transfers. The transferred bytes, which change far more
+     * often than the rows, don't go through Room and are applied one by one in constant time by
+     * [onTransferredBytes].
+     */
+    @Synchronized
+    fun setActiveTransfers(activeTransfers: List<ActiveTransfer>) {
+        activeTransfers.forEach { upsert(it) }
+        if (entries.size > activeTransfers.size) {
+            val uniqueIds = activeTransfers.mapTo(HashSet(activeTransfers.size)) { it.uniqueId }
+            entries.keys.filterNot { it in uniqueIds }.forEach { remove(it) }
+        }
+    }
+
+    /**
+     * Remove all the transfers and the transferred bytes
+     */
+    @Synchronized
+    fun clear() {
+        entries.clear()
+        transferredBytes.clear()
+        groups.clear()
+        totalTransfers = 0
+        totalFileTransfers = 0
+        pausedFileTransfers = 0
+        totalFinishedTransfers = 0
+        totalFinishedFileTransfers = 0
+        totalCompletedFileTransfers = 0
+        totalBytes = 0L
+        totalTransferredBytes = 0L
+        totalAlreadyTransferredFiles = 0
+        totalCancelled = 0
+    }
+
+    /**
+     * Get the ids of the action groups whose [ActiveTransferActionGroup] has not been set yet
+     */
+    @Synchronized
+    fun getActionGroupIdsWithoutInfo(): List<Int> =
+        groups.values.filter { it.destination == null }.map { it.groupId }
+
+    /**
+     * Set the information of an action group, it can't change so it's only needed once
+     */
+    @Synchronized
+    fun setActionGroupInfo(groupId: Int, actionGroup: ActiveTransferActionGroup) {
+        groups[groupId]?.apply {
+            destination = actionGroup.destination
+            startTime = actionGroup.startTime ?: 0L
+            pendingTransferNodeId = actionGroup.pendingTransferNodeId
+        }
+    }
+
+    /**
+     * Get the current totals
+     *
+     * Only the action groups whose information has been set are included.
+     */
+    @Synchronized
+    fun getTotals() = ActiveTransferTotals(
+        transfersType = transferType,
+        totalTransfers = totalTransfers,
+        totalFileTransfers = totalFileTransfers,
+        pausedFileTransfers = pausedFileTransfers,
+        totalFinishedTransfers = totalFinishedTransfers,
+        totalFinishedFileTransfers = totalFinishedFileTransfers,
+        totalCompletedFileTransfers = totalCompletedFileTransfers,
+        totalBytes = totalBytes,
+        transferredBytes = totalTransferredBytes,
+        totalAlreadyTransferredFiles = totalAlreadyTransferredFiles,
+        totalCancelled = totalCancelled,
+        actionGroups = groups.values.mapNotNull { it.toActionGroup() },
+    )
+
+    private fun upsert(transfer: ActiveTransfer) {
+        val entry = entries[transfer.uniqueId]
+        if (entry == null) {
+            val newEntry = Entry(
+                transfer = transfer,
+                groupId = groupIdOf(transfer),
+                transferredBytes = transferredBytes.get(transfer.uniqueId, NO_BYTES),
+            )
+            entries[transfer.uniqueId] = newEntry
+            addMember(newEntry)
+            applyContribution(newEntry, 1)
+            return
+        }
+        val previous = entry.transfer
+        if (previous == transfer) return
+        applyContribution(entry, -1)
+        val groupId = if (previous.appData == transfer.appData
+            && previous.isFolderTransfer == transfer.isFolderTransfer
+        ) entry.groupId else groupIdOf(transfer)
+        if (groupId == entry.groupId) {
+            entry.transfer = transfer
+            groupId?.let { groups[it] }?.let { group ->
+                group.members[transfer.uniqueId] = transfer
+                if (previous.fileName != transfer.fileName || previous.tag != transfer.tag
+                    || previous.appData != transfer.appData
+                ) group.fileNames = null
+            }
+        } else {
+            removeMember(entry)
+            entry.transfer = transfer
+            entry.groupId = groupId
+            addMember(entry)
+        }
+        applyContribution(entry, 1)
+    }
+
+    private fun remove(uniqueId: Long) {
+        val entry = entries.remove(uniqueId) ?: return
+        applyContribution(entry, -1)
+        removeMember(entry)
+    }
+
+    private fun addMember(entry: Entry) {
+        val groupId = entry.groupId ?: return
+        val group = groups.getOrPut(groupId) { Group(groupId) }
+        group.members[entry.transfer.uniqueId] = entry.transfer
+        group.fileNames = null
+    }
+
+    private fun removeMember(entry: Entry) {
+        val group = groups[entry.groupId ?: return] ?: return
+        group.members.remove(entry.transfer.uniqueId)
+        group.fileNames = null
+        if (group.members.isEmpty()) groups.remove(group.groupId)
+    }
+
+    /**
+     * Add ([sign] = 1) or subtract ([sign] = -1) the contribution of an entry to the totals
+     */
+    private fun applyContribution(entry: Entry, sign: Int) {
+        val transfer = entry.transfer
+        totalTransfers += sign
+        if (transfer.isFinished) totalFinishedTransfers += sign
+        if (transfer.isCancelled) totalCancelled += sign
+        if (transfer.isFolderTransfer) return
+
+        val isCompleted = transfer.isFinished && entry.transferredBytes == transfer.totalBytes
+        //if it's finished always totalBytes as it can be cancelled or failed
+        val bytes = when {
+            transfer.isFinished -> transfer.totalBytes
+            entry.transferredBytes == NO_BYTES -> 0L
+            else -> entry.transferredBytes
+        }
+        totalFileTransfers += sign
+        if (transfer.isPaused) pausedFileTransfers += sign
+        if (transfer.isFinished) totalFinishedFileTransfers += sign
+        if (isCompleted) totalCompletedFileTransfers += sign
+        if (transfer.isAlreadyTransferred) totalAlreadyTransferredFiles += sign
+        totalBytes += sign * transfer.totalBytes
+        totalTransferredBytes += sign * bytes
+
+        val group = groups[entry.groupId ?: return] ?: return
+        group.totalFiles += sign
+        if (transfer.isFinished) group.finishedFiles += sign
+        if (isCompleted) group.completedFiles += sign
+        if (transfer.isAlreadyTransferred) group.alreadyTransferred += sign
+        if (transfer.isPaused) group.pausedFiles += sign
+        group.totalBytes += sign * transfer.totalBytes
+        group.transferredBytes += sign * bytes
+    }
+
+    private fun Group.toActionGroup(): ActiveTransferTotals.ActionGroup? {
+        val destination = destination ?: return null
+        val fileNames = fileNames ?: members.values.let { transfers ->
+            singleTransferTag = transfers.singleOrNull()?.tag
+            appData = transfers
+                .flatMap { it.appData }
+                .filterNot { it is TransferAppData.TransferGroup } //group would be redundant
+                .distinctBy { it::class } //only one of each type representing the group
+            transfers.map { it.fileName }
+        }.also { fileNames = it }
+        return ActiveTransferTotals.ActionGroup(
+            groupId = groupId,
+            totalFiles = totalFiles,
+            finishedFiles = finishedFiles,
+            completedFiles = completedFiles,
+            alreadyTransferred = alreadyTransferred,
+            destination = destination,
+            fileNames = fileNames,
+            singleTransferTag = singleTransferTag,
+            startTime = startTime,
+            pausedFiles = pausedFiles,
+            totalBytes = totalBytes,
+            transferredBytes = transferredBytes,
+            pendingTransferNodeId = pendingTransferNodeId,
+            appData = appData,
+        )
+    }
+
+    private fun groupIdOf(transfer: ActiveTransfer) =
+        if (transfer.isFolderTransfer) null else transfer.getTransferGroup()?.groupId?.toInt()
+
+    private companion object {
+        const val NO_BYTES = -1L
+    }
+}
@@ -0,0 +1,164 @@
+package mega.privacy.android.data.repository.transfers
+
+import mega.privacy.android.domain.collection.PrimitiveHashTable
+
+/**
+ * Hash map from primitive [Long] keys to primitive [Long] values
+ *
+ * The entries are stored in a [PrimitiveHashTable] backed by primitive arrays, so updating the
+ * value of an existing key does not allocate any object.
+ *
+ * This class is not thread safe.
+ */
+internal class LongLongHashMap : PrimitiveHashTable {
+
+    private var keys: LongArray
+    private var values: LongArray
+
+    constructor() : super(expectedSize = 0) {
+        keys = LongArray(capacity)
+        values = LongArray(capacity)
+    }
+
+    private constructor(source: LongLongHashMap) : super(source) {
+        keys = source.keys.copyOf()
+        values = source.values.copyOf()
+    }
+
+    /**
+     * Set the value of a key
+     *
+     * @param key the key
+     * @param value the value
+     */
+    fun put(key: Long, value: Long) {
+        ensureCapacityForOneMore()
+        var slot = firstSlot(hash(key))
+        while (isUsed(slot)) {
+            if (keys[slot] == key) {
+                values[slot] = value
+                return
+            }
+            slot = nextSlot(slot)
+        }
+        keys[slot] = key
+        values[slot] = value
+        occupy(slot)
+    }
+
+    /**
+     * Get the value of a key
+     *
+     * @param key the key
+     * @param defaultValue the value to return if the key is not in the map
+     * @return the value of the key, or [defaultValue] if the key is not in the map
+     */
+    fun get(key: Long, defaultValue: Long = 0L): Long {
+        val slot = indexOf(key)
+        return if (slot < 0) defaultValue else values[slot]
+    }
+
+    /**
+     * Remove a key
+     *
+     * @param key the key
+     * @return true if the key was in the map
+     */
+    fun remove(key: Long): Boolean {
+        val slot = indexOf(key)
+        if (slot < 0) return false
+        removeAt(slot)
+        return true
+    }
+
+    /**
+     * Copy all the entries to the [destination] map
+     */
+    fun copyTo(destination: MutableMap<Long, Long>) {
+        for (slot in 0 until capacity) {
+            if (isUsed(slot)) destination[keys[slot]] = values[slot]
+        }
+    }
+
+    /**
+     * Copy of the map, copying the primitive arrays without boxing the entries
+     */
+    fun copy() = LongLongHashMap(this)
+
+    /**
+     * Read only view of the map, which only boxes the keys and values read
+     *
+     * Two views are compared without boxing their entries.
+     */
+    fun asMap(): Map<Long, Long> = MapView(this)
+
+    override fun hashAt(slot: Int) = hash(keys[slot])
+
+    override fun moveEntry(from: Int, to: Int) {
+        keys[to] = keys[from]
+        values[to] = values[from]
+    }
+
+    override fun resizeEntries(newCapacity: Int, newSlots: IntArray) {
+        val newKeys = LongArray(newCapacity)
+        val newValues = LongArray(newCapacity)
+        newSlots.forEachIndexed { slot, newSlot ->
+            if (newSlot >= 0) {
+                newKeys[newSlot] = keys[slot]
+                newValues[newSlot] = values[slot]
+            }
+        }
+        keys = newKeys
+        values = newValues
+    }
+
+    private fun indexOf(key: Long): Int {
+        var slot = firstSlot(hash(key))
+        while (isUsed(slot)) {
+            if (keys[slot] == key) return slot
+            slot = nextSlot(slot)
+        }
+        return -1
+    }
+
+    private fun hasSameEntries(other: LongLongHashMap): Boolean {
+        if (this === other) return true
+        if (size != other.size) return false
+        for (slot in 0 until capacity) {
+            if (!isUsed(slot)) continue
+            val otherSlot = other.indexOf(keys[slot])
+            if (otherSlot < 0 || other.values[otherSlot] != values[slot]) return false
+        }
+        return true
+    }
+
+    // Same hash code as any map with the same entries
+    private fun entriesHashCode(): Int {
+        var hashCode = 0
+        for (slot in 0 until capacity) {
+            if (isUsed(slot)) {
+                hashCode += java.lang.Long.hashCode(keys[slot]) xor
+                        java.lang.Long.hashCode(values[slot])
+            }
+        }
+        return hashCode
+    }
+
+    private class MapView(private val map: LongLongHashMap) : AbstractMap<Long, Long>() {
+        override val size: Int
+            get() = map.size
+
+        override val entries: Set<Map.Entry<Long, Long>>
+            get() = HashMap<Long, Long>(map.size * 4 / 3 + 1).also { map.copyTo(it) }.entries
+
+        override fun get(key: Long): Long? =
+            map.indexOf(key).let { slot -> if (slot < 0) null else map.values[slot] }
+
+        override fun containsKey(key: Long) = map.indexOf(key) >= 0
+
+        override fun equals(other: Any?) =
+            if (other is MapView) map.hasSameEntries(other.map) else super.equals(other)
+
+        override fun hashCode() = map.entriesHashCode()
+    }
+}
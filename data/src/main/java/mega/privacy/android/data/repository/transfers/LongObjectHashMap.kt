@@ -0,0 +1,179 @@
+package mega.privacy.android.data.repository.transfers
+
+import mega.privacy.android.domain.collection.PrimitiveHashTable
+
+/**
+ * Hash map from primitive [Long] keys to object values
+ *
+ * The entries are stored in a [PrimitiveHashTable], so the keys are never boxed and replacing the
+ * value of an existing key does not allocate any object.
+ *
+ * This class is not thread safe.
+ */
+internal class LongObjectHashMap<V : Any> : PrimitiveHashTable {
+
+    private var keys: LongArray
+    private var values: Array<Any?>
+
+    constructor() : super(expectedSize = 0) {
+        keys = LongArray(capacity)
+        values = arrayOfNulls(capacity)
+    }
+
+    private constructor(source: LongObjectHashMap<V>) : super(source) {
+        keys = source.keys.copyOf()
+        values = source.values.copyOf()
+    }
+
+    /**
+     * Set the value of a key
+     *
+     * @param key the key
+     * @param value the value
+     */
+    fun put(key: Long, value: V) {
+        ensureCapacityForOneMore()
+        var slot = firstSlot(hash(key))
+        while (isUsed(slot)) {
+            if (keys[slot] == key) {
+                values[slot] = value
+                return
+            }
+            slot = nextSlot(slot)
+        }
+        keys[slot] = key
+        values[slot] = value
+        occupy(slot)
+    }
+
+    /**
+     * Get the value of a key
+     *
+     * @param key the key
+     * @return the value of the key, or null if the key is not in the map
+     */
+    fun get(key: Long): V? {
+        val slot = indexOf(key)
+        return if (slot < 0) null else valueAt(slot)
+    }
+
+    /**
+     * Remove a key
+     *
+     * @param key the key
+     * @return true if the key was in the map
+     */
+    fun remove(key: Long): Boolean {
+        val slot = indexOf(key)
+        if (slot < 0) return false
+        removeAt(slot)
+        return true
+    }
+
+    /**
+     * Call [action] for each entry, the map must not be changed by it
+     */
+    fun forEach(action: (key: Long, value: V) -> Unit) {
+        for (slot in 0 until capacity) {
+            if (isUsed(slot)) action(keys[slot], valueAt(slot))
+        }
+    }
+
+    /**
+     * Copy all the entries to the [destination] map
+     */
+    fun copyTo(destination: MutableMap<Long, V>) {
+        forEach { key, value -> destination[key] = value }
+    }
+
+    /**
+     * Copy of the map, copying the arrays without boxing the keys
+     */
+    fun copy() = LongObjectHashMap(this)
+
+    /**
+     * Read only view of the map, which only boxes the keys read
+     *
+     * Two views are compared without boxing their keys.
+     */
+    fun asMap(): Map<Long, V> = MapView(this)
+
+    override fun hashAt(slot: Int) = hash(keys[slot])
+
+    override fun moveEntry(from: Int, to: Int) {
+        keys[to] = keys[from]
+        values[to] = values[from]
+    }
+
+    override fun resizeEntries(newCapacity: Int, newSlots: IntArray) {
+        val newKeys = LongArray(newCapacity)
+        val newValues = arrayOfNulls<Any>(newCapacity)
+        newSlots.forEachIndexed { slot, newSlot ->
+            if (newSlot >= 0) {
+                newKeys[newSlot] = keys[slot]
+                newValues[newSlot] = values[slot]
+            }
+        }
+        keys = newKeys
+        values = newValues
+    }
+
+    override fun clearEntry(slot: Int) {
+        values[slot] = null
+    }
+
+    override fun clearEntries() {
+        values.fill(null)
+    }
+
+    @Suppress("UNCHECKED_CAST")
+    private fun valueAt(slot: Int) = values[slot] as V
+
+    private fun indexOf(key: Long): Int {
+        var slot = firstSlot(hash(key))
+        while (isUsed(slot)) {
+            if (keys[slot] == key) return slot
+            slot = nextSlot(slot)
+        }
+        return -1
+    }
+
+    private fun hasSameEntries(other: LongObjectHashMap<*>): Boolean {
+        if (this === other) return true
+        if (size != other.size) return false
+        for (slot in 0 until capacity) {
+            if (!isUsed(slot)) continue
+            val otherSlot = other.indexOf(keys[slot])
+            if (otherSlot < 0 || other.values[otherSlot] != values[slot]) return false
+        }
+        return true
+    }
+
+    // Same hash code as any map with the same entries
+    private fun entriesHashCode(): Int {
+        var hashCode = 0
+        for (slot in 0 until capacity) {
+            if (isUsed(slot)) {
+                hashCode += java.lang.Long.hashCode(keys[slot]) xor values[slot].hashCode()
+            }
+        }
+        return hashCode
+    }
+
+    private class MapView<V : Any>(private val map: LongObjectHashMap<V>) : AbstractMap<Long, V>() {
+        override val size: Int
+            get() = map.size
+
+        override val entries: Set<Map.Entry<Long, V>>
+            get() = HashMap<Long, V>(map.size * 4 / 3 + 1).also { map.copyTo(it) }.entries
+
+        override fun get(key: Long): V? = map.get(key)
+
+        override fun containsKey(key: Long) = map.indexOf(key) >= 0
+
+        override fun equals(other: Any?) =
+            if (other is MapView<*>) map.hasSameEntries(other.map) else super.equals(other)
+
+        override fun hashCode() = map.entriesHashCode()
+    }
+}
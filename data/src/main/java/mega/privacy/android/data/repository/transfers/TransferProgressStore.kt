@@ -0,0 +1,246 @@
+package mega.privacy.android.data.repository.transfers
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.StateFlow
+import kotlinx.coroutines.flow.asStateFlow
+import kotlinx.coroutines.launch
+import mega.privacy.android.domain.entity.transfer.InProgressTransfer
+import mega.privacy.android.domain.entity.transfer.TransferType
+import mega.privacy.android.domain.qualifier.ApplicationScope
+import java.util.concurrent.atomic.AtomicBoolean
+import javax.inject.Inject
+import javax.inject.Singleton
+import kotlin.time.Duration
+import kotlin.time.Duration.Companion.milliseconds
+
+/**
+ * In memory store of the progress of the transfers in progress
+ *
+ * Transfer updates are received at a very high rate, so they are written to primitive long keyed
+ * tables split in [STRIPES] stripes, each one guarded by its own lock. An update does not copy any
+ * map and, once the tables have grown, does not allocate any object.
+ *
+ * Immutable snapshots of the tables are published to the flows at most once every
+ * [publishInterval], and only if something changed since the previous publication, so
+ * intermediate values are conflated. A snapshot is a read only view over frozen copies of the
+ * stripes: only the stripes changed since the previous snapshot are copied again, and the copies
+ * keep the primitive tables, so the entries are only boxed when they are read.
+ *
+ * @property scope the scope where the snapshots are published
+ * @property publishInterval the minimum time between two publications
+ */
+@Singleton
+internal class TransferProgressStore(
+    private val scope: CoroutineScope,
+    private val publishInterval: Duration,
+) {
+
+    @Inject
+    constructor(@ApplicationScope scope: CoroutineScope) : this(scope, PUBLISH_INTERVAL)
+
+    private val transferredBytes = Array(TransferType.entries.size) {
+        Array(STRIPES) { LongLongHashMap() }
+    }
+
+    private val inProgressTransfers = Array(STRIPES) { LongObjectHashMap<InProgressTransfer>() }
+
+    private val transferredBytesChanged = Array(TransferType.entries.size) { AtomicBoolean(false) }
+
+    private val transferredBytesStripeChanged = Array(TransferType.entries.size) {
+        Array(STRIPES) { AtomicBoolean(false) }
+    }
+
+    private val inProgressTransfersChanged = AtomicBoolean(false)
+
+    private val inProgressTransfersStripeChanged = Array(STRIPES) { AtomicBoolean(false) }
+
+    // Frozen copies of the stripes used by the last snapshots, guarded by the publication lock
+    private val transferredBytesStripeSnapshots = Array(TransferType.entries.size) {
+        Array<Map<Long, Long>>(STRIPES) { emptyMap() }
+    }
+
+    private val inProgressTransfersStripeSnapshots =
+        Array<Map<Long, InProgressTransfer>>(STRIPES) { emptyMap() }
+
+    private val isPublishScheduled = AtomicBoolean(false)
+
+    private val transferredBytesFlows = Array(TransferType.entries.size) {
+        MutableStateFlow<Map<Long, Long>>(emptyMap())
+    }
+
+    private val inProgressTransfersFlow =
+        MutableStateFlow<Map<Long, InProgressTransfer>>(emptyMap())
+
+    /**
+     * Set the transferred bytes of a transfer
+     *
+     * @param transferType the [TransferType] of the transfer
+     * @param uniqueId the unique id of the transfer
+     * @param bytes the transferred bytes
+     */
+    fun setTransferredBytes(transferType: TransferType, uniqueId: Long, bytes: Long) {
+        val stripeIndex = stripeOf(uniqueId)
+        val stripe = transferredBytes[transferType.ordinal][stripeIndex]
+        synchronized(stripe) { stripe.put(uniqueId, bytes) }
+        transferredBytesStripeChanged[transferType.ordinal][stripeIndex].set(true)
+        transferredBytesChanged[transferType.ordinal].set(true)
+        schedulePublish()
+    }
+
+    /**
+     * Remove the transferred bytes of all the transfers of a [TransferType]
+     */
+    fun clearTransferredBytes(transferType: TransferType) {
+        transferredBytes[transferType.ordinal].forEach { stripe ->
+            synchronized(stripe) { stripe.clear() }
+        }
+        transferredBytesStripeChanged[transferType.ordinal].forEach { it.set(true) }
+        transferredBytesChanged[transferType.ordinal].set(true)
+        schedulePublish()
+    }
+
+    /**
+     * Get a snapshot of the current transferred bytes of a [TransferType], without waiting for the
+     * next publication
+     *
+     * @return a map of unique id to transferred bytes
+     */
+    fun getTransferredBytes(transferType: TransferType): Map<Long, Long> =
+        synchronized(inProgressTransfersFlow) { snapshotTransferredBytes(transferType.ordinal) }
+
+    /**
+     * Monitor the published snapshots of the transferred bytes of a [TransferType]
+     *
+     * @return a flow of maps of unique id to transferred bytes
+     */
+    fun monitorTransferredBytes(transferType: TransferType): StateFlow<Map<Long, Long>> =
+        transferredBytesFlows[transferType.ordinal].asStateFlow()
+
+    /**
+     * Add or replace an [InProgressTransfer]
+     */
+    fun putInProgressTransfer(inProgressTransfer: InProgressTransfer) {
+        val uniqueId = inProgressTransfer.uniqueId
+        val stripeIndex = stripeOf(uniqueId)
+        val stripe = inProgressTransfers[stripeIndex]
+        synchronized(stripe) { stripe.put(uniqueId, inProgressTransfer) }
+        inProgressTransfersStripeChanged[stripeIndex].set(true)
+        inProgressTransfersChanged.set(true)
+        schedulePublish()
+    }
+
+    /**
+     * Remove an [InProgressTransfer]
+     *
+     * @param uniqueId the unique id of the transfer
+     * @return true if the transfer was in the store
+     */
+    fun removeInProgressTransfer(uniqueId: Long): Boolean {
+        val stripeIndex = stripeOf(uniqueId)
+        val stripe = inProgressTransfers[stripeIndex]
+        val removed = synchronized(stripe) { stripe.remove(uniqueId) }
+        if (removed) {
+            inProgressTransfersStripeChanged[stripeIndex].set(true)
+            inProgressTransfersChanged.set(true)
+            schedulePublish()
+        }
+        return removed
+    }
+
+    /**
+     * Monitor the published snapshots of the in progress transfers
+     *
+     * @return a flow of maps of unique id to [InProgressTransfer]
+     */
+    fun monitorInProgressTransfers(): StateFlow<Map<Long, InProgressTransfer>> =
+        inProgressTransfersFlow.asStateFlow()
+
+    private fun schedulePublish() {
+        if (!isPublishScheduled.compareAndSet(false, true)) return
+        scope.launch {
+            delay(publishInterval)
+            // Reset before taking the snapshots, so a change made meanwhile schedules a new one
+            isPublishScheduled.set(false)
+            publish()
+        }
+    }
+
+    private fun publish() = synchronized(inProgressTransfersFlow) {
+        if (inProgressTransfersChanged.getAndSet(false)) {
+            inProgressTransfersFlow.value = snapshotInProgressTransfers()
+        }
+        transferredBytesChanged.forEachIndexed { ordinal, changed ->
+            if (changed.getAndSet(false)) {
+                transferredBytesFlows[ordinal].value = snapshotTransferredBytes(ordinal)
+            }
+        }
+    }
+
+    // Must be called holding the publication lock
+    private fun snapshotTransferredBytes(ordinal: Int): Map<Long, Long> {
+        val stripeSnapshots = transferredBytesStripeSnapshots[ordinal]
+        transferredBytesStripeChanged[ordinal].forEachIndexed { index, changed ->
+            if (changed.getAndSet(false)) {
+                val stripe = transferredBytes[ordinal][index]
+                stripeSnapshots[index] = synchronized(stripe) { stripe.copy() }.asMap()
+            }
+        }
+        return StripedSnapshot(stripeSnapshots.toList())
+    }
+
+    // Must be called holding the publication lock
+    private fun snapshotInProgressTransfers(): Map<Long, InProgressTransfer> {
+        inProgressTransfersStripeChanged.forEachIndexed { index, changed ->
+            if (changed.getAndSet(false)) {
+                val stripe = inProgressTransfers[index]
+                inProgressTransfersStripeSnapshots[index] =
+                    synchronized(stripe) { stripe.copy() }.asMap()
+            }
+        }
+        return StripedSnapshot(inProgressTransfersStripeSnapshots.toList())
+    }
+
+    /**
+     * Read only map over the frozen copies of the stripes, looking each key up in its own stripe
+     *
+     * Two snapshots sharing the copies of their unchanged stripes are compared stripe by stripe.
+     */
+    private class StripedSnapshot<V : Any>(
+        private val stripes: List<Map<Long, V>>,
+    ) : AbstractMap<Long, V>() {
+        override val size = stripes.sumOf { it.size }
+
+        override val entries: Set<Map.Entry<Long, V>> by lazy {
+            HashMap<Long, V>(size * 4 / 3 + 1).also { map ->
+                stripes.forEach { map.putAll(it) }
+            }.entries
+        }
+
+        override fun get(key: Long): V? = stripes[stripeOf(key)][key]
+
+        override fun containsKey(key: Long) = stripes[stripeOf(key)].containsKey(key)
+
+        override fun equals(other: Any?) =
+            if (other is StripedSnapshot<*>) stripes == other.stripes else super.equals(other)
+
+        override fun hashCode() = stripes.sumOf { it.hashCode() }
+    }
+
+    companion object {
+        /**
+         * Number of independently locked stripes of each table, must be a power of two
+         */
+        const val STRIPES = 8
+
+        /**
+         * Default minimum time between two publications of the snapshots
+         */
+        val PUBLISH_INTERVAL = 250.milliseconds
+
+        // Uses the raw bits of the id, independent from the hash used inside each stripe's table
+        private fun stripeOf(uniqueId: Long) =
+            (uniqueId xor (uniqueId ushr 32)).toInt() and (STRIPES - 1)
+    }
+}
@@ -26,6 +26,7 @@ import kotlinx.coroutines.flow.filter
 import kotlinx.coroutines.flow.first
 import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.launchIn
+import kotlinx.coroutines.flow.transform
 import kotlinx.coroutines.flow.update
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.sync.Mutex
@@ -55,6 +56,7 @@ import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTA
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_UPLOADED_BYTES
 import mega.privacy.android.data.constant.CameraUploadsWorkerStatusConstant.TOTAL_UPLOAD_BYTES
 import mega.privacy.android.domain.extension.collectChunked
+import mega.privacy.android.domain.extension.onFirst
 import mega.privacy.android.data.wrapper.CameraUploadsNotificationManagerWrapper
 import mega.privacy.android.data.wrapper.CookieEnabledCheckWrapper
 import mega.privacy.android.domain.entity.BackupState
@@ -80,6 +82,7 @@ import mega.privacy.android.domain.qualifier.IoDispatcher
 import mega.privacy.android.domain.qualifier.LoginMutex
 import mega.privacy.android.domain.repository.FileSystemRepository
 import mega.privacy.android.domain.repository.TimeSystemRepository
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
 import mega.privacy.android.domain.usecase.account.IsStorageOverQuotaUseCase
 import mega.privacy.android.domain.usecase.backup.InitializeBackupsUseCase
 import mega.privacy.android.domain.usecase.camerauploads.AreCameraUploadsFoldersInRubbishBinUseCase
@@ -89,9 +92,7 @@ import mega.privacy.android.domain.usecase.camerauploads.CreateCameraUploadsTemp
 import mega.privacy.android.domain.usecase.camerauploads.DeleteCameraUploadsTemporaryRootDirectoryUseCase
 import mega.privacy.android.domain.usecase.camerauploads.DisableCameraUploadsUseCase
 import mega.privacy.android.domain.usecase.camerauploads.DisableMediaUploadsSettingsUseCase
-import mega.privacy.android.domain.usecase.camerauploads.DoesCameraUploadsRecordExistsInTargetNodeUseCase
 import mega.privacy.android.domain.usecase.camerauploads.EstablishCameraUploadsSyncHandlesUseCase
-import mega.privacy.android.domain.usecase.camerauploads.ExtractGpsCoordinatesUseCase
 import mega.privacy.android.domain.usecase.camerauploads.GetPendingCameraUploadsRecordsUseCase
 import mega.privacy.android.domain.usecase.camerauploads.GetPrimaryFolderPathUseCase
 import mega.privacy.android.domain.usecase.camerauploads.GetUploadFolderHandleUseCase
@@ -104,8 +105,8 @@ import mega.privacy.android.domain.usecase.camerauploads.IsPrimaryFolderPathVali
 import mega.privacy.android.domain.usecase.camerauploads.IsSecondaryFolderSetUseCase
 import mega.privacy.android.domain.usecase.camerauploads.IsWifiNotSatisfiedUseCase
 import mega.privacy.android.domain.usecase.camerauploads.MonitorIsChargingRequiredToUploadContentUseCase
+import mega.privacy.android.domain.usecase.camerauploads.PrepareCameraUploadsRecordsUseCase
 import mega.privacy.android.domain.usecase.camerauploads.ProcessCameraUploadsMediaUseCase
-import mega.privacy.android.domain.usecase.camerauploads.RenameCameraUploadsRecordsUseCase
 import mega.privacy.android.domain.usecase.camerauploads.SendBackupHeartBeatSyncUseCase
 import mega.privacy.android.domain.usecase.camerauploads.SetPrimaryFolderLocalPathUseCase
 import mega.privacy.android.domain.usecase.camerauploads.SetSecondaryFolderLocalPathUseCase
@@ -181,9 +182,7 @@ class CameraUploadsWorker @AssistedInject constructor(
     private val isConnectedToInternetUseCase: IsConnectedToInternetUseCase,
     private val processCameraUploadsMediaUseCase: ProcessCameraUploadsMediaUseCase,
     private val getPendingCameraUploadsRecordsUseCase: GetPendingCameraUploadsRecordsUseCase,
-    private val renameCameraUploadsRecordsUseCase: RenameCameraUploadsRecordsUseCase,
-    private val doesCameraUploadsRecordExistsInTargetNodeUseCase: DoesCameraUploadsRecordExistsInTargetNodeUseCase,
-    private val extractGpsCoordinatesUseCase: ExtractGpsCoordinatesUseCase,
+    private val prepareCameraUploadsRecordsUseCase: PrepareCameraUploadsRecordsUseCase,
     private val uploadCameraUploadsRecordsUseCase: UploadCameraUploadsRecordsUseCase,
     private val initializeBackupsUseCase: InitializeBackupsUseCase,
     private val areCameraUploadsFoldersInRubbishBinUseCase: AreCameraUploadsFoldersInRubbishBinUseCase,
@@ -193,6 +192,7 @@ class CameraUploadsWorker @AssistedInject constructor(
     private val fileSystemRepository: FileSystemRepository,
     private val timeSystemRepository: TimeSystemRepository,
     private val crashReporter: CrashReporter,
+    private val performanceReporterRepository: PerformanceReporterRepository,
     private val monitorTransferEventsUseCase: MonitorTransferEventsUseCase,
     private val handleTransferEventUseCase: HandleTransferEventUseCase,
     private val clearActiveTransfersIfFinishedUseCase: ClearActiveTransfersIfFinishedUseCase,
@@ -203,6 +203,8 @@ class CameraUploadsWorker @AssistedInject constructor(
     companion object {
         private const val LOW_BATTERY_LEVEL = 20
         private const val ON_TRANSFER_UPDATE_REFRESH_MILLIS = 1000
+        private const val TIME_TO_FIRST_UPLOAD_TRACE = "camera_uploads_time_to_first_upload"
+        private const val HAS_UPLOADED_ATTRIBUTE = "has_uploaded"
     }
 
     /**
@@ -338,6 +340,8 @@ class CameraUploadsWorker @AssistedInject constructor(
                 val secondaryUploadNodeId =
                     NodeId(getUploadFolderHandleUseCase(CameraUploadFolderType.Secondary))
 
+                startTimeToFirstUploadTrace()
+
                 val records = async(retrieveFilesJob) {
                     scanFiles()
                     return@async getAndPrepareRecords(
@@ -780,26 +784,31 @@ class CameraUploadsWorker @AssistedInject constructor(
     private suspend fun scanFiles() {
         Timber.d("Get Pending Files from Media Store")
         sendCheckUploadStatus()
-        processCameraUploadsMediaUseCase(tempRoot = tempRoot)
+        processCameraUploadsMediaUseCase(tempRoot = tempRoot).forEach {
+            Timber.e(it, "Media Store scan not completed, it will be retried")
+        }
     }
 
     /**
      * Get pending records from the database and populate them with required information for upload
      * - Retrieve the pending camera uploads records from the database
      * - Filter the camera uploads based on video compression size condition
-     * - Rename the camera uploads records
      * - Check the existence of a node corresponding to the [CameraUploadsRecord]
+     * - Rename the camera uploads records
      * - Extract the gps coordinates and set in the respective [CameraUploadsRecord]
      *
+     * The last three steps are done in batches while the records are collected by the upload process,
+     * so that the upload of the first records starts as soon as they are ready
+     *
      * @param primaryUploadNodeId the primary target [NodeId]
      * @param secondaryUploadNodeId the secondary target [NodeId]
-     * @return the list of pending [CameraUploadsRecord] to upload
+     * @return a flow of pending [CameraUploadsRecord] to upload, or null if there is no pending records
      */
     //@Karma
     private suspend fun getAndPrepareRecords(
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
-    ): List<CameraUploadsRecord>? {
+    ): Flow<CameraUploadsRecord>? {
         Timber.d("Get Pending Files from Database")
         return getPendingCameraUploadsRecords()
             .takeIf { it.isNotEmpty() }
@@ -808,50 +817,48 @@ class CameraUploadsWorker @AssistedInject constructor(
                 filterCameraUploadsRecords(pendingRecords)
             }
             ?.let { filteredRecords ->
-                Timber.d("Retrieve existence in target node for ${filteredRecords.size} files")
-                getExistenceInTargetNode(
+                Timber.d("Prepare ${filteredRecords.size} files")
+                prepareCameraUploadsRecordsUseCase(
                     filteredRecords,
                     primaryUploadNodeId,
-                    secondaryUploadNodeId
-                )
-            }
-            ?.let { recordsWithExistenceInTargetNode ->
-                Timber.d("Check renaming for ${recordsWithExistenceInTargetNode.size} files")
-                renameCameraUploadsRecords(
-                    recordsWithExistenceInTargetNode,
-                    primaryUploadNodeId,
                     secondaryUploadNodeId,
-                )
-            }
-            ?.let { renamedRecordsWithExistenceInTargetNode ->
-                Timber.d("Retrieve gps coordinates for ${renamedRecordsWithExistenceInTargetNode.size} files")
-                getGpsCoordinates(renamedRecordsWithExistenceInTargetNode)
-            }.also {
-                val existsInTargetNodeCount =
-                    it?.filter { record -> record.existsInTargetNode == true }?.size
-                val existsInCloudDriveCount =
-                    it?.filter { record -> record.existsInTargetNode == false && record.existingNodeId != null }?.size
-                val doesNotExistInCloudDriveCount =
-                    it?.filter { record -> record.existingNodeId == null }?.size
-                Timber.d("$existsInTargetNodeCount files already exist in target node")
-                Timber.d("$existsInCloudDriveCount files already exists in cloud drive")
-                Timber.d("$doesNotExistInCloudDriveCount files does not exist in target node")
-                if (it == null) Timber.d("No pending files to upload")
+                ).transform { batch ->
+                    logPreparedRecords(batch)
+                    batch.forEach { emit(it) }
+                }
             }
+            .also { if (it == null) Timber.d("No pending files to upload") }
+    }
+
+    /**
+     * Log the existence in the cloud of a batch of prepared [CameraUploadsRecord]
+     *
+     * @param records the batch of prepared [CameraUploadsRecord]
+     */
+    private fun logPreparedRecords(records: List<CameraUploadsRecord>) {
+        val existsInTargetNodeCount =
+            records.count { record -> record.existsInTargetNode == true }
+        val existsInCloudDriveCount =
+            records.count { record -> record.existsInTargetNode == false && record.existingNodeId != null }
+        val doesNotExistInCloudDriveCount =
+            records.count { record -> record.existingNodeId == null }
+        Timber.d("$existsInTargetNodeCount files already exist in target node")
+        Timber.d("$existsInCloudDriveCount files already exists in cloud drive")
+        Timber.d("$doesNotExistInCloudDriveCount files does not exist in target node")
     }
 
     /**
      * Upload the [CameraUploadsRecord]
      * The upload function will trigger a flow that is collected to handle the progress update
      *
-     * @param records the list of [CameraUploadsRecord] to upload
+     * @param records the flow of [CameraUploadsRecord] to upload
      * @param primaryUploadNodeId the primary target [NodeId]
      * @param secondaryUploadNodeId the secondary target [NodeId]
      * @param tempRoot the root path of the temporary files
      */
     //@Karma
     private suspend fun uploadFiles(
-        records: List<CameraUploadsRecord>,
+        records: Flow<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
         tempRoot: String,
@@ -861,6 +868,12 @@ class CameraUploadsWorker @AssistedInject constructor(
         secondaryUploadNodeId,
         tempRoot
     )
+        .onFirst(
+            predicate = {
+                it is CameraUploadsTransferProgress.ToUpload || it is CameraUploadsTransferProgress.ToCopy
+            },
+            action = { stopTimeToFirstUploadTrace(hasUploaded = true) },
+        )
         .catch { throwable ->
             Timber.e(throwable)
             abortWork(reason = CameraUploadsFinishedReason.ERROR_DURING_PROCESS)
@@ -903,62 +916,22 @@ class CameraUploadsWorker @AssistedInject constructor(
         }
     }
 
-    /**
-     * Rename the camera uploads records
-     *
-     * @return a list of [CameraUploadsRecord]
-     */
-    private suspend fun renameCameraUploadsRecords(
-        records: List<CameraUploadsRecord>,
-        primaryUploadNodeId: NodeId,
-        secondaryUploadNodeId: NodeId,
-    ): List<CameraUploadsRecord> =
-        renameCameraUploadsRecordsUseCase(
-            records,
-            primaryUploadNodeId,
-            secondaryUploadNodeId,
-        )
-
-    /**
-     * Get the existence of a node corresponding to the [CameraUploadsRecord] in the
-     * target node or other node
-     *
-     * @return a list of [CameraUploadsRecord]
-     */
-    private suspend fun getExistenceInTargetNode(
-        records: List<CameraUploadsRecord>,
-        primaryUploadNodeId: NodeId,
-        secondaryUploadNodeId: NodeId,
-    ) = doesCameraUploadsRecordExistsInTargetNodeUseCase(
-        records,
-        primaryUploadNodeId,
-        secondaryUploadNodeId,
-    )
-
-    /**
-     * Extract the gps coordinates and set in the respective [CameraUploadsRecord]
-     *
-     * @return a list of [CameraUploadsRecord]
-     */
-    private suspend fun getGpsCoordinates(records: List<CameraUploadsRecord>): List<CameraUploadsRecord> =
-        extractGpsCoordinatesUseCase(records)
-
     /**
      * Upload the camera uploads records
      *
-     * @param records the list of [CameraUploadsRecord] to upload
+     * @param records the flow of [CameraUploadsRecord] to upload
      * @param primaryUploadNodeId the primary target [NodeId]
      * @param secondaryUploadNodeId the secondary target [NodeId]
      * @param tempRoot the root path of the temporary files
      * @return a flow of [CameraUploadsTransferProgress]
      */
     private fun uploadCameraUploadsRecords(
-        records: List<CameraUploadsRecord>,
+        records: Flow<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
         tempRoot: String,
     ): Flow<CameraUploadsTransferProgress> {
-        Timber.d("Start uploading ${records.size} files")
+        Timber.d("Start uploading files")
         return uploadCameraUploadsRecordsUseCase(
             records,
             primaryUploadNodeId,
@@ -1290,11 +1263,38 @@ class CameraUploadsWorker @AssistedInject constructor(
         ).forEach { it?.cancelAndJoin() }
     }
 
+    /**
+     * Start the trace measuring the time between the start of the upload process
+     * and the first record being uploaded or copied
+     */
+    private fun startTimeToFirstUploadTrace() {
+        runCatching { performanceReporterRepository.startTrace(TIME_TO_FIRST_UPLOAD_TRACE) }
+            .onFailure { Timber.w(it) }
+    }
+
+    /**
+     * Stop the time to first upload trace
+     * Has no effect if the trace is already stopped
+     *
+     * @param hasUploaded true if a record started being uploaded or copied
+     */
+    private fun stopTimeToFirstUploadTrace(hasUploaded: Boolean) {
+        runCatching {
+            performanceReporterRepository.putAttribute(
+                TIME_TO_FIRST_UPLOAD_TRACE,
+                HAS_UPLOADED_ATTRIBUTE,
+                hasUploaded.toString(),
+            )
+            performanceReporterRepository.stopTrace(TIME_TO_FIRST_UPLOAD_TRACE)
+        }.onFailure { Timber.w(it) }
+    }
+
     /**
      * Clean the resources and cancel the monitor jobs
      */
     private suspend fun cleanResources() {
         cancelJobs()
+        stopTimeToFirstUploadTrace(hasUploaded = false)
         deleteTempCacheFile()
     }
 
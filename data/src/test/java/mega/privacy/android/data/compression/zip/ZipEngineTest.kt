@@ -0,0 +1,129 @@
+package mega.privacy.android.data.compression.zip
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.Dispatchers
+import kotlinx.coroutines.flow.last
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.api.io.TempDir
+import java.io.File
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
+import kotlin.random.Random
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ZipEngineTest {
+
+    @TempDir
+    lateinit var temporaryFolder: File
+
+    private val underTest = ZipEngine(ioDispatcher = Dispatchers.IO)
+
+    private fun createSourceFolder(name: String) = File(temporaryFolder, name).apply {
+        File(this, "folder/sub").mkdirs()
+        File(this, "empty").mkdirs()
+        File(this, "root.txt").writeText("root")
+        File(this, "folder/text.txt").writeText("text ".repeat(10_000))
+        File(this, "folder/sub/random.bin").writeBytes(Random(1).nextBytes(1_000_000))
+    }
+
+    @Test
+    fun `test that the compressed zip file has all the folders and files`() = runTest {
+        val source = createSourceFolder("source")
+        val zipFile = File(temporaryFolder, "source.zip")
+
+        val progress = underTest.compress(source, zipFile).last()
+
+        ZipFile(zipFile).use { zip ->
+            assertThat(zip.entries().toList().map { it.name }).containsExactly(
+                "empty/",
+                "folder/",
+                "root.txt",
+                "folder/sub/",
+                "folder/text.txt",
+                "folder/sub/random.bin",
+            ).inOrder()
+            val file = zip.getEntry("folder/sub/random.bin")
+            assertThat(zip.getInputStream(file).readBytes())
+                .isEqualTo(File(source, "folder/sub/random.bin").readBytes())
+            assertThat(zip.getInputStream(zip.getEntry("root.txt")).readBytes().decodeToString())
+                .isEqualTo("root")
+        }
+        assertThat(progress.processedBytes).isEqualTo(progress.totalBytes)
+        assertThat(progress.totalBytes).isEqualTo(4 + 50_000 + 1_000_000)
+        assertThat(File(temporaryFolder, ".source.zip.parts").exists()).isFalse()
+    }
+
+    @Test
+    fun `test that more files than the parts kept on disk are compressed in order`() = runTest {
+        val source = File(temporaryFolder, "many").apply { mkdirs() }
+        val count = ZipEngine.MAX_PARTS_IN_FLIGHT * 5
+        val names = (0 until count).map { "file${it.toString().padStart(3, '0')}.txt" }
+        names.forEachIndexed { index, name -> File(source, name).writeText("file $index") }
+        val zipFile = File(temporaryFolder, "many.zip")
+
+        underTest.compress(source, zipFile).toList()
+
+        ZipFile(zipFile).use { zip ->
+            assertThat(zip.entries().toList().map { it.name }).containsExactlyElementsIn(names)
+                .inOrder()
+            names.forEachIndexed { index, name ->
+                assertThat(zip.getInputStream(zip.getEntry(name)).readBytes().decodeToString())
+                    .isEqualTo("file $index")
+            }
+        }
+        assertThat(File(temporaryFolder, ".many.zip.parts").exists()).isFalse()
+    }
+
+    @Test
+    fun `test that the extracted files are the compressed ones`() = runTest {
+        val source = createSourceFolder("extract")
+        val zipFile = File(temporaryFolder, "extract.zip")
+        underTest.compress(source, zipFile).toList()
+        val destination = File(temporaryFolder, "extracted").canonicalPath + File.separator
+
+        val progress = ZipFile(zipFile).use { underTest.extract(it, destination).last() }
+
+        listOf("root.txt", "folder/text.txt", "folder/sub/random.bin").forEach {
+            assertThat(File(destination + it).readBytes()).isEqualTo(File(source, it).readBytes())
+        }
+        assertThat(File(destination + "empty").isDirectory).isTrue()
+        assertThat(progress.processedBytes).isEqualTo(progress.totalBytes)
+    }
+
+    @Test
+    fun `test that only the subtree of the given path is extracted`() = runTest {
+        val source = createSourceFolder("subtree")
+        val zipFile = File(temporaryFolder, "subtree.zip")
+        underTest.compress(source, zipFile).toList()
+        val destination = File(temporaryFolder, "extractedSubtree").canonicalPath + File.separator
+
+        ZipFile(zipFile).use { underTest.extract(it, destination, "folder/sub").toList() }
+
+        assertThat(File(destination + "folder/sub/random.bin").exists()).isTrue()
+        assertThat(File(destination + "folder/text.txt").exists()).isFalse()
+        assertThat(File(destination + "root.txt").exists()).isFalse()
+    }
+
+    @Test
+    fun `test that nothing is extracted if an entry is out of the destination`() = runTest {
+        val zipFile = File(temporaryFolder, "slip.zip")
+        ZipOutputStream(zipFile.outputStream()).use { output ->
+            output.putNextEntry(ZipEntry("file.txt"))
+            output.write(1)
+            output.putNextEntry(ZipEntry("../slip.txt"))
+            output.write(1)
+        }
+        val destination = File(temporaryFolder, "slip").canonicalPath + File.separator
+
+        ZipFile(zipFile).use { zip ->
+            assertThrows<SecurityException> { underTest.extract(zip, destination).toList() }
+        }
+        assertThat(File(destination + "file.txt").exists()).isFalse()
+        assertThat(File(temporaryFolder, "slip.txt").exists()).isFalse()
+    }
+}
@@ -0,0 +1,174 @@
+package mega.privacy.android.data.database.chat
+
+import androidx.paging.PagingConfig
+import androidx.paging.PagingSource
+import androidx.paging.PagingState
+import androidx.room.InvalidationTracker
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.database.dao.TypedMessageDao
+import mega.privacy.android.data.database.entity.chat.MetaTypedMessageEntity
+import mega.privacy.android.data.database.entity.chat.TypedMessageEntity
+import mega.privacy.android.domain.entity.chat.messages.paging.TypedMessagePagingKey
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class TypedMessageKeysetPagingSourceTest {
+    private lateinit var underTest: TypedMessageKeysetPagingSource
+
+    private val chatId = 123L
+    private val typedMessageDao = mock<TypedMessageDao>()
+    private val invalidationTracker = mock<InvalidationTracker>()
+
+    @BeforeEach
+    fun setUp() {
+        reset(typedMessageDao, invalidationTracker)
+        underTest = TypedMessageKeysetPagingSource(
+            chatId = chatId,
+            typedMessageDao = typedMessageDao,
+            invalidationTracker = invalidationTracker,
+        )
+    }
+
+    private fun createMessage(timestamp: Long, messageId: Long): MetaTypedMessageEntity {
+        val entity = mock<TypedMessageEntity> {
+            on { this.timestamp }.thenReturn(timestamp)
+            on { this.messageId }.thenReturn(messageId)
+        }
+        return mock { on { typedMessageEntity }.thenReturn(entity) }
+    }
+
+    @Test
+    fun `test that the refresh without key loads the newest messages`() = runTest {
+        val messages = listOf(createMessage(30L, 3L), createMessage(20L, 2L))
+        whenever(typedMessageDao.getNewestMessages(chatId, 2)).thenReturn(messages)
+
+        val actual = underTest.load(PagingSource.LoadParams.Refresh(null, 2, false))
+
+        assertThat(actual).isEqualTo(
+            PagingSource.LoadResult.Page(
+                data = messages,
+                prevKey = null,
+                nextKey = TypedMessagePagingKey(timestamp = 20L, messageId = 2L),
+            )
+        )
+    }
+
+    @Test
+    fun `test that there is no next key when the page is not full`() = runTest {
+        val messages = listOf(createMessage(30L, 3L))
+        whenever(typedMessageDao.getNewestMessages(chatId, 2)).thenReturn(messages)
+
+        val actual = underTest.load(PagingSource.LoadParams.Refresh(null, 2, false))
+
+        assertThat((actual as PagingSource.LoadResult.Page).nextKey).isNull()
+    }
+
+    @Test
+    fun `test that the append loads the messages older than the key`() = runTest {
+        val key = TypedMessagePagingKey(timestamp = 20L, messageId = 2L)
+        val messages = listOf(createMessage(20L, 1L), createMessage(10L, 5L))
+        whenever(
+            typedMessageDao.getMessagesOlderThan(
+                chatId = chatId,
+                timestamp = 20L,
+                messageId = 2L,
+                inclusive = false,
+                limit = 2,
+            )
+        ).thenReturn(messages)
+
+        val actual = underTest.load(PagingSource.LoadParams.Append(key, 2, false))
+
+        assertThat((actual as PagingSource.LoadResult.Page).data).isEqualTo(messages)
+        assertThat(actual.nextKey).isEqualTo(TypedMessagePagingKey(timestamp = 10L, messageId = 5L))
+    }
+
+    @Test
+    fun `test that the refresh with key includes the message at the key and can prepend`() =
+        runTest {
+            val key = TypedMessagePagingKey(timestamp = 20L, messageId = 2L)
+            val messages = listOf(createMessage(20L, 2L))
+            whenever(
+                typedMessageDao.getMessagesOlderThan(
+                    chatId = chatId,
+                    timestamp = 20L,
+                    messageId = 2L,
+                    inclusive = true,
+                    limit = 2,
+                )
+            ).thenReturn(messages)
+
+            val actual = underTest.load(PagingSource.LoadParams.Refresh(key, 2, false))
+
+            assertThat((actual as PagingSource.LoadResult.Page).data).isEqualTo(messages)
+            assertThat(actual.prevKey).isEqualTo(key)
+            assertThat(actual.nextKey).isNull()
+        }
+
+    @Test
+    fun `test that the prepend loads the messages newer than the key from the newest`() =
+        runTest {
+            val key = TypedMessagePagingKey(timestamp = 20L, messageId = 2L)
+            val newer = createMessage(30L, 3L)
+            val newest = createMessage(40L, 4L)
+            whenever(
+                typedMessageDao.getMessagesNewerThan(
+                    chatId = chatId,
+                    timestamp = 20L,
+                    messageId = 2L,
+                    limit = 2,
+                )
+            ).thenReturn(listOf(newer, newest))
+
+            val actual = underTest.load(PagingSource.LoadParams.Prepend(key, 2, false))
+
+            assertThat((actual as PagingSource.LoadResult.Page).data)
+                .containsExactly(newest, newer).inOrder()
+            assertThat(actual.prevKey)
+                .isEqualTo(TypedMessagePagingKey(timestamp = 40L, messageId = 4L))
+        }
+
+    @Test
+    fun `test that an error is returned if the query fails`() = runTest {
+        val exception = RuntimeException("Query failed")
+        whenever(typedMessageDao.getNewestMessages(any(), any())).thenAnswer { throw exception }
+
+        val actual = underTest.load(PagingSource.LoadParams.Refresh(null, 2, false))
+
+        assertThat((actual as PagingSource.LoadResult.Error).throwable).isEqualTo(exception)
+    }
+
+    @Test
+    fun `test that the refresh key is the item half a load before the anchor`() {
+        val messages = (10L downTo 1L).map { createMessage(it * 10, it) }
+        val state = PagingState(
+            pages = listOf(PagingSource.LoadResult.Page(messages, null, null)),
+            anchorPosition = 6,
+            config = PagingConfig(pageSize = 2, initialLoadSize = 4),
+            leadingPlaceholderCount = 0,
+        )
+
+        assertThat(underTest.getRefreshKey(state))
+            .isEqualTo(TypedMessagePagingKey(timestamp = 60L, messageId = 6L))
+    }
+
+    @Test
+    fun `test that the source is invalidated when the table changes`() {
+        val observer = argumentCaptor<InvalidationTracker.Observer>()
+        verify(invalidationTracker).addObserver(observer.capture())
+
+        observer.firstValue.onInvalidated(setOf("typed_messages"))
+
+        assertThat(underTest.invalid).isTrue()
+        verify(invalidationTracker).removeObserver(observer.firstValue)
+    }
+}
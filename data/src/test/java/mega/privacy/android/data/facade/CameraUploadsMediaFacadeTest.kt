@@ -7,6 +7,7 @@ import android.net.Uri
 import android.provider.MediaStore
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.CameraUploadsMediaGateway
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
@@ -14,9 +15,14 @@ import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
 import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.argThat
+import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
 
@@ -81,6 +87,7 @@ class CameraUploadsMediaFacadeTest {
 
                 on { moveToFirst() }.thenReturn(true)
                 on { moveToNext() }.thenReturn(true, false)
+                on { moveToLast() }.thenReturn(true)
             }
 
             val contentResolver = mock<ContentResolver> {
@@ -122,5 +129,79 @@ class CameraUploadsMediaFacadeTest {
             assertThat(underTest.getMediaSelectionQuery(parentPath)).isEqualTo(expected)
         }
 
+    @Test
+    fun test_that_getMediaBatches_reads_each_batch_after_the_last_media_of_the_previous_one() =
+        runTest {
+            val uri = mock<Uri>()
+            val selectionQuery = "selectionQuery"
+            val firstPage = mock<Cursor> {
+                on { getColumnIndexOrThrow("_id") }.thenReturn(0)
+                on { getColumnIndexOrThrow("_display_name") }.thenReturn(1)
+                on { getColumnIndexOrThrow("_data") }.thenReturn(2)
+                on { getColumnIndexOrThrow("date_added") }.thenReturn(3)
+                on { getColumnIndexOrThrow("date_modified") }.thenReturn(4)
+                on { getLong(0) }.thenReturn(1L, 2L)
+                on { getString(1) }.thenReturn("name1", "name2")
+                on { getString(2) }.thenReturn("path1", "path2")
+                on { getLong(3) }.thenReturn(1L, 2L)
+                on { getLong(4) }.thenReturn(1L, 2L)
+                on { moveToFirst() }.thenReturn(true)
+                on { moveToNext() }.thenReturn(true, false)
+                on { moveToLast() }.thenReturn(true)
+            }
+            val secondPage = mock<Cursor> {
+                on { getLong(0) }.thenReturn(3L)
+                on { getString(1) }.thenReturn("name3")
+                on { getString(2) }.thenReturn("path3")
+                on { getLong(3) }.thenReturn(3L)
+                on { getLong(4) }.thenReturn(3L)
+                on { moveToFirst() }.thenReturn(true)
+                on { moveToNext() }.thenReturn(false)
+            }
+            val contentResolver = mock<ContentResolver> {
+                on {
+                    query(eq(uri), any(), eq(selectionQuery), anyOrNull(), argThat<String> { endsWith("LIMIT 2") })
+                }.thenReturn(firstPage)
+                on {
+                    query(
+                        eq(uri),
+                        any(),
+                        eq("($selectionQuery) AND (date_modified > 2 OR (date_modified = 2 AND _id > 2))"),
+                        anyOrNull(),
+                        argThat<String> { endsWith("LIMIT 2") },
+                    )
+                }.thenReturn(secondPage)
+            }
+            whenever(context.contentResolver).thenReturn(contentResolver)
+
+            val actual = underTest.getMediaBatches(uri, selectionQuery, batchSize = 2).toList()
+
+            assertThat(actual).containsExactly(
+                listOf(
+                    CameraUploadsMedia(1L, "name1", "path1", 1000L),
+                    CameraUploadsMedia(2L, "name2", "path2", 2000L),
+                ),
+                listOf(CameraUploadsMedia(3L, "name3", "path3", 3000L)),
+            ).inOrder()
+            verify(secondPage, never()).getColumnIndexOrThrow(any())
+            verify(firstPage).close()
+            verify(secondPage).close()
+        }
 
+    @Test
+    fun test_that_getMediaBatches_emits_nothing_if_there_is_no_media() =
+        runTest {
+            val uri = mock<Uri>()
+            val emptyPage = mock<Cursor> {
+                on { moveToFirst() }.thenReturn(false)
+            }
+            val contentResolver = mock<ContentResolver> {
+                on {
+                    query(anyOrNull(), anyOrNull(), anyOrNull(), anyOrNull(), anyOrNull())
+                }.thenReturn(emptyPage)
+            }
+            whenever(context.contentResolver).thenReturn(contentResolver)
+
+            assertThat(underTest.getMediaBatches(uri, null, batchSize = 2).toList()).isEmpty()
+        }
 }
@@ -21,9 +21,11 @@ import mega.privacy.android.data.database.entity.ActiveTransferActionGroupEntity
 import mega.privacy.android.data.database.entity.ActiveTransferEntity
 import mega.privacy.android.data.database.entity.BackupEntity
 import mega.privacy.android.data.database.entity.CameraUploadsRecordEntity
+import mega.privacy.android.data.database.entity.CameraUploadsRecordKeyEntity
 import mega.privacy.android.data.database.entity.ChatPendingChangesEntity
 import mega.privacy.android.data.database.entity.CompletedTransferEntity
 import mega.privacy.android.data.database.entity.CompletedTransferEntityLegacy
+import mega.privacy.android.data.database.entity.OfflineEntity
 import mega.privacy.android.data.database.entity.PendingTransferEntity
 import mega.privacy.android.data.database.entity.VideoRecentlyWatchedEntity
 import mega.privacy.android.data.facade.MegaLocalRoomFacade.Companion.MAX_INSERT_LIST_SIZE
@@ -49,6 +51,7 @@ import mega.privacy.android.data.mapper.videosection.VideoRecentlyWatchedEntityM
 import mega.privacy.android.data.mapper.videosection.VideoRecentlyWatchedItemMapper
 import mega.privacy.android.data.model.VideoRecentlyWatchedItem
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
+import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.backup.Backup
 import mega.privacy.android.domain.entity.backup.BackupInfoType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
@@ -77,6 +80,7 @@ import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -171,6 +175,8 @@ internal class MegaLocalRoomFacadeTest {
             backupEntityMapper,
             backupModelMapper,
             backupInfoTypeIntMapper,
+            offlineDao,
+            offlineModelMapper,
             cameraUploadsRecordDao,
             cameraUploadsRecordEntityMapper,
             cameraUploadsRecordModelMapper,
@@ -570,6 +576,27 @@ internal class MegaLocalRoomFacadeTest {
             assertThat(underTest.getAllCameraUploadsRecords()).isEqualTo(expected)
         }
 
+    @Test
+    fun `test that getCameraUploadsRecordIndex indexes the keys of the folder type records`() =
+        runTest {
+            whenever(
+                cameraUploadsRecordDao.getCameraUploadsRecordKeys(CameraUploadFolderType.Primary)
+            ).thenReturn(
+                listOf(
+                    CameraUploadsRecordKeyEntity(mediaId = 1L, timestamp = 10L),
+                    CameraUploadsRecordKeyEntity(mediaId = 2L, timestamp = 20L),
+                )
+            )
+
+            val actual = underTest.getCameraUploadsRecordIndex(CameraUploadFolderType.Primary)
+
+            assertThat(actual.size).isEqualTo(2)
+            assertThat(actual.contains(1L, 10L)).isTrue()
+            assertThat(actual.contains(2L, 20L)).isTrue()
+            assertThat(actual.contains(1L, 20L)).isFalse()
+            verifyNoInteractions(cameraUploadsRecordModelMapper)
+        }
+
     @Test
     fun `test that setChatRoomPreference invokes correctly when call setChatRoomPreference`() =
         runTest {
@@ -971,4 +998,65 @@ internal class MegaLocalRoomFacadeTest {
 
         assertThat(actual).isEqualTo(expected)
     }
+
+    @Test
+    fun `test that monitorOfflineUpdates only maps the offline rows that changed`() = runTest {
+        val first = OfflineEntity(
+            id = 1,
+            encryptedHandle = "1",
+            encryptedPath = "path",
+            encryptedName = "first",
+            parentId = -1,
+            encryptedType = "file",
+            incoming = 0,
+            encryptedIncomingHandle = null,
+            lastModifiedTime = 100L,
+        )
+        val second = first.copy(id = 2, encryptedHandle = "2", encryptedName = "second")
+        val firstOffline = mock<Offline>()
+        val secondOffline = mock<Offline>()
+        whenever(offlineDao.monitorOffline())
+            .thenReturn(flowOf(listOf(first), listOf(first, second)))
+        whenever(offlineModelMapper(first)).thenReturn(firstOffline)
+        whenever(offlineModelMapper(second)).thenReturn(secondOffline)
+
+        underTest.monitorOfflineUpdates().test {
+            assertThat(awaitItem()).containsExactly(firstOffline)
+            assertThat(awaitItem()).containsExactly(firstOffline, secondOffline).inOrder()
+            awaitComplete()
+        }
+        verify(offlineModelMapper).invoke(first)
+        verify(offlineModelMapper).invoke(second)
+    }
+
+    @Test
+    fun `test that monitorVersionedOfflineUpdates emits the new version after a change`() =
+        runTest {
+            val entity = OfflineEntity(
+                id = 1,
+                encryptedHandle = "1",
+                encryptedPath = "path",
+                encryptedName = "name",
+                parentId = -1,
+                encryptedType = "file",
+                incoming = 0,
+                encryptedIncomingHandle = null,
+                lastModifiedTime = 100L,
+            )
+            val offline = mock<Offline>()
+            whenever(offlineDao.getOfflineFiles()).thenReturn(emptyList())
+            whenever(offlineEntityMapper(offline)).thenReturn(entity)
+            whenever(offlineModelMapper(entity)).thenReturn(offline)
+
+            underTest.monitorVersionedOfflineUpdates().test {
+                val (initialVersion, initialOffline) = awaitItem()
+                assertThat(initialOffline).isEmpty()
+                whenever(offlineDao.getOfflineFiles()).thenReturn(listOf(entity))
+
+                underTest.saveOfflineInformation(offline)
+
+                assertThat(awaitItem()).isEqualTo(initialVersion + 1 to listOf(offline))
+                assertThat(underTest.getOfflineVersion()).isEqualTo(initialVersion + 1)
+            }
+        }
 }
@@ -5,6 +5,7 @@ import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.database.chat.ChatDatabase
 import mega.privacy.android.data.database.dao.PendingMessageDao
+import mega.privacy.android.data.database.dao.TypedMessageDao
 import mega.privacy.android.data.database.entity.chat.PendingMessageEntity
 import mega.privacy.android.domain.entity.chat.PendingMessageState
 import mega.privacy.android.domain.entity.chat.messages.pending.UpdatePendingMessageRequest
@@ -17,6 +18,7 @@ import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.EnumSource
 import org.junit.jupiter.params.provider.MethodSource
+import org.mockito.kotlin.any
 import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.verify
@@ -118,6 +120,24 @@ class ChatStorageFacadeTest {
             assertThat(actual).isEqualTo(expected)
         }
 
+    @Test
+    fun `test that the messages not existing are queried in chunks`() = runTest {
+        val chatId = 1L
+        val msgIds = (1L..1200L).toList()
+        val typedMessageDao = mock<TypedMessageDao>()
+        whenever(database.typedMessageDao()) doReturn typedMessageDao
+        whenever(typedMessageDao.getMessageIdsNotExisting(any(), any())).thenAnswer {
+            it.getArgument<List<Long>>(1).filter { msgId -> msgId % 100 == 0L }
+        }
+
+        val actual = underTest.getMessageIdsNotExisting(chatId, msgIds)
+
+        assertThat(actual).isEqualTo((100L..1200L step 100).toList())
+        verify(typedMessageDao).getMessageIdsNotExisting(chatId, msgIds.subList(0, 500))
+        verify(typedMessageDao).getMessageIdsNotExisting(chatId, msgIds.subList(500, 1000))
+        verify(typedMessageDao).getMessageIdsNotExisting(chatId, msgIds.subList(1000, 1200))
+    }
+
     private fun pendingMessageUpdatesProvider() = listOf(
         mock<UpdatePendingMessageStateRequest>(),
         mock<UpdatePendingMessageStateAndNodeHandleRequest>(),
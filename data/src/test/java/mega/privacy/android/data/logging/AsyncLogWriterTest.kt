@@ -0,0 +1,179 @@
+package mega.privacy.android.data.logging
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.util.Collections
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class AsyncLogWriterTest {
+
+    @Test
+    fun `test that the lines are written in order by the writer thread`() {
+        val lines = Collections.synchronizedList(mutableListOf<String>())
+        val threads = Collections.synchronizedSet(mutableSetOf<String>())
+        val written = CountDownLatch(100)
+        val underTest = AsyncLogWriter(
+            name = "TestLogWriter",
+            write = { priority, message, source ->
+                lines.add("$priority $message $source")
+                threads.add(Thread.currentThread().name)
+                written.countDown()
+            },
+            onDropped = {},
+            onWriteFailed = { _, _ -> },
+        )
+
+        repeat(100) { underTest.log(it, "message$it", "source$it") }
+
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue()
+        assertThat(lines).isEqualTo(List(100) { "$it message$it source$it" })
+        assertThat(threads).containsExactly("TestLogWriter")
+    }
+
+    @Test
+    fun `test that the lines logged while the writer waits are written`() {
+        val written = CountDownLatch(2)
+        val underTest = AsyncLogWriter(
+            name = "TestLogWriter",
+            write = { _, _, _ -> written.countDown() },
+            onDropped = {},
+            onWriteFailed = { _, _ -> },
+        )
+
+        underTest.log(0, "first")
+        Thread.sleep(100)
+        underTest.log(0, "second")
+
+        assertThat(written.await(500, TimeUnit.MILLISECONDS)).isTrue()
+    }
+
+    @Test
+    fun `test that the dropped lines are reported`() {
+        val blocked = CountDownLatch(1)
+        val release = CountDownLatch(1)
+        val reported = CountDownLatch(1)
+        var dropped = 0L
+        val underTest = AsyncLogWriter(
+            name = "TestLogWriter",
+            capacity = 4,
+            write = { _, message, _ ->
+                if (message == "block") {
+                    blocked.countDown()
+                    release.await()
+                }
+            },
+            onDropped = {
+                dropped = it
+                reported.countDown()
+            },
+            onWriteFailed = { _, _ -> },
+        )
+
+        underTest.log(0, "block")
+        assertThat(blocked.await(5, TimeUnit.SECONDS)).isTrue()
+        repeat(10) { underTest.log(0, "message$it") }
+        release.countDown()
+
+        assertThat(reported.await(5, TimeUnit.SECONDS)).isTrue()
+        assertThat(dropped).isEqualTo(6)
+        assertThat(underTest.droppedCount).isEqualTo(6)
+    }
+
+    @Test
+    fun `test that the writer keeps running after a line fails to be written`() {
+        val written = CountDownLatch(1)
+        val reported = CountDownLatch(1)
+        val error = IllegalStateException()
+        var failed = 0L
+        var failure: Exception? = null
+        val underTest = AsyncLogWriter(
+            name = "TestLogWriter",
+            write = { _, message, _ ->
+                if (message == "fail") throw error
+                written.countDown()
+            },
+            onDropped = {},
+            onWriteFailed = { count, e ->
+                failed = count
+                failure = e
+                reported.countDown()
+            },
+        )
+
+        underTest.log(0, "fail")
+        underTest.log(0, "message")
+
+        assertThat(written.await(5, TimeUnit.SECONDS)).isTrue()
+        assertThat(reported.await(5, TimeUnit.SECONDS)).isTrue()
+        assertThat(failed).isEqualTo(1)
+        assertThat(failure).isSameInstanceAs(error)
+    }
+
+    @Test
+    fun `test that flush returns when the lines logged before are written`() {
+        val lines = Collections.synchronizedList(mutableListOf<String?>())
+        val underTest = AsyncLogWriter(
+            name = "TestLogWriter",
+            write = { _, message, _ ->
+                Thread.sleep(1)
+                lines.add(message)
+            },
+            onDropped = {},
+            onWriteFailed = { _, _ -> },
+        )
+
+        repeat(100) { underTest.log(0, "message$it") }
+
+        assertThat(underTest.flush(timeoutMillis = 5_000)).isTrue()
+        assertThat(lines).hasSize(100)
+    }
+
+    @Test
+    fun `test that flush returns false if the lines are not written before the timeout`() {
+        val release = CountDownLatch(1)
+        val underTest = AsyncLogWriter(
+            name = "TestLogWriter",
+            write = { _, _, _ -> release.await() },
+            onDropped = {},
+            onWriteFailed = { _, _ -> },
+        )
+
+        underTest.log(0, "blocked")
+
+        assertThat(underTest.flush(timeoutMillis = 50)).isFalse()
+        release.countDown()
+    }
+
+    @Test
+    fun `test that the lines are flushed before the previous uncaught exception handler`() {
+        val previousHandler = Thread.getDefaultUncaughtExceptionHandler()
+        try {
+            val lines = Collections.synchronizedList(mutableListOf<String?>())
+            var linesWhenHandled: List<String?>? = null
+            Thread.setDefaultUncaughtExceptionHandler { _, _ ->
+                linesWhenHandled = lines.toList()
+            }
+            val underTest = AsyncLogWriter(
+                name = "TestLogWriter",
+                write = { _, message, _ ->
+                    Thread.sleep(1)
+                    lines.add(message)
+                },
+                onDropped = {},
+                onWriteFailed = { _, _ -> },
+            )
+            underTest.flushOnUncaughtException()
+
+            repeat(10) { underTest.log(0, "message$it") }
+            Thread.getDefaultUncaughtExceptionHandler()
+                ?.uncaughtException(Thread.currentThread(), IllegalStateException())
+
+            assertThat(linesWhenHandled).hasSize(10)
+        } finally {
+            Thread.setDefaultUncaughtExceptionHandler(previousHandler)
+        }
+    }
+}
@@ -0,0 +1,109 @@
+package mega.privacy.android.data.logging
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.assertThrows
+import java.util.concurrent.CountDownLatch
+import kotlin.concurrent.thread
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LogRingBufferTest {
+
+    @Test
+    fun `test that the lines are read in the order they are offered`() {
+        val underTest = LogRingBuffer(4)
+        repeat(3) { underTest.offer(it, "message$it", "source$it") }
+
+        val lines = mutableListOf<Triple<Int, String?, String?>>()
+        val count = underTest.drain(10) { priority, message, source ->
+            lines.add(Triple(priority, message, source))
+        }
+
+        assertThat(count).isEqualTo(3)
+        assertThat(lines).containsExactly(
+            Triple(0, "message0", "source0"),
+            Triple(1, "message1", "source1"),
+            Triple(2, "message2", "source2"),
+        ).inOrder()
+        assertThat(underTest.isEmpty()).isTrue()
+    }
+
+    @Test
+    fun `test that no more than the max lines are read`() {
+        val underTest = LogRingBuffer(8)
+        repeat(5) { underTest.offer(it, "message", null) }
+
+        assertThat(underTest.drain(2) { _, _, _ -> }).isEqualTo(2)
+        assertThat(underTest.drain(10) { _, _, _ -> }).isEqualTo(3)
+    }
+
+    @Test
+    fun `test that the lines offered when the buffer is full are dropped and counted`() {
+        val underTest = LogRingBuffer(4)
+
+        val offered = List(6) { underTest.offer(it, "message$it", null) }
+
+        assertThat(offered).containsExactly(true, true, true, true, false, false).inOrder()
+        assertThat(underTest.droppedCount).isEqualTo(2)
+        val messages = mutableListOf<String?>()
+        underTest.drain(10) { _, message, _ -> messages.add(message) }
+        assertThat(messages).containsExactly("message0", "message1", "message2", "message3")
+            .inOrder()
+    }
+
+    @Test
+    fun `test that the slots are reused after reading the lines`() {
+        val underTest = LogRingBuffer(2)
+        val messages = mutableListOf<String?>()
+
+        repeat(5) {
+            assertThat(underTest.offer(0, "message$it", null)).isTrue()
+            underTest.drain(1) { _, message, _ -> messages.add(message) }
+        }
+
+        assertThat(messages).hasSize(5)
+        assertThat(underTest.droppedCount).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that all the lines of several threads are read once`() {
+        val underTest = LogRingBuffer(1024)
+        val producers = 4
+        val linesPerProducer = 50_000
+        val start = CountDownLatch(1)
+        val threads = List(producers) { producer ->
+            thread {
+                start.await()
+                repeat(linesPerProducer) { line ->
+                    while (!underTest.offer(producer, line.toString(), null)) {
+                        Thread.yield()
+                    }
+                }
+            }
+        }
+        val lastLines = IntArray(producers) { -1 }
+        var count = 0
+
+        start.countDown()
+        while (count < producers * linesPerProducer) {
+            count += underTest.drain(256) { producer, message, _ ->
+                val line = message!!.toInt()
+                // The lines of each producer keep their order
+                assertThat(line).isEqualTo(lastLines[producer] + 1)
+                lastLines[producer] = line
+            }
+        }
+        threads.forEach { it.join() }
+
+        assertThat(lastLines.toList()).containsExactly(
+            linesPerProducer - 1, linesPerProducer - 1, linesPerProducer - 1, linesPerProducer - 1
+        )
+        assertThat(underTest.isEmpty()).isTrue()
+    }
+
+    @Test
+    fun `test that the capacity must be a power of two`() {
+        assertThrows<IllegalArgumentException> { LogRingBuffer(10) }
+    }
+}
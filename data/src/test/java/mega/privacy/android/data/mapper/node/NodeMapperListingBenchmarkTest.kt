@@ -0,0 +1,137 @@
+package mega.privacy.android.data.mapper.node
+
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.FileTypeInfoMapper
+import mega.privacy.android.data.mapper.StringListMapper
+import mega.privacy.android.data.mapper.getMimeType
+import mega.privacy.android.domain.entity.node.FolderNode
+import nz.mega.sdk.MegaNode
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.Tag
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.doAnswer
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.onBlocking
+import java.io.File
+import java.nio.file.Files
+
+/**
+ * Micro benchmark comparing the cost per node of mapping a folder listing with
+ * [NodeMapper.mapListing] and with one coroutine per node, as the listings did before, for
+ * folders of up to 20k children.
+ *
+ * The cache folders are checked on the real file system. It is only run with the
+ * includeBenchmarks Gradle property, as the timings depend on the machine.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NodeMapperListingBenchmarkTest {
+
+    private val cacheDir = Files.createTempDirectory("cache").toFile()
+
+    private val cacheGateway = mock<CacheGateway> {
+        onBlocking { getThumbnailCacheFolder() } doAnswer { getOrCreateCacheFolder("thumbnail") }
+        onBlocking { getPreviewCacheFolder() } doAnswer { getOrCreateCacheFolder("preview") }
+        onBlocking { getFullSizeCacheFolder() } doAnswer { getOrCreateCacheFolder("temp") }
+    }
+
+    private val megaApiGateway = mock<MegaApiGateway> {
+        onBlocking { isSensitiveInherited(any()) } doReturn false
+        onBlocking { getNumVersions(any()) } doReturn 1
+    }
+
+    private val folderNode = mock<FolderNode>()
+
+    private val folderNodeMapper = mock<FolderNodeMapper> {
+        onBlocking { invoke(any(), any(), any(), any()) } doReturn folderNode
+    }
+
+    private val fileTypeInfoMapper = FileTypeInfoMapper { extension ->
+        getMimeType(extension) { MIME_TYPES[it] }
+    }
+
+    private val underTest = NodeMapper(
+        folderNodeMapper = folderNodeMapper,
+        fileNodeMapper = FileNodeMapper(
+            cacheGateway = cacheGateway,
+            megaApiGateway = megaApiGateway,
+            fileTypeInfoMapper = fileTypeInfoMapper,
+            offlineAvailabilityMapper = OfflineAvailabilityMapper(
+                ioDispatcher = UnconfinedTestDispatcher(),
+                fileGateway = mock(),
+                megaLocalRoomGateway = mock(),
+            ),
+            stringListMapper = StringListMapper(),
+        ),
+    )
+
+    @AfterAll
+    fun tearDown() {
+        cacheDir.deleteRecursively()
+    }
+
+    @Test
+    fun `benchmark the cost per node of listings of up to 20k children`() = runTest {
+        listOf(1_000, 20_000).forEach { size ->
+            val megaNodes = createMegaNodes(size)
+            // warm up
+            underTest.mapListing(megaNodes, null)
+            mapEachNode(megaNodes)
+
+            val listingNanos = measure { underTest.mapListing(megaNodes, null) } / size
+            val eachNanos = measure { mapEachNode(megaNodes) } / size
+
+            println(
+                "children: $size, listing: $listingNanos ns/node, " +
+                        "per node: $eachNanos ns/node"
+            )
+        }
+    }
+
+    private suspend fun mapEachNode(megaNodes: List<MegaNode>) = coroutineScope {
+        megaNodes.map { async { underTest(megaNode = it) } }.awaitAll()
+    }
+
+    private inline fun measure(block: () -> Unit): Long {
+        val start = System.nanoTime()
+        block()
+        return System.nanoTime() - start
+    }
+
+    private fun getOrCreateCacheFolder(name: String) =
+        File(cacheDir, name).takeIf { it.exists() || it.mkdir() }
+
+    private fun createMegaNodes(size: Int) = List(size) { index ->
+        val isFolder = index % 50 == 0
+        mock<MegaNode> {
+            on { handle } doReturn index.toLong()
+            on { base64Handle } doReturn "handle$index"
+            on { parentHandle } doReturn (index % PARENTS).toLong()
+            on { name } doReturn "file$index.${EXTENSIONS[index % EXTENSIONS.size]}"
+            on { duration } doReturn if (index % 3 == 0) 60 else 0
+            on { this.isFolder } doReturn isFolder
+        }
+    }
+
+    private companion object {
+        const val PARENTS = 4
+        val EXTENSIONS = listOf("jpg", "png", "mp4", "mp3", "pdf", "txt", "docx", "zip")
+        val MIME_TYPES = mapOf(
+            "jpg" to "image/jpeg",
+            "png" to "image/png",
+            "mp4" to "video/mp4",
+            "mp3" to "audio/mpeg",
+            "pdf" to "application/pdf",
+            "txt" to "text/plain",
+        )
+    }
+}
@@ -0,0 +1,184 @@
+package mega.privacy.android.data.mapper.node
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.async
+import kotlinx.coroutines.awaitAll
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.FileTypeInfoMapper
+import mega.privacy.android.data.mapper.StringListMapper
+import mega.privacy.android.data.mapper.getMimeType
+import mega.privacy.android.domain.entity.node.FolderNode
+import nz.mega.sdk.MegaNode
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.clearInvocations
+import org.mockito.kotlin.doAnswer
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.onBlocking
+import org.mockito.kotlin.stub
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import java.io.File
+import java.nio.file.Files
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class NodeMapperListingTest {
+
+    private val cacheDir = Files.createTempDirectory("cache").toFile()
+
+    private val cacheGateway = mock<CacheGateway> {
+        onBlocking { getThumbnailCacheFolder() } doAnswer { getOrCreateCacheFolder("thumbnail") }
+        onBlocking { getPreviewCacheFolder() } doAnswer { getOrCreateCacheFolder("preview") }
+        onBlocking { getFullSizeCacheFolder() } doAnswer { getOrCreateCacheFolder("temp") }
+    }
+
+    private val megaApiGateway = mock<MegaApiGateway> {
+        onBlocking { isSensitiveInherited(any()) } doReturn false
+        onBlocking { getNumVersions(any()) } doReturn 1
+    }
+
+    private val folderNode = mock<FolderNode>()
+
+    private val folderNodeMapper = mock<FolderNodeMapper> {
+        onBlocking { invoke(any(), any(), any(), any()) } doReturn folderNode
+    }
+
+    private val fileTypeInfoMapper = FileTypeInfoMapper { extension ->
+        getMimeType(extension) { MIME_TYPES[it] }
+    }
+
+    private val underTest = NodeMapper(
+        folderNodeMapper = folderNodeMapper,
+        fileNodeMapper = FileNodeMapper(
+            cacheGateway = cacheGateway,
+            megaApiGateway = megaApiGateway,
+            fileTypeInfoMapper = fileTypeInfoMapper,
+            offlineAvailabilityMapper = OfflineAvailabilityMapper(
+                ioDispatcher = UnconfinedTestDispatcher(),
+                fileGateway = mock(),
+                megaLocalRoomGateway = mock(),
+            ),
+            stringListMapper = StringListMapper(),
+        ),
+    )
+
+    @BeforeEach
+    fun resetInvocations() {
+        clearInvocations(cacheGateway, megaApiGateway)
+        megaApiGateway.stub { onBlocking { isSensitiveInherited(any()) } doReturn false }
+    }
+
+    @AfterAll
+    fun tearDown() {
+        cacheDir.deleteRecursively()
+    }
+
+    @Test
+    fun `test that the listing maps the same nodes as the per node mapping`() = runTest {
+        val megaNodes = createMegaNodes(LISTING_SIZE)
+
+        assertThat(underTest.mapListing(megaNodes, null)).isEqualTo(mapEachNode(megaNodes))
+    }
+
+    @Test
+    fun `test that the listing resolves the cache folders once`() = runTest {
+        underTest.mapListing(createMegaNodes(LISTING_SIZE), null)
+
+        verify(cacheGateway).getThumbnailCacheFolder()
+        verify(cacheGateway).getPreviewCacheFolder()
+        verify(cacheGateway).getFullSizeCacheFolder()
+    }
+
+    @Test
+    fun `test that the listing reads the inherited sensitivity once per parent and chunk`() =
+        runTest {
+            underTest.mapListing(createMegaNodes(LISTING_SIZE), null)
+
+            verify(megaApiGateway, times(PARENTS * (LISTING_SIZE / CHUNK_SIZE)))
+                .isSensitiveInherited(any())
+        }
+
+    @Test
+    fun `test that a node marked as sensitive does not make its siblings sensitive`() = runTest {
+        val markedNode = createFileNode(handle = 1L, parentHandle = 100L, isMarkedSensitive = true)
+        val siblings = (2L..5L).map { createFileNode(handle = it, parentHandle = 100L) }
+        megaApiGateway.stub {
+            onBlocking { isSensitiveInherited(any()) } doAnswer {
+                (it.arguments[0] as MegaNode).isMarkedSensitive
+            }
+        }
+
+        val nodes = underTest.mapListing(listOf(markedNode) + siblings, null)
+
+        assertThat(nodes.map { it.isSensitiveInherited })
+            .containsExactly(true, false, false, false, false)
+            .inOrder()
+    }
+
+    @Test
+    fun `test that the siblings of a node marked as sensitive inherit the sensitivity of their parent`() =
+        runTest {
+            val markedNode =
+                createFileNode(handle = 1L, parentHandle = 100L, isMarkedSensitive = true)
+            val siblings = (2L..5L).map { createFileNode(handle = it, parentHandle = 100L) }
+            megaApiGateway.stub { onBlocking { isSensitiveInherited(any()) } doReturn true }
+
+            val nodes = underTest.mapListing(listOf(markedNode) + siblings, null)
+
+            assertThat(nodes.map { it.isSensitiveInherited }).doesNotContain(false)
+        }
+
+    private fun createFileNode(
+        handle: Long,
+        parentHandle: Long,
+        isMarkedSensitive: Boolean = false,
+    ) = mock<MegaNode> {
+        on { this.handle } doReturn handle
+        on { base64Handle } doReturn "handle$handle"
+        on { this.parentHandle } doReturn parentHandle
+        on { name } doReturn "file$handle.jpg"
+        on { this.isMarkedSensitive } doReturn isMarkedSensitive
+    }
+
+    private suspend fun mapEachNode(megaNodes: List<MegaNode>) = coroutineScope {
+        megaNodes.map { async { underTest(megaNode = it) } }.awaitAll()
+    }
+
+    private fun getOrCreateCacheFolder(name: String) =
+        File(cacheDir, name).takeIf { it.exists() || it.mkdir() }
+
+    private fun createMegaNodes(size: Int) = List(size) { index ->
+        val isFolder = index % 50 == 0
+        mock<MegaNode> {
+            on { handle } doReturn index.toLong()
+            on { base64Handle } doReturn "handle$index"
+            on { parentHandle } doReturn (index % PARENTS).toLong()
+            on { name } doReturn "file$index.${EXTENSIONS[index % EXTENSIONS.size]}"
+            on { duration } doReturn if (index % 3 == 0) 60 else 0
+            on { this.isFolder } doReturn isFolder
+        }
+    }
+
+    private companion object {
+        const val LISTING_SIZE = 2_000
+        const val PARENTS = 4
+        const val CHUNK_SIZE = 500
+        val EXTENSIONS = listOf("jpg", "png", "mp4", "mp3", "pdf", "txt", "docx", "zip")
+        val MIME_TYPES = mapOf(
+            "jpg" to "image/jpeg",
+            "png" to "image/png",
+            "mp4" to "video/mp4",
+            "mp3" to "audio/mpeg",
+            "pdf" to "application/pdf",
+            "txt" to "text/plain",
+        )
+    }
+}
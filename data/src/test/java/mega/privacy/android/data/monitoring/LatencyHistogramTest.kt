@@ -0,0 +1,72 @@
+package mega.privacy.android.data.monitoring
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.ValueSource
+import kotlin.concurrent.thread
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LatencyHistogramTest {
+
+    @ParameterizedTest(name = "value: {0}")
+    @ValueSource(longs = [0, 1, 15, 16, 17, 100, 1_000, 123_456_789, Long.MAX_VALUE])
+    fun `test that a value is in the bounds of its bucket`(value: Long) {
+        val index = LatencyHistogram.indexOf(value)
+
+        assertThat(index).isLessThan(LatencyHistogram.BUCKET_COUNT)
+        assertThat(LatencyHistogram.lowestValueOf(index)).isAtMost(value)
+        assertThat(LatencyHistogram.highestValueOf(index)).isAtLeast(value)
+        assertThat(LatencyHistogram.indexOf(LatencyHistogram.lowestValueOf(index))).isEqualTo(index)
+    }
+
+    @Test
+    fun `test that the buckets are narrow relative to their values`() {
+        (LatencyHistogram.SUB_BUCKETS until LatencyHistogram.BUCKET_COUNT).forEach { index ->
+            val lowest = LatencyHistogram.lowestValueOf(index)
+            val width = LatencyHistogram.highestValueOf(index) - lowest + 1
+            assertThat(width.toDouble() / lowest).isAtMost(1.0 / LatencyHistogram.SUB_BUCKETS)
+        }
+    }
+
+    @Test
+    fun `test that the percentiles are close to the recorded values`() {
+        val underTest = LatencyHistogram()
+        (1..1000L).forEach { underTest.record(it * 1000) }
+
+        val snapshot = underTest.snapshot()
+
+        assertThat(snapshot.count).isEqualTo(1000)
+        assertThat(snapshot.min).isEqualTo(1000)
+        assertThat(snapshot.max).isEqualTo(1_000_000)
+        assertThat(snapshot.sum).isEqualTo((1..1000L).sum() * 1000)
+        assertThat(snapshot.percentile(50.0).toDouble()).isWithin(500_000 * 0.07).of(500_000.0)
+        assertThat(snapshot.percentile(99.0).toDouble()).isWithin(990_000 * 0.07).of(990_000.0)
+        assertThat(snapshot.percentile(100.0)).isEqualTo(1_000_000)
+    }
+
+    @Test
+    fun `test that an empty histogram has no durations`() {
+        val snapshot = LatencyHistogram().snapshot()
+
+        assertThat(snapshot.count).isEqualTo(0)
+        assertThat(snapshot.min).isEqualTo(0)
+        assertThat(snapshot.max).isEqualTo(0)
+        assertThat(snapshot.percentile(50.0)).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that the durations of several threads are all recorded`() {
+        val underTest = LatencyHistogram()
+
+        List(4) {
+            thread { repeat(10_000) { value -> underTest.record(value.toLong()) } }
+        }.forEach { it.join() }
+
+        val snapshot = underTest.snapshot()
+        assertThat(snapshot.count).isEqualTo(40_000)
+        assertThat(snapshot.sum).isEqualTo(4 * (0 until 10_000L).sum())
+        assertThat(snapshot.max).isEqualTo(9_999)
+    }
+}
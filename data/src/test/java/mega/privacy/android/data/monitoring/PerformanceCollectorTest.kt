@@ -0,0 +1,103 @@
+package mega.privacy.android.data.monitoring
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.util.concurrent.TimeUnit
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PerformanceCollectorTest {
+
+    private var nanoTime = 0L
+
+    private lateinit var underTest: PerformanceCollector
+
+    @BeforeEach
+    fun setUp() {
+        nanoTime = 0L
+        underTest = PerformanceCollector(
+            nanoTime = { nanoTime },
+            currentTimeMillis = { 1234L },
+        )
+    }
+
+    @Test
+    fun `test that the duration of a trace is recorded when it is stopped`() {
+        underTest.startTrace("trace")
+        nanoTime += TimeUnit.MILLISECONDS.toNanos(5)
+
+        assertThat(underTest.stopTrace("trace")).isTrue()
+
+        val trace = underTest.snapshot().traces.single()
+        assertThat(trace.name).isEqualTo("trace")
+        assertThat(trace.count).isEqualTo(1)
+        assertThat(trace.sumMicros).isEqualTo(5_000)
+        assertThat(trace.p50Micros).isEqualTo(5_000)
+        assertThat(trace.buckets.single().count).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that a trace not running is not recorded`() {
+        assertThat(underTest.stopTrace("trace")).isFalse()
+        assertThat(underTest.snapshot().traces).isEmpty()
+    }
+
+    @Test
+    fun `test that starting a running trace records the previous one`() {
+        underTest.startTrace("trace")
+        nanoTime += TimeUnit.MILLISECONDS.toNanos(1)
+        underTest.startTrace("trace")
+        nanoTime += TimeUnit.MILLISECONDS.toNanos(2)
+        underTest.stopTrace("trace")
+
+        val trace = underTest.snapshot().traces.single()
+        assertThat(trace.count).isEqualTo(2)
+        assertThat(trace.minMicros).isEqualTo(1_000)
+        assertThat(trace.maxMicros).isEqualTo(2_000)
+    }
+
+    @Test
+    fun `test that the snapshot has the counters, gauges and attributes`() {
+        underTest.startTrace("trace")
+        underTest.putAttribute("trace", "type", "photos")
+        underTest.stopTrace("trace")
+        underTest.increment("counter")
+        underTest.increment("counter", 4)
+        underTest.setGauge("gauge", 10)
+        underTest.setGauge("gauge", 7)
+
+        val snapshot = underTest.snapshot()
+
+        assertThat(snapshot.timestamp).isEqualTo(1234L)
+        assertThat(snapshot.traces.single().attributes).containsExactly("type", "photos")
+        assertThat(snapshot.counters).containsExactly("counter", 5L)
+        assertThat(snapshot.gauges).containsExactly("gauge", 7L)
+    }
+
+    @Test
+    fun `test that clear keeps the running traces only`() {
+        underTest.startTrace("running")
+        underTest.startTrace("stopped")
+        underTest.stopTrace("stopped")
+        underTest.increment("counter")
+
+        underTest.clear()
+
+        assertThat(underTest.snapshot().traces).isEmpty()
+        assertThat(underTest.snapshot().counters).isEmpty()
+        assertThat(underTest.isRunning("running")).isTrue()
+    }
+
+    @Test
+    fun `test that cancelled traces are not recorded`() {
+        underTest.startTrace("trace")
+        nanoTime += TimeUnit.MILLISECONDS.toNanos(5)
+
+        underTest.cancelTraces()
+
+        assertThat(underTest.isRunning("trace")).isFalse()
+        assertThat(underTest.stopTrace("trace")).isFalse()
+        assertThat(underTest.snapshot().traces).isEmpty()
+    }
+}
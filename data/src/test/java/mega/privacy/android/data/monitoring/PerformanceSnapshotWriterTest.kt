@@ -0,0 +1,72 @@
+package mega.privacy.android.data.monitoring
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.serialization.json.Json
+import kotlinx.serialization.json.jsonArray
+import kotlinx.serialization.json.jsonObject
+import kotlinx.serialization.json.jsonPrimitive
+import kotlinx.serialization.json.long
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.assertThrows
+import java.io.ByteArrayInputStream
+import java.io.ByteArrayOutputStream
+import java.io.IOException
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PerformanceSnapshotWriterTest {
+
+    private val snapshot = PerformanceCollector(currentTimeMillis = { 1234L }).apply {
+        (1..100L).forEach { record("listing", it * 1_000_000) }
+        record("startup", 800_000_000)
+        putAttribute("listing", "view", "grid")
+        increment("transfers", 3)
+        setGauge("nodes", 1500)
+    }.snapshot()
+
+    @Test
+    fun `test that the binary snapshot is read back the same`() {
+        val output = ByteArrayOutputStream()
+
+        PerformanceSnapshotWriter.writeBinary(snapshot, output)
+        val actual = PerformanceSnapshotWriter.readBinary(ByteArrayInputStream(output.toByteArray()))
+
+        assertThat(actual).isEqualTo(snapshot)
+    }
+
+    @Test
+    fun `test that the binary snapshot is smaller than the JSON one`() {
+        val binary = ByteArrayOutputStream()
+        val json = ByteArrayOutputStream()
+
+        PerformanceSnapshotWriter.writeBinary(snapshot, binary)
+        PerformanceSnapshotWriter.writeJson(snapshot, json)
+
+        assertThat(binary.size()).isLessThan(json.size())
+    }
+
+    @Test
+    fun `test that the JSON snapshot has the traces, counters and gauges`() {
+        val output = ByteArrayOutputStream()
+
+        PerformanceSnapshotWriter.writeJson(snapshot, output)
+
+        val json = Json.parseToJsonElement(output.toString(Charsets.UTF_8.name())).jsonObject
+        assertThat(json.getValue("timestamp").jsonPrimitive.long).isEqualTo(1234L)
+        val traces = json.getValue("traces").jsonArray.map { it.jsonObject }
+        assertThat(traces.map { it.getValue("name").jsonPrimitive.content })
+            .containsExactly("listing", "startup").inOrder()
+        assertThat(traces.first().getValue("count").jsonPrimitive.long).isEqualTo(100)
+        assertThat(json.getValue("counters").jsonObject.getValue("transfers").jsonPrimitive.long)
+            .isEqualTo(3)
+        assertThat(json.getValue("gauges").jsonObject.getValue("nodes").jsonPrimitive.long)
+            .isEqualTo(1500)
+    }
+
+    @Test
+    fun `test that a file which is not a snapshot is not read`() {
+        assertThrows<IOException> {
+            PerformanceSnapshotWriter.readBinary(ByteArrayInputStream(ByteArray(16)))
+        }
+    }
+}
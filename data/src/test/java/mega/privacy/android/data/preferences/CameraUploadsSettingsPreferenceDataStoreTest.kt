@@ -12,8 +12,15 @@ import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.resetMain
 import kotlinx.coroutines.test.runTest
 import kotlinx.coroutines.test.setMain
+import kotlinx.serialization.encodeToString
+import kotlinx.serialization.json.Json
 import mega.privacy.android.data.cryptography.DecryptData
 import mega.privacy.android.data.cryptography.EncryptData
+import mega.privacy.android.domain.entity.CameraUploadsRecordType
+import mega.privacy.android.domain.entity.MediaStoreFileType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanCheckpoint
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreVolumeGeneration
 import org.junit.jupiter.api.AfterAll
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
@@ -358,4 +365,43 @@ internal class CameraUploadsSettingsPreferenceDataStoreTest {
 
         assertThat(underTest.isChargingRequiredToUploadContent()).isEqualTo(chargingRequired)
     }
+
+    @Test
+    internal fun `test that the media store scan checkpoint is decrypted and decoded when retrieved`() =
+        runTest {
+            val checkpoint = MediaStoreScanCheckpoint(
+                parentPath = "parentPath",
+                types = listOf(MediaStoreFileType.IMAGES_EXTERNAL),
+                volumes = listOf(
+                    MediaStoreVolumeGeneration(
+                        volumeName = "external_primary",
+                        version = "version",
+                        generation = 10L,
+                    )
+                ),
+            )
+            decryptData.stub {
+                onBlocking { invoke(any()) }.thenReturn(Json.encodeToString(checkpoint))
+            }
+
+            assertThat(
+                underTest.getMediaStoreScanCheckpoint(
+                    CameraUploadFolderType.Primary,
+                    CameraUploadsRecordType.TYPE_PHOTO,
+                )
+            ).isEqualTo(checkpoint)
+        }
+
+    @Test
+    internal fun `test that the media store scan checkpoint is null when it cannot be decoded`() =
+        runTest {
+            decryptData.stub { onBlocking { invoke(any()) }.thenReturn("12345") }
+
+            assertThat(
+                underTest.getMediaStoreScanCheckpoint(
+                    CameraUploadFolderType.Secondary,
+                    CameraUploadsRecordType.TYPE_VIDEO,
+                )
+            ).isNull()
+        }
 }
@@ -6,12 +6,12 @@ import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.resetMain
 import kotlinx.coroutines.test.runTest
-import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.audios.TypedAudioNodeMapper
 import mega.privacy.android.data.mapper.node.FileNodeMapper
 import mega.privacy.android.data.mapper.search.MegaSearchFilterMapper
+import mega.privacy.android.data.repository.offline.OfflineIndex
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.FileNode
 import mega.privacy.android.domain.entity.node.TypedAudioNode
@@ -41,7 +41,7 @@ class AudioSectionRepositoryImplTest {
     private val fileNodeMapper = mock<FileNodeMapper>()
     private val typedAudioNodeMapper = mock<TypedAudioNodeMapper>()
     private val cancelTokenProvider = mock<CancelTokenProvider>()
-    private val megaLocalRoomGateway = mock<MegaLocalRoomGateway>()
+    private val offlineIndex = mock<OfflineIndex>()
     private val megaSearchFilterMapper = mock<MegaSearchFilterMapper>()
 
     @BeforeAll
@@ -52,7 +52,7 @@ class AudioSectionRepositoryImplTest {
             fileNodeMapper = fileNodeMapper,
             typedAudioNodeMapper = typedAudioNodeMapper,
             cancelTokenProvider = cancelTokenProvider,
-            megaLocalRoomGateway = megaLocalRoomGateway,
+            offlineIndex = offlineIndex,
             megaSearchFilterMapper = megaSearchFilterMapper,
             ioDispatcher = UnconfinedTestDispatcher()
         )
@@ -65,7 +65,7 @@ class AudioSectionRepositoryImplTest {
             sortOrderIntMapper,
             fileNodeMapper,
             typedAudioNodeMapper,
-            megaLocalRoomGateway
+            offlineIndex
         )
     }
 
@@ -108,7 +108,7 @@ class AudioSectionRepositoryImplTest {
                 token
             )
         ).thenReturn(listOf(backupNode, node))
-        whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(null)
+        whenever(offlineIndex.getAll()).thenReturn(emptyMap())
         whenever(
             fileNodeMapper(
                 megaNode = node,
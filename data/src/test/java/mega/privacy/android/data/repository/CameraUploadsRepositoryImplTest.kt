@@ -33,10 +33,14 @@ import mega.privacy.android.data.mapper.camerauploads.CameraUploadsStatusInfoMap
 import mega.privacy.android.data.mapper.camerauploads.HeartbeatStatusIntMapper
 import mega.privacy.android.data.mapper.camerauploads.UploadOptionIntMapper
 import mega.privacy.android.data.mapper.camerauploads.UploadOptionMapper
+import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.VideoQuality
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordIndex
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsStatusInfo
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreVolumeGeneration
 import mega.privacy.android.domain.entity.settings.camerauploads.UploadOption
 import mega.privacy.android.domain.exception.MegaException
 import mega.privacy.android.domain.repository.CameraUploadsRepository
@@ -55,7 +59,9 @@ import org.junit.jupiter.params.provider.EnumSource
 import org.junit.jupiter.params.provider.ValueSource
 import org.mockito.kotlin.any
 import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
@@ -224,6 +230,24 @@ class CameraUploadsRepositoryImplTest {
                 assertThat(actual).isEqualTo(result)
             }
 
+        @Test
+        fun `test that the media batches are retrieved by media store file type`() = runTest {
+            val batches = listOf(listOf(CameraUploadsMedia(1234L, "displayName", "filePath", 1)))
+            whenever(mediaStoreFileTypeUriWrapper(MediaStoreFileType.IMAGES_EXTERNAL))
+                .thenReturn(Uri.EMPTY)
+            whenever(cameraUploadsMediaGateway.getMediaBatches(Uri.EMPTY, "selection", 10))
+                .thenReturn(flowOf(*batches.toTypedArray()))
+
+            underTest.getMediaBatches(
+                mediaStoreFileType = MediaStoreFileType.IMAGES_EXTERNAL,
+                selectionQuery = "selection",
+                batchSize = 10,
+            ).test {
+                assertThat(awaitItem()).isEqualTo(batches.single())
+                awaitComplete()
+            }
+        }
+
         @Test
         fun `test that getMediaSelectionQuery returns the result of cameraUploadsMediaGateway getMediaSelectionQuery`() =
             runTest {
@@ -234,6 +258,60 @@ class CameraUploadsRepositoryImplTest {
                 )
                 assertThat(underTest.getMediaSelectionQuery(parentPath)).isEqualTo(expected)
             }
+
+        @Test
+        fun `test that the changed since selection query is the result of cameraUploadsMediaGateway getMediaSelectionQuery`() =
+            runTest {
+                val expected = "selectionQuery"
+                val parentPath = "parentPath"
+                val changedSince = listOf<MediaStoreVolumeGeneration>(mock())
+                whenever(
+                    cameraUploadsMediaGateway.getMediaSelectionQuery(parentPath, changedSince)
+                ).thenReturn(expected)
+                assertThat(underTest.getMediaSelectionQuery(parentPath, changedSince))
+                    .isEqualTo(expected)
+            }
+
+        @Test
+        fun `test that the media store volume generations are retrieved`() = runTest {
+            val expected = listOf<MediaStoreVolumeGeneration>(mock())
+            whenever(cameraUploadsMediaGateway.getMediaStoreVolumeGenerations())
+                .thenReturn(expected)
+            assertThat(underTest.getMediaStoreVolumeGenerations()).isEqualTo(expected)
+        }
+
+        @Test
+        fun `test that the camera uploads record index is retrieved for the folder type`() =
+            runTest {
+                val expected = CameraUploadsRecordIndex()
+                whenever(
+                    megaLocalRoomGateway.getCameraUploadsRecordIndex(CameraUploadFolderType.Primary)
+                ).thenReturn(expected)
+                assertThat(underTest.getCameraUploadsRecordIndex(CameraUploadFolderType.Primary))
+                    .isSameInstanceAs(expected)
+            }
+
+        @Test
+        fun `test that the media store scan checkpoints are removed when the records are cleared`() =
+            runTest {
+                underTest.clearRecords(listOf(CameraUploadFolderType.Secondary))
+
+                verify(megaLocalRoomGateway).deleteCameraUploadsRecords(
+                    listOf(CameraUploadFolderType.Secondary)
+                )
+                CameraUploadsRecordType.entries.forEach {
+                    verify(cameraUploadsSettingsPreferenceGateway).setMediaStoreScanCheckpoint(
+                        CameraUploadFolderType.Secondary,
+                        it,
+                        null,
+                    )
+                }
+                verify(cameraUploadsSettingsPreferenceGateway, never()).setMediaStoreScanCheckpoint(
+                    eq(CameraUploadFolderType.Primary),
+                    any(),
+                    anyOrNull(),
+                )
+            }
     }
 
     @Nested
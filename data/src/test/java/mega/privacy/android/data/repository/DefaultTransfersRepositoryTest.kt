@@ -33,12 +33,14 @@ import mega.privacy.android.data.mapper.transfer.TransferEventMapper
 import mega.privacy.android.data.mapper.transfer.TransferMapper
 import mega.privacy.android.data.mapper.transfer.active.ActiveTransferTotalsMapper
 import mega.privacy.android.data.model.GlobalTransfer
+import mega.privacy.android.data.repository.transfers.TransferProgressStore
 import mega.privacy.android.data.model.RequestEvent
 import mega.privacy.android.data.repository.DefaultTransfersRepository.Companion.TRANSFERS_SD_TEMPORARY_FOLDER
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.TypedFileNode
 import mega.privacy.android.domain.entity.transfer.ActiveTransfer
 import mega.privacy.android.domain.entity.transfer.ActiveTransferActionGroup
+import mega.privacy.android.domain.entity.transfer.ActiveTransferActionGroupImpl
 import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
 import mega.privacy.android.domain.entity.transfer.CompletedTransfer
 import mega.privacy.android.domain.entity.transfer.CompletedTransferState
@@ -84,6 +86,7 @@ import org.mockito.kotlin.verify
 import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 import java.io.File
+import kotlin.time.Duration
 import kotlin.time.Duration.Companion.seconds
 import kotlin.time.ExperimentalTime
 import kotlin.time.Instant
@@ -156,6 +159,7 @@ class DefaultTransfersRepositoryTest {
             monitorFetchNodesFinishUseCase = monitorFetchNodesFinishUseCase,
             transfersPreferencesGateway = { transfersPreferencesGateway },
             parentRecursiveAppDataCache = parentRecursiveAppDataCache,
+            transferProgressStore = TransferProgressStore(testScope, Duration.ZERO),
         )
     }
 
@@ -1245,56 +1249,52 @@ class DefaultTransfersRepositoryTest {
 
         @ParameterizedTest
         @EnumSource(TransferType::class)
-        fun `test that getActiveTransferTotalsByType gateway result is returned when getActiveTransferTotalsByType is called`(
+        fun `test that getActiveTransferTotalsByType returns the totals of the gateway active transfers`(
             transferType: TransferType,
         ) = runTest {
-            val expected = mock<ActiveTransferTotals>()
-            val list = mock<List<ActiveTransfer>>()
-            val flow = flowOf(list)
+            underTest.deleteAllActiveTransfersByType(transferType)
+            val list = listOf(
+                stubActiveFileTransfer(1L, transferType, isFinished = true),
+                stubActiveFileTransfer(2L, transferType, isFinished = false),
+            )
             whenever(megaLocalRoomGateway.getActiveTransfersByType(transferType))
-                .thenReturn(flow)
-            whenever(activeTransferTotalsMapper(eq(transferType), eq(list), any(), anyOrNull()))
-                .thenReturn(expected)
+                .thenReturn(flowOf(list))
+
             val actual = underTest.getActiveTransferTotalsByType(transferType).first()
-            assertThat(actual).isEqualTo(expected)
+
+            assertThat(actual.totalTransfers).isEqualTo(2)
+            assertThat(actual.totalFileTransfers).isEqualTo(2)
+            assertThat(actual.totalFinishedTransfers).isEqualTo(1)
+            assertThat(actual.totalBytes).isEqualTo(2048L)
+            assertThat(actual.transferredBytes).isEqualTo(1024L)
         }
 
         @ParameterizedTest
         @EnumSource(TransferType::class)
-        fun `test that previous groups are send to activeTransferTotalsMapper after first emission`(
+        fun `test that the action group of the active transfers is only fetched once`(
             transferType: TransferType,
         ) = runTest {
-            val actionGroups = mock<List<ActiveTransferTotals.ActionGroup>>()
-            val firstActiveTransferTotals = mock<ActiveTransferTotals> {
-                on { this.actionGroups } doReturn actionGroups
-            }
-            val secondActiveTransferTotals = mock<ActiveTransferTotals>()
-            val firstList = listOf(mock<ActiveTransfer>())
-            val secondList = listOf(mock<ActiveTransfer>(), mock<ActiveTransfer>())
+            underTest.deleteAllActiveTransfersByType(transferType)
+            val groupId = 5
+            val firstList = listOf(stubActiveFileTransfer(1L, transferType, groupId = groupId))
+            val secondList = firstList + stubActiveFileTransfer(2L, transferType, groupId = groupId)
             val flow = MutableStateFlow(firstList)
             whenever(megaLocalRoomGateway.getActiveTransfersByType(transferType))
                 .thenReturn(flow)
-            whenever(
-                activeTransferTotalsMapper(
-                    type = transferType,
-                    list = firstList,
-                    transferredBytes = emptyMap(),
-                    previousActionGroups = null
-                )
-            ) doReturn firstActiveTransferTotals
-            whenever(
-                activeTransferTotalsMapper(
-                    type = transferType,
-                    list = secondList,
-                    transferredBytes = emptyMap(),
-                    previousActionGroups = actionGroups //this comes from first emission
-                )
-            ) doReturn secondActiveTransferTotals
+            whenever(megaLocalRoomGateway.getActiveTransferGroup(groupId)) doReturn
+                    ActiveTransferActionGroupImpl(
+                        groupId = groupId,
+                        transferType = transferType,
+                        destination = "destination",
+                        startTime = 0L,
+                    )
+
             underTest.getActiveTransferTotalsByType(transferType).test {
-                assertThat(awaitItem()).isEqualTo(firstActiveTransferTotals)
+                assertThat(awaitItem().actionGroups.single().totalFiles).isEqualTo(1)
                 flow.emit(secondList)
-                assertThat(awaitItem()).isEqualTo(secondActiveTransferTotals)
+                assertThat(awaitItem().actionGroups.single().totalFiles).isEqualTo(2)
             }
+            verify(megaLocalRoomGateway).getActiveTransferGroup(groupId)
         }
 
         @ParameterizedTest
@@ -1353,28 +1353,41 @@ class DefaultTransfersRepositoryTest {
         fun `test that updateTransferredBytes with non zero transferred bytes emits a new value`(
             transferType: TransferType,
         ) = runTest {
+            underTest.deleteAllActiveTransfersByType(transferType)
             val transfer = mock<Transfer> {
+                on { this.uniqueId } doReturn 1L
                 on { this.transferType } doReturn transferType
-                on { this.transferredBytes } doReturn 34857L
+                on { this.transferredBytes } doReturn 348L
             }
-            val expected = mock<ActiveTransferTotals>()
-            val list = mock<List<ActiveTransfer>>()
-            val flow = flowOf(list)
+            val list = listOf(stubActiveFileTransfer(1L, transferType, isFinished = false))
             whenever(megaLocalRoomGateway.getActiveTransfersByType(transferType))
-                .thenReturn(flow)
-            whenever(activeTransferTotalsMapper(eq(transferType), eq(list), any(), anyOrNull()))
-                .thenReturn(expected)
+                .thenReturn(flowOf(list))
 
             underTest.getActiveTransferTotalsByType(transferType).test {
-                awaitItem() //initial
+                assertThat(awaitItem().transferredBytes).isEqualTo(0L)
                 underTest.updateTransferredBytes(listOf(transfer))
-                val actual = awaitItem()
-                assertThat(actual).isEqualTo(expected)
+                assertThat(awaitItem().transferredBytes).isEqualTo(348L)
                 cancelAndIgnoreRemainingEvents()
             }
             underTest.deleteAllActiveTransfersByType(transferType)
         }
 
+        private fun stubActiveFileTransfer(
+            uniqueId: Long,
+            transferType: TransferType,
+            isFinished: Boolean = false,
+            groupId: Int? = null,
+        ) = mock<ActiveTransfer> {
+            on { this.uniqueId } doReturn uniqueId
+            on { this.transferType } doReturn transferType
+            on { this.totalBytes } doReturn 1024L
+            on { this.isFinished } doReturn isFinished
+            on { this.fileName } doReturn "file$uniqueId"
+            on { this.appData } doReturn listOfNotNull(
+                groupId?.let { TransferAppData.TransferGroup(it.toLong()) }
+            )
+        }
+
         /**
          * As getCurrentActiveTransferTotalsByType is based on a state flow, we need to reset this state to make testing stateless
          * This is a convenient function to test changes on this state and then reset it to its initial empty value.
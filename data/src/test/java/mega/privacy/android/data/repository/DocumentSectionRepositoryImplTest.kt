@@ -4,11 +4,11 @@ import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
-import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.mapper.search.MegaSearchFilterMapper
+import mega.privacy.android.data.repository.offline.OfflineIndex
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.FileNode
 import mega.privacy.android.domain.entity.search.SearchCategory
@@ -35,7 +35,7 @@ class DocumentSectionRepositoryImplTest {
     private val sortOrderIntMapper = mock<SortOrderIntMapper>()
     private val nodeMapper = mock<NodeMapper>()
     private val cancelTokenProvider = mock<CancelTokenProvider>()
-    private val megaLocalRoomGateway = mock<MegaLocalRoomGateway>()
+    private val offlineIndex = mock<OfflineIndex>()
     private val megaSearchFilterMapper = mock<MegaSearchFilterMapper>()
 
     @BeforeAll
@@ -45,7 +45,7 @@ class DocumentSectionRepositoryImplTest {
             sortOrderIntMapper = sortOrderIntMapper,
             nodeMapper = nodeMapper,
             cancelTokenProvider = cancelTokenProvider,
-            megaLocalRoomGateway = megaLocalRoomGateway,
+            offlineIndex = offlineIndex,
             megaSearchFilterMapper = megaSearchFilterMapper,
             ioDispatcher = UnconfinedTestDispatcher()
         )
@@ -57,7 +57,7 @@ class DocumentSectionRepositoryImplTest {
             megaApiGateway,
             sortOrderIntMapper,
             nodeMapper,
-            megaLocalRoomGateway
+            offlineIndex
         )
     }
 
@@ -90,7 +90,7 @@ class DocumentSectionRepositoryImplTest {
                 token
             )
         ).thenReturn(listOf(backupNode, node))
-        whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(null)
+        whenever(offlineIndex.getAll()).thenReturn(emptyMap())
         whenever(nodeMapper(megaNode = node, offline = null)).thenReturn(fileNode)
         whenever(megaApiGateway.isInBackups(backupNode)).thenReturn(true)
         whenever(megaApiGateway.isInBackups(node)).thenReturn(false)
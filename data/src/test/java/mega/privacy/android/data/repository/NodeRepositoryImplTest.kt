@@ -36,9 +36,11 @@ import mega.privacy.android.data.mapper.node.NodeShareKeyResultMapper
 import mega.privacy.android.data.mapper.node.OfflineAvailabilityMapper
 import mega.privacy.android.data.mapper.node.label.NodeLabelIntMapper
 import mega.privacy.android.data.mapper.search.MegaSearchFilterMapper
+import mega.privacy.android.data.mapper.search.MegaSearchPageMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionIntMapper
 import mega.privacy.android.data.mapper.shares.AccessPermissionMapper
 import mega.privacy.android.data.mapper.shares.ShareDataMapper
+import mega.privacy.android.data.repository.offline.OfflineIndex
 import mega.privacy.android.domain.entity.FolderTreeInfo
 import mega.privacy.android.domain.entity.Offline
 import mega.privacy.android.domain.entity.PdfFileTypeInfo
@@ -67,6 +69,7 @@ import nz.mega.sdk.MegaNodeList
 import nz.mega.sdk.MegaRequest
 import nz.mega.sdk.MegaRequestListenerInterface
 import nz.mega.sdk.MegaSearchFilter
+import nz.mega.sdk.MegaSearchPage
 import nz.mega.sdk.MegaShare
 import nz.mega.sdk.MegaShare.ACCESS_READ
 import nz.mega.sdk.MegaStringList
@@ -130,10 +133,12 @@ internal class NodeRepositoryImplTest {
     private val nodeShareKeyResultMapper = mock<NodeShareKeyResultMapper>()
     private val fetchChildrenMapper = mock<FetchChildrenMapper>()
     private val megaLocalRoomGateway: MegaLocalRoomGateway = mock()
+    private val offlineIndex: OfflineIndex = mock()
     private val offlineAvailabilityMapper: OfflineAvailabilityMapper = mock()
     private val megaNodeMapper = mock<MegaNodeMapper>()
     private val cancelTokenProvider = mock<CancelTokenProvider>()
     private val megaSearchFilterMapper = mock<MegaSearchFilterMapper>()
+    private val megaSearchPageMapper = mock<MegaSearchPageMapper>()
     private val stringListMapper = mock<StringListMapper>()
     private val workManagerGateway = mock<WorkManagerGateway>()
 
@@ -188,10 +193,12 @@ internal class NodeRepositoryImplTest {
             nodeShareKeyResultMapper = nodeShareKeyResultMapper,
             accessPermissionIntMapper = accessPermissionIntMapper,
             megaLocalRoomGateway = megaLocalRoomGateway,
+            offlineIndex = offlineIndex,
             megaNodeMapper = megaNodeMapper,
             nodeLabelIntMapper = nodeLabelIntMapper,
             cancelTokenProvider = cancelTokenProvider,
             megaSearchFilterMapper = megaSearchFilterMapper,
+            megaSearchPageMapper = megaSearchPageMapper,
             workManagerGateway = workManagerGateway,
             stringListMapper = stringListMapper,
         )
@@ -1533,6 +1540,30 @@ internal class NodeRepositoryImplTest {
         verify(megaApiGateway).removeVersions(any())
     }
 
+    @Test
+    fun `test that getNodeChildrenPage only gets the children of the page`() = runTest {
+        val token = mock<MegaCancelToken>()
+        val filter = mock<MegaSearchFilter>()
+        val megaSearchPage = mock<MegaSearchPage>()
+        whenever(cancelTokenProvider.getOrCreateCancelToken()).thenReturn(token)
+        whenever(megaSearchFilterMapper(parentHandle = nodeId)).thenReturn(filter)
+        whenever(megaSearchPageMapper(200, 100)).thenReturn(megaSearchPage)
+        whenever(sortOrderIntMapper(SortOrder.ORDER_DEFAULT_ASC)).thenReturn(1)
+        whenever(offlineIndex.getAll()).thenReturn(emptyMap())
+        whenever(megaApiGateway.getChildren(filter, 1, token, megaSearchPage))
+            .thenReturn(emptyList())
+
+        val actual = underTest.getNodeChildrenPage(
+            nodeId = nodeId,
+            order = SortOrder.ORDER_DEFAULT_ASC,
+            offset = 200,
+            size = 100,
+        )
+
+        assertThat(actual).isEmpty()
+        verify(megaApiGateway).getChildren(filter, 1, token, megaSearchPage)
+    }
+
     private fun provideNodeId() = Stream.of(
         Arguments.of(null),
         Arguments.of(NodeId(2L)),
@@ -5,14 +5,15 @@ import kotlinx.coroutines.CoroutineDispatcher
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
-import mega.privacy.android.data.gateway.MegaLocalRoomGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.SortOrderIntMapper
 import mega.privacy.android.data.mapper.node.NodeMapper
 import mega.privacy.android.data.mapper.search.MegaSearchFilterMapper
+import mega.privacy.android.data.repository.offline.OfflineIndex
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.TypedFileNode
+import mega.privacy.android.domain.entity.node.UnTypedNode
 import mega.privacy.android.domain.entity.search.SearchCategory
 import mega.privacy.android.domain.entity.search.SearchParameters
 import mega.privacy.android.domain.repository.SearchRepository
@@ -44,7 +45,7 @@ class SearchRepositoryImplTest {
     private val getCloudSortOrder: GetCloudSortOrder = mock()
     private val megaCancelToken: MegaCancelToken = mock()
     private val megsSearchFilterMapper: MegaSearchFilterMapper = mock()
-    private val megaLocalRoomGateway: MegaLocalRoomGateway = mock()
+    private val offlineIndex: OfflineIndex = mock()
     private val typedNode: TypedFileNode = mock {
         on { id } doReturn nodeId
     }
@@ -63,7 +64,7 @@ class SearchRepositoryImplTest {
             getLinksSortOrder = getLinksSortOrder,
             sortOrderIntMapper = sortOrderIntMapper,
             megaSearchFilterMapper = megsSearchFilterMapper,
-            megaLocalRoomGateway = megaLocalRoomGateway,
+            offlineIndex = offlineIndex,
             getCloudSortOrder = getCloudSortOrder
         )
     }
@@ -79,7 +80,7 @@ class SearchRepositoryImplTest {
         whenever(megaNode.handle).thenReturn(-1L)
         whenever(cancelTokenProvider.getOrCreateCancelToken()).thenReturn(megaCancelToken)
         whenever(megaApiGateway.getMegaNodeByHandle(nodeID.longValue)).thenReturn(megaNode)
-        whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(emptyList())
+        whenever(offlineIndex.getAll()).thenReturn(emptyMap())
         whenever(
             megsSearchFilterMapper(
                 searchQuery = query,
@@ -94,6 +95,7 @@ class SearchRepositoryImplTest {
                 megaCancelToken = megaCancelToken
             )
         ).thenReturn(emptyList())
+        whenever(nodeMapper.mapListing(emptyList(), emptyMap())).thenReturn(emptyList())
         val list = underTest.getChildren(
             nodeId = nodeId,
             order = SortOrder.ORDER_NONE,
@@ -115,7 +117,7 @@ class SearchRepositoryImplTest {
         whenever(megaNode.handle).thenReturn(-1L)
         whenever(cancelTokenProvider.getOrCreateCancelToken()).thenReturn(megaCancelToken)
         whenever(megaApiGateway.getMegaNodeByHandle(nodeID.longValue)).thenReturn(megaNode)
-        whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(emptyList())
+        whenever(offlineIndex.getAll()).thenReturn(emptyMap())
         whenever(
             megsSearchFilterMapper(
                 searchQuery = query,
@@ -147,6 +149,84 @@ class SearchRepositoryImplTest {
         )
     }
 
+    @Test
+    fun `test that the first results of a search are handed over before the rest are mapped`() =
+        runTest {
+            val query = "Some query"
+            val filter = mock<MegaSearchFilter>()
+            val megaNodes = List(3) { mock<MegaNode>() }
+            val firstNodes = listOf<TypedFileNode>(mock(), mock())
+            val otherNodes = listOf<TypedFileNode>(mock())
+            whenever(sortOrderIntMapper(any())).thenReturn(0)
+            whenever(cancelTokenProvider.getOrCreateCancelToken()).thenReturn(megaCancelToken)
+            whenever(offlineIndex.getAll()).thenReturn(emptyMap())
+            whenever(
+                megsSearchFilterMapper(
+                    searchQuery = query,
+                    parentHandle = nodeId,
+                    searchCategory = SearchCategory.ALL
+                )
+            ).thenReturn(filter)
+            whenever(
+                megaApiGateway.searchWithFilter(
+                    filter = filter,
+                    order = 0,
+                    megaCancelToken = megaCancelToken,
+                )
+            ).thenReturn(megaNodes)
+            whenever(nodeMapper.mapListing(megaNodes.take(2), emptyMap())).thenReturn(firstNodes)
+            whenever(nodeMapper.mapListing(megaNodes.drop(2), emptyMap())).thenReturn(otherNodes)
+            val firstResults = mutableListOf<List<UnTypedNode>>()
+
+            val actual = underTest.search(
+                nodeId = nodeId,
+                order = SortOrder.ORDER_NONE,
+                parameters = SearchParameters(query = query),
+                firstResultsSize = 2,
+                onFirstResults = { firstResults += it },
+            )
+
+            assertThat(firstResults).containsExactly(firstNodes)
+            assertThat(actual).isEqualTo(firstNodes + otherNodes)
+            verify(megaApiGateway).searchWithFilter(filter, 0, megaCancelToken)
+        }
+
+    @Test
+    fun `test that no first results are handed over if the children fit in them`() = runTest {
+        val query = "Some query"
+        val filter = mock<MegaSearchFilter>()
+        whenever(sortOrderIntMapper(any())).thenReturn(0)
+        whenever(cancelTokenProvider.getOrCreateCancelToken()).thenReturn(megaCancelToken)
+        whenever(offlineIndex.getAll()).thenReturn(emptyMap())
+        whenever(
+            megsSearchFilterMapper(
+                searchQuery = query,
+                parentHandle = nodeId,
+                searchCategory = SearchCategory.ALL
+            )
+        ).thenReturn(filter)
+        whenever(
+            megaApiGateway.getChildren(
+                filter = filter,
+                order = 0,
+                megaCancelToken = megaCancelToken,
+            )
+        ).thenReturn(listOf(megaNode))
+        whenever(nodeMapper.mapListing(listOf(megaNode), emptyMap())).thenReturn(listOf(typedNode))
+        val firstResults = mutableListOf<List<UnTypedNode>>()
+
+        val actual = underTest.getChildren(
+            nodeId = nodeId,
+            order = SortOrder.ORDER_NONE,
+            parameters = SearchParameters(query = query),
+            firstResultsSize = 2,
+            onFirstResults = { firstResults += it },
+        )
+
+        assertThat(firstResults).isEmpty()
+        assertThat(actual).containsExactly(typedNode)
+    }
+
     @Test
     fun `test that getInShares returns list of untyped nodes`() = runTest {
         whenever(getCloudSortOrder()).thenReturn(SortOrder.ORDER_NONE)
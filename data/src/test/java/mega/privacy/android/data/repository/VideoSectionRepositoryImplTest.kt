@@ -23,6 +23,7 @@ import mega.privacy.android.data.mapper.videosection.UserVideoPlaylistMapper
 import mega.privacy.android.data.mapper.videosection.VideoRecentlyWatchedItemMapper
 import mega.privacy.android.data.model.GlobalUpdate
 import mega.privacy.android.data.model.VideoRecentlyWatchedItem
+import mega.privacy.android.data.repository.offline.OfflineIndex
 import mega.privacy.android.domain.entity.SortOrder
 import mega.privacy.android.domain.entity.node.FileNode
 import mega.privacy.android.domain.entity.node.NodeId
@@ -71,6 +72,7 @@ class VideoSectionRepositoryImplTest {
     private val typedVideoNodeMapper = mock<TypedVideoNodeMapper>()
     private val cancelTokenProvider = mock<CancelTokenProvider>()
     private val megaLocalRoomGateway = mock<MegaLocalRoomGateway>()
+    private val offlineIndex = mock<OfflineIndex>()
     private val userSetMapper: UserSetMapper = ::createUserSet
     private val userVideoPlaylistMapper = mock<UserVideoPlaylistMapper>()
     private val megaSearchFilterMapper = mock<MegaSearchFilterMapper>()
@@ -84,7 +86,7 @@ class VideoSectionRepositoryImplTest {
     }
 
     private fun initUnderTest() {
-        wheneverBlocking { megaLocalRoomGateway.getAllOfflineInfo() }.thenReturn(emptyList())
+        wheneverBlocking { offlineIndex.getAll() }.thenReturn(emptyMap())
         underTest = VideoSectionRepositoryImpl(
             megaApiGateway = megaApiGateway,
             sortOrderIntMapper = sortOrderIntMapper,
@@ -92,6 +94,7 @@ class VideoSectionRepositoryImplTest {
             typedVideoNodeMapper = typedVideoNodeMapper,
             cancelTokenProvider = cancelTokenProvider,
             megaLocalRoomGateway = megaLocalRoomGateway,
+            offlineIndex = offlineIndex,
             userSetMapper = userSetMapper,
             userVideoPlaylistMapper = userVideoPlaylistMapper,
             megaSearchFilterMapper = megaSearchFilterMapper,
@@ -110,6 +113,7 @@ class VideoSectionRepositoryImplTest {
             fileNodeMapper,
             typedVideoNodeMapper,
             megaLocalRoomGateway,
+            offlineIndex,
             userVideoPlaylistMapper,
             appPreferencesGateway,
             videoRecentlyWatchedItemMapper,
@@ -156,7 +160,7 @@ class VideoSectionRepositoryImplTest {
                 token
             )
         ).thenReturn(listOf(node, backupNode))
-        whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(null)
+        whenever(offlineIndex.getAll()).thenReturn(emptyMap())
         whenever(
             fileNodeMapper(
                 megaNode = node,
@@ -755,7 +759,7 @@ class VideoSectionRepositoryImplTest {
                     token
                 )
             ).thenReturn(megaNodes)
-            whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(emptyList())
+            whenever(offlineIndex.getAll()).thenReturn(emptyMap())
             megaNodes.mapIndexed { index, node ->
                 whenever(
                     fileNodeMapper(megaNode = node, requireSerializedData = false, offline = null)
@@ -890,7 +894,7 @@ class VideoSectionRepositoryImplTest {
                 flowOf(jsonString)
             )
             whenever(megaLocalRoomGateway.getAllRecentlyWatchedVideos()).thenReturn(flowOf(testItems))
-            whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(emptyList())
+            whenever(offlineIndex.getAll()).thenReturn(emptyMap())
             val megaSetElement = mock<MegaSetElement> {
                 on { node() }.thenReturn(testHandles[collectionIdIndex])
             }
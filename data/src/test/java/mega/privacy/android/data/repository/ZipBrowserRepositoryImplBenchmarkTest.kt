@@ -0,0 +1,133 @@
+package mega.privacy.android.data.repository
+
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.compression.zip.ZipEngine
+import mega.privacy.android.data.mapper.zipbrowser.ZipTreeNodeMapper
+import mega.privacy.android.domain.entity.zipbrowser.ZipEntryType
+import mega.privacy.android.domain.entity.zipbrowser.ZipTreeNode
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.Tag
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.io.File
+import java.nio.file.Files
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
+
+/**
+ * Micro benchmark comparing the cost of building the zip tree of [ZipBrowserRepositoryImpl] with
+ * the algorithm it used before, which split every entry name for each depth and copied the parent
+ * node for each child, on synthetic wide and deep archives.
+ *
+ * It is only run with the includeBenchmarks Gradle property, as the timings depend on the machine.
+ * [ZipBrowserRepositoryImplTreeTest] checks that both build the same nodes.
+ */
+@Tag("benchmark")
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ZipBrowserRepositoryImplBenchmarkTest {
+
+    private val tempDir = Files.createTempDirectory("zip").toFile()
+
+    private val zipTreeNodeMapper = ZipTreeNodeMapper()
+
+    private val underTest = ZipBrowserRepositoryImpl(
+        zipTreeNodeMapper = zipTreeNodeMapper,
+        zipEngine = ZipEngine(UnconfinedTestDispatcher()),
+        ioDispatcher = UnconfinedTestDispatcher(),
+    )
+
+    @AfterAll
+    fun tearDown() {
+        tempDir.deleteRecursively()
+    }
+
+    @Test
+    fun `benchmark the zip tree of wide and deep archives`() = runTest {
+        mapOf(
+            // 10 folders of 2000 files
+            "wide" to List(20_000) { "folder${it % 10}/file$it.txt" },
+            // 400 chains of 50 folders with a file at the end of each
+            "deep" to List(400) { chain ->
+                List(DEPTH) { "chain$chain" }.joinToString("/") + "/file.txt"
+            },
+        ).forEach { (kind, names) ->
+            ZipFile(createZip(kind, names)).use { zipFile ->
+                // warm up
+                underTest.getZipNodeTree(zipFile)
+                getLegacyZipNodeTree(zipFile)
+
+                val treeNanos = measure { underTest.getZipNodeTree(zipFile) }
+                val legacyNanos = measure { getLegacyZipNodeTree(zipFile) }
+
+                println(
+                    "$kind: ${names.size} entries, tree: ${treeNanos / 1_000_000} ms, " +
+                            "legacy: ${legacyNanos / 1_000_000} ms"
+                )
+            }
+        }
+    }
+
+    private fun createZip(name: String, entryNames: List<String>) =
+        File(tempDir, "$name.zip").apply {
+            ZipOutputStream(outputStream()).use { output ->
+                entryNames.forEach { entryName ->
+                    output.putNextEntry(ZipEntry(entryName))
+                    output.closeEntry()
+                }
+            }
+        }
+
+    private inline fun measure(block: () -> Unit): Long {
+        val start = System.nanoTime()
+        block()
+        return System.nanoTime() - start
+    }
+
+    /**
+     * The algorithm used before to build the zip tree
+     */
+    private fun getLegacyZipNodeTree(zipFile: ZipFile): Map<String, ZipTreeNode> {
+        val zipNodeTree = mutableMapOf<String, ZipTreeNode>()
+        zipFile.entries().toList().forEach { zipEntry ->
+            val name = zipEntry.name
+            val segments = { name.removeSuffix("/").split("/") }
+            val nodeDepth = segments().size
+            for (i in 1..nodeDepth) {
+                val subPath = segments().take(i).joinToString("/")
+                val subName = subPath.removeSuffix("/").split("/").last()
+                val subParentPath = if (i == 1) null else segments().take(i - 1).joinToString("/")
+                if (zipNodeTree[subPath] == null) {
+                    val zipTreeNode = zipTreeNodeMapper(
+                        zipEntry = zipEntry,
+                        name = subName,
+                        path = subPath,
+                        parentPath = subParentPath,
+                        zipEntryType = if (i == nodeDepth) {
+                            when {
+                                zipEntry.isDirectory -> ZipEntryType.Folder
+                                name.endsWith(".zip") -> ZipEntryType.Zip
+                                else -> ZipEntryType.File
+                            }
+                        } else {
+                            ZipEntryType.Folder
+                        }
+                    )
+                    zipNodeTree[subPath] = zipTreeNode
+                    if (!subParentPath.isNullOrEmpty()) {
+                        zipNodeTree[subParentPath]?.let { parentNode ->
+                            zipNodeTree[subParentPath] =
+                                parentNode.copy(children = parentNode.children + zipTreeNode)
+                        }
+                    }
+                }
+            }
+        }
+        return zipNodeTree
+    }
+
+    private companion object {
+        const val DEPTH = 50
+    }
+}
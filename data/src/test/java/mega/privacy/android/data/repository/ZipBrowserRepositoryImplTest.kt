@@ -2,8 +2,11 @@ package mega.privacy.android.data.repository
 
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.collect
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.compression.zip.ZipEngine
 import mega.privacy.android.data.mapper.zipbrowser.ZipTreeNodeMapper
 import mega.privacy.android.domain.entity.zipbrowser.ZipEntryType
 import mega.privacy.android.domain.entity.zipbrowser.ZipTreeNode
@@ -12,6 +15,7 @@ import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.assertThrows
 import org.junit.jupiter.api.io.TempDir
 import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.mock
@@ -41,6 +45,7 @@ class ZipBrowserRepositoryImplTest {
     private fun initUnderTest() {
         underTest = ZipBrowserRepositoryImpl(
             zipTreeNodeMapper = zipTreeNodeMapper,
+            zipEngine = ZipEngine(UnconfinedTestDispatcher()),
             ioDispatcher = UnconfinedTestDispatcher()
         )
     }
@@ -179,7 +184,7 @@ class ZipBrowserRepositoryImplTest {
         }
 
     @Test
-    fun `test that the unzipFile function returns false`() =
+    fun `test that unzipFile fails if an entry is out of the destination`() =
         runTest {
             val testEnumeration = mock<Enumeration<out ZipEntry>>()
             val testZipFile = mock<ZipFile> {
@@ -192,12 +197,13 @@ class ZipBrowserRepositoryImplTest {
             whenever(testEnumeration.hasMoreElements()).thenReturn(true, false)
             whenever(testEnumeration.nextElement()).thenReturn(testEntry)
 
-            val actual = underTest.unzipFile(testZipFile, testPath)
-            assertThat(actual).isFalse()
+            assertThrows<SecurityException> {
+                underTest.unzipFile(testZipFile, testPath).collect()
+            }
         }
 
     @Test
-    fun `test that the unzipFile function returns true`() =
+    fun `test that unzipFile completes when the entries are extracted`() =
         runTest {
             val testEnumeration = mock<Enumeration<out ZipEntry>>()
             val testName = "zipFile/"
@@ -211,12 +217,33 @@ class ZipBrowserRepositoryImplTest {
             whenever(testEnumeration.hasMoreElements()).thenReturn(true, false)
             whenever(testEnumeration.nextElement()).thenReturn(testEntry)
 
-            val actual = underTest.unzipFile(testZipFile, testPath.canonicalPath)
-            assertThat(actual).isTrue()
+            val actual = underTest.unzipFile(testZipFile, testPath.canonicalPath).toList()
+            assertThat(actual).isNotEmpty()
+            assertThat(File(testPath.canonicalPath + testName).isDirectory).isTrue()
+        }
+
+    @Test
+    fun `test that unzipFile only extracts the entries of the path`() =
+        runTest {
+            val testEnumeration = mock<Enumeration<out ZipEntry>>()
+            val testZipFile = mock<ZipFile> {
+                on { entries() }.thenReturn(testEnumeration)
+            }
+            val unzipRootPath = temporaryFolder.canonicalPath + File.separator
+            val extractedEntry = initZipEntry("extracted/", true)
+            val ignoredEntry = initZipEntry("ignored/", true)
+
+            whenever(testEnumeration.hasMoreElements()).thenReturn(true, true, false)
+            whenever(testEnumeration.nextElement()).thenReturn(extractedEntry, ignoredEntry)
+
+            underTest.unzipFile(testZipFile, unzipRootPath, "extracted").collect()
+
+            assertThat(File(unzipRootPath, "extracted").isDirectory).isTrue()
+            assertThat(File(unzipRootPath, "ignored").exists()).isFalse()
         }
 
     @Test
-    fun `test that the unzipFile function returns false when an Exception is raised`() =
+    fun `test that unzipFile fails when an Exception is raised`() =
         runTest {
             val testEnumeration = mock<Enumeration<out ZipEntry>>()
             val testName = "zipFile/"
@@ -231,7 +258,8 @@ class ZipBrowserRepositoryImplTest {
             whenever(testEnumeration.nextElement()).thenReturn(testEntry)
             whenever(testZipFile.getInputStream(anyOrNull())).thenThrow(NullPointerException())
 
-            val actual = underTest.unzipFile(testZipFile, testPath)
-            assertThat(actual).isFalse()
+            assertThrows<NullPointerException> {
+                underTest.unzipFile(testZipFile, testPath).collect()
+            }
         }
 }
\ No newline at end of file
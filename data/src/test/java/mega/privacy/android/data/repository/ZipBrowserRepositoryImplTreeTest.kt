@@ -0,0 +1,149 @@
+package mega.privacy.android.data.repository
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.compression.zip.ZipEngine
+import mega.privacy.android.data.mapper.zipbrowser.ZipTreeNodeMapper
+import mega.privacy.android.domain.entity.zipbrowser.ZipEntryType
+import mega.privacy.android.domain.entity.zipbrowser.ZipTreeNode
+import org.junit.jupiter.api.AfterAll
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import java.io.File
+import java.nio.file.Files
+import java.util.zip.ZipEntry
+import java.util.zip.ZipFile
+import java.util.zip.ZipOutputStream
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ZipBrowserRepositoryImplTreeTest {
+
+    private val tempDir = Files.createTempDirectory("zip").toFile()
+
+    private val zipTreeNodeMapper = ZipTreeNodeMapper()
+
+    private val underTest = ZipBrowserRepositoryImpl(
+        zipTreeNodeMapper = zipTreeNodeMapper,
+        zipEngine = ZipEngine(UnconfinedTestDispatcher()),
+        ioDispatcher = UnconfinedTestDispatcher(),
+    )
+
+    @AfterAll
+    fun tearDown() {
+        tempDir.deleteRecursively()
+    }
+
+    @Test
+    fun `test that the tree of a wide archive has the same nodes as the legacy tree`() = runTest {
+        // 10 folders of 200 files
+        val names = List(2_000) { "folder${it % 10}/file$it.txt" }
+
+        ZipFile(createZip("wide", names)).use { assertSameNodesAsLegacyTree(it) }
+    }
+
+    @Test
+    fun `test that the tree of a deep archive has the same nodes as the legacy tree`() = runTest {
+        // 40 chains of 50 folders with a file at the end of each
+        val names = List(40) { chain ->
+            List(DEPTH) { "chain$chain" }.joinToString("/") + "/file.txt"
+        }
+
+        ZipFile(createZip("deep", names)).use { assertSameNodesAsLegacyTree(it) }
+    }
+
+    @Test
+    fun `test that the children of the ancestors are complete`() = runTest {
+        val names = listOf(
+            "folder/",
+            "folder/file.txt",
+            "folder/sub/deep/archive.zip",
+            "folder/sub/other.txt",
+            "root.txt",
+        )
+        ZipFile(createZip("small", names)).use { zipFile ->
+            assertSameNodesAsLegacyTree(zipFile)
+
+            val actual = underTest.getZipNodeTree(zipFile)
+            // The legacy tree kept stale copies of the children of the ancestors
+            val sub = actual.getValue("folder").children.last()
+            assertThat(sub.children.first().children.single().path)
+                .isEqualTo("folder/sub/deep/archive.zip")
+            assertThat(actual.getValue("folder/sub/deep/archive.zip").zipEntryType)
+                .isEqualTo(ZipEntryType.Zip)
+        }
+    }
+
+    private suspend fun assertSameNodesAsLegacyTree(zipFile: ZipFile) {
+        val actual = underTest.getZipNodeTree(zipFile)
+        val legacy = getLegacyZipNodeTree(zipFile)
+
+        assertThat(actual.keys).containsExactlyElementsIn(legacy.keys).inOrder()
+        val childrenPaths = actual.values.groupBy({ it.parentPath }, { it.path })
+        actual.values.forEach { node ->
+            val legacyNode = legacy.getValue(node.path)
+            assertThat(node.name).isEqualTo(legacyNode.name)
+            assertThat(node.parentPath).isEqualTo(legacyNode.parentPath)
+            assertThat(node.zipEntryType).isEqualTo(legacyNode.zipEntryType)
+            assertThat(node.children.map { it.path })
+                .containsExactlyElementsIn(childrenPaths[node.path].orEmpty())
+                .inOrder()
+        }
+    }
+
+    private fun createZip(name: String, entryNames: List<String>) =
+        File(tempDir, "$name.zip").apply {
+            ZipOutputStream(outputStream()).use { output ->
+                entryNames.forEach { entryName ->
+                    output.putNextEntry(ZipEntry(entryName))
+                    output.closeEntry()
+                }
+            }
+        }
+
+    /**
+     * The algorithm used before to build the zip tree
+     */
+    private fun getLegacyZipNodeTree(zipFile: ZipFile): Map<String, ZipTreeNode> {
+        val zipNodeTree = mutableMapOf<String, ZipTreeNode>()
+        zipFile.entries().toList().forEach { zipEntry ->
+            val name = zipEntry.name
+            val segments = { name.removeSuffix("/").split("/") }
+            val nodeDepth = segments().size
+            for (i in 1..nodeDepth) {
+                val subPath = segments().take(i).joinToString("/")
+                val subName = subPath.removeSuffix("/").split("/").last()
+                val subParentPath = if (i == 1) null else segments().take(i - 1).joinToString("/")
+                if (zipNodeTree[subPath] == null) {
+                    val zipTreeNode = zipTreeNodeMapper(
+                        zipEntry = zipEntry,
+                        name = subName,
+                        path = subPath,
+                        parentPath = subParentPath,
+                        zipEntryType = if (i == nodeDepth) {
+                            when {
+                                zipEntry.isDirectory -> ZipEntryType.Folder
+                                name.endsWith(".zip") -> ZipEntryType.Zip
+                                else -> ZipEntryType.File
+                            }
+                        } else {
+                            ZipEntryType.Folder
+                        }
+                    )
+                    zipNodeTree[subPath] = zipTreeNode
+                    if (!subParentPath.isNullOrEmpty()) {
+                        zipNodeTree[subParentPath]?.let { parentNode ->
+                            zipNodeTree[subParentPath] =
+                                parentNode.copy(children = parentNode.children + zipTreeNode)
+                        }
+                    }
+                }
+            }
+        }
+        return zipNodeTree
+    }
+
+    private companion object {
+        const val DEPTH = 50
+    }
+}
@@ -545,6 +545,15 @@ class ChatMessageRepositoryImplTest {
             verify(chatStorageGateway).truncateMessages(chatId, truncateTimestamp)
         }
 
+    @Test
+    internal fun `test that the newest message timestamp is returned from the gateway`() =
+        runTest {
+            val timestamp = 34567L
+            whenever(chatStorageGateway.getNewestMessageTimestamp(chatId)).thenReturn(timestamp)
+
+            assertThat(underTest.getNewestMessageTimestamp(chatId)).isEqualTo(timestamp)
+        }
+
     @Test
     internal fun `test that clear chat pending messages invokes gateway`() = runTest {
         underTest.clearChatPendingMessages(chatId)
@@ -584,6 +593,18 @@ class ChatMessageRepositoryImplTest {
             assertThat(underTest.getExistsInMessage(chatId, msgId)).isTrue()
         }
 
+    @Test
+    internal fun `test that get exists in messages only returns false for the ids not existing`() =
+        runTest {
+            val chatId = 123L
+            val msgIds = listOf(1L, 2L, 3L)
+
+            whenever(chatStorageGateway.getMessageIdsNotExisting(chatId, msgIds))
+                .thenReturn(listOf(2L))
+            assertThat(underTest.getExistsInMessages(chatId, msgIds))
+                .containsExactly(1L, true, 2L, false, 3L, true)
+        }
+
     @Test
     internal fun `test that clear all data invokes gateway`() = runTest {
         underTest.clearAllData()
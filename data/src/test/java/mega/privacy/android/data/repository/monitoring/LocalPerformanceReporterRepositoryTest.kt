@@ -0,0 +1,76 @@
+package mega.privacy.android.data.repository.monitoring
+
+import android.content.Context
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.monitoring.PerformanceSnapshotWriter
+import mega.privacy.android.domain.entity.monitoring.PerformanceReportFormat
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.io.TempDir
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class LocalPerformanceReporterRepositoryTest {
+
+    @TempDir
+    lateinit var temporaryFolder: File
+
+    private val context = mock<Context>()
+
+    private lateinit var underTest: LocalPerformanceReporterRepository
+
+    @BeforeEach
+    fun setUp() {
+        whenever(context.getExternalFilesDir(null)).thenReturn(temporaryFolder)
+        underTest = LocalPerformanceReporterRepository(
+            context = context,
+            ioDispatcher = UnconfinedTestDispatcher(),
+        )
+    }
+
+    @Test
+    fun `test that nothing is collected until it is enabled`() = runTest {
+        underTest.startTrace("trace")
+        underTest.stopTrace("trace")
+        underTest.trace("block") { }
+
+        assertThat(exportTraceNames()).isEmpty()
+    }
+
+    @Test
+    fun `test that the traces are collected when it is enabled`() = runTest {
+        underTest.setEnabled(true)
+
+        underTest.startTrace("trace")
+        underTest.stopTrace("trace")
+        underTest.trace("block") { }
+
+        assertThat(exportTraceNames()).containsExactly("block", "trace").inOrder()
+    }
+
+    @Test
+    fun `test that disabling it removes the collected data and the running traces`() = runTest {
+        underTest.setEnabled(true)
+        underTest.startTrace("stopped")
+        underTest.stopTrace("stopped")
+        underTest.startTrace("running")
+
+        underTest.setEnabled(false)
+        underTest.setEnabled(true)
+        underTest.stopTrace("running")
+
+        assertThat(exportTraceNames()).isEmpty()
+    }
+
+    private suspend fun exportTraceNames() =
+        underTest.exportReport(PerformanceReportFormat.Binary).inputStream().use { input ->
+            PerformanceSnapshotWriter.readBinary(input).traces.map { it.name }
+        }
+}
@@ -0,0 +1,143 @@
+package mega.privacy.android.data.repository.offline
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.flow.MutableStateFlow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.MegaLocalRoomGateway
+import mega.privacy.android.domain.entity.Offline
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class OfflineIndexTest {
+
+    private val megaLocalRoomGateway = mock<MegaLocalRoomGateway>()
+
+    @BeforeEach
+    fun setUp() {
+        reset(megaLocalRoomGateway)
+    }
+
+    private fun TestScope.createUnderTest() = OfflineIndex(
+        megaLocalRoomGateway = megaLocalRoomGateway,
+        scope = backgroundScope,
+        ioDispatcher = UnconfinedTestDispatcher(testScheduler),
+    )
+
+    private fun createOffline(handle: String) = mock<Offline> {
+        on { this.handle }.thenReturn(handle)
+    }
+
+    @Test
+    fun `test that the offline information is indexed by handle`() = runTest {
+        val first = createOffline("1")
+        val second = createOffline("2")
+        whenever(megaLocalRoomGateway.monitorVersionedOfflineUpdates())
+            .thenReturn(MutableStateFlow(0L to listOf(first, second)))
+
+        val underTest = createUnderTest()
+
+        assertThat(underTest.getAll()).containsExactly(1L, first, 2L, second)
+        assertThat(underTest[2L]).isEqualTo(second)
+        assertThat(underTest[3L]).isNull()
+        verify(megaLocalRoomGateway, never()).getAllOfflineInfo()
+    }
+
+    @Test
+    fun `test that the index is updated when the offline information changes`() = runTest {
+        val first = createOffline("1")
+        val second = createOffline("2")
+        val updates = MutableStateFlow(0L to listOf(first))
+        whenever(megaLocalRoomGateway.monitorVersionedOfflineUpdates()).thenReturn(updates)
+        val underTest = createUnderTest()
+        assertThat(underTest.getAll()).containsExactly(1L, first)
+
+        updates.value = 1L to listOf(second)
+
+        assertThat(underTest.getAll()).containsExactly(2L, second)
+        assertThat(underTest[1L]).isNull()
+    }
+
+    @Test
+    fun `test that the changed offline information replaces the previous one`() = runTest {
+        val first = createOffline("1")
+        val changed = createOffline("1")
+        val second = createOffline("2")
+        val updates = MutableStateFlow(0L to listOf(first, second))
+        whenever(megaLocalRoomGateway.monitorVersionedOfflineUpdates()).thenReturn(updates)
+        val underTest = createUnderTest()
+        underTest.getAll()
+
+        updates.value = 1L to listOf(changed, second)
+
+        assertThat(underTest.getAll()).containsExactly(1L, changed, 2L, second)
+    }
+
+    @Test
+    fun `test that a read waits for the changes made before it`() = runTest {
+        val first = createOffline("1")
+        val second = createOffline("2")
+        val updates = MutableStateFlow(0L to listOf(first))
+        whenever(megaLocalRoomGateway.monitorVersionedOfflineUpdates()).thenReturn(updates)
+        val underTest = createUnderTest()
+        underTest.getAll()
+        whenever(megaLocalRoomGateway.getOfflineVersion()).thenReturn(1L)
+
+        val actual = async { underTest.getAll() }
+        runCurrent()
+        assertThat(actual.isCompleted).isFalse()
+        updates.value = 1L to listOf(first, second)
+
+        assertThat(actual.await()).containsExactly(1L, first, 2L, second)
+    }
+
+    @Test
+    fun `test that the rows with an invalid handle are ignored`() = runTest {
+        val offline = createOffline("1")
+        whenever(megaLocalRoomGateway.monitorVersionedOfflineUpdates())
+            .thenReturn(MutableStateFlow(0L to listOf(offline, createOffline("invalid"))))
+
+        assertThat(createUnderTest().getAll()).containsExactly(1L, offline)
+    }
+
+    @Test
+    fun `test that the offline information is read from the database if it can't be monitored`() =
+        runTest {
+            val offline = createOffline("1")
+            whenever(megaLocalRoomGateway.monitorVersionedOfflineUpdates())
+                .thenReturn(flow { throw IllegalStateException("Database closed") })
+            whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(listOf(offline))
+
+            assertThat(createUnderTest().getAll()).containsExactly(1L, offline)
+        }
+
+    @Test
+    fun `test that the monitoring is started again by the next read after a failure`() = runTest {
+        val offline = createOffline("1")
+        whenever(megaLocalRoomGateway.monitorVersionedOfflineUpdates()).thenReturn(
+            flow { throw IllegalStateException("Database closed") },
+            MutableStateFlow(0L to listOf(offline)),
+        )
+        whenever(megaLocalRoomGateway.getAllOfflineInfo()).thenReturn(listOf(offline))
+        val underTest = createUnderTest()
+        underTest.getAll()
+
+        assertThat(underTest.getAll()).containsExactly(1L, offline)
+        verify(megaLocalRoomGateway, times(2)).monitorVersionedOfflineUpdates()
+        verify(megaLocalRoomGateway, times(1)).getAllOfflineInfo()
+    }
+}
@@ -1,11 +1,14 @@
 package mega.privacy.android.data.repository.photos
 
+import app.cash.turbine.test
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.MutableSharedFlow
 import kotlinx.coroutines.flow.emptyFlow
 import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceUntilIdle
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.data.gateway.CacheGateway
 import mega.privacy.android.data.gateway.FileGateway
@@ -19,6 +22,7 @@ import mega.privacy.android.data.mapper.FileTypeInfoMapper
 import mega.privacy.android.data.mapper.ImageMapper
 import mega.privacy.android.data.mapper.VideoMapper
 import mega.privacy.android.data.mapper.node.ImageNodeFileMapper
+import mega.privacy.android.data.mapper.node.ImageNodeMapper
 import mega.privacy.android.data.mapper.node.MegaNodeMapper
 import mega.privacy.android.data.mapper.photos.ContentConsumptionMegaStringMapMapper
 import mega.privacy.android.data.mapper.photos.MegaStringMapSensitivesMapper
@@ -32,12 +36,19 @@ import mega.privacy.android.domain.entity.GifFileTypeInfo
 import mega.privacy.android.domain.entity.RawFileTypeInfo
 import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
 import mega.privacy.android.domain.entity.VideoFileTypeInfo
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.FolderNode
+import mega.privacy.android.domain.entity.node.ImageNode
+import mega.privacy.android.domain.entity.node.NodeChanges
 import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeUpdate
 import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotoDelta
 import mega.privacy.android.domain.entity.search.SearchCategory
 import mega.privacy.android.domain.entity.search.SearchTarget
 import mega.privacy.android.domain.repository.NodeRepository
 import mega.privacy.android.domain.repository.PhotosRepository
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
 import mega.privacy.android.domain.usecase.login.MonitorFetchNodesFinishUseCase
 import nz.mega.sdk.MegaApiJava
 import nz.mega.sdk.MegaCancelToken
@@ -46,11 +57,15 @@ import nz.mega.sdk.MegaNode
 import nz.mega.sdk.MegaRequest
 import nz.mega.sdk.MegaSearchFilter
 import nz.mega.sdk.MegaStringMap
+import nz.mega.sdk.MegaUser
 import org.junit.Before
 import org.junit.Test
 import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 import java.time.LocalDateTime
 import kotlin.time.Duration.Companion.seconds
@@ -93,6 +108,9 @@ class DefaultPhotosRepositoryTest {
         onBlocking { invoke() }.thenReturn(emptyFlow())
     }
     private val uiPreferencesGateway = mock<UIPreferencesGateway>()
+    private val photosSnapshotStore = mock<PhotosSnapshotStore>()
+    private val imageNodeMapper = mock<ImageNodeMapper>()
+    private val performanceReporterRepository = mock<PerformanceReporterRepository>()
 
     @Before
     fun setUp() {
@@ -315,7 +333,7 @@ class DefaultPhotosRepositoryTest {
         megaChatApiGateway = megaChatApiGateway,
         timelineFilterPreferencesJSONMapper = timelineFilterPreferencesJSONMapper,
         contentConsumptionMegaStringMapMapper = contentConsumptionMegaStringMapMapper,
-        imageNodeMapper = mock(),
+        imageNodeMapper = imageNodeMapper,
         cameraUploadsSettingsPreferenceGateway = cameraUploadsSettingsPreferenceGateway,
         sortOrderIntMapper = mock(),
         megaNodeMapper = megaNodeMapper,
@@ -325,8 +343,193 @@ class DefaultPhotosRepositoryTest {
         megaSearchFilterMapper = megaSearchFilterMapper,
         monitorFetchNodesFinishUseCase = monitorFetchNodesFinishUseCase,
         uiPreferencesGateway = uiPreferencesGateway,
+        photosSnapshotStore = photosSnapshotStore,
+        mediaAncestorIndex = MediaAncestorIndex(megaApiGateway),
+        performanceReporterRepository = performanceReporterRepository,
     )
 
+    @Test
+    fun `test that the photos of the snapshot are emitted before the scan ones`() = runTest {
+        val userHandle = 123L
+        val myUser = mock<MegaUser> { on { handle }.thenReturn(userHandle) }
+        val snapshotPhoto = createImage(
+            id = 1L,
+            albumPhotoId = null,
+            parentId = 0L,
+            name = "image.jpg",
+            isFavourite = false,
+            creationTime = LocalDateTime.now(),
+            modificationTime = LocalDateTime.now(),
+            thumbnailFilePath = null,
+            previewFilePath = null,
+            fileTypeInfo = StaticImageFileTypeInfo(mimeType = "", extension = "jpg"),
+            size = 0L,
+            isTakenDown = false,
+            isSensitive = false,
+            isSensitiveInherited = false,
+        )
+        whenever(megaApiGateway.myUser).thenReturn(myUser)
+        whenever(photosSnapshotStore.read(userHandle)).thenReturn(listOf(snapshotPhoto))
+
+        underTest = createUnderTest(this)
+        underTest.monitorPhotos().test {
+            assertThat(awaitItem()).containsExactly(snapshotPhoto)
+            assertThat(awaitItem()).isEmpty()
+        }
+        advanceUntilIdle()
+
+        verify(photosSnapshotStore).write(userHandle, emptyList())
+    }
+
+    @Test
+    fun `test that the photo changes start with a reset of the snapshot and of the scan`() =
+        runTest {
+            val userHandle = 123L
+            val myUser = mock<MegaUser> { on { handle }.thenReturn(userHandle) }
+            val snapshotPhoto = createImage(
+                id = 1L,
+                albumPhotoId = null,
+                parentId = 0L,
+                name = "image.jpg",
+                isFavourite = false,
+                creationTime = LocalDateTime.now(),
+                modificationTime = LocalDateTime.now(),
+                thumbnailFilePath = null,
+                previewFilePath = null,
+                fileTypeInfo = StaticImageFileTypeInfo(mimeType = "", extension = "jpg"),
+                size = 0L,
+                isTakenDown = false,
+                isSensitive = false,
+                isSensitiveInherited = false,
+            )
+            whenever(megaApiGateway.myUser).thenReturn(myUser)
+            whenever(photosSnapshotStore.read(userHandle)).thenReturn(listOf(snapshotPhoto))
+
+            underTest = createUnderTest(this)
+            underTest.monitorPhotoChanges().test {
+                assertThat(awaitItem()).isEqualTo(PhotoDelta.Reset(listOf(snapshotPhoto)))
+                assertThat(awaitItem()).isEqualTo(PhotoDelta.Reset(emptyList()))
+                cancelAndIgnoreRemainingEvents()
+            }
+        }
+
+    @Test
+    fun `test that a node update not affecting any photo is not emitted`() = runTest {
+        val nodeUpdates = MutableSharedFlow<NodeUpdate>()
+        whenever(nodeRepository.monitorNodeUpdates()).thenReturn(nodeUpdates)
+
+        underTest = createUnderTest(this)
+        underTest.monitorPhotoChanges().test {
+            assertThat(awaitItem()).isEqualTo(PhotoDelta.Reset(emptyList()))
+
+            nodeUpdates.emit(
+                NodeUpdate(mapOf(mock<FileNode>() to listOf(NodeChanges.Attributes)))
+            )
+            advanceUntilIdle()
+
+            expectNoEvents()
+        }
+    }
+
+    @Test
+    fun `test that only the media below a folder are refreshed when its sensitive flag changes`() =
+        runTest {
+            val token = mock<MegaCancelToken>()
+            val imageFilter = mock<MegaSearchFilter>()
+            val videoFilter = mock<MegaSearchFilter>()
+            // 20 <- 10 <- 1 is below the changed folder, 40 <- 30 <- 2 is not
+            val imageBelow = createMegaNode(handle = 1L, parentHandle = 10L, name = "below.jpg")
+            val imageOutside = createMegaNode(handle = 2L, parentHandle = 30L, name = "outside.jpg")
+            val folders = mapOf(
+                10L to 20L,
+                20L to MegaApiJava.INVALID_HANDLE,
+                30L to 40L,
+                40L to MegaApiJava.INVALID_HANDLE,
+            ).mapValues { (handle, parentHandle) ->
+                mock<MegaNode> {
+                    on { this.handle }.thenReturn(handle)
+                    on { this.parentHandle }.thenReturn(parentHandle)
+                }
+            }
+            whenever(
+                megaSearchFilterMapper(
+                    parentHandle = null,
+                    searchQuery = "",
+                    searchTarget = SearchTarget.ROOT_NODES,
+                    searchCategory = SearchCategory.IMAGES,
+                )
+            ).thenReturn(imageFilter)
+            whenever(
+                megaSearchFilterMapper(
+                    parentHandle = null,
+                    searchQuery = "",
+                    searchTarget = SearchTarget.ROOT_NODES,
+                    searchCategory = SearchCategory.VIDEO,
+                )
+            ).thenReturn(videoFilter)
+            whenever(cancelTokenProvider.getOrCreateCancelToken()).thenReturn(token)
+            whenever(
+                megaApiGateway.searchWithFilter(
+                    filter = imageFilter,
+                    order = MegaApiJava.ORDER_MODIFICATION_DESC,
+                    megaCancelToken = token
+                ),
+            ).thenReturn(listOf(imageBelow, imageOutside))
+            whenever(
+                megaApiGateway.searchWithFilter(
+                    filter = videoFilter,
+                    order = MegaApiJava.ORDER_MODIFICATION_DESC,
+                    megaCancelToken = token
+                ),
+            ).thenReturn(emptyList())
+            whenever(fileTypeInfoMapper(any(), any())).thenReturn(
+                StaticImageFileTypeInfo(mimeType = "", extension = "jpg")
+            )
+            whenever(megaApiGateway.getMegaNodeByHandle(1L)).thenReturn(imageBelow)
+            whenever(megaApiGateway.getMegaNodeByHandle(2L)).thenReturn(imageOutside)
+            folders.forEach { (handle, node) ->
+                whenever(megaApiGateway.getMegaNodeByHandle(handle)).thenReturn(node)
+            }
+            whenever(imageNodeMapper(any(), any(), any(), anyOrNull())).thenAnswer {
+                val megaNode = it.arguments[0] as MegaNode
+                mock<ImageNode> {
+                    on { id }.thenReturn(NodeId(megaNode.handle))
+                    on { parentId }.thenReturn(NodeId(megaNode.parentHandle))
+                }
+            }
+            val nodeUpdates = MutableSharedFlow<NodeUpdate>()
+            whenever(nodeRepository.monitorNodeUpdates()).thenReturn(nodeUpdates)
+            val changedFolder = mock<FolderNode> { on { id }.thenReturn(NodeId(20L)) }
+
+            underTest = createUnderTest(this)
+            underTest.monitorPhotoChanges().test {
+                assertThat((awaitItem() as PhotoDelta.Reset).photos).hasSize(2)
+                underTest.monitorImageNodes().test { assertThat(awaitItem()).hasSize(2) }
+
+                nodeUpdates.emit(NodeUpdate(mapOf(changedFolder to listOf(NodeChanges.Sensitive))))
+                advanceUntilIdle()
+
+                cancelAndIgnoreRemainingEvents()
+            }
+
+            verify(megaApiGateway, never()).getMegaNodeByHandle(2L)
+            verify(performanceReporterRepository).putMetric(
+                "photos_sensitive_refresh",
+                "touched_nodes",
+                2L,
+            )
+        }
+
+    @Test
+    fun `test that clearCache deletes the snapshot`() = runTest {
+        underTest = createUnderTest(this)
+
+        underTest.clearCache()
+        advanceUntilIdle()
+
+        verify(photosSnapshotStore).clear()
+    }
+
     private fun createMegaNode(
         handle: Long = 0L,
         parentHandle: Long = 0L,
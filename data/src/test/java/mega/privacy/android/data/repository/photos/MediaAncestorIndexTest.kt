@@ -0,0 +1,78 @@
+package mega.privacy.android.data.repository.photos
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import nz.mega.sdk.MegaApiJava
+import nz.mega.sdk.MegaNode
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MediaAncestorIndexTest {
+    private lateinit var underTest: MediaAncestorIndex
+
+    private val megaApiGateway = mock<MegaApiGateway>()
+
+    // 1 <- 2 <- 3 <- 4 and 1 <- 5
+    private val folderParents = mapOf(
+        1L to MegaApiJava.INVALID_HANDLE,
+        2L to 1L,
+        3L to 2L,
+        4L to 3L,
+        5L to 1L,
+    )
+
+    @BeforeEach
+    fun setUp() = runTest {
+        reset(megaApiGateway)
+        folderParents.forEach { (handle, parentHandle) -> stubFolder(handle, parentHandle) }
+        underTest = MediaAncestorIndex(megaApiGateway)
+    }
+
+    private suspend fun stubFolder(handle: Long, parentHandle: Long) {
+        val node = mock<MegaNode> {
+            on { this.handle }.thenReturn(handle)
+            on { this.parentHandle }.thenReturn(parentHandle)
+        }
+        whenever(megaApiGateway.getMegaNodeByHandle(handle)).thenReturn(node)
+    }
+
+    @Test
+    fun `test that the folder itself and the folders below it are returned`() = runTest {
+        val actual = underTest.getDescendantFolders(setOf(2L, 4L, 5L), ancestorHandle = 2L)
+
+        assertThat(actual).containsExactly(2L, 4L)
+    }
+
+    @Test
+    fun `test that the parent of each folder is only requested once`() = runTest {
+        underTest.getDescendantFolders(setOf(4L, 5L), ancestorHandle = 2L)
+        underTest.getDescendantFolders(setOf(4L, 5L), ancestorHandle = 5L)
+
+        verify(megaApiGateway, times(1)).getMegaNodeByHandle(4L)
+        verify(megaApiGateway, times(1)).getMegaNodeByHandle(3L)
+    }
+
+    @Test
+    fun `test that a moved folder is found below its new parent once invalidated`() = runTest {
+        assertThat(underTest.getDescendantFolders(setOf(4L), ancestorHandle = 5L)).isEmpty()
+
+        stubFolder(3L, 5L)
+        underTest.invalidate(3L)
+
+        assertThat(underTest.getDescendantFolders(setOf(4L), ancestorHandle = 5L))
+            .containsExactly(4L)
+    }
+
+    @Test
+    fun `test that a folder that can't be found is not a descendant`() = runTest {
+        assertThat(underTest.getDescendantFolders(setOf(99L), ancestorHandle = 1L)).isEmpty()
+    }
+}
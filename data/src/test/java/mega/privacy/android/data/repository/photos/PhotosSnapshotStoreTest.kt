@@ -0,0 +1,161 @@
+package mega.privacy.android.data.repository.photos
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.constant.CacheFolderConstant
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.data.gateway.api.MegaApiGateway
+import mega.privacy.android.data.mapper.FileTypeInfoMapper
+import mega.privacy.android.data.wrapper.DateUtilWrapper
+import mega.privacy.android.domain.entity.StaticImageFileTypeInfo
+import mega.privacy.android.domain.entity.VideoFileTypeInfo
+import mega.privacy.android.domain.entity.photos.Photo
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.io.TempDir
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+import java.io.File
+import java.time.Instant
+import java.time.LocalDateTime
+import java.time.ZoneId
+import java.time.temporal.ChronoUnit
+import kotlin.time.Duration.Companion.seconds
+
+class PhotosSnapshotStoreTest {
+
+    private lateinit var underTest: PhotosSnapshotStore
+
+    @TempDir
+    lateinit var cacheFolder: File
+
+    private val cacheGateway = mock<CacheGateway>()
+    private val megaApiGateway = mock<MegaApiGateway>()
+    private val fileTypeInfoMapper = mock<FileTypeInfoMapper>()
+    private val dateUtilFacade = mock<DateUtilWrapper>()
+
+    private val imageType = StaticImageFileTypeInfo(mimeType = "image/jpeg", extension = "jpg")
+    private val videoType =
+        VideoFileTypeInfo(mimeType = "video/mp4", extension = "mp4", duration = 42.seconds)
+
+    private val thumbnailFolder = File("/thumbnails")
+    private val previewFolder = File("/previews")
+
+    private val now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS)
+
+    private val image = Photo.Image(
+        id = 1L,
+        parentId = 10L,
+        name = "image.jpg",
+        isFavourite = true,
+        creationTime = now.minusDays(1),
+        modificationTime = now,
+        thumbnailFilePath = "/thumbnails/image",
+        previewFilePath = "/previews/image.jpg",
+        fileTypeInfo = imageType,
+        size = 1024L,
+        isSensitive = true,
+    )
+
+    private val video = Photo.Video(
+        id = 2L,
+        parentId = 10L,
+        name = "video.mp4",
+        isFavourite = false,
+        creationTime = now,
+        modificationTime = now,
+        thumbnailFilePath = "/thumbnails/video",
+        previewFilePath = "/previews/video.jpg",
+        fileTypeInfo = videoType,
+        size = 2048L,
+        isTakenDown = true,
+        isSensitiveInherited = true,
+    )
+
+    @BeforeEach
+    fun setUp() = runTest {
+        whenever(cacheGateway.getCacheFile(CacheFolderConstant.PHOTOS_FOLDER, "timeline.snapshot"))
+            .thenReturn(File(cacheFolder, "timeline.snapshot"))
+        whenever(cacheGateway.getOrCreateCacheFolder(CacheFolderConstant.THUMBNAIL_FOLDER))
+            .thenReturn(thumbnailFolder)
+        whenever(cacheGateway.getOrCreateCacheFolder(CacheFolderConstant.PREVIEW_FOLDER))
+            .thenReturn(previewFolder)
+        whenever(megaApiGateway.handleToBase64(image.id)).thenReturn("image")
+        whenever(megaApiGateway.handleToBase64(video.id)).thenReturn("video")
+        whenever(fileTypeInfoMapper(".jpg", 0)).thenReturn(imageType)
+        whenever(fileTypeInfoMapper(".mp4", 42)).thenReturn(videoType)
+        whenever(dateUtilFacade.fromEpoch(any())).thenAnswer {
+            LocalDateTime.ofInstant(
+                Instant.ofEpochSecond(it.arguments[0] as Long),
+                ZoneId.systemDefault()
+            )
+        }
+        underTest = PhotosSnapshotStore(
+            cacheGateway = cacheGateway,
+            megaApiGateway = megaApiGateway,
+            fileTypeInfoMapper = fileTypeInfoMapper,
+            dateUtilFacade = dateUtilFacade,
+            ioDispatcher = UnconfinedTestDispatcher(),
+        )
+    }
+
+    @Test
+    fun `test that the written photos are read back without their names`() = runTest {
+        underTest.write(1L, listOf(image, video))
+
+        assertThat(underTest.read(1L))
+            .containsExactly(image.copy(name = ""), video.copy(name = "")).inOrder()
+    }
+
+    @Test
+    fun `test that the names and paths are not written`() = runTest {
+        underTest.write(1L, listOf(image, video))
+
+        val content = File(cacheFolder, "timeline.snapshot").readBytes().decodeToString()
+        assertThat(content).doesNotContain("image")
+        assertThat(content).doesNotContain("video")
+        assertThat(content).doesNotContain("/thumbnails")
+        assertThat(content).doesNotContain("/previews")
+    }
+
+    @Test
+    fun `test that a video whose type is not a video anymore is read as an image`() = runTest {
+        underTest.write(1L, listOf(video))
+        whenever(fileTypeInfoMapper(".mp4", 42)).thenReturn(imageType)
+
+        val actual = underTest.read(1L)?.single()
+
+        assertThat(actual).isInstanceOf(Photo.Image::class.java)
+        assertThat(actual?.fileTypeInfo).isEqualTo(imageType)
+    }
+
+    @Test
+    fun `test that the snapshot of another account is ignored`() = runTest {
+        underTest.write(1L, listOf(image))
+
+        assertThat(underTest.read(2L)).isNull()
+    }
+
+    @Test
+    fun `test that null is returned if there is no snapshot`() = runTest {
+        assertThat(underTest.read(1L)).isNull()
+    }
+
+    @Test
+    fun `test that a corrupted snapshot is ignored`() = runTest {
+        File(cacheFolder, "timeline.snapshot").writeText("not a snapshot")
+
+        assertThat(underTest.read(1L)).isNull()
+    }
+
+    @Test
+    fun `test that clear deletes the snapshot`() = runTest {
+        underTest.write(1L, listOf(image))
+
+        underTest.clear()
+
+        assertThat(underTest.read(1L)).isNull()
+    }
+}
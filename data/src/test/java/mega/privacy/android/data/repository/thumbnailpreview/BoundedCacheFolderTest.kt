@@ -0,0 +1,280 @@
+package mega.privacy.android.data.repository.thumbnailpreview
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.CoroutineDispatcher
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.async
+import kotlinx.coroutines.test.StandardTestDispatcher
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.advanceUntilIdle
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.gateway.CacheGateway
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.assertThrows
+import org.junit.jupiter.api.io.TempDir
+import org.mockito.kotlin.any
+import org.mockito.kotlin.inOrder
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
+import org.mockito.kotlin.whenever
+import java.io.File
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class BoundedCacheFolderTest {
+
+    private val cacheGateway = mock<CacheGateway>()
+
+    private val performanceReporterRepository = mock<PerformanceReporterRepository>()
+
+    private val ioDispatcher = UnconfinedTestDispatcher()
+
+    @TempDir
+    lateinit var folder: File
+
+    @BeforeEach
+    fun setUp() = runTest {
+        reset(cacheGateway, performanceReporterRepository)
+        whenever(cacheGateway.getOrCreateCacheFolder(any())).thenReturn(folder)
+        folder.listFiles()?.forEach { it.delete() }
+    }
+
+    private fun createUnderTest(
+        maxBytes: Long = 100L,
+        dispatcher: CoroutineDispatcher = ioDispatcher,
+    ) = BoundedCacheFolder(
+        cacheGateway = cacheGateway,
+        folderName = "folder",
+        maxBytes = maxBytes,
+        scope = CoroutineScope(dispatcher),
+        ioDispatcher = dispatcher,
+        performanceReporterRepository = performanceReporterRepository,
+        traceName = TRACE,
+    )
+
+    private fun writeFile(name: String, size: Int) =
+        File(folder, name).apply { writeBytes(ByteArray(size)) }
+
+    @Test
+    fun `test that the least recently used files are evicted when the folder is full`() = runTest {
+        val underTest = createUnderTest(maxBytes = 100L)
+        underTest.onStored(writeFile("a", 40))
+        underTest.onStored(writeFile("b", 40))
+        underTest.get(File(folder, "a"))
+
+        underTest.onStored(writeFile("c", 40))
+
+        assertThat(File(folder, "a").exists()).isTrue()
+        assertThat(File(folder, "b").exists()).isFalse()
+        assertThat(File(folder, "c").exists()).isTrue()
+        assertThat(underTest.getStats().evictions).isEqualTo(1)
+        assertThat(underTest.getStats().totalBytes).isEqualTo(80)
+    }
+
+    @Test
+    fun `test that the held files are not evicted`() = runTest {
+        val underTest = createUnderTest(maxBytes = 100L)
+        underTest.onStored(writeFile("a", 40))
+        underTest.onStored(writeFile("b", 40))
+        underTest.hold(holder = "screen", fileNames = listOf("a"))
+
+        underTest.onStored(writeFile("c", 40))
+
+        assertThat(File(folder, "a").exists()).isTrue()
+        assertThat(File(folder, "b").exists()).isFalse()
+        assertThat(File(folder, "c").exists()).isTrue()
+    }
+
+    @Test
+    fun `test that the released files are evicted by the next store`() = runTest {
+        val underTest = createUnderTest(maxBytes = 100L)
+        underTest.onStored(writeFile("a", 40))
+        underTest.hold(holder = "screen", fileNames = listOf("a"))
+        underTest.onStored(writeFile("b", 40))
+        underTest.onStored(writeFile("c", 40))
+
+        underTest.hold(holder = "screen", fileNames = emptyList())
+        underTest.onStored(writeFile("d", 30))
+
+        assertThat(File(folder, "a").exists()).isFalse()
+        assertThat(File(folder, "c").exists()).isTrue()
+        assertThat(File(folder, "d").exists()).isTrue()
+    }
+
+    @Test
+    fun `test that the accesses before the folder is loaded are applied once it is loaded`() =
+        runTest {
+            val underTest = createUnderTest(
+                maxBytes = 100L,
+                dispatcher = StandardTestDispatcher(testScheduler),
+            )
+            underTest.onStored(writeFile("a", 40))
+            underTest.onStored(writeFile("b", 40))
+            underTest.get(File(folder, "a"))
+            assertThat(File(folder, "a").exists()).isTrue()
+
+            advanceUntilIdle()
+            underTest.onStored(writeFile("c", 40))
+
+            assertThat(File(folder, "a").exists()).isTrue()
+            assertThat(File(folder, "b").exists()).isFalse()
+        }
+
+    @Test
+    fun `test that the reads are appended to the journal in batches`() = runTest {
+        val underTest = createUnderTest(maxBytes = 1000L)
+        underTest.onStored(writeFile("a", 10))
+        underTest.onStored(writeFile("b", 10))
+        val journal = File(folder, ".journal")
+
+        repeat(10) {
+            underTest.get(File(folder, "a"))
+            underTest.get(File(folder, "b"))
+        }
+        val journalBeforeStore = journal.readLines()
+        underTest.onStored(writeFile("c", 10))
+
+        assertThat(journalBeforeStore.none { it.startsWith("READ") }).isTrue()
+        assertThat(journal.readLines().takeLast(3))
+            .containsExactly("READ a", "READ b", "STORE 10 c").inOrder()
+    }
+
+    @Test
+    fun `test that the file just stored is not evicted even if it exceeds the maximum size`() =
+        runTest {
+            val underTest = createUnderTest(maxBytes = 100L)
+            underTest.onStored(writeFile("a", 40))
+
+            underTest.onStored(writeFile("b", 150))
+
+            assertThat(File(folder, "a").exists()).isFalse()
+            assertThat(File(folder, "b").exists()).isTrue()
+        }
+
+    @Test
+    fun `test that the order of access is restored from the journal`() = runTest {
+        val previous = createUnderTest(maxBytes = 100L)
+        previous.onStored(writeFile("a", 40))
+        previous.onStored(writeFile("b", 40))
+        previous.get(File(folder, "a"))
+        previous.onStored(writeFile("c", 10))
+
+        val underTest = createUnderTest(maxBytes = 100L)
+        underTest.onStored(writeFile("d", 40))
+
+        assertThat(File(folder, "a").exists()).isTrue()
+        assertThat(File(folder, "b").exists()).isFalse()
+        assertThat(File(folder, "c").exists()).isTrue()
+    }
+
+    @Test
+    fun `test that the files not in the journal are tracked when the folder is loaded`() =
+        runTest {
+            writeFile("a", 60)
+            writeFile("b", 60)
+
+            createUnderTest(maxBytes = 100L)
+
+            assertThat(folder.listFiles { file -> !file.name.startsWith(".") }).hasLength(1)
+        }
+
+    @Test
+    fun `test that concurrent downloads of the same file are coalesced`() = runTest {
+        val underTest = createUnderTest()
+        val file = File(folder, "a")
+        val downloadStarted = CompletableDeferred<Unit>()
+        val downloadFinished = CompletableDeferred<Unit>()
+        var downloads = 0
+        val download: suspend () -> Unit = {
+            downloads++
+            downloadStarted.complete(Unit)
+            downloadFinished.await()
+            file.writeBytes(ByteArray(10))
+        }
+
+        val first = async { underTest.fetch(file, download) }
+        downloadStarted.await()
+        val second = async { underTest.fetch(file, download) }
+        downloadFinished.complete(Unit)
+
+        assertThat(first.await()).isEqualTo(file)
+        assertThat(second.await()).isEqualTo(file)
+        assertThat(downloads).isEqualTo(1)
+        assertThat(underTest.getStats().coalescedRequests).isEqualTo(1)
+        assertThat(underTest.getStats().totalBytes).isEqualTo(10)
+    }
+
+    @Test
+    fun `test that a failed download is thrown and can be requested again`() = runTest {
+        val underTest = createUnderTest()
+        val file = File(folder, "a")
+
+        assertThrows<IllegalStateException> {
+            underTest.fetch(file) { error("Download failed") }
+        }
+        val actual = underTest.fetch(file) { file.writeBytes(ByteArray(10)) }
+
+        assertThat(actual).isEqualTo(file)
+        assertThat(underTest.getStats().coalescedRequests).isEqualTo(0)
+    }
+
+    @Test
+    fun `test that hits and misses are counted`() = runTest {
+        val underTest = createUnderTest()
+        writeFile("a", 10)
+
+        underTest.get(File(folder, "a"))
+        underTest.get(File(folder, "b"))
+        underTest.get(null)
+
+        assertThat(underTest.getStats().hits).isEqualTo(1)
+        assertThat(underTest.getStats().misses).isEqualTo(2)
+    }
+
+    @Test
+    fun `test that the counters are reported every report interval`() = runTest {
+        val underTest = createUnderTest()
+        writeFile("a", 10)
+
+        repeat(BoundedCacheFolder.REPORT_INTERVAL_ACCESSES - 1) {
+            underTest.get(File(folder, "a"))
+        }
+        verifyNoInteractions(performanceReporterRepository)
+        underTest.get(File(folder, "b"))
+
+        inOrder(performanceReporterRepository) {
+            verify(performanceReporterRepository).startTrace(TRACE)
+            verify(performanceReporterRepository).putMetric(
+                TRACE,
+                BoundedCacheFolder.HITS_METRIC,
+                BoundedCacheFolder.REPORT_INTERVAL_ACCESSES - 1L,
+            )
+            verify(performanceReporterRepository)
+                .putMetric(TRACE, BoundedCacheFolder.MISSES_METRIC, 1L)
+            verify(performanceReporterRepository).stopTrace(TRACE)
+        }
+    }
+
+    @Test
+    fun `test that a removed file is not tracked anymore`() = runTest {
+        val underTest = createUnderTest(maxBytes = 100L)
+        underTest.onStored(writeFile("a", 60))
+        underTest.onRemoved("a")
+
+        underTest.onStored(writeFile("b", 60))
+
+        assertThat(File(folder, "a").exists()).isTrue()
+        assertThat(File(folder, ".journal").readLines().last()).isEqualTo("STORE 60 b")
+    }
+
+    private companion object {
+        const val TRACE = "cache"
+    }
+}
@@ -0,0 +1,156 @@
+package mega.privacy.android.data.repository.thumbnailpreview
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CompletableDeferred
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.UnconfinedTestDispatcher
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailPrefetchPriority
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+
+@OptIn(ExperimentalCoroutinesApi::class)
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ThumbnailPrefetchQueueTest {
+
+    private val performanceReporterRepository = mock<PerformanceReporterRepository>()
+
+    private val fetched = mutableListOf<Long>()
+
+    private val pendingFetches = mutableMapOf<Long, CompletableDeferred<Unit>>()
+
+    private val fetch: suspend (Long) -> Unit = { handle ->
+        fetched.add(handle)
+        CompletableDeferred<Unit>().also { pendingFetches[handle] = it }.await()
+    }
+
+    @BeforeEach
+    fun setUp() {
+        reset(performanceReporterRepository)
+        fetched.clear()
+        pendingFetches.clear()
+    }
+
+    private fun TestScope.createUnderTest(maxConcurrentRequests: Int = 2) = ThumbnailPrefetchQueue(
+        scope = TestScope(UnconfinedTestDispatcher(testScheduler)),
+        maxConcurrentRequests = maxConcurrentRequests,
+        performanceReporterRepository = performanceReporterRepository,
+    )
+
+    private fun complete(handle: Long) {
+        pendingFetches.remove(handle)?.complete(Unit)
+    }
+
+    @Test
+    fun `test that no more than the maximum concurrent requests are fetched`() = runTest {
+        val underTest = createUnderTest(maxConcurrentRequests = 2)
+
+        underTest.submit(listOf(1L, 2L, 3L), ThumbnailPrefetchPriority.Visible, fetch)
+
+        assertThat(fetched).containsExactly(1L, 2L).inOrder()
+
+        complete(1L)
+
+        assertThat(fetched).containsExactly(1L, 2L, 3L).inOrder()
+    }
+
+    @Test
+    fun `test that visible thumbnails are fetched before look ahead ones`() = runTest {
+        val underTest = createUnderTest(maxConcurrentRequests = 1)
+        underTest.submit(listOf(1L), ThumbnailPrefetchPriority.Visible, fetch)
+
+        underTest.submit(listOf(10L, 11L), ThumbnailPrefetchPriority.LookAhead, fetch)
+        underTest.submit(listOf(1L, 2L), ThumbnailPrefetchPriority.Visible, fetch)
+        complete(1L)
+        complete(2L)
+
+        assertThat(fetched).containsExactly(1L, 2L, 10L).inOrder()
+    }
+
+    @Test
+    fun `test that the pending thumbnails not submitted again are dropped`() = runTest {
+        val underTest = createUnderTest(maxConcurrentRequests = 1)
+        underTest.submit(listOf(1L, 2L, 3L), ThumbnailPrefetchPriority.Visible, fetch)
+
+        underTest.submit(listOf(4L), ThumbnailPrefetchPriority.Visible, fetch)
+        complete(1L)
+        complete(4L)
+
+        assertThat(fetched).containsExactly(1L, 4L).inOrder()
+        verify(performanceReporterRepository).putMetric(
+            ThumbnailPrefetchQueue.PREFETCH_TRACE,
+            ThumbnailPrefetchQueue.DROPPED_METRIC,
+            2L,
+        )
+    }
+
+    @Test
+    fun `test that a look ahead thumbnail submitted as visible is promoted`() = runTest {
+        val underTest = createUnderTest(maxConcurrentRequests = 1)
+        underTest.submit(listOf(1L), ThumbnailPrefetchPriority.Visible, fetch)
+        underTest.submit(listOf(10L, 11L), ThumbnailPrefetchPriority.LookAhead, fetch)
+
+        underTest.submit(listOf(11L), ThumbnailPrefetchPriority.Visible, fetch)
+        complete(1L)
+        complete(11L)
+
+        assertThat(fetched).containsExactly(1L, 11L, 10L).inOrder()
+    }
+
+    @Test
+    fun `test that a failed thumbnail does not stop the queue`() = runTest {
+        val underTest = createUnderTest(maxConcurrentRequests = 1)
+
+        underTest.submit(listOf(1L, 2L), ThumbnailPrefetchPriority.Visible) { handle ->
+            fetched.add(handle)
+            if (handle == 1L) error("Thumbnail not found")
+        }
+
+        assertThat(fetched).containsExactly(1L, 2L).inOrder()
+        verify(performanceReporterRepository).putMetric(
+            ThumbnailPrefetchQueue.PREFETCH_TRACE,
+            ThumbnailPrefetchQueue.FAILED_METRIC,
+            1L,
+        )
+        verify(performanceReporterRepository).putMetric(
+            ThumbnailPrefetchQueue.PREFETCH_TRACE,
+            ThumbnailPrefetchQueue.FETCHED_METRIC,
+            1L,
+        )
+    }
+
+    @Test
+    fun `test that a burst is reported once the queue is empty`() = runTest {
+        val underTest = createUnderTest(maxConcurrentRequests = 1)
+
+        underTest.submit(listOf(1L, 2L), ThumbnailPrefetchPriority.Visible, fetch)
+        verify(performanceReporterRepository).startTrace(ThumbnailPrefetchQueue.PREFETCH_TRACE)
+        complete(1L)
+        complete(2L)
+
+        verify(performanceReporterRepository).putMetric(
+            eq(ThumbnailPrefetchQueue.PREFETCH_TRACE),
+            eq(ThumbnailPrefetchQueue.MAX_QUEUE_DEPTH_METRIC),
+            eq(2L),
+        )
+        verify(performanceReporterRepository).putMetric(
+            eq(ThumbnailPrefetchQueue.PREFETCH_TRACE),
+            eq(ThumbnailPrefetchQueue.FETCHED_METRIC),
+            eq(2L),
+        )
+        verify(performanceReporterRepository).putMetric(
+            eq(ThumbnailPrefetchQueue.PREFETCH_TRACE),
+            eq(ThumbnailPrefetchQueue.LATENCY_P99_METRIC),
+            any(),
+        )
+        verify(performanceReporterRepository).stopTrace(ThumbnailPrefetchQueue.PREFETCH_TRACE)
+    }
+}
@@ -1,6 +1,7 @@
 package mega.privacy.android.data.repository.thumbnailpreview
 
 import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CoroutineScope
 import kotlinx.coroutines.ExperimentalCoroutinesApi
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
 import kotlinx.coroutines.test.advanceUntilIdle
@@ -12,6 +13,7 @@ import mega.privacy.android.data.gateway.api.MegaApiFolderGateway
 import mega.privacy.android.data.gateway.api.MegaApiGateway
 import mega.privacy.android.data.mapper.node.MegaNodeMapper
 import mega.privacy.android.data.wrapper.StringWrapper
+import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailPrefetchPriority
 import mega.privacy.android.domain.exception.MegaException
 import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
 import nz.mega.sdk.MegaApiJava
@@ -26,6 +28,7 @@ import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.api.assertThrows
 import org.mockito.kotlin.any
 import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.eq
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
@@ -44,6 +47,7 @@ class ThumbnailPreviewRepositoryImplTest {
     private val cacheGateway = mock<CacheGateway>()
     private val stringWrapper = mock<StringWrapper>()
     private val megaNodeMapper = mock<MegaNodeMapper>()
+    private val thumbnailPrefetchQueue = mock<ThumbnailPrefetchQueue>()
 
     private val cacheDir = File("cache")
     private val thumbnailName = "thumbnailName"
@@ -55,19 +59,34 @@ class ThumbnailPreviewRepositoryImplTest {
 
     @BeforeAll
     fun setUp() {
+        val ioDispatcher = UnconfinedTestDispatcher()
         underTest = ThumbnailPreviewRepositoryImpl(
             megaApi = megaApi,
             megaApiFolder = megaApiFolder,
-            ioDispatcher = UnconfinedTestDispatcher(),
+            ioDispatcher = ioDispatcher,
             cacheGateway = cacheGateway,
             stringWrapper = stringWrapper,
-            megaNodeMapper = megaNodeMapper
+            megaNodeMapper = megaNodeMapper,
+            thumbnailPreviewCache = ThumbnailPreviewCache(
+                cacheGateway = cacheGateway,
+                scope = CoroutineScope(ioDispatcher),
+                ioDispatcher = ioDispatcher,
+                performanceReporterRepository = mock(),
+            ),
+            thumbnailPrefetchQueue = thumbnailPrefetchQueue,
         )
     }
 
     @BeforeEach
     fun resetMocks() {
-        reset(megaApi, megaApiFolder, cacheGateway, stringWrapper, megaNodeMapper)
+        reset(
+            megaApi,
+            megaApiFolder,
+            cacheGateway,
+            stringWrapper,
+            megaNodeMapper,
+            thumbnailPrefetchQueue,
+        )
     }
 
     @Test
@@ -325,4 +344,18 @@ class ThumbnailPreviewRepositoryImplTest {
         underTest.setPreview(nodeHandle, any())
         verify(megaApi, never()).setPreview(any(), any(), any())
     }
+
+    @Test
+    fun `test that prefetch thumbnails submits the handles to the prefetch queue`() = runTest {
+        val handles = listOf(1L, 2L)
+        whenever(megaApi.handleToBase64(any())).thenReturn(thumbnailName)
+
+        underTest.prefetchThumbnails(handles, ThumbnailPrefetchPriority.LookAhead)
+
+        verify(thumbnailPrefetchQueue).submit(
+            eq(handles),
+            eq(ThumbnailPrefetchPriority.LookAhead),
+            any(),
+        )
+    }
 }
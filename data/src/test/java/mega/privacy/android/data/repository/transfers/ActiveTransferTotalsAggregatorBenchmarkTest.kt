@@ -0,0 +1,164 @@
+package mega.privacy.android.data.repository.transfers
+
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.database.entity.ActiveTransferEntity
+import mega.privacy.android.data.mapper.transfer.active.ActiveTransferTotalsMapper
+import mega.privacy.android.domain.entity.transfer.ActiveTransferActionGroupImpl
+import mega.privacy.android.domain.entity.transfer.TransferAppData
+import mega.privacy.android.domain.entity.transfer.TransferType
+import mega.privacy.android.domain.repository.TransferRepository
+import org.junit.jupiter.api.Tag
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.onBlocking
+
+/**
+ * Micro benchmark comparing the cost of aggregating the totals with
+ * [ActiveTransferTotalsAggregator] and with [ActiveTransferTotalsMapper], for an increasing number
+ * of active transfers, both per transferred bytes event and per Room emission of the active
+ * transfers.
+ *
+ * It is only run with the includeBenchmarks Gradle property, as the timings depend on the machine.
+ */
+@Tag("benchmark")
+class ActiveTransferTotalsAggregatorBenchmarkTest {
+
+    private val transferType = TransferType.DOWNLOAD
+
+    private val transferRepository = mock<TransferRepository> {
+        onBlocking { getActiveTransferGroupById(any()) } doReturn ActiveTransferActionGroupImpl(
+            transferType = transferType,
+            destination = "destination",
+            startTime = 0L,
+        )
+    }
+
+    private val mapper = ActiveTransferTotalsMapper { transferRepository }
+
+    @Test
+    fun `benchmark the cost per transferred bytes event with up to 10k active transfers`() =
+        runTest {
+            ACTIVE_TRANSFERS.forEach { activeTransfers ->
+                val entities = createEntities(activeTransfers)
+                // warm up
+                aggregateEvents(entities, EVENTS)
+                recomputeEvents(entities, EVENTS / 10)
+
+                val aggregatorNanos = measure { aggregateEvents(entities, EVENTS) } / EVENTS
+                val mapperNanos =
+                    measure { recomputeEvents(entities, EVENTS / 10) } / (EVENTS / 10)
+
+                println(
+                    "active transfers: $activeTransfers, " +
+                            "aggregator: $aggregatorNanos ns/event, mapper: $mapperNanos ns/event"
+                )
+            }
+        }
+
+    @Test
+    fun `benchmark the cost per Room emission with up to 10k active transfers`() = runTest {
+        ACTIVE_TRANSFERS.forEach { activeTransfers ->
+            val emissions = createEmissions(activeTransfers)
+            // warm up
+            aggregateEmissions(emissions)
+            recomputeEmissions(emissions)
+
+            val aggregatorNanos = measure { aggregateEmissions(emissions) } / emissions.size
+            val mapperNanos = measure { recomputeEmissions(emissions) } / emissions.size
+
+            println(
+                "active transfers: $activeTransfers, " +
+                        "aggregator: $aggregatorNanos ns/emission, mapper: $mapperNanos ns/emission"
+            )
+        }
+    }
+
+    private suspend fun aggregateEvents(entities: List<ActiveTransferEntity>, events: Int) {
+        val aggregator = createAggregator(entities)
+        repeat(events) { event ->
+            aggregator.onTransferredBytes((event % entities.size).toLong(), event.toLong() + 1)
+            aggregator.getTotals()
+        }
+    }
+
+    private suspend fun recomputeEvents(entities: List<ActiveTransferEntity>, events: Int) {
+        val transferredBytes = HashMap<Long, Long>()
+        var totals = mapper(transferType, entities, transferredBytes)
+        repeat(events) { event ->
+            transferredBytes[(event % entities.size).toLong()] = event.toLong() + 1
+            totals = mapper(transferType, entities, transferredBytes, totals.actionGroups)
+        }
+    }
+
+    private suspend fun aggregateEmissions(emissions: List<List<ActiveTransferEntity>>) {
+        val aggregator = createAggregator(emissions.first())
+        emissions.forEach {
+            aggregator.setActiveTransfers(it)
+            aggregator.getTotals()
+        }
+    }
+
+    private suspend fun recomputeEmissions(emissions: List<List<ActiveTransferEntity>>) {
+        var totals = mapper(transferType, emissions.first(), emptyMap())
+        emissions.forEach {
+            totals = mapper(transferType, it, emptyMap(), totals.actionGroups)
+        }
+    }
+
+    private suspend fun createAggregator(entities: List<ActiveTransferEntity>) =
+        ActiveTransferTotalsAggregator(transferType).apply {
+            setActiveTransfers(entities)
+            getActionGroupIdsWithoutInfo().forEach { groupId ->
+                transferRepository.getActiveTransferGroupById(groupId)?.let {
+                    setActionGroupInfo(groupId, it)
+                }
+            }
+        }
+
+    /**
+     * Each emission is a new list of new entities, as Room returns, where a single transfer
+     * finished since the previous one
+     */
+    private fun createEmissions(size: Int): List<List<ActiveTransferEntity>> {
+        var current = createEntities(size)
+        return List(EMISSIONS) { emission ->
+            val finished = emission % size
+            current = current.mapIndexed { index, entity ->
+                entity.copy(isFinished = entity.isFinished || index == finished)
+            }
+            current
+        }
+    }
+
+    private inline fun measure(block: () -> Unit): Long {
+        val start = System.nanoTime()
+        block()
+        return System.nanoTime() - start
+    }
+
+    private fun createEntities(size: Int) = (0 until size).map { tag ->
+        ActiveTransferEntity(
+            uniqueId = tag.toLong(),
+            tag = tag,
+            transferType = transferType,
+            totalBytes = 1024L * 1024L,
+            isFinished = tag % 10 == 0,
+            isFolderTransfer = false,
+            isPaused = false,
+            isAlreadyTransferred = false,
+            isCancelled = false,
+            appData = listOf(TransferAppData.TransferGroup(tag % GROUPS + 1L)),
+            fileName = "File$tag.txt",
+            localPath = "path/File$tag.txt"
+        )
+    }
+
+    private companion object {
+        val ACTIVE_TRANSFERS = listOf(100, 1_000, 10_000)
+        const val EVENTS = 2_000
+        const val EMISSIONS = 100
+        const val GROUPS = 10
+    }
+}
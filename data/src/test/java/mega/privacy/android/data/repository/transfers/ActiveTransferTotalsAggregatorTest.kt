@@ -0,0 +1,201 @@
+package mega.privacy.android.data.repository.transfers
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.data.database.entity.ActiveTransferEntity
+import mega.privacy.android.data.mapper.transfer.active.ActiveTransferTotalsMapper
+import mega.privacy.android.domain.entity.transfer.ActiveTransferActionGroupImpl
+import mega.privacy.android.domain.entity.transfer.ActiveTransferTotals
+import mega.privacy.android.domain.entity.transfer.TransferAppData
+import mega.privacy.android.domain.entity.transfer.TransferType
+import mega.privacy.android.domain.repository.TransferRepository
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.whenever
+import kotlin.random.Random
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ActiveTransferTotalsAggregatorTest {
+
+    private lateinit var underTest: ActiveTransferTotalsAggregator
+
+    private lateinit var mapper: ActiveTransferTotalsMapper
+
+    private val transferRepository = mock<TransferRepository>()
+
+    private val transferType = TransferType.DOWNLOAD
+
+    @BeforeAll
+    fun setUp() {
+        mapper = ActiveTransferTotalsMapper { transferRepository }
+    }
+
+    @BeforeEach
+    fun resetMocks() = runTest {
+        reset(transferRepository)
+        whenever(transferRepository.getActiveTransferGroupById(any())).thenAnswer {
+            val groupId = it.arguments[0] as Int
+            actionGroup(groupId)
+        }
+        underTest = ActiveTransferTotalsAggregator(transferType)
+    }
+
+    @Test
+    fun `test that the totals of the added transfers are aggregated`() = runTest {
+        val entities = (0..20).map { createEntity(it) }
+
+        underTest.setActiveTransfers(entities)
+
+        assertSameTotals(underTest.getTotals(), mapper(transferType, entities, emptyMap()))
+    }
+
+    @Test
+    fun `test that finishing a transfer updates the totals`() = runTest {
+        val entities = (0..5).map { createEntity(it, isFinished = false) }
+        underTest.setActiveTransfers(entities)
+
+        val finished = entities.mapIndexed { index, entity ->
+            if (index == 2) entity.copy(isFinished = true) else entity
+        }
+        underTest.setActiveTransfers(finished)
+
+        assertThat(underTest.getTotals().totalFinishedTransfers).isEqualTo(1)
+        assertSameTotals(underTest.getTotals(), mapper(transferType, finished, emptyMap()))
+    }
+
+    @Test
+    fun `test that the transferred bytes reported before the transfer is added are aggregated`() =
+        runTest {
+            val entity = createEntity(1, isFinished = false, isFolderTransfer = false)
+
+            underTest.onTransferredBytes(entity.uniqueId, 100L)
+            underTest.onActiveTransfer(entity)
+
+            assertThat(underTest.getTotals().transferredBytes).isEqualTo(100L)
+        }
+
+    @Test
+    fun `test that the transfers not in the list anymore are removed`() = runTest {
+        val entities = (0..10).map { createEntity(it) }
+        underTest.setActiveTransfers(entities)
+
+        val remaining = entities.take(4)
+        underTest.setActiveTransfers(remaining)
+
+        assertSameTotals(underTest.getTotals(), mapper(transferType, remaining, emptyMap()))
+    }
+
+    @Test
+    fun `test that action groups without info are not included`() = runTest {
+        underTest.setActiveTransfers(listOf(createEntity(1, groupId = 7L)))
+
+        assertThat(underTest.getActionGroupIdsWithoutInfo()).containsExactly(7)
+        assertThat(underTest.getTotals().actionGroups).isEmpty()
+
+        underTest.setActionGroupInfo(7, actionGroup(7))
+
+        assertThat(underTest.getActionGroupIdsWithoutInfo()).isEmpty()
+        assertThat(underTest.getTotals().actionGroups.map { it.groupId }).containsExactly(7)
+    }
+
+    @Test
+    fun `test that clear removes all the transfers and transferred bytes`() = runTest {
+        underTest.setActiveTransfers((0..5).map { createEntity(it) })
+        underTest.onTransferredBytes(1L, 100L)
+
+        underTest.clear()
+
+        assertSameTotals(underTest.getTotals(), mapper(transferType, emptyList(), emptyMap()))
+    }
+
+    @Test
+    fun `test that random deltas produce the same totals as the mapper`() = runTest {
+        val random = Random(7)
+        val current = LinkedHashMap<Long, ActiveTransferEntity>()
+        val transferredBytes = HashMap<Long, Long>()
+
+        repeat(2_000) {
+            val uniqueId = random.nextLong(0, 60)
+            when (random.nextInt(4)) {
+                0 -> current[uniqueId] = createEntity(
+                    uniqueId.toInt(),
+                    isFinished = random.nextBoolean(),
+                    isPaused = random.nextBoolean(),
+                    groupId = uniqueId % 3 + 1,
+                )
+
+                1 -> current.remove(uniqueId)
+                else -> {
+                    val bytes = random.nextLong(1, 5) * 1024
+                    transferredBytes[uniqueId] = bytes
+                    underTest.onTransferredBytes(uniqueId, bytes)
+                }
+            }
+            val list = current.values.toList()
+            underTest.setActiveTransfers(list)
+            underTest.getActionGroupIdsWithoutInfo().forEach {
+                underTest.setActionGroupInfo(it, actionGroup(it))
+            }
+
+            assertSameTotals(underTest.getTotals(), mapper(transferType, list, transferredBytes))
+        }
+    }
+
+    @Test
+    fun `test that the transferred bytes of many transfers produce the same totals as the mapper`() =
+        runTest {
+            val entities = (0 until 1_000).map { createEntity(it, groupId = it % 10 + 1L) }
+            val transferredBytes = HashMap<Long, Long>()
+            underTest.setActiveTransfers(entities)
+            underTest.getActionGroupIdsWithoutInfo().forEach {
+                underTest.setActionGroupInfo(it, actionGroup(it))
+            }
+
+            repeat(2_000) { event ->
+                val uniqueId = (event % entities.size).toLong()
+                underTest.onTransferredBytes(uniqueId, event + 1L)
+                transferredBytes[uniqueId] = event + 1L
+            }
+
+            assertSameTotals(underTest.getTotals(), mapper(transferType, entities, transferredBytes))
+        }
+
+    private fun assertSameTotals(actual: ActiveTransferTotals, expected: ActiveTransferTotals) {
+        assertThat(actual.copy(actionGroups = emptyList()))
+            .isEqualTo(expected.copy(actionGroups = emptyList()))
+        assertThat(actual.actionGroups).containsExactlyElementsIn(expected.actionGroups)
+    }
+
+    private fun actionGroup(groupId: Int) = ActiveTransferActionGroupImpl(
+        groupId = groupId,
+        transferType = transferType,
+        destination = "destination$groupId",
+        startTime = groupId.toLong(),
+    )
+
+    private fun createEntity(
+        tag: Int,
+        isFinished: Boolean = tag.rem(5) == 0,
+        isFolderTransfer: Boolean = tag.rem(8) == 0,
+        isPaused: Boolean = tag.rem(2) == 0,
+        groupId: Long = tag.rem(3).toLong(),
+    ) = ActiveTransferEntity(
+        uniqueId = tag.toLong(),
+        tag = tag,
+        transferType = transferType,
+        totalBytes = 1024 * (tag.toLong() % 5 + 1),
+        isFinished = isFinished,
+        isFolderTransfer = isFolderTransfer,
+        isPaused = isPaused,
+        isAlreadyTransferred = tag.rem(9) == 0,
+        isCancelled = tag.rem(7) == 0,
+        appData = listOf(TransferAppData.TransferGroup(groupId)),
+        fileName = "File$tag.txt",
+        localPath = "path/File$tag.txt"
+    )
+}
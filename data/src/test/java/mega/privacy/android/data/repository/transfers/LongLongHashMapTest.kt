@@ -0,0 +1,94 @@
+package mega.privacy.android.data.repository.transfers
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import kotlin.random.Random
+
+class LongLongHashMapTest {
+
+    private fun LongLongHashMap.toMap() = HashMap<Long, Long>().also { copyTo(it) }
+
+    @Test
+    fun `test that the value of an existing key is replaced`() {
+        val underTest = LongLongHashMap()
+
+        underTest.put(1L, 10L)
+        underTest.put(1L, 20L)
+
+        assertThat(underTest.size).isEqualTo(1)
+        assertThat(underTest.get(1L)).isEqualTo(20L)
+    }
+
+    @Test
+    fun `test that the default value is returned for an unknown key`() {
+        val underTest = LongLongHashMap()
+
+        assertThat(underTest.get(1L, -1L)).isEqualTo(-1L)
+    }
+
+    @Test
+    fun `test that clear removes all the entries`() {
+        val underTest = LongLongHashMap()
+        (0L until 100L).forEach { underTest.put(it, it) }
+
+        underTest.clear()
+
+        assertThat(underTest.size).isEqualTo(0)
+        assertThat(underTest.toMap()).isEmpty()
+        assertThat(underTest.get(1L, -1L)).isEqualTo(-1L)
+    }
+
+    @Test
+    fun `test that random puts and removes behave like a hash map`() {
+        val underTest = LongLongHashMap()
+        val expected = HashMap<Long, Long>()
+        val random = Random(42)
+
+        repeat(20_000) {
+            // A small key space forces collisions, resizes and backward shifts
+            val key = random.nextLong(0, 500)
+            if (random.nextBoolean()) {
+                val value = random.nextLong()
+                underTest.put(key, value)
+                expected[key] = value
+            } else {
+                assertThat(underTest.remove(key)).isEqualTo(expected.remove(key) != null)
+            }
+        }
+
+        assertThat(underTest.size).isEqualTo(expected.size)
+        assertThat(underTest.toMap()).isEqualTo(expected)
+        expected.forEach { (key, value) -> assertThat(underTest.get(key)).isEqualTo(value) }
+    }
+
+    @Test
+    fun `test that a copy is not changed by the updates of the original map`() {
+        val underTest = LongLongHashMap()
+        (0L until 100L).forEach { underTest.put(it, it) }
+
+        val copy = underTest.copy()
+        underTest.put(1L, -1L)
+        underTest.remove(2L)
+        underTest.put(1000L, 1000L)
+
+        assertThat(copy.toMap()).isEqualTo((0L until 100L).associateWith { it })
+    }
+
+    @Test
+    fun `test that the map view compares and hashes like a hash map`() {
+        val underTest = LongLongHashMap()
+        val expected = HashMap<Long, Long>()
+        (0L until 100L).forEach {
+            underTest.put(it, it * 2)
+            expected[it] = it * 2
+        }
+
+        val view = underTest.asMap()
+
+        assertThat(view).isEqualTo(expected)
+        assertThat(view.hashCode()).isEqualTo(expected.hashCode())
+        assertThat(view).isEqualTo(underTest.copy().asMap())
+        assertThat(view[3L]).isEqualTo(6L)
+        assertThat(view[1000L]).isNull()
+    }
+}
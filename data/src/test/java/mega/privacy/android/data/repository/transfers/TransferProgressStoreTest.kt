@@ -0,0 +1,172 @@
+package mega.privacy.android.data.repository.transfers
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.test.TestScope
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.Progress
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.transfer.InProgressTransfer
+import mega.privacy.android.domain.entity.transfer.TransferState
+import mega.privacy.android.domain.entity.transfer.TransferType
+import org.junit.jupiter.api.Test
+import java.math.BigInteger
+import kotlin.time.Duration.Companion.milliseconds
+
+@OptIn(ExperimentalCoroutinesApi::class)
+class TransferProgressStoreTest {
+
+    private val publishInterval = 100.milliseconds
+
+    private fun TestScope.createStore() = TransferProgressStore(backgroundScope, publishInterval)
+
+    private fun TestScope.advancePastPublishInterval() {
+        advanceTimeBy(publishInterval)
+        runCurrent()
+    }
+
+    private fun inProgressTransfer(uniqueId: Long) = InProgressTransfer.Download(
+        uniqueId = uniqueId,
+        tag = uniqueId.toInt(),
+        totalBytes = 1000L,
+        isPaused = false,
+        fileName = "file$uniqueId",
+        speed = 0L,
+        state = TransferState.STATE_ACTIVE,
+        priority = BigInteger.ONE,
+        progress = Progress(0F),
+        nodeId = NodeId(uniqueId),
+    )
+
+    @Test
+    fun `test that the transferred bytes are published after the publish interval`() = runTest {
+        val underTest = createStore()
+
+        underTest.setTransferredBytes(TransferType.DOWNLOAD, 1L, 100L)
+
+        assertThat(underTest.monitorTransferredBytes(TransferType.DOWNLOAD).value).isEmpty()
+        advancePastPublishInterval()
+        assertThat(underTest.monitorTransferredBytes(TransferType.DOWNLOAD).value)
+            .containsExactly(1L, 100L)
+    }
+
+    @Test
+    fun `test that the updates received in the same interval are conflated in a single snapshot`() =
+        runTest {
+            val underTest = createStore()
+            val flow = underTest.monitorTransferredBytes(TransferType.GENERAL_UPLOAD)
+            val initial = flow.value
+
+            repeat(10) { underTest.setTransferredBytes(TransferType.GENERAL_UPLOAD, 1L, it + 1L) }
+            underTest.setTransferredBytes(TransferType.GENERAL_UPLOAD, 2L, 5L)
+
+            assertThat(flow.value).isSameInstanceAs(initial)
+            advancePastPublishInterval()
+            assertThat(flow.value).containsExactly(1L, 10L, 2L, 5L)
+        }
+
+    @Test
+    fun `test that the current transferred bytes are returned without waiting for the publication`() =
+        runTest {
+            val underTest = createStore()
+
+            underTest.setTransferredBytes(TransferType.DOWNLOAD, 1L, 100L)
+            underTest.setTransferredBytes(TransferType.GENERAL_UPLOAD, 2L, 200L)
+
+            assertThat(underTest.getTransferredBytes(TransferType.DOWNLOAD))
+                .containsExactly(1L, 100L)
+            assertThat(underTest.getTransferredBytes(TransferType.GENERAL_UPLOAD))
+                .containsExactly(2L, 200L)
+        }
+
+    @Test
+    fun `test that clearing the transferred bytes of a type does not clear the other types`() =
+        runTest {
+            val underTest = createStore()
+            underTest.setTransferredBytes(TransferType.DOWNLOAD, 1L, 100L)
+            underTest.setTransferredBytes(TransferType.GENERAL_UPLOAD, 2L, 200L)
+            advancePastPublishInterval()
+
+            underTest.clearTransferredBytes(TransferType.DOWNLOAD)
+            advancePastPublishInterval()
+
+            assertThat(underTest.monitorTransferredBytes(TransferType.DOWNLOAD).value).isEmpty()
+            assertThat(underTest.monitorTransferredBytes(TransferType.GENERAL_UPLOAD).value)
+                .containsExactly(2L, 200L)
+        }
+
+    @Test
+    fun `test that the in progress transfers are added and removed`() = runTest {
+        val underTest = createStore()
+        val first = inProgressTransfer(1L)
+        val second = inProgressTransfer(2L)
+
+        underTest.putInProgressTransfer(first)
+        underTest.putInProgressTransfer(second)
+        advancePastPublishInterval()
+        assertThat(underTest.monitorInProgressTransfers().value)
+            .containsExactly(1L, first, 2L, second)
+
+        assertThat(underTest.removeInProgressTransfer(1L)).isTrue()
+        advancePastPublishInterval()
+        assertThat(underTest.monitorInProgressTransfers().value).containsExactly(2L, second)
+    }
+
+    @Test
+    fun `test that removing an unknown in progress transfer does not publish a new snapshot`() =
+        runTest {
+            val underTest = createStore()
+            underTest.putInProgressTransfer(inProgressTransfer(1L))
+            advancePastPublishInterval()
+            val published = underTest.monitorInProgressTransfers().value
+
+            assertThat(underTest.removeInProgressTransfer(2L)).isFalse()
+            advancePastPublishInterval()
+
+            assertThat(underTest.monitorInProgressTransfers().value).isSameInstanceAs(published)
+        }
+
+    @Test
+    fun `test that the updates made after a publication are published in the next one`() =
+        runTest {
+            val underTest = createStore()
+            underTest.setTransferredBytes(TransferType.DOWNLOAD, 1L, 100L)
+            advancePastPublishInterval()
+
+            underTest.setTransferredBytes(TransferType.DOWNLOAD, 1L, 200L)
+            advancePastPublishInterval()
+
+            assertThat(underTest.monitorTransferredBytes(TransferType.DOWNLOAD).value)
+                .containsExactly(1L, 200L)
+        }
+
+    @Test
+    fun `test that a published snapshot is not changed by the next updates`() = runTest {
+        val underTest = createStore()
+        (1L..20L).forEach { underTest.setTransferredBytes(TransferType.DOWNLOAD, it, it) }
+        advancePastPublishInterval()
+        val published = underTest.monitorTransferredBytes(TransferType.DOWNLOAD).value
+
+        underTest.setTransferredBytes(TransferType.DOWNLOAD, 1L, 100L)
+        underTest.setTransferredBytes(TransferType.DOWNLOAD, 21L, 21L)
+        advancePastPublishInterval()
+
+        assertThat(published).isEqualTo((1L..20L).associateWith { it })
+        assertThat(underTest.monitorTransferredBytes(TransferType.DOWNLOAD).value)
+            .isEqualTo((1L..21L).associateWith { if (it == 1L) 100L else it })
+    }
+
+    @Test
+    fun `test that a snapshot without changes is equal to the previous one`() = runTest {
+        val underTest = createStore()
+        (1L..20L).forEach { underTest.setTransferredBytes(TransferType.DOWNLOAD, it, it) }
+
+        val first = underTest.getTransferredBytes(TransferType.DOWNLOAD)
+        val second = underTest.getTransferredBytes(TransferType.DOWNLOAD)
+
+        assertThat(second).isEqualTo(first)
+        assertThat(second.hashCode()).isEqualTo((1L..20L).associateWith { it }.hashCode())
+    }
+}
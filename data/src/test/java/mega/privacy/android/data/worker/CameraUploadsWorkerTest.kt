@@ -16,11 +16,13 @@ import androidx.work.workDataOf
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.Dispatchers
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.MutableStateFlow
 import kotlinx.coroutines.flow.channelFlow
 import kotlinx.coroutines.flow.emptyFlow
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.runBlocking
 import kotlinx.coroutines.sync.Mutex
 import kotlinx.coroutines.test.UnconfinedTestDispatcher
@@ -73,6 +75,7 @@ import mega.privacy.android.domain.exception.QuotaExceededMegaException
 import mega.privacy.android.domain.monitoring.CrashReporter
 import mega.privacy.android.domain.repository.FileSystemRepository
 import mega.privacy.android.domain.repository.TimeSystemRepository
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
 import mega.privacy.android.domain.usecase.account.IsStorageOverQuotaUseCase
 import mega.privacy.android.domain.usecase.backup.InitializeBackupsUseCase
 import mega.privacy.android.domain.usecase.camerauploads.AreCameraUploadsFoldersInRubbishBinUseCase
@@ -82,9 +85,7 @@ import mega.privacy.android.domain.usecase.camerauploads.CreateCameraUploadsTemp
 import mega.privacy.android.domain.usecase.camerauploads.DeleteCameraUploadsTemporaryRootDirectoryUseCase
 import mega.privacy.android.domain.usecase.camerauploads.DisableCameraUploadsUseCase
 import mega.privacy.android.domain.usecase.camerauploads.DisableMediaUploadsSettingsUseCase
-import mega.privacy.android.domain.usecase.camerauploads.DoesCameraUploadsRecordExistsInTargetNodeUseCase
 import mega.privacy.android.domain.usecase.camerauploads.EstablishCameraUploadsSyncHandlesUseCase
-import mega.privacy.android.domain.usecase.camerauploads.ExtractGpsCoordinatesUseCase
 import mega.privacy.android.domain.usecase.camerauploads.GetPendingCameraUploadsRecordsUseCase
 import mega.privacy.android.domain.usecase.camerauploads.GetPrimaryFolderPathUseCase
 import mega.privacy.android.domain.usecase.camerauploads.GetUploadFolderHandleUseCase
@@ -97,8 +98,8 @@ import mega.privacy.android.domain.usecase.camerauploads.IsPrimaryFolderPathVali
 import mega.privacy.android.domain.usecase.camerauploads.IsSecondaryFolderSetUseCase
 import mega.privacy.android.domain.usecase.camerauploads.IsWifiNotSatisfiedUseCase
 import mega.privacy.android.domain.usecase.camerauploads.MonitorIsChargingRequiredToUploadContentUseCase
+import mega.privacy.android.domain.usecase.camerauploads.PrepareCameraUploadsRecordsUseCase
 import mega.privacy.android.domain.usecase.camerauploads.ProcessCameraUploadsMediaUseCase
-import mega.privacy.android.domain.usecase.camerauploads.RenameCameraUploadsRecordsUseCase
 import mega.privacy.android.domain.usecase.camerauploads.SendBackupHeartBeatSyncUseCase
 import mega.privacy.android.domain.usecase.camerauploads.SetPrimaryFolderLocalPathUseCase
 import mega.privacy.android.domain.usecase.camerauploads.SetSecondaryFolderLocalPathUseCase
@@ -129,6 +130,7 @@ import org.junit.Test
 import org.junit.runner.RunWith
 import org.mockito.Mockito
 import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
 import org.mockito.kotlin.atLeastOnce
 import org.mockito.kotlin.eq
 import org.mockito.kotlin.inOrder
@@ -209,10 +211,7 @@ internal class CameraUploadsWorkerTest {
     private val processCameraUploadsMediaUseCase: ProcessCameraUploadsMediaUseCase = mock()
     private val getPendingCameraUploadsRecordsUseCase: GetPendingCameraUploadsRecordsUseCase =
         mock()
-    private val renameCameraUploadsRecordsUseCase: RenameCameraUploadsRecordsUseCase = mock()
-    private val doesCameraUploadsRecordExistsInTargetNodeUseCase: DoesCameraUploadsRecordExistsInTargetNodeUseCase =
-        mock()
-    private val extractGpsCoordinatesUseCase: ExtractGpsCoordinatesUseCase = mock()
+    private val prepareCameraUploadsRecordsUseCase: PrepareCameraUploadsRecordsUseCase = mock()
     private val uploadCameraUploadsRecordsUseCase: UploadCameraUploadsRecordsUseCase = mock()
     private val fileSystemRepository: FileSystemRepository = mock()
     private val timeSystemRepository: TimeSystemRepository = mock()
@@ -224,6 +223,7 @@ internal class CameraUploadsWorkerTest {
     private val getFileByPathUseCase: GetFileByPathUseCase = mock()
     private val loginMutex: Mutex = mock()
     private val crashReporter: CrashReporter = mock()
+    private val performanceReporterRepository: PerformanceReporterRepository = mock()
     private val monitorTransferEventsUseCase: MonitorTransferEventsUseCase = mock()
     private val handleTransferEventUseCase: HandleTransferEventUseCase = mock()
     private val correctActiveTransfersUseCase = mock<CorrectActiveTransfersUseCase>()
@@ -307,10 +307,8 @@ internal class CameraUploadsWorkerTest {
                 loginMutex = loginMutex,
                 processCameraUploadsMediaUseCase = processCameraUploadsMediaUseCase,
                 getPendingCameraUploadsRecordsUseCase = getPendingCameraUploadsRecordsUseCase,
-                renameCameraUploadsRecordsUseCase = renameCameraUploadsRecordsUseCase,
+                prepareCameraUploadsRecordsUseCase = prepareCameraUploadsRecordsUseCase,
                 uploadCameraUploadsRecordsUseCase = uploadCameraUploadsRecordsUseCase,
-                doesCameraUploadsRecordExistsInTargetNodeUseCase = doesCameraUploadsRecordExistsInTargetNodeUseCase,
-                extractGpsCoordinatesUseCase = extractGpsCoordinatesUseCase,
                 fileSystemRepository = fileSystemRepository,
                 timeSystemRepository = timeSystemRepository,
                 initializeBackupsUseCase = initializeBackupsUseCase,
@@ -319,6 +317,7 @@ internal class CameraUploadsWorkerTest {
                 disableCameraUploadsUseCase = disableCameraUploadsUseCase,
                 getFileByPathUseCase = getFileByPathUseCase,
                 crashReporter = crashReporter,
+                performanceReporterRepository = performanceReporterRepository,
                 monitorTransferEventsUseCase = monitorTransferEventsUseCase,
                 handleTransferEventUseCase = handleTransferEventUseCase,
                 correctActiveTransfersUseCase = correctActiveTransfersUseCase,
@@ -364,11 +363,13 @@ internal class CameraUploadsWorkerTest {
 
         // mock upload process
         whenever(createCameraUploadsTemporaryRootDirectoryUseCase()).thenReturn(tempPath)
+        whenever(processCameraUploadsMediaUseCase(any())).thenReturn(emptyList())
         whenever(getUploadFolderHandleUseCase(CameraUploadFolderType.Primary))
             .thenReturn(primaryNodeHandle)
         whenever(getUploadFolderHandleUseCase(CameraUploadFolderType.Secondary))
             .thenReturn(secondaryNodeHandle)
         whenever(getPendingCameraUploadsRecordsUseCase()).thenReturn(emptyList())
+        whenever(prepareCameraUploadsRecordsUseCase(any(), any(), any())).thenReturn(emptyFlow())
     }
 
     /**
@@ -381,20 +382,12 @@ internal class CameraUploadsWorkerTest {
             whenever(getUploadVideoQualityUseCase()).thenReturn(VideoQuality.ORIGINAL)
             whenever(getPendingCameraUploadsRecordsUseCase()).thenReturn(list)
             whenever(
-                renameCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                )
-            ).thenReturn(list)
-            whenever(
-                doesCameraUploadsRecordExistsInTargetNodeUseCase(
+                prepareCameraUploadsRecordsUseCase(
                     list,
                     NodeId(primaryNodeHandle),
                     NodeId(secondaryNodeHandle),
                 )
-            ).thenReturn(list)
-            whenever(extractGpsCoordinatesUseCase(list)).thenReturn(list)
+            ).thenReturn(flowOf(list))
         }
 
     @Test
@@ -457,18 +450,13 @@ internal class CameraUploadsWorkerTest {
             val inOrder = inOrder(
                 processCameraUploadsMediaUseCase,
                 getPendingCameraUploadsRecordsUseCase,
-                doesCameraUploadsRecordExistsInTargetNodeUseCase,
-                renameCameraUploadsRecordsUseCase,
-                extractGpsCoordinatesUseCase,
+                prepareCameraUploadsRecordsUseCase,
             )
 
             inOrder.verify(processCameraUploadsMediaUseCase).invoke(tempPath)
             inOrder.verify(getPendingCameraUploadsRecordsUseCase).invoke()
-            inOrder.verify(doesCameraUploadsRecordExistsInTargetNodeUseCase)
+            inOrder.verify(prepareCameraUploadsRecordsUseCase)
                 .invoke(list, NodeId(primaryNodeHandle), NodeId(secondaryNodeHandle))
-            inOrder.verify(renameCameraUploadsRecordsUseCase)
-                .invoke(list, NodeId(primaryNodeHandle), NodeId(secondaryNodeHandle))
-            inOrder.verify(extractGpsCoordinatesUseCase).invoke(list)
         }
 
     @Test
@@ -482,18 +470,13 @@ internal class CameraUploadsWorkerTest {
             val inOrder = inOrder(
                 processCameraUploadsMediaUseCase,
                 getPendingCameraUploadsRecordsUseCase,
-                renameCameraUploadsRecordsUseCase,
-                doesCameraUploadsRecordExistsInTargetNodeUseCase,
-                extractGpsCoordinatesUseCase,
+                prepareCameraUploadsRecordsUseCase,
             )
 
             inOrder.verify(processCameraUploadsMediaUseCase).invoke(tempPath)
             inOrder.verify(getPendingCameraUploadsRecordsUseCase).invoke()
-            inOrder.verify(renameCameraUploadsRecordsUseCase, never())
-                .invoke(any(), eq(NodeId(primaryNodeHandle)), eq(NodeId(secondaryNodeHandle)))
-            inOrder.verify(doesCameraUploadsRecordExistsInTargetNodeUseCase, never())
+            inOrder.verify(prepareCameraUploadsRecordsUseCase, never())
                 .invoke(any(), eq(NodeId(primaryNodeHandle)), eq(NodeId(secondaryNodeHandle)))
-            inOrder.verify(extractGpsCoordinatesUseCase, never()).invoke(any())
         }
 
     @Test
@@ -544,10 +527,49 @@ internal class CameraUploadsWorkerTest {
 
         underTest.doWork()
 
-        verify(uploadCameraUploadsRecordsUseCase)
-            .invoke(list, NodeId(primaryNodeHandle), NodeId(secondaryNodeHandle), tempPath)
+        val recordsCaptor = argumentCaptor<Flow<CameraUploadsRecord>>()
+        verify(uploadCameraUploadsRecordsUseCase).invoke(
+            recordsCaptor.capture(),
+            eq(NodeId(primaryNodeHandle)),
+            eq(NodeId(secondaryNodeHandle)),
+            eq(tempPath),
+        )
+        assertThat(recordsCaptor.firstValue.toList()).isEqualTo(list)
     }
 
+    @Test
+    fun `test that the time to first upload trace is stopped when the first record starts uploading`() =
+        runTest {
+            setupDefaultCheckConditionMocks()
+            val record = mock<CameraUploadsRecord> {
+                on { folderType }.thenReturn(CameraUploadFolderType.Primary)
+            }
+            val list = listOf(record)
+            setupDefaultProcessingFilesConditionMocks(list)
+            whenever(
+                uploadCameraUploadsRecordsUseCase(
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
+                )
+            ).thenReturn(
+                flowOf(
+                    CameraUploadsTransferProgress.ToUpload(
+                        record = record,
+                        transferEvent = TransferEvent.TransferStartEvent(transfer = mock()),
+                    )
+                )
+            )
+
+            underTest.doWork()
+
+            val inOrder = inOrder(performanceReporterRepository)
+            inOrder.verify(performanceReporterRepository).startTrace(any())
+            inOrder.verify(performanceReporterRepository).putAttribute(any(), any(), eq("true"))
+            inOrder.verify(performanceReporterRepository).stopTrace(any())
+        }
+
     @Test
     fun `test that the state is updated and emitted properly when an event ToUpload, UploadInProgress TransferUpdate, and Uploaded are received`() =
         runTest {
@@ -594,10 +616,10 @@ internal class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
             val currentTime = 10000L
@@ -670,10 +692,10 @@ internal class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
 
@@ -714,10 +736,10 @@ internal class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
 
@@ -755,10 +777,10 @@ internal class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
             val currentTime = 10000L
@@ -827,10 +849,10 @@ internal class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
             val afterCompressionProgressEventData = workDataOf(
@@ -877,10 +899,10 @@ internal class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
             val afterInsufficientStorageEventData = workDataOf(
@@ -923,10 +945,10 @@ internal class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
             val afterInsufficientStorageEventData = workDataOf(
@@ -961,10 +983,10 @@ internal class CameraUploadsWorkerTest {
             }
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
 
@@ -998,7 +1020,7 @@ internal class CameraUploadsWorkerTest {
 
             underTest.doWork()
 
-            verify(doesCameraUploadsRecordExistsInTargetNodeUseCase)
+            verify(prepareCameraUploadsRecordsUseCase)
                 .invoke(expected, NodeId(primaryNodeHandle), NodeId(secondaryNodeHandle))
         }
 
@@ -1033,7 +1055,7 @@ internal class CameraUploadsWorkerTest {
 
             val expected = list.filter { it.type == CameraUploadsRecordType.TYPE_PHOTO }
             verify(underTest).setProgress(workDataOf(STATUS_INFO to COMPRESSION_ERROR))
-            verify(doesCameraUploadsRecordExistsInTargetNodeUseCase)
+            verify(prepareCameraUploadsRecordsUseCase)
                 .invoke(expected, NodeId(primaryNodeHandle), NodeId(secondaryNodeHandle))
         }
 
@@ -1066,7 +1088,7 @@ internal class CameraUploadsWorkerTest {
 
             underTest.doWork()
 
-            verify(doesCameraUploadsRecordExistsInTargetNodeUseCase)
+            verify(prepareCameraUploadsRecordsUseCase)
                 .invoke(expected, NodeId(primaryNodeHandle), NodeId(secondaryNodeHandle))
         }
 
@@ -1082,7 +1104,7 @@ internal class CameraUploadsWorkerTest {
             verify(updateCameraUploadsBackupStatesUseCase, never()).invoke(any())
             verify(sendBackupHeartBeatSyncUseCase, never()).invoke(any())
             verify(uploadCameraUploadsRecordsUseCase, never()).invoke(
-                any(),
+                any<Flow<CameraUploadsRecord>>(),
                 eq(NodeId(primaryNodeHandle)),
                 eq(NodeId(secondaryNodeHandle)),
                 eq(tempPath)
@@ -1610,10 +1632,10 @@ internal class CameraUploadsWorkerTest {
             whenever(getTransferByTagUseCase(uploadTag)).thenReturn(transfer)
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
 
@@ -1743,10 +1765,10 @@ internal class CameraUploadsWorkerTest {
             whenever(getTransferByTagUseCase(uploadTag)).thenReturn(transfer)
             whenever(
                 uploadCameraUploadsRecordsUseCase(
-                    list,
-                    NodeId(primaryNodeHandle),
-                    NodeId(secondaryNodeHandle),
-                    tempPath
+                    any<Flow<CameraUploadsRecord>>(),
+                    eq(NodeId(primaryNodeHandle)),
+                    eq(NodeId(secondaryNodeHandle)),
+                    eq(tempPath),
                 )
             ).thenReturn(flow)
 
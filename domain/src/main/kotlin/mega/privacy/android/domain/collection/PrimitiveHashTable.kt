@@ -0,0 +1,190 @@
+package mega.privacy.android.domain.collection
+
+/**
+ * Base of the hash tables with primitive keys
+ *
+ * The entries are stored in an open addressing table with linear probing. The subclasses keep
+ * their keys and values in arrays indexed by slot, so adding or updating an entry does not
+ * allocate any object once the table has grown. Removed entries are compacted with backward shift
+ * deletion, so the table never contains tombstones.
+ *
+ * The subclasses probe the table from [firstSlot] with [nextSlot] while the slot [isUsed], and
+ * implement the hooks moving the keys and values between slots.
+ *
+ * This class is not thread safe for writes. Once built, it can be read concurrently.
+ */
+abstract class PrimitiveHashTable {
+
+    private var used: BooleanArray
+    private var mask: Int
+
+    /**
+     * Number of entries in the table
+     */
+    var size: Int = 0
+        private set
+
+    /**
+     * Create an empty table
+     *
+     * @param expectedSize the expected number of entries, used to size the table
+     */
+    protected constructor(expectedSize: Int) {
+        val capacity = capacityFor(expectedSize)
+        used = BooleanArray(capacity)
+        mask = capacity - 1
+    }
+
+    /**
+     * Create a table with the same slots as [source], the subclass copies its keys and values
+     */
+    protected constructor(source: PrimitiveHashTable) {
+        used = source.used.copyOf()
+        mask = source.mask
+        size = source.size
+    }
+
+    /**
+     * Number of slots of the table
+     */
+    protected val capacity: Int
+        get() = mask + 1
+
+    /**
+     * Remove all the entries, keeping the allocated capacity
+     */
+    fun clear() {
+        if (size == 0) return
+        used.fill(false)
+        size = 0
+        clearEntries()
+    }
+
+    /**
+     * First slot to probe for a key of the given hash
+     */
+    protected fun firstSlot(hash: Int) = hash and mask
+
+    /**
+     * Next slot to probe after [slot]
+     */
+    protected fun nextSlot(slot: Int) = (slot + 1) and mask
+
+    /**
+     * Check if a slot has an entry
+     */
+    protected fun isUsed(slot: Int) = used[slot]
+
+    /**
+     * Grow the table if one more entry would exceed its load factor, to call before probing the
+     * slot of a new entry
+     */
+    protected fun ensureCapacityForOneMore() {
+        if ((size + 1) * LOAD_FACTOR_DENOMINATOR > capacity * LOAD_FACTOR_NUMERATOR) {
+            resize(capacity * 2)
+        }
+    }
+
+    /**
+     * Mark a free slot found by probing as used, once the subclass has stored the entry in it
+     */
+    protected fun occupy(slot: Int) {
+        used[slot] = true
+        size++
+    }
+
+    /**
+     * Remove the entry of a used slot, moving back the entries probed after it
+     */
+    protected fun removeAt(slot: Int) {
+        var hole = slot
+        var next = nextSlot(hole)
+        while (used[next]) {
+            val home = firstSlot(hashAt(next))
+            if (((next - home) and mask) >= ((next - hole) and mask)) {
+                moveEntry(next, hole)
+                hole = next
+            }
+            next = nextSlot(next)
+        }
+        used[hole] = false
+        clearEntry(hole)
+        size--
+    }
+
+    /**
+     * Hash of the key stored in a used slot
+     */
+    protected abstract fun hashAt(slot: Int): Int
+
+    /**
+     * Move the key and value of a slot to another one
+     */
+    protected abstract fun moveEntry(from: Int, to: Int)
+
+    /**
+     * Allocate the arrays for [newCapacity] slots, moving the entry of each used slot to the slot
+     * given by [newSlots], -1 for the slots without entry
+     */
+    protected abstract fun resizeEntries(newCapacity: Int, newSlots: IntArray)
+
+    /**
+     * Release the value of a slot whose entry was removed, if it holds a reference
+     */
+    protected open fun clearEntry(slot: Int) {}
+
+    /**
+     * Release the values of all the slots, if they hold references
+     */
+    protected open fun clearEntries() {}
+
+    private fun resize(newCapacity: Int) {
+        val newMask = newCapacity - 1
+        val newUsed = BooleanArray(newCapacity)
+        val newSlots = IntArray(used.size) { -1 }
+        for (slot in used.indices) {
+            if (!used[slot]) continue
+            var newSlot = hashAt(slot) and newMask
+            while (newUsed[newSlot]) newSlot = (newSlot + 1) and newMask
+            newUsed[newSlot] = true
+            newSlots[slot] = newSlot
+        }
+        resizeEntries(newCapacity, newSlots)
+        used = newUsed
+        mask = newMask
+    }
+
+    companion object {
+        private const val MIN_CAPACITY = 16
+        private const val LOAD_FACTOR_NUMERATOR = 2
+        private const val LOAD_FACTOR_DENOMINATOR = 3
+        private const val GOLDEN_RATIO = -0x61c8864680b583ebL
+
+        /**
+         * Hash of a [Long] key
+         */
+        fun hash(key: Long): Int {
+            var hash = key * GOLDEN_RATIO
+            hash = hash xor (hash ushr 32)
+            return (hash xor (hash ushr 16)).toInt()
+        }
+
+        /**
+         * Hash of a key made of two [Long]
+         */
+        fun hash(first: Long, second: Long): Int {
+            var hash = first * GOLDEN_RATIO + second
+            hash = hash xor (hash ushr 32)
+            hash *= GOLDEN_RATIO
+            return (hash xor (hash ushr 29)).toInt()
+        }
+
+        private fun capacityFor(expectedSize: Int): Int {
+            val minCapacity =
+                (expectedSize.toLong() * LOAD_FACTOR_DENOMINATOR / LOAD_FACTOR_NUMERATOR + 1)
+                    .coerceIn(MIN_CAPACITY.toLong(), (1 shl 30).toLong())
+                    .toInt()
+            return Integer.highestOneBit(minCapacity - 1) shl 1
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+import mega.privacy.android.domain.collection.PrimitiveHashTable
+
+/**
+ * Index of the camera uploads records of a folder type, identified by (mediaId, timestamp)
+ *
+ * The keys are stored in a [PrimitiveHashTable] backed by primitive arrays,
+ * so that checking if a media has already been recorded is done in constant time
+ * without allocating any object per record.
+ *
+ * This class is not thread safe for writes. Once built, it can be read concurrently.
+ *
+ * @param expectedSize the expected number of records, used to size the table
+ */
+class CameraUploadsRecordIndex(expectedSize: Int = 0) : PrimitiveHashTable(expectedSize) {
+
+    private var mediaIds = LongArray(capacity)
+    private var timestamps = LongArray(capacity)
+
+    /**
+     * Add a record to the index
+     *
+     * @param mediaId the media id of the record
+     * @param timestamp the timestamp of the record
+     * @return true if the record was added, false if it was already in the index
+     */
+    fun add(mediaId: Long, timestamp: Long): Boolean {
+        ensureCapacityForOneMore()
+        var slot = firstSlot(hash(mediaId, timestamp))
+        while (isUsed(slot)) {
+            if (mediaIds[slot] == mediaId && timestamps[slot] == timestamp) return false
+            slot = nextSlot(slot)
+        }
+        mediaIds[slot] = mediaId
+        timestamps[slot] = timestamp
+        occupy(slot)
+        return true
+    }
+
+    /**
+     * Check if a record is in the index
+     *
+     * @param mediaId the media id of the record
+     * @param timestamp the timestamp of the record
+     * @return true if the record is in the index
+     */
+    fun contains(mediaId: Long, timestamp: Long): Boolean {
+        var slot = firstSlot(hash(mediaId, timestamp))
+        while (isUsed(slot)) {
+            if (mediaIds[slot] == mediaId && timestamps[slot] == timestamp) return true
+            slot = nextSlot(slot)
+        }
+        return false
+    }
+
+    override fun hashAt(slot: Int) = hash(mediaIds[slot], timestamps[slot])
+
+    override fun moveEntry(from: Int, to: Int) {
+        mediaIds[to] = mediaIds[from]
+        timestamps[to] = timestamps[from]
+    }
+
+    override fun resizeEntries(newCapacity: Int, newSlots: IntArray) {
+        val newMediaIds = LongArray(newCapacity)
+        val newTimestamps = LongArray(newCapacity)
+        newSlots.forEachIndexed { slot, newSlot ->
+            if (newSlot >= 0) {
+                newMediaIds[newSlot] = mediaIds[slot]
+                newTimestamps[newSlot] = timestamps[slot]
+            }
+        }
+        mediaIds = newMediaIds
+        timestamps = newTimestamps
+    }
+}
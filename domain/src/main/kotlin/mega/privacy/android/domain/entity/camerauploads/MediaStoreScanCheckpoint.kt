@@ -0,0 +1,18 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+import kotlinx.serialization.Serializable
+import mega.privacy.android.domain.entity.MediaStoreFileType
+
+/**
+ * Data representation of the state of the media store when it was last scanned by Camera Uploads
+ *
+ * @property parentPath the path used for filtering the media of the scan
+ * @property types the [MediaStoreFileType] scanned
+ * @property volumes the [MediaStoreVolumeGeneration] read before the scan started
+ */
+@Serializable
+data class MediaStoreScanCheckpoint(
+    val parentPath: String,
+    val types: List<MediaStoreFileType>,
+    val volumes: List<MediaStoreVolumeGeneration>,
+)
@@ -0,0 +1,20 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+import kotlinx.serialization.Serializable
+
+/**
+ * Data representation of the generation of a media store volume
+ *
+ * The generation is incremented by the media store every time a media of the volume is
+ * inserted or modified. It is only comparable between two readings with the same version.
+ *
+ * @property volumeName name of the media store volume
+ * @property version opaque version of the volume, changing when the volume is rebuilt
+ * @property generation current generation of the volume
+ */
+@Serializable
+data class MediaStoreVolumeGeneration(
+    val volumeName: String,
+    val version: String,
+    val generation: Long,
+)
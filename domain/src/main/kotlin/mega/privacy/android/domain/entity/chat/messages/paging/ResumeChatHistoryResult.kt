@@ -0,0 +1,14 @@
+package mega.privacy.android.domain.entity.chat.messages.paging
+
+/**
+ * Result of resuming the stored history of a chat
+ *
+ * @property fetchedCount number of messages fetched
+ * @property refetchedCount number of the fetched messages that were already stored
+ * @property isEndOfHistory true if the beginning of the history has been reached
+ */
+data class ResumeChatHistoryResult(
+    val fetchedCount: Int,
+    val refetchedCount: Int,
+    val isEndOfHistory: Boolean,
+)
@@ -0,0 +1,16 @@
+package mega.privacy.android.domain.entity.chat.messages.paging
+
+/**
+ * Key of a page of chat messages, the position of a message in the history
+ *
+ * Messages are ordered by timestamp and, for the same timestamp, by message id, so the key
+ * identifies a unique position and a page is loaded by seeking to it instead of skipping the
+ * messages before it.
+ *
+ * @property timestamp the timestamp of the message
+ * @property messageId the id of the message
+ */
+data class TypedMessagePagingKey(
+    val timestamp: Long,
+    val messageId: Long,
+)
@@ -0,0 +1,16 @@
+package mega.privacy.android.domain.entity.monitoring
+
+/**
+ * Format of the file of a performance report
+ */
+enum class PerformanceReportFormat {
+    /**
+     * JSON, to be read by people and tools
+     */
+    Json,
+
+    /**
+     * Compact binary file, with the histogram buckets only
+     */
+    Binary,
+}
@@ -0,0 +1,16 @@
+package mega.privacy.android.domain.entity.node.thumbnail
+
+/**
+ * Priority of the thumbnails to prefetch, in order of precedence
+ */
+enum class ThumbnailPrefetchPriority {
+    /**
+     * The items are visible on screen
+     */
+    Visible,
+
+    /**
+     * The items are close to the visible ones and likely to be shown next
+     */
+    LookAhead,
+}
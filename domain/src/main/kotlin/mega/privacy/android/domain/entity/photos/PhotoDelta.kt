@@ -0,0 +1,25 @@
+package mega.privacy.android.domain.entity.photos
+
+/**
+ * Change of the photos of the timeline
+ */
+sealed interface PhotoDelta {
+
+    /**
+     * The photos were loaded again, they replace all the previous photos
+     *
+     * @property photos all the photos
+     */
+    data class Reset(val photos: List<Photo>) : PhotoDelta
+
+    /**
+     * Some photos were added, updated or removed, the rest of the photos are unchanged
+     *
+     * @property upsertedPhotos the photos added or updated
+     * @property removedPhotoIds the ids of the photos removed
+     */
+    data class Changes(
+        val upsertedPhotos: List<Photo>,
+        val removedPhotoIds: List<Long>,
+    ) : PhotoDelta
+}
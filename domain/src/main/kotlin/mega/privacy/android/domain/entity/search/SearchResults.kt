@@ -0,0 +1,22 @@
+package mega.privacy.android.domain.entity.search
+
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeSourceType
+import mega.privacy.android.domain.entity.node.TypedNode
+
+/**
+ * Results of a search
+ *
+ * @property parentHandle search parent
+ * @property nodeSourceType search type [NodeSourceType]
+ * @property parameters the [SearchParameters] of the search
+ * @property nodes the nodes found
+ * @property isComplete true if [nodes] are all the results, false if they are only the first ones
+ */
+data class SearchResults(
+    val parentHandle: NodeId,
+    val nodeSourceType: NodeSourceType,
+    val parameters: SearchParameters,
+    val nodes: List<TypedNode>,
+    val isComplete: Boolean,
+)
@@ -0,0 +1,14 @@
+package mega.privacy.android.domain.entity.zipbrowser
+
+/**
+ * Progress of the extraction or compression of a zip file
+ *
+ * @property processedBytes uncompressed bytes extracted or compressed so far
+ * @property totalBytes uncompressed bytes to extract or compress
+ * @property bytesPerSecond uncompressed bytes processed per second since the start
+ */
+data class ZipProgress(
+    val processedBytes: Long,
+    val totalBytes: Long,
+    val bytesPerSecond: Long,
+)
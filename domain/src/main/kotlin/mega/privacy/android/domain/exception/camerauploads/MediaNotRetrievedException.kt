@@ -0,0 +1,10 @@
+package mega.privacy.android.domain.exception.camerauploads
+
+/**
+ * Exception when some media of the media store could not be mapped to camera uploads records
+ *
+ * @property failedCount the number of media not retrieved
+ * @param cause the error of the first media not retrieved
+ */
+class MediaNotRetrievedException(val failedCount: Int, cause: Throwable) :
+    RuntimeException("$failedCount media not retrieved from the media store", cause)
@@ -11,10 +11,13 @@ import mega.privacy.android.domain.entity.backup.BackupRemovalStatus
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordIndex
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsSettingsAction
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsStatusInfo
 import mega.privacy.android.domain.entity.camerauploads.HeartbeatStatus
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanCheckpoint
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreVolumeGeneration
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.settings.camerauploads.UploadOption
 
@@ -256,6 +259,21 @@ interface CameraUploadsRepository {
         selectionQuery: String?,
     ): List<CameraUploadsMedia>
 
+    /**
+     * Get the media for a given media type, in batches
+     *
+     * @param mediaStoreFileType different media store file type
+     * @param selectionQuery db query
+     * @param batchSize the maximum number of media of a batch
+     *
+     * @return a cold flow emitting the batches of camera upload media
+     */
+    fun getMediaBatches(
+        mediaStoreFileType: MediaStoreFileType,
+        selectionQuery: String?,
+        batchSize: Int,
+    ): Flow<List<CameraUploadsMedia>>
+
     /**
      * Convert Base 64 string to handle
      */
@@ -484,6 +502,52 @@ interface CameraUploadsRepository {
      */
     fun getMediaSelectionQuery(parentPath: String): String
 
+    /**
+     * Get the selection query to filter the media based on the parent path, keeping only the media
+     * inserted or modified since the given volume generations
+     *
+     * The media of the volumes not listed in [changedSince] are all kept
+     *
+     * @param parentPath path that contains the media
+     * @param changedSince the [MediaStoreVolumeGeneration] from which the changes are retrieved
+     */
+    fun getMediaSelectionQuery(
+        parentPath: String,
+        changedSince: List<MediaStoreVolumeGeneration>,
+    ): String
+
+    /**
+     * Get the current generation of each media store volume
+     *
+     * @return the list of [MediaStoreVolumeGeneration], empty if the device does not support them
+     */
+    suspend fun getMediaStoreVolumeGenerations(): List<MediaStoreVolumeGeneration>
+
+    /**
+     * Get the checkpoint of the last media store scan completed for the folder type and file type
+     *
+     * @param folderType the [CameraUploadFolderType] scanned
+     * @param fileType the [CameraUploadsRecordType] scanned
+     * @return the [MediaStoreScanCheckpoint], or null if there is none
+     */
+    suspend fun getMediaStoreScanCheckpoint(
+        folderType: CameraUploadFolderType,
+        fileType: CameraUploadsRecordType,
+    ): MediaStoreScanCheckpoint?
+
+    /**
+     * Set the checkpoint of the last media store scan completed for the folder type and file type
+     *
+     * @param folderType the [CameraUploadFolderType] scanned
+     * @param fileType the [CameraUploadsRecordType] scanned
+     * @param checkpoint the [MediaStoreScanCheckpoint] to set, or null to remove it
+     */
+    suspend fun setMediaStoreScanCheckpoint(
+        folderType: CameraUploadFolderType,
+        fileType: CameraUploadsRecordType,
+        checkpoint: MediaStoreScanCheckpoint?,
+    )
+
     /**
      * Save a list of [CameraUploadsRecord] in the database
      *
@@ -498,6 +562,14 @@ interface CameraUploadsRepository {
      */
     suspend fun getAllCameraUploadsRecords(): List<CameraUploadsRecord>
 
+    /**
+     * Get the index of the camera uploads records of a folder type
+     *
+     * @param folderType the folder type of the records
+     * @return the [CameraUploadsRecordIndex] of the records saved in the database
+     */
+    suspend fun getCameraUploadsRecordIndex(folderType: CameraUploadFolderType): CameraUploadsRecordIndex
+
     /**
      * Get the records from the database based on given upload status, types and folder types
      *
@@ -543,7 +615,8 @@ interface CameraUploadsRepository {
     )
 
     /**
-     * Clear the camera uploads record given the folder types
+     * Clear the camera uploads record given the folder types, and the checkpoints of the last
+     * media store scans of these folder types
      *
      * @param folderTypes a list of folder type (Primary, Secondary, or both)
      */
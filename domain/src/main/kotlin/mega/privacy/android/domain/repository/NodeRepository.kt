@@ -138,6 +138,25 @@ interface NodeRepository {
      */
     suspend fun getNodeChildren(nodeId: NodeId, order: SortOrder? = null): List<UnTypedNode>
 
+    /**
+     * Get a page of the sorted node children
+     *
+     * Only the nodes of the page are mapped, so the first page of a large folder is returned without
+     * mapping the rest of the children.
+     *
+     * @param nodeId [NodeId]
+     * @param order [SortOrder]
+     * @param offset position of the first child of the page in the sorted children
+     * @param size maximum number of children of the page
+     * @return the children of the page, fewer than [size] if it is the last one
+     */
+    suspend fun getNodeChildrenPage(
+        nodeId: NodeId,
+        order: SortOrder?,
+        offset: Int,
+        size: Int,
+    ): List<UnTypedNode>
+
     /**
      * Get node children file types
      * @param nodeId [NodeId]
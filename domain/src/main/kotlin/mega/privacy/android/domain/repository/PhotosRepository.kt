@@ -8,6 +8,7 @@ import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.TypedFileNode
 import mega.privacy.android.domain.entity.photos.AlbumPhotoId
 import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotoDelta
 import java.io.File
 
 /**
@@ -19,6 +20,14 @@ interface PhotosRepository {
      */
     fun monitorPhotos(): Flow<List<Photo>>
 
+    /**
+     * Monitor the changes of the photos
+     *
+     * The first emission is a [PhotoDelta.Reset] with all the current photos, followed by a
+     * [PhotoDelta.Changes] with only the affected photos for every change.
+     */
+    fun monitorPhotoChanges(): Flow<PhotoDelta>
+
     /**
      * Get public links count
      */
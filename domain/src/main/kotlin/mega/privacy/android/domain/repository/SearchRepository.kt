@@ -16,11 +16,16 @@ interface SearchRepository {
      * @param nodeId [NodeId] place to be searched
      * @param order [SortOrder] locally saved user selected sort order
      * @param parameters [SearchParameters] additional search parameters
+     * @param firstResultsSize number of results handed to [onFirstResults]
+     * @param onFirstResults if not null, receives the first [firstResultsSize] results before the
+     * rest are mapped, when there are more
      */
     suspend fun search(
         nodeId: NodeId?,
         order: SortOrder,
         parameters: SearchParameters,
+        firstResultsSize: Int = 0,
+        onFirstResults: (suspend (List<UnTypedNode>) -> Unit)? = null,
     ): List<UnTypedNode>
 
     /**
@@ -28,11 +33,16 @@ interface SearchRepository {
      * @param nodeId [NodeId] place to be searched
      * @param order [SortOrder] locally saved user selected sort order
      * @param parameters [SearchParameters] additional search parameters
+     * @param firstResultsSize number of children handed to [onFirstResults]
+     * @param onFirstResults if not null, receives the first [firstResultsSize] children before the
+     * rest are mapped, when there are more
      */
     suspend fun getChildren(
         nodeId: NodeId?,
         order: SortOrder,
         parameters: SearchParameters,
+        firstResultsSize: Int = 0,
+        onFirstResults: (suspend (List<UnTypedNode>) -> Unit)? = null,
     ): List<UnTypedNode>
 
     /**
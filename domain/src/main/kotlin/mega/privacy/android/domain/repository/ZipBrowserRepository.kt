@@ -1,5 +1,7 @@
 package mega.privacy.android.domain.repository
 
+import kotlinx.coroutines.flow.Flow
+import mega.privacy.android.domain.entity.zipbrowser.ZipProgress
 import mega.privacy.android.domain.entity.zipbrowser.ZipTreeNode
 import java.util.zip.ZipFile
 
@@ -40,7 +42,10 @@ interface ZipBrowserRepository {
      * Unzip file
      * @param zipFile ZipFile
      * @param unzipRootPath unzip destination path
-     * @return true is unzip succeed.
+     * @param path the path of the folder or file to extract with its children, or null to extract
+     * all the entries
+     * @return the progress of the extraction, completing when the entries are extracted and
+     * failing if they can't be extracted
      */
-    suspend fun unzipFile(zipFile: ZipFile, unzipRootPath: String): Boolean
-}
\ No newline at end of file
+    fun unzipFile(zipFile: ZipFile, unzipRootPath: String, path: String? = null): Flow<ZipProgress>
+}
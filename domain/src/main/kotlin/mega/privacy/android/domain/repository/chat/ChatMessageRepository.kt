@@ -9,6 +9,7 @@ import mega.privacy.android.domain.entity.chat.PendingMessage
 import mega.privacy.android.domain.entity.chat.PendingMessageState
 import mega.privacy.android.domain.entity.chat.messages.TypedMessage
 import mega.privacy.android.domain.entity.chat.messages.UserMessage
+import mega.privacy.android.domain.entity.chat.messages.paging.TypedMessagePagingKey
 import mega.privacy.android.domain.entity.chat.messages.pending.SavePendingMessageRequest
 import mega.privacy.android.domain.entity.chat.messages.pending.UpdatePendingMessageRequest
 import mega.privacy.android.domain.entity.chat.messages.reactions.Reaction
@@ -525,9 +526,17 @@ interface ChatMessageRepository {
      * Get paged messages
      *
      * @param chatId
-     * @return flow of paged messages
+     * @return paging source of the messages, from the newest to the oldest
      */
-    fun getPagedMessages(chatId: Long): PagingSource<Int, TypedMessage>
+    fun getPagedMessages(chatId: Long): PagingSource<TypedMessagePagingKey, TypedMessage>
+
+    /**
+     * Get the timestamp of the newest message stored for a chat
+     *
+     * @param chatId
+     * @return the timestamp, or null if no messages are stored
+     */
+    suspend fun getNewestMessageTimestamp(chatId: Long): Long?
 
     /**
      * Deletes all messages in a chat that have a timestamp older than the truncate timestamp
@@ -568,6 +577,15 @@ interface ChatMessageRepository {
      */
     suspend fun getExistsInMessage(chatId: Long, msgId: Long): Boolean
 
+    /**
+     * Get if the content exists in a list of messages.
+     *
+     * @param chatId Chat ID.
+     * @param msgIds Message IDs.
+     * @return Map of each message ID to whether the content in the message exists.
+     */
+    suspend fun getExistsInMessages(chatId: Long, msgIds: List<Long>): Map<Long, Boolean>
+
     /**
      * Clear all data from chat database
      */
@@ -1,5 +1,8 @@
 package mega.privacy.android.domain.repository.monitoring
 
+import mega.privacy.android.domain.entity.monitoring.PerformanceReportFormat
+import java.io.File
+
 /**
  * Performance reporter class to collect performance data such as Traces.
  */
@@ -32,6 +35,18 @@ interface PerformanceReporterRepository {
      */
     fun putMetric(traceName: String, metricName: String, value: Long)
 
+    /**
+     * Increments the metric with the given name in a trace by the value provided.
+     * If a metric with the given name doesn't exist, a new one will be created.
+     * If the trace has not been started or has already been stopped,
+     * returns immediately without taking action.
+     *
+     * @param traceName     Trace name associated with this metric
+     * @param metricName    Metric name
+     * @param value         Value to add to the metric
+     */
+    fun incrementMetric(traceName: String, metricName: String, value: Long)
+
     /**
      * Sets a String value for the specified attribute. Updates the value of the attribute
      * if the attribute already exists. If the trace has been stopped,
@@ -62,4 +77,13 @@ interface PerformanceReporterRepository {
      * @param enabled true if allowed, false otherwise.
      */
     fun setEnabled(enabled: Boolean)
+
+    /**
+     * Writes the performance data collected on the device to a file, with the latency
+     * histograms of the traces, the counters and the gauges
+     *
+     * @param format    Format of the file
+     * @return the file of the report
+     */
+    suspend fun exportReport(format: PerformanceReportFormat): File
 }
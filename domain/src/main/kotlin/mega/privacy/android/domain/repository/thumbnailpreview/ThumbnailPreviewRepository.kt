@@ -1,6 +1,7 @@
 package mega.privacy.android.domain.repository.thumbnailpreview
 
 import mega.privacy.android.domain.entity.node.TypedNode
+import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailPrefetchPriority
 import mega.privacy.android.domain.entity.uri.UriPath
 import mega.privacy.android.domain.exception.MegaException
 import java.io.File
@@ -84,6 +85,18 @@ interface ThumbnailPreviewRepository {
      */
     suspend fun downloadPublicNodePreview(handle: Long): Boolean
 
+    /**
+     * Prefetch the thumbnails of a list of nodes in the background
+     *
+     * The handles replace the ones previously requested with the same priority, so the pending
+     * thumbnails of the items that are not requested anymore, e.g. scrolled off screen, are not
+     * fetched. [ThumbnailPrefetchPriority.Visible] thumbnails are fetched before the others.
+     *
+     * @param handles the handles of the nodes, in the order they should be fetched
+     * @param priority the [ThumbnailPrefetchPriority] of the nodes
+     */
+    suspend fun prefetchThumbnails(handles: List<Long>, priority: ThumbnailPrefetchPriority)
+
     /**
      * Get Thumbnail Cache Folder Path
      */
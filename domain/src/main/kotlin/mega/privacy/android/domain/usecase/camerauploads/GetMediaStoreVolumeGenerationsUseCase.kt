@@ -0,0 +1,23 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreVolumeGeneration
+import mega.privacy.android.domain.repository.CameraUploadsRepository
+import javax.inject.Inject
+
+/**
+ * Get the current generation of each media store volume
+ *
+ * @param cameraUploadsRepository
+ */
+class GetMediaStoreVolumeGenerationsUseCase @Inject constructor(
+    private val cameraUploadsRepository: CameraUploadsRepository,
+) {
+
+    /**
+     * Invoke
+     *
+     * @return the list of [MediaStoreVolumeGeneration], empty if the device does not support them
+     */
+    suspend operator fun invoke(): List<MediaStoreVolumeGeneration> =
+        cameraUploadsRepository.getMediaStoreVolumeGenerations()
+}
@@ -0,0 +1,110 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.asFlow
+import kotlinx.coroutines.flow.buffer
+import kotlinx.coroutines.flow.filter
+import kotlinx.coroutines.flow.map
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.extension.mapAsync
+import javax.inject.Inject
+
+/**
+ * Prepare the [CameraUploadsRecord] to upload
+ *
+ * The records are split in batches of [BATCH_SIZE] records, and each batch goes through the stages:
+ * - Check the existence of a node corresponding to the [CameraUploadsRecord]
+ * - Rename the camera uploads records
+ * - Extract the gps coordinates and set in the respective [CameraUploadsRecord]
+ *
+ * Each stage runs in its own coroutine and hands over the batches to the next stage through a
+ * buffer of [STAGE_BUFFER_CAPACITY] batches. When a buffer is full the previous stage suspends,
+ * so only a bounded number of batches is being prepared at any time, and the first batch can be
+ * uploaded while the next ones are still being prepared.
+ */
+class PrepareCameraUploadsRecordsUseCase @Inject constructor(
+    private val doesCameraUploadsRecordExistsInTargetNodeUseCase: DoesCameraUploadsRecordExistsInTargetNodeUseCase,
+    private val renameCameraUploadsRecordsUseCase: RenameCameraUploadsRecordsUseCase,
+    private val extractGpsCoordinatesUseCase: ExtractGpsCoordinatesUseCase,
+) {
+
+    companion object {
+        /**
+         * Number of records going together through the stages
+         */
+        const val BATCH_SIZE = 50
+
+        /**
+         * Number of batches that can wait between two stages
+         */
+        const val STAGE_BUFFER_CAPACITY = 2
+
+        /**
+         * Number of concurrent existence checks in a batch
+         */
+        const val EXISTENCE_CHECK_CONCURRENCY = 4
+    }
+
+    /**
+     * Invoke
+     *
+     * @param recordList the list of pending [CameraUploadsRecord]
+     * @param primaryUploadNodeId the primary target [NodeId]
+     * @param secondaryUploadNodeId the secondary target [NodeId]
+     * @return a flow emitting the batches of [CameraUploadsRecord] ready to upload, in the same
+     *         order as [recordList]
+     */
+    operator fun invoke(
+        recordList: List<CameraUploadsRecord>,
+        primaryUploadNodeId: NodeId,
+        secondaryUploadNodeId: NodeId,
+    ): Flow<List<CameraUploadsRecord>> {
+        // Names are generated sequentially across batches to avoid any duplicate name
+        val generatedFileNames = hashSetOf<Pair<CameraUploadFolderType, String>>()
+        return recordList
+            .chunked(BATCH_SIZE)
+            .asFlow()
+            .map { batch ->
+                getExistenceInTargetNode(batch, primaryUploadNodeId, secondaryUploadNodeId)
+            }
+            .buffer(STAGE_BUFFER_CAPACITY)
+            .filter { it.isNotEmpty() }
+            .map { batch ->
+                renameCameraUploadsRecordsUseCase(
+                    batch,
+                    primaryUploadNodeId,
+                    secondaryUploadNodeId,
+                    generatedFileNames,
+                )
+            }
+            .buffer(STAGE_BUFFER_CAPACITY)
+            .map { batch -> extractGpsCoordinatesUseCase(batch) }
+            .buffer(STAGE_BUFFER_CAPACITY)
+    }
+
+    /**
+     * Check the existence of the records of the [batch], in up to [EXISTENCE_CHECK_CONCURRENCY]
+     * concurrent slices
+     *
+     * @return the [batch] with the existence populated, in the same order
+     */
+    private suspend fun getExistenceInTargetNode(
+        batch: List<CameraUploadsRecord>,
+        primaryUploadNodeId: NodeId,
+        secondaryUploadNodeId: NodeId,
+    ): List<CameraUploadsRecord> {
+        val sliceSize = (batch.size + EXISTENCE_CHECK_CONCURRENCY - 1) / EXISTENCE_CHECK_CONCURRENCY
+        return batch
+            .chunked(sliceSize.coerceAtLeast(1))
+            .mapAsync(EXISTENCE_CHECK_CONCURRENCY) { slice ->
+                doesCameraUploadsRecordExistsInTargetNodeUseCase(
+                    slice,
+                    primaryUploadNodeId,
+                    secondaryUploadNodeId,
+                )
+            }
+            .flatten()
+    }
+}
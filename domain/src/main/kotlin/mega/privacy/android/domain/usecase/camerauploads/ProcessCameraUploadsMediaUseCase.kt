@@ -1,20 +1,33 @@
 package mega.privacy.android.domain.usecase.camerauploads
 
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.async
 import kotlinx.coroutines.coroutineScope
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
+import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanCheckpoint
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreVolumeGeneration
 import javax.inject.Inject
 
 /**
  * Use case to retrieve media from the media stores, and save them in the database
  * to be uploaded by Camera Uploads
  *
+ * When the device supports the media store generations, only the media inserted or modified since
+ * the last completed scan are retrieved. The records are saved in the database batch by batch, the
+ * checkpoint of a scan is saved once all its records are saved, and a full scan is done if the
+ * folder path or the file types changed.
+ *
  * @property getPrimaryFolderPathUseCase
  * @property getSecondaryFolderPathUseCase
  * @property getMediaStoreFileTypesUseCase
  * @property isMediaUploadsEnabledUseCase
  * @property retrieveMediaFromMediaStoreUseCase
+ * @property saveCameraUploadsRecordUseCase
+ * @property getMediaStoreVolumeGenerationsUseCase
+ * @property getMediaStoreScanCheckpointUseCase
+ * @property setMediaStoreScanCheckpointUseCase
  */
 class ProcessCameraUploadsMediaUseCase @Inject constructor(
     private val getPrimaryFolderPathUseCase: GetPrimaryFolderPathUseCase,
@@ -23,40 +36,48 @@ class ProcessCameraUploadsMediaUseCase @Inject constructor(
     private val isMediaUploadsEnabledUseCase: IsMediaUploadsEnabledUseCase,
     private val retrieveMediaFromMediaStoreUseCase: RetrieveMediaFromMediaStoreUseCase,
     private val saveCameraUploadsRecordUseCase: SaveCameraUploadsRecordUseCase,
+    private val getMediaStoreVolumeGenerationsUseCase: GetMediaStoreVolumeGenerationsUseCase,
+    private val getMediaStoreScanCheckpointUseCase: GetMediaStoreScanCheckpointUseCase,
+    private val setMediaStoreScanCheckpointUseCase: SetMediaStoreScanCheckpointUseCase,
 ) {
 
     /**
      * Invoke
      * @param tempRoot [String]
+     * @return the errors of the scans not completed, which checkpoints are not moved forward
      */
     suspend operator fun invoke(
         tempRoot: String,
-    ) = coroutineScope {
+    ): List<Throwable> = coroutineScope {
         val (photoMediaStoreTypes, videoMediaStoreTypes) = getMediaStoreFileTypesUseCase().partition { it.isImageFileType() }
+        // Read before scanning, so that the media changed during the scan are retrieved next time
+        val volumeGenerations = getMediaStoreVolumeGenerationsUseCase()
         val primaryFolderPath = getPrimaryFolderPathUseCase()
 
         val primaryPhotoMedia = async {
             photoMediaStoreTypes.takeUnless { it.isEmpty() }?.let {
-                retrieveMediaFromMediaStoreUseCase(
+                scanMediaStore(
                     parentPath = primaryFolderPath,
                     types = it,
                     folderType = CameraUploadFolderType.Primary,
                     fileType = CameraUploadsRecordType.TYPE_PHOTO,
                     tempRoot = tempRoot,
+                    volumeGenerations = volumeGenerations,
                 )
-            } ?: emptyList()
+            }
         }
 
         val primaryVideoMedia = async {
             videoMediaStoreTypes.takeUnless { it.isEmpty() }?.let {
-                retrieveMediaFromMediaStoreUseCase(
+                scanMediaStore(
                     parentPath = primaryFolderPath,
                     types = it,
                     folderType = CameraUploadFolderType.Primary,
                     fileType = CameraUploadsRecordType.TYPE_VIDEO,
                     tempRoot = tempRoot,
+                    volumeGenerations = volumeGenerations,
                 )
-            } ?: emptyList()
+            }
         }
 
         val isSecondaryFolderEnabled = isMediaUploadsEnabledUseCase()
@@ -66,14 +87,15 @@ class ProcessCameraUploadsMediaUseCase @Inject constructor(
             if (isSecondaryFolderEnabled) {
                 async {
                     photoMediaStoreTypes.takeUnless { it.isEmpty() }?.let {
-                        retrieveMediaFromMediaStoreUseCase(
+                        scanMediaStore(
                             parentPath = secondaryFolderPath,
                             types = it,
                             folderType = CameraUploadFolderType.Secondary,
                             fileType = CameraUploadsRecordType.TYPE_PHOTO,
                             tempRoot = tempRoot,
+                            volumeGenerations = volumeGenerations,
                         )
-                    }.orEmpty()
+                    }
                 }
             } else null
 
@@ -81,23 +103,88 @@ class ProcessCameraUploadsMediaUseCase @Inject constructor(
             if (isSecondaryFolderEnabled) {
                 async {
                     videoMediaStoreTypes.takeUnless { it.isEmpty() }?.let {
-                        retrieveMediaFromMediaStoreUseCase(
+                        scanMediaStore(
                             parentPath = secondaryFolderPath,
                             types = it,
                             folderType = CameraUploadFolderType.Secondary,
                             fileType = CameraUploadsRecordType.TYPE_VIDEO,
                             tempRoot = tempRoot,
+                            volumeGenerations = volumeGenerations,
                         )
-                    }.orEmpty()
+                    }
                 }
             } else null
 
-        val combinedList = buildList {
-            addAll(primaryPhotoMedia.await())
-            addAll(primaryVideoMedia.await())
-            secondaryPhotoMedia?.let { addAll(it.await()) }
-            secondaryVideoMedia?.let { addAll(it.await()) }
+        val scans = listOfNotNull(
+            primaryPhotoMedia.await(),
+            primaryVideoMedia.await(),
+            secondaryPhotoMedia?.await(),
+            secondaryVideoMedia?.await(),
+        )
+
+        if (volumeGenerations.isNotEmpty()) {
+            scans.forEach { scan ->
+                scan.checkpoint?.let {
+                    setMediaStoreScanCheckpointUseCase(scan.folderType, scan.fileType, it)
+                }
+            }
+        }
+        scans.mapNotNull { it.error }
+    }
+
+    /**
+     * Retrieve and save the records of the media not saved yet, only looking at the media changed since the
+     * last checkpoint if it is still valid
+     */
+    private suspend fun scanMediaStore(
+        parentPath: String,
+        types: List<MediaStoreFileType>,
+        folderType: CameraUploadFolderType,
+        fileType: CameraUploadsRecordType,
+        tempRoot: String,
+        volumeGenerations: List<MediaStoreVolumeGeneration>,
+    ): MediaStoreScan {
+        val checkpoint = MediaStoreScanCheckpoint(
+            parentPath = parentPath,
+            types = types,
+            volumes = volumeGenerations,
+        )
+        val changedSince =
+            if (volumeGenerations.isEmpty()) emptyList()
+            else getMediaStoreScanCheckpointUseCase(folderType, fileType)
+                ?.takeIf { it.parentPath == parentPath && it.types == types }
+                ?.volumes
+                ?.filter { lastVolume ->
+                    // A volume which version changed is scanned entirely
+                    volumeGenerations.any {
+                        it.volumeName == lastVolume.volumeName && it.version == lastVolume.version
+                    }
+                }
+                .orEmpty()
+
+        return try {
+            retrieveMediaFromMediaStoreUseCase(
+                parentPath = parentPath,
+                types = types,
+                folderType = folderType,
+                fileType = fileType,
+                tempRoot = tempRoot,
+                changedSince = changedSince,
+            ).collect { saveCameraUploadsRecordUseCase(it) }
+            MediaStoreScan(folderType, fileType, checkpoint, null)
+        } catch (e: CancellationException) {
+            throw e
+        } catch (e: Exception) {
+            // The checkpoint is not moved forward, so the media not saved are retrieved again
+            // next time, including the ones that could not be mapped
+            MediaStoreScan(folderType, fileType, null, e)
         }
-        saveCameraUploadsRecordUseCase(combinedList)
     }
+
+    private data class MediaStoreScan(
+        val folderType: CameraUploadFolderType,
+        val fileType: CameraUploadsRecordType,
+        val checkpoint: MediaStoreScanCheckpoint?,
+        val error: Throwable?,
+    )
 }
@@ -36,41 +36,46 @@ class RenameCameraUploadsRecordsUseCase @Inject constructor(
      * @param recordList the list of files renamed
      * @param primaryUploadNodeId primary cloud folder
      * @param secondaryUploadNodeId secondary cloud folder
+     * @param generatedFileNames the file names already generated, per folder type, for records
+     *                           not yet uploaded. Passing the same set across successive calls
+     *                           ensures that no two records of different batches get the same name.
+     *                           The set is updated with the names generated for [recordList]
      */
     suspend operator fun invoke(
         recordList: List<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
+        generatedFileNames: MutableSet<Pair<CameraUploadFolderType, String>> = hashSetOf(),
     ): List<CameraUploadsRecord> = withContext(ioDispatcher) {
         val keepName = areUploadFileNamesKeptUseCase()
-        return@withContext buildList renamedRecordList@{
-            recordList.map { record ->
-                if (record.existsInTargetNode == true) {
-                    add(record)
-                } else {
-                    ensureActive()
-                    val parentNodeId = when (record.folderType) {
-                        CameraUploadFolderType.Primary -> primaryUploadNodeId
-                        CameraUploadFolderType.Secondary -> secondaryUploadNodeId
-                    }
-
-                    val originalFileName = getFileName(record, keepName)
-                    var generatedFileName = originalFileName
-                    var photoIndex = 0
-                    while (
-                        fileNameAlreadyExists(
-                            generatedFileName,
-                            parentNodeId,
-                            record.folderType,
-                            this@renamedRecordList
-                        )
-                    ) {
-                        ensureActive()
-                        generatedFileName = getFileNameWithIndex(originalFileName, photoIndex++)
-                    }
+        return@withContext recordList.map { record ->
+            if (record.existsInTargetNode == true) {
+                record.generatedFileName?.let { generatedFileNames.add(record.folderType to it) }
+                record
+            } else {
+                ensureActive()
+                val parentNodeId = when (record.folderType) {
+                    CameraUploadFolderType.Primary -> primaryUploadNodeId
+                    CameraUploadFolderType.Secondary -> secondaryUploadNodeId
+                }
 
-                    add(record.copy(generatedFileName = generatedFileName))
+                val originalFileName = getFileName(record, keepName)
+                var generatedFileName = originalFileName
+                var photoIndex = 0
+                while (
+                    fileNameAlreadyExists(
+                        generatedFileName,
+                        parentNodeId,
+                        record.folderType,
+                        generatedFileNames,
+                    )
+                ) {
+                    ensureActive()
+                    generatedFileName = getFileNameWithIndex(originalFileName, photoIndex++)
                 }
+
+                generatedFileNames.add(record.folderType to generatedFileName)
+                record.copy(generatedFileName = generatedFileName)
             }
         }
     }
@@ -119,17 +124,17 @@ class RenameCameraUploadsRecordsUseCase @Inject constructor(
      * @param fileName
      * @param parentNodeId
      * @param folderType
-     * @param recordList
+     * @param generatedFileNames
      * @return true if the [fileName] is already used
      */
     private suspend fun fileNameAlreadyExists(
         fileName: String,
         parentNodeId: NodeId,
         folderType: CameraUploadFolderType,
-        recordList: List<CameraUploadsRecord>
+        generatedFileNames: Set<Pair<CameraUploadFolderType, String>>,
     ): Boolean =
         fileNameExistsInCloud(fileName, parentNodeId)
-                || fileNameExistsInList(fileName, recordList, folderType)
+                || generatedFileNames.contains(folderType to fileName)
 
     /**
      * Check if the [fileName] is already used for one of the node in the target folder on the Cloud drive
@@ -140,20 +145,4 @@ class RenameCameraUploadsRecordsUseCase @Inject constructor(
      */
     private suspend fun fileNameExistsInCloud(fileName: String, parentNodeId: NodeId): Boolean =
         getChildNodeUseCase(parentNodeId, fileName) != null
-
-    /**
-     * Check if the [fileName] is already used for one of the future node in the list that is being processed
-     *
-     * @param fileName
-     * @param recordList
-     * @param folderType
-     * @return true if the [fileName] is already used in the current list
-     */
-    private fun fileNameExistsInList(
-        fileName: String,
-        recordList: List<CameraUploadsRecord>,
-        folderType: CameraUploadFolderType
-    ): Boolean =
-        recordList
-            .any { it.folderType == folderType && it.generatedFileName == fileName }
 }
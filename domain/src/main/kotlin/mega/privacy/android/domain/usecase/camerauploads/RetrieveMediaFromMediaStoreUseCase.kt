@@ -1,8 +1,11 @@
 package mega.privacy.android.domain.usecase.camerauploads
 
+import kotlinx.coroutines.CancellationException
 import kotlinx.coroutines.async
 import kotlinx.coroutines.awaitAll
 import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.sync.Semaphore
 import kotlinx.coroutines.sync.withPermit
 import kotlinx.coroutines.yield
@@ -11,84 +14,105 @@ import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordIndex
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreVolumeGeneration
+import mega.privacy.android.domain.exception.camerauploads.MediaNotRetrievedException
 import mega.privacy.android.domain.repository.CameraUploadsRepository
 import mega.privacy.android.domain.usecase.camerauploads.mapper.CameraUploadsRecordMapper
 import javax.inject.Inject
 
 /**
  * Retrieve a list of [CameraUploadsMedia] from the media store
+ *
+ * The media already saved in the database are filtered out through the
+ * [CameraUploadsRecordIndex] of the folder type, built once per retrieval
  */
 class RetrieveMediaFromMediaStoreUseCase @Inject constructor(
     private val cameraUploadsRepository: CameraUploadsRepository,
     private val cameraUploadsRecordMapper: CameraUploadsRecordMapper,
 ) {
 
+    companion object {
+        /**
+         * Maximum number of media read at once from the media store
+         */
+        const val MEDIA_BATCH_SIZE = 500
+    }
+
     /**
      * Retrieve a list of [CameraUploadsMedia] from the media store
      *
+     * The media are read in batches of [MEDIA_BATCH_SIZE], and the records of the media not saved
+     * yet are emitted batch by batch, so the memory used does not grow with the size of the media
+     * store as long as each batch is saved before the next one is collected
+     *
      * @param parentPath used for filtering the media contained in the parent path
      * @param types types of files that we want to retrieve. This types will be converted to proper Uri
+     * @param folderType the [CameraUploadFolderType] of the records
+     * @param fileType the [CameraUploadsRecordType] of the records
+     * @param tempRoot the root path of the temporary files
+     * @param changedSince if not empty, only the media inserted or modified since these
+     *                     [MediaStoreVolumeGeneration] are retrieved
      *
-     * @return a list of [CameraUploadsRecord]
+     * @return a flow of the batches of [CameraUploadsRecord] not already saved in the database,
+     *         which throws an Exception if the media store cannot be read, or a
+     *         [MediaNotRetrievedException] once all the batches are emitted if some media could not
+     *         be mapped to records
      */
-    suspend operator fun invoke(
+    operator fun invoke(
         parentPath: String,
         types: List<MediaStoreFileType>,
         folderType: CameraUploadFolderType,
         fileType: CameraUploadsRecordType,
         tempRoot: String,
-    ): List<CameraUploadsRecord> = coroutineScope {
-        val selectionQuery = cameraUploadsRepository.getMediaSelectionQuery(parentPath)
+        changedSince: List<MediaStoreVolumeGeneration> = emptyList(),
+    ): Flow<List<CameraUploadsRecord>> = flow {
+        val selectionQuery =
+            if (changedSince.isEmpty()) cameraUploadsRepository.getMediaSelectionQuery(parentPath)
+            else cameraUploadsRepository.getMediaSelectionQuery(parentPath, changedSince)
 
-        val (recordsInPrimaryFolder, recordsInSecondaryFolder) =
-            cameraUploadsRepository.getAllCameraUploadsRecords()
-                .partition { it.folderType == CameraUploadFolderType.Primary }
+        val recordIndex = cameraUploadsRepository.getCameraUploadsRecordIndex(folderType)
 
         val semaphore = Semaphore(8)
-        return@coroutineScope types.flatMap {
-            cameraUploadsRepository.getMediaList(
-                mediaStoreFileType = it,
+        var failedCount = 0
+        var firstError: Throwable? = null
+        types.forEach { type ->
+            cameraUploadsRepository.getMediaBatches(
+                mediaStoreFileType = type,
                 selectionQuery = selectionQuery,
-            ).map {
-                async {
-                    semaphore.withPermit {
-                        yield()
-                        runCatching {
-                            val exists = checkCameraUploadsRecordAlreadyExists(
-                                cameraUploadsMedia = it,
-                                recordsToCheck =
-                                if (folderType == CameraUploadFolderType.Primary)
-                                    recordsInPrimaryFolder
-                                else recordsInSecondaryFolder,
-                            )
-                            if (!exists) {
-                                cameraUploadsRecordMapper(
-                                    media = it,
-                                    folderType = folderType,
-                                    fileType = fileType,
-                                    tempRoot = tempRoot,
-                                )
-                            } else null
-                        }.getOrNull()
+                batchSize = MEDIA_BATCH_SIZE,
+            ).collect { batch ->
+                val results = coroutineScope {
+                    batch.filterNot {
+                        recordIndex.contains(it.mediaId, it.timestamp)
+                    }.map {
+                        async {
+                            semaphore.withPermit {
+                                yield()
+                                runCatching {
+                                    cameraUploadsRecordMapper(
+                                        media = it,
+                                        folderType = folderType,
+                                        fileType = fileType,
+                                        tempRoot = tempRoot,
+                                    )
+                                }.onFailure { error ->
+                                    if (error is CancellationException) throw error
+                                }
+                            }
+                        }
+                    }.awaitAll()
+                }
+                results.forEach { result ->
+                    result.exceptionOrNull()?.let {
+                        failedCount++
+                        if (firstError == null) firstError = it
                     }
                 }
-            }.awaitAll().filterNotNull()
+                val records = results.mapNotNull { it.getOrNull() }
+                if (records.isNotEmpty()) emit(records)
+            }
         }
-    }
-
-    /**
-     * Check if the camera uploads media has already been inserted in the database
-     *
-     * @param cameraUploadsMedia the [CameraUploadsMedia] to check
-     * @param recordsToCheck the list of [CameraUploadsRecord] saved in the database
-     */
-    private fun checkCameraUploadsRecordAlreadyExists(
-        cameraUploadsMedia: CameraUploadsMedia,
-        recordsToCheck: List<CameraUploadsRecord>,
-    ): Boolean {
-        return recordsToCheck.find {
-            it.mediaId == cameraUploadsMedia.mediaId && it.timestamp == cameraUploadsMedia.timestamp
-        } != null
+        firstError?.let { throw MediaNotRetrievedException(failedCount, it) }
     }
 }
-
@@ -0,0 +1,30 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import mega.privacy.android.domain.entity.CameraUploadsRecordType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanCheckpoint
+import mega.privacy.android.domain.repository.CameraUploadsRepository
+import javax.inject.Inject
+
+/**
+ * Set the checkpoint of the last media store scan completed by Camera Uploads
+ *
+ * @param cameraUploadsRepository
+ */
+class SetMediaStoreScanCheckpointUseCase @Inject constructor(
+    private val cameraUploadsRepository: CameraUploadsRepository,
+) {
+
+    /**
+     * Invoke
+     *
+     * @param folderType the [CameraUploadFolderType] scanned
+     * @param fileType the [CameraUploadsRecordType] scanned
+     * @param checkpoint the [MediaStoreScanCheckpoint] to set
+     */
+    suspend operator fun invoke(
+        folderType: CameraUploadFolderType,
+        fileType: CameraUploadsRecordType,
+        checkpoint: MediaStoreScanCheckpoint,
+    ) = cameraUploadsRepository.setMediaStoreScanCheckpoint(folderType, fileType, checkpoint)
+}
@@ -2,8 +2,10 @@ package mega.privacy.android.domain.usecase.camerauploads
 
 import kotlinx.coroutines.DelicateCoroutinesApi
 import kotlinx.coroutines.channels.Channel.Factory.UNLIMITED
+import kotlinx.coroutines.coroutineScope
 import kotlinx.coroutines.delay
 import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.asFlow
 import kotlinx.coroutines.flow.buffer
 import kotlinx.coroutines.flow.cancellable
 import kotlinx.coroutines.flow.catch
@@ -16,7 +18,6 @@ import kotlinx.coroutines.flow.map
 import kotlinx.coroutines.flow.onCompletion
 import kotlinx.coroutines.flow.retry
 import kotlinx.coroutines.flow.singleOrNull
-import kotlinx.coroutines.joinAll
 import kotlinx.coroutines.launch
 import kotlinx.coroutines.sync.Semaphore
 import kotlinx.coroutines.yield
@@ -108,12 +109,36 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
      * @param secondaryUploadNodeId The secondary upload node id
      * @param tempRoot The file path to the temporary folder to generate temp files
      */
-    @OptIn(DelicateCoroutinesApi::class)
     operator fun invoke(
         cameraUploadsRecords: List<CameraUploadsRecord>,
         primaryUploadNodeId: NodeId,
         secondaryUploadNodeId: NodeId,
         tempRoot: String,
+    ): Flow<CameraUploadsTransferProgress> = invoke(
+        cameraUploadsRecords.asFlow(),
+        primaryUploadNodeId,
+        secondaryUploadNodeId,
+        tempRoot,
+    )
+
+    /**
+     * Camera Uploads upload process
+     *
+     * The [cameraUploadsRecords] flow is collected as the uploads progress: a new record is only
+     * collected when a slot is available in the concurrent uploads limit, so the upstream is
+     * suspended while the maximum number of records are being processed.
+     *
+     * @param cameraUploadsRecords The flow of records to process
+     * @param primaryUploadNodeId The primary upload node id
+     * @param secondaryUploadNodeId The secondary upload node id
+     * @param tempRoot The file path to the temporary folder to generate temp files
+     */
+    @OptIn(DelicateCoroutinesApi::class)
+    operator fun invoke(
+        cameraUploadsRecords: Flow<CameraUploadsRecord>,
+        primaryUploadNodeId: NodeId,
+        secondaryUploadNodeId: NodeId,
+        tempRoot: String,
     ): Flow<CameraUploadsTransferProgress> = channelFlow {
         // Calculate the default number of concurrent uploads based on the available processors
         val defaultConcurrentUploadsCount = max(2, getAvailableProcessorsUseCase())
@@ -156,289 +181,293 @@ class UploadCameraUploadsRecordsUseCase @Inject constructor(
                 }
         }
 
-        cameraUploadsRecords.map { record ->
-            launch {
+        coroutineScope {
+            cameraUploadsRecords.collect { record ->
+                // Acquire the permit before launching the upload so that the collection of
+                // the records is suspended while the concurrent uploads limit is reached
                 semaphore.acquire()
-                deviceStateSemaphore.acquire()
+                launch {
+                    deviceStateSemaphore.acquire()
 
-                yield()
+                    yield()
 
-                val parentNodeId =
-                    getParentNodeId(record, primaryUploadNodeId, secondaryUploadNodeId)
+                    val parentNodeId =
+                        getParentNodeId(record, primaryUploadNodeId, secondaryUploadNodeId)
 
-                when {
-                    // node does not exist => upload
-                    record.existingNodeId == null -> {
+                    when {
+                        // node does not exist => upload
+                        record.existingNodeId == null -> {
 
-                        val shouldRemoveLocationTags =
-                            record.type == CameraUploadsRecordType.TYPE_PHOTO && locationTagsDisabled
+                            val shouldRemoveLocationTags =
+                                record.type == CameraUploadsRecordType.TYPE_PHOTO && locationTagsDisabled
 
-                        val shouldCompressVideo =
-                            record.type == CameraUploadsRecordType.TYPE_VIDEO && videoQuality != VideoQuality.ORIGINAL
+                            val shouldCompressVideo =
+                                record.type == CameraUploadsRecordType.TYPE_VIDEO && videoQuality != VideoQuality.ORIGINAL
 
-                        yield()
+                            yield()
 
-                        // create temporary file
-                        if (shouldRemoveLocationTags) {
-                            createTempFileAndRemoveCoordinates(record, tempRoot)
-                                .catch {
-                                    trySend(CameraUploadsTransferProgress.Error(record, it))
-                                    setCameraUploadsRecordUploadStatus(
-                                        record = record,
-                                        status = if (it is FileNotFoundException)
-                                            CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST
-                                        else CameraUploadsRecordUploadStatus.FAILED
-                                    ).onFailure { error ->
-                                        trySend(CameraUploadsTransferProgress.Error(record, error))
+                            // create temporary file
+                            if (shouldRemoveLocationTags) {
+                                createTempFileAndRemoveCoordinates(record, tempRoot)
+                                    .catch {
+                                        trySend(CameraUploadsTransferProgress.Error(record, it))
+                                        setCameraUploadsRecordUploadStatus(
+                                            record = record,
+                                            status = if (it is FileNotFoundException)
+                                                CameraUploadsRecordUploadStatus.LOCAL_FILE_NOT_EXIST
+                                            else CameraUploadsRecordUploadStatus.FAILED
+                                        ).onFailure { error ->
+                                            trySend(CameraUploadsTransferProgress.Error(record, error))
+                                        }
                                     }
-                                }
-                                .singleOrNull()
-                                ?: run {
+                                    .singleOrNull()
+                                    ?: run {
+                                        deviceStateSemaphore.release()
+                                        semaphore.release()
+                                        return@launch
+                                    }
+                            }
+
+                            yield()
+
+                            // Compress Video
+                            if (shouldCompressVideo) {
+                                var isCompressionCancelled = false
+                                videoCompressionSemaphore.acquire()
+                                if (isChargingRequiredForVideoCompression
+                                    && monitorBatteryInfoUseCase().first().isCharging.not()
+                                ) {
+                                    videoCompressionSemaphore.release()
                                     deviceStateSemaphore.release()
                                     semaphore.release()
                                     return@launch
                                 }
-                        }
-
-                        yield()
+                                channelFlow compression@{
+                                    launch {
+                                        flow {
+                                            emitAll(monitorBatteryInfoUseCase().map { it.isCharging })
+                                        }.collect { isCharging ->
+                                            if (isChargingRequiredForVideoCompression && !isCharging) {
+                                                isCompressionCancelled = true
+                                                send(VideoCompressionState.Cancel)
+                                                this@compression.close()
+                                            }
+                                        }
+                                    }
 
-                        // Compress Video
-                        if (shouldCompressVideo) {
-                            var isCompressionCancelled = false
-                            videoCompressionSemaphore.acquire()
-                            if (isChargingRequiredForVideoCompression
-                                && monitorBatteryInfoUseCase().first().isCharging.not()
-                            ) {
-                                videoCompressionSemaphore.release()
-                                deviceStateSemaphore.release()
-                                semaphore.release()
-                                return@launch
-                            }
-                            channelFlow compression@{
-                                launch {
-                                    flow {
-                                        emitAll(monitorBatteryInfoUseCase().map { it.isCharging })
-                                    }.collect { isCharging ->
-                                        if (isChargingRequiredForVideoCompression && !isCharging) {
-                                            isCompressionCancelled = true
-                                            send(VideoCompressionState.Cancel)
-                                            this@compression.close()
+                                    launch {
+                                        compressVideo(
+                                            record,
+                                            tempRoot,
+                                            videoQuality
+                                        ).collect {
+                                            if (!isClosedForSend) {
+                                                send(it)
+                                                yield()
+                                            }
+                                            if (it is VideoCompressionState.Finished) {
+                                                this@compression.close()
+                                            }
                                         }
                                     }
-                                }
+                                }.catch {
+                                    emit(VideoCompressionState.Finished)
+                                    trySend(CameraUploadsTransferProgress.Error(record, it))
+                                }.onCompletion {
+                                    videoCompressionSemaphore.release()
+                                }.collect {
+                                    when (it) {
+                                        is VideoCompressionState.Progress -> {
+                                            trySend(
+                                                CameraUploadsTransferProgress.Compressing.Progress(
+                                                    record = record,
+                                                    progress = it.progress,
+                                                )
+                                            )
+                                        }
 
-                                launch {
-                                    compressVideo(
-                                        record,
-                                        tempRoot,
-                                        videoQuality
-                                    ).collect {
-                                        if (!isClosedForSend) {
-                                            send(it)
-                                            yield()
+                                        is VideoCompressionState.Successful -> {
+                                            trySend(
+                                                CameraUploadsTransferProgress.Compressing.Successful(
+                                                    record = record,
+                                                )
+                                            )
                                         }
-                                        if (it is VideoCompressionState.Finished) {
-                                            this@compression.close()
+
+                                        is VideoCompressionState.InsufficientStorage -> {
+                                            trySend(
+                                                CameraUploadsTransferProgress.Compressing.InsufficientStorage(
+                                                    record = record,
+                                                )
+                                            )
                                         }
+
+                                        is VideoCompressionState.Cancel -> {
+                                            trySend(
+                                                CameraUploadsTransferProgress.Compressing.Cancel(
+                                                    record = record,
+                                                )
+                                            )
+                                        }
+
+                                        else -> Unit
                                     }
                                 }
-                            }.catch {
-                                emit(VideoCompressionState.Finished)
-                                trySend(CameraUploadsTransferProgress.Error(record, it))
-                            }.onCompletion {
-                                videoCompressionSemaphore.release()
-                            }.collect {
-                                when (it) {
-                                    is VideoCompressionState.Progress -> {
+                                if (isCompressionCancelled) {
+                                    deviceStateSemaphore.release()
+                                    semaphore.release()
+                                    return@launch
+                                }
+                            }
+
+                            yield()
+
+                            // generate fingerprint and save it
+                            // This step is important to check if a file exist in the cloud drive,
+                            // in case the original fingerprint cannot be assigned to the Node after the transfer finishes
+                            val setGeneratedFingerprintJob = launch {
+                                setGeneratedFingerprint(record)
+                                    .onFailure {
+                                        trySend(CameraUploadsTransferProgress.Error(record, it))
+                                    }
+                            }
+
+                            // retrieve path of file to upload
+                            val path = getPath(record, shouldRemoveLocationTags, shouldCompressVideo)
+
+                            yield()
+
+                            // upload
+                            startUploadUseCase(
+                                localPath = path,
+                                parentNodeId = parentNodeId,
+                                fileName = record.generatedFileName,
+                                modificationTime = record.timestamp / 1000,
+                                appData = TransferAppData.CameraUpload,
+                                isSourceTemporary = false,
+                                shouldStartFirst = false,
+                            ).collect { transferEvent ->
+                                when (transferEvent) {
+                                    is TransferEvent.TransferStartEvent -> {
+                                        // set status to STARTED
+                                        setCameraUploadsRecordUploadStatus(
+                                            record = record,
+                                            status = CameraUploadsRecordUploadStatus.STARTED,
+                                        ).onFailure {
+                                            trySend(CameraUploadsTransferProgress.Error(record, it))
+                                        }
+
                                         trySend(
-                                            CameraUploadsTransferProgress.Compressing.Progress(
+                                            CameraUploadsTransferProgress.ToUpload(
                                                 record = record,
-                                                progress = it.progress,
+                                                transferEvent = transferEvent,
                                             )
                                         )
                                     }
 
-                                    is VideoCompressionState.Successful -> {
+                                    is TransferEvent.TransferFinishEvent -> {
+                                        yield()
+                                        processTransferFinishEvent(record, transferEvent)
+                                            .collect {
+                                                trySend(CameraUploadsTransferProgress.Error(record, it))
+                                            }
+
+                                        // Make sure that the generated fingerprint has complete
+                                        setGeneratedFingerprintJob.join()
+
+                                        // delete temp file
+                                        deleteTempFile(record)
+                                            .onFailure {
+                                                trySend(CameraUploadsTransferProgress.Error(record, it))
+                                            }
+
                                         trySend(
-                                            CameraUploadsTransferProgress.Compressing.Successful(
+                                            CameraUploadsTransferProgress.Uploaded(
                                                 record = record,
+                                                transferEvent = transferEvent,
+                                                nodeId = NodeId(transferEvent.transfer.nodeHandle),
                                             )
                                         )
+
+                                        deviceStateSemaphore.release()
+                                        semaphore.release()
                                     }
 
-                                    is VideoCompressionState.InsufficientStorage -> {
+                                    is TransferEvent.TransferUpdateEvent -> {
                                         trySend(
-                                            CameraUploadsTransferProgress.Compressing.InsufficientStorage(
+                                            CameraUploadsTransferProgress.UploadInProgress.TransferUpdate(
                                                 record = record,
+                                                transferEvent = transferEvent,
                                             )
                                         )
                                     }
 
-                                    is VideoCompressionState.Cancel -> {
+                                    is TransferEvent.TransferTemporaryErrorEvent ->
                                         trySend(
-                                            CameraUploadsTransferProgress.Compressing.Cancel(
+                                            CameraUploadsTransferProgress.UploadInProgress.TransferTemporaryError(
                                                 record = record,
+                                                transferEvent = transferEvent,
                                             )
                                         )
-                                    }
 
                                     else -> Unit
                                 }
                             }
-                            if (isCompressionCancelled) {
-                                deviceStateSemaphore.release()
-                                semaphore.release()
-                                return@launch
-                            }
                         }
 
-                        yield()
-
-                        // generate fingerprint and save it
-                        // This step is important to check if a file exist in the cloud drive,
-                        // in case the original fingerprint cannot be assigned to the Node after the transfer finishes
-                        val setGeneratedFingerprintJob = launch {
-                            setGeneratedFingerprint(record)
-                                .onFailure {
-                                    trySend(CameraUploadsTransferProgress.Error(record, it))
-                                }
-                        }
-
-                        // retrieve path of file to upload
-                        val path = getPath(record, shouldRemoveLocationTags, shouldCompressVideo)
-
-                        yield()
-
-                        // upload
-                        startUploadUseCase(
-                            localPath = path,
-                            parentNodeId = parentNodeId,
-                            fileName = record.generatedFileName,
-                            modificationTime = record.timestamp / 1000,
-                            appData = TransferAppData.CameraUpload,
-                            isSourceTemporary = false,
-                            shouldStartFirst = false,
-                        ).collect { transferEvent ->
-                            when (transferEvent) {
-                                is TransferEvent.TransferStartEvent -> {
-                                    // set status to STARTED
-                                    setCameraUploadsRecordUploadStatus(
-                                        record = record,
-                                        status = CameraUploadsRecordUploadStatus.STARTED,
-                                    ).onFailure {
-                                        trySend(CameraUploadsTransferProgress.Error(record, it))
-                                    }
-
-                                    trySend(
-                                        CameraUploadsTransferProgress.ToUpload(
-                                            record = record,
-                                            transferEvent = transferEvent,
-                                        )
-                                    )
-                                }
-
-                                is TransferEvent.TransferFinishEvent -> {
-                                    yield()
-                                    processTransferFinishEvent(record, transferEvent)
-                                        .collect {
-                                            trySend(CameraUploadsTransferProgress.Error(record, it))
-                                        }
-
-                                    // Make sure that the generated fingerprint has complete
-                                    setGeneratedFingerprintJob.join()
-
-                                    // delete temp file
-                                    deleteTempFile(record)
-                                        .onFailure {
-                                            trySend(CameraUploadsTransferProgress.Error(record, it))
-                                        }
-
-                                    trySend(
-                                        CameraUploadsTransferProgress.Uploaded(
-                                            record = record,
-                                            transferEvent = transferEvent,
-                                            nodeId = NodeId(transferEvent.transfer.nodeHandle),
-                                        )
-                                    )
-
-                                    deviceStateSemaphore.release()
-                                    semaphore.release()
-                                }
-
-                                is TransferEvent.TransferUpdateEvent -> {
-                                    trySend(
-                                        CameraUploadsTransferProgress.UploadInProgress.TransferUpdate(
-                                            record = record,
-                                            transferEvent = transferEvent,
-                                        )
-                                    )
-                                }
-
-                                is TransferEvent.TransferTemporaryErrorEvent ->
-                                    trySend(
-                                        CameraUploadsTransferProgress.UploadInProgress.TransferTemporaryError(
-                                            record = record,
-                                            transferEvent = transferEvent,
-                                        )
-                                    )
+                        // node exists but not in target folder => copy
+                        record.existsInTargetNode == false -> {
+                            trySend(
+                                CameraUploadsTransferProgress.ToCopy(
+                                    record = record,
+                                    nodeId = record.existingNodeId,
+                                )
+                            )
 
-                                else -> Unit
+                            copyNode(
+                                record = record,
+                                existingNodeId = record.existingNodeId,
+                                parentNodeId = parentNodeId,
+                            ).onFailure {
+                                trySend(CameraUploadsTransferProgress.Error(record, it))
                             }
-                        }
-                    }
 
-                    // node exists but not in target folder => copy
-                    record.existsInTargetNode == false -> {
-                        trySend(
-                            CameraUploadsTransferProgress.ToCopy(
-                                record = record,
-                                nodeId = record.existingNodeId,
+                            trySend(
+                                CameraUploadsTransferProgress.Copied(
+                                    record = record,
+                                    nodeId = record.existingNodeId,
+                                )
                             )
-                        )
-
-                        copyNode(
-                            record = record,
-                            existingNodeId = record.existingNodeId,
-                            parentNodeId = parentNodeId,
-                        ).onFailure {
-                            trySend(CameraUploadsTransferProgress.Error(record, it))
-                        }
 
-                        trySend(
-                            CameraUploadsTransferProgress.Copied(
+                            setCameraUploadsRecordUploadStatus(
                                 record = record,
-                                nodeId = record.existingNodeId,
-                            )
-                        )
+                                status = CameraUploadsRecordUploadStatus.COPIED
+                            ).onFailure {
+                                trySend(CameraUploadsTransferProgress.Error(record, it))
+                            }
 
-                        setCameraUploadsRecordUploadStatus(
-                            record = record,
-                            status = CameraUploadsRecordUploadStatus.COPIED
-                        ).onFailure {
-                            trySend(CameraUploadsTransferProgress.Error(record, it))
+                            deviceStateSemaphore.release()
+                            semaphore.release()
+                            return@launch
                         }
 
-                        deviceStateSemaphore.release()
-                        semaphore.release()
-                        return@launch
-                    }
+                        // node exists in target folder or is in rubbish bin => do nothing
+                        else -> {
+                            setCameraUploadsRecordUploadStatus(
+                                record = record,
+                                status = CameraUploadsRecordUploadStatus.ALREADY_EXISTS,
+                            ).onFailure {
+                                trySend(CameraUploadsTransferProgress.Error(record, it))
+                            }
 
-                    // node exists in target folder or is in rubbish bin => do nothing
-                    else -> {
-                        setCameraUploadsRecordUploadStatus(
-                            record = record,
-                            status = CameraUploadsRecordUploadStatus.ALREADY_EXISTS,
-                        ).onFailure {
-                            trySend(CameraUploadsTransferProgress.Error(record, it))
+                            deviceStateSemaphore.release()
+                            semaphore.release()
+                            return@launch
                         }
-
-                        deviceStateSemaphore.release()
-                        semaphore.release()
-                        return@launch
                     }
                 }
             }
-        }.joinAll()
+        }
         channel.close()
     }
         .buffer(UNLIMITED)
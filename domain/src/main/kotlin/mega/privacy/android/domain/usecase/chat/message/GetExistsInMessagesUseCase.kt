@@ -0,0 +1,21 @@
+package mega.privacy.android.domain.usecase.chat.message
+
+import mega.privacy.android.domain.repository.chat.ChatMessageRepository
+import javax.inject.Inject
+
+/**
+ * Use case to get if the content exists in a list of messages with a single query.
+ */
+class GetExistsInMessagesUseCase @Inject constructor(
+    private val chatMessageRepository: ChatMessageRepository,
+) {
+    /**
+     * Gets if the content exists in each message.
+     *
+     * @param chatId Chat id.
+     * @param msgIds Message ids.
+     * @return Map of each message id to whether its content exists.
+     */
+    suspend operator fun invoke(chatId: Long, msgIds: List<Long>) =
+        if (msgIds.isEmpty()) emptyMap() else chatMessageRepository.getExistsInMessages(chatId, msgIds)
+}
@@ -3,18 +3,23 @@ package mega.privacy.android.domain.usecase.chat.message.paging
 import mega.privacy.android.domain.entity.chat.ChatMessage
 import mega.privacy.android.domain.entity.chat.messages.reactions.Reaction
 import mega.privacy.android.domain.entity.chat.messages.request.CreateTypedMessageRequest
-import mega.privacy.android.domain.usecase.chat.message.GetExistsInMessageUseCase
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.usecase.chat.message.GetExistsInMessagesUseCase
 import mega.privacy.android.domain.usecase.chat.message.reactions.GetReactionsUseCase
 import mega.privacy.android.domain.usecase.node.DoesNodeExistUseCase
 import javax.inject.Inject
 
 /**
  * Create save message request use case
+ *
+ * The messages are mapped in bulk: the existence of the content of all the messages from other
+ * users is read with a single query, and the existence of each node attached by the current user
+ * is only checked once per batch.
  */
 class CreateSaveMessageRequestUseCase @Inject constructor(
     private val getReactionsUseCase: GetReactionsUseCase,
     private val doesNodeExistUseCase: DoesNodeExistUseCase,
-    private val getExistsInMessageUseCase: GetExistsInMessageUseCase,
+    private val getExistsInMessagesUseCase: GetExistsInMessagesUseCase,
 ) {
 
     /**
@@ -29,6 +34,13 @@ class CreateSaveMessageRequestUseCase @Inject constructor(
         chatMessages: List<ChatMessage>,
         currentUserHandle: Long,
     ): List<CreateTypedMessageRequest> {
+        val existsInMessages = getExistsInMessagesUseCase(
+            chatId = chatId,
+            msgIds = chatMessages
+                .filter { it.userHandle != currentUserHandle && it.nodeList.isNotEmpty() }
+                .map { it.messageId },
+        )
+        val nodesExist = HashMap<NodeId, Boolean>()
 
         return chatMessages
             .map { chatMessage ->
@@ -37,10 +49,13 @@ class CreateSaveMessageRequestUseCase @Inject constructor(
                     chatId = chatId,
                     currentUserHandle = currentUserHandle
                 )
-                val exists = chatMessage.doNodesExist(
-                    isMine = isMine,
-                    chatId = chatId
-                )
+                val exists = chatMessage.nodeList.firstOrNull()?.let {
+                    if (isMine) {
+                        nodesExist.getOrPut(it.id) { doesNodeExistUseCase(it.id) }
+                    } else {
+                        existsInMessages[chatMessage.messageId]
+                    }
+                } ?: true
 
                 CreateTypedMessageRequest(
                     chatMessage = chatMessage,
@@ -64,15 +79,4 @@ class CreateSaveMessageRequestUseCase @Inject constructor(
     } else {
         emptyList()
     }
-
-    private suspend fun ChatMessage.doNodesExist(
-        isMine: Boolean,
-        chatId: Long,
-    ) = nodeList.firstOrNull()?.let {
-        if (isMine) {
-            this@CreateSaveMessageRequestUseCase.doesNodeExistUseCase(it.id)
-        } else {
-            this@CreateSaveMessageRequestUseCase.getExistsInMessageUseCase(chatId, messageId)
-        }
-    } ?: true
-}
\ No newline at end of file
+}
@@ -0,0 +1,22 @@
+package mega.privacy.android.domain.usecase.chat.message.paging
+
+import mega.privacy.android.domain.repository.chat.ChatMessageRepository
+import javax.inject.Inject
+
+/**
+ * Use case to get the timestamp of the newest message stored for a chat
+ *
+ * @property chatMessageRepository
+ */
+class GetNewestStoredMessageTimestampUseCase @Inject constructor(
+    private val chatMessageRepository: ChatMessageRepository,
+) {
+    /**
+     * Invoke
+     *
+     * @param chatId
+     * @return the timestamp, or null if no messages are stored
+     */
+    suspend operator fun invoke(chatId: Long) =
+        chatMessageRepository.getNewestMessageTimestamp(chatId)
+}
@@ -0,0 +1,46 @@
+package mega.privacy.android.domain.usecase.chat.message.paging
+
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import javax.inject.Inject
+
+/**
+ * Use case to report the cost of opening the history of a chat
+ *
+ * @property performanceReporterRepository
+ */
+class ReportChatHistoryOpenUseCase @Inject constructor(
+    private val performanceReporterRepository: PerformanceReporterRepository,
+) {
+    /**
+     * Invoke
+     *
+     * @param timeToFirstMessageMillis time from opening the chat until its first messages are
+     * available, in milliseconds
+     * @param fetchedCount number of messages fetched to open the chat
+     * @param refetchedCount number of the fetched messages that were already stored
+     * @param isResumed true if the stored history was kept, false if it was fetched again
+     */
+    operator fun invoke(
+        timeToFirstMessageMillis: Long,
+        fetchedCount: Int,
+        refetchedCount: Int,
+        isResumed: Boolean,
+    ) {
+        with(performanceReporterRepository) {
+            startTrace(CHAT_HISTORY_OPEN_TRACE)
+            putAttribute(CHAT_HISTORY_OPEN_TRACE, RESUMED_ATTRIBUTE, isResumed.toString())
+            putMetric(CHAT_HISTORY_OPEN_TRACE, TIME_TO_FIRST_MESSAGE_METRIC, timeToFirstMessageMillis)
+            putMetric(CHAT_HISTORY_OPEN_TRACE, FETCHED_METRIC, fetchedCount.toLong())
+            putMetric(CHAT_HISTORY_OPEN_TRACE, REFETCHED_METRIC, refetchedCount.toLong())
+            stopTrace(CHAT_HISTORY_OPEN_TRACE)
+        }
+    }
+
+    companion object {
+        internal const val CHAT_HISTORY_OPEN_TRACE = "chat_history_open"
+        internal const val RESUMED_ATTRIBUTE = "resumed"
+        internal const val TIME_TO_FIRST_MESSAGE_METRIC = "time_to_first_message_ms"
+        internal const val FETCHED_METRIC = "fetched_messages"
+        internal const val REFETCHED_METRIC = "refetched_messages"
+    }
+}
@@ -0,0 +1,96 @@
+package mega.privacy.android.domain.usecase.chat.message.paging
+
+import kotlinx.coroutines.CoroutineScope
+import kotlinx.coroutines.Job
+import kotlinx.coroutines.coroutineScope
+import kotlinx.coroutines.launch
+import mega.privacy.android.domain.entity.chat.ChatHistoryLoadStatus
+import mega.privacy.android.domain.entity.chat.ChatMessageType
+import mega.privacy.android.domain.entity.chat.messages.paging.ResumeChatHistoryResult
+import mega.privacy.android.domain.repository.chat.ChatMessageRepository
+import javax.inject.Inject
+
+/**
+ * Use case to bring the stored history of a chat up to date without clearing it
+ *
+ * The history is fetched from the newest message until [invoke] overlap messages at or older than
+ * the newest stored one have been fetched, and every page is saved over the stored messages. The
+ * messages received, edited, deleted or reacted to since the chat was last opened are updated
+ * this way, and the overlap refreshes the latest stored messages. If a truncate message is
+ * fetched, the stored messages up to the truncate are removed, keeping the newer pages already
+ * saved. If the history ends before reaching the stored messages, the stored messages older than
+ * the history are removed.
+ *
+ * @property fetchMessagePageUseCase
+ * @property saveChatMessagesUseCase
+ * @property clearChatMessagesUseCase
+ * @property chatMessageRepository
+ */
+class ResumeChatHistoryUseCase @Inject constructor(
+    private val fetchMessagePageUseCase: FetchMessagePageUseCase,
+    private val saveChatMessagesUseCase: SaveChatMessagesUseCase,
+    private val clearChatMessagesUseCase: ClearChatMessagesUseCase,
+    private val chatMessageRepository: ChatMessageRepository,
+) {
+    /**
+     * Invoke
+     *
+     * @param chatId
+     * @param newestStoredTimestamp timestamp of the newest stored message
+     * @param overlap number of stored messages to fetch again
+     * @param messagesScope scope where the messages of the chat are monitored while fetching
+     * @return [ResumeChatHistoryResult]
+     */
+    suspend operator fun invoke(
+        chatId: Long,
+        newestStoredTimestamp: Long,
+        overlap: Int,
+        messagesScope: CoroutineScope,
+    ): ResumeChatHistoryResult {
+        var fetchedCount = 0
+        var refetchedCount = 0
+        var oldestTimestamp: Long? = null
+        var isTruncated = false
+        var loadStatus: ChatHistoryLoadStatus = ChatHistoryLoadStatus.ERROR
+        coroutineScope {
+            var saveJob: Job? = null
+            do {
+                val response = fetchMessagePageUseCase(chatId, messagesScope)
+                val messages = response.messages
+                loadStatus = response.loadResponse
+                // Each page is saved while the next one is fetched, one save at a time
+                saveJob?.join()
+                val truncate = messages.firstOrNull { it.type == ChatMessageType.TRUNCATE }
+                if (!isTruncated && truncate != null) {
+                    // The newer pages are already saved and won't be fetched again
+                    chatMessageRepository.truncateMessages(chatId, truncate.timestamp)
+                    isTruncated = true
+                }
+                if (messages.isNotEmpty()) {
+                    saveJob = launch { saveChatMessagesUseCase(chatId = chatId, messages = messages) }
+                    oldestTimestamp = minOf(
+                        oldestTimestamp ?: Long.MAX_VALUE,
+                        messages.minOf { it.timestamp },
+                    )
+                }
+                fetchedCount += messages.size
+                refetchedCount += messages.count { it.timestamp <= newestStoredTimestamp }
+            } while (loadStatus != ChatHistoryLoadStatus.NONE && !isTruncated && refetchedCount < overlap)
+            saveJob?.join()
+        }
+
+        if (loadStatus == ChatHistoryLoadStatus.NONE && !isTruncated) {
+            // The history no longer has the stored messages older than its beginning
+            when (val oldest = oldestTimestamp) {
+                null -> clearChatMessagesUseCase(chatId = chatId, clearPendingMessages = false)
+                else -> chatMessageRepository.truncateMessages(chatId, oldest - 1)
+            }
+        }
+
+        return ResumeChatHistoryResult(
+            fetchedCount = fetchedCount,
+            refetchedCount = refetchedCount,
+            isEndOfHistory = loadStatus == ChatHistoryLoadStatus.NONE || isTruncated,
+        )
+    }
+}
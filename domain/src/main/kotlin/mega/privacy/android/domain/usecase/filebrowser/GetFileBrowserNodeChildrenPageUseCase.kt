@@ -0,0 +1,49 @@
+package mega.privacy.android.domain.usecase.filebrowser
+
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.TypedNode
+import mega.privacy.android.domain.repository.NodeRepository
+import mega.privacy.android.domain.usecase.GetCloudSortOrder
+import mega.privacy.android.domain.usecase.GetRootNodeUseCase
+import mega.privacy.android.domain.usecase.node.AddNodesTypeUseCase
+import javax.inject.Inject
+
+/**
+ * Get a page of the sorted children nodes of the browser parent handle
+ *
+ * Only the children of the page are mapped, so the first screen of a large folder can be shown
+ * before the rest of its children are retrieved with [GetFileBrowserNodeChildrenUseCase].
+ *
+ *  @property getRootNodeUseCase
+ *  @property getCloudSortOrder
+ *  @property nodeRepository
+ *  @property addNodesTypeUseCase
+ */
+class GetFileBrowserNodeChildrenPageUseCase @Inject constructor(
+    private val getRootNodeUseCase: GetRootNodeUseCase,
+    private val getCloudSortOrder: GetCloudSortOrder,
+    private val nodeRepository: NodeRepository,
+    private val addNodesTypeUseCase: AddNodesTypeUseCase,
+) {
+
+    /**
+     * Get a page of the children nodes of the browser parent handle
+     *
+     * @param parentHandle
+     * @param offset position of the first child of the page in the sorted children
+     * @param size maximum number of children of the page
+     * @return Children nodes of the page, fewer than [size] if it is the last one
+     */
+    suspend operator fun invoke(parentHandle: Long, offset: Int, size: Int): List<TypedNode> {
+        val nodeId =
+            (if (parentHandle != nodeRepository.getInvalidHandle()) NodeId(parentHandle) else getRootNodeUseCase()?.id)
+                ?: return emptyList()
+        val childNodes = nodeRepository.getNodeChildrenPage(
+            nodeId = nodeId,
+            order = getCloudSortOrder(),
+            offset = offset,
+            size = size,
+        )
+        return addNodesTypeUseCase(childNodes)
+    }
+}
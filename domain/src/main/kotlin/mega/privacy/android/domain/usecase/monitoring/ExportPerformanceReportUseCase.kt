@@ -0,0 +1,21 @@
+package mega.privacy.android.domain.usecase.monitoring
+
+import mega.privacy.android.domain.entity.monitoring.PerformanceReportFormat
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import javax.inject.Inject
+
+/**
+ * Use case to write the performance data collected on the device to a file
+ */
+class ExportPerformanceReportUseCase @Inject constructor(
+    private val performanceReporterRepository: PerformanceReporterRepository,
+) {
+    /**
+     * Invoke
+     *
+     * @param format    Format of the file
+     * @return the file of the report
+     */
+    suspend operator fun invoke(format: PerformanceReportFormat = PerformanceReportFormat.Json) =
+        performanceReporterRepository.exportReport(format)
+}
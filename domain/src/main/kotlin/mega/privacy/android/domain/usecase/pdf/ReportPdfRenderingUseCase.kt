@@ -0,0 +1,42 @@
+package mega.privacy.android.domain.usecase.pdf
+
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import javax.inject.Inject
+
+/**
+ * Use case to report the rendering throughput of a PDF document, when it is closed
+ *
+ * @property performanceReporterRepository
+ */
+class ReportPdfRenderingUseCase @Inject constructor(
+    private val performanceReporterRepository: PerformanceReporterRepository,
+) {
+    /**
+     * Invoke
+     *
+     * @param renderedParts number of parts rendered by Pdfium
+     * @param partsPerSecond number of parts rendered per second of rendering
+     * @param droppedTasks number of tasks dropped because their parts were no longer visible
+     */
+    operator fun invoke(renderedParts: Int, partsPerSecond: Float, droppedTasks: Int) {
+        if (renderedParts == 0 && droppedTasks == 0) return
+        with(performanceReporterRepository) {
+            startTrace(PDF_RENDERING_TRACE)
+            putMetric(PDF_RENDERING_TRACE, RENDERED_PARTS_METRIC, renderedParts.toLong())
+            putMetric(
+                PDF_RENDERING_TRACE,
+                PARTS_PER_SECOND_METRIC,
+                Math.round(partsPerSecond).toLong()
+            )
+            putMetric(PDF_RENDERING_TRACE, DROPPED_TASKS_METRIC, droppedTasks.toLong())
+            stopTrace(PDF_RENDERING_TRACE)
+        }
+    }
+
+    companion object {
+        internal const val PDF_RENDERING_TRACE = "pdf_rendering"
+        internal const val RENDERED_PARTS_METRIC = "rendered_parts"
+        internal const val PARTS_PER_SECOND_METRIC = "parts_per_second"
+        internal const val DROPPED_TASKS_METRIC = "dropped_tasks"
+    }
+}
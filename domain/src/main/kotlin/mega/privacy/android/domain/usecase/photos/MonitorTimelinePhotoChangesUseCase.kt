@@ -0,0 +1,21 @@
+package mega.privacy.android.domain.usecase.photos
+
+import kotlinx.coroutines.flow.Flow
+import mega.privacy.android.domain.entity.photos.PhotoDelta
+import mega.privacy.android.domain.repository.PhotosRepository
+import javax.inject.Inject
+
+/**
+ * The use case to monitor the changes of the Timeline photos
+ */
+class MonitorTimelinePhotoChangesUseCase @Inject constructor(
+    private val photosRepository: PhotosRepository,
+) {
+
+    /**
+     * Monitor the changes of the timeline photos
+     *
+     * @return Flow<PhotoDelta>
+     */
+    operator fun invoke(): Flow<PhotoDelta> = photosRepository.monitorPhotoChanges()
+}
@@ -0,0 +1,58 @@
+package mega.privacy.android.domain.usecase.search
+
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import javax.inject.Inject
+
+/**
+ * Use case to report the latency of a search query typed by the user
+ *
+ * @property performanceReporterRepository
+ */
+class ReportSearchQueryUseCase @Inject constructor(
+    private val performanceReporterRepository: PerformanceReporterRepository,
+) {
+    /**
+     * Invoke
+     *
+     * @param timeToFirstResultsMillis time from the query until its first results were available,
+     * in milliseconds, or null if there were none
+     * @param timeToAllResultsMillis time from the query until all its results were available, in
+     * milliseconds, or null if it was superseded before
+     * @param resultCount number of results available when the query completed or was superseded
+     * @param isRefined true if the results were filtered from the results of the previous query,
+     * false if they were searched
+     */
+    operator fun invoke(
+        timeToFirstResultsMillis: Long?,
+        timeToAllResultsMillis: Long?,
+        resultCount: Int,
+        isRefined: Boolean,
+    ) {
+        with(performanceReporterRepository) {
+            startTrace(SEARCH_QUERY_TRACE)
+            putAttribute(SEARCH_QUERY_TRACE, REFINED_ATTRIBUTE, isRefined.toString())
+            putAttribute(
+                SEARCH_QUERY_TRACE,
+                SUPERSEDED_ATTRIBUTE,
+                (timeToAllResultsMillis == null).toString()
+            )
+            timeToFirstResultsMillis?.let {
+                putMetric(SEARCH_QUERY_TRACE, TIME_TO_FIRST_RESULTS_METRIC, it)
+            }
+            timeToAllResultsMillis?.let {
+                putMetric(SEARCH_QUERY_TRACE, TIME_TO_ALL_RESULTS_METRIC, it)
+            }
+            putMetric(SEARCH_QUERY_TRACE, RESULTS_METRIC, resultCount.toLong())
+            stopTrace(SEARCH_QUERY_TRACE)
+        }
+    }
+
+    companion object {
+        internal const val SEARCH_QUERY_TRACE = "search_query"
+        internal const val REFINED_ATTRIBUTE = "refined"
+        internal const val SUPERSEDED_ATTRIBUTE = "superseded"
+        internal const val TIME_TO_FIRST_RESULTS_METRIC = "time_to_first_results_ms"
+        internal const val TIME_TO_ALL_RESULTS_METRIC = "time_to_all_results_ms"
+        internal const val RESULTS_METRIC = "results"
+    }
+}
@@ -0,0 +1,195 @@
+package mega.privacy.android.domain.usecase.search
+
+import kotlinx.coroutines.NonCancellable
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.Flow
+import kotlinx.coroutines.flow.channelFlow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.withContext
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeSourceType
+import mega.privacy.android.domain.entity.node.TypedNode
+import mega.privacy.android.domain.entity.search.SearchParameters
+import mega.privacy.android.domain.entity.search.SearchResults
+import mega.privacy.android.domain.monitoring.CrashReporter
+import mega.privacy.android.domain.usecase.canceltoken.CancelCancelTokenUseCase
+import javax.inject.Inject
+import kotlin.coroutines.cancellation.CancellationException
+import kotlin.time.Duration
+import kotlin.time.TimeSource
+
+/**
+ * Search As You Type Use Case
+ *
+ * Searches a query typed by the user. The flow of a query is meant to be collected with
+ * collectLatest, so it is cancelled as soon as the next query is typed, and the search of a
+ * cancelled query is cancelled in the SDK too.
+ *
+ * A query that extends the text of the previous one, with the same filters, only matches nodes
+ * that the previous query matched, so if the previous results were complete they are filtered in
+ * memory. Otherwise, the search waits [SEARCH_DEBOUNCE_MILLIS] when it follows another query, so
+ * the queries superseded while typing are not searched, and the first [FIRST_RESULTS_SIZE] results
+ * of the search are emitted before the rest are mapped. The latency of every query is reported with
+ * [ReportSearchQueryUseCase].
+ */
+class SearchAsYouTypeUseCase @Inject constructor(
+    private val searchUseCase: SearchUseCase,
+    private val cancelCancelTokenUseCase: CancelCancelTokenUseCase,
+    private val reportSearchQueryUseCase: ReportSearchQueryUseCase,
+    private val crashReporter: CrashReporter,
+) {
+
+    /**
+     * Invocation
+     *
+     * @param parentHandle search parent
+     * @param nodeSourceType search type [NodeSourceType]
+     * @param searchParameters search parameters [SearchParameters]
+     * @param previousResults the results of the previous query, or null if there is no previous
+     * query or its results are outdated
+     *
+     * @return flow of the results of the query, the last ones are complete
+     */
+    operator fun invoke(
+        parentHandle: NodeId,
+        nodeSourceType: NodeSourceType,
+        searchParameters: SearchParameters,
+        previousResults: SearchResults?,
+    ): Flow<SearchResults> = flow {
+        val timeMark = TimeSource.Monotonic.markNow()
+        var timeToFirstResults: Duration? = null
+        var resultCount = 0
+        val refinedResults = previousResults?.takeIf {
+            it.isComplete && it.isRefinedBy(parentHandle, nodeSourceType, searchParameters)
+        }
+        val results = if (refinedResults != null) {
+            flow {
+                emit(
+                    SearchResults(
+                        parentHandle = parentHandle,
+                        nodeSourceType = nodeSourceType,
+                        parameters = searchParameters,
+                        nodes = refinedResults.nodes.filter { it.matches(searchParameters) },
+                        isComplete = true,
+                    )
+                )
+            }
+        } else {
+            search(parentHandle, nodeSourceType, searchParameters, previousResults != null)
+        }
+        try {
+            results.collect {
+                timeToFirstResults = timeToFirstResults ?: timeMark.elapsedNow()
+                resultCount = it.nodes.size
+                emit(it)
+            }
+        } catch (e: CancellationException) {
+            if (refinedResults == null) {
+                withContext(NonCancellable) { cancelCancelTokenUseCase() }
+            }
+            report(timeToFirstResults, null, resultCount, refinedResults != null)
+            throw e
+        }
+        report(timeToFirstResults, timeMark.elapsedNow(), resultCount, refinedResults != null)
+    }
+
+    private fun search(
+        parentHandle: NodeId,
+        nodeSourceType: NodeSourceType,
+        searchParameters: SearchParameters,
+        isTyping: Boolean,
+    ) = channelFlow {
+        if (isTyping) delay(SEARCH_DEBOUNCE_MILLIS)
+        cancelCancelTokenUseCase()
+        val allResults = searchUseCase(
+            parentHandle = parentHandle,
+            nodeSourceType = nodeSourceType,
+            searchParameters = searchParameters,
+            firstResultsSize = FIRST_RESULTS_SIZE,
+        ) { firstResults ->
+            send(
+                SearchResults(
+                    parentHandle = parentHandle,
+                    nodeSourceType = nodeSourceType,
+                    parameters = searchParameters,
+                    nodes = firstResults,
+                    isComplete = false,
+                )
+            )
+        }
+        send(
+            SearchResults(
+                parentHandle = parentHandle,
+                nodeSourceType = nodeSourceType,
+                parameters = searchParameters,
+                nodes = allResults,
+                isComplete = true,
+            )
+        )
+    }
+
+    private fun report(
+        timeToFirstResults: Duration?,
+        timeToAllResults: Duration?,
+        resultCount: Int,
+        isRefined: Boolean,
+    ) {
+        runCatching {
+            reportSearchQueryUseCase(
+                timeToFirstResultsMillis = timeToFirstResults?.inWholeMilliseconds,
+                timeToAllResultsMillis = timeToAllResults?.inWholeMilliseconds,
+                resultCount = resultCount,
+                isRefined = isRefined,
+            )
+        }.onFailure {
+            // Reporting never fails the search
+            crashReporter.log("Search query not reported: $it")
+        }
+    }
+
+    /**
+     * The SDK matches the text filters ignoring the case anywhere in the name, description or
+     * tags, so a longer text that starts with the previous one matches a subset of its nodes.
+     * The filters are combined with AND if there is only a name, and with OR otherwise.
+     */
+    private fun SearchResults.isRefinedBy(
+        parentHandle: NodeId,
+        nodeSourceType: NodeSourceType,
+        searchParameters: SearchParameters,
+    ) = this.parentHandle == parentHandle
+            && this.nodeSourceType == nodeSourceType
+            && parameters.query.isNotEmpty()
+            && searchParameters.query.length > parameters.query.length
+            && isRefinedBy(parameters.query, searchParameters.query)
+            && isRefinedBy(parameters.description, searchParameters.description)
+            && isRefinedBy(parameters.tag, searchParameters.tag)
+            && parameters == searchParameters.copy(
+        query = parameters.query,
+        description = parameters.description,
+        tag = parameters.tag,
+    )
+
+    private fun isRefinedBy(previous: String?, current: String?) = when {
+        previous == null || current == null -> previous == current
+        else -> previous.isNotEmpty() && !current.contains(WILDCARD)
+                && current.startsWith(previous, ignoreCase = true)
+    }
+
+    private fun TypedNode.matches(searchParameters: SearchParameters): Boolean =
+        with(searchParameters) {
+            val matchesName = name.contains(query, ignoreCase = true)
+            if (description == null && tag == null) {
+                matchesName
+            } else {
+                matchesName
+                        || description?.let { this@matches.description?.contains(it, true) } == true
+                        || tag?.let { tag -> tags?.any { it.contains(tag, true) } } == true
+            }
+        }
+
+    companion object {
+        internal const val FIRST_RESULTS_SIZE = 50
+        internal const val SEARCH_DEBOUNCE_MILLIS = 150L
+        private const val WILDCARD = '*'
+    }
+}
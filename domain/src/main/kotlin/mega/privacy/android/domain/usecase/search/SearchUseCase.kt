@@ -4,6 +4,7 @@ import mega.privacy.android.domain.entity.node.Node
 import mega.privacy.android.domain.entity.node.NodeId
 import mega.privacy.android.domain.entity.node.NodeSourceType
 import mega.privacy.android.domain.entity.node.TypedNode
+import mega.privacy.android.domain.entity.node.UnTypedNode
 import mega.privacy.android.domain.entity.search.SearchCategory
 import mega.privacy.android.domain.entity.search.SearchParameters
 import mega.privacy.android.domain.entity.search.SearchTarget
@@ -33,6 +34,9 @@ class SearchUseCase @Inject constructor(
      * @param parentHandle search parent
      * @param nodeSourceType search type [NodeSourceType]
      * @param searchParameters search parameters [SearchParameters]
+     * @param firstResultsSize number of results handed to [onFirstResults]
+     * @param onFirstResults if not null, receives the first [firstResultsSize] results of a search or
+     * a listing of children before the rest are mapped, when there are more
      *
      * @return list of search results or empty TypedNode
      */
@@ -40,9 +44,13 @@ class SearchUseCase @Inject constructor(
         parentHandle: NodeId,
         nodeSourceType: NodeSourceType,
         searchParameters: SearchParameters,
+        firstResultsSize: Int = 0,
+        onFirstResults: (suspend (List<TypedNode>) -> Unit)? = null,
     ): List<TypedNode> {
         val (query, searchTarget, searchCategory, modificationDate, creationDate, description, tag) = searchParameters
         val invalidNodeHandle = searchRepository.getInvalidHandle()
+        val onFirstUnTypedResults: (suspend (List<UnTypedNode>) -> Unit)? =
+            onFirstResults?.let { { nodes -> it(addNodesTypeUseCase(nodes)) } }
         val searchList = when {
             // Favourites Root (No Search applied)
             query.isEmpty() && parentHandle == invalidNodeHandle && nodeSourceType == NodeSourceType.FAVOURITES ->
@@ -65,6 +73,8 @@ class SearchUseCase @Inject constructor(
                     nodeId = getSearchParentNode(nodeSourceType, parentHandle, invalidNodeHandle),
                     order = getCloudSortOrder(),
                     parameters = searchParameters,
+                    firstResultsSize = firstResultsSize,
+                    onFirstResults = onFirstUnTypedResults,
                 )
 
             // Tag search recursively
@@ -72,13 +82,17 @@ class SearchUseCase @Inject constructor(
                 nodeId = getSearchParentNode(nodeSourceType, parentHandle, invalidNodeHandle),
                 order = getCloudSortOrder(),
                 parameters = searchParameters,
+                firstResultsSize = firstResultsSize,
+                onFirstResults = onFirstUnTypedResults,
             )
 
             // General Children (Non Query Search applied)
-            query.isEmpty() && searchCategory == SearchCategory.ALL && modificationDate == null && creationDate == null -> searchRepository.getChildren(
+            searchParameters.isChildrenListing() -> searchRepository.getChildren(
                 nodeId = getSearchParentNode(nodeSourceType, parentHandle, invalidNodeHandle),
                 order = getCloudSortOrder(),
                 parameters = searchParameters,
+                firstResultsSize = firstResultsSize,
+                onFirstResults = onFirstUnTypedResults,
             )
 
             // General Root (Query Search applied)
@@ -86,6 +100,8 @@ class SearchUseCase @Inject constructor(
                 nodeId = getSearchParentNode(nodeSourceType, parentHandle, invalidNodeHandle),
                 order = getCloudSortOrder(),
                 parameters = searchParameters,
+                firstResultsSize = firstResultsSize,
+                onFirstResults = onFirstUnTypedResults,
             )
         }
         return addNodesTypeUseCase(searchList)
@@ -112,4 +128,13 @@ class SearchUseCase @Inject constructor(
     } else {
         parentHandle
     }
-}
\ No newline at end of file
+}
+
+/**
+ * Check if the nodes are listed among the children of the parent rather than searched in its
+ * descendants: there is no query nor tag, and no file type nor date filter. A description is
+ * matched among the children.
+ */
+internal fun SearchParameters.isChildrenListing() =
+    query.isEmpty() && tag.isNullOrEmpty() && searchCategory == SearchCategory.ALL
+            && modificationDate == null && creationDate == null
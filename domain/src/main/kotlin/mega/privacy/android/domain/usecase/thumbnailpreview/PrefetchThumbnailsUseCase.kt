@@ -0,0 +1,21 @@
+package mega.privacy.android.domain.usecase.thumbnailpreview
+
+import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailPrefetchPriority
+import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
+import javax.inject.Inject
+
+/**
+ * Use case to prefetch the thumbnails of the items around the scroll position of a list
+ */
+class PrefetchThumbnailsUseCase @Inject constructor(
+    private val thumbnailPreviewRepository: ThumbnailPreviewRepository,
+) {
+    /**
+     * Invoke
+     *
+     * @param handles the handles of the nodes, in the order they should be fetched
+     * @param priority the [ThumbnailPrefetchPriority] of the nodes
+     */
+    suspend operator fun invoke(handles: List<Long>, priority: ThumbnailPrefetchPriority) =
+        thumbnailPreviewRepository.prefetchThumbnails(handles, priority)
+}
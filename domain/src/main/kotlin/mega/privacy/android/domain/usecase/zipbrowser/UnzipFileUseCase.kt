@@ -15,12 +15,10 @@ class UnzipFileUseCase @Inject constructor(
      * Unzip file
      * @param  zipFile ZipFile
      * @param unzipRootPath unzip destination path
-     * @return true is unzip succeed.
+     * @param path the path of the folder or file to extract with its children, or null to extract
+     * all the entries
+     * @return the progress of the extraction, completing when the entries are extracted
      */
-    suspend operator fun invoke(zipFile: ZipFile?, unzipRootPath: String?) =
-        if (zipFile != null && unzipRootPath != null) {
-            zipBrowserRepository.unzipFile(zipFile, unzipRootPath)
-        } else {
-            false
-        }
-}
\ No newline at end of file
+    operator fun invoke(zipFile: ZipFile, unzipRootPath: String, path: String? = null) =
+        zipBrowserRepository.unzipFile(zipFile, unzipRootPath, path)
+}
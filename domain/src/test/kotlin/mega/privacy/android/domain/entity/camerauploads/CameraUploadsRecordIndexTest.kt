@@ -0,0 +1,50 @@
+package mega.privacy.android.domain.entity.camerauploads
+
+import com.google.common.truth.Truth.assertThat
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class CameraUploadsRecordIndexTest {
+
+    @Test
+    fun `test that a record added is contained in the index`() {
+        val underTest = CameraUploadsRecordIndex()
+
+        underTest.add(1111L, 1234L)
+
+        assertThat(underTest.contains(1111L, 1234L)).isTrue()
+    }
+
+    @Test
+    fun `test that a record is only contained if both the media id and timestamp match`() {
+        val underTest = CameraUploadsRecordIndex()
+
+        underTest.add(1111L, 1234L)
+
+        assertThat(underTest.contains(1111L, 5678L)).isFalse()
+        assertThat(underTest.contains(2222L, 1234L)).isFalse()
+    }
+
+    @Test
+    fun `test that adding a record twice does not change the size of the index`() {
+        val underTest = CameraUploadsRecordIndex()
+
+        assertThat(underTest.add(1111L, 1234L)).isTrue()
+        assertThat(underTest.add(1111L, 1234L)).isFalse()
+        assertThat(underTest.size).isEqualTo(1)
+    }
+
+    @Test
+    fun `test that all the records are kept when the index grows beyond its expected size`() {
+        val underTest = CameraUploadsRecordIndex(expectedSize = 4)
+        val records = (1..10_000L).map { it to it * 1000L }
+
+        records.forEach { (mediaId, timestamp) -> underTest.add(mediaId, timestamp) }
+
+        assertThat(underTest.size).isEqualTo(records.size)
+        assertThat(records.all { (mediaId, timestamp) -> underTest.contains(mediaId, timestamp) })
+            .isTrue()
+        assertThat(underTest.contains(10_001L, 10_001_000L)).isFalse()
+    }
+}
@@ -0,0 +1,161 @@
+package mega.privacy.android.domain.usecase.camerauploads
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.CameraUploadsRecordType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordUploadStatus
+import mega.privacy.android.domain.entity.node.NodeId
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.argumentCaptor
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PrepareCameraUploadsRecordsUseCaseTest {
+    private lateinit var underTest: PrepareCameraUploadsRecordsUseCase
+
+    private val doesCameraUploadsRecordExistsInTargetNodeUseCase =
+        mock<DoesCameraUploadsRecordExistsInTargetNodeUseCase>()
+    private val renameCameraUploadsRecordsUseCase = mock<RenameCameraUploadsRecordsUseCase>()
+    private val extractGpsCoordinatesUseCase = mock<ExtractGpsCoordinatesUseCase>()
+
+    private val primaryUploadNodeId = NodeId(1111L)
+    private val secondaryUploadNodeId = NodeId(2222L)
+
+    private fun getRecordList(size: Int) = (1..size).map {
+        CameraUploadsRecord(
+            mediaId = it.toLong(),
+            fileName = "fileName$it.jpg",
+            filePath = "filePath$it",
+            timestamp = it.toLong(),
+            folderType = CameraUploadFolderType.Primary,
+            type = CameraUploadsRecordType.TYPE_PHOTO,
+            uploadStatus = CameraUploadsRecordUploadStatus.PENDING,
+            originalFingerprint = "originalFingerprint$it",
+            generatedFingerprint = null,
+            tempFilePath = "tempFilePath$it",
+        )
+    }
+
+    @BeforeAll
+    fun setUp() {
+        underTest = PrepareCameraUploadsRecordsUseCase(
+            doesCameraUploadsRecordExistsInTargetNodeUseCase = doesCameraUploadsRecordExistsInTargetNodeUseCase,
+            renameCameraUploadsRecordsUseCase = renameCameraUploadsRecordsUseCase,
+            extractGpsCoordinatesUseCase = extractGpsCoordinatesUseCase,
+        )
+    }
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(
+            doesCameraUploadsRecordExistsInTargetNodeUseCase,
+            renameCameraUploadsRecordsUseCase,
+            extractGpsCoordinatesUseCase,
+        )
+    }
+
+    private suspend fun stubStagesAsIdentity() {
+        whenever(
+            doesCameraUploadsRecordExistsInTargetNodeUseCase(
+                any(),
+                eq(primaryUploadNodeId),
+                eq(secondaryUploadNodeId),
+            )
+        ).thenAnswer { it.arguments[0] }
+        whenever(
+            renameCameraUploadsRecordsUseCase(
+                any(),
+                eq(primaryUploadNodeId),
+                eq(secondaryUploadNodeId),
+                any(),
+            )
+        ).thenAnswer { it.arguments[0] }
+        whenever(extractGpsCoordinatesUseCase(any())).thenAnswer { it.arguments[0] }
+    }
+
+    @Test
+    fun `test that the records are emitted in batches in the original order`() = runTest {
+        stubStagesAsIdentity()
+        val records = getRecordList(PrepareCameraUploadsRecordsUseCase.BATCH_SIZE * 2 + 1)
+
+        val actual = underTest(records, primaryUploadNodeId, secondaryUploadNodeId).toList()
+
+        assertThat(actual.map { it.size }).containsExactly(
+            PrepareCameraUploadsRecordsUseCase.BATCH_SIZE,
+            PrepareCameraUploadsRecordsUseCase.BATCH_SIZE,
+            1,
+        ).inOrder()
+        assertThat(actual.flatten()).isEqualTo(records)
+    }
+
+    @Test
+    fun `test that each batch goes through every stage`() = runTest {
+        stubStagesAsIdentity()
+        val records = getRecordList(PrepareCameraUploadsRecordsUseCase.BATCH_SIZE + 1)
+
+        underTest(records, primaryUploadNodeId, secondaryUploadNodeId).toList()
+
+        verify(renameCameraUploadsRecordsUseCase, times(2))
+            .invoke(any(), eq(primaryUploadNodeId), eq(secondaryUploadNodeId), any())
+        verify(extractGpsCoordinatesUseCase, times(2)).invoke(any())
+    }
+
+    @Test
+    fun `test that the same generated file names are shared across the batches`() = runTest {
+        stubStagesAsIdentity()
+        val records = getRecordList(PrepareCameraUploadsRecordsUseCase.BATCH_SIZE + 1)
+        val captor = argumentCaptor<MutableSet<Pair<CameraUploadFolderType, String>>>()
+
+        underTest(records, primaryUploadNodeId, secondaryUploadNodeId).toList()
+
+        verify(renameCameraUploadsRecordsUseCase, times(2)).invoke(
+            any(),
+            eq(primaryUploadNodeId),
+            eq(secondaryUploadNodeId),
+            captor.capture(),
+        )
+        assertThat(captor.firstValue).isSameInstanceAs(captor.secondValue)
+    }
+
+    @Test
+    fun `test that the batches emptied by the existence check are not forwarded to the next stages`() = runTest {
+        whenever(
+            doesCameraUploadsRecordExistsInTargetNodeUseCase(
+                any(),
+                eq(primaryUploadNodeId),
+                eq(secondaryUploadNodeId),
+            )
+        ).thenReturn(emptyList())
+
+        val actual = underTest(getRecordList(2), primaryUploadNodeId, secondaryUploadNodeId)
+            .toList()
+
+        assertThat(actual).isEmpty()
+        verifyNoInteractions(renameCameraUploadsRecordsUseCase, extractGpsCoordinatesUseCase)
+    }
+
+    @Test
+    fun `test that nothing is emitted if the list of records is empty`() = runTest {
+        val actual = underTest(emptyList(), primaryUploadNodeId, secondaryUploadNodeId).toList()
+
+        assertThat(actual).isEmpty()
+        verifyNoInteractions(
+            doesCameraUploadsRecordExistsInTargetNodeUseCase,
+            renameCameraUploadsRecordsUseCase,
+            extractGpsCoordinatesUseCase,
+        )
+    }
+}
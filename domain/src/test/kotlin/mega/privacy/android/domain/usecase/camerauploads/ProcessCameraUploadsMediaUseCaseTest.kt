@@ -1,24 +1,36 @@
 package mega.privacy.android.domain.usecase.camerauploads
 
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.CancellationException
+import kotlinx.coroutines.flow.emptyFlow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOf
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreScanCheckpoint
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreVolumeGeneration
+import mega.privacy.android.domain.exception.camerauploads.MediaNotRetrievedException
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.DisplayName
 import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.assertThrows
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.MethodSource
 import org.mockito.kotlin.any
 import org.mockito.kotlin.eq
+import org.mockito.kotlin.inOrder
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.verify
+import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 import java.util.stream.Stream
 
@@ -33,6 +45,9 @@ class ProcessCameraUploadsMediaUseCaseTest {
     private val isMediaUploadsEnabledUseCase = mock<IsMediaUploadsEnabledUseCase>()
     private val retrieveMediaFromMediaStoreUseCase = mock<RetrieveMediaFromMediaStoreUseCase>()
     private val saveCameraUploadsRecordUseCase = mock<SaveCameraUploadsRecordUseCase>()
+    private val getMediaStoreVolumeGenerationsUseCase = mock<GetMediaStoreVolumeGenerationsUseCase>()
+    private val getMediaStoreScanCheckpointUseCase = mock<GetMediaStoreScanCheckpointUseCase>()
+    private val setMediaStoreScanCheckpointUseCase = mock<SetMediaStoreScanCheckpointUseCase>()
 
     @BeforeAll
     fun setUp() {
@@ -43,11 +58,14 @@ class ProcessCameraUploadsMediaUseCaseTest {
             isMediaUploadsEnabledUseCase = isMediaUploadsEnabledUseCase,
             retrieveMediaFromMediaStoreUseCase = retrieveMediaFromMediaStoreUseCase,
             saveCameraUploadsRecordUseCase = saveCameraUploadsRecordUseCase,
+            getMediaStoreVolumeGenerationsUseCase = getMediaStoreVolumeGenerationsUseCase,
+            getMediaStoreScanCheckpointUseCase = getMediaStoreScanCheckpointUseCase,
+            setMediaStoreScanCheckpointUseCase = setMediaStoreScanCheckpointUseCase,
         )
     }
 
     @BeforeEach
-    fun resetMock() {
+    fun resetMock() = runTest {
         reset(
             getPrimaryFolderPathUseCase,
             getSecondaryFolderPathUseCase,
@@ -55,7 +73,11 @@ class ProcessCameraUploadsMediaUseCaseTest {
             isMediaUploadsEnabledUseCase,
             retrieveMediaFromMediaStoreUseCase,
             saveCameraUploadsRecordUseCase,
+            getMediaStoreVolumeGenerationsUseCase,
+            getMediaStoreScanCheckpointUseCase,
+            setMediaStoreScanCheckpointUseCase,
         )
+        whenever(getMediaStoreVolumeGenerationsUseCase()).thenReturn(emptyList())
     }
 
     @TestInstance(TestInstance.Lifecycle.PER_CLASS)
@@ -74,8 +96,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val tempRoot = "tempRoot"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(emptyFlow())
             whenever(isMediaUploadsEnabledUseCase()).thenReturn(false)
 
             val (photoFileTypes, videoFileTypes) = mediaStoreFileType.partition { it.isImageFileType() }
@@ -108,8 +130,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val tempRoot = "tempRoot"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(emptyFlow())
             whenever(isMediaUploadsEnabledUseCase()).thenReturn(false)
 
             val (photoFileTypes, videoFileTypes) = mediaStoreFileType.partition { it.isImageFileType() }
@@ -142,8 +164,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val tempRoot = "tempRoot"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(emptyFlow())
             whenever(isMediaUploadsEnabledUseCase()).thenReturn(false)
 
             val types = mediaStoreFileType.partition { it.isImageFileType() }
@@ -175,8 +197,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val secondaryFolderPath = "secondaryFolderPath"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(emptyFlow())
             whenever(isMediaUploadsEnabledUseCase()).thenReturn(false)
             whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -188,6 +210,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                 any(),
                 any(),
                 any(),
+                any(),
             )
         }
 
@@ -202,8 +225,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val tempRoot = "tempRoot"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(emptyFlow())
             whenever(isMediaUploadsEnabledUseCase()).thenReturn(true)
             whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -238,8 +261,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val tempRoot = "tempRoot"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(emptyFlow())
             whenever(isMediaUploadsEnabledUseCase()).thenReturn(true)
             whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -274,8 +297,8 @@ class ProcessCameraUploadsMediaUseCaseTest {
             val tempRoot = "tempRoot"
             whenever(getMediaStoreFileTypesUseCase()).thenReturn(mediaStoreFileType)
             whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
-            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any()))
-                .thenReturn(emptyList())
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(emptyFlow())
             whenever(isMediaUploadsEnabledUseCase()).thenReturn(true)
             whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
@@ -307,7 +330,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
 
         @ParameterizedTest(name = "when file type list is {0}")
         @MethodSource("mega.privacy.android.domain.usecase.camerauploads.ProcessCameraUploadsMediaUseCaseTest#provideAllMediaStoreFileTypeParameters")
-        fun `test that it returns the combination of all the camera uploads record retrieved`(
+        fun `test that all the camera uploads records retrieved are saved`(
             mediaStoreFileType: List<MediaStoreFileType>,
         ) =
             runTest {
@@ -344,7 +367,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                         photoRecordType,
                         tempRoot
                     )
-                ).thenReturn(photoPrimaryRecordList)
+                ).thenReturn(flowOf(photoPrimaryRecordList))
                 whenever(
                     retrieveMediaFromMediaStoreUseCase(
                         primaryFolderPath,
@@ -353,7 +376,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                         videoRecordType,
                         tempRoot
                     )
-                ).thenReturn(videoPrimaryRecordList)
+                ).thenReturn(flowOf(videoPrimaryRecordList))
                 whenever(
                     retrieveMediaFromMediaStoreUseCase(
                         secondaryFolderPath,
@@ -362,7 +385,7 @@ class ProcessCameraUploadsMediaUseCaseTest {
                         photoRecordType,
                         tempRoot
                     )
-                ).thenReturn(photoSecondaryRecordList)
+                ).thenReturn(flowOf(photoSecondaryRecordList))
                 whenever(
                     retrieveMediaFromMediaStoreUseCase(
                         secondaryFolderPath,
@@ -371,15 +394,187 @@ class ProcessCameraUploadsMediaUseCaseTest {
                         videoRecordType,
                         tempRoot
                     )
-                ).thenReturn(videoSecondaryRecordList)
+                ).thenReturn(flowOf(videoSecondaryRecordList))
                 whenever(isMediaUploadsEnabledUseCase()).thenReturn(true)
                 whenever(getSecondaryFolderPathUseCase()).thenReturn(secondaryFolderPath)
 
-                val expected =
-                    photoPrimaryRecordList + videoPrimaryRecordList + photoSecondaryRecordList + videoSecondaryRecordList
-
                 underTest.invoke(tempRoot)
-                verify(saveCameraUploadsRecordUseCase).invoke(expected)
+                listOf(
+                    photoPrimaryRecordList,
+                    videoPrimaryRecordList,
+                    photoSecondaryRecordList,
+                    videoSecondaryRecordList,
+                ).filter { it.isNotEmpty() }.forEach {
+                    verify(saveCameraUploadsRecordUseCase).invoke(it)
+                }
+            }
+    }
+
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    @Nested
+    @DisplayName("test that the media store scan checkpoints are used")
+    inner class ScanCheckpoints {
+
+        private val primaryFolderPath = "primaryFolderPath"
+        private val tempRoot = "tempRoot"
+        private val photoTypes = listOf(MediaStoreFileType.IMAGES_EXTERNAL)
+        private val volume = MediaStoreVolumeGeneration(
+            volumeName = "external_primary",
+            version = "version",
+            generation = 20L,
+        )
+        private val lastVolume = volume.copy(generation = 10L)
+
+        @BeforeEach
+        fun setUp() = runTest {
+            whenever(getMediaStoreFileTypesUseCase()).thenReturn(photoTypes)
+            whenever(getPrimaryFolderPathUseCase()).thenReturn(primaryFolderPath)
+            whenever(isMediaUploadsEnabledUseCase()).thenReturn(false)
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(emptyFlow())
+        }
+
+        @Test
+        fun `test that only the media changed since the last checkpoint are retrieved if it is still valid`() =
+            runTest {
+                whenever(getMediaStoreVolumeGenerationsUseCase()).thenReturn(listOf(volume))
+                whenever(
+                    getMediaStoreScanCheckpointUseCase(
+                        CameraUploadFolderType.Primary,
+                        CameraUploadsRecordType.TYPE_PHOTO,
+                    )
+                ).thenReturn(MediaStoreScanCheckpoint(primaryFolderPath, photoTypes, listOf(lastVolume)))
+
+                underTest(tempRoot)
+
+                verify(retrieveMediaFromMediaStoreUseCase).invoke(
+                    primaryFolderPath,
+                    photoTypes,
+                    CameraUploadFolderType.Primary,
+                    CameraUploadsRecordType.TYPE_PHOTO,
+                    tempRoot,
+                    listOf(lastVolume),
+                )
+            }
+
+        @Test
+        fun `test that the volumes which version changed are scanned entirely`() = runTest {
+            whenever(getMediaStoreVolumeGenerationsUseCase()).thenReturn(listOf(volume))
+            whenever(
+                getMediaStoreScanCheckpointUseCase(
+                    CameraUploadFolderType.Primary,
+                    CameraUploadsRecordType.TYPE_PHOTO,
+                )
+            ).thenReturn(
+                MediaStoreScanCheckpoint(
+                    primaryFolderPath,
+                    photoTypes,
+                    listOf(lastVolume.copy(version = "oldVersion")),
+                )
+            )
+
+            underTest(tempRoot)
+
+            verify(retrieveMediaFromMediaStoreUseCase).invoke(
+                primaryFolderPath,
+                photoTypes,
+                CameraUploadFolderType.Primary,
+                CameraUploadsRecordType.TYPE_PHOTO,
+                tempRoot,
+                emptyList(),
+            )
+        }
+
+        @Test
+        fun `test that the media are all retrieved if the folder path changed since the last checkpoint`() =
+            runTest {
+                whenever(getMediaStoreVolumeGenerationsUseCase()).thenReturn(listOf(volume))
+                whenever(
+                    getMediaStoreScanCheckpointUseCase(
+                        CameraUploadFolderType.Primary,
+                        CameraUploadsRecordType.TYPE_PHOTO,
+                    )
+                ).thenReturn(MediaStoreScanCheckpoint("oldPath", photoTypes, listOf(lastVolume)))
+
+                underTest(tempRoot)
+
+                verify(retrieveMediaFromMediaStoreUseCase).invoke(
+                    primaryFolderPath,
+                    photoTypes,
+                    CameraUploadFolderType.Primary,
+                    CameraUploadsRecordType.TYPE_PHOTO,
+                    tempRoot,
+                    emptyList(),
+                )
+            }
+
+        @Test
+        fun `test that the new checkpoint is set after the records of every batch are saved`() = runTest {
+            val firstBatch = listOf<CameraUploadsRecord>(mock())
+            val secondBatch = listOf<CameraUploadsRecord>(mock())
+            whenever(getMediaStoreVolumeGenerationsUseCase()).thenReturn(listOf(volume))
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(flowOf(firstBatch, secondBatch))
+
+            underTest(tempRoot)
+
+            val inOrder = inOrder(saveCameraUploadsRecordUseCase, setMediaStoreScanCheckpointUseCase)
+            inOrder.verify(saveCameraUploadsRecordUseCase).invoke(firstBatch)
+            inOrder.verify(saveCameraUploadsRecordUseCase).invoke(secondBatch)
+            inOrder.verify(setMediaStoreScanCheckpointUseCase).invoke(
+                CameraUploadFolderType.Primary,
+                CameraUploadsRecordType.TYPE_PHOTO,
+                MediaStoreScanCheckpoint(primaryFolderPath, photoTypes, listOf(volume)),
+            )
+        }
+
+        @Test
+        fun `test that the checkpoint is not set and the error is returned if the media store cannot be read`() =
+            runTest {
+                val error = RuntimeException("error")
+                whenever(getMediaStoreVolumeGenerationsUseCase()).thenReturn(listOf(volume))
+                whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                    .thenReturn(flow { throw error })
+
+                assertThat(underTest(tempRoot)).containsExactly(error)
+                verifyNoInteractions(saveCameraUploadsRecordUseCase, setMediaStoreScanCheckpointUseCase)
+            }
+
+        @Test
+        fun `test that the records mapped are saved but the checkpoint is not set if some media could not be mapped`() =
+            runTest {
+                val records = listOf<CameraUploadsRecord>(mock())
+                val error = MediaNotRetrievedException(1, RuntimeException("error"))
+                whenever(getMediaStoreVolumeGenerationsUseCase()).thenReturn(listOf(volume))
+                whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                    .thenReturn(flow {
+                        emit(records)
+                        throw error
+                    })
+
+                assertThat(underTest(tempRoot)).containsExactly(error)
+                verify(saveCameraUploadsRecordUseCase).invoke(records)
+                verifyNoInteractions(setMediaStoreScanCheckpointUseCase)
+            }
+
+        @Test
+        fun `test that the cancellation of a scan is not caught`() = runTest {
+            whenever(retrieveMediaFromMediaStoreUseCase(any(), any(), any(), any(), any(), any()))
+                .thenReturn(flow { throw CancellationException("cancelled") })
+
+            assertThrows<CancellationException> { underTest(tempRoot) }
+            verifyNoInteractions(setMediaStoreScanCheckpointUseCase)
+        }
+
+        @Test
+        fun `test that no checkpoint is used if the volume generations are not supported`() =
+            runTest {
+                underTest(tempRoot)
+
+                verifyNoInteractions(
+                    getMediaStoreScanCheckpointUseCase,
+                    setMediaStoreScanCheckpointUseCase,
+                )
             }
     }
 
@@ -283,6 +283,40 @@ class RenameCameraUploadsRecordsUseCaseTest {
         assertThat(actual).isEqualTo(expected)
     }
 
+    @ParameterizedTest(name = "when folder type is {0}")
+    @MethodSource("provideFolderTypeParameters")
+    fun `test that if the file name has been generated in a previous invocation, the file name is kept and an index suffix is added`(
+        folderType: CameraUploadFolderType,
+    ) = runTest {
+        val recordList = getRecordList(folderType)
+        val generatedFileNames = hashSetOf<Pair<CameraUploadFolderType, String>>()
+
+        whenever(areUploadFileNamesKeptUseCase()).thenReturn(true)
+
+        underTest(
+            listOf(recordList[0]),
+            primaryUploadNodeId,
+            secondaryUploadNodeId,
+            generatedFileNames,
+        )
+        val renamedList = underTest(
+            listOf(recordList[1]),
+            primaryUploadNodeId,
+            secondaryUploadNodeId,
+            generatedFileNames,
+        )
+
+        val actual = renamedList[0].generatedFileName
+        val name = recordList[1].fileName.substringBeforeLast(".", "")
+        val extension = recordList[1].fileName.substringAfterLast(".", "")
+        val expected = "${name}_1.$extension"
+        assertThat(actual).isEqualTo(expected)
+        assertThat(generatedFileNames).containsExactly(
+            folderType to recordList[0].fileName,
+            folderType to expected,
+        )
+    }
+
     private fun provideFolderTypeParameters(): Stream<Arguments> =
         Stream.of(
             Arguments.of(CameraUploadFolderType.Primary),
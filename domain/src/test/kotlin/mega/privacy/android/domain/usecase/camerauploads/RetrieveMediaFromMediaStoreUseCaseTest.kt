@@ -2,20 +2,30 @@ package mega.privacy.android.domain.usecase.camerauploads
 
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.flow.asFlow
+import kotlinx.coroutines.flow.flow
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.MediaStoreFileType
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadFolderType
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsMedia
 import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecord
+import mega.privacy.android.domain.entity.camerauploads.CameraUploadsRecordIndex
+import mega.privacy.android.domain.entity.camerauploads.MediaStoreVolumeGeneration
+import mega.privacy.android.domain.exception.camerauploads.MediaNotRetrievedException
 import mega.privacy.android.domain.repository.CameraUploadsRepository
 import mega.privacy.android.domain.usecase.camerauploads.mapper.CameraUploadsRecordMapper
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.api.assertThrows
 import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.whenever
 
 /**
@@ -63,17 +73,19 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
                 .thenReturn(selectionQuery)
             whenever(
-                cameraUploadsRepository.getMediaList(
+                cameraUploadsRepository.getMediaBatches(
                     mediaStoreFileType1,
-                    selectionQuery
+                    selectionQuery,
+                    RetrieveMediaFromMediaStoreUseCase.MEDIA_BATCH_SIZE,
                 )
-            ).thenReturn(cameraUploadsMediaList1)
+            ).thenReturn(flowOf(cameraUploadsMediaList1))
             whenever(
-                cameraUploadsRepository.getMediaList(
+                cameraUploadsRepository.getMediaBatches(
                     mediaStoreFileType2,
-                    selectionQuery
+                    selectionQuery,
+                    RetrieveMediaFromMediaStoreUseCase.MEDIA_BATCH_SIZE,
                 )
-            ).thenReturn(cameraUploadsMediaList2)
+            ).thenReturn(flowOf(cameraUploadsMediaList2))
 
             val cameraUploadsRecordList1 = listOf<CameraUploadsRecord>(mock(), mock())
             val cameraUploadsRecordList2 = listOf<CameraUploadsRecord>(mock())
@@ -103,16 +115,17 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
                 )
             }
 
-            whenever(cameraUploadsRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
+            whenever(cameraUploadsRepository.getCameraUploadsRecordIndex(folderType))
+                .thenReturn(CameraUploadsRecordIndex())
 
             val expected = cameraUploadsRecordList1 + cameraUploadsRecordList2
 
-            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot))
+            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot).toList().flatten())
                 .isEqualTo(expected)
         }
 
     @Test
-    fun `test that if an error is thrown when mapping, the record is omitted in the result returned`() =
+    fun `test that if an error is thrown when mapping, the other records are emitted before the error is thrown`() =
         runTest {
             val parentPath = ""
             val mediaStoreFileType1 = mock<MediaStoreFileType>()
@@ -128,17 +141,19 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
                 .thenReturn(selectionQuery)
             whenever(
-                cameraUploadsRepository.getMediaList(
+                cameraUploadsRepository.getMediaBatches(
                     mediaStoreFileType1,
-                    selectionQuery
+                    selectionQuery,
+                    RetrieveMediaFromMediaStoreUseCase.MEDIA_BATCH_SIZE,
                 )
-            ).thenReturn(cameraUploadsMediaList1)
+            ).thenReturn(flowOf(cameraUploadsMediaList1))
             whenever(
-                cameraUploadsRepository.getMediaList(
+                cameraUploadsRepository.getMediaBatches(
                     mediaStoreFileType2,
-                    selectionQuery
+                    selectionQuery,
+                    RetrieveMediaFromMediaStoreUseCase.MEDIA_BATCH_SIZE,
                 )
-            ).thenReturn(cameraUploadsMediaList2)
+            ).thenReturn(flowOf(cameraUploadsMediaList2))
 
             val cameraUploadsRecordList1 = listOf<CameraUploadsRecord>(mock(), mock())
             cameraUploadsMediaList1.forEachIndexed { index, media ->
@@ -167,10 +182,15 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
                 )
             }
 
-            whenever(cameraUploadsRepository.getAllCameraUploadsRecords()).thenReturn(emptyList())
+            whenever(cameraUploadsRepository.getCameraUploadsRecordIndex(folderType))
+                .thenReturn(CameraUploadsRecordIndex())
 
-            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot))
-                .isEqualTo(cameraUploadsRecordList1)
+            val emitted = mutableListOf<CameraUploadsRecord>()
+            val error = assertThrows<MediaNotRetrievedException> {
+                underTest(parentPath, types, folderType, fileType, tempRoot).collect { emitted += it }
+            }
+            assertThat(emitted).isEqualTo(cameraUploadsRecordList1)
+            assertThat(error.failedCount).isEqualTo(1)
         }
 
     @Test
@@ -179,7 +199,7 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
             val parentPath = ""
             val mediaStoreFileType1 = mock<MediaStoreFileType>()
             val types = listOf(mediaStoreFileType1)
-            val folderType = mock<CameraUploadFolderType>()
+            val folderType = CameraUploadFolderType.Primary
             val fileType = mock<CameraUploadsRecordType>()
             val tempRoot = "tempRoot"
             val selectionQuery = "selectionQuery"
@@ -188,37 +208,138 @@ class RetrieveMediaFromMediaStoreUseCaseTest {
                 on { mediaId }.thenReturn(1111L)
                 on { timestamp }.thenReturn(1234L)
             }
-
-            val cameraUploadsRecord1 = mock<CameraUploadsRecord> {
+            val media2 = mock<CameraUploadsMedia> {
                 on { mediaId }.thenReturn(1111L)
-                on { timestamp }.thenReturn(1234L)
-                on { this.folderType }.thenReturn(CameraUploadFolderType.Primary)
+                on { timestamp }.thenReturn(5678L)
             }
 
-            val cameraUploadsMediaList1 = listOf(media1, mock())
             whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
                 .thenReturn(selectionQuery)
             whenever(
-                cameraUploadsRepository.getMediaList(mediaStoreFileType1, selectionQuery)
-            ).thenReturn(cameraUploadsMediaList1)
+                cameraUploadsRepository.getMediaBatches(
+                    mediaStoreFileType1,
+                    selectionQuery,
+                    RetrieveMediaFromMediaStoreUseCase.MEDIA_BATCH_SIZE,
+                )
+            ).thenReturn(flowOf(listOf(media1, media2)))
 
-            val cameraUploadsRecordList1 = listOf<CameraUploadsRecord>(mock(), mock())
-            cameraUploadsMediaList1.forEachIndexed { index, media ->
-                whenever(
-                    cameraUploadsRecordMapper(media, folderType, fileType, tempRoot)
-                ).thenReturn(
-                    cameraUploadsRecordList1[index]
+            val cameraUploadsRecord2 = mock<CameraUploadsRecord>()
+            whenever(cameraUploadsRecordMapper(media2, folderType, fileType, tempRoot))
+                .thenReturn(cameraUploadsRecord2)
+
+            whenever(cameraUploadsRepository.getCameraUploadsRecordIndex(folderType))
+                .thenReturn(CameraUploadsRecordIndex().apply { add(1111L, 1234L) })
+
+            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot).toList().flatten())
+                .containsExactly(cameraUploadsRecord2)
+            verify(cameraUploadsRecordMapper, never()).invoke(
+                media1,
+                folderType,
+                fileType,
+                tempRoot
+            )
+        }
+
+    @Test
+    fun `test that only the media changed since the volume generations are retrieved when provided`() =
+        runTest {
+            val parentPath = "parentPath"
+            val mediaStoreFileType1 = mock<MediaStoreFileType>()
+            val types = listOf(mediaStoreFileType1)
+            val folderType = CameraUploadFolderType.Secondary
+            val fileType = mock<CameraUploadsRecordType>()
+            val tempRoot = "tempRoot"
+            val selectionQuery = "changedSinceSelectionQuery"
+            val changedSince = listOf(
+                MediaStoreVolumeGeneration(
+                    volumeName = "external_primary",
+                    version = "version",
+                    generation = 10L,
                 )
-            }
+            )
+            val media = mock<CameraUploadsMedia>()
+            val record = mock<CameraUploadsRecord>()
+
+            whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath, changedSince))
+                .thenReturn(selectionQuery)
+            whenever(
+                cameraUploadsRepository.getMediaBatches(
+                    mediaStoreFileType1,
+                    selectionQuery,
+                    RetrieveMediaFromMediaStoreUseCase.MEDIA_BATCH_SIZE,
+                )
+            ).thenReturn(flowOf(listOf(media)))
+            whenever(cameraUploadsRecordMapper(media, folderType, fileType, tempRoot))
+                .thenReturn(record)
+            whenever(cameraUploadsRepository.getCameraUploadsRecordIndex(folderType))
+                .thenReturn(CameraUploadsRecordIndex())
 
-            whenever(cameraUploadsRepository.getAllCameraUploadsRecords())
-                .thenReturn(listOf(cameraUploadsRecord1))
+            assertThat(
+                underTest(parentPath, types, folderType, fileType, tempRoot, changedSince)
+                    .toList().flatten()
+            ).containsExactly(record)
+            verify(cameraUploadsRepository, never()).getMediaSelectionQuery(parentPath)
+        }
 
+    @Test
+    fun `test that the records of each batch retrieved from the Media Store are emitted separately`() =
+        runTest {
+            val parentPath = ""
+            val mediaStoreFileType1 = mock<MediaStoreFileType>()
+            val folderType = CameraUploadFolderType.Primary
+            val fileType = mock<CameraUploadsRecordType>()
+            val tempRoot = "tempRoot"
+            val selectionQuery = "selectionQuery"
+            val batches = listOf(
+                listOf<CameraUploadsMedia>(mock(), mock()),
+                listOf<CameraUploadsMedia>(mock()),
+            )
+            val records = batches.flatten().map { media ->
+                mock<CameraUploadsRecord>().also {
+                    whenever(cameraUploadsRecordMapper(media, folderType, fileType, tempRoot))
+                        .thenReturn(it)
+                }
+            }
+            whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
+                .thenReturn(selectionQuery)
+            whenever(
+                cameraUploadsRepository.getMediaBatches(
+                    mediaStoreFileType1,
+                    selectionQuery,
+                    RetrieveMediaFromMediaStoreUseCase.MEDIA_BATCH_SIZE,
+                )
+            ).thenReturn(batches.asFlow())
+            whenever(cameraUploadsRepository.getCameraUploadsRecordIndex(folderType))
+                .thenReturn(CameraUploadsRecordIndex())
 
-            val expected =
-                cameraUploadsRecordList1.filterNot { it.mediaId == 1111L && it.timestamp == 1234L }
+            assertThat(
+                underTest(parentPath, listOf(mediaStoreFileType1), folderType, fileType, tempRoot)
+                    .toList()
+            ).containsExactly(records.take(2), records.drop(2)).inOrder()
+        }
 
-            assertThat(underTest(parentPath, types, folderType, fileType, tempRoot))
-                .isEqualTo(expected)
+    @Test
+    fun `test that an error is thrown if the Media Store cannot be read`() = runTest {
+        val parentPath = ""
+        val mediaStoreFileType1 = mock<MediaStoreFileType>()
+        val folderType = CameraUploadFolderType.Primary
+        val fileType = mock<CameraUploadsRecordType>()
+        val selectionQuery = "selectionQuery"
+        whenever(cameraUploadsRepository.getMediaSelectionQuery(parentPath))
+            .thenReturn(selectionQuery)
+        whenever(
+            cameraUploadsRepository.getMediaBatches(
+                mediaStoreFileType1,
+                selectionQuery,
+                RetrieveMediaFromMediaStoreUseCase.MEDIA_BATCH_SIZE,
+            )
+        ).thenReturn(flow { throw RuntimeException("error") })
+        whenever(cameraUploadsRepository.getCameraUploadsRecordIndex(folderType))
+            .thenReturn(CameraUploadsRecordIndex())
+
+        assertThrows<RuntimeException> {
+            underTest(parentPath, listOf(mediaStoreFileType1), folderType, fileType, "tempRoot")
+                .toList()
         }
+    }
 }
@@ -3,13 +3,16 @@ package mega.privacy.android.domain.usecase.camerauploads
 import app.cash.turbine.test
 import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.ExperimentalCoroutinesApi
+import kotlinx.coroutines.awaitCancellation
 import kotlinx.coroutines.flow.Flow
 import kotlinx.coroutines.flow.asFlow
 import kotlinx.coroutines.flow.collect
 import kotlinx.coroutines.flow.firstOrNull
 import kotlinx.coroutines.flow.flow
 import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.launch
 import kotlinx.coroutines.runBlocking
+import kotlinx.coroutines.test.advanceUntilIdle
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.entity.BatteryInfo
 import mega.privacy.android.domain.entity.CameraUploadsRecordType
@@ -44,10 +47,12 @@ import mega.privacy.android.domain.usecase.video.CompressVideoUseCase
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Nested
+import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
 import org.junit.jupiter.params.ParameterizedTest
 import org.junit.jupiter.params.provider.Arguments
 import org.junit.jupiter.params.provider.MethodSource
+import org.mockito.kotlin.any
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.never
 import org.mockito.kotlin.reset
@@ -57,6 +62,7 @@ import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 import java.io.File
 import java.io.FileNotFoundException
+import java.util.concurrent.atomic.AtomicInteger
 import java.util.stream.Stream
 
 /**
@@ -266,6 +272,61 @@ internal class UploadCameraUploadsRecordsUseCaseTest {
         )
     }
 
+    @TestInstance(TestInstance.Lifecycle.PER_CLASS)
+    @Nested
+    inner class RecordsFlow {
+
+        @Test
+        fun `test that every record emitted by the flow of records is processed`() = runTest {
+            val records = (1L..20L).map {
+                record1.copy(mediaId = it, existsInTargetNode = true, existingNodeId = existingNodeId)
+            }
+
+            underTest(
+                records.asFlow(),
+                primaryUploadNodeId,
+                secondaryUploadNodeId,
+                tempRoot,
+            ).collect()
+
+            records.forEach {
+                verify(setCameraUploadsRecordUploadStatusUseCase).invoke(
+                    mediaId = it.mediaId,
+                    timestamp = it.timestamp,
+                    folderType = it.folderType,
+                    uploadStatus = CameraUploadsRecordUploadStatus.ALREADY_EXISTS,
+                )
+            }
+        }
+
+        @Test
+        fun `test that the flow of records is not collected further while the concurrent uploads limit is reached`() =
+            runTest {
+                val collectedCount = AtomicInteger(0)
+                val records = flow {
+                    (1L..20L).forEach {
+                        emit(record1.copy(mediaId = it, existingNodeId = null))
+                        collectedCount.incrementAndGet()
+                    }
+                }
+                whenever(startUploadUseCase(any(), any(), any(), any(), any(), any(), any()))
+                    .thenReturn(flow { awaitCancellation() })
+
+                val job = launch {
+                    underTest(
+                        records,
+                        primaryUploadNodeId,
+                        secondaryUploadNodeId,
+                        tempRoot,
+                    ).collect()
+                }
+                advanceUntilIdle()
+
+                assertThat(collectedCount.get()).isAtMost(8)
+                job.cancel()
+            }
+    }
+
     @TestInstance(TestInstance.Lifecycle.PER_CLASS)
     @Nested
     inner class Copy {
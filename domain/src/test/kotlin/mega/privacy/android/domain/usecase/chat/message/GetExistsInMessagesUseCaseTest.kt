@@ -1,26 +1,27 @@
 package mega.privacy.android.domain.usecase.chat.message
 
-import com.google.common.truth.Truth
+import com.google.common.truth.Truth.assertThat
 import kotlinx.coroutines.test.runTest
 import mega.privacy.android.domain.repository.chat.ChatMessageRepository
 import org.junit.jupiter.api.AfterEach
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
-import org.mockito.Mockito.mock
+import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 
 @TestInstance(TestInstance.Lifecycle.PER_CLASS)
-class GetExistsInMessageUseCaseTest {
+class GetExistsInMessagesUseCaseTest {
 
-    private lateinit var underTest: GetExistsInMessageUseCase
+    private lateinit var underTest: GetExistsInMessagesUseCase
 
     private val chatMessageRepository = mock<ChatMessageRepository>()
 
     @BeforeEach
     fun setup() {
-        underTest = GetExistsInMessageUseCase(
+        underTest = GetExistsInMessagesUseCase(
             chatMessageRepository = chatMessageRepository,
         )
     }
@@ -31,10 +32,18 @@ class GetExistsInMessageUseCaseTest {
     }
 
     @Test
-    fun `test that get exists in message invokes correctly`() = runTest {
+    fun `test that get exists in messages returns the repository result`() = runTest {
         val chatId = 123L
-        val msgId = 456L
-        whenever(chatMessageRepository.getExistsInMessage(chatId, msgId)).thenReturn(true)
-        Truth.assertThat(underTest.invoke(chatId, msgId)).isEqualTo(true)
+        val expected = mapOf(456L to true, 789L to false)
+        whenever(chatMessageRepository.getExistsInMessages(chatId, listOf(456L, 789L)))
+            .thenReturn(expected)
+
+        assertThat(underTest(chatId, listOf(456L, 789L))).isEqualTo(expected)
+    }
+
+    @Test
+    fun `test that the repository is not queried for an empty list`() = runTest {
+        assertThat(underTest(123L, emptyList())).isEmpty()
+        verifyNoInteractions(chatMessageRepository)
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,146 @@
+package mega.privacy.android.domain.usecase.chat.message.paging
+
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.ChatRoomPermission
+import mega.privacy.android.domain.entity.chat.ChatMessage
+import mega.privacy.android.domain.entity.chat.ChatMessageCode
+import mega.privacy.android.domain.entity.chat.ChatMessageStatus
+import mega.privacy.android.domain.entity.chat.ChatMessageTermCode
+import mega.privacy.android.domain.entity.chat.ChatMessageType
+import mega.privacy.android.domain.entity.chat.messages.request.CreateTypedMessageRequest
+import mega.privacy.android.domain.entity.node.FileNode
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.repository.NodeRepository
+import mega.privacy.android.domain.repository.chat.ChatMessageRepository
+import mega.privacy.android.domain.usecase.chat.message.GetExistsInMessagesUseCase
+import mega.privacy.android.domain.usecase.chat.message.reactions.GetReactionsUseCase
+import mega.privacy.android.domain.usecase.node.DoesNodeExistUseCase
+import org.junit.jupiter.api.Tag
+import org.junit.jupiter.api.Test
+import org.mockito.kotlin.any
+import org.mockito.kotlin.doReturn
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.onBlocking
+import kotlin.time.Duration.Companion.seconds
+
+/**
+ * Micro benchmark comparing the cost per message of [CreateSaveMessageRequestUseCase], which reads
+ * the existence of the attachments in bulk, with mapping every message on its own, for loads of up
+ * to 10k messages.
+ *
+ * It is only run with the includeBenchmarks Gradle property, as the timings depend on the machine.
+ */
+@Tag("benchmark")
+class CreateSaveMessageRequestUseCaseBenchmarkTest {
+
+    private val chatId = 1L
+
+    private val chatMessageRepository = mock<ChatMessageRepository> {
+        onBlocking { getExistsInMessage(any(), any()) } doReturn true
+        onBlocking { getExistsInMessages(any(), any()) }.thenAnswer { invocation ->
+            invocation.getArgument<List<Long>>(1).associateWith { it % 7 != 0L }
+        }
+        onBlocking { getMessageReactions(any(), any()) } doReturn emptyList()
+    }
+
+    private val nodeRepository = mock<NodeRepository> {
+        onBlocking { doesNodeExist(any()) } doReturn true
+    }
+
+    private val getReactionsUseCase = GetReactionsUseCase(chatMessageRepository)
+
+    private val doesNodeExistUseCase = DoesNodeExistUseCase(nodeRepository)
+
+    private val underTest = CreateSaveMessageRequestUseCase(
+        getReactionsUseCase = getReactionsUseCase,
+        doesNodeExistUseCase = doesNodeExistUseCase,
+        getExistsInMessagesUseCase = GetExistsInMessagesUseCase(chatMessageRepository),
+    )
+
+    private val nodes = List(NODES) { index ->
+        mock<FileNode> { on { id } doReturn NodeId(index.toLong()) }
+    }
+
+    @Test
+    fun `benchmark the cost per message of loads of up to 10k messages`() = runTest {
+        listOf(1_000, 10_000).forEach { size ->
+            val messages = createMessages(size)
+            // warm up
+            underTest(chatId, messages, MY_HANDLE)
+            mapEachMessage(messages)
+
+            val bulkNanos = measure { underTest(chatId, messages, MY_HANDLE) } / size
+            val eachNanos = measure { mapEachMessage(messages) } / size
+
+            println(
+                "messages: $size, bulk: $bulkNanos ns/message, " +
+                        "per message: $eachNanos ns/message"
+            )
+        }
+    }
+
+    private suspend fun mapEachMessage(messages: List<ChatMessage>) = messages.map { message ->
+        val isMine = message.userHandle == MY_HANDLE
+        val exists = message.nodeList.firstOrNull()?.let {
+            if (isMine) {
+                doesNodeExistUseCase(it.id)
+            } else {
+                chatMessageRepository.getExistsInMessage(chatId, message.messageId)
+            }
+        } ?: true
+        CreateTypedMessageRequest(
+            chatMessage = message,
+            chatId = chatId,
+            isMine = isMine,
+            reactions = emptyList(),
+            exists = exists,
+        )
+    }
+
+    private inline fun measure(block: () -> Unit): Long {
+        val start = System.nanoTime()
+        block()
+        return System.nanoTime() - start
+    }
+
+    private fun createMessages(size: Int) = List(size) { index ->
+        val hasAttachment = index % 3 == 0
+        ChatMessage(
+            status = ChatMessageStatus.SEEN,
+            messageId = index.toLong(),
+            tempId = -1L,
+            msgIndex = index,
+            userHandle = if (index % 2 == 0) MY_HANDLE else OTHER_HANDLE,
+            type = if (hasAttachment) ChatMessageType.NODE_ATTACHMENT else ChatMessageType.NORMAL,
+            hasConfirmedReactions = false,
+            timestamp = index.toLong(),
+            content = "Message $index",
+            isEdited = false,
+            isDeleted = false,
+            isEditable = true,
+            isDeletable = true,
+            isManagementMessage = false,
+            handleOfAction = -1L,
+            privilege = ChatRoomPermission.Standard,
+            code = ChatMessageCode.UNKNOWN,
+            usersCount = 0L,
+            userHandles = emptyList(),
+            userNames = emptyList(),
+            userEmails = emptyList(),
+            nodeList = if (hasAttachment) listOf(nodes[index % NODES]) else emptyList(),
+            handleList = emptyList(),
+            duration = 0.seconds,
+            retentionTime = 0L,
+            termCode = ChatMessageTermCode.ENDED,
+            rowId = -1L,
+            changes = emptyList(),
+            containsMeta = null,
+        )
+    }
+
+    private companion object {
+        const val MY_HANDLE = 1L
+        const val OTHER_HANDLE = 2L
+        const val NODES = 100
+    }
+}
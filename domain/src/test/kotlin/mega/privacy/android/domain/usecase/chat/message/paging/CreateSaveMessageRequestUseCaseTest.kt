@@ -6,7 +6,7 @@ import mega.privacy.android.domain.entity.chat.ChatMessage
 import mega.privacy.android.domain.entity.chat.messages.reactions.Reaction
 import mega.privacy.android.domain.entity.node.Node
 import mega.privacy.android.domain.entity.node.NodeId
-import mega.privacy.android.domain.usecase.chat.message.GetExistsInMessageUseCase
+import mega.privacy.android.domain.usecase.chat.message.GetExistsInMessagesUseCase
 import mega.privacy.android.domain.usecase.chat.message.reactions.GetReactionsUseCase
 import mega.privacy.android.domain.usecase.node.DoesNodeExistUseCase
 import org.junit.jupiter.api.BeforeAll
@@ -18,6 +18,7 @@ import org.junit.jupiter.params.provider.ValueSource
 import org.mockito.kotlin.doReturn
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
 import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 
@@ -28,7 +29,7 @@ class CreateSaveMessageRequestUseCaseTest {
 
     private val getReactionsUseCase = mock<GetReactionsUseCase>()
     private val doesNodeExistUseCase = mock<DoesNodeExistUseCase>()
-    private val getExistsInMessageUseCase = mock<GetExistsInMessageUseCase>()
+    private val getExistsInMessagesUseCase = mock<GetExistsInMessagesUseCase>()
 
     private val myHandle = 123L
     private val chatId = 456L
@@ -38,7 +39,7 @@ class CreateSaveMessageRequestUseCaseTest {
         underTest = CreateSaveMessageRequestUseCase(
             getReactionsUseCase,
             doesNodeExistUseCase,
-            getExistsInMessageUseCase
+            getExistsInMessagesUseCase
         )
     }
 
@@ -47,7 +48,7 @@ class CreateSaveMessageRequestUseCaseTest {
         reset(
             getReactionsUseCase,
             doesNodeExistUseCase,
-            getExistsInMessageUseCase,
+            getExistsInMessagesUseCase,
         )
     }
 
@@ -113,7 +114,7 @@ class CreateSaveMessageRequestUseCaseTest {
             on { nodeList } doReturn listOf(node)
             on { userHandle } doReturn 789L
         }
-        whenever(getExistsInMessageUseCase(chatId, msgId)).thenReturn(exists)
+        whenever(getExistsInMessagesUseCase(chatId, listOf(msgId))).thenReturn(mapOf(msgId to exists))
         val actual = underTest(
             chatId = chatId,
             chatMessages = listOf(message),
@@ -144,6 +145,29 @@ class CreateSaveMessageRequestUseCaseTest {
         assertThat(actual.map { it.exists }).containsExactly(exists)
     }
 
+    @Test
+    fun `test that the existence of a node attached by me is only checked once`() = runTest {
+        val nodeId = NodeId(123L)
+        val node = mock<Node> {
+            on { id }.thenReturn(nodeId)
+        }
+        val messages = List(3) {
+            mock<ChatMessage> {
+                on { nodeList } doReturn listOf(node)
+                on { userHandle } doReturn myHandle
+            }
+        }
+        whenever(doesNodeExistUseCase(nodeId)).thenReturn(true)
+
+        underTest(
+            chatId = chatId,
+            chatMessages = messages,
+            currentUserHandle = myHandle,
+        )
+
+        verify(doesNodeExistUseCase).invoke(nodeId)
+    }
+
     @Test
     internal fun `test that an empty list completes successfully`() = runTest {
         val actual = underTest(
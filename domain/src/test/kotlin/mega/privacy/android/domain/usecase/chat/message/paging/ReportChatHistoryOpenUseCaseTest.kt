@@ -0,0 +1,44 @@
+package mega.privacy.android.domain.usecase.chat.message.paging
+
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.inOrder
+import org.mockito.kotlin.mock
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReportChatHistoryOpenUseCaseTest {
+    private lateinit var underTest: ReportChatHistoryOpenUseCase
+
+    private val performanceReporterRepository = mock<PerformanceReporterRepository>()
+
+    @BeforeAll
+    fun setUp() {
+        underTest = ReportChatHistoryOpenUseCase(performanceReporterRepository)
+    }
+
+    @Test
+    fun `test that the open metrics are reported in a trace`() {
+        underTest(
+            timeToFirstMessageMillis = 120L,
+            fetchedCount = 40,
+            refetchedCount = 32,
+            isResumed = true,
+        )
+
+        with(inOrder(performanceReporterRepository)) {
+            val trace = ReportChatHistoryOpenUseCase.CHAT_HISTORY_OPEN_TRACE
+            verify(performanceReporterRepository).startTrace(trace)
+            verify(performanceReporterRepository)
+                .putAttribute(trace, ReportChatHistoryOpenUseCase.RESUMED_ATTRIBUTE, "true")
+            verify(performanceReporterRepository)
+                .putMetric(trace, ReportChatHistoryOpenUseCase.TIME_TO_FIRST_MESSAGE_METRIC, 120L)
+            verify(performanceReporterRepository)
+                .putMetric(trace, ReportChatHistoryOpenUseCase.FETCHED_METRIC, 40L)
+            verify(performanceReporterRepository)
+                .putMetric(trace, ReportChatHistoryOpenUseCase.REFETCHED_METRIC, 32L)
+            verify(performanceReporterRepository).stopTrace(trace)
+        }
+    }
+}
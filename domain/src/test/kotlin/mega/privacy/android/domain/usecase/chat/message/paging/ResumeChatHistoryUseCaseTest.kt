@@ -0,0 +1,176 @@
+package mega.privacy.android.domain.usecase.chat.message.paging
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.chat.ChatHistoryLoadStatus
+import mega.privacy.android.domain.entity.chat.ChatMessage
+import mega.privacy.android.domain.entity.chat.ChatMessageType
+import mega.privacy.android.domain.entity.chat.messages.paging.FetchMessagePageResponse
+import mega.privacy.android.domain.entity.chat.messages.paging.ResumeChatHistoryResult
+import mega.privacy.android.domain.repository.chat.ChatMessageRepository
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.inOrder
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ResumeChatHistoryUseCaseTest {
+    private lateinit var underTest: ResumeChatHistoryUseCase
+
+    private val fetchMessagePageUseCase = mock<FetchMessagePageUseCase>()
+    private val saveChatMessagesUseCase = mock<SaveChatMessagesUseCase>()
+    private val clearChatMessagesUseCase = mock<ClearChatMessagesUseCase>()
+    private val chatMessageRepository = mock<ChatMessageRepository>()
+
+    private val chatId = 123L
+
+    @BeforeAll
+    fun setUp() {
+        underTest = ResumeChatHistoryUseCase(
+            fetchMessagePageUseCase = fetchMessagePageUseCase,
+            saveChatMessagesUseCase = saveChatMessagesUseCase,
+            clearChatMessagesUseCase = clearChatMessagesUseCase,
+            chatMessageRepository = chatMessageRepository,
+        )
+    }
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(
+            fetchMessagePageUseCase,
+            saveChatMessagesUseCase,
+            clearChatMessagesUseCase,
+            chatMessageRepository,
+        )
+    }
+
+    private fun createMessages(
+        vararg timestamps: Long,
+        type: ChatMessageType = ChatMessageType.NORMAL,
+    ) = timestamps.map { time ->
+        mock<ChatMessage> {
+            on { timestamp }.thenReturn(time)
+            on { this.type }.thenReturn(type)
+        }
+    }
+
+    private fun response(messages: List<ChatMessage>, status: ChatHistoryLoadStatus) =
+        FetchMessagePageResponse(chatId = chatId, messages = messages, loadResponse = status)
+
+    @Test
+    fun `test that pages are fetched until the overlap with the stored history`() = runTest {
+        val first = createMessages(50L, 40L)
+        val second = createMessages(30L, 20L)
+        val third = createMessages(10L)
+        whenever(fetchMessagePageUseCase(any(), any())).thenReturn(
+            response(first, ChatHistoryLoadStatus.LOCAL),
+            response(second, ChatHistoryLoadStatus.LOCAL),
+            response(third, ChatHistoryLoadStatus.LOCAL),
+        )
+
+        val actual = underTest(
+            chatId = chatId,
+            newestStoredTimestamp = 30L,
+            overlap = 2,
+            messagesScope = this,
+        )
+
+        assertThat(actual).isEqualTo(
+            ResumeChatHistoryResult(fetchedCount = 4, refetchedCount = 2, isEndOfHistory = false)
+        )
+        verify(saveChatMessagesUseCase).invoke(chatId, first)
+        verify(saveChatMessagesUseCase).invoke(chatId, second)
+        verify(fetchMessagePageUseCase, times(2)).invoke(any(), any())
+        verify(clearChatMessagesUseCase, never()).invoke(any(), any())
+    }
+
+    @Test
+    fun `test that the stored history is truncated if a truncate message is fetched`() = runTest {
+        val messages = createMessages(50L)
+        val truncate = createMessages(45L, type = ChatMessageType.TRUNCATE)
+        whenever(fetchMessagePageUseCase(any(), any())).thenReturn(
+            response(messages + truncate, ChatHistoryLoadStatus.LOCAL),
+        )
+
+        val actual = underTest(
+            chatId = chatId,
+            newestStoredTimestamp = 30L,
+            overlap = 2,
+            messagesScope = this,
+        )
+
+        assertThat(actual.isEndOfHistory).isTrue()
+        verify(chatMessageRepository).truncateMessages(chatId, 45L)
+        verify(clearChatMessagesUseCase, never()).invoke(any(), any())
+        verify(saveChatMessagesUseCase).invoke(chatId, messages + truncate)
+    }
+
+    @Test
+    fun `test that the pages saved before a truncate message in a later page are kept`() =
+        runTest {
+            val first = createMessages(70L, 60L)
+            val second = createMessages(55L)
+            val truncate = createMessages(50L, type = ChatMessageType.TRUNCATE)
+            whenever(fetchMessagePageUseCase(any(), any())).thenReturn(
+                response(first, ChatHistoryLoadStatus.LOCAL),
+                response(second + truncate, ChatHistoryLoadStatus.LOCAL),
+            )
+
+            val actual = underTest(
+                chatId = chatId,
+                newestStoredTimestamp = 30L,
+                overlap = 2,
+                messagesScope = this,
+            )
+
+            assertThat(actual.isEndOfHistory).isTrue()
+            inOrder(saveChatMessagesUseCase, chatMessageRepository) {
+                verify(saveChatMessagesUseCase).invoke(chatId, first)
+                verify(chatMessageRepository).truncateMessages(chatId, 50L)
+                verify(saveChatMessagesUseCase).invoke(chatId, second + truncate)
+            }
+            verify(clearChatMessagesUseCase, never()).invoke(any(), any())
+        }
+
+    @Test
+    fun `test that the stored messages older than the history are removed`() = runTest {
+        whenever(fetchMessagePageUseCase(any(), any())).thenReturn(
+            response(createMessages(50L, 40L), ChatHistoryLoadStatus.NONE),
+        )
+
+        val actual = underTest(
+            chatId = chatId,
+            newestStoredTimestamp = 30L,
+            overlap = 2,
+            messagesScope = this,
+        )
+
+        assertThat(actual.isEndOfHistory).isTrue()
+        verify(chatMessageRepository).truncateMessages(chatId, 39L)
+    }
+
+    @Test
+    fun `test that the stored history is cleared if the history is empty`() = runTest {
+        whenever(fetchMessagePageUseCase(any(), any())).thenReturn(
+            response(emptyList(), ChatHistoryLoadStatus.NONE),
+        )
+
+        underTest(
+            chatId = chatId,
+            newestStoredTimestamp = 30L,
+            overlap = 2,
+            messagesScope = this,
+        )
+
+        verify(clearChatMessagesUseCase).invoke(chatId, false)
+        verify(saveChatMessagesUseCase, never()).invoke(any(), any())
+    }
+}
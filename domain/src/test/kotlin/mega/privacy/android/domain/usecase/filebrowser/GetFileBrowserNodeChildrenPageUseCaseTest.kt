@@ -0,0 +1,91 @@
+package mega.privacy.android.domain.usecase.filebrowser
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.SortOrder
+import mega.privacy.android.domain.entity.node.DefaultTypedFolderNode
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.TypedFolderNode
+import mega.privacy.android.domain.repository.NodeRepository
+import mega.privacy.android.domain.usecase.GetCloudSortOrder
+import mega.privacy.android.domain.usecase.GetRootNodeUseCase
+import mega.privacy.android.domain.usecase.node.AddNodesTypeUseCase
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class GetFileBrowserNodeChildrenPageUseCaseTest {
+    private lateinit var underTest: GetFileBrowserNodeChildrenPageUseCase
+
+    private val getRootNodeUseCase: GetRootNodeUseCase = mock()
+    private val getCloudSortOrder: GetCloudSortOrder = mock()
+    private val nodeRepository: NodeRepository = mock()
+    private val addNodesTypeUseCase: AddNodesTypeUseCase = mock()
+
+    @BeforeEach
+    fun setUp() {
+        reset(getRootNodeUseCase, getCloudSortOrder, nodeRepository, addNodesTypeUseCase)
+        underTest = GetFileBrowserNodeChildrenPageUseCase(
+            getRootNodeUseCase = getRootNodeUseCase,
+            getCloudSortOrder = getCloudSortOrder,
+            nodeRepository = nodeRepository,
+            addNodesTypeUseCase = addNodesTypeUseCase,
+        )
+    }
+
+    @Test
+    fun `test that the page of the children of the parent handle is returned`() = runTest {
+        val handle = 1234L
+        val nodes = listOf(mock<DefaultTypedFolderNode>())
+        whenever(nodeRepository.getInvalidHandle()).thenReturn(-1L)
+        whenever(getCloudSortOrder()).thenReturn(SortOrder.ORDER_DEFAULT_ASC)
+        whenever(
+            nodeRepository.getNodeChildrenPage(
+                nodeId = NodeId(handle),
+                order = SortOrder.ORDER_DEFAULT_ASC,
+                offset = 100,
+                size = 50,
+            )
+        ).thenReturn(nodes)
+        whenever(addNodesTypeUseCase(nodes)).thenReturn(nodes)
+
+        assertThat(underTest(handle, offset = 100, size = 50)).isEqualTo(nodes)
+    }
+
+    @Test
+    fun `test that the page of the children of the root node is returned when the parent handle is invalid`() =
+        runTest {
+            val rootNode = mock<TypedFolderNode> {
+                on { id }.thenReturn(NodeId(1L))
+            }
+            whenever(nodeRepository.getInvalidHandle()).thenReturn(-1L)
+            whenever(getRootNodeUseCase()).thenReturn(rootNode)
+            whenever(getCloudSortOrder()).thenReturn(SortOrder.ORDER_DEFAULT_ASC)
+            whenever(addNodesTypeUseCase(any())).thenReturn(emptyList())
+
+            underTest(-1L, offset = 0, size = 50)
+
+            verify(nodeRepository).getNodeChildrenPage(
+                nodeId = NodeId(1L),
+                order = SortOrder.ORDER_DEFAULT_ASC,
+                offset = 0,
+                size = 50,
+            )
+        }
+
+    @Test
+    fun `test that the page is empty when there is no root node`() = runTest {
+        whenever(nodeRepository.getInvalidHandle()).thenReturn(-1L)
+        whenever(getRootNodeUseCase()).thenReturn(null)
+
+        assertThat(underTest(-1L, offset = 0, size = 50)).isEmpty()
+        verify(nodeRepository, never()).getNodeChildrenPage(any(), any(), any(), any())
+    }
+}
@@ -0,0 +1,48 @@
+package mega.privacy.android.domain.usecase.monitoring
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.monitoring.PerformanceReportFormat
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.EnumSource
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.whenever
+import java.io.File
+
+/**
+ * Test class for [ExportPerformanceReportUseCase]
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ExportPerformanceReportUseCaseTest {
+
+    private lateinit var underTest: ExportPerformanceReportUseCase
+
+    private val performanceReporterRepository = mock<PerformanceReporterRepository>()
+
+    @BeforeAll
+    fun setUp() {
+        underTest = ExportPerformanceReportUseCase(
+            performanceReporterRepository = performanceReporterRepository,
+        )
+    }
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(performanceReporterRepository)
+    }
+
+    @ParameterizedTest(name = "format: {0}")
+    @EnumSource(PerformanceReportFormat::class)
+    fun `test that the report of the repository is returned`(format: PerformanceReportFormat) =
+        runTest {
+            val file = File("performance")
+            whenever(performanceReporterRepository.exportReport(format)).thenReturn(file)
+
+            assertThat(underTest(format)).isEqualTo(file)
+        }
+}
@@ -0,0 +1,48 @@
+package mega.privacy.android.domain.usecase.pdf
+
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.inOrder
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verifyNoInteractions
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReportPdfRenderingUseCaseTest {
+
+    private val performanceReporterRepository = mock<PerformanceReporterRepository>()
+
+    private val underTest = ReportPdfRenderingUseCase(performanceReporterRepository)
+
+    private val trace = ReportPdfRenderingUseCase.PDF_RENDERING_TRACE
+
+    @BeforeEach
+    fun setUp() {
+        reset(performanceReporterRepository)
+    }
+
+    @Test
+    fun `test that the rendering throughput is reported in a trace`() {
+        underTest(renderedParts = 120, partsPerSecond = 41.6f, droppedTasks = 7)
+
+        with(inOrder(performanceReporterRepository)) {
+            verify(performanceReporterRepository).startTrace(trace)
+            verify(performanceReporterRepository)
+                .putMetric(trace, ReportPdfRenderingUseCase.RENDERED_PARTS_METRIC, 120L)
+            verify(performanceReporterRepository)
+                .putMetric(trace, ReportPdfRenderingUseCase.PARTS_PER_SECOND_METRIC, 42L)
+            verify(performanceReporterRepository)
+                .putMetric(trace, ReportPdfRenderingUseCase.DROPPED_TASKS_METRIC, 7L)
+            verify(performanceReporterRepository).stopTrace(trace)
+        }
+    }
+
+    @Test
+    fun `test that nothing is reported if nothing was rendered nor dropped`() {
+        underTest(renderedParts = 0, partsPerSecond = 0f, droppedTasks = 0)
+
+        verifyNoInteractions(performanceReporterRepository)
+    }
+}
@@ -0,0 +1,45 @@
+package mega.privacy.android.domain.usecase.photos
+
+import app.cash.turbine.test
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.photos.Photo
+import mega.privacy.android.domain.entity.photos.PhotoDelta
+import mega.privacy.android.domain.repository.PhotosRepository
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.whenever
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class MonitorTimelinePhotoChangesUseCaseTest {
+    private lateinit var underTest: MonitorTimelinePhotoChangesUseCase
+
+    private val photosRepository = mock<PhotosRepository>()
+
+    @BeforeAll
+    fun setUp() {
+        underTest = MonitorTimelinePhotoChangesUseCase(
+            photosRepository = photosRepository,
+        )
+    }
+
+    @Test
+    fun `test that the changes of the photos are returned`() = runTest {
+        val photo = mock<Photo.Image>()
+        val reset = PhotoDelta.Reset(listOf(photo))
+        val changes = PhotoDelta.Changes(
+            upsertedPhotos = emptyList(),
+            removedPhotoIds = listOf(1L),
+        )
+        whenever(photosRepository.monitorPhotoChanges()).thenReturn(flowOf(reset, changes))
+
+        underTest().test {
+            assertThat(awaitItem()).isEqualTo(reset)
+            assertThat(awaitItem()).isEqualTo(changes)
+            awaitComplete()
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package mega.privacy.android.domain.usecase.search
+
+import mega.privacy.android.domain.repository.monitoring.PerformanceReporterRepository
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.mockito.kotlin.any
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.inOrder
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class ReportSearchQueryUseCaseTest {
+
+    private val performanceReporterRepository = mock<PerformanceReporterRepository>()
+
+    private val underTest = ReportSearchQueryUseCase(performanceReporterRepository)
+
+    private val trace = ReportSearchQueryUseCase.SEARCH_QUERY_TRACE
+
+    @BeforeEach
+    fun setUp() {
+        reset(performanceReporterRepository)
+    }
+
+    @Test
+    fun `test that the latency of a completed query is reported in a trace`() {
+        underTest(
+            timeToFirstResultsMillis = 40L,
+            timeToAllResultsMillis = 300L,
+            resultCount = 120,
+            isRefined = false,
+        )
+
+        with(inOrder(performanceReporterRepository)) {
+            verify(performanceReporterRepository).startTrace(trace)
+            verify(performanceReporterRepository)
+                .putAttribute(trace, ReportSearchQueryUseCase.REFINED_ATTRIBUTE, "false")
+            verify(performanceReporterRepository)
+                .putAttribute(trace, ReportSearchQueryUseCase.SUPERSEDED_ATTRIBUTE, "false")
+            verify(performanceReporterRepository)
+                .putMetric(trace, ReportSearchQueryUseCase.TIME_TO_FIRST_RESULTS_METRIC, 40L)
+            verify(performanceReporterRepository)
+                .putMetric(trace, ReportSearchQueryUseCase.TIME_TO_ALL_RESULTS_METRIC, 300L)
+            verify(performanceReporterRepository)
+                .putMetric(trace, ReportSearchQueryUseCase.RESULTS_METRIC, 120L)
+            verify(performanceReporterRepository).stopTrace(trace)
+        }
+    }
+
+    @Test
+    fun `test that a superseded query is reported without the time to all the results`() {
+        underTest(
+            timeToFirstResultsMillis = null,
+            timeToAllResultsMillis = null,
+            resultCount = 0,
+            isRefined = true,
+        )
+
+        verify(performanceReporterRepository)
+            .putAttribute(trace, ReportSearchQueryUseCase.REFINED_ATTRIBUTE, "true")
+        verify(performanceReporterRepository)
+            .putAttribute(trace, ReportSearchQueryUseCase.SUPERSEDED_ATTRIBUTE, "true")
+        verify(performanceReporterRepository, never())
+            .putMetric(eq(trace), eq(ReportSearchQueryUseCase.TIME_TO_FIRST_RESULTS_METRIC), any())
+        verify(performanceReporterRepository, never())
+            .putMetric(eq(trace), eq(ReportSearchQueryUseCase.TIME_TO_ALL_RESULTS_METRIC), any())
+        verify(performanceReporterRepository)
+            .putMetric(trace, ReportSearchQueryUseCase.RESULTS_METRIC, 0L)
+    }
+}
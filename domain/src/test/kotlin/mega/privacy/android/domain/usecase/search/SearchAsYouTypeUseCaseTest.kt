@@ -0,0 +1,260 @@
+package mega.privacy.android.domain.usecase.search
+
+import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.delay
+import kotlinx.coroutines.flow.toList
+import kotlinx.coroutines.launch
+import kotlinx.coroutines.test.advanceTimeBy
+import kotlinx.coroutines.test.runCurrent
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.node.NodeId
+import mega.privacy.android.domain.entity.node.NodeSourceType
+import mega.privacy.android.domain.entity.node.TypedFileNode
+import mega.privacy.android.domain.entity.node.TypedNode
+import mega.privacy.android.domain.entity.search.SearchCategory
+import mega.privacy.android.domain.entity.search.SearchParameters
+import mega.privacy.android.domain.entity.search.SearchResults
+import mega.privacy.android.domain.monitoring.CrashReporter
+import mega.privacy.android.domain.usecase.canceltoken.CancelCancelTokenUseCase
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.Test
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.Arguments
+import org.junit.jupiter.params.provider.MethodSource
+import org.mockito.kotlin.any
+import org.mockito.kotlin.anyOrNull
+import org.mockito.kotlin.doSuspendableAnswer
+import org.mockito.kotlin.eq
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.never
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.times
+import org.mockito.kotlin.verify
+import org.mockito.kotlin.whenever
+import java.util.stream.Stream
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class SearchAsYouTypeUseCaseTest {
+
+    private val searchUseCase: SearchUseCase = mock()
+    private val cancelCancelTokenUseCase: CancelCancelTokenUseCase = mock()
+    private val reportSearchQueryUseCase: ReportSearchQueryUseCase = mock()
+    private val crashReporter: CrashReporter = mock()
+
+    private val underTest = SearchAsYouTypeUseCase(
+        searchUseCase = searchUseCase,
+        cancelCancelTokenUseCase = cancelCancelTokenUseCase,
+        reportSearchQueryUseCase = reportSearchQueryUseCase,
+        crashReporter = crashReporter,
+    )
+
+    private val parentHandle = NodeId(1L)
+    private val nodeSourceType = NodeSourceType.CLOUD_DRIVE
+
+    private val photo = createNode("Photo.jpg")
+    private val phone = createNode("phone.pdf")
+    private val video = createNode("video.mp4", description = "photo of the trip")
+    private val nodes = listOf(photo, phone, video)
+
+    @BeforeEach
+    fun setUp() {
+        reset(
+            searchUseCase,
+            cancelCancelTokenUseCase,
+            reportSearchQueryUseCase,
+            crashReporter,
+        )
+    }
+
+    private fun createNode(
+        name: String,
+        description: String? = null,
+        tags: List<String>? = null,
+    ) = mock<TypedFileNode> {
+        on { this.name }.thenReturn(name)
+        on { this.description }.thenReturn(description)
+        on { this.tags }.thenReturn(tags)
+    }
+
+    private fun createResults(
+        parameters: SearchParameters,
+        nodes: List<TypedNode>,
+        isComplete: Boolean = true,
+    ) = SearchResults(
+        parentHandle = parentHandle,
+        nodeSourceType = nodeSourceType,
+        parameters = parameters,
+        nodes = nodes,
+        isComplete = isComplete,
+    )
+
+    @Test
+    fun `test that a refining query filters the previous results without searching`() = runTest {
+        val previousResults = createResults(SearchParameters(query = "ph"), nodes)
+        val parameters = SearchParameters(query = "PHO")
+
+        val actual = underTest(parentHandle, nodeSourceType, parameters, previousResults).toList()
+
+        assertThat(actual).containsExactly(createResults(parameters, listOf(photo, phone)))
+        verify(searchUseCase, never()).invoke(NodeId(any()), any(), any(), any(), anyOrNull())
+        verify(cancelCancelTokenUseCase, never()).invoke()
+        verify(reportSearchQueryUseCase).invoke(
+            timeToFirstResultsMillis = any(),
+            timeToAllResultsMillis = any(),
+            resultCount = eq(2),
+            isRefined = eq(true),
+        )
+    }
+
+    @Test
+    fun `test that a refining query with a description also matches the node descriptions`() =
+        runTest {
+            val previousResults = createResults(
+                SearchParameters(query = "pho", description = "pho"),
+                nodes,
+            )
+            val parameters = SearchParameters(query = "phot", description = "phot")
+
+            val actual = underTest(parentHandle, nodeSourceType, parameters, previousResults)
+                .toList()
+
+            assertThat(actual).containsExactly(createResults(parameters, listOf(photo, video)))
+        }
+
+    @ParameterizedTest(name = "previous results: {0}")
+    @MethodSource("provideNotRefinedResults")
+    fun `test that the query is searched if it does not refine the previous results`(
+        previousResults: SearchResults,
+    ) = runTest {
+        val parameters = SearchParameters(query = "phot")
+        whenever(searchUseCase(eq(parentHandle), eq(nodeSourceType), eq(parameters), any(), any()))
+            .thenReturn(listOf(photo))
+
+        val actual = underTest(parentHandle, nodeSourceType, parameters, previousResults).toList()
+
+        assertThat(actual.last()).isEqualTo(createResults(parameters, listOf(photo)))
+        verify(cancelCancelTokenUseCase).invoke()
+        verify(reportSearchQueryUseCase).invoke(
+            timeToFirstResultsMillis = any(),
+            timeToAllResultsMillis = any(),
+            resultCount = eq(1),
+            isRefined = eq(false),
+        )
+    }
+
+    private fun provideNotRefinedResults() = Stream.of(
+        Arguments.of(createResults(SearchParameters(query = "pho"), nodes, isComplete = false)),
+        Arguments.of(createResults(SearchParameters(query = "vid"), nodes)),
+        Arguments.of(createResults(SearchParameters(query = "phot"), nodes)),
+        Arguments.of(createResults(SearchParameters(query = ""), nodes)),
+        Arguments.of(
+            createResults(
+                SearchParameters(query = "pho", searchCategory = SearchCategory.IMAGES),
+                nodes,
+            )
+        ),
+        Arguments.of(
+            createResults(SearchParameters(query = "pho"), nodes).copy(parentHandle = NodeId(2L))
+        ),
+    )
+
+    @Test
+    fun `test that the first results are emitted before all the results are mapped`() = runTest {
+        val parameters = SearchParameters(query = "pho")
+        whenever(
+            searchUseCase(
+                eq(parentHandle),
+                eq(nodeSourceType),
+                eq(parameters),
+                eq(SearchAsYouTypeUseCase.FIRST_RESULTS_SIZE),
+                any(),
+            )
+        ).doSuspendableAnswer {
+            @Suppress("UNCHECKED_CAST")
+            val onFirstResults = it.arguments[4] as suspend (List<TypedNode>) -> Unit
+            onFirstResults(listOf(photo))
+            delay(1_000)
+            nodes
+        }
+
+        val actual = underTest(parentHandle, nodeSourceType, parameters, null).toList()
+
+        assertThat(actual).containsExactly(
+            createResults(parameters, listOf(photo), isComplete = false),
+            createResults(parameters, nodes),
+        ).inOrder()
+        verify(searchUseCase).invoke(NodeId(any()), any(), any(), any(), any())
+    }
+
+    @Test
+    fun `test that only the complete results are emitted if there are no first results`() =
+        runTest {
+            val parameters = SearchParameters(query = "pho")
+            whenever(searchUseCase(NodeId(any()), any(), any(), any(), any())).thenReturn(nodes)
+
+            val actual = underTest(parentHandle, nodeSourceType, parameters, null).toList()
+
+            assertThat(actual).containsExactly(createResults(parameters, nodes))
+        }
+
+    @Test
+    fun `test that a failure to report the query is logged without failing the search`() =
+        runTest {
+            val parameters = SearchParameters(query = "pho")
+            whenever(searchUseCase(NodeId(any()), any(), any(), any(), any())).thenReturn(nodes)
+            whenever(reportSearchQueryUseCase(anyOrNull(), anyOrNull(), any(), any()))
+                .thenThrow(IllegalStateException("error"))
+
+            val actual = underTest(parentHandle, nodeSourceType, parameters, null).toList()
+
+            assertThat(actual.last()).isEqualTo(createResults(parameters, nodes))
+            verify(crashReporter).log(any())
+        }
+
+    @Test
+    fun `test that a superseded query is cancelled in the SDK and reported`() = runTest {
+        val parameters = SearchParameters(query = "pho")
+        whenever(searchUseCase(NodeId(any()), any(), any(), any(), any())).doSuspendableAnswer {
+            delay(1_000)
+            nodes
+        }
+
+        val job = launch { underTest(parentHandle, nodeSourceType, parameters, null).toList() }
+        runCurrent()
+        job.cancel()
+        job.join()
+
+        // Once to start the search and once to cancel it
+        verify(cancelCancelTokenUseCase, times(2)).invoke()
+        verify(reportSearchQueryUseCase).invoke(
+            timeToFirstResultsMillis = anyOrNull(),
+            timeToAllResultsMillis = eq(null),
+            resultCount = eq(0),
+            isRefined = eq(false),
+        )
+    }
+
+    @Test
+    fun `test that a query typed after another one waits before searching`() = runTest {
+        val previousResults = createResults(SearchParameters(query = "vid"), nodes)
+        val parameters = SearchParameters(query = "pho")
+        whenever(searchUseCase(NodeId(any()), any(), any(), any(), any())).thenReturn(emptyList())
+
+        val job = launch {
+            underTest(parentHandle, nodeSourceType, parameters, previousResults).toList()
+        }
+        advanceTimeBy(SearchAsYouTypeUseCase.SEARCH_DEBOUNCE_MILLIS - 1)
+        verify(cancelCancelTokenUseCase, never()).invoke()
+        verify(searchUseCase, never()).invoke(NodeId(any()), any(), any(), any(), any())
+
+        job.join()
+        verify(searchUseCase).invoke(
+            eq(parentHandle),
+            eq(nodeSourceType),
+            eq(parameters),
+            eq(SearchAsYouTypeUseCase.FIRST_RESULTS_SIZE),
+            any(),
+        )
+    }
+}
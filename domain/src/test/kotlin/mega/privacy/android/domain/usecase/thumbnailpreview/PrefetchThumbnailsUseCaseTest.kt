@@ -0,0 +1,45 @@
+package mega.privacy.android.domain.usecase.thumbnailpreview
+
+import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.node.thumbnail.ThumbnailPrefetchPriority
+import mega.privacy.android.domain.repository.thumbnailpreview.ThumbnailPreviewRepository
+import org.junit.jupiter.api.BeforeAll
+import org.junit.jupiter.api.BeforeEach
+import org.junit.jupiter.api.TestInstance
+import org.junit.jupiter.params.ParameterizedTest
+import org.junit.jupiter.params.provider.EnumSource
+import org.mockito.kotlin.mock
+import org.mockito.kotlin.reset
+import org.mockito.kotlin.verify
+
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class PrefetchThumbnailsUseCaseTest {
+
+    private lateinit var underTest: PrefetchThumbnailsUseCase
+
+    private val thumbnailPreviewRepository = mock<ThumbnailPreviewRepository>()
+
+    @BeforeAll
+    fun setUp() {
+        underTest = PrefetchThumbnailsUseCase(
+            thumbnailPreviewRepository = thumbnailPreviewRepository,
+        )
+    }
+
+    @BeforeEach
+    fun resetMocks() {
+        reset(thumbnailPreviewRepository)
+    }
+
+    @ParameterizedTest(name = "with priority {0}")
+    @EnumSource(ThumbnailPrefetchPriority::class)
+    fun `test that the thumbnails are prefetched with the priority`(
+        priority: ThumbnailPrefetchPriority,
+    ) = runTest {
+        val handles = listOf(1L, 2L, 3L)
+
+        underTest(handles, priority)
+
+        verify(thumbnailPreviewRepository).prefetchThumbnails(handles, priority)
+    }
+}
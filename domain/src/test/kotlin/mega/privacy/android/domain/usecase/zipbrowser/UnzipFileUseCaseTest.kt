@@ -1,17 +1,18 @@
 package mega.privacy.android.domain.usecase.zipbrowser
 
 import com.google.common.truth.Truth.assertThat
+import kotlinx.coroutines.flow.flowOf
+import kotlinx.coroutines.flow.toList
 import kotlinx.coroutines.test.runTest
+import mega.privacy.android.domain.entity.zipbrowser.ZipProgress
 import mega.privacy.android.domain.repository.ZipBrowserRepository
 import org.junit.jupiter.api.BeforeAll
 import org.junit.jupiter.api.BeforeEach
 import org.junit.jupiter.api.Test
 import org.junit.jupiter.api.TestInstance
-import org.mockito.kotlin.anyOrNull
 import org.mockito.kotlin.mock
 import org.mockito.kotlin.reset
 import org.mockito.kotlin.verify
-import org.mockito.kotlin.verifyNoInteractions
 import org.mockito.kotlin.whenever
 import java.util.zip.ZipFile
 
@@ -21,6 +22,7 @@ class UnzipFileUseCaseTest {
     private val zipBrowserRepository = mock<ZipBrowserRepository>()
     private val testZipFile = mock<ZipFile>()
     private val testUnzipRootPath = "UnzipRootPath"
+    private val testPath = "folder"
 
     @BeforeAll
     fun setUp() {
@@ -33,58 +35,24 @@ class UnzipFileUseCaseTest {
     }
 
     @Test
-    fun `test that result is false when parameters are null`() =
+    fun `test that the progress of the repository is returned`() =
         runTest {
-            whenever(zipBrowserRepository.unzipFile(anyOrNull(), anyOrNull())).thenReturn(false)
-            assertThat(underTest(null, null)).isFalse()
-        }
+            val progress = listOf(ZipProgress(50, 100, 10), ZipProgress(100, 100, 20))
+            whenever(zipBrowserRepository.unzipFile(testZipFile, testUnzipRootPath, testPath))
+                .thenReturn(flowOf(*progress.toTypedArray()))
 
-    @Test
-    fun `test that result is false when parameters are not null`() =
-        runTest {
-            whenever(zipBrowserRepository.unzipFile(testZipFile, testUnzipRootPath)).thenReturn(
-                false
-            )
-            assertThat(underTest(testZipFile, testUnzipRootPath)).isFalse()
+            assertThat(underTest(testZipFile, testUnzipRootPath, testPath).toList())
+                .isEqualTo(progress)
         }
 
     @Test
-    fun `test that result is true`() =
+    fun `test that all the entries are extracted when the path is not set`() =
         runTest {
-            whenever(
-                zipBrowserRepository.unzipFile(
-                    testZipFile,
-                    testUnzipRootPath
-                )
-            ).thenReturn(true)
-            assertThat(underTest(testZipFile, testUnzipRootPath)).isTrue()
-        }
+            whenever(zipBrowserRepository.unzipFile(testZipFile, testUnzipRootPath, null))
+                .thenReturn(flowOf())
 
-    @Test
-    fun `test that the function is invoked as expected`() =
-        runTest {
-            underTest(testZipFile, testUnzipRootPath)
-            verify(zipBrowserRepository).unzipFile(testZipFile, testUnzipRootPath)
-        }
+            underTest(testZipFile, testUnzipRootPath).toList()
 
-    @Test
-    fun `test that the repository function is not called when zipFile is null`() =
-        runTest {
-            underTest(null, testUnzipRootPath)
-            verifyNoInteractions(zipBrowserRepository)
-        }
-
-    @Test
-    fun `test that the repository function is not called when unzipRootPath is null`() =
-        runTest {
-            underTest(testZipFile, null)
-            verifyNoInteractions(zipBrowserRepository)
-        }
-
-    @Test
-    fun `test that the repository function is not called when both zipFile and unzipRootPath are null`() =
-        runTest {
-            underTest(null, null)
-            verifyNoInteractions(zipBrowserRepository)
+            verify(zipBrowserRepository).unzipFile(testZipFile, testUnzipRootPath, null)
         }
-}
\ No newline at end of file
+}